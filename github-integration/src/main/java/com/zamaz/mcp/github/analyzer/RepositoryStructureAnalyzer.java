@@ -1,5 +1,6 @@
 package com.zamaz.mcp.github.analyzer;
 
+import com.zamaz.mcp.github.analyzer.ast.ASTAnalysisCache;
 import com.zamaz.mcp.github.analyzer.ast.ASTAnalyzer;
 import com.zamaz.mcp.github.analyzer.ast.JavaASTAnalyzer;
 import com.zamaz.mcp.github.analyzer.ast.PythonASTAnalyzer;
@@ -14,6 +15,7 @@ import com.zamaz.mcp.github.analyzer.model.*;
 import com.zamaz.mcp.github.service.GitHubApiClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -42,6 +44,19 @@ public class RepositoryStructureAnalyzer {
             CodeOrganizationAnalyzer codeOrganizationAnalyzer,
             ArchitecturePatternDetector architecturePatternDetector,
             StructureVisualizer structureVisualizer) {
+        this(apiClient, projectTypeDetector, dependencyAnalyzer, codeOrganizationAnalyzer,
+                architecturePatternDetector, structureVisualizer, null);
+    }
+
+    @Autowired
+    public RepositoryStructureAnalyzer(
+            GitHubApiClient apiClient,
+            ProjectTypeDetector projectTypeDetector,
+            DependencyAnalyzer dependencyAnalyzer,
+            CodeOrganizationAnalyzer codeOrganizationAnalyzer,
+            ArchitecturePatternDetector architecturePatternDetector,
+            StructureVisualizer structureVisualizer,
+            ASTAnalysisCache astAnalysisCache) {
         
         this.apiClient = apiClient;
         this.projectTypeDetector = projectTypeDetector;
@@ -52,7 +67,7 @@ public class RepositoryStructureAnalyzer {
         
         // Initialize AST analyzers
         this.astAnalyzers = new HashMap<>();
-        this.astAnalyzers.put("java", new JavaASTAnalyzer());
+        this.astAnalyzers.put("java", new JavaASTAnalyzer(astAnalysisCache));
         this.astAnalyzers.put("python", new PythonASTAnalyzer());
         this.astAnalyzers.put("javascript", new JavaScriptASTAnalyzer());
         this.astAnalyzers.put("typescript", new TypeScriptASTAnalyzer());
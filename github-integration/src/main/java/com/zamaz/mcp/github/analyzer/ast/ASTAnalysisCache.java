@@ -0,0 +1,299 @@
+package com.zamaz.mcp.github.analyzer.ast;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zamaz.mcp.github.analyzer.model.FileASTResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed on-disk cache of per-file AST analysis results
+ *
+ * Entries are keyed by the git blob SHA of the file content and the analyzer version, so an
+ * unchanged file is never parsed twice no matter which branch, PR or path it appears in, and
+ * bumping the analyzer version makes all older entries unreachable.
+ *
+ * A periodic sweep keeps the directory bounded: it deletes the entries of analyzer versions
+ * other than the one in use, entries unused for longer than the maximum age, and then the
+ * least recently used entries until the cache fits its size limit. Hits refresh an entry's
+ * modification time, so it doubles as its last use.
+ */
+@Component
+@Slf4j
+public class ASTAnalysisCache {
+
+    private static final Duration DEFAULT_MAX_AGE = Duration.ofDays(30);
+    private static final long DEFAULT_MAX_SIZE_BYTES = 1024L * 1024 * 1024;
+
+    // Temporary files this old belong to writes that never finished
+    private static final Duration ABANDONED_WRITE_AGE = Duration.ofHours(1);
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+    private final Duration maxAge;
+    private final long maxSizeBytes;
+
+    // Analyzer version in use per language, as seen in lookups and writes
+    private final Map<String, String> activeVersions = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Autowired
+    public ASTAnalysisCache(@Value("${github.analyzer.ast-cache.directory:${java.io.tmpdir}/github-integration/ast-cache}") String directory,
+                            @Value("${github.analyzer.ast-cache.max-age-days:30}") long maxAgeDays,
+                            @Value("${github.analyzer.ast-cache.max-size-mb:1024}") long maxSizeMb) {
+        this(Path.of(directory), Duration.ofDays(maxAgeDays), maxSizeMb * 1024 * 1024);
+    }
+
+    public ASTAnalysisCache(Path directory) {
+        this(directory, DEFAULT_MAX_AGE, DEFAULT_MAX_SIZE_BYTES);
+    }
+
+    public ASTAnalysisCache(Path directory, Duration maxAge, long maxSizeBytes) {
+        this.directory = directory;
+        this.objectMapper = new ObjectMapper();
+        this.maxAge = maxAge;
+        this.maxSizeBytes = maxSizeBytes;
+    }
+
+    /**
+     * Get the cached analysis of a file content, if any
+     */
+    public Optional<FileASTResult> get(String language, String analyzerVersion, String blobSha) {
+        markActive(language, analyzerVersion);
+        Path entry = entryPath(language, analyzerVersion, blobSha);
+        if (!Files.isRegularFile(entry)) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        try {
+            FileASTResult result = objectMapper.readValue(entry.toFile(), FileASTResult.class);
+            hits.increment();
+            touch(entry);
+            return Optional.of(result);
+        } catch (IOException e) {
+            // Unreadable entries are dropped and analyzed again
+            log.warn("Discarding unreadable AST cache entry {}: {}", entry, e.getMessage());
+            misses.increment();
+            deleteQuietly(entry);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Store the analysis of a file content
+     * Failures are logged and otherwise ignored, since the cache only saves work.
+     */
+    public void put(String language, String analyzerVersion, String blobSha, FileASTResult result) {
+        markActive(language, analyzerVersion);
+        Path entry = entryPath(language, analyzerVersion, blobSha);
+        Path temp = null;
+        try {
+            Files.createDirectories(entry.getParent());
+            // Write to a temporary file first so that concurrent readers never see a partial entry
+            temp = Files.createTempFile(entry.getParent(), blobSha, ".tmp");
+            objectMapper.writeValue(temp.toFile(), result);
+            try {
+                Files.move(temp, entry, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to write AST cache entry {}: {}", entry, e.getMessage());
+            if (temp != null) {
+                deleteQuietly(temp);
+            }
+        }
+    }
+
+    /**
+     * Delete entries of unused analyzer versions, entries past the maximum age, and the least
+     * recently used entries beyond the size limit
+     *
+     * @return the number of entries deleted
+     */
+    @Scheduled(fixedDelayString = "${github.analyzer.ast-cache.sweep-interval-ms:3600000}",
+               initialDelayString = "${github.analyzer.ast-cache.sweep-initial-delay-ms:300000}")
+    public int sweep() {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+
+        int deleted = 0;
+        try {
+            deleted += deleteInactiveVersions();
+
+            long now = System.currentTimeMillis();
+            long expiredBefore = now - maxAge.toMillis();
+            long abandonedBefore = now - ABANDONED_WRITE_AGE.toMillis();
+            List<CachedFile> entries = new ArrayList<>();
+            long totalSize = 0;
+            for (CachedFile file : listFiles()) {
+                boolean temporary = file.path().getFileName().toString().endsWith(".tmp");
+                if (file.lastUsed() < (temporary ? abandonedBefore : expiredBefore)) {
+                    if (deleteQuietly(file.path()) && !temporary) {
+                        deleted++;
+                    }
+                } else if (!temporary) {
+                    entries.add(file);
+                    totalSize += file.size();
+                }
+            }
+
+            // Least recently used first
+            entries.sort(Comparator.comparingLong(CachedFile::lastUsed));
+            for (int i = 0; i < entries.size() && totalSize > maxSizeBytes; i++) {
+                if (deleteQuietly(entries.get(i).path())) {
+                    totalSize -= entries.get(i).size();
+                    deleted++;
+                }
+            }
+            log.info("Swept AST cache {}: deleted {} entries, {} bytes remain", directory, deleted, totalSize);
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Failed to sweep AST cache {}: {}", directory, e.getMessage());
+        }
+        return deleted;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Compute the git blob SHA-1 of a file content, as reported by {@code git hash-object}
+     */
+    public static String blobSha(String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update(("blob " + bytes.length + "\0").getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest.digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e);
+        }
+    }
+
+    private void markActive(String language, String analyzerVersion) {
+        if (!analyzerVersion.equals(activeVersions.get(language))) {
+            activeVersions.put(language, analyzerVersion);
+        }
+    }
+
+    /**
+     * Delete the directories of analyzer versions other than the active one of their language.
+     * Languages not analyzed since startup are left alone, their active version is unknown.
+     */
+    private int deleteInactiveVersions() throws IOException {
+        int deleted = 0;
+        for (Map.Entry<String, String> active : activeVersions.entrySet()) {
+            Path languageDirectory = directory.resolve(active.getKey());
+            if (!Files.isDirectory(languageDirectory)) {
+                continue;
+            }
+            List<Path> versionDirectories;
+            try (Stream<Path> versions = Files.list(languageDirectory)) {
+                versionDirectories = versions
+                        .filter(version -> !version.getFileName().toString().equals(active.getValue()))
+                        .toList();
+            }
+            for (Path versionDirectory : versionDirectories) {
+                deleted += deleteRecursively(versionDirectory);
+                log.info("Deleted AST cache of {} analyzer version {}", active.getKey(), versionDirectory.getFileName());
+            }
+        }
+        return deleted;
+    }
+
+    private int deleteRecursively(Path root) throws IOException {
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(root)) {
+            // Children before their parents
+            paths = walk.sorted(Comparator.reverseOrder()).toList();
+        }
+        int deleted = 0;
+        for (Path path : paths) {
+            boolean entry = path.getFileName().toString().endsWith(".json");
+            if (deleteQuietly(path) && entry) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    private List<CachedFile> listFiles() throws IOException {
+        try (Stream<Path> walk = Files.walk(directory)) {
+            return walk.map(path -> {
+                        try {
+                            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                            return attributes.isRegularFile()
+                                    ? new CachedFile(path, attributes.lastModifiedTime().toMillis(), attributes.size())
+                                    : null;
+                        } catch (IOException e) {
+                            // Deleted or replaced concurrently
+                            return null;
+                        }
+                    })
+                    .filter(Objects::nonNull)
+                    .toList();
+        }
+    }
+
+    private void touch(Path entry) {
+        try {
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            log.debug("Failed to touch {}: {}", entry, e.getMessage());
+        }
+    }
+
+    private Path entryPath(String language, String analyzerVersion, String blobSha) {
+        // Two-character fan-out like .git/objects keeps directories small on large repositories
+        return directory.resolve(language)
+                .resolve(analyzerVersion)
+                .resolve(blobSha.substring(0, 2))
+                .resolve(blobSha.substring(2) + ".json");
+    }
+
+    private boolean deleteQuietly(Path path) {
+        try {
+            return Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.debug("Failed to delete {}: {}", path, e.getMessage());
+            return false;
+        }
+    }
+
+    private record CachedFile(Path path, long lastUsed, long size) {
+    }
+}
@@ -13,25 +13,58 @@ import com.zamaz.mcp.github.analyzer.model.ModelEnums.ASTNodeType;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * AST analyzer for Java source code
+ *
+ * Per-file results are looked up in the {@link ASTAnalysisCache} by content, and only files missing
+ * from it are parsed, in parallel with one parser per worker thread.
  */
 @Slf4j
 public class JavaASTAnalyzer implements ASTAnalyzer {
     
-    private final JavaParser javaParser;
+    // Bump whenever the nodes, relationships or metrics extracted from a file change
+    static final String ANALYZER_VERSION = "1";
+    
+    private static final String LANGUAGE = "java";
+    
+    // JavaParser instances are not thread-safe
+    private final ThreadLocal<JavaParser> javaParser = ThreadLocal.withInitial(JavaParser::new);
+    private final ASTAnalysisCache cache;
+    private final int parallelism;
     
     public JavaASTAnalyzer() {
-        this.javaParser = new JavaParser();
+        this(null);
+    }
+    
+    public JavaASTAnalyzer(ASTAnalysisCache cache) {
+        this(cache, Runtime.getRuntime().availableProcessors());
+    }
+    
+    /**
+     * @param cache Cache of per-file results, or null to analyze every file
+     * @param parallelism Maximum number of files parsed concurrently
+     */
+    public JavaASTAnalyzer(ASTAnalysisCache cache, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.cache = cache;
+        this.parallelism = parallelism;
     }
     
     @Override
     public ASTAnalysisResult analyzeFiles(List<FileInfo> files) {
         log.info("Analyzing {} Java files", files.size());
+        long startTime = System.currentTimeMillis();
         
         ASTAnalysisResult.ASTAnalysisResultBuilder resultBuilder = ASTAnalysisResult.builder()
-                .language("java")
+                .language(LANGUAGE)
                 .fileCount(files.size())
                 .nodes(new ArrayList<>())
                 .relationships(new ArrayList<>())
@@ -39,15 +72,28 @@ public class JavaASTAnalyzer implements ASTAnalyzer {
                 .complexity(new HashMap<>())
                 .issues(new ArrayList<>());
         
+        List<FileInfo> javaFiles = files.stream()
+                .filter(file -> file.getContent() != null && file.getName().endsWith(".java"))
+                .toList();
+        
         int totalClasses = 0;
         int totalMethods = 0;
         int totalFields = 0;
         int totalLines = 0;
+        AtomicInteger cachedFiles = new AtomicInteger();
         
-        for (FileInfo file : files) {
-            if (file.getContent() != null && file.getName().endsWith(".java")) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, javaFiles.size())));
+        try {
+            List<Future<FileASTResult>> futures = new ArrayList<>(javaFiles.size());
+            for (FileInfo file : javaFiles) {
+                futures.add(executor.submit(() -> analyzeCachedJavaFile(file, cachedFiles)));
+            }
+            
+            // Merge in input order so the result does not depend on scheduling
+            for (int i = 0; i < javaFiles.size(); i++) {
+                FileInfo file = javaFiles.get(i);
                 try {
-                    FileASTResult fileResult = analyzeJavaFile(file);
+                    FileASTResult fileResult = futures.get(i).get();
                     
                     // Add nodes from this file
                     resultBuilder.nodes.addAll(fileResult.getNodes());
@@ -61,8 +107,8 @@ public class JavaASTAnalyzer implements ASTAnalyzer {
                     totalFields += fileResult.getFieldCount();
                     totalLines += file.getLineCount();
                     
-                } catch (Exception e) {
-                    log.error("Error analyzing Java file {}: {}", file.getName(), e.getMessage());
+                } catch (ExecutionException e) {
+                    log.error("Error analyzing Java file {}: {}", file.getName(), e.getCause().getMessage());
                     
                     // Add issue for parsing error
                     resultBuilder.issues.add(StructureInsight.builder()
@@ -75,6 +121,11 @@ public class JavaASTAnalyzer implements ASTAnalyzer {
                             .build());
                 }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Java AST analysis was interrupted", e);
+        } finally {
+            executor.shutdownNow();
         }
         
         // Calculate aggregate metrics
@@ -91,12 +142,45 @@ public class JavaASTAnalyzer implements ASTAnalyzer {
         
         ASTAnalysisResult result = resultBuilder.build();
         
-        log.info("Java AST analysis completed: {} classes, {} methods, {} fields", 
-                totalClasses, totalMethods, totalFields);
+        log.info("Java AST analysis completed in {} ms: {} classes, {} methods, {} fields ({} of {} files cached)", 
+                System.currentTimeMillis() - startTime, totalClasses, totalMethods, totalFields,
+                cachedFiles.get(), javaFiles.size());
         
         return result;
     }
     
+    /**
+     * Get the analysis of a file from the cache, or analyze and cache it
+     */
+    private FileASTResult analyzeCachedJavaFile(FileInfo file, AtomicInteger cachedFiles) {
+        if (cache == null) {
+            return analyzeJavaFile(file);
+        }
+        
+        String blobSha = ASTAnalysisCache.blobSha(file.getContent());
+        Optional<FileASTResult> cached = cache.get(LANGUAGE, ANALYZER_VERSION, blobSha);
+        if (cached.isPresent()) {
+            cachedFiles.incrementAndGet();
+            return withFileName(cached.get(), file.getName());
+        }
+        
+        FileASTResult fileResult = analyzeJavaFile(file);
+        cache.put(LANGUAGE, ANALYZER_VERSION, blobSha, fileResult);
+        return fileResult;
+    }
+    
+    /**
+     * The same content may have been cached under another file name
+     */
+    private FileASTResult withFileName(FileASTResult fileResult, String fileName) {
+        if (!fileName.equals(fileResult.getFileName())) {
+            fileResult.setFileName(fileName);
+            fileResult.getNodes().forEach(node -> node.setFileName(fileName));
+            fileResult.getRelationships().forEach(relationship -> relationship.setFileName(fileName));
+        }
+        return fileResult;
+    }
+    
     /**
      * Analyze a single Java file
      */
@@ -105,7 +189,7 @@ public class JavaASTAnalyzer implements ASTAnalyzer {
         List<ASTRelationship> relationships = new ArrayList<>();
         
         try {
-            CompilationUnit cu = javaParser.parse(file.getContent()).getResult().orElse(null);
+            CompilationUnit cu = javaParser.get().parse(file.getContent()).getResult().orElse(null);
             if (cu == null) {
                 return FileASTResult.builder()
                         .fileName(file.getName())
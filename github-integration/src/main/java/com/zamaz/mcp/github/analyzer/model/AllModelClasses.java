@@ -1,7 +1,9 @@
 package com.zamaz.mcp.github.analyzer.model;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.util.List;
 import java.util.Map;
@@ -30,6 +32,8 @@ public class ASTAnalysisResult {
  */
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class ASTNode {
     private String id;
     private String name;
@@ -46,6 +50,8 @@ public class ASTNode {
  */
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class ASTRelationship {
     private String sourceId;
     private String targetId;
@@ -58,6 +64,8 @@ public class ASTRelationship {
  */
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class FileASTResult {
     private String fileName;
     private List<ASTNode> nodes;
@@ -0,0 +1,237 @@
+package com.zamaz.mcp.github.analyzer.ast;
+
+import com.zamaz.mcp.github.analyzer.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for Java AST Analyzer with the content-addressed analysis cache
+ */
+class JavaASTAnalyzerTest {
+
+    @TempDir
+    Path cacheDirectory;
+
+    private ASTAnalysisCache cache;
+    private JavaASTAnalyzer analyzer;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ASTAnalysisCache(cacheDirectory);
+        analyzer = new JavaASTAnalyzer(cache, 4);
+    }
+
+    @Test
+    void testAnalyzeFiles_ReusesCachedResultsForUnchangedFiles() {
+        // Given
+        List<FileInfo> files = IntStream.range(0, 20)
+                .mapToObj(i -> javaFile("Service" + i + ".java", serviceSource("Service" + i)))
+                .collect(Collectors.toList());
+        ASTAnalysisResult first = analyzer.analyzeFiles(files);
+
+        // When - one file changes
+        files.set(7, javaFile("Service7.java", serviceSource("Service7").replace("}\n}", "}\n    void stop() {}\n}")));
+        ASTAnalysisResult second = new JavaASTAnalyzer(cache, 4).analyzeFiles(files);
+
+        // Then
+        assertEquals(21, cache.getMissCount());
+        assertEquals(19, cache.getHitCount());
+        assertEquals(first.getMetrics().get("totalClasses"), second.getMetrics().get("totalClasses"));
+        assertEquals(first.getMetrics().get("totalMethods") + 1, second.getMetrics().get("totalMethods"));
+        assertEquals(first.getNodes().size() + 1, second.getNodes().size());
+        assertEquals(first.getRelationships(), second.getRelationships());
+    }
+
+    @Test
+    void testAnalyzeFiles_MatchesUncachedSequentialAnalysis() {
+        // Given
+        List<FileInfo> files = IntStream.range(0, 50)
+                .mapToObj(i -> javaFile("Service" + i + ".java", serviceSource("Service" + i)))
+                .collect(Collectors.toList());
+        ASTAnalysisResult expected = new JavaASTAnalyzer(null, 1).analyzeFiles(files);
+
+        // When
+        analyzer.analyzeFiles(files);
+        ASTAnalysisResult cached = analyzer.analyzeFiles(files);
+
+        // Then - nodes are merged in input order regardless of which thread parsed them
+        assertEquals(expected.getNodes(), cached.getNodes());
+        assertEquals(expected.getRelationships(), cached.getRelationships());
+        assertEquals(expected.getMetrics(), cached.getMetrics());
+        assertEquals(expected.getComplexity(), cached.getComplexity());
+    }
+
+    @Test
+    void testAnalyzeFiles_RelabelsCachedResultForCopiedFile() {
+        // Given
+        String source = serviceSource("Copy");
+        analyzer.analyzeFiles(List.of(javaFile("Original.java", source)));
+
+        // When
+        ASTAnalysisResult result = analyzer.analyzeFiles(List.of(javaFile("Moved.java", source)));
+
+        // Then
+        assertEquals(1, cache.getHitCount());
+        assertTrue(result.getNodes().stream().allMatch(node -> "Moved.java".equals(node.getFileName())));
+        assertTrue(result.getRelationships().stream().allMatch(relationship -> "Moved.java".equals(relationship.getFileName())));
+    }
+
+    @Test
+    void testAnalyzeFiles_CachesUnparseableFileAsEmptyResult() {
+        // Given
+        FileInfo broken = javaFile("Broken.java", "public class Broken {");
+        analyzer.analyzeFiles(List.of(broken));
+
+        // When
+        ASTAnalysisResult result = analyzer.analyzeFiles(List.of(broken));
+
+        // Then
+        assertEquals(1, cache.getHitCount());
+        assertEquals(0.0, result.getMetrics().get("totalClasses"));
+        assertTrue(result.getNodes().isEmpty());
+    }
+
+    @Test
+    void testBlobSha_MatchesGitHashObject() {
+        assertEquals("ce013625030ba8dba906f756967f9e9ca394464a", ASTAnalysisCache.blobSha("hello\n"));
+        assertEquals("e69de29bb2d1d6434b8b29ae775ad8c2e48c5391", ASTAnalysisCache.blobSha(""));
+    }
+
+    @Test
+    void testSweep_DeletesEntriesOfOtherAnalyzerVersions() throws IOException {
+        // Given
+        Path oldVersionEntry = cacheDirectory.resolve("java").resolve("0").resolve("ab").resolve("cdef.json");
+        Files.createDirectories(oldVersionEntry.getParent());
+        Files.writeString(oldVersionEntry, "{}");
+        analyzer.analyzeFiles(services(3));
+
+        // When
+        int deleted = cache.sweep();
+
+        // Then
+        assertEquals(1, deleted);
+        assertFalse(Files.exists(cacheDirectory.resolve("java").resolve("0")));
+        assertEquals(3, cachedEntries().size());
+    }
+
+    @Test
+    void testSweep_DeletesEntriesUnusedForLongerThanMaxAge() throws IOException {
+        // Given
+        ASTAnalysisCache agingCache = new ASTAnalysisCache(cacheDirectory, Duration.ofDays(7), Long.MAX_VALUE);
+        List<FileInfo> files = services(5);
+        new JavaASTAnalyzer(agingCache, 4).analyzeFiles(files);
+        setLastUsed(entryFor(files.get(0)), Instant.now().minus(Duration.ofDays(30)));
+
+        // When
+        int deleted = agingCache.sweep();
+        new JavaASTAnalyzer(agingCache, 4).analyzeFiles(files);
+
+        // Then
+        assertEquals(1, deleted);
+        assertEquals(6, agingCache.getMissCount());
+        assertEquals(4, agingCache.getHitCount());
+    }
+
+    @Test
+    void testSweep_KeepsOldEntriesThatWereHitRecently() throws IOException {
+        // Given
+        ASTAnalysisCache agingCache = new ASTAnalysisCache(cacheDirectory, Duration.ofDays(7), Long.MAX_VALUE);
+        List<FileInfo> files = services(2);
+        new JavaASTAnalyzer(agingCache, 4).analyzeFiles(files);
+        setLastUsed(entryFor(files.get(0)), Instant.now().minus(Duration.ofDays(30)));
+
+        // When - a hit marks the entry as used
+        new JavaASTAnalyzer(agingCache, 4).analyzeFiles(files);
+        int deleted = agingCache.sweep();
+
+        // Then
+        assertEquals(0, deleted);
+        assertTrue(Files.exists(entryFor(files.get(0))));
+    }
+
+    @Test
+    void testSweep_EvictsLeastRecentlyUsedEntriesBeyondSizeLimit() throws IOException {
+        // Given - ten entries, the first one used longest ago
+        List<FileInfo> files = services(10);
+        analyzer.analyzeFiles(files);
+        Instant now = Instant.now();
+        long newestFourSize = 0;
+        for (int i = 0; i < files.size(); i++) {
+            Path entry = entryFor(files.get(i));
+            setLastUsed(entry, now.minus(Duration.ofMinutes(files.size() - i)));
+            if (i >= 6) {
+                newestFourSize += Files.size(entry);
+            }
+        }
+        ASTAnalysisCache boundedCache = new ASTAnalysisCache(cacheDirectory, Duration.ofDays(30), newestFourSize);
+
+        // When
+        int deleted = boundedCache.sweep();
+
+        // Then
+        assertEquals(6, deleted);
+        Set<Path> expected = files.subList(6, 10).stream().map(this::entryFor).collect(Collectors.toSet());
+        assertEquals(expected, new HashSet<>(cachedEntries()));
+    }
+
+    private List<FileInfo> services(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> javaFile("Service" + i + ".java", serviceSource("Service" + i)))
+                .collect(Collectors.toList());
+    }
+
+    private Path entryFor(FileInfo file) {
+        String blobSha = ASTAnalysisCache.blobSha(file.getContent());
+        return cacheDirectory.resolve("java").resolve(JavaASTAnalyzer.ANALYZER_VERSION)
+                .resolve(blobSha.substring(0, 2)).resolve(blobSha.substring(2) + ".json");
+    }
+
+    private List<Path> cachedEntries() throws IOException {
+        try (var walk = Files.walk(cacheDirectory)) {
+            return walk.filter(path -> path.toString().endsWith(".json")).collect(Collectors.toList());
+        }
+    }
+
+    private void setLastUsed(Path entry, Instant lastUsed) throws IOException {
+        Files.setLastModifiedTime(entry, FileTime.from(lastUsed));
+    }
+
+    private FileInfo javaFile(String name, String content) {
+        return FileInfo.builder()
+                .name(name)
+                .path("src/main/java/com/example/" + name)
+                .extension("java")
+                .content(content)
+                .lineCount((int) content.lines().count())
+                .language("java")
+                .build();
+    }
+
+    private String serviceSource(String className) {
+        return "package com.example;\n\n"
+                + "import java.util.List;\n\n"
+                + "public class " + className + " extends BaseService implements Runnable {\n"
+                + "    private final List<String> items = List.of();\n\n"
+                + "    public void run() {\n"
+                + "        for (String item : items) {\n"
+                + "            if (item.isEmpty()) {\n"
+                + "                continue;\n"
+                + "            }\n"
+                + "        }\n"
+                + "    }\n"
+                + "}\n";
+    }
+}
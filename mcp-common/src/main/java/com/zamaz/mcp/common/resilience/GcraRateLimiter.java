@@ -0,0 +1,332 @@
+package com.zamaz.mcp.common.resilience;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Rate limiting engine based on the generic cell rate algorithm (GCRA).
+ *
+ * The whole state of a key is one timestamp, the theoretical arrival time (TAT) of the next
+ * permit. A request for n permits is allowed if advancing the TAT by n emission intervals keeps
+ * it within the burst window from now. Once the TAT falls behind the clock the key is
+ * indistinguishable from a new one, so idle keys can be dropped at any time; that is what keeps
+ * the local state table bounded. Keys that are still limited are never dropped, since that would
+ * hand them a fresh burst. In cluster mode each decision is one atomic Redis script call
+ * using the Redis clock, and the local table is used only when Redis is unreachable.
+ */
+@Slf4j
+public class GcraRateLimiter {
+
+    private static final String KEY_PREFIX = "mcp:rate-limit:";
+
+    /**
+     * ARGV: emission interval (us), burst window (us), permits, partial grant (0/1).
+     * Returns: "granted remaining retryAfter", with retry after in us and -1 if never.
+     */
+    private static final RedisScript<String> ACQUIRE_SCRIPT = new DefaultRedisScript<>(String.join("\n",
+            "local time = redis.call('TIME')",
+            "local now = tonumber(time[1]) * 1000000 + tonumber(time[2])",
+            "local interval = tonumber(ARGV[1])",
+            "local window = tonumber(ARGV[2])",
+            "local permits = tonumber(ARGV[3])",
+            "local tat = tonumber(redis.call('GET', KEYS[1]) or now)",
+            "if tat < now then tat = now end",
+            "local available = math.floor((now + window - tat) / interval)",
+            "local granted = permits",
+            "if available < permits then",
+            "  if ARGV[4] == '1' then granted = math.max(available, 0) else granted = 0 end",
+            "end",
+            "if granted > 0 then",
+            "  tat = tat + granted * interval",
+            "  redis.call('SET', KEYS[1], string.format('%d', tat), 'PX', math.ceil((tat - now) / 1000) + 1)",
+            "end",
+            "local remaining = math.max(math.floor((now + window - tat) / interval), 0)",
+            "local retry = 0",
+            "if granted < permits then",
+            "  if permits * interval > window then retry = -1",
+            "  else retry = tat + (permits - granted) * interval - window - now end",
+            "end",
+            "return string.format('%d %d %d', granted, remaining, retry)"), String.class);
+
+    private final int maxTrackedKeys;
+    private final StringRedisTemplate redisTemplate;
+    private final LongSupplier nanoClock;
+    private final Map<String, KeyState> states = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    // No tracked key can become idle before this time, so sweeping earlier would find nothing
+    private final AtomicLong nextSweepNanos;
+
+    public GcraRateLimiter(McpRateLimitingConfiguration config, ObjectProvider<StringRedisTemplate> redisTemplate) {
+        this(config.getMaxTrackedKeys(), config.isClusterMode() ? redisTemplate.getIfAvailable() : null, System::nanoTime);
+        if (config.isClusterMode() && this.redisTemplate == null) {
+            log.warn("Rate limiting cluster mode is enabled but no Redis template is available; limiting per node");
+        }
+    }
+
+    GcraRateLimiter(int maxTrackedKeys, StringRedisTemplate redisTemplate, LongSupplier nanoClock) {
+        this.maxTrackedKeys = maxTrackedKeys;
+        this.redisTemplate = redisTemplate;
+        this.nanoClock = nanoClock;
+        this.nextSweepNanos = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * A rate expressed as one permit per emission interval, with bursts of up to {@code burst} permits.
+     */
+    public static final class Limit {
+        private final long emissionIntervalNanos;
+        private final int burst;
+
+        private Limit(long emissionIntervalNanos, int burst) {
+            this.emissionIntervalNanos = Math.max(1, emissionIntervalNanos);
+            this.burst = Math.max(1, burst);
+        }
+
+        /**
+         * {@code permits} per {@code period}, all of which may be used at once
+         */
+        public static Limit of(int permits, Duration period) {
+            int limit = Math.max(1, permits);
+            return new Limit(period.toNanos() / limit, limit);
+        }
+
+        public long getEmissionIntervalNanos() { return emissionIntervalNanos; }
+        public int getBurst() { return burst; }
+
+        long windowNanos() {
+            return emissionIntervalNanos * burst;
+        }
+    }
+
+    /**
+     * Per-key counters exposed for monitoring
+     */
+    public static final class KeyStatistics {
+        private final long requests;
+        private final long violations;
+        private final long available;
+        private final int capacity;
+
+        KeyStatistics(long requests, long violations, long available, int capacity) {
+            this.requests = requests;
+            this.violations = violations;
+            this.available = available;
+            this.capacity = capacity;
+        }
+
+        public long getRequests() { return requests; }
+        public long getViolations() { return violations; }
+        public long getAvailable() { return available; }
+        public int getCapacity() { return capacity; }
+    }
+
+    private static final class KeyState {
+        private final AtomicLong tat;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder violations = new LongAdder();
+        private volatile Limit limit;
+
+        private KeyState(Limit limit, long now) {
+            this.limit = limit;
+            this.tat = new AtomicLong(now);
+        }
+    }
+
+    /**
+     * Take permits, all or nothing
+     */
+    public RateLimitDecision tryAcquire(String key, Limit limit, int permits) {
+        return acquire(key, limit, permits, false);
+    }
+
+    /**
+     * Take as many of the requested permits as are available right now
+     */
+    public RateLimitDecision acquireUpTo(String key, Limit limit, int permits) {
+        return acquire(key, limit, permits, true);
+    }
+
+    /**
+     * Current availability without consuming anything
+     */
+    public RateLimitDecision peek(String key, Limit limit) {
+        return acquire(key, limit, 0, false);
+    }
+
+    private RateLimitDecision acquire(String key, Limit limit, int permits, boolean partial) {
+        if (permits < 0) {
+            throw new IllegalArgumentException("Permits must not be negative: " + permits);
+        }
+
+        KeyState state = state(key, limit);
+        RateLimitDecision decision = redisTemplate != null
+                ? acquireClustered(key, limit, permits, partial, state)
+                : acquireLocal(limit, permits, partial, state);
+
+        if (permits > 0) {
+            state.requests.add(permits);
+            if (decision.getGranted() < permits) {
+                state.violations.add(permits - decision.getGranted());
+            }
+        }
+        return decision;
+    }
+
+    private RateLimitDecision acquireLocal(Limit limit, int permits, boolean partial, KeyState state) {
+        long interval = limit.getEmissionIntervalNanos();
+        long window = limit.windowNanos();
+
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long stored = state.tat.get();
+            long tat = Math.max(stored, now);
+            long available = Math.max(0, (now + window - tat) / interval);
+            int granted = permits <= available ? permits : (partial ? (int) available : 0);
+            long newTat = tat + granted * interval;
+
+            if (granted == 0 || state.tat.compareAndSet(stored, newTat)) {
+                Duration retryAfter = Duration.ZERO;
+                if (granted < permits) {
+                    retryAfter = (long) permits * interval > window
+                            ? null
+                            : Duration.ofNanos(newTat + (permits - granted) * interval - window - now);
+                }
+                return decision(limit, permits, granted, (now + window - newTat) / interval, retryAfter);
+            }
+        }
+    }
+
+    private RateLimitDecision acquireClustered(String key, Limit limit, int permits, boolean partial, KeyState state) {
+        long intervalMicros = Math.max(1, limit.getEmissionIntervalNanos() / 1_000);
+        try {
+            String result = redisTemplate.execute(ACQUIRE_SCRIPT, Collections.singletonList(KEY_PREFIX + key),
+                    String.valueOf(intervalMicros),
+                    String.valueOf(intervalMicros * limit.getBurst()),
+                    String.valueOf(permits),
+                    partial ? "1" : "0");
+
+            String[] fields = result.split(" ");
+            long retryMicros = Long.parseLong(fields[2]);
+            return decision(limit, permits,
+                    Integer.parseInt(fields[0]),
+                    Long.parseLong(fields[1]),
+                    retryMicros < 0 ? null : Duration.ofNanos(retryMicros * 1_000));
+        } catch (RuntimeException e) {
+            log.debug("Cluster rate limit check for '{}' failed, deciding locally: {}", key, e.getMessage());
+            return acquireLocal(limit, permits, partial, state);
+        }
+    }
+
+    private static RateLimitDecision decision(Limit limit, int requested, int granted, long remaining,
+                                              Duration retryAfter) {
+        return RateLimitDecision.builder()
+                .requested(requested)
+                .granted(granted)
+                .remaining(remaining)
+                .capacity(limit.getBurst())
+                .retryAfter(retryAfter)
+                .build();
+    }
+
+    private KeyState state(String key, Limit limit) {
+        KeyState state = states.get(key);
+        if (state == null) {
+            if (states.size() >= maxTrackedKeys) {
+                evict();
+            }
+            state = states.computeIfAbsent(key, k -> new KeyState(limit, nanoClock.getAsLong()));
+        } else if (state.limit != limit) {
+            state.limit = limit;
+        }
+        return state;
+    }
+
+    /**
+     * Drop idle keys, whose state equals a fresh one. Keys that are still limited are kept even
+     * if that leaves the table above its size; it then holds only keys used within their burst
+     * window, and shrinks again as they go idle.
+     */
+    private void evict() {
+        long now = nanoClock.getAsLong();
+        if (now - nextSweepNanos.get() < 0 || !evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            states.values().removeIf(state -> state.tat.get() <= now);
+
+            if (states.size() >= maxTrackedKeys) {
+                long earliestIdle = states.values().stream()
+                        .mapToLong(state -> state.tat.get())
+                        .min()
+                        .orElse(now);
+                nextSweepNanos.set(earliestIdle);
+                log.warn("Rate limit table holds {} active keys, above its size of {}", states.size(), maxTrackedKeys);
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * Counters and local availability of every tracked key
+     */
+    public Map<String, KeyStatistics> statistics() {
+        long now = nanoClock.getAsLong();
+        Map<String, KeyStatistics> statistics = new HashMap<>();
+        states.forEach((key, state) -> {
+            Limit limit = state.limit;
+            long tat = Math.max(state.tat.get(), now);
+            long available = Math.max(0, (now + limit.windowNanos() - tat) / limit.getEmissionIntervalNanos());
+            statistics.put(key, new KeyStatistics(state.requests.sum(), state.violations.sum(), available,
+                    limit.getBurst()));
+        });
+        return statistics;
+    }
+
+    /**
+     * Forget the state of matching keys, locally and in the cluster
+     */
+    public List<String> reset(Predicate<String> keys) {
+        List<String> removed = new ArrayList<>();
+        states.keySet().removeIf(key -> {
+            boolean matches = keys.test(key);
+            if (matches) {
+                removed.add(key);
+            }
+            return matches;
+        });
+
+        if (redisTemplate != null && !removed.isEmpty()) {
+            try {
+                redisTemplate.delete(removed.stream().map(key -> KEY_PREFIX + key).toList());
+            } catch (RuntimeException e) {
+                log.warn("Failed to reset cluster rate limit state: {}", e.getMessage());
+            }
+        }
+        return removed;
+    }
+
+    public int getTrackedKeys() {
+        return states.size();
+    }
+
+    public boolean isClustered() {
+        return redisTemplate != null;
+    }
+}
@@ -1,12 +1,14 @@
 package com.zamaz.mcp.common.resilience;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.data.redis.core.StringRedisTemplate;
 
 /**
  * Auto-configuration for MCP rate limiting components.
@@ -25,11 +27,24 @@ public class McpRateLimitingAutoConfiguration {
     @Bean
     @ConditionalOnMissingBean
     public McpRateLimitingService mcpRateLimitingService(
-            io.github.resilience4j.ratelimiter.RateLimiterRegistry rateLimiterRegistry,
-            McpRateLimitingConfiguration rateLimitingConfig) {
+            McpRateLimitingConfiguration rateLimitingConfig,
+            GcraRateLimiter gcraRateLimiter) {
         
         log.info("Auto-configuring MCP Rate Limiting Service");
-        return new McpRateLimitingService(rateLimiterRegistry, rateLimitingConfig);
+        return new McpRateLimitingService(rateLimitingConfig, gcraRateLimiter);
+    }
+
+    /**
+     * Configure the GCRA rate limiting engine if not already present.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public GcraRateLimiter gcraRateLimiter(
+            McpRateLimitingConfiguration rateLimitingConfig,
+            ObjectProvider<StringRedisTemplate> redisTemplate) {
+        
+        log.info("Auto-configuring GCRA rate limiter (cluster mode: {})", rateLimitingConfig.isClusterMode());
+        return new GcraRateLimiter(rateLimitingConfig, redisTemplate);
     }
 
     /**
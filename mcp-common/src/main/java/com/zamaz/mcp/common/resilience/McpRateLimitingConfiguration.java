@@ -59,6 +59,16 @@ public class McpRateLimitingConfiguration {
      */
     private boolean ipLevelLimiting = true;
 
+    /**
+     * Number of rate limit keys tracked in memory at which idle keys are evicted; keys still being limited are kept
+     */
+    private int maxTrackedKeys = 100_000;
+
+    /**
+     * Whether to share rate limit state across instances through Redis
+     */
+    private boolean clusterMode = false;
+
     /**
      * Initialize default configurations
      */
@@ -1,71 +1,74 @@
 package com.zamaz.mcp.common.resilience;
 
-import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service for managing MCP rate limiting operations.
  * Provides multi-tenant, context-aware rate limiting for MCP tools.
+ * Decisions are made by the {@link GcraRateLimiter}, which keeps one timestamp per key.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class McpRateLimitingService {
 
-    private final RateLimiterRegistry rateLimiterRegistry;
     private final McpRateLimitingConfiguration rateLimitingConfig;
-    
-    // Cache for rate limiter instances to avoid recreation
-    private final Map<String, io.github.resilience4j.ratelimiter.RateLimiter> rateLimiterCache = new ConcurrentHashMap<>();
+    private final GcraRateLimiter rateLimiter;
+
+    // Effective limits per service, tool and tier combination, which is a small set
+    private final Map<String, GcraRateLimiter.Limit> limitCache = new ConcurrentHashMap<>();
 
     /**
-     * Get or create a rate limiter for a specific MCP context.
+     * Check if a request is permitted by the rate limiter.
      *
      * @param serviceName Name of the MCP service
      * @param toolName Name of the MCP tool
      * @param authentication Authentication context
-     * @return Configured rate limiter instance
+     * @return true if request is permitted, false if rate limited
      */
-    public io.github.resilience4j.ratelimiter.RateLimiter getRateLimiter(
-            String serviceName, 
-            String toolName, 
-            Authentication authentication) {
-        
-        String rateLimiterKey = createRateLimiterKey(serviceName, toolName, authentication);
-        
-        return rateLimiterCache.computeIfAbsent(rateLimiterKey, key -> {
-            McpRateLimitingConfiguration.EffectiveRateLimits effectiveLimits = 
-                calculateEffectiveLimits(serviceName, toolName, authentication);
-            
-            log.debug("Creating rate limiter '{}' with limits: {} req/{} sec", 
-                     key, effectiveLimits.getLimitForPeriod(), effectiveLimits.getLimitRefreshPeriodSeconds());
-            
-            return createRateLimiter(key, effectiveLimits);
-        });
+    public boolean isRequestPermitted(String serviceName, String toolName, Authentication authentication) {
+        if (!rateLimitingConfig.isEnabled()) {
+            return true;
+        }
+
+        return rateLimiter.tryAcquire(createRateLimiterKey(serviceName, toolName, authentication),
+                getLimit(serviceName, toolName, authentication), 1).isAllowed();
     }
 
     /**
-     * Check if a request is permitted by the rate limiter.
+     * Acquire several permits in one decision, e.g. for a batch of tool calls.
      *
      * @param serviceName Name of the MCP service
      * @param toolName Name of the MCP tool
      * @param authentication Authentication context
-     * @return true if request is permitted, false if rate limited
+     * @param permits Number of permits wanted
+     * @param partial Whether to grant as many permits as are available instead of all or nothing
+     * @return The decision, including how many permits were granted and when to retry
      */
-    public boolean isRequestPermitted(String serviceName, String toolName, Authentication authentication) {
+    public RateLimitDecision acquirePermits(String serviceName, String toolName, Authentication authentication,
+                                            int permits, boolean partial) {
         if (!rateLimitingConfig.isEnabled()) {
-            return true;
+            return RateLimitDecision.builder()
+                .requested(permits)
+                .granted(permits)
+                .remaining(Long.MAX_VALUE)
+                .capacity(Long.MAX_VALUE)
+                .retryAfter(Duration.ZERO)
+                .build();
         }
 
-        io.github.resilience4j.ratelimiter.RateLimiter rateLimiter = getRateLimiter(serviceName, toolName, authentication);
-        return rateLimiter.acquirePermission();
+        String key = createRateLimiterKey(serviceName, toolName, authentication);
+        GcraRateLimiter.Limit limit = getLimit(serviceName, toolName, authentication);
+        return partial ? rateLimiter.acquireUpTo(key, limit, permits) : rateLimiter.tryAcquire(key, limit, permits);
     }
 
     /**
@@ -77,17 +80,16 @@ public class McpRateLimitingService {
      * @return Rate limit status information
      */
     public RateLimitStatus getRateLimitStatus(String serviceName, String toolName, Authentication authentication) {
-        io.github.resilience4j.ratelimiter.RateLimiter rateLimiter = getRateLimiter(serviceName, toolName, authentication);
-        
-        io.github.resilience4j.ratelimiter.RateLimiter.Metrics metrics = rateLimiter.getMetrics();
-        
+        GcraRateLimiter.Limit limit = getLimit(serviceName, toolName, authentication);
+        RateLimitDecision current = rateLimiter.peek(createRateLimiterKey(serviceName, toolName, authentication), limit);
+
         return RateLimitStatus.builder()
             .serviceName(serviceName)
             .toolName(toolName)
-            .limitForPeriod(rateLimiter.getRateLimiterConfig().getLimitForPeriod())
-            .limitRefreshPeriod(rateLimiter.getRateLimiterConfig().getLimitRefreshPeriod())
-            .availablePermissions(metrics.getAvailablePermissions())
-            .numberOfWaitingThreads(metrics.getNumberOfWaitingThreads())
+            .limitForPeriod(limit.getBurst())
+            .limitRefreshPeriod(Duration.ofNanos(limit.getEmissionIntervalNanos() * limit.getBurst()))
+            .availablePermissions((int) current.getRemaining())
+            .numberOfWaitingThreads(0)
             .build();
     }
 
@@ -98,42 +100,53 @@ public class McpRateLimitingService {
      * @return Map of rate limiter keys to their status
      */
     public Map<String, RateLimitStatus> getAllRateLimitStatus(Authentication authentication) {
-        Map<String, RateLimitStatus> statusMap = new ConcurrentHashMap<>();
+        Map<String, RateLimitStatus> statusMap = new HashMap<>();
         
         String userContext = extractUserContext(authentication);
         String orgContext = extractOrganizationContext(authentication);
         
-        rateLimiterCache.entrySet().stream()
-            .filter(entry -> {
-                String key = entry.getKey();
-                return key.contains(userContext) || (orgContext != null && key.contains(orgContext));
-            })
-            .forEach(entry -> {
-                String key = entry.getKey();
-                io.github.resilience4j.ratelimiter.RateLimiter rateLimiter = entry.getValue();
-                
-                // Extract service and tool names from key
-                String[] parts = key.split(":");
-                String serviceName = parts.length > 0 ? parts[0] : "unknown";
-                String toolName = parts.length > 1 ? parts[1] : "unknown";
-                
-                io.github.resilience4j.ratelimiter.RateLimiter.Metrics metrics = rateLimiter.getMetrics();
-                
-                RateLimitStatus status = RateLimitStatus.builder()
-                    .serviceName(serviceName)
-                    .toolName(toolName)
-                    .limitForPeriod(rateLimiter.getRateLimiterConfig().getLimitForPeriod())
-                    .limitRefreshPeriod(rateLimiter.getRateLimiterConfig().getLimitRefreshPeriod())
-                    .availablePermissions(metrics.getAvailablePermissions())
-                    .numberOfWaitingThreads(metrics.getNumberOfWaitingThreads())
-                    .build();
-                
-                statusMap.put(key, status);
-            });
+        rateLimiter.statistics().forEach((key, statistics) -> {
+            if (!key.contains(userContext) && (orgContext == null || !key.contains(orgContext))) {
+                return;
+            }
+
+            // Extract service and tool names from key
+            String[] parts = key.split(":");
+            String serviceName = parts.length > 0 ? parts[0] : "unknown";
+            String toolName = parts.length > 1 ? parts[1] : "unknown";
+            GcraRateLimiter.Limit limit = getLimit(serviceName, toolName, authentication);
+
+            statusMap.put(key, RateLimitStatus.builder()
+                .serviceName(serviceName)
+                .toolName(toolName)
+                .limitForPeriod(statistics.getCapacity())
+                .limitRefreshPeriod(Duration.ofNanos(limit.getEmissionIntervalNanos() * limit.getBurst()))
+                .availablePermissions((int) statistics.getAvailable())
+                .numberOfWaitingThreads(0)
+                .build());
+        });
         
         return statusMap;
     }
 
+    /**
+     * Get request and violation counts for every tracked rate limiter.
+     *
+     * @return Map of rate limiter keys to their metrics
+     */
+    public Map<String, RateLimitMetrics> getAllRateLimitMetrics() {
+        Map<String, RateLimitMetrics> metrics = new HashMap<>();
+        rateLimiter.statistics().forEach((key, statistics) -> {
+            RateLimitMetrics limitMetrics = new RateLimitMetrics();
+            limitMetrics.setRequests(statistics.getRequests());
+            limitMetrics.setViolations(statistics.getViolations());
+            limitMetrics.setAvailablePermits(statistics.getAvailable());
+            limitMetrics.setCapacity(statistics.getCapacity());
+            metrics.put(key, limitMetrics);
+        });
+        return metrics;
+    }
+
     /**
      * Reset rate limiters for a specific context (admin operation).
      *
@@ -144,16 +157,28 @@ public class McpRateLimitingService {
     public void resetRateLimiters(String serviceName, String toolName, Authentication authentication) {
         String pattern = createRateLimiterKeyPattern(serviceName, toolName, authentication);
         
-        rateLimiterCache.entrySet().removeIf(entry -> {
-            String key = entry.getKey();
-            boolean matches = matchesPattern(key, pattern);
-            
-            if (matches) {
-                log.info("Resetting rate limiter: {}", key);
-            }
-            
-            return matches;
-        });
+        List<String> reset = rateLimiter.reset(key -> matchesPattern(key, pattern));
+        reset.forEach(key -> log.info("Resetting rate limiter: {}", key));
+    }
+
+    /**
+     * Get the engine limit for a context, derived from the effective configuration.
+     */
+    private GcraRateLimiter.Limit getLimit(String serviceName, String toolName, Authentication authentication) {
+        String userTier = extractUserTier(authentication);
+        String organizationTier = extractOrganizationTier(authentication);
+
+        return limitCache.computeIfAbsent(
+            serviceName + "|" + toolName + "|" + userTier + "|" + organizationTier, key -> {
+                McpRateLimitingConfiguration.EffectiveRateLimits effectiveLimits =
+                    rateLimitingConfig.getEffectiveRateLimits(serviceName, toolName, userTier, organizationTier);
+
+                log.debug("Rate limit for '{}': {} req/{} sec",
+                         key, effectiveLimits.getLimitForPeriod(), effectiveLimits.getLimitRefreshPeriodSeconds());
+
+                return GcraRateLimiter.Limit.of(effectiveLimits.getLimitForPeriod(),
+                    Duration.ofSeconds(effectiveLimits.getLimitRefreshPeriodSeconds()));
+            });
     }
 
     /**
@@ -185,37 +210,6 @@ public class McpRateLimitingService {
         return keyBuilder.toString();
     }
 
-    /**
-     * Calculate effective rate limits for the given context.
-     */
-    private McpRateLimitingConfiguration.EffectiveRateLimits calculateEffectiveLimits(
-            String serviceName, 
-            String toolName, 
-            Authentication authentication) {
-        
-        String userTier = extractUserTier(authentication);
-        String organizationTier = extractOrganizationTier(authentication);
-        
-        return rateLimitingConfig.getEffectiveRateLimits(serviceName, toolName, userTier, organizationTier);
-    }
-
-    /**
-     * Create a rate limiter with the specified configuration.
-     */
-    private io.github.resilience4j.ratelimiter.RateLimiter createRateLimiter(
-            String name, 
-            McpRateLimitingConfiguration.EffectiveRateLimits effectiveLimits) {
-        
-        io.github.resilience4j.ratelimiter.RateLimiterConfig config = 
-            io.github.resilience4j.ratelimiter.RateLimiterConfig.custom()
-                .limitForPeriod(effectiveLimits.getLimitForPeriod())
-                .limitRefreshPeriod(Duration.ofSeconds(effectiveLimits.getLimitRefreshPeriodSeconds()))
-                .timeoutDuration(Duration.ofSeconds(effectiveLimits.getTimeoutDurationSeconds()))
-                .build();
-        
-        return rateLimiterRegistry.rateLimiter(name, config);
-    }
-
     /**
      * Extract user context from authentication.
      */
@@ -359,4 +353,15 @@ public class McpRateLimitingService {
             return ((double) (limitForPeriod - availablePermissions) / limitForPeriod) * 100;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Rate limiter counters for monitoring.
+     */
+    @lombok.Data
+    public static class RateLimitMetrics {
+        private long requests;
+        private long violations;
+        private long availablePermits;
+        private long capacity;
+    }
+}
@@ -0,0 +1,43 @@
+package com.zamaz.mcp.common.resilience;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Outcome of a rate limiting decision for one or more permits.
+ */
+@Data
+@Builder
+public class RateLimitDecision {
+
+    /**
+     * Number of permits asked for
+     */
+    private int requested;
+
+    /**
+     * Number of permits granted; equals {@code requested} unless the request was denied or partially granted
+     */
+    private int granted;
+
+    /**
+     * Permits still available immediately after this decision
+     */
+    private long remaining;
+
+    /**
+     * Maximum number of permits that can ever be available at once
+     */
+    private long capacity;
+
+    /**
+     * How long until the permits that were not granted could be, or null if they never can
+     */
+    private Duration retryAfter;
+
+    public boolean isAllowed() {
+        return granted == requested;
+    }
+}
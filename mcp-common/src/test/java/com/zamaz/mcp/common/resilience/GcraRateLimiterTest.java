@@ -0,0 +1,108 @@
+package com.zamaz.mcp.common.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for the GCRA rate limiting engine
+ */
+class GcraRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final GcraRateLimiter.Limit tenPerSecond = GcraRateLimiter.Limit.of(10, Duration.ofSeconds(1));
+
+    @Test
+    void allowsBurstThenPacesAtEmissionInterval() {
+        GcraRateLimiter limiter = new GcraRateLimiter(100, null, clock::get);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire("key", tenPerSecond, 1).isAllowed()).isTrue();
+        }
+        RateLimitDecision denied = limiter.tryAcquire("key", tenPerSecond, 1);
+        assertThat(denied.isAllowed()).isFalse();
+        assertThat(denied.getRetryAfter()).isEqualTo(Duration.ofMillis(100));
+
+        clock.addAndGet(Duration.ofMillis(100).toNanos());
+        assertThat(limiter.tryAcquire("key", tenPerSecond, 1).isAllowed()).isTrue();
+        assertThat(limiter.tryAcquire("key", tenPerSecond, 1).isAllowed()).isFalse();
+    }
+
+    @Test
+    void batchAcquisitionIsAllOrNothingUnlessPartial() {
+        GcraRateLimiter limiter = new GcraRateLimiter(100, null, clock::get);
+        limiter.tryAcquire("key", tenPerSecond, 7);
+
+        RateLimitDecision denied = limiter.tryAcquire("key", tenPerSecond, 5);
+        assertThat(denied.getGranted()).isZero();
+        assertThat(denied.getRemaining()).isEqualTo(3);
+        assertThat(denied.getRetryAfter()).isEqualTo(Duration.ofMillis(200));
+
+        RateLimitDecision partial = limiter.acquireUpTo("key", tenPerSecond, 5);
+        assertThat(partial.getGranted()).isEqualTo(3);
+        assertThat(partial.getRemaining()).isZero();
+
+        assertThat(limiter.tryAcquire("key", tenPerSecond, 11).getRetryAfter()).isNull();
+    }
+
+    @Test
+    void countsRequestsAndViolationsPerKey() {
+        GcraRateLimiter limiter = new GcraRateLimiter(100, null, clock::get);
+        limiter.tryAcquire("key", tenPerSecond, 8);
+        limiter.tryAcquire("key", tenPerSecond, 4);
+
+        GcraRateLimiter.KeyStatistics statistics = limiter.statistics().get("key");
+        assertThat(statistics.getRequests()).isEqualTo(12);
+        assertThat(statistics.getViolations()).isEqualTo(4);
+        assertThat(statistics.getAvailable()).isEqualTo(2);
+        assertThat(statistics.getCapacity()).isEqualTo(10);
+    }
+
+    @Test
+    void evictsIdleKeysBeforeActiveOnesWhenFull() {
+        GcraRateLimiter limiter = new GcraRateLimiter(10, null, clock::get);
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("idle-" + i, tenPerSecond, 1);
+        }
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        limiter.tryAcquire("active", tenPerSecond, 10);
+
+        limiter.tryAcquire("new", tenPerSecond, 1);
+
+        assertThat(limiter.getTrackedKeys()).isEqualTo(2);
+        assertThat(limiter.tryAcquire("active", tenPerSecond, 1).isAllowed()).isFalse();
+    }
+
+    @Test
+    void keepsActiveKeysWhenFullOfThem() {
+        GcraRateLimiter limiter = new GcraRateLimiter(10, null, clock::get);
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("active-" + i, tenPerSecond, 10);
+        }
+
+        assertThat(limiter.tryAcquire("new", tenPerSecond, 1).isAllowed()).isTrue();
+
+        assertThat(limiter.getTrackedKeys()).isEqualTo(11);
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire("active-" + i, tenPerSecond, 1).isAllowed()).isFalse();
+        }
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        limiter.tryAcquire("later", tenPerSecond, 1);
+        assertThat(limiter.getTrackedKeys()).isEqualTo(1);
+    }
+
+    @Test
+    void resetForgetsMatchingKeys() {
+        GcraRateLimiter limiter = new GcraRateLimiter(100, null, clock::get);
+        limiter.tryAcquire("svc:tool:user:a", tenPerSecond, 10);
+        limiter.tryAcquire("svc:tool:user:b", tenPerSecond, 10);
+
+        assertThat(limiter.reset(key -> key.endsWith(":a"))).containsExactly("svc:tool:user:a");
+        assertThat(limiter.tryAcquire("svc:tool:user:a", tenPerSecond, 1).isAllowed()).isTrue();
+        assertThat(limiter.tryAcquire("svc:tool:user:b", tenPerSecond, 1).isAllowed()).isFalse();
+    }
+}
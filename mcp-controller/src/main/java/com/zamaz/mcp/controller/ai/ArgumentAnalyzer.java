@@ -4,9 +4,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Pattern;
+
+import static com.zamaz.mcp.controller.ai.LexicalFeature.*;
 
 /**
  * Analyzer for argument quality and logical strength
@@ -16,54 +17,31 @@ import java.util.regex.Pattern;
 @Slf4j
 public class ArgumentAnalyzer {
     
-    // Patterns for detecting logical structures
-    private static final List<Pattern> EVIDENCE_PATTERNS = Arrays.asList(
-        Pattern.compile("according to", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("studies show", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("research indicates", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("data suggests", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("statistics reveal", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("evidence shows", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("for example", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("for instance", Pattern.CASE_INSENSITIVE)
-    );
-    
-    private static final List<Pattern> LOGICAL_CONNECTORS = Arrays.asList(
-        Pattern.compile("therefore", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("because", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("since", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("as a result", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("consequently", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("hence", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("thus", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("however", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("nevertheless", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("on the other hand", Pattern.CASE_INSENSITIVE)
-    );
-    
-    private static final List<Pattern> FALLACY_PATTERNS = Arrays.asList(
-        Pattern.compile("always|never|all|none|everyone|no one", Pattern.CASE_INSENSITIVE), // Overgeneralization
-        Pattern.compile("you are wrong because", Pattern.CASE_INSENSITIVE), // Ad hominem
-        Pattern.compile("either .* or .*", Pattern.CASE_INSENSITIVE), // False dichotomy
-        Pattern.compile("if we .*, then .*", Pattern.CASE_INSENSITIVE) // Slippery slope
-    );
+    private final LexicalScanner lexicalScanner;
     
     /**
      * Analyze argument quality
      */
     public ArgumentQualityMetrics analyzeArgument(String argumentText) {
+        return analyzeArgument(lexicalScanner.scan(argumentText));
+    }
+    
+    /**
+     * Analyze argument quality from an already scanned text
+     */
+    public ArgumentQualityMetrics analyzeArgument(LexicalFeatures features) {
         try {
             return ArgumentQualityMetrics.builder()
-                .logicalStrength(analyzeLogicalStrength(argumentText))
-                .evidenceQuality(analyzeEvidenceQuality(argumentText))
-                .clarityScore(analyzeClarityScore(argumentText))
-                .relevanceScore(analyzeRelevanceScore(argumentText))
-                .originalityScore(analyzeOriginalityScore(argumentText))
-                .logicalFallacies(detectLogicalFallacies(argumentText))
-                .argumentStructure(analyzeArgumentStructure(argumentText))
+                .logicalStrength(analyzeLogicalStrength(features))
+                .evidenceQuality(analyzeEvidenceQuality(features))
+                .clarityScore(analyzeClarityScore(features))
+                .relevanceScore(analyzeRelevanceScore(features))
+                .originalityScore(analyzeOriginalityScore(features))
+                .logicalFallacies(detectLogicalFallacies(features))
+                .argumentStructure(analyzeArgumentStructure(features))
                 .build();
         } catch (Exception e) {
-            log.error("Error analyzing argument: {}", argumentText, e);
+            log.error("Error analyzing argument", e);
             return getDefaultMetrics();
         }
     }
@@ -71,27 +49,19 @@ public class ArgumentAnalyzer {
     /**
      * Analyze logical strength of argument
      */
-    private double analyzeLogicalStrength(String text) {
+    private double analyzeLogicalStrength(LexicalFeatures features) {
         double score = 0.5; // Base score
         
-        // Count logical connectors
-        long connectorCount = LOGICAL_CONNECTORS.stream()
-            .mapToLong(pattern -> countMatches(pattern, text))
-            .sum();
-        
         // Bonus for logical structure
-        score += Math.min(0.3, connectorCount * 0.1);
+        score += Math.min(0.3, features.count(LOGICAL_CONNECTOR) * 0.1);
         
         // Check for premise-conclusion structure
-        if (hasPremiseConclusionStructure(text)) {
+        if (features.has(PREMISE) && features.has(INFERENCE)) {
             score += 0.2;
         }
         
         // Penalty for logical fallacies
-        long fallacyCount = FALLACY_PATTERNS.stream()
-            .mapToLong(pattern -> countMatches(pattern, text))
-            .sum();
-        score -= fallacyCount * 0.1;
+        score -= countFallacyIndicators(features) * 0.1;
         
         return Math.max(0.0, Math.min(1.0, score));
     }
@@ -99,26 +69,21 @@ public class ArgumentAnalyzer {
     /**
      * Analyze evidence quality
      */
-    private double analyzeEvidenceQuality(String text) {
+    private double analyzeEvidenceQuality(LexicalFeatures features) {
         double score = 0.3; // Base score for any text
         
-        // Count evidence indicators
-        long evidenceCount = EVIDENCE_PATTERNS.stream()
-            .mapToLong(pattern -> countMatches(pattern, text))
-            .sum();
-        
-        score += Math.min(0.4, evidenceCount * 0.15);
+        score += Math.min(0.4, features.count(EVIDENCE_CITATION) * 0.15);
         
         // Check for specific types of evidence
-        if (containsNumericData(text)) {
+        if (features.getNumericCount() > 0) {
             score += 0.15;
         }
         
-        if (containsCitations(text)) {
+        if (features.getCitationCount() > 0) {
             score += 0.15;
         }
         
-        if (containsExamples(text)) {
+        if (features.has(EXAMPLE)) {
             score += 0.1;
         }
         
@@ -128,17 +93,11 @@ public class ArgumentAnalyzer {
     /**
      * Analyze clarity and readability
      */
-    private double analyzeClarityScore(String text) {
+    private double analyzeClarityScore(LexicalFeatures features) {
         double score = 0.5;
         
-        // Sentence length analysis
-        String[] sentences = text.split("[.!?]+");
-        double avgSentenceLength = Arrays.stream(sentences)
-            .mapToInt(s -> s.trim().split("\\s+").length)
-            .average()
-            .orElse(0.0);
-        
         // Optimal sentence length is 15-20 words
+        double avgSentenceLength = features.averageSentenceWords();
         if (avgSentenceLength >= 15 && avgSentenceLength <= 20) {
             score += 0.2;
         } else if (avgSentenceLength > 30) {
@@ -146,19 +105,16 @@ public class ArgumentAnalyzer {
         }
         
         // Check for clear structure
-        if (hasListStructure(text)) {
+        if (features.has(ENUMERATION) || features.getListMarkerCount() > 0) {
             score += 0.1;
         }
         
-        if (hasTopicSentences(text)) {
+        if (features.sentenceCount() > 1 && features.sentenceTrimmedLength(0) > 20) {
             score += 0.1;
         }
         
         // Check for transition words
-        long transitionCount = LOGICAL_CONNECTORS.stream()
-            .mapToLong(pattern -> countMatches(pattern, text))
-            .sum();
-        score += Math.min(0.1, transitionCount * 0.02);
+        score += Math.min(0.1, features.count(LOGICAL_CONNECTOR) * 0.02);
         
         return Math.max(0.0, Math.min(1.0, score));
     }
@@ -166,18 +122,18 @@ public class ArgumentAnalyzer {
     /**
      * Analyze relevance to debate topic
      */
-    private double analyzeRelevanceScore(String text) {
+    private double analyzeRelevanceScore(LexicalFeatures features) {
         // This would ideally compare against the debate topic
         // For now, use heuristics
         double score = 0.6; // Assume generally relevant
         
         // Check for off-topic indicators
-        if (containsOffTopicPhrases(text)) {
+        if (features.has(DISRUPTION_TANGENT)) {
             score -= 0.2;
         }
         
-        // Check for topic-specific language
-        if (containsTopicKeywords(text)) {
+        // Check for topic-specific language; for now, assume any substantial text is relevant
+        if (features.getLength() > 100) {
             score += 0.2;
         }
         
@@ -187,21 +143,21 @@ public class ArgumentAnalyzer {
     /**
      * Analyze originality and uniqueness
      */
-    private double analyzeOriginalityScore(String text) {
+    private double analyzeOriginalityScore(LexicalFeatures features) {
         double score = 0.5; // Base score
         
         // Check for clichés or common phrases
-        if (containsCliches(text)) {
+        if (features.has(CLICHE)) {
             score -= 0.2;
         }
         
         // Check for unique insights or perspectives
-        if (containsUniqueInsights(text)) {
+        if (features.has(INSIGHT)) {
             score += 0.3;
         }
         
         // Check for creative analogies or metaphors
-        if (containsAnalogies(text)) {
+        if (features.has(ANALOGY)) {
             score += 0.2;
         }
         
@@ -211,22 +167,22 @@ public class ArgumentAnalyzer {
     /**
      * Detect logical fallacies
      */
-    private List<String> detectLogicalFallacies(String text) {
-        List<String> fallacies = new java.util.ArrayList<>();
+    private List<String> detectLogicalFallacies(LexicalFeatures features) {
+        List<String> fallacies = new ArrayList<>();
         
-        if (FALLACY_PATTERNS.get(0).matcher(text).find()) {
+        if (features.has(OVERGENERALIZATION)) {
             fallacies.add("Overgeneralization");
         }
         
-        if (FALLACY_PATTERNS.get(1).matcher(text).find()) {
+        if (features.has(AD_HOMINEM)) {
             fallacies.add("Ad Hominem");
         }
         
-        if (FALLACY_PATTERNS.get(2).matcher(text).find()) {
+        if (features.precedes(DICHOTOMY_LEAD, DICHOTOMY_ALTERNATIVE)) {
             fallacies.add("False Dichotomy");
         }
         
-        if (FALLACY_PATTERNS.get(3).matcher(text).find()) {
+        if (features.precedes(SLOPE_LEAD, SLOPE_CONSEQUENCE)) {
             fallacies.add("Slippery Slope");
         }
         
@@ -236,13 +192,12 @@ public class ArgumentAnalyzer {
     /**
      * Analyze argument structure
      */
-    private ArgumentStructure analyzeArgumentStructure(String text) {
-        boolean hasClaim = containsClaim(text);
-        boolean hasEvidence = EVIDENCE_PATTERNS.stream()
-            .anyMatch(pattern -> pattern.matcher(text).find());
-        boolean hasWarrant = containsWarrant(text);
-        boolean hasCounterargument = containsCounterargument(text);
-        boolean hasRebuttal = containsRebuttal(text);
+    private ArgumentStructure analyzeArgumentStructure(LexicalFeatures features) {
+        boolean hasClaim = features.has(CLAIM) || features.has(SUBJECTIVE_OPINION);
+        boolean hasEvidence = features.has(EVIDENCE_CITATION);
+        boolean hasWarrant = features.has(WARRANT);
+        boolean hasCounterargument = features.has(COUNTERARGUMENT);
+        boolean hasRebuttal = features.has(REBUTTAL);
         
         return ArgumentStructure.builder()
             .hasClaim(hasClaim)
@@ -256,78 +211,11 @@ public class ArgumentAnalyzer {
     
     // Helper methods
     
-    private long countMatches(Pattern pattern, String text) {
-        return pattern.matcher(text).results().count();
-    }
-    
-    private boolean hasPremiseConclusionStructure(String text) {
-        return text.toLowerCase().contains("because") && 
-               (text.toLowerCase().contains("therefore") || text.toLowerCase().contains("thus"));
-    }
-    
-    private boolean containsNumericData(String text) {
-        return Pattern.compile("\\d+%|\\d+\\.\\d+|\\$\\d+|\\d+ (million|billion|thousand)").matcher(text).find();
-    }
-    
-    private boolean containsCitations(String text) {
-        return Pattern.compile("\\(\\d{4}\\)|et al\\.|\\[\\d+\\]").matcher(text).find();
-    }
-    
-    private boolean containsExamples(String text) {
-        return Pattern.compile("for example|for instance|such as|including", Pattern.CASE_INSENSITIVE).matcher(text).find();
-    }
-    
-    private boolean hasListStructure(String text) {
-        return Pattern.compile("first|second|third|finally|lastly", Pattern.CASE_INSENSITIVE).matcher(text).find() ||
-               Pattern.compile("\\d+\\.|•|\\*").matcher(text).find();
-    }
-    
-    private boolean hasTopicSentences(String text) {
-        String[] sentences = text.split("[.!?]+");
-        return sentences.length > 1 && sentences[0].trim().length() > 20;
-    }
-    
-    private boolean containsOffTopicPhrases(String text) {
-        return Pattern.compile("by the way|speaking of|off topic|unrelated", Pattern.CASE_INSENSITIVE).matcher(text).find();
-    }
-    
-    private boolean containsTopicKeywords(String text) {
-        // This would ideally use the actual debate topic keywords
-        // For now, assume any substantial text is relevant
-        return text.length() > 100;
-    }
-    
-    private boolean containsCliches(String text) {
-        return Pattern.compile("at the end of the day|think outside the box|low hanging fruit|paradigm shift", 
-                             Pattern.CASE_INSENSITIVE).matcher(text).find();
-    }
-    
-    private boolean containsUniqueInsights(String text) {
-        return Pattern.compile("surprisingly|unexpectedly|contrary to|interestingly|novel approach", 
-                             Pattern.CASE_INSENSITIVE).matcher(text).find();
-    }
-    
-    private boolean containsAnalogies(String text) {
-        return Pattern.compile("like|as if|similar to|comparable to|just as", Pattern.CASE_INSENSITIVE).matcher(text).find();
-    }
-    
-    private boolean containsClaim(String text) {
-        return Pattern.compile("I argue|I claim|I believe|I contend|my position", Pattern.CASE_INSENSITIVE).matcher(text).find();
-    }
-    
-    private boolean containsWarrant(String text) {
-        return Pattern.compile("this is important because|this matters because|the significance", 
-                             Pattern.CASE_INSENSITIVE).matcher(text).find();
-    }
-    
-    private boolean containsCounterargument(String text) {
-        return Pattern.compile("some might argue|critics claim|opponents say|however|on the other hand", 
-                             Pattern.CASE_INSENSITIVE).matcher(text).find();
-    }
-    
-    private boolean containsRebuttal(String text) {
-        return Pattern.compile("but this overlooks|however this ignores|this argument fails", 
-                             Pattern.CASE_INSENSITIVE).matcher(text).find();
+    private int countFallacyIndicators(LexicalFeatures features) {
+        int count = features.count(OVERGENERALIZATION) + features.count(AD_HOMINEM);
+        if (features.precedes(DICHOTOMY_LEAD, DICHOTOMY_ALTERNATIVE)) count++;
+        if (features.precedes(SLOPE_LEAD, SLOPE_CONSEQUENCE)) count++;
+        return count;
     }
     
     private double calculateStructureScore(boolean hasClaim, boolean hasEvidence, boolean hasWarrant, 
@@ -2,7 +2,10 @@ package com.zamaz.mcp.controller.ai;
 
 import com.zamaz.mcp.controller.dto.DebateAnalysisDto;
 import com.zamaz.mcp.controller.entity.Debate;
+import com.zamaz.mcp.controller.entity.DebateQualityAggregate;
+import com.zamaz.mcp.controller.entity.QualityTotals;
 import com.zamaz.mcp.controller.entity.Response;
+import com.zamaz.mcp.controller.entity.ResponseQualityScore;
 import com.zamaz.mcp.controller.integration.LlmServiceClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,11 +25,10 @@ import java.util.stream.Collectors;
 @Slf4j
 public class DebateQualityScorer {
     
+    private static final String INCREMENTAL_ANALYSIS_VERSION = "incremental-1";
+    
     private final LlmServiceClient llmServiceClient;
-    private final ArgumentAnalyzer argumentAnalyzer;
-    private final SentimentAnalyzer sentimentAnalyzer;
-    private final CoherenceAnalyzer coherenceAnalyzer;
-    private final FactualityChecker factualityChecker;
+    private final IncrementalQualityScorer incrementalQualityScorer;
     
     @Value("${ai.quality-scoring.enabled:true}")
     private boolean qualityScoringEnabled;
@@ -58,26 +60,20 @@ public class DebateQualityScorer {
                 return CompletableFuture.completedFuture(createEmptyAnalysis(debate));
             }
             
-            // Parallel analysis of different quality aspects
-            CompletableFuture<Map<String, Double>> argumentScores = analyzeArgumentQuality(allResponses);
-            CompletableFuture<Map<String, Double>> coherenceScores = analyzeCoherence(allResponses);
-            CompletableFuture<Map<String, Object>> sentimentAnalysis = analyzeSentiment(allResponses);
-            CompletableFuture<Map<String, Double>> factualityScores = analyzeFactuality(allResponses);
+            // Responses are scored once when submitted; only ones that predate that are scored here
+            Map<UUID, ResponseQualityScore> vectors =
+                incrementalQualityScorer.vectorsFor(debate.getId(), allResponses);
+            
+            // Parallel analysis of the debate-level aspects
             CompletableFuture<DebateStructureAnalysis> structureAnalysis = analyzeDebateStructure(debate);
             CompletableFuture<Map<String, Object>> llmAnalysis = performLLMAnalysis(debate, allResponses);
             
             // Combine all analyses
-            return CompletableFuture.allOf(
-                argumentScores, coherenceScores, sentimentAnalysis, 
-                factualityScores, structureAnalysis, llmAnalysis
-            ).thenApply(v -> {
+            return CompletableFuture.allOf(structureAnalysis, llmAnalysis).thenApply(v -> {
                 try {
                     return buildComprehensiveAnalysis(
                         debate,
-                        argumentScores.get(),
-                        coherenceScores.get(),
-                        sentimentAnalysis.get(),
-                        factualityScores.get(),
+                        vectors.values(),
                         structureAnalysis.get(),
                         llmAnalysis.get()
                     );
@@ -94,106 +90,30 @@ public class DebateQualityScorer {
     }
     
     /**
-     * Analyze argument quality using AI
+     * Current debate quality from the running aggregates, without re-analyzing any response
      */
-    private CompletableFuture<Map<String, Double>> analyzeArgumentQuality(List<Response> responses) {
-        return CompletableFuture.supplyAsync(() -> {
-            Map<String, Double> scores = new HashMap<>();
-            
-            for (Response response : responses) {
-                try {
-                    ArgumentQualityMetrics metrics = argumentAnalyzer.analyzeArgument(response.getContent());
-                    
-                    double overallScore = calculateArgumentScore(metrics);
-                    scores.put(response.getId().toString(), overallScore);
-                    
-                    log.debug("Argument quality score for response {}: {}", 
-                        response.getId(), overallScore);
-                        
-                } catch (Exception e) {
-                    log.warn("Failed to analyze argument quality for response: {}", 
-                        response.getId(), e);
-                    scores.put(response.getId().toString(), 0.5); // Default neutral score
-                }
-            }
-            
-            return scores;
-        });
-    }
-    
-    /**
-     * Analyze coherence and logical flow
-     */
-    private CompletableFuture<Map<String, Double>> analyzeCoherence(List<Response> responses) {
-        return CompletableFuture.supplyAsync(() -> {
-            Map<String, Double> scores = new HashMap<>();
-            
-            for (Response response : responses) {
-                try {
-                    CoherenceMetrics metrics = coherenceAnalyzer.analyzeCoherence(response.getContent());
-                    double coherenceScore = calculateCoherenceScore(metrics);
-                    scores.put(response.getId().toString(), coherenceScore);
-                    
-                } catch (Exception e) {
-                    log.warn("Failed to analyze coherence for response: {}", response.getId(), e);
-                    scores.put(response.getId().toString(), 0.5);
-                }
-            }
-            
-            return scores;
-        });
-    }
-    
-    /**
-     * Analyze sentiment and emotional tone
-     */
-    private CompletableFuture<Map<String, Object>> analyzeSentiment(List<Response> responses) {
-        return CompletableFuture.supplyAsync(() -> {
-            Map<String, Object> sentimentData = new HashMap<>();
-            
-            for (Response response : responses) {
-                try {
-                    SentimentMetrics metrics = sentimentAnalyzer.analyzeSentiment(response.getContent());
-                    
-                    Map<String, Object> responseMetrics = new HashMap<>();
-                    responseMetrics.put("sentiment", metrics.getSentiment());
-                    responseMetrics.put("confidence", metrics.getConfidence());
-                    responseMetrics.put("emotions", metrics.getEmotions());
-                    responseMetrics.put("toxicity", metrics.getToxicityScore());
-                    responseMetrics.put("professionalism", metrics.getProfessionalismScore());
-                    
-                    sentimentData.put(response.getId().toString(), responseMetrics);
-                    
-                } catch (Exception e) {
-                    log.warn("Failed to analyze sentiment for response: {}", response.getId(), e);
-                }
-            }
-            
-            return sentimentData;
-        });
-    }
-    
-    /**
-     * Analyze factual accuracy and evidence quality
-     */
-    private CompletableFuture<Map<String, Double>> analyzeFactuality(List<Response> responses) {
-        return CompletableFuture.supplyAsync(() -> {
-            Map<String, Double> scores = new HashMap<>();
-            
-            for (Response response : responses) {
-                try {
-                    FactualityMetrics metrics = factualityChecker.checkFactuality(response.getContent());
-                    double factualityScore = calculateFactualityScore(metrics);
-                    scores.put(response.getId().toString(), factualityScore);
-                    
-                } catch (Exception e) {
-                    log.warn("Failed to analyze factuality for response: {}", response.getId(), e);
-                    scores.put(response.getId().toString(), 0.5);
+    public Optional<DebateAnalysisDto> currentQuality(UUID debateId) {
+        return incrementalQualityScorer.current(debateId)
+            .filter(aggregate -> aggregate.getTotals().getResponseCount() > 0)
+            .map(aggregate -> {
+                QualityTotals totals = aggregate.getTotals();
+                double overallQuality = totals.overallQuality();
+                
+                Map<String, Object> participantAnalysis = new HashMap<>();
+                for (DebateQualityAggregate.ParticipantQuality participant : aggregate.getParticipants()) {
+                    participantAnalysis.put(participant.getParticipantId().toString(), summarize(participant.getTotals()));
                 }
-            }
-            
-            return scores;
-        });
+                
+                return DebateAnalysisDto.builder()
+                    .debateId(debateId.toString())
+                    .overallQualityScore(overallQuality)
+                    .qualityGrade(determineQualityGrade(overallQuality))
+                    .participantAnalysis(participantAnalysis)
+                    .qualityBreakdown(breakdown(totals))
+                    .analysisTimestamp(aggregate.getUpdatedAt())
+                    .analysisVersion(INCREMENTAL_ANALYSIS_VERSION)
+                    .build();
+            });
     }
     
     /**
@@ -251,50 +171,39 @@ public class DebateQualityScorer {
         }
     }
     
-    /**
-     * Calculate overall argument quality score
-     */
-    private double calculateArgumentScore(ArgumentQualityMetrics metrics) {
-        return (metrics.getLogicalStrength() * 0.3 +
-                metrics.getEvidenceQuality() * 0.25 +
-                metrics.getClarityScore() * 0.2 +
-                metrics.getRelevanceScore() * 0.15 +
-                metrics.getOriginalityScore() * 0.1);
-    }
-    
-    /**
-     * Calculate coherence score
-     */
-    private double calculateCoherenceScore(CoherenceMetrics metrics) {
-        return (metrics.getLogicalFlow() * 0.4 +
-                metrics.getStructuralCoherence() * 0.3 +
-                metrics.getTransitionQuality() * 0.3);
-    }
-    
-    /**
-     * Calculate factuality score
-     */
-    private double calculateFactualityScore(FactualityMetrics metrics) {
-        return (metrics.getFactualAccuracy() * 0.5 +
-                metrics.getSourceReliability() * 0.3 +
-                metrics.getEvidenceStrength() * 0.2);
-    }
-    
     /**
      * Build comprehensive analysis result
      */
     private DebateAnalysisDto buildComprehensiveAnalysis(
             Debate debate,
-            Map<String, Double> argumentScores,
-            Map<String, Double> coherenceScores,
-            Map<String, Object> sentimentAnalysis,
-            Map<String, Double> factualityScores,
+            Collection<ResponseQualityScore> vectors,
             DebateStructureAnalysis structureAnalysis,
             Map<String, Object> llmAnalysis) {
         
-        // Calculate overall scores
-        double overallQuality = calculateOverallQuality(
-            argumentScores, coherenceScores, factualityScores);
+        Map<String, Double> argumentScores = new HashMap<>();
+        Map<String, Double> coherenceScores = new HashMap<>();
+        Map<String, Double> factualityScores = new HashMap<>();
+        Map<String, Object> sentimentAnalysis = new HashMap<>();
+        for (ResponseQualityScore vector : vectors) {
+            String responseId = vector.getResponseId().toString();
+            argumentScores.put(responseId, vector.getArgumentScore());
+            coherenceScores.put(responseId, vector.getCoherenceScore());
+            factualityScores.put(responseId, vector.getFactualityScore());
+            
+            Map<String, Object> responseMetrics = new HashMap<>();
+            responseMetrics.put("sentiment", vector.getSentiment());
+            responseMetrics.put("confidence", vector.getSentimentConfidence());
+            responseMetrics.put("emotions", vector.getEmotions());
+            responseMetrics.put("toxicity", vector.getToxicity());
+            responseMetrics.put("professionalism", vector.getProfessionalism());
+            sentimentAnalysis.put(responseId, responseMetrics);
+        }
+        
+        // Overall quality comes from the running aggregates rather than another pass
+        QualityTotals totals = incrementalQualityScorer.current(debate.getId())
+            .map(DebateQualityAggregate::getTotals)
+            .orElseGet(QualityTotals::new);
+        double overallQuality = totals.overallQuality();
         
         return DebateAnalysisDto.builder()
             .debateId(debate.getId().toString())
@@ -307,26 +216,11 @@ public class DebateQualityScorer {
             .llmInsights(llmAnalysis)
             .qualityGrade(determineQualityGrade(overallQuality))
             .recommendations(generateRecommendations(overallQuality, structureAnalysis))
+            .qualityBreakdown(breakdown(totals))
             .analysisTimestamp(java.time.LocalDateTime.now())
             .build();
     }
     
-    /**
-     * Calculate overall debate quality score
-     */
-    private double calculateOverallQuality(Map<String, Double> argumentScores,
-                                          Map<String, Double> coherenceScores,
-                                          Map<String, Double> factualityScores) {
-        double avgArgument = argumentScores.values().stream()
-            .mapToDouble(Double::doubleValue).average().orElse(0.5);
-        double avgCoherence = coherenceScores.values().stream()
-            .mapToDouble(Double::doubleValue).average().orElse(0.5);
-        double avgFactuality = factualityScores.values().stream()
-            .mapToDouble(Double::doubleValue).average().orElse(0.5);
-            
-        return (avgArgument * 0.4 + avgCoherence * 0.3 + avgFactuality * 0.3);
-    }
-    
     /**
      * Determine quality grade based on score
      */
@@ -341,6 +235,28 @@ public class DebateQualityScorer {
         return "F";
     }
     
+    private DebateAnalysisDto.QualityBreakdown breakdown(QualityTotals totals) {
+        return DebateAnalysisDto.QualityBreakdown.builder()
+            .argumentStrength(totals.argumentAverage())
+            .logicalCoherence(totals.coherenceAverage())
+            .factualAccuracy(totals.factualityAverage())
+            .civility(1.0 - totals.toxicityAverage())
+            .build();
+    }
+    
+    private Map<String, Object> summarize(QualityTotals totals) {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("responses", totals.getResponseCount());
+        summary.put("overallQuality", totals.overallQuality());
+        summary.put("argument", totals.argumentAverage());
+        summary.put("coherence", totals.coherenceAverage());
+        summary.put("factuality", totals.factualityAverage());
+        summary.put("sentiment", totals.sentimentAverage());
+        summary.put("toxicity", totals.toxicityAverage());
+        summary.put("professionalism", totals.professionalismAverage());
+        return summary;
+    }
+    
     /**
      * Generate improvement recommendations
      */
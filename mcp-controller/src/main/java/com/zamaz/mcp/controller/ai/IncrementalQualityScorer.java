@@ -0,0 +1,172 @@
+package com.zamaz.mcp.controller.ai;
+
+import com.zamaz.mcp.controller.config.QualityScoringAsyncConfig;
+import com.zamaz.mcp.controller.entity.DebateQualityAggregate;
+import com.zamaz.mcp.controller.entity.Response;
+import com.zamaz.mcp.controller.entity.ResponseQualityScore;
+import com.zamaz.mcp.controller.event.DebateEvents.NewResponseEvent;
+import com.zamaz.mcp.controller.repository.DebateQualityAggregateRepository;
+import com.zamaz.mcp.controller.repository.ResponseQualityScoreRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Scores each response once, when it is submitted, and keeps running quality aggregates.
+ *
+ * The response's feature vector is stored, then folded into the debate and participant
+ * totals under a row lock, so every new response costs O(1) aggregate work and the
+ * current debate quality is readable at any moment without re-analyzing history.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IncrementalQualityScorer {
+
+    private final LexicalScanner lexicalScanner;
+    private final ArgumentAnalyzer argumentAnalyzer;
+    private final CoherenceAnalyzer coherenceAnalyzer;
+    private final SentimentAnalyzer sentimentAnalyzer;
+    private final FactualityChecker factualityChecker;
+    private final ResponseQualityScoreRepository scoreRepository;
+    private final DebateQualityAggregateRepository aggregateRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${ai.quality-scoring.enabled:true}")
+    private boolean qualityScoringEnabled;
+
+    /**
+     * Score a response after it has been committed
+     */
+    @Async(QualityScoringAsyncConfig.QUALITY_SCORING_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(NewResponseEvent event) {
+        if (!qualityScoringEnabled) {
+            return;
+        }
+
+        try {
+            record(UUID.fromString(event.getDebateId()), UUID.fromString(event.getResponseId()),
+                UUID.fromString(event.getParticipantId()), event.getRoundNumber(), event.getContent());
+        } catch (Exception e) {
+            log.warn("Failed to score response {} of debate {}", event.getResponseId(), event.getDebateId(), e);
+        }
+    }
+
+    /**
+     * Score a response and fold it into the aggregates.
+     * A response that is already scored is returned unchanged and counted only once.
+     */
+    public ResponseQualityScore record(UUID debateId, UUID responseId, UUID participantId,
+                                       Integer roundNumber, String content) {
+        // Analysis is pure CPU work, so it runs before the row lock is taken
+        ResponseQualityScore score = score(debateId, responseId, participantId, roundNumber, content);
+
+        return transactionTemplate.execute(status -> {
+            aggregateRepository.insertIfAbsent(debateId);
+            DebateQualityAggregate aggregate = aggregateRepository.findForUpdate(debateId)
+                .orElseThrow(() -> new IllegalStateException("Quality aggregate missing for debate " + debateId));
+
+            Optional<ResponseQualityScore> existing = scoreRepository.findById(responseId);
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+
+            ResponseQualityScore saved = scoreRepository.save(score);
+            aggregate.add(saved);
+            aggregateRepository.save(aggregate);
+
+            log.debug("Scored response {} of debate {}; debate quality now {}",
+                responseId, debateId, aggregate.getTotals().overallQuality());
+            return saved;
+        });
+    }
+
+    /**
+     * Feature vectors for the given responses, scoring any that predate incremental scoring
+     */
+    public Map<UUID, ResponseQualityScore> vectorsFor(UUID debateId, List<Response> responses) {
+        Map<UUID, ResponseQualityScore> vectors = new HashMap<>();
+        scoreRepository.findAllById(responses.stream().map(Response::getId).toList())
+            .forEach(score -> vectors.put(score.getResponseId(), score));
+
+        for (Response response : responses) {
+            if (!vectors.containsKey(response.getId())) {
+                vectors.put(response.getId(), record(debateId, response.getId(),
+                    response.getParticipant().getId(), response.getRound().getRoundNumber(),
+                    response.getContent()));
+            }
+        }
+        return vectors;
+    }
+
+    /**
+     * Current running aggregates of a debate, if any response has been scored
+     */
+    public Optional<DebateQualityAggregate> current(UUID debateId) {
+        return aggregateRepository.findById(debateId);
+    }
+
+    /**
+     * Compute the feature vector of a single response; every analyzer shares one scan
+     */
+    ResponseQualityScore score(UUID debateId, UUID responseId, UUID participantId,
+                               Integer roundNumber, String content) {
+        LexicalFeatures features = lexicalScanner.scan(content);
+        SentimentMetrics sentiment = sentimentAnalyzer.analyzeSentiment(features);
+
+        return ResponseQualityScore.builder()
+            .responseId(responseId)
+            .debateId(debateId)
+            .participantId(participantId)
+            .roundNumber(roundNumber)
+            .argumentScore(argumentScore(argumentAnalyzer.analyzeArgument(features)))
+            .coherenceScore(coherenceScore(coherenceAnalyzer.analyzeCoherence(features)))
+            .factualityScore(factualityScore(factualityChecker.checkFactuality(content)))
+            .sentiment(sentiment.getSentiment())
+            .sentimentConfidence(sentiment.getConfidence())
+            .toxicity(sentiment.getToxicityScore())
+            .professionalism(sentiment.getProfessionalismScore())
+            .emotions(sentiment.getEmotions())
+            .build();
+    }
+
+    /**
+     * Calculate overall argument quality score
+     */
+    static double argumentScore(ArgumentQualityMetrics metrics) {
+        return (metrics.getLogicalStrength() * 0.3 +
+                metrics.getEvidenceQuality() * 0.25 +
+                metrics.getClarityScore() * 0.2 +
+                metrics.getRelevanceScore() * 0.15 +
+                metrics.getOriginalityScore() * 0.1);
+    }
+
+    /**
+     * Calculate coherence score
+     */
+    static double coherenceScore(CoherenceMetrics metrics) {
+        return (metrics.getLogicalFlow() * 0.4 +
+                metrics.getStructuralCoherence() * 0.3 +
+                metrics.getTransitionQuality() * 0.3);
+    }
+
+    /**
+     * Calculate factuality score
+     */
+    static double factualityScore(FactualityMetrics metrics) {
+        return (metrics.getFactualAccuracy() * 0.5 +
+                metrics.getSourceReliability() * 0.3 +
+                metrics.getEvidenceStrength() * 0.2);
+    }
+}
@@ -0,0 +1,117 @@
+package com.zamaz.mcp.controller.ai;
+
+import java.util.List;
+
+/**
+ * Phrase classes recognized by {@link LexicalScanner}.
+ *
+ * Phrases are lowercase and matched on whole words; a phrase may belong to several
+ * features, in which case every feature it belongs to is counted.
+ */
+public enum LexicalFeature {
+
+    // Transitions
+    TRANSITION_ADDITION("furthermore", "moreover", "additionally", "also", "besides", "in addition",
+            "similarly", "likewise", "equally important"),
+    TRANSITION_CONTRAST("however", "nevertheless", "nonetheless", "on the other hand",
+            "although", "though", "despite", "in contrast", "conversely"),
+    TRANSITION_CAUSATION("because", "since", "as a result", "therefore", "thus", "consequently",
+            "due to", "owing to", "leads to", "causes", "results in"),
+    TRANSITION_SEQUENCE("first", "second", "third", "finally", "lastly", "next", "then",
+            "initially", "subsequently", "meanwhile", "eventually"),
+    TRANSITION_EMPHASIS("indeed", "certainly", "undoubtedly", "clearly", "obviously",
+            "most importantly", "above all", "especially", "particularly"),
+    TRANSITION_CONCLUSION("in conclusion", "to summarize", "in summary", "overall",
+            "ultimately", "in the end", "to conclude"),
+
+    // Structure and flow
+    STRUCTURE("let me explain", "here's why", "the reason is", "for example", "for instance", "consider",
+            "imagine", "my point is", "what i mean is", "in other words", "this shows", "this demonstrates",
+            "this proves"),
+    DISRUPTION_TANGENT("by the way", "speaking of", "off topic", "unrelated"),
+    DISRUPTION_HESITATION("wait", "hold on", "let me think", "um", "uh"),
+    DISRUPTION_DISMISSAL("anyway", "whatever", "never mind", "forget that"),
+    BACK_REFERENCE("this", "that", "these", "those", "it", "they"),
+    INTRODUCTION("first", "initially", "to begin", "let me start", "i will argue"),
+    ENUMERATION("first", "second", "third", "finally", "lastly"),
+
+    // Argument structure
+    CLAIM("i argue", "i claim", "i contend", "my position"),
+    EVIDENCE_TERM("evidence", "data", "research", "studies"),
+    EVIDENCE_CITATION("according to", "studies show", "research indicates", "data suggests",
+            "statistics reveal", "evidence shows", "for example", "for instance"),
+    REASONING("because", "therefore", "this shows"),
+    PREMISE("because"),
+    INFERENCE("therefore", "thus"),
+    LOGICAL_CONNECTOR("therefore", "because", "since", "as a result", "consequently", "hence", "thus",
+            "however", "nevertheless", "on the other hand"),
+    COUNTERARGUMENT("however", "although", "some might argue", "critics claim", "opponents say",
+            "on the other hand"),
+    REBUTTAL("but this overlooks", "however this ignores", "this argument fails"),
+    WARRANT("this is important because", "this matters because", "the significance"),
+    EXAMPLE("for example", "for instance", "such as", "including"),
+    CITATION_MARKER("et al"),
+    MAGNITUDE("million", "billion", "thousand"),
+    CLICHE("at the end of the day", "think outside the box", "low hanging fruit", "paradigm shift"),
+    INSIGHT("surprisingly", "unexpectedly", "contrary to", "interestingly", "novel approach"),
+    ANALOGY("like", "as if", "similar to", "comparable to", "just as"),
+    CONCRETE("people", "person", "data", "study", "example", "case", "number", "percent"),
+    ABSTRACT("concept", "idea", "notion", "theory", "principle", "belief"),
+
+    // Fallacy markers
+    OVERGENERALIZATION("always", "never", "all", "none", "everyone", "no one"),
+    AD_HOMINEM("you are wrong because"),
+    DICHOTOMY_LEAD("either"),
+    DICHOTOMY_ALTERNATIVE("or"),
+    SLOPE_LEAD("if we"),
+    SLOPE_CONSEQUENCE("then"),
+
+    // Sentiment
+    POSITIVE_STRONG("excellent", "outstanding", "brilliant", "effective", "successful", "beneficial",
+            "positive", "good", "great", "wonderful", "amazing"),
+    POSITIVE_ENDORSEMENT("support", "agree", "endorse", "favor", "approve", "appreciate", "commend", "praise"),
+    POSITIVE_OUTCOME("improvement", "progress", "success", "achievement", "solution", "opportunity"),
+    NEGATIVE_STRONG("terrible", "awful", "horrible", "disastrous", "failed", "wrong", "bad", "poor", "weak",
+            "flawed"),
+    NEGATIVE_OPPOSITION("oppose", "disagree", "reject", "deny", "refuse", "condemn", "criticize", "attack"),
+    NEGATIVE_RISK("problem", "issue", "concern", "threat", "risk", "danger", "failure", "mistake"),
+    EMOTION_ANGER("angry", "furious", "outraged", "irritated", "frustrated", "annoyed"),
+    EMOTION_FEAR("afraid", "scared", "worried", "concerned", "anxious", "nervous"),
+    EMOTION_JOY("happy", "excited", "pleased", "delighted", "thrilled", "optimistic"),
+    EMOTION_SADNESS("sad", "disappointed", "discouraged", "hopeless", "depressed"),
+    EMOTION_SURPRISE("surprised", "shocked", "amazed", "astonished", "unexpected"),
+    EMOTION_CONFIDENCE("confident", "certain", "sure", "convinced", "determined"),
+    TOXIC_INSULT("stupid", "idiot", "moron", "fool", "ridiculous", "absurd"),
+    TOXIC_PERSONAL("you are wrong", "you're wrong", "you are stupid", "you're stupid",
+            "you are an idiot", "you're an idiot"),
+    TOXIC_DISMISSIVE("shut up", "get lost", "go away"),
+    TOXIC_HOSTILE("hate", "despise", "loathe"),
+    PROFESSIONAL_SOURCING("research shows", "studies indicate", "data suggests", "evidence demonstrates"),
+    PROFESSIONAL_COURTESY("respectfully", "humbly", "politely", "courteously"),
+    PROFESSIONAL_POLITENESS("thank you", "please", "may i suggest", "i would argue"),
+    PROFESSIONAL_CONNECTIVE("furthermore", "moreover", "additionally", "in conclusion"),
+    SUBJECTIVE_OPINION("i think", "i believe", "i feel", "in my opinion", "personally", "i would say"),
+    HEDGE("seems", "appears", "might", "could", "probably", "possibly"),
+    SUBJECTIVE_EVALUATION("beautiful", "ugly", "amazing", "terrible", "wonderful", "awful"),
+    OBJECTIVE_ATTRIBUTION("data shows", "research indicates", "according to", "statistics reveal"),
+    OBJECTIVE_TERM("fact", "evidence", "study", "research", "analysis"),
+    INFORMAL_SLANG("gonna", "wanna", "kinda", "sorta", "yeah", "nope", "ok", "lol", "omg", "u"),
+    INFORMAL_ADDRESS("dude", "bro", "guys", "folks");
+
+    static final List<LexicalFeature> TRANSITIONS = List.of(
+            TRANSITION_ADDITION, TRANSITION_CONTRAST, TRANSITION_CAUSATION,
+            TRANSITION_SEQUENCE, TRANSITION_EMPHASIS, TRANSITION_CONCLUSION);
+
+    static final List<LexicalFeature> DISRUPTIONS = List.of(
+            DISRUPTION_TANGENT, DISRUPTION_HESITATION, DISRUPTION_DISMISSAL);
+
+    private final String[] phrases;
+
+    LexicalFeature(String... phrases) {
+        this.phrases = phrases;
+    }
+
+    String[] phrases() {
+        return phrases;
+    }
+}
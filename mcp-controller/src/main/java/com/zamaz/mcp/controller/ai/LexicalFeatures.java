@@ -0,0 +1,166 @@
+package com.zamaz.mcp.controller.ai;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * Everything the text analyzers need from a response, produced by a single
+ * {@link LexicalScanner} pass: phrase feature counts, per-sentence feature presence,
+ * sentence geometry and a few character-level signals.
+ */
+public final class LexicalFeatures {
+
+    private static final int FEATURES = LexicalFeature.values().length;
+
+    private final int[] counts = new int[FEATURES];
+    private final int[] firstOffsets = new int[FEATURES];
+    private final int[] lastOffsets = new int[FEATURES];
+    private final BitSet sentenceFeatures = new BitSet();
+
+    private int[] sentenceStarts = new int[8];
+    private int[] sentenceEnds = new int[8];
+    private int[] sentenceTrimmedLengths = new int[8];
+    private int[] sentenceWordCounts = new int[8];
+    private int sentenceCount;
+
+    /** Length of the scanned text in characters */
+    @Getter
+    int length;
+
+    /** Whitespace-separated tokens in the whole text */
+    @Getter
+    int wordCount;
+
+    /** Words longer than three characters written entirely in capitals */
+    @Getter
+    int shoutedWordCount;
+
+    /** Runs of repeated exclamation or question marks */
+    @Getter
+    int emphaticPunctuationCount;
+
+    /** Percentages, decimals, currency amounts and magnitudes such as "3 million" */
+    @Getter
+    int numericCount;
+
+    /** Numbered or bulleted list markers */
+    @Getter
+    int listMarkerCount;
+
+    /** Year-in-parentheses, bracketed and "et al." citations */
+    @Getter
+    int citationCount;
+
+    /** "was/were/been/being" followed by an -ed participle */
+    @Getter
+    int passiveCount;
+
+    @Getter
+    int ampersandCount;
+
+    /** Whether every sentence starts with a capital letter */
+    @Getter
+    boolean properlyCapitalized = true;
+
+    /** Whether the text ends with sentence punctuation */
+    @Getter
+    boolean terminated;
+
+    LexicalFeatures() {
+        Arrays.fill(firstOffsets, -1);
+        Arrays.fill(lastOffsets, -1);
+    }
+
+    public int count(LexicalFeature feature) {
+        return counts[feature.ordinal()];
+    }
+
+    public int count(Collection<LexicalFeature> features) {
+        int total = 0;
+        for (LexicalFeature feature : features) {
+            total += counts[feature.ordinal()];
+        }
+        return total;
+    }
+
+    public boolean has(LexicalFeature feature) {
+        return counts[feature.ordinal()] > 0;
+    }
+
+    /**
+     * Whether {@code first} occurs somewhere before the last occurrence of {@code then}
+     */
+    public boolean precedes(LexicalFeature first, LexicalFeature then) {
+        int start = firstOffsets[first.ordinal()];
+        return start >= 0 && lastOffsets[then.ordinal()] > start;
+    }
+
+    public int sentenceCount() {
+        return sentenceCount;
+    }
+
+    public boolean sentenceHas(int sentence, LexicalFeature feature) {
+        return sentenceFeatures.get(sentence * FEATURES + feature.ordinal());
+    }
+
+    public boolean sentenceHasAny(int sentence, Collection<LexicalFeature> features) {
+        for (LexicalFeature feature : features) {
+            if (sentenceHas(sentence, feature)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Length of the sentence including surrounding whitespace */
+    public int sentenceLength(int sentence) {
+        return sentenceEnds[sentence] - sentenceStarts[sentence];
+    }
+
+    public int sentenceTrimmedLength(int sentence) {
+        return sentenceTrimmedLengths[sentence];
+    }
+
+    public int sentenceWordCount(int sentence) {
+        return sentenceWordCounts[sentence];
+    }
+
+    public double averageSentenceWords() {
+        if (sentenceCount == 0) {
+            return 0.0;
+        }
+        long words = 0;
+        for (int i = 0; i < sentenceCount; i++) {
+            words += sentenceWordCounts[i];
+        }
+        return (double) words / sentenceCount;
+    }
+
+    void recordMatch(LexicalFeature feature, int sentence, int offset) {
+        int ordinal = feature.ordinal();
+        counts[ordinal]++;
+        if (firstOffsets[ordinal] < 0) {
+            firstOffsets[ordinal] = offset;
+        }
+        lastOffsets[ordinal] = offset;
+        sentenceFeatures.set(sentence * FEATURES + ordinal);
+    }
+
+    void recordSentence(int start, int end, int trimmedLength, int words) {
+        if (sentenceCount == sentenceStarts.length) {
+            int capacity = sentenceCount * 2;
+            sentenceStarts = Arrays.copyOf(sentenceStarts, capacity);
+            sentenceEnds = Arrays.copyOf(sentenceEnds, capacity);
+            sentenceTrimmedLengths = Arrays.copyOf(sentenceTrimmedLengths, capacity);
+            sentenceWordCounts = Arrays.copyOf(sentenceWordCounts, capacity);
+        }
+        sentenceStarts[sentenceCount] = start;
+        sentenceEnds[sentenceCount] = end;
+        sentenceTrimmedLengths[sentenceCount] = trimmedLength;
+        sentenceWordCounts[sentenceCount] = words;
+        sentenceCount++;
+    }
+}
@@ -0,0 +1,273 @@
+package com.zamaz.mcp.controller.ai;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Single-pass lexical scanner shared by the debate text analyzers.
+ *
+ * One walk over the text drives the phrase automaton for every {@link LexicalFeature}
+ * and, at the same time, tracks sentence boundaries, word counts and the character-level
+ * signals (numbers, citations, list markers, shouting) that the analyzers used to derive
+ * from separate regular expressions and repeated sentence splits.
+ */
+@Component
+public class LexicalScanner {
+
+    private static final LexicalFeature[] FEATURES = LexicalFeature.values();
+
+    private final PhraseMatcher matcher;
+
+    public LexicalScanner() {
+        PhraseMatcher.Builder builder = PhraseMatcher.builder();
+        for (LexicalFeature feature : FEATURES) {
+            for (String phrase : feature.phrases()) {
+                builder.add(phrase, feature.ordinal());
+            }
+        }
+        this.matcher = builder.build();
+    }
+
+    /**
+     * Scan the text once and collect all lexical features
+     */
+    public LexicalFeatures scan(String text) {
+        LexicalFeatures features = new LexicalFeatures();
+        if (text != null && !text.isEmpty()) {
+            new Scan(text, features).run();
+        }
+        return features;
+    }
+
+    /**
+     * Mutable state of one scan
+     */
+    private final class Scan {
+
+        private final String text;
+        private final LexicalFeatures features;
+
+        private int state = PhraseMatcher.ROOT;
+
+        // Current sentence, delimited by runs of . ! ?
+        private int sentenceStart;
+        private int sentenceFirst = -1;
+        private int sentenceLast = -1;
+        private int sentenceWords;
+        private boolean inSentenceWord;
+
+        // Current whitespace-delimited token
+        private int tokenStart = -1;
+        private int tokenLetters;
+        private boolean tokenHasLower;
+        private boolean tokenAllLetters;
+        private boolean previousAuxiliary;
+
+        private char punctuationRun;
+        private int punctuationRunLength;
+        private int lastNonWhitespace = -1;
+
+        Scan(String text, LexicalFeatures features) {
+            this.text = text;
+            this.features = features;
+        }
+
+        void run() {
+            int length = text.length();
+            features.length = length;
+            for (int i = 0; i < length; i++) {
+                char c = text.charAt(i);
+                matchPhrases(i, c);
+                trackToken(i, c);
+                trackSentence(i, c);
+                trackSymbols(i, c);
+            }
+
+            if (tokenStart >= 0) {
+                endToken(length);
+            }
+            if (sentenceFirst >= 0) {
+                endSentence(length);
+            }
+            features.terminated = lastNonWhitespace >= 0 && isTerminator(text.charAt(lastNonWhitespace));
+        }
+
+        private void matchPhrases(int i, char c) {
+            state = matcher.next(state, c);
+            for (int match : matcher.matches(state)) {
+                int start = i - PhraseMatcher.length(match) + 1;
+                if (isWordChar(start - 1) || isWordChar(i + 1)) {
+                    continue;
+                }
+
+                LexicalFeature feature = FEATURES[PhraseMatcher.id(match)];
+                // A phrase never spans a terminator, so it belongs to the open sentence
+                features.recordMatch(feature, features.sentenceCount(), start);
+
+                if (feature == LexicalFeature.CITATION_MARKER) {
+                    features.citationCount++;
+                } else if (feature == LexicalFeature.MAGNITUDE
+                        && start >= 2 && text.charAt(start - 1) == ' ' && isDigit(start - 2)) {
+                    features.numericCount++;
+                }
+            }
+        }
+
+        private void trackToken(int i, char c) {
+            if (Character.isWhitespace(c)) {
+                if (tokenStart >= 0) {
+                    endToken(i);
+                }
+                return;
+            }
+
+            lastNonWhitespace = i;
+            if (tokenStart < 0) {
+                tokenStart = i;
+                tokenLetters = 0;
+                tokenHasLower = false;
+                tokenAllLetters = true;
+                features.wordCount++;
+            }
+            if (Character.isLetter(c)) {
+                tokenLetters++;
+                tokenHasLower |= Character.isLowerCase(c);
+            } else {
+                tokenAllLetters = false;
+            }
+        }
+
+        private void endToken(int end) {
+            if (end - tokenStart > 3 && tokenLetters > 0 && !tokenHasLower) {
+                features.shoutedWordCount++;
+            }
+            if (previousAuxiliary && isParticiple(tokenStart, end)) {
+                features.passiveCount++;
+            }
+            previousAuxiliary = tokenAllLetters && isAuxiliary(tokenStart, end);
+            tokenStart = -1;
+        }
+
+        private void trackSentence(int i, char c) {
+            if (isTerminator(c)) {
+                if (sentenceFirst >= 0) {
+                    endSentence(i);
+                }
+                sentenceStart = i + 1;
+                inSentenceWord = false;
+                return;
+            }
+
+            if (Character.isWhitespace(c)) {
+                inSentenceWord = false;
+                return;
+            }
+
+            if (sentenceFirst < 0) {
+                sentenceFirst = i;
+                if (!Character.isUpperCase(c)) {
+                    features.properlyCapitalized = false;
+                }
+            }
+            sentenceLast = i;
+            if (!inSentenceWord) {
+                inSentenceWord = true;
+                sentenceWords++;
+            }
+        }
+
+        private void endSentence(int end) {
+            features.recordSentence(sentenceStart, end, sentenceLast - sentenceFirst + 1, sentenceWords);
+            sentenceFirst = -1;
+            sentenceLast = -1;
+            sentenceWords = 0;
+        }
+
+        private void trackSymbols(int i, char c) {
+            if (c == '!' || c == '?') {
+                punctuationRunLength = c == punctuationRun ? punctuationRunLength + 1 : 1;
+                punctuationRun = c;
+                if (punctuationRunLength == 2) {
+                    features.emphaticPunctuationCount++;
+                }
+            } else {
+                punctuationRun = 0;
+                punctuationRunLength = 0;
+            }
+
+            switch (c) {
+                case '%' -> {
+                    if (isDigit(i - 1)) {
+                        features.numericCount++;
+                    }
+                }
+                case '$' -> {
+                    if (isDigit(i + 1)) {
+                        features.numericCount++;
+                    }
+                }
+                case '.' -> {
+                    if (isDigit(i - 1)) {
+                        if (isDigit(i + 1)) {
+                            features.numericCount++;
+                        } else {
+                            features.listMarkerCount++;
+                        }
+                    }
+                }
+                case '\u2022', '*' -> features.listMarkerCount++;
+                case '&' -> features.ampersandCount++;
+                case ')' -> {
+                    if (i >= 5 && text.charAt(i - 5) == '('
+                            && isDigit(i - 4) && isDigit(i - 3) && isDigit(i - 2) && isDigit(i - 1)) {
+                        features.citationCount++;
+                    }
+                }
+                case ']' -> {
+                    int j = i - 1;
+                    while (isDigit(j)) {
+                        j--;
+                    }
+                    if (j < i - 1 && j >= 0 && text.charAt(j) == '[') {
+                        features.citationCount++;
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        private boolean isAuxiliary(int start, int end) {
+            int length = end - start;
+            return (length == 3 && text.regionMatches(true, start, "was", 0, 3))
+                    || (length == 4 && (text.regionMatches(true, start, "were", 0, 4)
+                        || text.regionMatches(true, start, "been", 0, 4)))
+                    || (length == 5 && text.regionMatches(true, start, "being", 0, 5));
+        }
+
+        private boolean isParticiple(int start, int end) {
+            int wordEnd = start;
+            while (wordEnd < end && Character.isLetter(text.charAt(wordEnd))) {
+                wordEnd++;
+            }
+            return wordEnd - start >= 3
+                    && !isWordChar(wordEnd)
+                    && text.regionMatches(true, wordEnd - 2, "ed", 0, 2);
+        }
+
+        private boolean isWordChar(int index) {
+            if (index < 0 || index >= text.length()) {
+                return false;
+            }
+            char c = text.charAt(index);
+            return Character.isLetterOrDigit(c) || c == '_';
+        }
+
+        private boolean isDigit(int index) {
+            return index >= 0 && index < text.length() && Character.isDigit(text.charAt(index));
+        }
+    }
+
+    private static boolean isTerminator(char c) {
+        return c == '.' || c == '!' || c == '?';
+    }
+}
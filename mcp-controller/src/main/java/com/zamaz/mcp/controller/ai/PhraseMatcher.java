@@ -0,0 +1,178 @@
+package com.zamaz.mcp.controller.ai;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Aho-Corasick automaton over a fixed phrase dictionary.
+ *
+ * The automaton is compiled to a dense transition table over a small alphabet (letters,
+ * apostrophe, whitespace), so matching costs one array lookup per input character no
+ * matter how many phrases are registered. Any other character resets to the root, which
+ * is correct because no phrase contains one. Word boundaries are left to the caller.
+ */
+final class PhraseMatcher {
+
+    static final int ROOT = 0;
+
+    private static final int OTHER = 0;
+    private static final int APOSTROPHE = 27;
+    private static final int SPACE = 28;
+    private static final int ALPHABET = 29;
+
+    private static final int[] NO_MATCHES = new int[0];
+
+    private final int[] transitions;
+    private final int[][] outputs;
+
+    private PhraseMatcher(int[] transitions, int[][] outputs) {
+        this.transitions = transitions;
+        this.outputs = outputs;
+    }
+
+    /**
+     * Advance the automaton by one input character
+     */
+    int next(int state, char c) {
+        return transitions[state * ALPHABET + symbol(c)];
+    }
+
+    /**
+     * Phrases ending at the given state, each encoded by {@link #encode(int, int)}
+     */
+    int[] matches(int state) {
+        return outputs[state];
+    }
+
+    static int encode(int id, int length) {
+        return (id << 16) | length;
+    }
+
+    static int id(int match) {
+        return match >>> 16;
+    }
+
+    static int length(int match) {
+        return match & 0xFFFF;
+    }
+
+    static int symbol(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 1;
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 1;
+        }
+        if (c == '\'' || c == '\u2019') {
+            return APOSTROPHE;
+        }
+        if (c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+            return SPACE;
+        }
+        return OTHER;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Collects phrases and compiles them into a matcher
+     */
+    static final class Builder {
+
+        private final List<int[]> children = new ArrayList<>();
+        private final List<int[]> terminals = new ArrayList<>();
+
+        private Builder() {
+            newNode();
+        }
+
+        /**
+         * Register a phrase under the given id; ids must fit in 15 bits
+         */
+        Builder add(String phrase, int id) {
+            int node = ROOT;
+            for (int i = 0; i < phrase.length(); i++) {
+                int symbol = symbol(phrase.charAt(i));
+                if (symbol == OTHER) {
+                    throw new IllegalArgumentException("Unsupported character in phrase: " + phrase);
+                }
+                int child = children.get(node)[symbol];
+                if (child == 0) {
+                    child = newNode();
+                    children.get(node)[symbol] = child;
+                }
+                node = child;
+            }
+            terminals.set(node, append(terminals.get(node), encode(id, phrase.length())));
+            return this;
+        }
+
+        PhraseMatcher build() {
+            int size = children.size();
+            int[] transitions = new int[size * ALPHABET];
+            int[] failure = new int[size];
+            int[][] outputs = new int[size][];
+
+            Deque<Integer> queue = new ArrayDeque<>();
+            outputs[ROOT] = terminals.get(ROOT);
+            for (int symbol = 1; symbol < ALPHABET; symbol++) {
+                int child = children.get(ROOT)[symbol];
+                transitions[symbol] = child;
+                if (child != 0) {
+                    failure[child] = ROOT;
+                    outputs[child] = terminals.get(child);
+                    queue.add(child);
+                }
+            }
+
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                for (int symbol = 1; symbol < ALPHABET; symbol++) {
+                    int child = children.get(node)[symbol];
+                    int fallback = transitions[failure[node] * ALPHABET + symbol];
+                    if (child == 0) {
+                        transitions[node * ALPHABET + symbol] = fallback;
+                        continue;
+                    }
+                    transitions[node * ALPHABET + symbol] = child;
+                    failure[child] = fallback;
+                    outputs[child] = concat(terminals.get(child), outputs[fallback]);
+                    queue.add(child);
+                }
+            }
+
+            for (int node = 0; node < size; node++) {
+                if (outputs[node] == null || outputs[node].length == 0) {
+                    outputs[node] = NO_MATCHES;
+                }
+            }
+            return new PhraseMatcher(transitions, outputs);
+        }
+
+        private int newNode() {
+            children.add(new int[ALPHABET]);
+            terminals.add(NO_MATCHES);
+            return children.size() - 1;
+        }
+
+        private static int[] append(int[] values, int value) {
+            int[] result = Arrays.copyOf(values, values.length + 1);
+            result[values.length] = value;
+            return result;
+        }
+
+        private static int[] concat(int[] first, int[] second) {
+            if (second == null || second.length == 0) {
+                return first;
+            }
+            int[] result = Arrays.copyOf(first, first.length + second.length);
+            System.arraycopy(second, 0, result, first.length, second.length);
+            return result;
+        }
+    }
+}
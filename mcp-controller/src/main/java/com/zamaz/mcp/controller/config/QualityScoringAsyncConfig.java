@@ -0,0 +1,39 @@
+package com.zamaz.mcp.controller.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executor for scoring debate responses as they are submitted.
+ * Scoring is CPU-bound, so it gets a pool of its own sized to the cores and never competes
+ * with agentic flow analytics for threads.
+ */
+@Configuration
+public class QualityScoringAsyncConfig {
+
+    public static final String QUALITY_SCORING_EXECUTOR = "qualityScoringExecutor";
+
+    @Bean(name = QUALITY_SCORING_EXECUTOR)
+    public TaskExecutor qualityScoringExecutor(
+            @Value("${ai.quality-scoring.executor.threads:0}") int threads,
+            @Value("${ai.quality-scoring.executor.queue-capacity:1000}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("QualityScoring-");
+        // A full queue slows down the publisher instead of losing scores
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
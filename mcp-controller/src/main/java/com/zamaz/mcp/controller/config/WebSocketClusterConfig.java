@@ -0,0 +1,44 @@
+package com.zamaz.mcp.controller.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Redis pub/sub infrastructure for relaying debate WebSocket broadcasts between replicas
+ */
+@Configuration
+public class WebSocketClusterConfig {
+
+    public static final String DEBATE_BROADCAST_RELAY_EXECUTOR = "debateBroadcastRelayExecutor";
+
+    /**
+     * Threads delivering relayed broadcasts to local sessions.
+     * As a bean it is initialized and shut down by the context, after the container using it stops.
+     */
+    @Bean(name = DEBATE_BROADCAST_RELAY_EXECUTOR)
+    public ThreadPoolTaskExecutor debateBroadcastRelayExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(10000);
+        executor.setThreadNamePrefix("debate-ws-relay-");
+        return executor;
+    }
+
+    /**
+     * Listener container for per-debate broadcast channels
+     */
+    @Bean
+    public RedisMessageListenerContainer debateBroadcastListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            @Qualifier(DEBATE_BROADCAST_RELAY_EXECUTOR) ThreadPoolTaskExecutor relayExecutor) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setTaskExecutor(relayExecutor);
+        return container;
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -68,7 +69,7 @@ public class DebateAnalysisController {
     }
     
     /**
-     * Get previous analysis results if available
+     * Get the current quality of the debate, updated as each response is scored
      */
     @GetMapping("/quality/latest")
     @PreAuthorize("hasPermission(#debateId.toString(), 'Debate', 'READ')")
@@ -76,9 +77,10 @@ public class DebateAnalysisController {
             @PathVariable UUID debateId,
             @RequestHeader("X-Organization-ID") String organizationId) {
         
-        // This would retrieve stored analysis results from database
-        // For now, return not implemented
-        return ResponseEntity.notFound().build();
+        // Served from the running aggregates maintained as responses arrive
+        return debateQualityScorer.currentQuality(debateId)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
     }
     
     /**
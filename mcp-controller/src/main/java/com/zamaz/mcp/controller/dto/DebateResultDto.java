@@ -12,5 +12,8 @@ public class DebateResultDto {
     private UUID debateId;
     private String status;
     private Integer totalRounds;
+    private Integer totalResponses;
+    private Long totalTokens;
     private List<ParticipantResultDto> participants;
+    private List<RoundSummaryDto> rounds;
 }
@@ -3,10 +3,14 @@ package com.zamaz.mcp.controller.dto;
 import lombok.Builder;
 import lombok.Data;
 
+import java.util.UUID;
+
 @Data
 @Builder
 public class ParticipantResultDto {
+    private UUID participantId;
     private String name;
     private String position;
     private Integer responseCount;
+    private Long tokenCount;
 }
@@ -0,0 +1,13 @@
+package com.zamaz.mcp.controller.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class RoundSummaryDto {
+    private Integer roundNumber;
+    private String status;
+    private Integer responseCount;
+    private Long tokenCount;
+}
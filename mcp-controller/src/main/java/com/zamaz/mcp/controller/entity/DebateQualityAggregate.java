@@ -0,0 +1,78 @@
+package com.zamaz.mcp.controller.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Running quality aggregates of a debate and its participants.
+ * Each scored response is folded in once, so the current quality is a single-row read.
+ */
+@Entity
+@Table(name = "debate_quality_aggregates")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DebateQualityAggregate {
+
+    @Id
+    @Column(name = "debate_id")
+    private UUID debateId;
+
+    @Embedded
+    @Builder.Default
+    private QualityTotals totals = new QualityTotals();
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    @Builder.Default
+    private List<ParticipantQuality> participants = new ArrayList<>();
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public void add(ResponseQualityScore score) {
+        totals.add(score);
+        participant(score.getParticipantId()).getTotals().add(score);
+    }
+
+    public ParticipantQuality participant(UUID participantId) {
+        for (ParticipantQuality participant : participants) {
+            if (participantId.equals(participant.getParticipantId())) {
+                return participant;
+            }
+        }
+        ParticipantQuality participant = ParticipantQuality.builder().participantId(participantId).build();
+        participants.add(participant);
+        return participant;
+    }
+
+    /**
+     * Per-participant running totals
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ParticipantQuality {
+        private UUID participantId;
+        @Builder.Default
+        private QualityTotals totals = new QualityTotals();
+    }
+}
@@ -0,0 +1,148 @@
+package com.zamaz.mcp.controller.entity;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Denormalized read model of a debate, maintained from debate events.
+ * Holds everything results, listing and dashboard views need in a single row.
+ */
+@Entity
+@Table(name = "debate_summaries")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DebateSummary {
+
+    @Id
+    @Column(name = "debate_id")
+    private UUID debateId;
+
+    @Column(name = "organization_id", nullable = false)
+    private UUID organizationId;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Column(columnDefinition = "TEXT")
+    private String topic;
+
+    @Column(length = 50)
+    private String format;
+
+    @Column(nullable = false, length = 50)
+    private String status;
+
+    @Column(name = "max_rounds")
+    private Integer maxRounds;
+
+    @Column(name = "current_round")
+    private Integer currentRound;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private JsonNode settings;
+
+    @Column(name = "participant_count", nullable = false)
+    private int participantCount;
+
+    @Column(name = "response_count", nullable = false)
+    private int responseCount;
+
+    @Column(name = "total_tokens", nullable = false)
+    private long totalTokens;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    @Builder.Default
+    private List<ParticipantStats> participants = new ArrayList<>();
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    @Builder.Default
+    private List<RoundSummary> rounds = new ArrayList<>();
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public ParticipantStats participant(UUID participantId) {
+        return participants.stream()
+                .filter(p -> participantId.equals(p.getParticipantId()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    public RoundSummary round(int roundNumber) {
+        for (RoundSummary round : rounds) {
+            if (round.getRoundNumber() == roundNumber) {
+                return round;
+            }
+        }
+        RoundSummary round = RoundSummary.builder().roundNumber(roundNumber).status("IN_PROGRESS").build();
+        rounds.add(round);
+        rounds.sort((a, b) -> Integer.compare(a.getRoundNumber(), b.getRoundNumber()));
+        return round;
+    }
+
+    /**
+     * Per-participant statistics
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ParticipantStats {
+        private UUID participantId;
+        private String name;
+        private String type;
+        private String position;
+        private int responseCount;
+        private long tokenCount;
+        private Long lastResponseAt;
+    }
+
+    /**
+     * Per-round summary
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RoundSummary {
+        private int roundNumber;
+        private String status;
+        private int responseCount;
+        private long tokenCount;
+        private Long completedAt;
+    }
+}
@@ -0,0 +1,86 @@
+package com.zamaz.mcp.controller.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Running sums of response quality scores, from which averages are derived in O(1)
+ */
+@Embeddable
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QualityTotals {
+
+    @Column(name = "response_count", nullable = false)
+    private int responseCount;
+
+    @Column(name = "argument_sum", nullable = false)
+    private double argumentSum;
+
+    @Column(name = "coherence_sum", nullable = false)
+    private double coherenceSum;
+
+    @Column(name = "factuality_sum", nullable = false)
+    private double factualitySum;
+
+    @Column(name = "sentiment_sum", nullable = false)
+    private double sentimentSum;
+
+    @Column(name = "toxicity_sum", nullable = false)
+    private double toxicitySum;
+
+    @Column(name = "professionalism_sum", nullable = false)
+    private double professionalismSum;
+
+    public void add(ResponseQualityScore score) {
+        responseCount++;
+        argumentSum += score.getArgumentScore();
+        coherenceSum += score.getCoherenceScore();
+        factualitySum += score.getFactualityScore();
+        sentimentSum += score.getSentiment();
+        toxicitySum += score.getToxicity();
+        professionalismSum += score.getProfessionalism();
+    }
+
+    public double argumentAverage() {
+        return average(argumentSum);
+    }
+
+    public double coherenceAverage() {
+        return average(coherenceSum);
+    }
+
+    public double factualityAverage() {
+        return average(factualitySum);
+    }
+
+    public double sentimentAverage() {
+        return responseCount == 0 ? 0.0 : sentimentSum / responseCount;
+    }
+
+    public double toxicityAverage() {
+        return responseCount == 0 ? 0.0 : toxicitySum / responseCount;
+    }
+
+    public double professionalismAverage() {
+        return average(professionalismSum);
+    }
+
+    /**
+     * Weighted overall quality, matching the full-debate analysis
+     */
+    public double overallQuality() {
+        return argumentAverage() * 0.4 + coherenceAverage() * 0.3 + factualityAverage() * 0.3;
+    }
+
+    private double average(double sum) {
+        // Neutral score until something has been scored
+        return responseCount == 0 ? 0.5 : sum / responseCount;
+    }
+}
@@ -0,0 +1,73 @@
+package com.zamaz.mcp.controller.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Quality feature vector of a single response, computed once when it is submitted
+ */
+@Entity
+@Table(name = "response_quality_scores")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResponseQualityScore {
+
+    @Id
+    @Column(name = "response_id")
+    private UUID responseId;
+
+    @Column(name = "debate_id", nullable = false)
+    private UUID debateId;
+
+    @Column(name = "participant_id", nullable = false)
+    private UUID participantId;
+
+    @Column(name = "round_number")
+    private Integer roundNumber;
+
+    @Column(name = "argument_score", nullable = false)
+    private double argumentScore;
+
+    @Column(name = "coherence_score", nullable = false)
+    private double coherenceScore;
+
+    @Column(name = "factuality_score", nullable = false)
+    private double factualityScore;
+
+    @Column(nullable = false)
+    private double sentiment;
+
+    @Column(name = "sentiment_confidence", nullable = false)
+    private double sentimentConfidence;
+
+    @Column(nullable = false)
+    private double toxicity;
+
+    @Column(nullable = false)
+    private double professionalism;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private Map<String, Double> emotions;
+
+    @Column(name = "scored_at", nullable = false)
+    private LocalDateTime scoredAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (scoredAt == null) {
+            scoredAt = LocalDateTime.now();
+        }
+    }
+}
@@ -42,6 +42,7 @@ public class DebateEvents {
         private String position;
         private String content;
         private int roundNumber;
+        private int tokenCount;
         private long timestamp;
     }
     
@@ -81,6 +82,17 @@ public class DebateEvents {
         private long timestamp;
     }
     
+    /**
+     * Debate metadata, status or roster changed
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class DebateUpdatedEvent {
+        private String debateId;
+        private long timestamp;
+    }
+    
     @Data
     @AllArgsConstructor
     @NoArgsConstructor
@@ -0,0 +1,65 @@
+package com.zamaz.mcp.controller.integration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streaming client for the LLM service completion endpoint.
+ * Complements the blocking {@link LlmServiceClient} for callers that forward tokens as they arrive.
+ */
+@Component
+@Slf4j
+public class LlmStreamingClient {
+
+    private static final ParameterizedTypeReference<ServerSentEvent<Map<String, Object>>> CHUNK_TYPE =
+        new ParameterizedTypeReference<>() {};
+
+    private final WebClient webClient;
+
+    public LlmStreamingClient(WebClient.Builder webClientBuilder,
+                              @Value("${mcp.controller.external.llm-service.url:http://mcp-llm:5002}") String baseUrl) {
+        this.webClient = webClientBuilder.baseUrl(baseUrl).build();
+    }
+
+    /**
+     * Stream the content deltas of a completion
+     *
+     * @param request completion request in the same shape accepted by {@link LlmServiceClient}
+     * @param organizationId organization the completion is billed to
+     * @return content deltas in arrival order; errors reported by the LLM service are signalled as errors
+     */
+    public Flux<String> streamCompletion(Map<String, Object> request, String organizationId) {
+        Map<String, Object> streamingRequest = new HashMap<>(request);
+        streamingRequest.put("stream", true);
+
+        return webClient.post()
+            .uri("/api/v1/llm/completions/stream")
+            .header("X-Organization-Id", organizationId)
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.TEXT_EVENT_STREAM)
+            .bodyValue(streamingRequest)
+            .retrieve()
+            .bodyToFlux(CHUNK_TYPE)
+            .mapNotNull(ServerSentEvent::data)
+            .handle((chunk, sink) -> {
+                Object error = chunk.get("error");
+                if (error != null) {
+                    sink.error(new IllegalStateException("LLM streaming failed: " + error));
+                    return;
+                }
+                Object content = chunk.get("content");
+                if (content != null && !content.toString().isEmpty()) {
+                    sink.next(content.toString());
+                }
+            });
+    }
+}
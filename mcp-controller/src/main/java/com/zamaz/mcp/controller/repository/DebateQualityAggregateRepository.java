@@ -0,0 +1,29 @@
+package com.zamaz.mcp.controller.repository;
+
+import com.zamaz.mcp.controller.entity.DebateQualityAggregate;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface DebateQualityAggregateRepository extends JpaRepository<DebateQualityAggregate, UUID> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM DebateQualityAggregate a WHERE a.debateId = :debateId")
+    Optional<DebateQualityAggregate> findForUpdate(@Param("debateId") UUID debateId);
+
+    /**
+     * Create an empty aggregate row unless one exists, so concurrent first responses can lock it
+     */
+    @Modifying
+    @Query(value = "INSERT INTO debate_quality_aggregates (debate_id) VALUES (:debateId) ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    void insertIfAbsent(@Param("debateId") UUID debateId);
+}
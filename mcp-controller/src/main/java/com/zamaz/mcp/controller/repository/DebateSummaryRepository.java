@@ -0,0 +1,37 @@
+package com.zamaz.mcp.controller.repository;
+
+import com.zamaz.mcp.controller.entity.DebateSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface DebateSummaryRepository extends JpaRepository<DebateSummary, UUID> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM DebateSummary s WHERE s.debateId = :debateId")
+    Optional<DebateSummary> findForUpdate(@Param("debateId") UUID debateId);
+
+    /**
+     * Insert an empty summary row unless one exists, so that concurrent rebuilds lock the same row
+     */
+    @Modifying
+    @Query(value = "INSERT INTO debate_summaries (debate_id, organization_id, title, status) "
+            + "VALUES (:debateId, :organizationId, :title, :status) ON CONFLICT (debate_id) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("debateId") UUID debateId, @Param("organizationId") UUID organizationId,
+                       @Param("title") String title, @Param("status") String status);
+
+    Page<DebateSummary> findByOrganizationId(UUID organizationId, Pageable pageable);
+
+    Page<DebateSummary> findByOrganizationIdAndStatus(UUID organizationId, String status, Pageable pageable);
+}
@@ -0,0 +1,11 @@
+package com.zamaz.mcp.controller.repository;
+
+import com.zamaz.mcp.controller.entity.ResponseQualityScore;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface ResponseQualityScoreRepository extends JpaRepository<ResponseQualityScore, UUID> {
+}
@@ -2,9 +2,12 @@ package com.zamaz.mcp.controller.repository;
 
 import com.zamaz.mcp.controller.entity.Response;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -15,4 +18,7 @@ public interface ResponseRepository extends JpaRepository<Response, UUID> {
     List<Response> findByParticipantId(UUID participantId);
     
     boolean existsByRoundIdAndParticipantId(UUID roundId, UUID participantId);
+    
+    @Query("SELECT r.participant.id FROM Response r WHERE r.round.id = :roundId")
+    Set<UUID> findParticipantIdsByRoundId(@Param("roundId") UUID roundId);
 }
\ No newline at end of file
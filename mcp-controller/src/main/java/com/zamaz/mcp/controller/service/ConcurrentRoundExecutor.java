@@ -0,0 +1,59 @@
+package com.zamaz.mcp.controller.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Runs the AI turns of a debate round concurrently.
+ *
+ * All pending turns are started at once, bounded by the debate's concurrency limit, so
+ * round latency approaches that of the slowest participant instead of the sum of all of
+ * them. A failed or timed-out turn is logged and does not cancel the others. Rounds of a
+ * debate never overlap, so the per-round bound is also the per-debate bound.
+ */
+@Component
+@Slf4j
+public class ConcurrentRoundExecutor {
+
+    @Value("${mcp.controller.debate.max-concurrent-turns:4}")
+    private int defaultMaxConcurrentTurns;
+
+    @Value("${mcp.controller.debate.default-response-timeout:300}")
+    private long turnTimeoutSeconds;
+
+    /**
+     * Execute the given turns and complete once every one of them has finished
+     *
+     * @param debateId debate the round belongs to
+     * @param turns turns still missing a response
+     * @param maxConcurrentTurns debate-specific limit, or null for the configured default
+     * @param generation produces and commits the response for one turn
+     */
+    public <T> Mono<Void> execute(UUID debateId, List<T> turns, Integer maxConcurrentTurns,
+                                  Function<T, Mono<?>> generation) {
+        int concurrency = Math.max(1, maxConcurrentTurns != null ? maxConcurrentTurns : defaultMaxConcurrentTurns);
+        Duration turnTimeout = Duration.ofSeconds(turnTimeoutSeconds);
+        long startedAt = System.currentTimeMillis();
+
+        return Flux.fromIterable(turns)
+            .flatMap(turn -> Mono.defer(() -> generation.apply(turn))
+                .timeout(turnTimeout)
+                .onErrorResume(e -> {
+                    log.error("Turn failed in debate {}: {}", debateId, e.getMessage(), e);
+                    return Mono.empty();
+                }), concurrency)
+            .then()
+            .doOnSubscribe(subscription -> log.debug("Running {} turns for debate {} with concurrency {}",
+                turns.size(), debateId, concurrency))
+            .doOnSuccess(ignored -> log.info("Completed {} turns for debate {} in {} ms",
+                turns.size(), debateId, System.currentTimeMillis() - startedAt));
+    }
+}
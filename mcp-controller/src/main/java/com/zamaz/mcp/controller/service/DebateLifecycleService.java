@@ -3,6 +3,8 @@ package com.zamaz.mcp.controller.service;
 import com.zamaz.mcp.controller.dto.DebateDto;
 import com.zamaz.mcp.controller.entity.Debate;
 import com.zamaz.mcp.controller.entity.Round;
+import com.zamaz.mcp.controller.event.DebateEvents.DebateStartedEvent;
+import com.zamaz.mcp.controller.event.DebateEvents.DebateUpdatedEvent;
 import com.zamaz.mcp.controller.exception.ResourceNotFoundException;
 import com.zamaz.mcp.controller.repository.DebateRepository;
 import com.zamaz.mcp.controller.repository.RoundRepository;
@@ -10,6 +12,7 @@ import com.zamaz.mcp.controller.statemachine.DebateEvents;
 import com.zamaz.mcp.controller.statemachine.DebateStates;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.statemachine.StateMachine;
 import org.springframework.statemachine.config.StateMachineFactory;
 import org.springframework.stereotype.Service;
@@ -28,6 +31,7 @@ public class DebateLifecycleService {
     private final RoundRepository roundRepository;
     private final StateMachineFactory<DebateStates, DebateEvents> stateMachineFactory;
     private final OrchestrationService orchestrationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public DebateDto createDebate(DebateDto.CreateDebateRequest request) {
         log.debug("Creating debate with title: {}", request.getTitle());
@@ -54,6 +58,7 @@ public class DebateLifecycleService {
         debate.setStatus(DebateStates.INITIALIZED.name());
         debate = debateRepository.save(debate);
 
+        eventPublisher.publishEvent(new DebateUpdatedEvent(debate.getId().toString(), System.currentTimeMillis()));
         return toDto(debate);
     }
 
@@ -85,6 +90,9 @@ public class DebateLifecycleService {
         roundRepository.save(round);
         debate = debateRepository.save(debate);
 
+        eventPublisher.publishEvent(new DebateStartedEvent(
+                debate.getId().toString(), debate.getOrganizationId().toString(), System.currentTimeMillis()));
+
         // Trigger AI responses if needed
         orchestrationService.orchestrateRound(debate.getId(), round.getId());
 
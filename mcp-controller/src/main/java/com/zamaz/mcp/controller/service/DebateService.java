@@ -2,22 +2,25 @@ package com.zamaz.mcp.controller.service;
 
 import com.zamaz.mcp.controller.dto.DebateDto;
 import com.zamaz.mcp.controller.dto.DebateResultDto;
-import com.zamaz.mcp.controller.dto.DebateWithParticipantCount;
 import com.zamaz.mcp.controller.dto.ParticipantDto;
 import com.zamaz.mcp.controller.dto.ParticipantResultDto;
 import com.zamaz.mcp.controller.dto.ResponseDto;
 import com.zamaz.mcp.controller.dto.RoundDto;
+import com.zamaz.mcp.controller.dto.RoundSummaryDto;
 import com.zamaz.mcp.controller.entity.Debate;
+import com.zamaz.mcp.controller.entity.DebateSummary;
 import com.zamaz.mcp.controller.entity.Participant;
 import com.zamaz.mcp.controller.entity.Round;
 import com.zamaz.mcp.controller.entity.Response;
 import com.zamaz.mcp.controller.entity.DebateStatus;
+import com.zamaz.mcp.controller.event.DebateEvents.DebateUpdatedEvent;
+import com.zamaz.mcp.controller.event.DebateEvents.NewResponseEvent;
 import com.zamaz.mcp.controller.exception.ResourceNotFoundException;
 import com.zamaz.mcp.controller.repository.DebateRepository;
+import com.zamaz.mcp.controller.repository.DebateSummaryRepository;
 import com.zamaz.mcp.controller.repository.ParticipantRepository;
 import com.zamaz.mcp.controller.repository.RoundRepository;
 import com.zamaz.mcp.controller.repository.ResponseRepository;
-import com.zamaz.mcp.controller.repository.specification.DebateSpecifications;
 import com.zamaz.mcp.common.application.agentic.AgenticFlowApplicationService;
 import com.zamaz.mcp.common.domain.agentic.AgenticFlow;
 import com.zamaz.mcp.common.domain.agentic.AgenticFlowConfiguration;
@@ -31,7 +34,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -54,6 +57,9 @@ public class DebateService {
     private final ResponseRepository responseRepository;
     private final OrchestrationService orchestrationService;
     private final AgenticFlowApplicationService agenticFlowService;
+    private final DebateSummaryRepository summaryRepository;
+    private final DebateSummaryProjector summaryProjector;
+    private final ApplicationEventPublisher eventPublisher;
 
     public DebateDto createDebate(DebateDto.CreateDebateRequest request) {
         log.debug("Creating new debate: {}", request.getTitle());
@@ -72,6 +78,7 @@ public class DebateService {
         debate = debateRepository.save(debate);
         log.info("Created debate with ID: {}", debate.getId());
         
+        publishDebateUpdated(debate.getId());
         return toDto(debate);
     }
 
@@ -83,17 +90,18 @@ public class DebateService {
         return toDto(debate);
     }
     
-    @Cacheable(value = "debate-lists", key = "#organizationId + ':' + #status + ':' + #pageable.pageNumber + ':' + #pageable.pageSize")
+    /**
+     * Listings are keyed by the organization's listing version, which the projector bumps whenever a listed field changes.
+     */
+    @Cacheable(value = "debate-lists", key = "#organizationId + ':' + @debateSummaryProjector.listingVersion(#organizationId) + ':' + #status + ':' + #pageable.pageNumber + ':' + #pageable.pageSize")
     public Page<DebateDto> listDebates(UUID organizationId, DebateStatus status, Pageable pageable) {
         log.debug("Listing debates for organization: {}, status: {} (cache miss)", organizationId, status);
         
-        Specification<Debate> spec = Specification.where(DebateSpecifications.hasOrganizationId(organizationId))
-                .and(DebateSpecifications.hasStatus(status));
-        
-        Page<DebateWithParticipantCount> debates = debateRepository.findAll(spec, pageable)
-                .map(this::toDtoFromProjection);
+        Page<DebateSummary> summaries = status != null
+                ? summaryRepository.findByOrganizationIdAndStatus(organizationId, status.name(), pageable)
+                : summaryRepository.findByOrganizationId(organizationId, pageable);
         
-        return debates;
+        return summaries.map(this::toDtoFromSummary);
     }
     
     @CachePut(value = "debates", key = "#id")
@@ -126,6 +134,7 @@ public class DebateService {
         debate = debateRepository.save(debate);
         log.info("Updated debate with ID: {}", debate.getId());
         
+        publishDebateUpdated(debate.getId());
         return toDto(debate);
     }
     
@@ -164,6 +173,7 @@ public class DebateService {
         participant = participantRepository.save(participant);
         log.info("Added participant {} to debate {}", participant.getId(), debateId);
         
+        publishDebateUpdated(debateId);
         return toParticipantDto(participant);
     }
     
@@ -179,6 +189,8 @@ public class DebateService {
         
         participantRepository.delete(participant);
         log.info("Removed participant {} from debate {}", participantId, debateId);
+        
+        publishDebateUpdated(debateId);
     }
     
     public ResponseDto submitResponse(UUID debateId, UUID roundId, ResponseDto.CreateResponseRequest request) {
@@ -204,6 +216,18 @@ public class DebateService {
         response = responseRepository.save(response);
         log.info("Submitted response {} for round {}", response.getId(), roundId);
         
+        eventPublisher.publishEvent(new NewResponseEvent(
+                debateId.toString(),
+                response.getId().toString(),
+                participant.getId().toString(),
+                participant.getName(),
+                participant.getPosition(),
+                response.getContent(),
+                round.getRoundNumber(),
+                response.getTokenCount(),
+                System.currentTimeMillis()
+        ));
+        
         // Check if round is complete
         orchestrationService.checkRoundCompletion(debateId, roundId);
         
@@ -218,14 +242,24 @@ public class DebateService {
                 .collect(Collectors.toList());
     }
     
-    @Cacheable(value = "debate-results", key = "#debateId", condition = "#result?.status?.name() == 'COMPLETED'")
+    /**
+     * Results are served from the debate summary read model; the projector evicts the debate's entry on every change.
+     */
+    @Cacheable(value = "debate-results", key = "#debateId")
     public DebateResultDto getResults(UUID debateId) {
         log.debug("Getting results for debate: {} (cache miss)", debateId);
         
-        Debate debate = debateRepository.findById(debateId)
-                .orElseThrow(() -> new ResourceNotFoundException("Debate not found with ID: " + debateId));
+        DebateSummary summary = summaryRepository.findById(debateId)
+                .orElseGet(() -> summaryProjector.rebuild(debateId));
+        if (summary == null) {
+            throw new ResourceNotFoundException("Debate not found with ID: " + debateId);
+        }
         
-        return toDebateResultDto(debate);
+        return toDebateResultDto(summary);
+    }
+    
+    private void publishDebateUpdated(UUID debateId) {
+        eventPublisher.publishEvent(new DebateUpdatedEvent(debateId.toString(), System.currentTimeMillis()));
     }
     
     private DebateDto toDto(Debate debate) {
@@ -285,43 +319,57 @@ public class DebateService {
                 .build();
     }
 
-    private DebateResultDto toDebateResultDto(Debate debate) {
+    private DebateResultDto toDebateResultDto(DebateSummary summary) {
         return DebateResultDto.builder()
-                .debateId(debate.getId())
-                .status(debate.getStatus().name())
-                .totalRounds(debate.getCurrentRound())
-                .participants(debate.getParticipants().stream().map(this::toParticipantResultDto).collect(Collectors.toList()))
+                .debateId(summary.getDebateId())
+                .status(summary.getStatus())
+                .totalRounds(summary.getCurrentRound())
+                .totalResponses(summary.getResponseCount())
+                .totalTokens(summary.getTotalTokens())
+                .participants(summary.getParticipants().stream().map(this::toParticipantResultDto).collect(Collectors.toList()))
+                .rounds(summary.getRounds().stream().map(this::toRoundSummaryDto).collect(Collectors.toList()))
                 .build();
     }
 
-    private ParticipantResultDto toParticipantResultDto(Participant participant) {
+    private ParticipantResultDto toParticipantResultDto(DebateSummary.ParticipantStats participant) {
         return ParticipantResultDto.builder()
+                .participantId(participant.getParticipantId())
                 .name(participant.getName())
                 .position(participant.getPosition())
-                .responseCount(participant.getResponses().size())
+                .responseCount(participant.getResponseCount())
+                .tokenCount(participant.getTokenCount())
+                .build();
+    }
+
+    private RoundSummaryDto toRoundSummaryDto(DebateSummary.RoundSummary round) {
+        return RoundSummaryDto.builder()
+                .roundNumber(round.getRoundNumber())
+                .status(round.getStatus())
+                .responseCount(round.getResponseCount())
+                .tokenCount(round.getTokenCount())
                 .build();
     }
 
-    private DebateDto toDtoFromProjection(DebateWithParticipantCount projection) {
+    private DebateDto toDtoFromSummary(DebateSummary summary) {
         return DebateDto.builder()
-                .id(projection.getId())
-                .organizationId(projection.getOrganizationId())
-                .title(projection.getTitle())
-                .description(projection.getDescription())
-                .topic(projection.getTopic())
-                .format(projection.getFormat())
-                .maxRounds(projection.getMaxRounds())
-                .currentRound(projection.getCurrentRound())
-                .status(projection.getStatus())
-                .settings(projection.getSettings())
-                .createdAt(projection.getCreatedAt())
-                .updatedAt(projection.getUpdatedAt())
-                .startedAt(projection.getStartedAt())
-                .completedAt(projection.getCompletedAt())
-                .participantCount((int) projection.getParticipantCount())
+                .id(summary.getDebateId())
+                .organizationId(summary.getOrganizationId())
+                .title(summary.getTitle())
+                .description(summary.getDescription())
+                .topic(summary.getTopic())
+                .format(summary.getFormat())
+                .maxRounds(summary.getMaxRounds())
+                .currentRound(summary.getCurrentRound())
+                .status(summary.getStatus())
+                .settings(summary.getSettings())
+                .createdAt(summary.getCreatedAt())
+                .updatedAt(summary.getUpdatedAt())
+                .startedAt(summary.getStartedAt())
+                .completedAt(summary.getCompletedAt())
+                .participantCount(summary.getParticipantCount())
                 .build();
     }
-    
+
     // Agentic Flow Integration Methods
     
     /**
@@ -0,0 +1,307 @@
+package com.zamaz.mcp.controller.service;
+
+import com.zamaz.mcp.controller.entity.Debate;
+import com.zamaz.mcp.controller.entity.DebateSummary;
+import com.zamaz.mcp.controller.entity.Participant;
+import com.zamaz.mcp.controller.entity.Response;
+import com.zamaz.mcp.controller.entity.Round;
+import com.zamaz.mcp.controller.event.DebateEvents.DebateCompletedEvent;
+import com.zamaz.mcp.controller.event.DebateEvents.DebateStartedEvent;
+import com.zamaz.mcp.controller.event.DebateEvents.DebateUpdatedEvent;
+import com.zamaz.mcp.controller.event.DebateEvents.NewResponseEvent;
+import com.zamaz.mcp.controller.event.DebateEvents.RoundCompletedEvent;
+import com.zamaz.mcp.controller.repository.DebateRepository;
+import com.zamaz.mcp.controller.repository.DebateSummaryRepository;
+import com.zamaz.mcp.controller.repository.ParticipantRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Maintains the {@link DebateSummary} read model from debate events.
+ *
+ * Each event updates the debate's single summary row in place under a row lock, so
+ * concurrent turns of a round serialize on the row rather than on the aggregate.
+ * Updates run after the originating transaction commits; a missing row is rebuilt
+ * from the aggregate once. Cached results are evicted per debate, and cached listings
+ * per organization by bumping its listing version, once the update commits. Listing
+ * versions are counters in Redis, so a bump on one instance retires the listings every
+ * instance cached.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DebateSummaryProjector {
+
+    private static final String LISTING_VERSION_KEY_PREFIX = "mcp:debate:listing-version:";
+
+    private final DebateSummaryRepository summaryRepository;
+    private final DebateRepository debateRepository;
+    private final ParticipantRepository participantRepository;
+    private final CacheManager cacheManager;
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * Version of an organization's cached debate listings, part of the listing cache key.
+     * While Redis cannot be read, every call returns a new version so no cached listing is used.
+     */
+    public long listingVersion(UUID organizationId) {
+        try {
+            String version = redisTemplate.opsForValue().get(LISTING_VERSION_KEY_PREFIX + organizationId);
+            return version != null ? Long.parseLong(version) : 0L;
+        } catch (Exception e) {
+            log.warn("Bypassing cached listings of organization {}: {}", organizationId, e.getMessage());
+            return -System.nanoTime();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void on(DebateUpdatedEvent event) {
+        refreshHeader(UUID.fromString(event.getDebateId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void on(DebateStartedEvent event) {
+        refreshHeader(UUID.fromString(event.getDebateId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void on(DebateCompletedEvent event) {
+        refreshHeader(UUID.fromString(event.getDebateId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void on(NewResponseEvent event) {
+        UUID debateId = UUID.fromString(event.getDebateId());
+        Optional<DebateSummary> locked = summaryRepository.findForUpdate(debateId);
+        if (locked.isEmpty()) {
+            // Rebuilding reads the committed response, so there is nothing left to apply
+            rebuild(debateId);
+            return;
+        }
+        evictAfterCommit(debateId, null);
+
+        DebateSummary summary = locked.get();
+        long now = event.getTimestamp();
+
+        summary.setResponseCount(summary.getResponseCount() + 1);
+        summary.setTotalTokens(summary.getTotalTokens() + event.getTokenCount());
+
+        DebateSummary.RoundSummary round = summary.round(event.getRoundNumber());
+        round.setResponseCount(round.getResponseCount() + 1);
+        round.setTokenCount(round.getTokenCount() + event.getTokenCount());
+
+        DebateSummary.ParticipantStats participant = summary.participant(UUID.fromString(event.getParticipantId()));
+        if (participant == null) {
+            participant = DebateSummary.ParticipantStats.builder()
+                    .participantId(UUID.fromString(event.getParticipantId()))
+                    .name(event.getParticipantName())
+                    .position(event.getPosition())
+                    .build();
+            summary.getParticipants().add(participant);
+            summary.setParticipantCount(summary.getParticipants().size());
+            // The participant count is listed
+            evictAfterCommit(debateId, summary.getOrganizationId());
+        }
+        participant.setResponseCount(participant.getResponseCount() + 1);
+        participant.setTokenCount(participant.getTokenCount() + event.getTokenCount());
+        participant.setLastResponseAt(now);
+
+        summaryRepository.save(summary);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void on(RoundCompletedEvent event) {
+        UUID debateId = UUID.fromString(event.getDebateId());
+        Optional<DebateSummary> locked = summaryRepository.findForUpdate(debateId);
+        if (locked.isEmpty()) {
+            rebuild(debateId);
+            return;
+        }
+        evictAfterCommit(debateId, null);
+
+        DebateSummary summary = locked.get();
+        DebateSummary.RoundSummary round = summary.round(event.getRoundNumber());
+        round.setStatus("COMPLETED");
+        round.setCompletedAt(event.getTimestamp());
+        summaryRepository.save(summary);
+    }
+
+    /**
+     * Recompute a debate's summary from the full aggregate.
+     * Only used when no summary row exists yet. The row is upserted first and then locked,
+     * so concurrent rebuilds of the same debate run one after the other.
+     */
+    @Transactional
+    public DebateSummary rebuild(UUID debateId) {
+        log.info("Rebuilding summary for debate {}", debateId);
+
+        Debate debate = debateRepository.findById(debateId).orElse(null);
+        if (debate == null) {
+            return null;
+        }
+
+        summaryRepository.insertIfAbsent(debateId, debate.getOrganizationId(), debate.getTitle(),
+                debate.getStatus().name());
+        DebateSummary summary = summaryRepository.findForUpdate(debateId)
+                .orElseThrow(() -> new IllegalStateException("Summary row missing after upsert for debate " + debateId));
+        applyHeader(summary, debate);
+        evictAfterCommit(debateId, debate.getOrganizationId());
+
+        List<DebateSummary.ParticipantStats> participants = new ArrayList<>();
+        for (Participant participant : debate.getParticipants()) {
+            participants.add(DebateSummary.ParticipantStats.builder()
+                    .participantId(participant.getId())
+                    .name(participant.getName())
+                    .type(participant.getType())
+                    .position(participant.getPosition())
+                    .build());
+        }
+        summary.setParticipants(participants);
+        summary.setParticipantCount(participants.size());
+        summary.setRounds(new ArrayList<>());
+        summary.setResponseCount(0);
+        summary.setTotalTokens(0);
+
+        for (Round round : debate.getRounds()) {
+            DebateSummary.RoundSummary roundSummary = summary.round(round.getRoundNumber());
+            roundSummary.setStatus(round.getStatus());
+            if (round.getCompletedAt() != null) {
+                roundSummary.setCompletedAt(toEpochMillis(round.getCompletedAt()));
+            }
+
+            for (Response response : round.getResponses()) {
+                int tokens = response.getTokenCount() != null ? response.getTokenCount() : 0;
+                roundSummary.setResponseCount(roundSummary.getResponseCount() + 1);
+                roundSummary.setTokenCount(roundSummary.getTokenCount() + tokens);
+                summary.setResponseCount(summary.getResponseCount() + 1);
+                summary.setTotalTokens(summary.getTotalTokens() + tokens);
+
+                DebateSummary.ParticipantStats stats = summary.participant(response.getParticipant().getId());
+                if (stats != null) {
+                    stats.setResponseCount(stats.getResponseCount() + 1);
+                    stats.setTokenCount(stats.getTokenCount() + tokens);
+                    if (response.getCreatedAt() != null) {
+                        long respondedAt = toEpochMillis(response.getCreatedAt());
+                        if (stats.getLastResponseAt() == null || stats.getLastResponseAt() < respondedAt) {
+                            stats.setLastResponseAt(respondedAt);
+                        }
+                    }
+                }
+            }
+        }
+
+        return summaryRepository.save(summary);
+    }
+
+    /**
+     * Copy the debate's scalar fields and roster, keeping accumulated statistics
+     */
+    private void refreshHeader(UUID debateId) {
+        Optional<DebateSummary> locked = summaryRepository.findForUpdate(debateId);
+        if (locked.isEmpty()) {
+            rebuild(debateId);
+            return;
+        }
+
+        Debate debate = debateRepository.findById(debateId).orElse(null);
+        if (debate == null) {
+            return;
+        }
+
+        DebateSummary summary = locked.get();
+        applyHeader(summary, debate);
+        evictAfterCommit(debateId, debate.getOrganizationId());
+
+        List<DebateSummary.ParticipantStats> roster = new ArrayList<>();
+        for (Participant participant : participantRepository.findByDebateId(debateId)) {
+            DebateSummary.ParticipantStats stats = summary.participant(participant.getId());
+            if (stats == null) {
+                stats = DebateSummary.ParticipantStats.builder().participantId(participant.getId()).build();
+            }
+            stats.setName(participant.getName());
+            stats.setType(participant.getType());
+            stats.setPosition(participant.getPosition());
+            roster.add(stats);
+        }
+        summary.setParticipants(roster);
+        summary.setParticipantCount(roster.size());
+
+        summaryRepository.save(summary);
+    }
+
+    private void applyHeader(DebateSummary summary, Debate debate) {
+        summary.setOrganizationId(debate.getOrganizationId());
+        summary.setTitle(debate.getTitle());
+        summary.setDescription(debate.getDescription());
+        summary.setTopic(debate.getTopic());
+        summary.setFormat(debate.getFormat());
+        summary.setStatus(debate.getStatus().name());
+        summary.setMaxRounds(debate.getMaxRounds());
+        summary.setSettings(debate.getSettings());
+        summary.setCurrentRound(debate.getCurrentRound());
+        summary.setCreatedAt(debate.getCreatedAt());
+        summary.setStartedAt(debate.getStartedAt());
+        summary.setCompletedAt(debate.getCompletedAt());
+    }
+
+    /**
+     * Evict the debate's cached results and, if an organization is given, its cached listings
+     * once the current transaction commits, so no reader can cache the old row again
+     */
+    private void evictAfterCommit(UUID debateId, UUID organizationId) {
+        Runnable evict = () -> {
+            Cache results = cacheManager.getCache("debate-results");
+            if (results != null) {
+                results.evict(debateId);
+            }
+            if (organizationId != null) {
+                bumpListingVersion(organizationId);
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        } else {
+            evict.run();
+        }
+    }
+
+    private void bumpListingVersion(UUID organizationId) {
+        try {
+            redisTemplate.opsForValue().increment(LISTING_VERSION_KEY_PREFIX + organizationId);
+        } catch (Exception e) {
+            // Listings of the organization stay cached until their TTL
+            log.warn("Failed to bump listing version of organization {}: {}", organizationId, e.getMessage());
+        }
+    }
+
+    private long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -1,22 +1,34 @@
 package com.zamaz.mcp.controller.service;
 
 import com.zamaz.mcp.controller.entity.*;
+import com.zamaz.mcp.controller.event.DebateEvents.DebateCompletedEvent;
+import com.zamaz.mcp.controller.event.DebateEvents.DebateUpdatedEvent;
+import com.zamaz.mcp.controller.event.DebateEvents.NewResponseEvent;
+import com.zamaz.mcp.controller.event.DebateEvents.RoundCompletedEvent;
 import com.zamaz.mcp.controller.integration.LlmServiceClient;
+import com.zamaz.mcp.controller.integration.LlmStreamingClient;
 import com.zamaz.mcp.controller.repository.*;
 import com.zamaz.mcp.controller.statemachine.DebateEvents;
 import com.zamaz.mcp.controller.statemachine.DebateStates;
 import com.zamaz.mcp.controller.dto.ResponseDto;
+import com.zamaz.mcp.controller.websocket.DebateWebSocketHandler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.statemachine.StateMachine;
 import org.springframework.statemachine.config.StateMachineFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,6 +45,32 @@ public class OrchestrationService {
     private final StateMachineFactory<DebateStates, DebateEvents> stateMachineFactory;
     private final DebateService debateService;
     private final PushNotificationService pushNotificationService;
+    private final LlmStreamingClient llmStreamingClient;
+    private final ConcurrentRoundExecutor roundExecutor;
+    // Resolved lazily: the WebSocket handler depends on DebateService, which depends on this service
+    private final ObjectProvider<DebateWebSocketHandler> webSocketHandler;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    /**
+     * Everything needed to generate one participant's response, captured while the
+     * round's entities are attached so turns can run concurrently off the transaction
+     */
+    private record ParticipantTurn(
+        UUID debateId,
+        UUID organizationId,
+        UUID roundId,
+        int roundNumber,
+        UUID participantId,
+        String participantName,
+        String position,
+        String provider,
+        String model,
+        boolean agenticFlow,
+        String topic,
+        String context,
+        int previousResponseCount
+    ) {}
     
     @Async
     public void orchestrateRound(UUID debateId, UUID roundId) {
@@ -42,17 +80,33 @@ public class OrchestrationService {
             Round round = roundRepository.findById(roundId).orElseThrow();
             Debate debate = round.getDebate();
             List<Participant> aiParticipants = participantRepository.findByDebateIdAndType(debateId, "ai");
+            Set<UUID> respondedParticipantIds = responseRepository.findParticipantIdsByRoundId(roundId);
             
             // Get previous responses for context
             List<Response> previousResponses = getPreviousResponses(debate);
+            String context = buildContext(debate, previousResponses);
             
-            // Generate AI responses
-            for (Participant participant : aiParticipants) {
-                if (!responseRepository.existsByRoundIdAndParticipantId(roundId, participant.getId())) {
-                    generateAiResponse(debate, round, participant, previousResponses);
-                }
+            List<ParticipantTurn> turns = aiParticipants.stream()
+                .filter(participant -> !respondedParticipantIds.contains(participant.getId()))
+                .map(participant -> prepareTurn(debate, round, participant, context, previousResponses.size()))
+                .collect(Collectors.toList());
+            
+            if (turns.isEmpty()) {
+                return;
             }
             
+            // Generate all AI responses concurrently; each is committed as soon as it is complete
+            Integer maxConcurrentTurns = debate.getSettings() != null && debate.getSettings().has("maxConcurrentTurns")
+                ? debate.getSettings().get("maxConcurrentTurns").asInt()
+                : null;
+            
+            roundExecutor.execute(debateId, turns, maxConcurrentTurns, this::generateAiResponse)
+                .doFinally(signal -> transactionTemplate.executeWithoutResult(
+                    status -> checkRoundCompletion(debateId, roundId)))
+                .subscribe(
+                    ignored -> { },
+                    error -> log.error("Error orchestrating round {} for debate {}", roundId, debateId, error));
+            
         } catch (Exception e) {
             log.error("Error orchestrating round {} for debate {}", roundId, debateId, e);
         }
@@ -116,6 +170,7 @@ public class OrchestrationService {
                 .build();
         
         nextRound = roundRepository.save(nextRound);
+        eventPublisher.publishEvent(new DebateUpdatedEvent(debate.getId().toString(), System.currentTimeMillis()));
         
         StateMachine<DebateStates, DebateEvents> stateMachine = stateMachineFactory.getStateMachine(debate.getId().toString());
         stateMachine.sendEvent(DebateEvents.START);
@@ -148,33 +203,57 @@ public class OrchestrationService {
         calculateDebateResults(debate);
     }
     
-    private void generateAiResponse(Debate debate, Round round, Participant participant, List<Response> previousResponses) {
-        log.debug("Generating AI response for participant {} in round {}", participant.getName(), round.getRoundNumber());
-        
-        try {
-            // Check if participant or debate has agentic flow configured
-            boolean hasAgenticFlow = participant.getSettings().containsKey("agenticFlowId") || 
-                                   debate.getSettings().containsKey("agenticFlowId");
-            
-            if (hasAgenticFlow) {
-                // Use agentic flow for response generation
-                generateAiResponseWithAgenticFlow(debate, round, participant, previousResponses);
-            } else {
-                // Use standard LLM approach
-                generateStandardAiResponse(debate, round, participant, previousResponses);
-            }
+    private ParticipantTurn prepareTurn(Debate debate, Round round, Participant participant,
+                                        String context, int previousResponseCount) {
+        // Check if participant or debate has agentic flow configured
+        boolean hasAgenticFlow = (participant.getSettings() != null && participant.getSettings().has("agenticFlowId"))
+            || (debate.getSettings() != null && debate.getSettings().has("agenticFlowId"));
+        
+        return new ParticipantTurn(
+            debate.getId(),
+            debate.getOrganizationId(),
+            round.getId(),
+            round.getRoundNumber(),
+            participant.getId(),
+            participant.getName(),
+            participant.getPosition(),
+            participant.getProvider(),
+            participant.getModel(),
+            hasAgenticFlow,
+            debate.getTopic(),
+            context,
+            previousResponseCount
+        );
+    }
+    
+    private Mono<Response> generateAiResponse(ParticipantTurn turn) {
+        log.debug("Generating AI response for participant {} in round {}", turn.participantName(), turn.roundNumber());
+        
+        Mono<Response> response = turn.agenticFlow()
+            // Use agentic flow for response generation, falling back to the standard LLM approach
+            ? generateAiResponseWithAgenticFlow(turn)
+                .onErrorResume(ex -> {
+                    log.error("Error in agentic flow processing for participant {}", turn.participantName(), ex);
+                    return generateStandardAiResponse(turn);
+                })
+            : generateStandardAiResponse(turn);
+        
+        return response.doOnNext(saved -> {
+            // Publish real-time event
+            publishNewResponseEvent(turn, saved);
             
-        } catch (Exception e) {
-            log.error("Error generating AI response for participant {}", participant.getName(), e);
-        }
+            // Send push notification
+            pushNotificationService.sendNewResponseNotification(
+                turn.debateId().toString(),
+                turn.organizationId(),
+                turn.participantName(),
+                turn.position()
+            );
+        });
     }
     
-    private void generateAiResponseWithAgenticFlow(Debate debate, Round round, Participant participant, 
-                                                  List<Response> previousResponses) {
-        log.info("Using agentic flow for participant {} in round {}", participant.getName(), round.getRoundNumber());
-        
-        // Build context from previous responses
-        String context = buildContext(debate, participant, previousResponses);
+    private Mono<Response> generateAiResponseWithAgenticFlow(ParticipantTurn turn) {
+        log.info("Using agentic flow for participant {} in round {}", turn.participantName(), turn.roundNumber());
         
         // Build prompt for agentic flow
         String prompt = String.format(
@@ -182,58 +261,52 @@ public class OrchestrationService {
             "Your position is: %s\n\n" +
             "%s\n\n" +
             "Provide a clear, concise argument supporting your position (under 300 words).",
-            participant.getName(), debate.getTopic(), participant.getPosition(), context
+            turn.participantName(), turn.topic(), turn.position(), turn.context()
         );
         
         // Prepare round context
         Map<String, Object> roundContext = new HashMap<>();
-        roundContext.put("roundId", round.getId());
-        roundContext.put("roundNumber", round.getRoundNumber());
-        roundContext.put("previousResponseCount", previousResponses.size());
-        
-        // Process with agentic flow
-        CompletableFuture<ResponseDto> futureResponse = debateService.processResponseWithAgenticFlow(
-            participant.getId(), prompt, roundContext
-        );
-        
-        // Handle the async response
-        futureResponse.thenAccept(responseDto -> {
-            log.info("Agentic flow response generated for participant {} in round {}", 
-                    participant.getName(), round.getRoundNumber());
-            
-            // Response is already saved by processResponseWithAgenticFlow
-            // Get the saved response for publishing events
-            Response response = responseRepository.findById(responseDto.getId()).orElseThrow();
-            
-            // Publish real-time event
-            publishNewResponseEvent(debate, response, participant, round);
-            
-            // Send push notification
-            pushNotificationService.sendNewResponseNotification(
-                debate.getId().toString(),
-                debate.getOrganizationId(),
-                participant.getName(),
-                participant.getPosition()
-            );
-            
-            // Check if round is complete
-            checkRoundCompletion(debate.getId(), round.getId());
-            
-        }).exceptionally(ex -> {
-            log.error("Error in agentic flow processing for participant {}", participant.getName(), ex);
-            // Fall back to standard generation
-            generateStandardAiResponse(debate, round, participant, previousResponses);
-            return null;
-        });
+        roundContext.put("roundId", turn.roundId());
+        roundContext.put("roundNumber", turn.roundNumber());
+        roundContext.put("previousResponseCount", turn.previousResponseCount());
+        
+        // Response is saved by processResponseWithAgenticFlow; load it for publishing events
+        return Mono.fromFuture(() -> debateService.processResponseWithAgenticFlow(turn.participantId(), prompt, roundContext))
+            .publishOn(Schedulers.boundedElastic())
+            .map(responseDto -> {
+                log.info("Agentic flow response generated for participant {} in round {}",
+                    turn.participantName(), turn.roundNumber());
+                return responseRepository.findById(responseDto.getId()).orElseThrow();
+            });
     }
     
-    private void generateStandardAiResponse(Debate debate, Round round, Participant participant, 
-                                          List<Response> previousResponses) {
-        log.debug("Using standard LLM for participant {} in round {}", participant.getName(), round.getRoundNumber());
-        
-        // Build context from previous responses
-        String context = buildContext(debate, participant, previousResponses);
-        
+    private Mono<Response> generateStandardAiResponse(ParticipantTurn turn) {
+        log.debug("Using standard LLM for participant {} in round {}", turn.participantName(), turn.roundNumber());
+        
+        Map<String, Object> completionRequest = buildCompletionRequest(turn);
+        StringBuilder content = new StringBuilder();
+        AtomicInteger tokenIndex = new AtomicInteger();
+        
+        // Stream tokens to viewers as they arrive; fall back to a blocking completion if nothing was streamed
+        Mono<String> completion = llmStreamingClient.streamCompletion(completionRequest, turn.organizationId().toString())
+            .doOnNext(delta -> {
+                content.append(delta);
+                publishResponseToken(turn, delta, tokenIndex.getAndIncrement());
+            })
+            .then(Mono.fromSupplier(content::toString))
+            .onErrorResume(ex -> tokenIndex.get() == 0, ex -> {
+                log.warn("Streaming unavailable for participant {}, using blocking completion: {}",
+                    turn.participantName(), ex.getMessage());
+                return Mono.fromCallable(() -> extractContent(llmServiceClient.generateCompletion(completionRequest)))
+                    .subscribeOn(Schedulers.boundedElastic());
+            });
+        
+        return completion
+            .publishOn(Schedulers.boundedElastic())
+            .map(text -> commitResponse(turn, text));
+    }
+    
+    private Map<String, Object> buildCompletionRequest(ParticipantTurn turn) {
         // Prepare messages for LLM
         List<Map<String, String>> messages = new ArrayList<>();
         
@@ -244,59 +317,53 @@ public class OrchestrationService {
             "You are %s, participating in a debate about: %s. Your position is: %s. " +
             "Respond with a clear, concise argument supporting your position. " +
             "Keep your response under 300 words.",
-            participant.getName(), debate.getTopic(), participant.getPosition()
+            turn.participantName(), turn.topic(), turn.position()
         ));
         messages.add(systemMessage);
         
         // Add context as user message
         Map<String, String> userMessage = new HashMap<>();
         userMessage.put("role", "user");
-        userMessage.put("content", context);
+        userMessage.put("content", turn.context());
         messages.add(userMessage);
         
-        // Call LLM service
         Map<String, Object> completionRequest = new HashMap<>();
-        completionRequest.put("provider", participant.getProvider());
-        completionRequest.put("model", participant.getModel());
+        completionRequest.put("provider", turn.provider());
+        completionRequest.put("model", turn.model());
         completionRequest.put("messages", messages);
         completionRequest.put("maxTokens", 500);
         completionRequest.put("temperature", 0.7);
-        
-        Map<String, Object> llmResponse = llmServiceClient.generateCompletion(completionRequest);
-        
-        // Extract response content
+        return completionRequest;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private String extractContent(Map<String, Object> llmResponse) {
         List<Map<String, Object>> choices = (List<Map<String, Object>>) llmResponse.get("choices");
         Map<String, Object> message = (Map<String, Object>) choices.get(0).get("message");
-        String content = (String) message.get("content");
-        
-        // Save response
-        Response response = Response.builder()
-                .round(round)
-                .participant(participant)
+        return (String) message.get("content");
+    }
+    
+    /**
+     * Save a generated response in its own transaction so each participant's turn is durable independently
+     */
+    private Response commitResponse(ParticipantTurn turn, String content) {
+        Response response = transactionTemplate.execute(status -> responseRepository.save(Response.builder()
+                .round(roundRepository.getReferenceById(turn.roundId()))
+                .participant(participantRepository.getReferenceById(turn.participantId()))
                 .content(content)
                 .tokenCount(content.split("\\s+").length)
-                .build();
+                .build()));
         
-        response = responseRepository.save(response);
-        log.info("Generated standard AI response for participant {} in round {}", 
-                participant.getName(), round.getRoundNumber());
-        
-        // Publish real-time event
-        publishNewResponseEvent(debate, response, participant, round);
-        
-        // Send push notification
-        pushNotificationService.sendNewResponseNotification(
-            debate.getId().toString(),
-            debate.getOrganizationId(),
-            participant.getName(),
-            participant.getPosition()
-        );
-        
-        // Check if round is complete
-        checkRoundCompletion(debate.getId(), round.getId());
+        log.info("Generated standard AI response for participant {} in round {}",
+                turn.participantName(), turn.roundNumber());
+        return response;
     }
     
-    private String buildContext(Debate debate, Participant participant, List<Response> previousResponses) {
+    /**
+     * Render the arguments made so far. Responses arrive ordered by round, so rounds are
+     * emitted in a single pass; the result is shared by every participant of the round.
+     */
+    private String buildContext(Debate debate, List<Response> previousResponses) {
         StringBuilder context = new StringBuilder();
         context.append("Debate Topic: ").append(debate.getTopic()).append("\n\n");
         
@@ -305,19 +372,18 @@ public class OrchestrationService {
         } else {
             context.append("Previous arguments:\n\n");
             
-            // Group responses by round
-            Map<Integer, List<Response>> responsesByRound = previousResponses.stream()
-                    .collect(Collectors.groupingBy(r -> r.getRound().getRoundNumber()));
-            
-            for (Map.Entry<Integer, List<Response>> entry : responsesByRound.entrySet()) {
-                context.append("Round ").append(entry.getKey()).append(":\n");
-                
-                for (Response response : entry.getValue()) {
-                    context.append(response.getParticipant().getName())
-                           .append(" (").append(response.getParticipant().getPosition()).append("): ")
-                           .append(response.getContent())
-                           .append("\n\n");
+            int currentRoundNumber = -1;
+            for (Response response : previousResponses) {
+                int roundNumber = response.getRound().getRoundNumber();
+                if (roundNumber != currentRoundNumber) {
+                    context.append("Round ").append(roundNumber).append(":\n");
+                    currentRoundNumber = roundNumber;
                 }
+                
+                context.append(response.getParticipant().getName())
+                       .append(" (").append(response.getParticipant().getPosition()).append("): ")
+                       .append(response.getContent())
+                       .append("\n\n");
             }
             
             context.append("Now provide your response for round ").append(debate.getCurrentRound()).append(".");
@@ -329,8 +395,9 @@ public class OrchestrationService {
     private List<Response> getPreviousResponses(Debate debate) {
         return debate.getRounds().stream()
                 .filter(round -> round.getStatus().equals("COMPLETED"))
-                .flatMap(round -> round.getResponses().stream())
-                .sorted(Comparator.comparing(Response::getCreatedAt))
+                .sorted(Comparator.comparing(Round::getRoundNumber))
+                .flatMap(round -> round.getResponses().stream()
+                        .sorted(Comparator.comparing(Response::getCreatedAt)))
                 .collect(Collectors.toList());
     }
     
@@ -344,21 +411,34 @@ public class OrchestrationService {
     /**
      * Publish new response event for real-time updates
      */
-    private void publishNewResponseEvent(Debate debate, Response response, Participant participant, Round round) {
-        Map<String, Object> event = Map.of(
-            "type", "new_response",
-            "debateId", debate.getId().toString(),
-            "responseId", response.getId().toString(),
-            "participantId", participant.getId().toString(),
-            "participantName", participant.getName(),
-            "position", participant.getPosition(),
-            "content", response.getContent(),
-            "roundNumber", round.getRoundNumber(),
+    private void publishNewResponseEvent(ParticipantTurn turn, Response response) {
+        eventPublisher.publishEvent(new NewResponseEvent(
+            turn.debateId().toString(),
+            response.getId().toString(),
+            turn.participantId().toString(),
+            turn.participantName(),
+            turn.position(),
+            response.getContent(),
+            turn.roundNumber(),
+            response.getTokenCount() != null ? response.getTokenCount() : 0,
+            System.currentTimeMillis()
+        ));
+        log.debug("Published new response event for debate {}", turn.debateId());
+    }
+    
+    /**
+     * Stream a partial response to connected viewers; the committed response follows as new_response
+     */
+    private void publishResponseToken(ParticipantTurn turn, String delta, int index) {
+        webSocketHandler.getObject().broadcastTransient(turn.debateId().toString(), Map.of(
+            "type", "response_token",
+            "debateId", turn.debateId().toString(),
+            "roundNumber", turn.roundNumber(),
+            "participantId", turn.participantId().toString(),
+            "index", index,
+            "delta", delta,
             "timestamp", System.currentTimeMillis()
-        );
-        
-        debateService.publishDebateEvent(debate.getId().toString(), event);
-        log.debug("Published new response event for debate {}", debate.getId());
+        ));
     }
     
     /**
@@ -375,15 +455,12 @@ public class OrchestrationService {
             ))
             .collect(Collectors.toList());
         
-        Map<String, Object> event = Map.of(
-            "type", "round_completed",
-            "debateId", debate.getId().toString(),
-            "roundNumber", round.getRoundNumber(),
-            "responses", responses,
-            "timestamp", System.currentTimeMillis()
-        );
-        
-        debateService.publishDebateEvent(debate.getId().toString(), event);
+        eventPublisher.publishEvent(new RoundCompletedEvent(
+            debate.getId().toString(),
+            round.getRoundNumber(),
+            responses,
+            System.currentTimeMillis()
+        ));
         log.debug("Published round completed event for debate {}", debate.getId());
     }
     
@@ -391,16 +468,13 @@ public class OrchestrationService {
      * Publish debate completed event
      */
     private void publishDebateCompletedEvent(Debate debate) {
-        Map<String, Object> event = Map.of(
-            "type", "debate_completed",
-            "debateId", debate.getId().toString(),
-            "status", "COMPLETED",
-            "summary", "Debate completed with " + debate.getRounds().size() + " rounds",
-            "completedAt", debate.getCompletedAt().toString(),
-            "timestamp", System.currentTimeMillis()
-        );
-        
-        debateService.publishDebateEvent(debate.getId().toString(), event);
+        eventPublisher.publishEvent(new DebateCompletedEvent(
+            debate.getId().toString(),
+            "Debate completed with " + debate.getRounds().size() + " rounds",
+            "",
+            Map.of("completedAt", debate.getCompletedAt().toString()),
+            System.currentTimeMillis()
+        ));
         debateService.cleanupDebateEvents(debate.getId().toString());
         log.debug("Published debate completed event for debate {}", debate.getId());
     }
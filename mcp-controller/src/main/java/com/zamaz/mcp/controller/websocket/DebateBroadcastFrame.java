@@ -0,0 +1,70 @@
+package com.zamaz.mcp.controller.websocket;
+
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A debate event encoded once and shared by every session it is delivered to.
+ * Each session gets a read-only view over the same bytes, so fan-out never
+ * re-serializes or copies the payload.
+ */
+public final class DebateBroadcastFrame {
+
+    private final String debateId;
+    private final long sequence;
+    private final boolean critical;
+    private final String conflationKey;
+    private final byte[] payload;
+
+    public DebateBroadcastFrame(String debateId, long sequence, boolean critical,
+                                String conflationKey, byte[] payload) {
+        this.debateId = debateId;
+        this.sequence = sequence;
+        this.critical = critical;
+        this.conflationKey = conflationKey;
+        this.payload = payload;
+    }
+
+    /**
+     * Wrap the shared payload as a text frame for the given session
+     */
+    public WebSocketMessage toMessage(WebSocketSession session) {
+        ByteBuffer view = ByteBuffer.wrap(payload).asReadOnlyBuffer();
+        return new WebSocketMessage(WebSocketMessage.Type.TEXT, session.bufferFactory().wrap(view));
+    }
+
+    public String getDebateId() {
+        return debateId;
+    }
+
+    /**
+     * Position of this event in the debate's event stream, used for resume
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Critical frames are never dropped; a session that cannot keep up with them is disconnected
+     */
+    public boolean isCritical() {
+        return critical;
+    }
+
+    /**
+     * Frames with the same key carry superseding state, so only the latest needs delivering
+     */
+    public String getConflationKey() {
+        return conflationKey;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public int size() {
+        return payload.length;
+    }
+}
@@ -0,0 +1,175 @@
+package com.zamaz.mcp.controller.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Relays encoded debate frames between controller replicas over Redis pub/sub.
+ *
+ * Each debate has its own channel and a replica only listens on channels of debates
+ * that currently have viewers connected to it, so traffic for a debate reaches exactly
+ * the nodes serving it. Frames are published as raw bytes behind a one-line header
+ * carrying the origin node id and the frame's sequence and delivery attributes; a node
+ * ignores its own frames because it already delivered them locally. The conflation key
+ * embeds client-supplied IDs, so it is URL-encoded to keep separators out of the header.
+ */
+@Component
+@Slf4j
+public class DebateClusterBroadcaster {
+
+    private static final byte SEPARATOR = '\n';
+    private static final String FIELD_SEPARATOR = "\t";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // Map of debate ID to the listener registered on its channel
+    private final Map<String, MessageListener> debateListeners = new ConcurrentHashMap<>();
+
+    @Value("${mcp.controller.websocket.cluster.enabled:true}")
+    private boolean enabled;
+
+    @Value("${mcp.controller.websocket.cluster.channel-prefix:mcp.debate.ws.}")
+    private String channelPrefix;
+
+    public DebateClusterBroadcaster(StringRedisTemplate redisTemplate,
+                                    RedisMessageListenerContainer debateBroadcastListenerContainer) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = debateBroadcastListenerContainer;
+    }
+
+    /**
+     * Publish a frame to the other replicas serving this debate
+     */
+    public void publish(DebateBroadcastFrame frame) {
+        if (!enabled) {
+            return;
+        }
+
+        byte[] channel = channelFor(frame.getDebateId()).getBytes(StandardCharsets.UTF_8);
+        byte[] header = String.join(FIELD_SEPARATOR,
+                nodeId,
+                Long.toString(frame.getSequence()),
+                frame.isCritical() ? "1" : "0",
+                frame.getConflationKey() != null
+                    ? URLEncoder.encode(frame.getConflationKey(), StandardCharsets.UTF_8) : "")
+            .getBytes(StandardCharsets.UTF_8);
+        byte[] envelope = new byte[header.length + 1 + frame.size()];
+        System.arraycopy(header, 0, envelope, 0, header.length);
+        envelope[header.length] = SEPARATOR;
+        System.arraycopy(frame.getPayload(), 0, envelope, header.length + 1, frame.size());
+
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channel, envelope));
+        } catch (Exception e) {
+            log.error("Failed to relay broadcast for debate {} to cluster", frame.getDebateId(), e);
+        }
+    }
+
+    /**
+     * Start receiving frames published by other replicas for a debate
+     */
+    public void subscribe(String debateId, Consumer<DebateBroadcastFrame> localDelivery) {
+        if (!enabled) {
+            return;
+        }
+
+        MessageListener listener = (message, pattern) -> {
+            DebateBroadcastFrame frame = decode(debateId, message.getBody());
+            if (frame != null) {
+                localDelivery.accept(frame);
+            }
+        };
+
+        if (debateListeners.putIfAbsent(debateId, listener) == null) {
+            listenerContainer.addMessageListener(listener, new ChannelTopic(channelFor(debateId)));
+            log.debug("Subscribed node {} to cluster broadcasts for debate {}", nodeId, debateId);
+        }
+    }
+
+    /**
+     * Stop receiving frames for a debate once its last local viewer has left
+     */
+    public void unsubscribe(String debateId) {
+        MessageListener listener = debateListeners.remove(debateId);
+        if (listener != null) {
+            listenerContainer.removeMessageListener(listener, new ChannelTopic(channelFor(debateId)));
+            log.debug("Unsubscribed node {} from cluster broadcasts for debate {}", nodeId, debateId);
+        }
+    }
+
+    /**
+     * Parse the header, returning null for frames this node published itself
+     */
+    private DebateBroadcastFrame decode(String debateId, byte[] envelope) {
+        int separator = -1;
+        for (int i = 0; i < envelope.length; i++) {
+            if (envelope[i] == SEPARATOR) {
+                separator = i;
+                break;
+            }
+        }
+
+        if (separator < 0) {
+            log.warn("Dropping malformed cluster broadcast for debate {}", debateId);
+            return null;
+        }
+
+        String[] header = new String(envelope, 0, separator, StandardCharsets.UTF_8).split(FIELD_SEPARATOR, -1);
+        if (header.length != 4) {
+            log.warn("Dropping cluster broadcast with malformed header for debate {}", debateId);
+            return null;
+        }
+
+        if (nodeId.equals(header[0])) {
+            return null;
+        }
+
+        long sequence;
+        String conflationKey;
+        try {
+            sequence = Long.parseLong(header[1]);
+            conflationKey = header[3].isEmpty() ? null : URLDecoder.decode(header[3], StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            // Also covers NumberFormatException
+            log.warn("Dropping cluster broadcast with malformed header for debate {}", debateId);
+            return null;
+        }
+
+        return new DebateBroadcastFrame(
+            debateId,
+            sequence,
+            "1".equals(header[2]),
+            conflationKey,
+            Arrays.copyOfRange(envelope, separator + 1, envelope.length));
+    }
+
+    private String channelFor(String debateId) {
+        return channelPrefix + debateId;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public int getSubscribedDebateCount() {
+        return debateListeners.size();
+    }
+}
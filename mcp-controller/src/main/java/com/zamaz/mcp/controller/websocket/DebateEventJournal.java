@@ -0,0 +1,171 @@
+package com.zamaz.mcp.controller.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sequences debate broadcast events and retains the most recent ones so that
+ * reconnecting clients can replay what they missed.
+ *
+ * Sequence numbers come from a Redis counter per debate when clustering is enabled,
+ * so every replica stamps events from the same stream. Each node only retains frames
+ * for debates it serves; a resume the journal cannot satisfy returns null and the
+ * client is told to resync its full state.
+ */
+@Component
+@Slf4j
+public class DebateEventJournal {
+
+    private static final String SEQUENCE_KEY_PREFIX = "mcp:debate:ws:seq:";
+    private static final Duration SEQUENCE_KEY_TTL = Duration.ofDays(7);
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final Map<String, DebateLog> logs = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> localSequences = new ConcurrentHashMap<>();
+
+    @Value("${mcp.controller.websocket.cluster.enabled:true}")
+    private boolean clusterEnabled;
+
+    @Value("${mcp.controller.websocket.journal.capacity:1024}")
+    private int capacity;
+
+    @Value("${mcp.controller.websocket.journal.idle-retention:PT30M}")
+    private Duration idleRetention;
+
+    public DebateEventJournal(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Allocate the next sequence number for a debate's event stream
+     */
+    public long nextSequence(String debateId) {
+        if (clusterEnabled) {
+            try {
+                String key = SEQUENCE_KEY_PREFIX + debateId;
+                Long sequence = redisTemplate.opsForValue().increment(key);
+                if (sequence != null) {
+                    if (sequence == 1L) {
+                        redisTemplate.expire(key, SEQUENCE_KEY_TTL);
+                    }
+                    return sequence;
+                }
+            } catch (Exception e) {
+                log.warn("Falling back to local sequence for debate {}: {}", debateId, e.getMessage());
+            }
+        }
+        return localSequences.computeIfAbsent(debateId, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Retain a sequenced frame for replay
+     */
+    public void append(DebateBroadcastFrame frame) {
+        if (frame.getSequence() <= 0) {
+            return;
+        }
+        logs.computeIfAbsent(frame.getDebateId(), k -> new DebateLog(capacity)).append(frame);
+    }
+
+    /**
+     * Frames with a sequence greater than the one given, in order
+     *
+     * @return the missed frames, or null if some of them are no longer retained
+     */
+    public List<DebateBroadcastFrame> replaySince(String debateId, long lastSequence) {
+        DebateLog debateLog = logs.get(debateId);
+        if (debateLog == null) {
+            return lastSequence == 0 ? List.of() : null;
+        }
+        return debateLog.since(lastSequence);
+    }
+
+    /**
+     * Release journals of debates that have been quiet for longer than the retention period
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdleJournals() {
+        long cutoff = System.currentTimeMillis() - idleRetention.toMillis();
+        logs.entrySet().removeIf(entry -> entry.getValue().lastAppended < cutoff);
+        localSequences.keySet().removeIf(debateId -> !logs.containsKey(debateId));
+    }
+
+    /**
+     * Fixed-size ring of the latest frames of one debate
+     */
+    private static final class DebateLog {
+        private final DebateBroadcastFrame[] ring;
+        private int next;
+        private int size;
+        private long evictedUpTo;
+        // Lowest sequence held; a node that joined mid-stream never saw the frames before it
+        private long firstSequence = Long.MAX_VALUE;
+        private volatile long lastAppended = System.currentTimeMillis();
+
+        DebateLog(int capacity) {
+            this.ring = new DebateBroadcastFrame[capacity];
+        }
+
+        synchronized void append(DebateBroadcastFrame frame) {
+            DebateBroadcastFrame evicted = ring[next];
+            if (evicted != null && evicted.getSequence() > evictedUpTo) {
+                evictedUpTo = evicted.getSequence();
+            }
+            ring[next] = frame;
+            next = (next + 1) % ring.length;
+            size = Math.min(size + 1, ring.length);
+            lastAppended = System.currentTimeMillis();
+
+            if (frame.getSequence() > evictedUpTo) {
+                firstSequence = Math.min(firstSequence, frame.getSequence());
+            }
+            firstSequence = Math.max(firstSequence, evictedUpTo + 1);
+        }
+
+        /**
+         * @return the frames after the given sequence, or null unless they are all held
+         */
+        synchronized List<DebateBroadcastFrame> since(long lastSequence) {
+            if (lastSequence + 1 < firstSequence) {
+                return null;
+            }
+
+            List<DebateBroadcastFrame> missed = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                DebateBroadcastFrame frame = ring[i];
+                if (frame.getSequence() > lastSequence) {
+                    missed.add(frame);
+                }
+            }
+            // Frames relayed from other replicas may arrive slightly out of order
+            missed.sort(Comparator.comparingLong(DebateBroadcastFrame::getSequence));
+
+            // A frame that has not reached this node leaves a gap the client cannot recover from
+            List<DebateBroadcastFrame> replay = new ArrayList<>(missed.size());
+            long expected = lastSequence + 1;
+            for (DebateBroadcastFrame frame : missed) {
+                if (frame.getSequence() < expected) {
+                    continue; // duplicate
+                }
+                if (frame.getSequence() > expected) {
+                    return null;
+                }
+                replay.add(frame);
+                expected++;
+            }
+            return replay;
+        }
+    }
+}
@@ -6,21 +6,31 @@ import com.zamaz.mcp.controller.service.DebateService;
 import com.zamaz.mcp.security.jwt.JwtService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.CloseStatus;
 import org.springframework.web.reactive.socket.WebSocketHandler;
 import org.springframework.web.reactive.socket.WebSocketMessage;
 import org.springframework.web.reactive.socket.WebSocketSession;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.publisher.Sinks;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * WebSocket handler for real-time debate updates
+ * WebSocket handler for real-time debate updates.
+ *
+ * Broadcast events carry a per-debate {@code seq}. Each session has a bounded outbound
+ * queue; a client that falls too far behind is closed with a resume token, and can
+ * reconnect with {@code ?resumeFrom=<seq>} or send {@code {"type":"resume","lastSeq":n}}
+ * to replay the events it missed. Clients should ignore frames whose seq they already applied.
  */
 @Component
 @Slf4j
@@ -31,12 +41,31 @@ public class DebateWebSocketHandler implements WebSocketHandler {
     private final ObjectMapper objectMapper;
     private final SecurityContext securityContext;
     private final JwtService jwtService;
+    private final DebateClusterBroadcaster clusterBroadcaster;
+    private final DebateEventJournal eventJournal;
+    private final WebSocketOutboundMetrics outboundMetrics;
+    
+    // Close status sent to clients that cannot keep up; the reason carries the resume token
+    private static final CloseStatus SLOW_CONSUMER = new CloseStatus(4008, "slow consumer");
+    
+    // Events a client must never miss; everything else may be conflated or dropped under pressure
+    private static final Set<String> CRITICAL_EVENT_TYPES = Set.of(
+        "connection", "error", "resync_required",
+        "debate_started", "round_completed", "new_response", "debate_completed", "debate_error",
+        "participant_joined", "new_comment", "vote_confirmed", "comment_confirmed"
+    );
+    
+    @Value("${mcp.controller.websocket.outbound.capacity:256}")
+    private int outboundCapacity;
+    
+    @Value("${mcp.controller.websocket.outbound.slow-consumer-policy:CONFLATE}")
+    private SlowConsumerPolicy slowConsumerPolicy;
     
     // Map of debate ID to connected sessions
     private final Map<String, Map<String, WebSocketSession>> debateSessions = new ConcurrentHashMap<>();
     
-    // Map of session ID to sink for sending messages
-    private final Map<String, Sinks.Many<WebSocketMessage>> sessionSinks = new ConcurrentHashMap<>();
+    // Map of session ID to its bounded outbound queue
+    private final Map<String, SessionOutbound> sessionOutbounds = new ConcurrentHashMap<>();
     
     // Map for storing votes in memory (debate:response:user -> vote type)
     private final Map<String, Map<String, String>> sessionVotes = new ConcurrentHashMap<>();
@@ -66,13 +95,24 @@ public class DebateWebSocketHandler implements WebSocketHandler {
         
         log.info("WebSocket connection established - Session: {}, Debate: {}", sessionId, debateId);
         
-        // Create sink for this session
-        Sinks.Many<WebSocketMessage> sink = Sinks.many().multicast().onBackpressureBuffer();
-        sessionSinks.put(sessionId, sink);
+        // Create outbound queue for this session
+        SessionOutbound outbound = new SessionOutbound(
+            session, debateId, outboundCapacity, slowConsumerPolicy, outboundMetrics, this::disconnectSlowConsumer);
+        sessionOutbounds.put(sessionId, outbound);
         
-        // Add session to debate room
-        debateSessions.computeIfAbsent(debateId, k -> new ConcurrentHashMap<>())
-            .put(sessionId, session);
+        // Add session to debate room, joining the cluster channel for the first local viewer
+        boolean[] firstViewer = new boolean[1];
+        debateSessions.compute(debateId, (k, sessions) -> {
+            if (sessions == null) {
+                sessions = new ConcurrentHashMap<>();
+                firstViewer[0] = true;
+            }
+            sessions.put(sessionId, session);
+            return sessions;
+        });
+        if (firstViewer[0]) {
+            syncClusterSubscription(debateId);
+        }
         
         // Send welcome message
         sendMessage(session, Map.of(
@@ -82,24 +122,34 @@ public class DebateWebSocketHandler implements WebSocketHandler {
             "sessionId", sessionId
         ));
         
+        // Replay missed events if the client is reconnecting
+        String resumeFrom = UriComponentsBuilder.fromUri(session.getHandshakeInfo().getUri())
+            .build().getQueryParams().getFirst("resumeFrom");
+        if (resumeFrom != null) {
+            resume(session, debateId, resumeFrom);
+        }
+        
         // Subscribe to debate events
         Flux<WebSocketMessage> debateUpdates = subscribeToDebateUpdates(debateId, session);
         
-        // Handle incoming messages
-        Flux<WebSocketMessage> output = session.receive()
-            .doOnNext(message -> handleIncomingMessage(session, debateId, message))
-            .thenMany(Flux.merge(
-                sink.asFlux(),
+        Flux<WebSocketMessage> output = Flux.merge(
+                outbound.asFlux(),
                 debateUpdates,
                 createHeartbeat(session)
-            ))
-            .doOnError(error -> log.error("WebSocket error - Session: {}", sessionId, error))
+            )
+            .doOnError(error -> log.error("WebSocket error - Session: {}", sessionId, error));
+        
+        // Handle incoming messages
+        Mono<Void> input = session.receive()
+            .doOnNext(message -> handleIncomingMessage(session, debateId, message))
+            .then();
+        
+        return session.send(output)
+            .and(input)
             .doFinally(signal -> {
                 log.info("WebSocket disconnected - Session: {}, Signal: {}", sessionId, signal);
                 cleanupSession(sessionId, debateId);
             });
-        
-        return session.send(output);
     }
     
     /**
@@ -118,6 +168,12 @@ public class DebateWebSocketHandler implements WebSocketHandler {
                     sendMessage(session, Map.of("type", "pong", "timestamp", System.currentTimeMillis()));
                     break;
                     
+                case "resume":
+                    // Client replaying events missed while disconnected
+                    Object lastSeq = data.get("lastSeq");
+                    resume(session, debateId, lastSeq != null ? lastSeq.toString() : (String) data.get("resumeToken"));
+                    break;
+                    
                 case "subscribe":
                     // Client subscribing to specific events
                     String eventType = (String) data.get("eventType");
@@ -175,31 +231,160 @@ public class DebateWebSocketHandler implements WebSocketHandler {
      * Broadcast message to all sessions in a debate
      */
     public void broadcastToDebate(String debateId, Map<String, Object> message) {
-        Map<String, WebSocketSession> sessions = debateSessions.get(debateId);
+        long sequence = eventJournal.nextSequence(debateId);
+        Map<String, Object> sequenced = new LinkedHashMap<>(message);
+        sequenced.put("seq", sequence);
+        
+        DebateBroadcastFrame frame;
+        try {
+            frame = encode(debateId, sequence, sequenced);
+        } catch (Exception e) {
+            log.error("Error serializing broadcast for debate {}", debateId, e);
+            return;
+        }
+        
+        eventJournal.append(frame);
+        deliverLocally(frame);
+        clusterBroadcaster.publish(frame);
+    }
+    
+    /**
+     * Broadcast an ephemeral message, such as a streamed token, to all sessions in a debate.
+     * Transient messages are not sequenced or journaled, so they are never replayed on resume.
+     */
+    public void broadcastTransient(String debateId, Map<String, Object> message) {
+        DebateBroadcastFrame frame;
+        try {
+            frame = encode(debateId, 0, message);
+        } catch (Exception e) {
+            log.error("Error serializing transient broadcast for debate {}", debateId, e);
+            return;
+        }
+        
+        deliverLocally(frame);
+        clusterBroadcaster.publish(frame);
+    }
+    
+    /**
+     * Deliver an already encoded frame to the sessions connected to this node
+     */
+    private void deliverLocally(DebateBroadcastFrame frame) {
+        Map<String, WebSocketSession> sessions = debateSessions.get(frame.getDebateId());
         if (sessions != null) {
             sessions.forEach((sessionId, session) -> {
-                if (session.isOpen()) {
-                    sendMessage(session, message);
+                SessionOutbound outbound = sessionOutbounds.get(sessionId);
+                if (outbound != null && session.isOpen()) {
+                    outbound.offer(frame);
                 }
             });
         }
     }
     
+    /**
+     * Journal and deliver a frame relayed from another replica
+     */
+    private void deliverRelayed(DebateBroadcastFrame frame) {
+        eventJournal.append(frame);
+        deliverLocally(frame);
+    }
+    
     /**
      * Send message to specific session
      */
     private void sendMessage(WebSocketSession session, Map<String, Object> message) {
+        SessionOutbound outbound = sessionOutbounds.get(session.getId());
+        if (outbound == null) {
+            return;
+        }
         try {
-            String json = objectMapper.writeValueAsString(message);
-            Sinks.Many<WebSocketMessage> sink = sessionSinks.get(session.getId());
-            if (sink != null) {
-                sink.tryEmitNext(session.textMessage(json));
-            }
+            outbound.offer(encode(outbound.getDebateId(), 0, message));
         } catch (Exception e) {
             log.error("Error sending WebSocket message", e);
         }
     }
     
+    /**
+     * Encode a message once, classifying it for the slow-consumer policy
+     */
+    private DebateBroadcastFrame encode(String debateId, long sequence, Map<String, Object> message) throws Exception {
+        String type = String.valueOf(message.get("type"));
+        return new DebateBroadcastFrame(
+            debateId,
+            sequence,
+            CRITICAL_EVENT_TYPES.contains(type),
+            conflationKey(type, message),
+            objectMapper.writeValueAsBytes(message)
+        );
+    }
+    
+    /**
+     * Key under which newer state supersedes older state of the same kind
+     */
+    private String conflationKey(String type, Map<String, Object> message) {
+        switch (type) {
+            case "vote_update":
+                return type + ":" + message.get("responseId");
+            case "statistics_update":
+            case "pong":
+                return type;
+            default:
+                return null;
+        }
+    }
+    
+    /**
+     * Replay events after the given sequence number or resume token
+     */
+    private void resume(WebSocketSession session, String debateId, String position) {
+        SessionOutbound outbound = sessionOutbounds.get(session.getId());
+        if (outbound == null || position == null) {
+            return;
+        }
+        
+        long lastSequence;
+        try {
+            int separator = position.lastIndexOf(':');
+            if (separator >= 0 && !position.substring(0, separator).equals(debateId)) {
+                sendError(session, "Resume token belongs to another debate");
+                return;
+            }
+            lastSequence = Long.parseLong(position.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            sendError(session, "Invalid resume position: " + position);
+            return;
+        }
+        
+        List<DebateBroadcastFrame> missed = eventJournal.replaySince(debateId, lastSequence);
+        if (missed == null || !outbound.replay(missed)) {
+            log.info("Cannot replay debate {} from seq {} for session {}, requesting resync",
+                debateId, lastSequence, session.getId());
+            sendMessage(session, Map.of(
+                "type", "resync_required",
+                "debateId", debateId,
+                "lastSeq", lastSequence
+            ));
+            return;
+        }
+        
+        log.debug("Replayed {} events of debate {} from seq {} for session {}",
+            missed.size(), debateId, lastSequence, session.getId());
+    }
+    
+    /**
+     * Close a session whose outbound queue overflowed, handing it a resume token
+     */
+    private void disconnectSlowConsumer(SessionOutbound outbound) {
+        String resumeToken = outbound.resumeToken();
+        log.warn("Disconnecting slow WebSocket consumer - Session: {}, Debate: {}, Resume token: {}",
+            outbound.getSession().getId(), outbound.getDebateId(), resumeToken);
+        
+        outboundMetrics.slowConsumerDisconnected(outbound.getDebateId());
+        outbound.close();
+        outbound.getSession()
+            .close(new CloseStatus(SLOW_CONSUMER.getCode(), "resume:" + resumeToken))
+            .subscribe();
+    }
+    
     /**
      * Send error message
      */
@@ -510,19 +695,25 @@ public class DebateWebSocketHandler implements WebSocketHandler {
      * Cleanup session resources
      */
     private void cleanupSession(String sessionId, String debateId) {
-        // Remove from debate sessions
-        Map<String, WebSocketSession> sessions = debateSessions.get(debateId);
-        if (sessions != null) {
+        // Remove from debate sessions, leaving the cluster channel with the last local viewer
+        boolean[] lastViewer = new boolean[1];
+        debateSessions.computeIfPresent(debateId, (k, sessions) -> {
             sessions.remove(sessionId);
             if (sessions.isEmpty()) {
-                debateSessions.remove(debateId);
+                lastViewer[0] = true;
+                outboundMetrics.removeDebate(debateId);
+                return null;
             }
+            return sessions;
+        });
+        if (lastViewer[0]) {
+            syncClusterSubscription(debateId);
         }
         
-        // Remove sink
-        Sinks.Many<WebSocketMessage> sink = sessionSinks.remove(sessionId);
-        if (sink != null) {
-            sink.tryEmitComplete();
+        // Release outbound queue
+        SessionOutbound outbound = sessionOutbounds.remove(sessionId);
+        if (outbound != null) {
+            outbound.close();
         }
         
         // Notify other participants
@@ -533,6 +724,23 @@ public class DebateWebSocketHandler implements WebSocketHandler {
         ));
     }
     
+    /**
+     * Join or leave the cluster channel of a debate to match whether its room is open.
+     * Called outside the room map's compute so Redis is never contacted while a map bin is
+     * locked; a room may open or close again meanwhile, so settle on its latest state.
+     */
+    private void syncClusterSubscription(String debateId) {
+        boolean open;
+        do {
+            open = debateSessions.containsKey(debateId);
+            if (open) {
+                clusterBroadcaster.subscribe(debateId, this::deliverRelayed);
+            } else {
+                clusterBroadcaster.unsubscribe(debateId);
+            }
+        } while (open != debateSessions.containsKey(debateId));
+    }
+    
     /**
      * Get active session count for a debate
      */
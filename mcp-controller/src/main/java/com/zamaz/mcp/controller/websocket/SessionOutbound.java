@@ -0,0 +1,233 @@
+package com.zamaz.mcp.controller.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Operators;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Bounded outbound queue for a single WebSocket session.
+ *
+ * Frames are only handed to the transport as the client's connection requests them, so a
+ * slow client accumulates frames here rather than in an unbounded sink. When the queue is
+ * full the configured {@link SlowConsumerPolicy} decides what gives way; critical frames
+ * are never dropped, so a session that cannot absorb them is disconnected instead.
+ */
+@Slf4j
+public class SessionOutbound {
+
+    private final WebSocketSession session;
+    private final String debateId;
+    private final int capacity;
+    private final SlowConsumerPolicy policy;
+    private final WebSocketOutboundMetrics metrics;
+    private final Consumer<SessionOutbound> overflowHandler;
+
+    private final Deque<DebateBroadcastFrame> queue = new ArrayDeque<>();
+    private final Flux<WebSocketMessage> flux;
+
+    private FluxSink<WebSocketMessage> downstream;
+    private long demand;
+    private boolean draining;
+    private boolean closed;
+    private long lastDeliveredSequence;
+
+    public SessionOutbound(WebSocketSession session, String debateId, int capacity, SlowConsumerPolicy policy,
+                           WebSocketOutboundMetrics metrics, Consumer<SessionOutbound> overflowHandler) {
+        this.session = session;
+        this.debateId = debateId;
+        this.capacity = capacity;
+        this.policy = policy;
+        this.metrics = metrics;
+        this.overflowHandler = overflowHandler;
+        this.flux = Flux.create(sink -> {
+            synchronized (this) {
+                downstream = sink;
+            }
+            sink.onRequest(requested -> {
+                synchronized (this) {
+                    demand = Operators.addCap(demand, requested);
+                }
+                drain();
+            });
+            sink.onDispose(this::close);
+        });
+    }
+
+    /**
+     * Frames for the transport, emitted only as fast as the client consumes them
+     */
+    public Flux<WebSocketMessage> asFlux() {
+        return flux;
+    }
+
+    /**
+     * Queue a frame, applying the slow-consumer policy if the queue is full
+     *
+     * @return false if the frame was rejected or the session is being disconnected
+     */
+    public boolean offer(DebateBroadcastFrame frame) {
+        boolean overflow = false;
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+
+            if (policy == SlowConsumerPolicy.CONFLATE && frame.getConflationKey() != null
+                    && removeQueued(frame.getConflationKey())) {
+                metrics.frameDropped(debateId, "conflated");
+            } else if (queue.size() >= capacity) {
+                if (policy != SlowConsumerPolicy.DISCONNECT && removeOldestNonCritical()) {
+                    metrics.frameDropped(debateId, "drop_oldest");
+                } else if (!frame.isCritical() && policy != SlowConsumerPolicy.DISCONNECT) {
+                    metrics.frameDropped(debateId, "rejected");
+                    return false;
+                } else {
+                    overflow = true;
+                }
+            }
+
+            if (!overflow) {
+                queue.addLast(frame);
+                metrics.frameEnqueued(debateId);
+            }
+        }
+
+        if (overflow) {
+            metrics.frameDropped(debateId, "disconnect");
+            overflowHandler.accept(this);
+            return false;
+        }
+
+        drain();
+        return true;
+    }
+
+    /**
+     * Queue missed frames ahead of live traffic after a resume request.
+     * Frames already queued are skipped; clients de-duplicate by sequence number.
+     *
+     * @return false if the replay does not fit and the client must resync from scratch
+     */
+    public boolean replay(List<DebateBroadcastFrame> missed) {
+        synchronized (this) {
+            if (closed || queue.size() + missed.size() > capacity) {
+                return false;
+            }
+
+            Set<Long> queuedSequences = new HashSet<>();
+            for (DebateBroadcastFrame queued : queue) {
+                queuedSequences.add(queued.getSequence());
+            }
+
+            for (int i = missed.size() - 1; i >= 0; i--) {
+                DebateBroadcastFrame frame = missed.get(i);
+                if (!queuedSequences.contains(frame.getSequence())) {
+                    queue.addFirst(frame);
+                    metrics.frameEnqueued(debateId);
+                }
+            }
+        }
+
+        drain();
+        return true;
+    }
+
+    /**
+     * Discard queued frames and stop accepting new ones
+     */
+    public void close() {
+        int discarded;
+        synchronized (this) {
+            if (closed && queue.isEmpty()) {
+                return;
+            }
+            closed = true;
+            discarded = queue.size();
+            queue.clear();
+        }
+        metrics.framesDiscarded(debateId, discarded);
+    }
+
+    /**
+     * Token a disconnected client presents to resume from the last frame it was sent
+     */
+    public synchronized String resumeToken() {
+        return debateId + ":" + lastDeliveredSequence;
+    }
+
+    public synchronized int depth() {
+        return queue.size();
+    }
+
+    public WebSocketSession getSession() {
+        return session;
+    }
+
+    public String getDebateId() {
+        return debateId;
+    }
+
+    private void drain() {
+        synchronized (this) {
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+
+        while (true) {
+            DebateBroadcastFrame frame;
+            FluxSink<WebSocketMessage> sink;
+            synchronized (this) {
+                if (downstream == null || demand == 0 || queue.isEmpty()) {
+                    draining = false;
+                    return;
+                }
+                frame = queue.pollFirst();
+                demand--;
+                sink = downstream;
+                if (frame.getSequence() > lastDeliveredSequence) {
+                    lastDeliveredSequence = frame.getSequence();
+                }
+            }
+
+            metrics.frameDequeued(debateId);
+            sink.next(frame.toMessage(session));
+        }
+    }
+
+    private boolean removeQueued(String conflationKey) {
+        Iterator<DebateBroadcastFrame> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            if (conflationKey.equals(iterator.next().getConflationKey())) {
+                iterator.remove();
+                metrics.frameDequeued(debateId);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean removeOldestNonCritical() {
+        Iterator<DebateBroadcastFrame> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            if (!iterator.next().isCritical()) {
+                iterator.remove();
+                metrics.frameDequeued(debateId);
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,23 @@
+package com.zamaz.mcp.controller.websocket;
+
+/**
+ * What to do when a WebSocket session's outbound queue is full
+ */
+public enum SlowConsumerPolicy {
+
+    /**
+     * Replace queued frames that carry the same conflation key with the latest one,
+     * falling back to dropping the oldest non-critical frame
+     */
+    CONFLATE,
+
+    /**
+     * Drop the oldest queued non-critical frame to make room
+     */
+    DROP_OLDEST,
+
+    /**
+     * Close the session with a resume token so the client can reconnect and replay
+     */
+    DISCONNECT
+}
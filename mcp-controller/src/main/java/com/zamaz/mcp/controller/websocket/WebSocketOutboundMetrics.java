@@ -0,0 +1,104 @@
+package com.zamaz.mcp.controller.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-debate metrics for WebSocket outbound queues.
+ * Meters are registered lazily and removed once a debate has no local viewers,
+ * so tag cardinality follows the number of live debates. Only enqueues register the
+ * queue depth gauge; dequeues and discards that arrive after a debate was removed,
+ * such as those of its last sessions being cleaned up, are ignored.
+ */
+@Component
+@RequiredArgsConstructor
+public class WebSocketOutboundMetrics {
+
+    private static final String QUEUE_DEPTH = "debate.websocket.outbound.queue.depth";
+    private static final String FRAMES_DROPPED = "debate.websocket.outbound.frames.dropped";
+    private static final String SLOW_DISCONNECTS = "debate.websocket.sessions.slow.disconnected";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, AtomicInteger> queueDepths = new ConcurrentHashMap<>();
+    private final Map<String, List<Meter>> debateMeters = new ConcurrentHashMap<>();
+
+    public void frameEnqueued(String debateId) {
+        depth(debateId).incrementAndGet();
+    }
+
+    public void frameDequeued(String debateId) {
+        AtomicInteger depth = queueDepths.get(debateId);
+        if (depth != null) {
+            depth.decrementAndGet();
+        }
+    }
+
+    public void framesDiscarded(String debateId, int count) {
+        AtomicInteger depth = queueDepths.get(debateId);
+        if (depth != null && count > 0) {
+            depth.addAndGet(-count);
+        }
+    }
+
+    public void frameDropped(String debateId, String reason) {
+        Counter counter = Counter.builder(FRAMES_DROPPED)
+            .tag("debate_id", debateId)
+            .tag("reason", reason)
+            .description("Outbound WebSocket frames dropped for slow consumers")
+            .register(meterRegistry);
+        track(debateId, counter);
+        counter.increment();
+    }
+
+    public void slowConsumerDisconnected(String debateId) {
+        Counter counter = Counter.builder(SLOW_DISCONNECTS)
+            .tag("debate_id", debateId)
+            .description("WebSocket sessions disconnected because they could not keep up")
+            .register(meterRegistry);
+        track(debateId, counter);
+        counter.increment();
+    }
+
+    /**
+     * Drop all meters for a debate once its last local session has gone
+     */
+    public void removeDebate(String debateId) {
+        queueDepths.remove(debateId);
+        List<Meter> meters = debateMeters.remove(debateId);
+        if (meters != null) {
+            meters.forEach(meterRegistry::remove);
+        }
+    }
+
+    private AtomicInteger depth(String debateId) {
+        return queueDepths.computeIfAbsent(debateId, id -> {
+            AtomicInteger depth = new AtomicInteger();
+            Gauge gauge = Gauge.builder(QUEUE_DEPTH, depth, AtomicInteger::get)
+                .tag("debate_id", id)
+                .description("Frames waiting in WebSocket outbound queues")
+                .register(meterRegistry);
+            track(id, gauge);
+            return depth;
+        });
+    }
+
+    private void track(String debateId, Meter meter) {
+        List<Meter> meters = debateMeters.computeIfAbsent(debateId, id -> new ArrayList<>());
+        synchronized (meters) {
+            if (!meters.contains(meter)) {
+                meters.add(meter);
+            }
+        }
+    }
+}
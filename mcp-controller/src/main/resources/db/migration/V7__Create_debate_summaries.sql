@@ -0,0 +1,81 @@
+-- Denormalized debate read model maintained from debate events.
+-- Results, listing and dashboard queries read a single row per debate.
+
+CREATE TABLE debate_summaries (
+    debate_id UUID PRIMARY KEY REFERENCES debates(id) ON DELETE CASCADE,
+    organization_id UUID NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    description TEXT,
+    topic TEXT,
+    format VARCHAR(50),
+    status VARCHAR(50) NOT NULL,
+    max_rounds INTEGER,
+    current_round INTEGER,
+    settings JSONB,
+    participant_count INTEGER NOT NULL DEFAULT 0,
+    response_count INTEGER NOT NULL DEFAULT 0,
+    total_tokens BIGINT NOT NULL DEFAULT 0,
+    participants JSONB NOT NULL DEFAULT '[]',
+    rounds JSONB NOT NULL DEFAULT '[]',
+    created_at TIMESTAMP,
+    started_at TIMESTAMP,
+    completed_at TIMESTAMP,
+    updated_at TIMESTAMP
+);
+
+CREATE INDEX idx_debate_summaries_org_created ON debate_summaries(organization_id, created_at DESC);
+CREATE INDEX idx_debate_summaries_org_status ON debate_summaries(organization_id, status);
+
+-- Backfill existing debates; timestamps in the JSON columns are epoch milliseconds.
+INSERT INTO debate_summaries (
+    debate_id, organization_id, title, description, topic, format, status, max_rounds, current_round, settings,
+    participant_count, response_count, total_tokens, participants, rounds,
+    created_at, started_at, completed_at, updated_at
+)
+SELECT
+    d.id, d.organization_id, d.title, d.description, d.topic, d.format, d.status, d.max_rounds, d.current_round, d.settings,
+    (SELECT COUNT(*) FROM participants p WHERE p.debate_id = d.id),
+    (SELECT COUNT(*) FROM responses r JOIN rounds rd ON rd.id = r.round_id WHERE rd.debate_id = d.id),
+    (SELECT COALESCE(SUM(r.token_count), 0) FROM responses r JOIN rounds rd ON rd.id = r.round_id WHERE rd.debate_id = d.id),
+    COALESCE((
+        SELECT jsonb_agg(jsonb_build_object(
+                   'participantId', ps.id,
+                   'name', ps.name,
+                   'type', ps.type,
+                   'position', ps.position,
+                   'responseCount', ps.response_count,
+                   'tokenCount', ps.token_count,
+                   'lastResponseAt', (EXTRACT(EPOCH FROM ps.last_response_at::timestamptz) * 1000)::BIGINT
+               ) ORDER BY ps.created_at, ps.id)
+        FROM (
+            SELECT p.id, p.name, p.type, p.position, p.created_at,
+                   COUNT(r.id) AS response_count,
+                   COALESCE(SUM(r.token_count), 0) AS token_count,
+                   MAX(r.created_at) AS last_response_at
+            FROM participants p
+            LEFT JOIN responses r ON r.participant_id = p.id
+            WHERE p.debate_id = d.id
+            GROUP BY p.id
+        ) ps
+    ), '[]'),
+    COALESCE((
+        SELECT jsonb_agg(jsonb_build_object(
+                   'roundNumber', rs.round_number,
+                   'status', rs.status,
+                   'responseCount', rs.response_count,
+                   'tokenCount', rs.token_count,
+                   'completedAt', (EXTRACT(EPOCH FROM rs.completed_at::timestamptz) * 1000)::BIGINT
+               ) ORDER BY rs.round_number)
+        FROM (
+            SELECT rd.round_number, rd.status, rd.completed_at,
+                   COUNT(r.id) AS response_count,
+                   COALESCE(SUM(r.token_count), 0) AS token_count
+            FROM rounds rd
+            LEFT JOIN responses r ON r.round_id = rd.id
+            WHERE rd.debate_id = d.id
+            GROUP BY rd.id
+        ) rs
+    ), '[]'),
+    d.created_at, d.started_at, d.completed_at, CURRENT_TIMESTAMP
+FROM debates d
+ON CONFLICT (debate_id) DO NOTHING;
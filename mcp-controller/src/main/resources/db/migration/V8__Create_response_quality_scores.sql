@@ -0,0 +1,33 @@
+-- Per-response quality feature vectors, computed once when a response is submitted,
+-- and running per-debate aggregates so current quality is readable without rescoring.
+
+CREATE TABLE response_quality_scores (
+    response_id UUID PRIMARY KEY REFERENCES responses(id) ON DELETE CASCADE,
+    debate_id UUID NOT NULL REFERENCES debates(id) ON DELETE CASCADE,
+    participant_id UUID NOT NULL,
+    round_number INTEGER,
+    argument_score DOUBLE PRECISION NOT NULL,
+    coherence_score DOUBLE PRECISION NOT NULL,
+    factuality_score DOUBLE PRECISION NOT NULL,
+    sentiment DOUBLE PRECISION NOT NULL,
+    sentiment_confidence DOUBLE PRECISION NOT NULL,
+    toxicity DOUBLE PRECISION NOT NULL,
+    professionalism DOUBLE PRECISION NOT NULL,
+    emotions JSONB,
+    scored_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_response_quality_scores_debate ON response_quality_scores(debate_id);
+
+CREATE TABLE debate_quality_aggregates (
+    debate_id UUID PRIMARY KEY REFERENCES debates(id) ON DELETE CASCADE,
+    response_count INTEGER NOT NULL DEFAULT 0,
+    argument_sum DOUBLE PRECISION NOT NULL DEFAULT 0,
+    coherence_sum DOUBLE PRECISION NOT NULL DEFAULT 0,
+    factuality_sum DOUBLE PRECISION NOT NULL DEFAULT 0,
+    sentiment_sum DOUBLE PRECISION NOT NULL DEFAULT 0,
+    toxicity_sum DOUBLE PRECISION NOT NULL DEFAULT 0,
+    professionalism_sum DOUBLE PRECISION NOT NULL DEFAULT 0,
+    participants JSONB NOT NULL DEFAULT '[]',
+    updated_at TIMESTAMP
+);
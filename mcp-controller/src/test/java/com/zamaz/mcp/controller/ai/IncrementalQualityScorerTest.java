@@ -0,0 +1,170 @@
+package com.zamaz.mcp.controller.ai;
+
+import com.zamaz.mcp.controller.config.QualityScoringAsyncConfig;
+import com.zamaz.mcp.controller.entity.DebateQualityAggregate;
+import com.zamaz.mcp.controller.entity.ResponseQualityScore;
+import com.zamaz.mcp.controller.event.DebateEvents.NewResponseEvent;
+import com.zamaz.mcp.controller.repository.DebateQualityAggregateRepository;
+import com.zamaz.mcp.controller.repository.ResponseQualityScoreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for IncrementalQualityScorer.
+ */
+@ExtendWith(MockitoExtension.class)
+class IncrementalQualityScorerTest {
+
+    private static final String CONTENT =
+        "We must act because the data shows costs rising by 40% since 2019. Therefore we should invest now.";
+
+    @Mock
+    private ResponseQualityScoreRepository scoreRepository;
+
+    @Mock
+    private DebateQualityAggregateRepository aggregateRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private IncrementalQualityScorer scorer;
+
+    private final UUID debateId = UUID.randomUUID();
+    private final UUID participantId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        LexicalScanner scanner = new LexicalScanner();
+        scorer = new IncrementalQualityScorer(scanner, new ArgumentAnalyzer(scanner), new CoherenceAnalyzer(scanner),
+            new SentimentAnalyzer(scanner), new FactualityChecker(), scoreRepository, aggregateRepository,
+            transactionTemplate);
+        ReflectionTestUtils.setField(scorer, "qualityScoringEnabled", true);
+    }
+
+    @Test
+    @DisplayName("Should fold a new response into the debate and participant totals")
+    void shouldFoldNewResponseIntoAggregate() {
+        // Given
+        UUID responseId = UUID.randomUUID();
+        DebateQualityAggregate aggregate = DebateQualityAggregate.builder().debateId(debateId).build();
+        runTransactionsInline();
+        when(aggregateRepository.findForUpdate(debateId)).thenReturn(Optional.of(aggregate));
+        when(scoreRepository.findById(responseId)).thenReturn(Optional.empty());
+        when(scoreRepository.save(any(ResponseQualityScore.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        ResponseQualityScore score = scorer.record(debateId, responseId, participantId, 1, CONTENT);
+
+        // Then
+        assertThat(score.getResponseId()).isEqualTo(responseId);
+        assertThat(aggregate.getTotals().getResponseCount()).isEqualTo(1);
+        assertThat(aggregate.getTotals().argumentAverage()).isEqualTo(score.getArgumentScore());
+        assertThat(aggregate.participant(participantId).getTotals().getResponseCount()).isEqualTo(1);
+        verify(aggregateRepository).insertIfAbsent(debateId);
+        verify(aggregateRepository).save(aggregate);
+    }
+
+    @Test
+    @DisplayName("Should count a response that is already scored only once")
+    void shouldNotCountScoredResponseTwice() {
+        // Given
+        UUID responseId = UUID.randomUUID();
+        DebateQualityAggregate aggregate = DebateQualityAggregate.builder().debateId(debateId).build();
+        ResponseQualityScore existing = scorer.score(debateId, responseId, participantId, 1, CONTENT);
+        runTransactionsInline();
+        when(aggregateRepository.findForUpdate(debateId)).thenReturn(Optional.of(aggregate));
+        when(scoreRepository.findById(responseId)).thenReturn(Optional.of(existing));
+
+        // When
+        ResponseQualityScore score = scorer.record(debateId, responseId, participantId, 1, CONTENT);
+
+        // Then
+        assertThat(score).isSameAs(existing);
+        assertThat(aggregate.getTotals().getResponseCount()).isZero();
+        verify(scoreRepository, never()).save(any());
+        verify(aggregateRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should give the same content the same scores")
+    void shouldScoreDeterministically() {
+        ResponseQualityScore first = scorer.score(debateId, UUID.randomUUID(), participantId, 1, CONTENT);
+        ResponseQualityScore second = scorer.score(debateId, UUID.randomUUID(), participantId, 2, CONTENT);
+
+        assertThat(second.getArgumentScore()).isEqualTo(first.getArgumentScore());
+        assertThat(second.getCoherenceScore()).isEqualTo(first.getCoherenceScore());
+        assertThat(second.getFactualityScore()).isEqualTo(first.getFactualityScore());
+    }
+
+    @Test
+    @DisplayName("Should skip scoring when it is disabled")
+    void shouldSkipScoringWhenDisabled() {
+        // Given
+        ReflectionTestUtils.setField(scorer, "qualityScoringEnabled", false);
+
+        // When
+        scorer.on(newResponseEvent(UUID.randomUUID().toString()));
+
+        // Then
+        verifyNoInteractions(transactionTemplate, scoreRepository, aggregateRepository);
+    }
+
+    @Test
+    @DisplayName("Should log and swallow scoring failures of an event")
+    void shouldSwallowScoringFailures() {
+        assertThatCode(() -> scorer.on(newResponseEvent("not-a-uuid"))).doesNotThrowAnyException();
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    @Test
+    @DisplayName("Should score events on its own executor")
+    void shouldScoreOnDedicatedExecutor() throws NoSuchMethodException {
+        // Given
+        Async async = IncrementalQualityScorer.class.getMethod("on", NewResponseEvent.class).getAnnotation(Async.class);
+
+        // When
+        TaskExecutor executor = new QualityScoringAsyncConfig().qualityScoringExecutor(2, 10);
+
+        // Then
+        assertThat(async.value()).isEqualTo(QualityScoringAsyncConfig.QUALITY_SCORING_EXECUTOR);
+        assertThat(executor).isInstanceOfSatisfying(ThreadPoolTaskExecutor.class, pool -> {
+            assertThat(pool.getCorePoolSize()).isEqualTo(2);
+            assertThat(pool.getMaxPoolSize()).isEqualTo(2);
+            assertThat(pool.getThreadNamePrefix()).isEqualTo("QualityScoring-");
+            pool.shutdown();
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any()))
+            .thenAnswer(invocation -> ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    private NewResponseEvent newResponseEvent(String debateId) {
+        NewResponseEvent event = new NewResponseEvent();
+        event.setDebateId(debateId);
+        event.setResponseId(UUID.randomUUID().toString());
+        event.setParticipantId(participantId.toString());
+        event.setRoundNumber(1);
+        event.setContent(CONTENT);
+        return event;
+    }
+}
@@ -0,0 +1,106 @@
+package com.zamaz.mcp.controller.ai;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for the lexical analyzers on debate-length responses.
+ *
+ * Compares scanning a response once and sharing the features across all three analyzers
+ * with letting every analyzer scan on its own. Run with:
+ * {@code mvn -pl mcp-controller test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.zamaz.mcp.controller.ai.LexicalAnalysisBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LexicalAnalysisBenchmark {
+
+    private static final String[] PARAGRAPHS = {
+        "I argue that universal basic income is the most effective response to automation. "
+            + "According to recent studies, 47% of current jobs face a high risk of automation "
+            + "within two decades (2013). Therefore, we cannot rely on retraining alone.",
+        "First, consider the fiscal argument. Critics claim the program is unaffordable; however, "
+            + "this overlooks the $300 billion already spent on overlapping welfare schemes. "
+            + "For example, Finland's pilot found improved wellbeing and no drop in employment [4].",
+        "Furthermore, the evidence shows that cash transfers are spent responsibly. Data suggests "
+            + "that recipients invest in education and small businesses, which leads to long-term "
+            + "growth. This is important because it addresses the root cause rather than symptoms.",
+        "On the other hand, some might argue that free money discourages work. Although that "
+            + "concern is understandable, it was tested repeatedly and consistently rejected. "
+            + "Interestingly, hours worked fell only among new parents and full-time students.",
+        "In conclusion, universal basic income is not a utopian idea but a practical policy. "
+            + "It provides security, respects autonomy and prepares society for the economy ahead. "
+            + "I respectfully urge my opponents to weigh the evidence rather than the rhetoric."
+    };
+
+    @Param({"150", "600", "2400"})
+    private int words;
+
+    private String text;
+    private LexicalScanner scanner;
+    private ArgumentAnalyzer argumentAnalyzer;
+    private CoherenceAnalyzer coherenceAnalyzer;
+    private SentimentAnalyzer sentimentAnalyzer;
+
+    @Setup
+    public void setUp() {
+        StringBuilder builder = new StringBuilder();
+        int count = 0;
+        for (int i = 0; count < words; i++) {
+            String paragraph = PARAGRAPHS[i % PARAGRAPHS.length];
+            builder.append(paragraph).append("\n\n");
+            count += paragraph.split("\\s+").length;
+        }
+        text = builder.toString();
+
+        scanner = new LexicalScanner();
+        argumentAnalyzer = new ArgumentAnalyzer(scanner);
+        coherenceAnalyzer = new CoherenceAnalyzer(scanner);
+        sentimentAnalyzer = new SentimentAnalyzer(scanner);
+    }
+
+    @Benchmark
+    public LexicalFeatures scan() {
+        return scanner.scan(text);
+    }
+
+    @Benchmark
+    public void analyzeShared(Blackhole blackhole) {
+        LexicalFeatures features = scanner.scan(text);
+        blackhole.consume(argumentAnalyzer.analyzeArgument(features));
+        blackhole.consume(coherenceAnalyzer.analyzeCoherence(features));
+        blackhole.consume(sentimentAnalyzer.analyzeSentiment(features));
+    }
+
+    @Benchmark
+    public void analyzeSeparately(Blackhole blackhole) {
+        blackhole.consume(argumentAnalyzer.analyzeArgument(text));
+        blackhole.consume(coherenceAnalyzer.analyzeCoherence(text));
+        blackhole.consume(sentimentAnalyzer.analyzeSentiment(text));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(LexicalAnalysisBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
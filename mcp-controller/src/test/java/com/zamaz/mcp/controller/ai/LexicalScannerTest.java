@@ -0,0 +1,88 @@
+package com.zamaz.mcp.controller.ai;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the shared single-pass lexical scanner.
+ */
+class LexicalScannerTest {
+
+    private final LexicalScanner scanner = new LexicalScanner();
+
+    @Test
+    @DisplayName("Should count phrases of every feature they belong to")
+    void shouldCountOverlappingFeatures() {
+        LexicalFeatures features = scanner.scan("We must act because the cost is rising. Therefore we act.");
+
+        assertThat(features.count(LexicalFeature.PREMISE)).isEqualTo(1);
+        assertThat(features.count(LexicalFeature.TRANSITION_CAUSATION)).isEqualTo(2);
+        assertThat(features.count(LexicalFeature.LOGICAL_CONNECTOR)).isEqualTo(2);
+        assertThat(features.has(LexicalFeature.INFERENCE)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should only match whole words")
+    void shouldRespectWordBoundaries() {
+        LexicalFeatures features = scanner.scan("Really, the tallest ballot was installed.");
+
+        assertThat(features.has(LexicalFeature.OVERGENERALIZATION)).isFalse();
+        assertThat(features.has(LexicalFeature.ANALOGY)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should match multi-word phrases case-insensitively across whitespace")
+    void shouldMatchPhrasesCaseInsensitively() {
+        LexicalFeatures features = scanner.scan("On the Other\nHand, some might argue otherwise.");
+
+        assertThat(features.count(LexicalFeature.COUNTERARGUMENT)).isEqualTo(2);
+        assertThat(features.count(LexicalFeature.TRANSITION_CONTRAST)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should track sentence geometry and per-sentence features")
+    void shouldTrackSentences() {
+        LexicalFeatures features = scanner.scan("First, consider the data.  It is clear!! In conclusion, we agree");
+
+        assertThat(features.sentenceCount()).isEqualTo(3);
+        assertThat(features.sentenceWordCount(0)).isEqualTo(4);
+        assertThat(features.sentenceHas(0, LexicalFeature.INTRODUCTION)).isTrue();
+        assertThat(features.sentenceHas(2, LexicalFeature.TRANSITION_CONCLUSION)).isTrue();
+        assertThat(features.sentenceHas(1, LexicalFeature.TRANSITION_CONCLUSION)).isFalse();
+        assertThat(features.getEmphaticPunctuationCount()).isEqualTo(1);
+        assertThat(features.isProperlyCapitalized()).isTrue();
+        assertThat(features.isTerminated()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should detect numeric data, citations and passive voice")
+    void shouldDetectCharacterLevelSignals() {
+        LexicalFeatures features = scanner.scan(
+            "Smith et al. found 42% growth and 3 million users (2019). The law was passed [12].");
+
+        assertThat(features.getNumericCount()).isEqualTo(2);
+        assertThat(features.getCitationCount()).isEqualTo(3);
+        assertThat(features.getPassiveCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should order first and last occurrences")
+    void shouldOrderOccurrences() {
+        assertThat(scanner.scan("Either we fund it or we lose it.")
+            .precedes(LexicalFeature.DICHOTOMY_LEAD, LexicalFeature.DICHOTOMY_ALTERNATIVE)).isTrue();
+        assertThat(scanner.scan("Cats or dogs, either is fine.")
+            .precedes(LexicalFeature.DICHOTOMY_LEAD, LexicalFeature.DICHOTOMY_ALTERNATIVE)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should return empty features for empty text")
+    void shouldHandleEmptyText() {
+        LexicalFeatures features = scanner.scan("");
+
+        assertThat(features.sentenceCount()).isZero();
+        assertThat(features.getWordCount()).isZero();
+        assertThat(features.averageSentenceWords()).isZero();
+    }
+}
@@ -0,0 +1,85 @@
+package com.zamaz.mcp.controller.integration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for LlmStreamingClient.
+ */
+class LlmStreamingClientTest {
+
+    private final AtomicReference<ClientRequest> lastRequest = new AtomicReference<>();
+
+    @Test
+    @DisplayName("Should emit content deltas in arrival order")
+    void shouldEmitContentDeltas() {
+        LlmStreamingClient client = client(
+            "data:{\"content\":\"Nuclear\"}\n\n"
+                + "data:{\"content\":\"\"}\n\n"
+                + "data:{\"content\":\" power\"}\n\n"
+                + "data:{\"done\":true}\n\n");
+
+        List<String> deltas = client.streamCompletion(Map.of("model", "gpt-4"), "org-1")
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+        assertThat(deltas).containsExactly("Nuclear", " power");
+    }
+
+    @Test
+    @DisplayName("Should call the streaming endpoint on behalf of the organization")
+    void shouldCallStreamingEndpoint() {
+        LlmStreamingClient client = client("data:{\"content\":\"ok\"}\n\n");
+        Map<String, Object> request = Map.of("model", "gpt-4");
+
+        client.streamCompletion(request, "org-1").blockLast(Duration.ofSeconds(5));
+
+        ClientRequest sent = lastRequest.get();
+        assertThat(sent.url().getPath()).isEqualTo("/api/v1/llm/completions/stream");
+        assertThat(sent.headers().getFirst("X-Organization-Id")).isEqualTo("org-1");
+        assertThat(sent.headers().getAccept()).contains(MediaType.TEXT_EVENT_STREAM);
+        assertThat(request).doesNotContainKey("stream");
+    }
+
+    @Test
+    @DisplayName("Should signal an error chunk as an error after the deltas before it")
+    void shouldSignalErrorChunk() {
+        LlmStreamingClient client = client(
+            "data:{\"content\":\"partial\"}\n\n"
+                + "data:{\"error\":\"rate limited\"}\n\n");
+        List<String> received = new ArrayList<>();
+
+        assertThatThrownBy(() -> client.streamCompletion(Map.of(), "org-1")
+                .doOnNext(received::add)
+                .blockLast(Duration.ofSeconds(5)))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("rate limited");
+        assertThat(received).containsExactly("partial");
+    }
+
+    private LlmStreamingClient client(String eventStream) {
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            lastRequest.set(request);
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_EVENT_STREAM_VALUE)
+                .body(eventStream)
+                .build());
+        });
+        return new LlmStreamingClient(builder, "http://llm.test");
+    }
+}
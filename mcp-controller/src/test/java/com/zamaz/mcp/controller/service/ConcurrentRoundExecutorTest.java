@@ -0,0 +1,109 @@
+package com.zamaz.mcp.controller.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for ConcurrentRoundExecutor.
+ */
+class ConcurrentRoundExecutorTest {
+
+    private static final Duration TURN_DURATION = Duration.ofMillis(200);
+
+    private final UUID debateId = UUID.randomUUID();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+
+    private ConcurrentRoundExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ConcurrentRoundExecutor();
+        ReflectionTestUtils.setField(executor, "defaultMaxConcurrentTurns", 4);
+        ReflectionTestUtils.setField(executor, "turnTimeoutSeconds", 1L);
+    }
+
+    @Test
+    @DisplayName("Should run the turns of a round in parallel")
+    void shouldRunTurnsInParallel() {
+        long startedAt = System.nanoTime();
+
+        executor.execute(debateId, turns(4), null, this::slowTurn).block(Duration.ofSeconds(5));
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+        assertThat(completed.get()).isEqualTo(4);
+        assertThat(maxInFlight.get()).isEqualTo(4);
+        assertThat(elapsed).isLessThan(TURN_DURATION.multipliedBy(3));
+    }
+
+    @Test
+    @DisplayName("Should bound parallel turns by the debate's limit")
+    void shouldBoundParallelTurnsByDebateLimit() {
+        executor.execute(debateId, turns(6), 2, this::slowTurn).block(Duration.ofSeconds(5));
+
+        assertThat(completed.get()).isEqualTo(6);
+        assertThat(maxInFlight.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should fall back to the configured limit and never run below one turn at a time")
+    void shouldUseConfiguredLimitByDefault() {
+        executor.execute(debateId, turns(8), null, this::slowTurn).block(Duration.ofSeconds(5));
+        assertThat(maxInFlight.get()).isEqualTo(4);
+
+        maxInFlight.set(0);
+        executor.execute(debateId, turns(2), 0, this::slowTurn).block(Duration.ofSeconds(5));
+        assertThat(maxInFlight.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should finish the other turns when one fails or times out")
+    void shouldIsolateFailedAndTimedOutTurns() {
+        Function<Integer, Mono<?>> generation = turn -> switch (turn) {
+            case 0 -> Mono.error(new IllegalStateException("LLM unavailable"));
+            case 1 -> Mono.never();
+            default -> slowTurn(turn);
+        };
+
+        assertThatCode(() -> executor.execute(debateId, turns(5), null, generation).block(Duration.ofSeconds(5)))
+            .doesNotThrowAnyException();
+        assertThat(completed.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should not start any turn before it is subscribed")
+    void shouldStartTurnsLazily() {
+        Mono<Void> round = executor.execute(debateId, turns(3), null, this::slowTurn);
+
+        assertThat(inFlight.get()).isZero();
+        round.block(Duration.ofSeconds(5));
+        assertThat(completed.get()).isEqualTo(3);
+    }
+
+    private List<Integer> turns(int count) {
+        return IntStream.range(0, count).boxed().collect(Collectors.toList());
+    }
+
+    private Mono<Integer> slowTurn(Integer turn) {
+        return Mono.defer(() -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                return Mono.delay(TURN_DURATION).thenReturn(turn);
+            })
+            .doOnNext(ignored -> completed.incrementAndGet())
+            .doFinally(signal -> inFlight.decrementAndGet());
+    }
+}
@@ -0,0 +1,82 @@
+package com.zamaz.mcp.controller.service;
+
+import com.zamaz.mcp.controller.entity.Debate;
+import com.zamaz.mcp.controller.entity.DebateStatus;
+import com.zamaz.mcp.controller.entity.DebateSummary;
+import com.zamaz.mcp.controller.event.DebateEvents.DebateUpdatedEvent;
+import com.zamaz.mcp.controller.repository.DebateRepository;
+import com.zamaz.mcp.controller.repository.DebateSummaryRepository;
+import com.zamaz.mcp.controller.repository.ParticipantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the listing versions of DebateSummaryProjector.
+ */
+class DebateSummaryProjectorTest {
+
+    private static final String VERSION_KEY_PREFIX = "mcp:debate:listing-version:";
+
+    private final UUID debateId = UUID.randomUUID();
+    private final UUID organizationId = UUID.randomUUID();
+
+    private final DebateSummaryRepository summaryRepository = mock(DebateSummaryRepository.class);
+    private final DebateRepository debateRepository = mock(DebateRepository.class);
+    private final ParticipantRepository participantRepository = mock(ParticipantRepository.class);
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> values = mock(ValueOperations.class);
+
+    private DebateSummaryProjector projector;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        projector = new DebateSummaryProjector(summaryRepository, debateRepository, participantRepository,
+                mock(CacheManager.class), redisTemplate);
+    }
+
+    @Test
+    void readsTheListingVersionSharedByAllInstances() {
+        when(values.get(VERSION_KEY_PREFIX + organizationId)).thenReturn(null, "3");
+
+        assertThat(projector.listingVersion(organizationId)).isZero();
+        assertThat(projector.listingVersion(organizationId)).isEqualTo(3);
+    }
+
+    @Test
+    void bumpsTheSharedListingVersionWhenADebateChanges() {
+        when(summaryRepository.findForUpdate(debateId)).thenReturn(Optional.of(new DebateSummary()));
+        when(debateRepository.findById(debateId)).thenReturn(Optional.of(Debate.builder()
+                .id(debateId)
+                .organizationId(organizationId)
+                .status(DebateStatus.IN_PROGRESS)
+                .build()));
+        when(participantRepository.findByDebateId(debateId)).thenReturn(List.of());
+
+        projector.on(new DebateUpdatedEvent(debateId.toString(), System.currentTimeMillis()));
+
+        verify(values).increment(VERSION_KEY_PREFIX + organizationId);
+    }
+
+    @Test
+    void bypassesCachedListingsWhileRedisIsUnavailable() {
+        when(values.get(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+
+        long first = projector.listingVersion(organizationId);
+        long second = projector.listingVersion(organizationId);
+
+        assertThat(first).isNotEqualTo(second);
+    }
+}
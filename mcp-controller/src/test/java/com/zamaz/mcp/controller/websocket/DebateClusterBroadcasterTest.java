@@ -0,0 +1,92 @@
+package com.zamaz.mcp.controller.websocket;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the relay envelope of DebateClusterBroadcaster.
+ */
+class DebateClusterBroadcasterTest {
+
+    private static final String CHANNEL = "mcp.debate.ws.debate-1";
+
+    private final List<byte[]> published = new ArrayList<>();
+    private final List<DebateBroadcastFrame> delivered = new ArrayList<>();
+
+    private DebateClusterBroadcaster sender;
+    private MessageListener receiver;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        RedisConnection connection = mock(RedisConnection.class);
+        when(connection.publish(any(byte[].class), any(byte[].class))).thenAnswer(invocation -> {
+            published.add(invocation.getArgument(1));
+            return 1L;
+        });
+        when(redisTemplate.execute(any(RedisCallback.class)))
+            .thenAnswer(invocation -> invocation.<RedisCallback<Long>>getArgument(0).doInRedis(connection));
+        sender = broadcaster(redisTemplate, mock(RedisMessageListenerContainer.class));
+
+        RedisMessageListenerContainer container = mock(RedisMessageListenerContainer.class);
+        broadcaster(mock(StringRedisTemplate.class), container).subscribe("debate-1", delivered::add);
+        ArgumentCaptor<MessageListener> listener = ArgumentCaptor.forClass(MessageListener.class);
+        verify(container).addMessageListener(listener.capture(), any(Topic.class));
+        receiver = listener.getValue();
+    }
+
+    @Test
+    void relaysConflationKeysContainingSeparators() {
+        byte[] payload = "{\"type\":\"response\"}".getBytes(StandardCharsets.UTF_8);
+        sender.publish(new DebateBroadcastFrame("debate-1", 42, true, "response:a\tb\nc%", payload));
+
+        receive(published.get(0));
+
+        assertThat(delivered).hasSize(1);
+        DebateBroadcastFrame frame = delivered.get(0);
+        assertThat(frame.getSequence()).isEqualTo(42);
+        assertThat(frame.isCritical()).isTrue();
+        assertThat(frame.getConflationKey()).isEqualTo("response:a\tb\nc%");
+        assertThat(frame.getPayload()).isEqualTo(payload);
+    }
+
+    @Test
+    void dropsEnvelopesWithMalformedSequence() {
+        receive("other-node\tnot-a-number\t0\t\n{}".getBytes(StandardCharsets.UTF_8));
+        receive("other-node\t1\t0\t%zz\n{}".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(delivered).isEmpty();
+    }
+
+    private void receive(byte[] envelope) {
+        receiver.onMessage(new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), envelope), null);
+    }
+
+    private static DebateClusterBroadcaster broadcaster(StringRedisTemplate redisTemplate,
+                                                        RedisMessageListenerContainer container) {
+        DebateClusterBroadcaster broadcaster = new DebateClusterBroadcaster(redisTemplate, container);
+        ReflectionTestUtils.setField(broadcaster, "enabled", true);
+        ReflectionTestUtils.setField(broadcaster, "channelPrefix", "mcp.debate.ws.");
+        return broadcaster;
+    }
+}
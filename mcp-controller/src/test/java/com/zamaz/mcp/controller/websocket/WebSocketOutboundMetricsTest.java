@@ -0,0 +1,37 @@
+package com.zamaz.mcp.controller.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for WebSocketOutboundMetrics.
+ */
+class WebSocketOutboundMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final WebSocketOutboundMetrics metrics = new WebSocketOutboundMetrics(meterRegistry);
+
+    @Test
+    void tracksQueueDepthPerDebate() {
+        metrics.frameEnqueued("debate-1");
+        metrics.frameEnqueued("debate-1");
+        metrics.frameDequeued("debate-1");
+
+        assertThat(meterRegistry.get("debate.websocket.outbound.queue.depth").tag("debate_id", "debate-1")
+            .gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotReRegisterMetersOfARemovedDebate() {
+        metrics.frameEnqueued("debate-1");
+        metrics.removeDebate("debate-1");
+
+        // The last session of the debate is cleaned up after the debate was removed
+        metrics.framesDiscarded("debate-1", 1);
+        metrics.frameDequeued("debate-1");
+
+        assertThat(meterRegistry.find("debate.websocket.outbound.queue.depth").gauges()).isEmpty();
+    }
+}
@@ -0,0 +1,233 @@
+package com.zamaz.mcp.gateway.filter;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A response as stored by the response cache.
+ *
+ * The body is kept as raw bytes, gzip-compressed when that pays off, so a hit from a client
+ * that accepts gzip is served without touching the body at all. The ETag is computed once
+ * when the entry is created. Entries are stored in a compact binary format prefixed with a
+ * version byte; anything else read from the cache is treated as a miss.
+ */
+@Slf4j
+final class CachedResponse {
+
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Headers that describe the connection or this particular exchange rather than the representation
+     */
+    private static final Set<String> UNCACHED_HEADERS = Set.of(
+        "connection", "keep-alive", "proxy-authenticate", "proxy-authorization", "te", "trailer",
+        "transfer-encoding", "upgrade", "content-length", "set-cookie", "etag", "x-cache", "x-cache-key");
+
+    private final int statusCode;
+    private final HttpHeaders headers;
+    private final String eTag;
+    private final boolean compressed;
+    private final byte[] body;
+
+    private CachedResponse(int statusCode, HttpHeaders headers, String eTag, boolean compressed, byte[] body) {
+        this.statusCode = statusCode;
+        this.headers = headers;
+        this.eTag = eTag;
+        this.compressed = compressed;
+        this.body = body;
+    }
+
+    /**
+     * Build an entry from a captured upstream response, compressing the body if it is large enough
+     * and not already content-encoded
+     */
+    static CachedResponse of(int statusCode, HttpHeaders upstreamHeaders, byte[] body, int length,
+                             int compressionThreshold, Collection<String> excludeHeaders) {
+        Set<String> excluded = excludeHeaders.stream()
+            .map(name -> name.toLowerCase(Locale.ROOT))
+            .collect(Collectors.toSet());
+
+        HttpHeaders headers = new HttpHeaders();
+        upstreamHeaders.forEach((name, values) -> {
+            String lowerName = name.toLowerCase(Locale.ROOT);
+            if (!UNCACHED_HEADERS.contains(lowerName) && !excluded.contains(lowerName)) {
+                headers.put(name, new ArrayList<>(values));
+            }
+        });
+
+        String eTag = upstreamHeaders.getETag();
+        if (eTag == null) {
+            // Weak, because the same entry is served both gzip-encoded and identity-encoded
+            eTag = "W/\"" + digest(body, length) + "\"";
+        }
+
+        if (length >= compressionThreshold && !upstreamHeaders.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            byte[] gzipped = gzip(body, length);
+            if (gzipped.length < length) {
+                return new CachedResponse(statusCode, headers, eTag, true, gzipped);
+            }
+        }
+
+        byte[] exact = body.length == length ? body : Arrays.copyOf(body, length);
+        return new CachedResponse(statusCode, headers, eTag, false, exact);
+    }
+
+    int getStatusCode() {
+        return statusCode;
+    }
+
+    HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    String getETag() {
+        return eTag;
+    }
+
+    boolean isCompressed() {
+        return compressed;
+    }
+
+    /**
+     * The stored body, gzip-encoded if {@link #isCompressed()}
+     */
+    byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * The body as the upstream sent it
+     */
+    byte[] getDecodedBody() {
+        if (!compressed) {
+            return body;
+        }
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Whether an If-None-Match header value matches this entry, using weak comparison
+     */
+    boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String opaque = opaqueTag(eTag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || opaqueTag(tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length + 256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeShort(statusCode);
+            out.writeUTF(eTag);
+            out.writeBoolean(compressed);
+            out.writeShort(headers.size());
+            for (var header : headers.entrySet()) {
+                out.writeUTF(header.getKey());
+                out.writeShort(header.getValue().size());
+                for (String value : header.getValue()) {
+                    out.writeUTF(value);
+                }
+            }
+            out.writeInt(body.length);
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Read a stored entry, or return null if it is not in the current format
+     */
+    static CachedResponse decode(byte[] encoded) {
+        if (encoded == null || encoded.length == 0 || encoded[0] != FORMAT_VERSION) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded))) {
+            in.readByte();
+            int statusCode = in.readUnsignedShort();
+            String eTag = in.readUTF();
+            boolean compressed = in.readBoolean();
+
+            HttpHeaders headers = new HttpHeaders();
+            int headerCount = in.readUnsignedShort();
+            for (int i = 0; i < headerCount; i++) {
+                String name = in.readUTF();
+                int valueCount = in.readUnsignedShort();
+                List<String> values = new ArrayList<>(valueCount);
+                for (int j = 0; j < valueCount; j++) {
+                    values.add(in.readUTF());
+                }
+                headers.put(name, values);
+            }
+
+            int length = in.readInt();
+            if (length < 0 || length > in.available()) {
+                return null;
+            }
+            byte[] body = new byte[length];
+            in.readFully(body);
+            return new CachedResponse(statusCode, headers, eTag, compressed, body);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Ignoring unreadable cache entry: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String opaqueTag(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static String digest(byte[] body, int length) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update(body, 0, length);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(sha256.digest()).substring(0, 27);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body, int length) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(64, length / 4));
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(body, 0, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -1,6 +1,7 @@
 package com.zamaz.mcp.gateway.filter;
 
 import com.zamaz.mcp.security.audit.SecurityAuditLogger;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,6 +15,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
@@ -21,6 +23,11 @@ import java.util.regex.Pattern;
 /**
  * DDoS protection filter implementing various defensive strategies.
  * Works in conjunction with RateLimitingFilter for comprehensive protection.
+ *
+ * Requests are first counted locally by a {@link HeavyHitterDetector} and checked against the
+ * {@link LocalBlocklist}. Only clients suspected of being heavy hitters on this node go through
+ * the Redis-backed cluster counters, so a flood does not turn the protection itself into the
+ * main load on Redis.
  */
 @Component
 @Order(2)
@@ -30,6 +37,7 @@ public class DDoSProtectionFilter extends OncePerRequestFilter {
 
     private final RedisTemplate<String, String> redisTemplate;
     private final SecurityAuditLogger auditLogger;
+    private final LocalBlocklist blocklist;
 
     @Value("${ddos.protection.enabled:true}")
     private boolean ddosProtectionEnabled;
@@ -43,9 +51,28 @@ public class DDoSProtectionFilter extends OncePerRequestFilter {
     @Value("${ddos.suspicious-pattern-threshold:5}")
     private int suspiciousPatternThreshold;
 
+    @Value("${ddos.local.sketch-width:32768}")
+    private int sketchWidth;
+
+    @Value("${ddos.local.sketch-depth:4}")
+    private int sketchDepth;
+
+    @Value("${ddos.local.window-ms:60000}")
+    private long windowMillis;
+
+    @Value("${ddos.local.window-slices:6}")
+    private int windowSlices;
+
+    @Value("${ddos.local.escalation-threshold:20}")
+    private int escalationThreshold;
+
+    @Value("${ddos.local.max-suspects:1000}")
+    private int maxSuspects;
+
+    private HeavyHitterDetector heavyHitters;
+
     private static final String CONNECTION_COUNT_PREFIX = "ddos:connections:";
     private static final String PATTERN_COUNT_PREFIX = "ddos:patterns:";
-    private static final String BLOCKED_PREFIX = "ddos:blocked:";
     
     // Suspicious patterns that might indicate attacks
     private static final Pattern[] SUSPICIOUS_PATTERNS = {
@@ -65,6 +92,12 @@ public class DDoSProtectionFilter extends OncePerRequestFilter {
         "havij", "acunetix", "nessus", "openvas", "w3af"
     };
 
+    @PostConstruct
+    void initHeavyHitterDetector() {
+        heavyHitters = new HeavyHitterDetector(sketchWidth, sketchDepth, windowSlices, windowMillis,
+            escalationThreshold, maxSuspects);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                   FilterChain filterChain) throws ServletException, IOException {
@@ -75,16 +108,17 @@ public class DDoSProtectionFilter extends OncePerRequestFilter {
         }
 
         String clientIp = getClientIp(request);
+        boolean suspected = heavyHitters.record(clientIp);
         
         // Check if IP is already blocked
-        if (isBlocked(clientIp)) {
+        if (isBlocked(clientIp, suspected)) {
             response.setStatus(HttpServletResponse.SC_FORBIDDEN);
             log.warn("Blocked request from IP: {}", clientIp);
             return;
         }
 
         // Check connection count per IP
-        if (!checkConnectionLimit(clientIp)) {
+        if (suspected && !checkConnectionLimit(clientIp)) {
             blockIp(clientIp, "Exceeded connection limit");
             response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
             auditLogger.logSuspiciousActivity("DDOS_CONNECTION_FLOOD", 
@@ -118,6 +152,12 @@ public class DDoSProtectionFilter extends OncePerRequestFilter {
             return;
         }
 
+        // Clients below the local threshold skip the Redis-backed cluster counters
+        if (!suspected) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
         // Check for rapid-fire requests (complementary to rate limiting)
         if (isRapidFire(clientIp)) {
             response.setStatus(HttpServletResponse.SC_TOO_MANY_REQUESTS);
@@ -136,6 +176,14 @@ public class DDoSProtectionFilter extends OncePerRequestFilter {
         }
     }
 
+    /**
+     * Clients currently suspected of being heavy hitters on this node, with their estimated
+     * request count in the window.
+     */
+    public List<Map.Entry<String, Integer>> getTopHitters(int limit) {
+        return heavyHitters.topHitters(limit);
+    }
+
     /**
      * Get client IP address.
      */
@@ -154,19 +202,21 @@ public class DDoSProtectionFilter extends OncePerRequestFilter {
     }
 
     /**
-     * Check if IP is blocked.
+     * Check if IP is blocked. The local blocklist answers for everyone; Redis is asked only for
+     * suspected clients, in case the block was evicted locally or its message not yet received.
      */
-    private boolean isBlocked(String ip) {
-        String key = BLOCKED_PREFIX + ip;
-        return Boolean.TRUE.equals(redisTemplate.hasKey(key));
+    private boolean isBlocked(String ip, boolean suspected) {
+        if (blocklist.isBlocked(ip)) {
+            return true;
+        }
+        return suspected && Boolean.TRUE.equals(redisTemplate.hasKey(LocalBlocklist.BLOCKED_PREFIX + ip));
     }
 
     /**
      * Block an IP address.
      */
     private void blockIp(String ip, String reason) {
-        String key = BLOCKED_PREFIX + ip;
-        redisTemplate.opsForValue().set(key, reason, 1, TimeUnit.HOURS);
+        blocklist.block(ip, reason, 1, TimeUnit.HOURS);
         log.warn("Blocked IP {} for: {}", ip, reason);
     }
 
@@ -0,0 +1,231 @@
+package com.zamaz.mcp.gateway.filter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-node detection of clients sending an unusually large share of requests.
+ *
+ * Every request is counted in a count-min sketch split into time slices, so the estimate
+ * covers a sliding window and memory stays fixed however many distinct clients are seen.
+ * The sketch never underestimates, so no heavy client goes unnoticed; clients whose estimate
+ * crosses the threshold are then kept in a space-saving top-K set, which bounds how many
+ * clients can be suspected at once even when a flood of distinct addresses saturates the sketch.
+ */
+final class HeavyHitterDetector {
+
+    private final int width;
+    private final int depth;
+    private final int slices;
+    private final long sliceMillis;
+    private final int threshold;
+    private final int capacity;
+    private final long seed = ThreadLocalRandom.current().nextLong();
+    private final LongSupplier clock;
+
+    private final AtomicIntegerArray[] counters;
+    private volatile long currentSlice;
+
+    // Space-saving top-K over suspected clients, guarded by this
+    private final Map<String, Hitter> hitters = new HashMap<>();
+    private final TreeSet<Hitter> byCount = new TreeSet<>(
+        Comparator.comparingInt((Hitter hitter) -> hitter.count).thenComparing(hitter -> hitter.key));
+
+    /**
+     * @param width     counters per sketch row, rounded up to a power of two
+     * @param depth     sketch rows, each with an independent hash
+     * @param slices    time slices the window is split into
+     * @param windowMillis length of the sliding window
+     * @param threshold requests within the window from which a client is suspected
+     * @param capacity  maximum number of clients suspected at the same time
+     */
+    HeavyHitterDetector(int width, int depth, int slices, long windowMillis, int threshold, int capacity) {
+        this(width, depth, slices, windowMillis, threshold, capacity, System::currentTimeMillis);
+    }
+
+    HeavyHitterDetector(int width, int depth, int slices, long windowMillis, int threshold, int capacity,
+                        LongSupplier clock) {
+        this.width = Integer.highestOneBit(Math.max(width - 1, 1)) << 1;
+        this.depth = depth;
+        this.slices = slices;
+        this.sliceMillis = Math.max(windowMillis / slices, 1);
+        this.threshold = threshold;
+        this.capacity = capacity;
+        this.clock = clock;
+        this.counters = new AtomicIntegerArray[slices];
+        for (int i = 0; i < slices; i++) {
+            counters[i] = new AtomicIntegerArray(this.width * depth);
+        }
+        this.currentSlice = clock.getAsLong() / sliceMillis;
+    }
+
+    /**
+     * Count a request from the client and tell whether it is a suspected heavy hitter
+     */
+    boolean record(String key) {
+        advance();
+        int estimate = add(key);
+        if (estimate < threshold) {
+            return false;
+        }
+        return offer(key, estimate);
+    }
+
+    /**
+     * Estimated number of requests from the client within the window, never lower than the true count
+     */
+    int estimate(String key) {
+        advance();
+        int min = Integer.MAX_VALUE;
+        long hash = hash(key);
+        for (int row = 0; row < depth; row++) {
+            int index = index(hash, row);
+            int sum = 0;
+            for (AtomicIntegerArray slice : counters) {
+                sum += slice.get(index);
+            }
+            min = Math.min(min, sum);
+        }
+        return min;
+    }
+
+    /**
+     * Suspected clients ordered by estimated request count, highest first
+     */
+    synchronized List<Map.Entry<String, Integer>> topHitters(int limit) {
+        List<Map.Entry<String, Integer>> top = new ArrayList<>(Math.min(limit, byCount.size()));
+        for (Hitter hitter : byCount.descendingSet()) {
+            if (top.size() == limit) {
+                break;
+            }
+            top.add(Map.entry(hitter.key, hitter.count));
+        }
+        return top;
+    }
+
+    /**
+     * Conservative update: only the rows holding the minimum are raised, which keeps the
+     * overestimate from hash collisions lower than incrementing every row.
+     */
+    private int add(String key) {
+        AtomicIntegerArray slice = counters[(int) (currentSlice % slices)];
+        long hash = hash(key);
+        int[] indexes = new int[depth];
+        int[] sums = new int[depth];
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            indexes[row] = index(hash, row);
+            for (AtomicIntegerArray other : counters) {
+                sums[row] += other.get(indexes[row]);
+            }
+            min = Math.min(min, sums[row]);
+        }
+        for (int row = 0; row < depth; row++) {
+            if (sums[row] == min) {
+                slice.incrementAndGet(indexes[row]);
+            }
+        }
+        return min + 1;
+    }
+
+    /**
+     * Keep the client in the top-K if it is already there or heavier than the lightest one
+     */
+    private synchronized boolean offer(String key, int estimate) {
+        long slice = currentSlice;
+        Hitter hitter = hitters.get(key);
+        if (hitter != null) {
+            byCount.remove(hitter);
+        } else if (hitters.size() < capacity) {
+            hitter = new Hitter(key);
+            hitters.put(key, hitter);
+        } else {
+            Hitter lightest = byCount.first();
+            if (lightest.count >= estimate) {
+                return false;
+            }
+            byCount.pollFirst();
+            hitters.remove(lightest.key);
+            hitter = new Hitter(key);
+            hitters.put(key, hitter);
+        }
+        hitter.count = estimate;
+        hitter.lastSlice = slice;
+        byCount.add(hitter);
+        return true;
+    }
+
+    /**
+     * Move to the current time slice, clearing the slices that fell out of the window
+     */
+    private void advance() {
+        long now = clock.getAsLong() / sliceMillis;
+        if (now <= currentSlice) {
+            return;
+        }
+        synchronized (this) {
+            long previous = currentSlice;
+            if (now <= previous) {
+                return;
+            }
+            for (long slice = Math.max(previous + 1, now - slices + 1); slice <= now; slice++) {
+                AtomicIntegerArray counter = counters[(int) (slice % slices)];
+                for (int i = 0; i < counter.length(); i++) {
+                    counter.set(i, 0);
+                }
+            }
+            currentSlice = now;
+
+            // Clients not seen for a whole window no longer count as heavy hitters
+            long oldest = now - slices + 1;
+            hitters.values().removeIf(hitter -> {
+                if (hitter.lastSlice < oldest) {
+                    byCount.remove(hitter);
+                    return true;
+                }
+                return false;
+            });
+        }
+    }
+
+    /**
+     * FNV-1a over the key followed by a murmur finalizer, seeded per instance so that
+     * colliding addresses cannot be chosen in advance
+     */
+    private long hash(String key) {
+        long hash = 0xcbf29ce484222325L ^ seed;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private int index(long hash, int row) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return row * width + ((h1 + row * h2) & (width - 1));
+    }
+
+    private static final class Hitter {
+        private final String key;
+        private int count;
+        private long lastSlice;
+
+        private Hitter(String key) {
+            this.key = key;
+        }
+    }
+}
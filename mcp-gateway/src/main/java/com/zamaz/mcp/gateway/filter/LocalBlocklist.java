@@ -0,0 +1,172 @@
+package com.zamaz.mcp.gateway.filter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local copy of the blocked IP addresses held in Redis, so checking a request needs no
+ * network round-trip.
+ *
+ * Blocks are written to Redis as before and announced to every gateway instance over
+ * pub/sub. The full list is reloaded every time the subscription is established, so blocks
+ * announced while disconnected are picked up once the container has recovered, and
+ * periodically where scheduling is enabled.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LocalBlocklist {
+
+    static final String BLOCKED_PREFIX = "ddos:blocked:";
+    static final String CHANNEL = "ddos:blocks";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisConnectionFactory connectionFactory;
+
+    @Value("${ddos.local.blocklist.max-entries:100000}")
+    private int maxEntries;
+
+    private final Map<String, Long> blocked = new ConcurrentHashMap<>();
+    private RedisMessageListenerContainer listenerContainer;
+
+    @PostConstruct
+    public void start() {
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(connectionFactory);
+        listenerContainer.addMessageListener(new BlockListener(), new ChannelTopic(CHANNEL));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+    }
+
+    /**
+     * Check if IP is blocked.
+     */
+    public boolean isBlocked(String ip) {
+        Long expiresAt = blocked.get(ip);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (expiresAt <= System.currentTimeMillis()) {
+            blocked.remove(ip, expiresAt);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Block an IP address on all gateway instances.
+     */
+    public void block(String ip, String reason, long duration, TimeUnit unit) {
+        long expiresAt = System.currentTimeMillis() + unit.toMillis(duration);
+        put(ip, expiresAt);
+        redisTemplate.opsForValue().set(BLOCKED_PREFIX + ip, reason, duration, unit);
+        try {
+            redisTemplate.convertAndSend(CHANNEL, ip + "\t" + expiresAt);
+        } catch (Exception e) {
+            log.error("Failed to publish block of {}; other instances pick it up on reload", ip, e);
+        }
+    }
+
+    /**
+     * Reload the full blocklist from Redis.
+     */
+    @Scheduled(fixedDelayString = "${ddos.local.blocklist.reload-interval:60000}")
+    public synchronized void reload() {
+        int count = 0;
+        try (Cursor<String> keys = redisTemplate.scan(
+                ScanOptions.scanOptions().match(BLOCKED_PREFIX + "*").count(1000).build())) {
+            while (keys.hasNext()) {
+                String key = keys.next();
+                Long ttl = redisTemplate.getExpire(key, TimeUnit.MILLISECONDS);
+                if (ttl != null && ttl > 0) {
+                    put(key.substring(BLOCKED_PREFIX.length()), System.currentTimeMillis() + ttl);
+                    count++;
+                }
+            }
+            log.debug("Reloaded {} blocked IPs", count);
+        } catch (Exception e) {
+            log.error("Failed to reload blocked IPs from Redis", e);
+        }
+    }
+
+    int size() {
+        return blocked.size();
+    }
+
+    void apply(String message) {
+        String[] parts = message.split("\t");
+        if (parts.length != 2) {
+            log.warn("Ignoring malformed block message");
+            return;
+        }
+        try {
+            put(parts[0], Long.parseLong(parts[1]));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring block message with invalid expiry");
+        }
+    }
+
+    /**
+     * Applies announced blocks, and reloads once the subscription is in place so no block falls
+     * between the snapshot and the stream, including after a reconnect.
+     */
+    final class BlockListener implements MessageListener, SubscriptionListener {
+
+        @Override
+        public void onMessage(Message message, byte[] pattern) {
+            apply(new String(message.getBody(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void onChannelSubscribed(byte[] channel, long count) {
+            reload();
+        }
+    }
+
+    private void put(String ip, long expiresAt) {
+        if (blocked.size() >= maxEntries) {
+            evict();
+        }
+        blocked.merge(ip, expiresAt, Math::max);
+    }
+
+    private void evict() {
+        long now = System.currentTimeMillis();
+        blocked.values().removeIf(expiresAt -> expiresAt <= now);
+
+        // Blocks dropped here are still enforced for escalated clients through Redis
+        int target = (int) (maxEntries * 0.9);
+        Iterator<String> ips = blocked.keySet().iterator();
+        while (blocked.size() > target && ips.hasNext()) {
+            ips.next();
+            ips.remove();
+        }
+    }
+}
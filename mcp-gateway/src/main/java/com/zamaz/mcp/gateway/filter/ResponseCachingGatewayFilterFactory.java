@@ -1,115 +1,284 @@
 package com.zamaz.mcp.gateway.filter;
 
 import lombok.Data;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
 
-import java.nio.charset.StandardCharsets;
+import java.nio.ByteBuffer;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Gateway filter for response caching
+ * Gateway filter for response caching.
+ *
+ * Response bodies are captured as raw bytes while they stream to the client and stored
+ * gzip-compressed with a precomputed ETag, so hits answer If-None-Match with 304 and serve
+ * gzip-accepting clients without decompressing. Bodies larger than the size cap and streamed
+ * responses bypass the cache. Concurrent misses for the same key on this instance wait for
+ * the first one instead of each calling the upstream.
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class ResponseCachingGatewayFilterFactory extends AbstractGatewayFilterFactory<ResponseCachingGatewayFilterFactory.Config> {
 
-    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private static final String X_CACHE = "X-Cache";
+    private static final String X_CACHE_KEY = "X-Cache-Key";
 
-    public ResponseCachingGatewayFilterFactory() {
+    private final ReactiveRedisTemplate<String, byte[]> redisTemplate;
+
+    // Misses currently being fetched from the upstream, by cache key
+    private final Map<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public ResponseCachingGatewayFilterFactory(ReactiveRedisConnectionFactory connectionFactory) {
         super(Config.class);
+        RedisSerializationContext<String, byte[]> serializationContext = RedisSerializationContext
+            .<String, byte[]>newSerializationContext(RedisSerializer.string())
+            .value(RedisSerializer.byteArray())
+            .build();
+        this.redisTemplate = new ReactiveRedisTemplate<>(connectionFactory, serializationContext);
     }
 
     @Override
     public GatewayFilter apply(Config config) {
         return (exchange, chain) -> {
-            ServerWebExchange.Builder exchangeBuilder = exchange.mutate();
-            
             // Only cache GET requests
             if (exchange.getRequest().getMethod() != HttpMethod.GET) {
                 return chain.filter(exchange);
             }
-            
+
             String cacheKey = generateCacheKey(exchange, config);
-            
+
             // Check cache first
             return redisTemplate.opsForValue().get(cacheKey)
-                .flatMap(cachedResponse -> {
+                .flatMap(encoded -> Mono.justOrEmpty(CachedResponse.decode(encoded)))
+                .onErrorResume(e -> {
+                    log.warn("Response cache lookup failed for key {}: {}", cacheKey, e.getMessage());
+                    return Mono.empty();
+                })
+                .flatMap(cached -> {
                     log.debug("Cache hit for key: {}", cacheKey);
-                    
-                    // Parse cached response
-                    CachedResponse cached = parseCachedResponse(cachedResponse);
-                    
-                    // Set response headers
-                    ServerHttpResponse response = exchange.getResponse();
-                    response.setStatusCode(HttpStatus.valueOf(cached.statusCode));
-                    response.getHeaders().addAll("X-Cache", List.of("HIT"));
-                    response.getHeaders().addAll("X-Cache-Key", List.of(cacheKey));
-                    cached.headers.forEach((key, values) -> response.getHeaders().addAll(key, values));
-                    
-                    // Write cached body
-                    DataBuffer buffer = response.bufferFactory().wrap(cached.body.getBytes(StandardCharsets.UTF_8));
-                    return response.writeWith(Mono.just(buffer));
+                    return writeCached(exchange, cached, cacheKey, "HIT").thenReturn(true);
                 })
-                .switchIfEmpty(
-                    chain.filter(exchange.mutate()
-                        .response(decorateResponse(exchange, config, cacheKey))
-                        .build())
-                );
+                .switchIfEmpty(Mono.defer(() -> fetchCoalesced(exchange, chain, config, cacheKey).thenReturn(true)))
+                .then();
         };
     }
 
-    private ServerHttpResponseDecorator decorateResponse(ServerWebExchange exchange, Config config, String cacheKey) {
-        ServerHttpResponse originalResponse = exchange.getResponse();
-        DataBufferFactory bufferFactory = originalResponse.bufferFactory();
-        
-        return new ServerHttpResponseDecorator(originalResponse) {
-            private final StringBuilder bodyBuilder = new StringBuilder();
-            
-            @Override
-            public Mono<Void> writeWith(org.reactivestreams.Publisher<? extends DataBuffer> body) {
-                if (body instanceof Flux) {
-                    Flux<? extends DataBuffer> fluxBody = (Flux<? extends DataBuffer>) body;
-                    
-                    return super.writeWith(fluxBody.map(dataBuffer -> {
-                        // Capture response body
-                        byte[] content = new byte[dataBuffer.readableByteCount()];
-                        dataBuffer.read(content);
-                        bodyBuilder.append(new String(content, StandardCharsets.UTF_8));
-                        
-                        // Return new buffer
-                        return bufferFactory.wrap(content);
-                    })).doOnComplete(() -> {
-                        // Cache the response if successful
-                        if (shouldCache(originalResponse)) {
-                            cacheResponse(cacheKey, originalResponse, bodyBuilder.toString(), config);
-                        }
-                    });
+    /**
+     * Fetch a missing entry, letting concurrent misses for the same key share the first upstream call
+     */
+    private Mono<Void> fetchCoalesced(ServerWebExchange exchange, GatewayFilterChain chain, Config config,
+                                      String cacheKey) {
+        Sinks.One<CachedResponse> flight = Sinks.one();
+        Sinks.One<CachedResponse> leader = inFlight.putIfAbsent(cacheKey, flight);
+
+        if (leader != null) {
+            // If the leader's response turns out not to be cacheable, go to the upstream ourselves
+            return leader.asMono()
+                .timeout(config.getCoalesceTimeout(), Mono.empty())
+                .flatMap(cached -> writeCached(exchange, cached, cacheKey, "COALESCED").thenReturn(true))
+                .switchIfEmpty(Mono.defer(() -> fetch(exchange, chain, config, cacheKey, null).thenReturn(true)))
+                .then();
+        }
+
+        return fetch(exchange, chain, config, cacheKey, flight)
+            .doFinally(signal -> {
+                inFlight.remove(cacheKey, flight);
+                flight.tryEmitEmpty();
+            });
+    }
+
+    private Mono<Void> fetch(ServerWebExchange exchange, GatewayFilterChain chain, Config config, String cacheKey,
+                             Sinks.One<CachedResponse> flight) {
+        exchange.getResponse().getHeaders().set(X_CACHE, "MISS");
+        return chain.filter(exchange.mutate()
+            .response(new CapturingResponse(exchange.getResponse(), config, cacheKey, flight))
+            .build());
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached, String cacheKey,
+                                   String cacheStatus) {
+        ServerHttpRequest request = exchange.getRequest();
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+
+        headers.putAll(cached.getHeaders());
+        headers.set(HttpHeaders.ETAG, cached.getETag());
+        headers.set(X_CACHE, cacheStatus);
+        headers.set(X_CACHE_KEY, cacheKey);
+        if (cached.isCompressed()) {
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+
+        if (cached.matches(request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_TYPE);
+            headers.remove(HttpHeaders.CONTENT_ENCODING);
+            return response.setComplete();
+        }
+
+        byte[] body;
+        if (cached.isCompressed() && acceptsGzip(request)) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            body = cached.getBody();
+        } else {
+            body = cached.getDecodedBody();
+        }
+
+        response.setStatusCode(HttpStatusCode.valueOf(cached.getStatusCode()));
+        headers.setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private boolean acceptsGzip(ServerHttpRequest request) {
+        for (String acceptEncoding : request.getHeaders().getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+            for (String coding : acceptEncoding.split(",")) {
+                String[] parts = coding.trim().split(";");
+                if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                    return parts.length == 1 || !parts[1].replace(" ", "").equals("q=0");
                 }
-                
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Passes the upstream body through untouched while copying its bytes, up to the size cap
+     */
+    private final class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final Config config;
+        private final String cacheKey;
+        private final Sinks.One<CachedResponse> flight;
+
+        CapturingResponse(ServerHttpResponse delegate, Config config, String cacheKey,
+                          Sinks.One<CachedResponse> flight) {
+            super(delegate);
+            this.config = config;
+            this.cacheKey = cacheKey;
+            this.flight = flight;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!shouldCache(getDelegate(), config)) {
                 return super.writeWith(body);
             }
-            
-            @Override
-            public Mono<Void> writeAndFlushWith(org.reactivestreams.Publisher<? extends org.reactivestreams.Publisher<? extends DataBuffer>> body) {
-                return writeWith(Flux.from(body).flatMapSequential(p -> p));
+
+            BodyCapture capture = new BodyCapture(config.getMaxBodySize());
+            return super.writeWith(Flux.from(body).doOnNext(capture::append))
+                .then(Mono.defer(() -> capture.isOverflowed() ? Mono.empty() : store(capture)));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            // Streamed responses are never cached
+            return super.writeAndFlushWith(body);
+        }
+
+        private Mono<Void> store(BodyCapture capture) {
+            int statusCode = getDelegate().getStatusCode().value();
+            HttpHeaders upstreamHeaders = new HttpHeaders();
+            upstreamHeaders.putAll(getDelegate().getHeaders());
+
+            // Compression and hashing are kept off the event loop
+            return Mono.fromCallable(() -> CachedResponse.of(statusCode, upstreamHeaders, capture.bytes(),
+                    capture.size(), config.getCompressionThreshold(), config.getExcludeHeaders()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnNext(cached -> {
+                    if (flight != null) {
+                        flight.tryEmitValue(cached);
+                    }
+                    redisTemplate.opsForValue()
+                        .set(cacheKey, cached.encode(), config.getCacheDuration())
+                        .subscribe(
+                            success -> log.debug("Cached response for key: {} with TTL: {}", cacheKey,
+                                config.getCacheDuration()),
+                            error -> log.error("Failed to cache response", error)
+                        );
+                })
+                .onErrorResume(e -> {
+                    log.warn("Failed to build cache entry for key {}: {}", cacheKey, e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+        }
+    }
+
+    /**
+     * Growable byte array that gives up once the body exceeds the cap
+     */
+    private static final class BodyCapture {
+
+        private final int maxSize;
+        private byte[] bytes = new byte[1024];
+        private int size;
+        private boolean overflowed;
+
+        BodyCapture(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        void append(DataBuffer buffer) {
+            if (overflowed) {
+                return;
+            }
+            int length = buffer.readableByteCount();
+            if (size + length > maxSize) {
+                overflowed = true;
+                bytes = null;
+                return;
             }
-        };
+            if (size + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.min(maxSize, Math.max(size + length, bytes.length * 2)));
+            }
+            // Reads through views of the buffer, leaving its read position for the real writer
+            try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                while (iterator.hasNext()) {
+                    ByteBuffer view = iterator.next();
+                    int remaining = view.remaining();
+                    view.get(bytes, size, remaining);
+                    size += remaining;
+                }
+            }
+        }
+
+        boolean isOverflowed() {
+            return overflowed;
+        }
+
+        byte[] bytes() {
+            return bytes;
+        }
+
+        int size() {
+            return size;
+        }
     }
 
     private String generateCacheKey(ServerWebExchange exchange, Config config) {
@@ -117,7 +286,7 @@ public class ResponseCachingGatewayFilterFactory extends AbstractGatewayFilterFa
         keyBuilder.append(config.getCacheName()).append(":");
         keyBuilder.append(exchange.getRequest().getMethod()).append(":");
         keyBuilder.append(exchange.getRequest().getURI().getPath());
-        
+
         // Include query parameters in cache key
         if (!exchange.getRequest().getQueryParams().isEmpty()) {
             keyBuilder.append("?");
@@ -125,80 +294,41 @@ public class ResponseCachingGatewayFilterFactory extends AbstractGatewayFilterFa
                 keyBuilder.append(key).append("=").append(String.join(",", values)).append("&");
             });
         }
-        
+
         // Include user ID for user-specific caching
         String userId = exchange.getRequest().getHeaders().getFirst("X-User-ID");
         if (userId != null && config.isUserSpecific()) {
             keyBuilder.append(":user:").append(userId);
         }
-        
+
         // Include organization ID for org-specific caching
         String orgId = exchange.getRequest().getHeaders().getFirst("X-Organization-ID");
         if (orgId != null && config.isOrgSpecific()) {
             keyBuilder.append(":org:").append(orgId);
         }
-        
+
         return keyBuilder.toString();
     }
 
-    private boolean shouldCache(ServerHttpResponse response) {
-        HttpStatus status = response.getStatusCode();
-        if (status == null) {
+    private boolean shouldCache(ServerHttpResponse response, Config config) {
+        HttpStatusCode status = response.getStatusCode();
+        if (status == null || status.value() != HttpStatus.OK.value()) {
+            // Only cache complete successful responses
             return false;
         }
-        
-        // Only cache successful responses
-        return status.is2xxSuccessful();
-    }
-
-    private void cacheResponse(String cacheKey, ServerHttpResponse response, String body, Config config) {
-        CachedResponse cachedResponse = new CachedResponse();
-        cachedResponse.statusCode = response.getStatusCode().value();
-        cachedResponse.headers = response.getHeaders();
-        cachedResponse.body = body;
-        
-        String serialized = serializeCachedResponse(cachedResponse);
-        
-        redisTemplate.opsForValue()
-            .set(cacheKey, serialized, config.getCacheDuration())
-            .subscribe(
-                success -> {
-                    log.debug("Cached response for key: {} with TTL: {}", cacheKey, config.getCacheDuration());
-                    response.getHeaders().add("X-Cache", "MISS");
-                    response.getHeaders().add("X-Cache-Key", cacheKey);
-                },
-                error -> log.error("Failed to cache response", error)
-            );
-    }
-
-    private String serializeCachedResponse(CachedResponse response) {
-        // Simple serialization format
-        StringBuilder sb = new StringBuilder();
-        sb.append(response.statusCode).append("\n");
-        response.headers.forEach((key, values) -> {
-            sb.append(key).append(":").append(String.join(",", values)).append("\n");
-        });
-        sb.append("\n").append(response.body);
-        return sb.toString();
-    }
 
-    private CachedResponse parseCachedResponse(String serialized) {
-        CachedResponse response = new CachedResponse();
-        String[] parts = serialized.split("\n\n", 2);
-        String[] headerLines = parts[0].split("\n");
-        
-        response.statusCode = Integer.parseInt(headerLines[0]);
-        response.headers = new org.springframework.http.HttpHeaders();
-        
-        for (int i = 1; i < headerLines.length; i++) {
-            String[] headerParts = headerLines[i].split(":", 2);
-            if (headerParts.length == 2) {
-                response.headers.addAll(headerParts[0], List.of(headerParts[1].split(",")));
-            }
+        HttpHeaders headers = response.getHeaders();
+        if (headers.getContentLength() > config.getMaxBodySize()) {
+            return false;
+        }
+        if (MediaType.TEXT_EVENT_STREAM.isCompatibleWith(headers.getContentType())) {
+            return false;
         }
-        
-        response.body = parts.length > 1 ? parts[1] : "";
-        return response;
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl != null && (cacheControl.contains("no-store") || cacheControl.contains("private"))) {
+            return false;
+        }
+        return !headers.containsKey(HttpHeaders.SET_COOKIE);
     }
 
     @Data
@@ -208,11 +338,8 @@ public class ResponseCachingGatewayFilterFactory extends AbstractGatewayFilterFa
         private boolean userSpecific = false;
         private boolean orgSpecific = true;
         private List<String> excludeHeaders = List.of("Date", "X-Request-ID");
+        private int maxBodySize = 1024 * 1024;
+        private int compressionThreshold = 1024;
+        private Duration coalesceTimeout = Duration.ofSeconds(10);
     }
-
-    private static class CachedResponse {
-        int statusCode;
-        org.springframework.http.HttpHeaders headers;
-        String body;
-    }
-}
\ No newline at end of file
+}
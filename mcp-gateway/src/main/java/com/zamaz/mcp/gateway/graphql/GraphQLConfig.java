@@ -6,8 +6,12 @@ import com.zamaz.mcp.gateway.graphql.resolver.UserResolver;
 import com.zamaz.mcp.gateway.graphql.scalar.DateTimeScalar;
 import com.zamaz.mcp.gateway.graphql.scalar.JsonScalar;
 import com.zamaz.mcp.gateway.graphql.directive.AuthDirective;
+import com.zamaz.mcp.gateway.graphql.directive.CostDirective;
 import com.zamaz.mcp.gateway.graphql.directive.RateLimitDirective;
 import com.zamaz.mcp.gateway.graphql.directive.ValidateDirective;
+import com.zamaz.mcp.gateway.graphql.dataloader.DataLoaderContextBuilder;
+import com.zamaz.mcp.gateway.graphql.execution.CachingPreparsedDocumentProvider;
+import com.zamaz.mcp.gateway.graphql.instrumentation.QueryCostInstrumentation;
 import com.zamaz.mcp.gateway.graphql.instrumentation.TracingInstrumentation;
 import com.zamaz.mcp.gateway.graphql.instrumentation.MetricsInstrumentation;
 import com.zamaz.mcp.gateway.graphql.security.GraphQLSecurityService;
@@ -56,6 +60,9 @@ public class GraphQLConfig implements WebMvcConfigurer {
     private final GraphQLSecurityService securityService;
     private final TracingInstrumentation tracingInstrumentation;
     private final MetricsInstrumentation metricsInstrumentation;
+    private final DataLoaderContextBuilder dataLoaderContextBuilder;
+    private final QueryCostInstrumentation queryCostInstrumentation;
+    private final CachingPreparsedDocumentProvider preparsedDocumentProvider;
 
     /**
      * GraphQL Schema configuration
@@ -145,6 +152,7 @@ public class GraphQLConfig implements WebMvcConfigurer {
                 .dataFetcher("debates", userResolver::getUserDebates)
                 .dataFetcher("arguments", userResolver::getUserArguments)
                 .dataFetcher("votes", userResolver::getUserVotes)
+                .dataFetcher("profile", userResolver::getUserProfile)
             )
             .type("Debate", builder -> builder
                 .dataFetcher("organization", debateResolver::getDebateOrganization)
@@ -160,6 +168,7 @@ public class GraphQLConfig implements WebMvcConfigurer {
             .directive("auth", new AuthDirective(securityService))
             .directive("rateLimit", new RateLimitDirective())
             .directive("validate", new ValidateDirective())
+            .directive(CostDirective.NAME, new CostDirective())
             .build();
     }
 
@@ -173,6 +182,7 @@ public class GraphQLConfig implements WebMvcConfigurer {
             .mutationExecutionStrategy(new AsyncExecutionStrategy(exceptionHandler()))
             .subscriptionExecutionStrategy(new AsyncExecutionStrategy(exceptionHandler()))
             .instrumentation(instrumentation())
+            .preparsedDocumentProvider(preparsedDocumentProvider)
             .build();
     }
 
@@ -188,6 +198,7 @@ public class GraphQLConfig implements WebMvcConfigurer {
      */
     private Instrumentation instrumentation() {
         List<Instrumentation> instrumentations = Arrays.asList(
+            queryCostInstrumentation,
             tracingInstrumentation,
             metricsInstrumentation,
             new DataLoaderDispatcherInstrumentation()
@@ -217,6 +228,7 @@ public class GraphQLConfig implements WebMvcConfigurer {
                 }
             })
             .with(new GraphQLQueryInvoker())
+            .with(dataLoaderContextBuilder)
             .build();
 
         ServletRegistrationBean<GraphQLHttpServlet> registration = 
@@ -246,6 +258,7 @@ public class GraphQLConfig implements WebMvcConfigurer {
                     return getSchema();
                 }
             })
+            .with(dataLoaderContextBuilder)
             .build();
 
         ServletRegistrationBean<GraphQLWebsocketServlet> registration = 
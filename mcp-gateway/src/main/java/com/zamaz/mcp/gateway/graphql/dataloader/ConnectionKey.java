@@ -0,0 +1,24 @@
+package com.zamaz.mcp.gateway.graphql.dataloader;
+
+import graphql.schema.DataFetchingEnvironment;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Data loader key for a paginated relationship: the parent ID plus the field arguments.
+ * Keys with equal arguments are fetched together in one batch call.
+ */
+public record ConnectionKey(String parentId, Map<String, Object> arguments) {
+
+    public static ConnectionKey of(String parentId, DataFetchingEnvironment environment) {
+        // Arguments may contain nulls, so Map.copyOf is not an option
+        return new ConnectionKey(parentId, Collections.unmodifiableMap(new HashMap<>(environment.getArguments())));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T argument(String name) {
+        return (T) arguments.get(name);
+    }
+}
@@ -0,0 +1,49 @@
+package com.zamaz.mcp.gateway.graphql.dataloader;
+
+import graphql.kickstart.execution.context.GraphQLKickstartContext;
+import graphql.kickstart.servlet.context.GraphQLServletContextBuilder;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.websocket.Session;
+import jakarta.websocket.server.HandshakeRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gives every GraphQL request its own data loader registry and downstream call counter.
+ * The caller's Authorization header is forwarded on the data loaders' downstream calls.
+ */
+@Component
+@RequiredArgsConstructor
+public class DataLoaderContextBuilder implements GraphQLServletContextBuilder {
+
+    private final GraphQLDataLoaders dataLoaders;
+
+    @Override
+    public GraphQLKickstartContext build(HttpServletRequest request, HttpServletResponse response) {
+        return newContext(request.getHeader(HttpHeaders.AUTHORIZATION));
+    }
+
+    @Override
+    public GraphQLKickstartContext build(Session session, HandshakeRequest handshakeRequest) {
+        List<String> authorization = handshakeRequest.getHeaders().get(HttpHeaders.AUTHORIZATION);
+        return newContext(authorization != null && !authorization.isEmpty() ? authorization.get(0) : null);
+    }
+
+    @Override
+    public GraphQLKickstartContext build() {
+        return newContext(null);
+    }
+
+    private GraphQLKickstartContext newContext(String authorization) {
+        DownstreamCallCounter counter = new DownstreamCallCounter();
+        Map<Object, Object> context = new HashMap<>();
+        context.put(DownstreamCallCounter.class, counter);
+        return GraphQLKickstartContext.of(dataLoaders.newRegistry(counter, authorization), context);
+    }
+}
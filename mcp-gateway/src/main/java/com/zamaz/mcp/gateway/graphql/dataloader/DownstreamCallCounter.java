@@ -0,0 +1,30 @@
+package com.zamaz.mcp.gateway.graphql.dataloader;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Downstream HTTP requests made by the data loaders of one GraphQL request, and the keys the
+ * loaders asked for.
+ * Stored in the GraphQL context so the metrics instrumentation can report it per execution.
+ */
+public class DownstreamCallCounter {
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger keys = new AtomicInteger();
+
+    void recordCall() {
+        calls.incrementAndGet();
+    }
+
+    void recordKeys(int keyCount) {
+        keys.addAndGet(keyCount);
+    }
+
+    public int getCalls() {
+        return calls.get();
+    }
+
+    public int getKeys() {
+        return keys.get();
+    }
+}
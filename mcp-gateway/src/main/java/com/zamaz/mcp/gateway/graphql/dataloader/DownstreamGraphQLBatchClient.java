@@ -0,0 +1,471 @@
+package com.zamaz.mcp.gateway.graphql.dataloader;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.zamaz.mcp.gateway.graphql.instrumentation.MetricsInstrumentation;
+import com.zamaz.mcp.gateway.graphql.model.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * GraphQL batch client over the existing single-item REST endpoints of the backing services.
+ *
+ * The services expose no batch endpoints, so each batch is fanned out to one request per
+ * distinct parent, issued concurrently: a query level still costs one round trip instead of
+ * one per parent. Every HTTP request is counted on the request's {@link DownstreamCallCounter}
+ * and in the {@code graphql.downstream.calls} metric. Relationships that no backing service
+ * exposes (votes, organization members, statistics and everything hanging off a user) fail
+ * the fetch with an error instead of resolving to null. Connection cursors are item offsets.
+ */
+@Component
+@Slf4j
+public class DownstreamGraphQLBatchClient implements GraphQLBatchClient {
+
+    private static final int DEFAULT_PAGE_SIZE = 10;
+
+    // GraphQL debate statuses and their counterparts in the controller service
+    private static final Map<String, String> DEBATE_STATUSES = Map.of(
+        "DRAFT", "CREATED",
+        "ACTIVE", "IN_PROGRESS",
+        "COMPLETED", "COMPLETED",
+        "CANCELLED", "ARCHIVED");
+
+    // Controller service debate statuses and their GraphQL counterparts
+    private static final Map<String, String> CONTROLLER_DEBATE_STATUSES = Map.of(
+        "CREATED", "DRAFT",
+        "INITIALIZED", "DRAFT",
+        "IN_PROGRESS", "ACTIVE",
+        "COMPLETED", "COMPLETED",
+        "ARCHIVED", "CANCELLED",
+        "CANCELLED", "CANCELLED");
+
+    private final WebClient organizationService;
+    private final WebClient controllerService;
+    private final ObjectMapper objectMapper;
+    private final MetricsInstrumentation metricsInstrumentation;
+    private final int concurrency;
+    private final Duration timeout;
+    private final String authorization;
+    private final DownstreamCallCounter counter;
+
+    @Autowired
+    public DownstreamGraphQLBatchClient(
+            @Qualifier("webClientBuilder") WebClient.Builder webClientBuilder,
+            ObjectMapper objectMapper,
+            MetricsInstrumentation metricsInstrumentation,
+            @Value("${gateway.services.organization.url:http://localhost:5005}") String organizationUrl,
+            @Value("${gateway.services.controller.url:http://localhost:5013}") String controllerUrl,
+            @Value("${graphql.dataloader.downstream-concurrency:16}") int concurrency,
+            @Value("${graphql.dataloader.downstream-timeout:5s}") Duration timeout) {
+        this(webClientBuilder.clone().baseUrl(organizationUrl).build(),
+            webClientBuilder.clone().baseUrl(controllerUrl).build(),
+            objectMapper.copy().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false),
+            metricsInstrumentation, concurrency, timeout, null, null);
+    }
+
+    private DownstreamGraphQLBatchClient(WebClient organizationService, WebClient controllerService,
+                                         ObjectMapper objectMapper, MetricsInstrumentation metricsInstrumentation,
+                                         int concurrency, Duration timeout, String authorization,
+                                         DownstreamCallCounter counter) {
+        this.organizationService = organizationService;
+        this.controllerService = controllerService;
+        this.objectMapper = objectMapper;
+        this.metricsInstrumentation = metricsInstrumentation;
+        this.concurrency = concurrency;
+        this.timeout = timeout;
+        this.authorization = authorization;
+        this.counter = counter;
+    }
+
+    @Override
+    public GraphQLBatchClient forRequest(String authorization, DownstreamCallCounter counter) {
+        return new DownstreamGraphQLBatchClient(organizationService, controllerService, objectMapper,
+            metricsInstrumentation, concurrency, timeout, authorization, counter);
+    }
+
+    // Debate relationships
+
+    @Override
+    public CompletableFuture<Map<String, Organization>> getDebateOrganizations(Set<String> debateIds) {
+        return Flux.fromIterable(debateIds)
+            .flatMap(debateId -> getDebate(GraphQLDataLoaders.DEBATE_ORGANIZATION, debateId)
+                .map(debate -> Tuples.of(debateId, debate.path("organizationId").asText())), concurrency)
+            .filter(debateOrganization -> !debateOrganization.getT2().isEmpty())
+            .collectMap(Tuple2::getT1, Tuple2::getT2)
+            .flatMap(organizationIds -> fanOut(new HashSet<>(organizationIds.values()),
+                    organizationId -> get(GraphQLDataLoaders.DEBATE_ORGANIZATION, organizationService,
+                        uri -> uri.path("/api/v1/organizations/{id}").build(organizationId))
+                        .map(organization -> convert(organization, Organization.class)))
+                .map(organizations -> {
+                    Map<String, Organization> result = new LinkedHashMap<>();
+                    organizationIds.forEach((debateId, organizationId) -> {
+                        if (organizations.containsKey(organizationId)) {
+                            result.put(debateId, organizations.get(organizationId));
+                        }
+                    });
+                    return result;
+                }))
+            .toFuture();
+    }
+
+    /**
+     * Participants come embedded in the debate. They are agents rather than accounts, so the
+     * users built from them have no email.
+     */
+    @Override
+    public CompletableFuture<Map<String, UserConnection>> getDebateParticipants(
+            Set<String> debateIds, Integer first, String after) {
+        return paged(first, after, (offset, size) -> fanOut(debateIds,
+            debateId -> getDebate(GraphQLDataLoaders.DEBATE_PARTICIPANTS, debateId)
+                .map(debate -> slice(participants(debate), offset, size, UserConnection.class))));
+    }
+
+    /**
+     * Arguments are the responses of the debate's rounds, in round order. Responses in the first
+     * round are openings and all later ones responses; responses are never replies, so a parent
+     * filter matches nothing.
+     */
+    @Override
+    public CompletableFuture<Map<String, ArgumentConnection>> getDebateArguments(
+            Set<String> debateIds, Integer first, String after, ArgumentType type, String parentId) {
+        return paged(first, after, (offset, size) -> fanOut(debateIds,
+            debateId -> getRounds(GraphQLDataLoaders.DEBATE_ARGUMENTS, debateId).map(rounds -> {
+                List<JsonNode> arguments = new ArrayList<>();
+                if (parentId == null) {
+                    for (JsonNode argument : arguments(rounds)) {
+                        if (type == null || type.name().equals(argument.path("type").asText())) {
+                            arguments.add(argument);
+                        }
+                    }
+                }
+                return slice(arguments, offset, size, ArgumentConnection.class);
+            })));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, VoteConnection>> getDebateVotes(
+            Set<String> debateIds, Integer first, String after, VoteType type) {
+        return unavailable("Debate.votes");
+    }
+
+    /**
+     * Statistics derived from the debate and its rounds. The controller service records neither
+     * votes nor views, so both are zero.
+     */
+    @Override
+    public CompletableFuture<Map<String, DebateStats>> getDebateStats(Set<String> debateIds) {
+        return fanOut(debateIds, debateId -> Mono.zip(
+                getDebate(GraphQLDataLoaders.DEBATE_STATS, debateId),
+                getRounds(GraphQLDataLoaders.DEBATE_STATS, debateId))
+            .map(debateAndRounds -> toStats(debateAndRounds.getT1(), debateAndRounds.getT2())))
+            .toFuture();
+    }
+
+    // Organization relationships
+
+    @Override
+    public CompletableFuture<Map<String, UserConnection>> getOrganizationUsers(
+            Set<String> organizationIds, Integer first, String after, UserFilter filter) {
+        return unavailable("Organization.users");
+    }
+
+    @Override
+    public CompletableFuture<Map<String, DebateConnection>> getOrganizationDebates(
+            Set<String> organizationIds, Integer first, String after, DebateFilter filter) {
+        String status = filter != null && filter.getStatus() != null ? filter.getStatus().name() : null;
+
+        return paged(first, after, (offset, size) -> {
+            if (status != null && !DEBATE_STATUSES.containsKey(status)) {
+                // The controller service has no such status, so no debate can match
+                Map<String, DebateConnection> empty = new LinkedHashMap<>();
+                organizationIds.forEach(id -> empty.put(id, slice(List.of(), 0, size, DebateConnection.class)));
+                return Mono.just(empty);
+            }
+
+            return fanOut(organizationIds, organizationId -> get(GraphQLDataLoaders.ORGANIZATION_DEBATES,
+                    controllerService, uri -> {
+                        uri.path("/api/v1/debates")
+                            .queryParam("organizationId", organizationId)
+                            .queryParam("page", offset / size)
+                            .queryParam("size", size);
+                        if (status != null) {
+                            uri.queryParam("status", DEBATE_STATUSES.get(status));
+                        }
+                        return uri.build();
+                    })
+                .map(page -> {
+                    List<JsonNode> debates = new ArrayList<>();
+                    page.path("content").forEach(debate -> debates.add(toDebate(debate)));
+                    return toConnection(debates, offset / size * size, !page.path("last").asBoolean(true),
+                        page.path("totalElements").asInt(debates.size()), DebateConnection.class);
+                }));
+        });
+    }
+
+    @Override
+    public CompletableFuture<Map<String, OrganizationStatistics>> getOrganizationStatistics(Set<String> organizationIds) {
+        return unavailable("Organization.stats");
+    }
+
+    // User relationships
+
+    @Override
+    public CompletableFuture<Map<String, Organization>> getUserOrganizations(Set<String> userIds) {
+        return unavailable("User.organization");
+    }
+
+    @Override
+    public CompletableFuture<Map<String, DebateConnection>> getUserDebates(
+            Set<String> userIds, Integer first, String after, DebateFilter filter) {
+        return unavailable("User.debates");
+    }
+
+    @Override
+    public CompletableFuture<Map<String, ArgumentConnection>> getUserArguments(
+            Set<String> userIds, Integer first, String after, String debateId) {
+        return unavailable("User.arguments");
+    }
+
+    @Override
+    public CompletableFuture<Map<String, VoteConnection>> getUserVotes(
+            Set<String> userIds, Integer first, String after, String debateId) {
+        return unavailable("User.votes");
+    }
+
+    @Override
+    public CompletableFuture<Map<String, UserProfile>> getUserProfiles(Set<String> userIds) {
+        return unavailable("User.profile");
+    }
+
+    /**
+     * Fetch every parent concurrently; parents that do not exist are left out of the result
+     */
+    private <V> Mono<Map<String, V>> fanOut(Set<String> parentIds, Function<String, Mono<V>> fetch) {
+        return Flux.fromIterable(parentIds)
+            .flatMap(parentId -> fetch.apply(parentId).map(value -> Tuples.of(parentId, value)), concurrency)
+            .collectMap(Tuple2::getT1, Tuple2::getT2);
+    }
+
+    private Mono<JsonNode> getDebate(String loader, String debateId) {
+        return get(loader, controllerService, uri -> uri.path("/api/v1/debates/{id}").build(debateId));
+    }
+
+    private Mono<JsonNode> getRounds(String loader, String debateId) {
+        return get(loader, controllerService, uri -> uri.path("/api/v1/debates/{id}/rounds").build(debateId));
+    }
+
+    /**
+     * One HTTP request to a backing service. A missing item completes empty, so its parent is
+     * left out of the result; any other failure fails the batch.
+     */
+    private Mono<JsonNode> get(String loader, WebClient service, Function<UriBuilder, URI> uri) {
+        return service.get()
+            .uri(uri)
+            .headers(headers -> {
+                if (authorization != null) {
+                    headers.set(HttpHeaders.AUTHORIZATION, authorization);
+                }
+            })
+            .retrieve()
+            .bodyToMono(JsonNode.class)
+            .timeout(timeout)
+            .doOnSubscribe(subscription -> {
+                if (counter != null) {
+                    counter.recordCall();
+                }
+                metricsInstrumentation.recordDownstreamCall(loader);
+            })
+            .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty())
+            .onErrorMap(e -> !(e instanceof DownstreamCallException),
+                e -> new DownstreamCallException("Downstream call for GraphQL data loader " + loader + " failed", e));
+    }
+
+    /**
+     * Resolve the pagination arguments, then run the fetch with the item offset and page size
+     */
+    private <V> CompletableFuture<Map<String, V>> paged(
+            Integer first, String after, BiFunction<Integer, Integer, Mono<Map<String, V>>> fetch) {
+        int size = first != null && first > 0 ? first : DEFAULT_PAGE_SIZE;
+        int offset;
+        try {
+            offset = after != null ? Integer.parseInt(after) + 1 : 0;
+        } catch (NumberFormatException e) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Invalid cursor: " + after));
+        }
+        return fetch.apply(offset, size).toFuture();
+    }
+
+    private List<JsonNode> participants(JsonNode debate) {
+        List<JsonNode> users = new ArrayList<>();
+        for (JsonNode participant : debate.path("participants")) {
+            users.add(toUser(participant));
+        }
+        return users;
+    }
+
+    private ObjectNode toUser(JsonNode participant) {
+        ObjectNode user = objectMapper.createObjectNode()
+            .put("id", participant.path("id").asText())
+            .put("name", participant.path("name").asText())
+            .put("role", "USER")
+            .put("isActive", true);
+        user.set("createdAt", participant.get("createdAt"));
+        user.set("updatedAt", participant.get("createdAt"));
+        return user;
+    }
+
+    private List<JsonNode> arguments(JsonNode rounds) {
+        List<JsonNode> arguments = new ArrayList<>();
+        for (JsonNode round : rounds) {
+            String type = round.path("roundNumber").asInt() <= 1 ? "OPENING" : "RESPONSE";
+            for (JsonNode response : round.path("responses")) {
+                ObjectNode argument = objectMapper.createObjectNode()
+                    .put("id", response.path("id").asText())
+                    .put("content", response.path("content").asText())
+                    .put("type", type)
+                    .put("isDeleted", false);
+                argument.putArray("attachments");
+                argument.set("createdAt", response.get("createdAt"));
+                argument.set("updatedAt", response.get("createdAt"));
+                argument.put("participantId", response.path("participantId").asText());
+                arguments.add(argument);
+            }
+        }
+        return arguments;
+    }
+
+    private ObjectNode toDebate(JsonNode debate) {
+        ObjectNode node = objectMapper.createObjectNode()
+            .put("id", debate.path("id").asText())
+            .put("organizationId", debate.path("organizationId").asText(null))
+            .put("title", debate.path("title").asText())
+            .put("description", debate.path("description").asText(debate.path("topic").asText()))
+            .put("status", CONTROLLER_DEBATE_STATUSES.get(debate.path("status").asText()))
+            .put("isPublic", debate.path("settings").path("isPublic").asBoolean(true));
+        node.putArray("tags");
+        node.set("rules", debate.get("settings"));
+        node.set("startedAt", debate.get("startedAt"));
+        node.set("endedAt", debate.get("completedAt"));
+        node.set("createdAt", debate.get("createdAt"));
+        node.set("updatedAt", debate.get("updatedAt"));
+        return node;
+    }
+
+    private DebateStats toStats(JsonNode debate, JsonNode rounds) {
+        List<JsonNode> participants = participants(debate);
+        List<JsonNode> arguments = arguments(rounds);
+
+        Map<String, Integer> argumentsByParticipant = new HashMap<>();
+        int totalLength = 0;
+        for (JsonNode argument : arguments) {
+            argumentsByParticipant.merge(argument.path("participantId").asText(), 1, Integer::sum);
+            totalLength += argument.path("content").asText().length();
+        }
+        List<User> topContributors = participants.stream()
+            .filter(participant -> argumentsByParticipant.containsKey(participant.path("id").asText()))
+            .sorted(Comparator.comparing(
+                (JsonNode participant) -> argumentsByParticipant.get(participant.path("id").asText())).reversed())
+            .limit(3)
+            .map(participant -> convert(participant, User.class))
+            .toList();
+
+        int participantCount = debate.path("participantCount").asInt(participants.size());
+        Integer duration = null;
+        if (debate.hasNonNull("startedAt") && debate.hasNonNull("completedAt")) {
+            duration = (int) Duration.between(
+                LocalDateTime.parse(debate.path("startedAt").asText()),
+                LocalDateTime.parse(debate.path("completedAt").asText())).toSeconds();
+        }
+
+        return DebateStats.builder()
+            .participantCount(participantCount)
+            .argumentCount(arguments.size())
+            .voteCount(0)
+            .viewCount(0)
+            .averageArgumentLength(arguments.isEmpty() ? 0.0 : (double) totalLength / arguments.size())
+            .engagementScore(participantCount == 0 ? 0.0 : (double) arguments.size() / participantCount)
+            .duration(duration)
+            .topContributors(topContributors)
+            .build();
+    }
+
+    /**
+     * One page of an in-memory list of nodes
+     */
+    private <C> C slice(List<JsonNode> nodes, int offset, int size, Class<C> connectionType) {
+        List<JsonNode> page = offset < nodes.size()
+            ? nodes.subList(offset, Math.min(nodes.size(), offset + size)) : List.of();
+        return toConnection(page, offset, offset + page.size() < nodes.size(), nodes.size(), connectionType);
+    }
+
+    /**
+     * Build a connection whose cursors are item offsets
+     */
+    private <C> C toConnection(List<JsonNode> nodes, int firstOffset, boolean hasNextPage, int totalCount,
+                               Class<C> connectionType) {
+        List<Map<String, Object>> edges = new ArrayList<>();
+        int offset = firstOffset;
+        for (JsonNode node : nodes) {
+            edges.add(Map.of("node", node, "cursor", String.valueOf(offset++)));
+        }
+
+        Map<String, Object> pageInfo = new LinkedHashMap<>();
+        pageInfo.put("hasNextPage", hasNextPage);
+        pageInfo.put("hasPreviousPage", firstOffset > 0);
+        pageInfo.put("startCursor", edges.isEmpty() ? null : edges.get(0).get("cursor"));
+        pageInfo.put("endCursor", edges.isEmpty() ? null : edges.get(edges.size() - 1).get("cursor"));
+
+        Map<String, Object> connection = new LinkedHashMap<>();
+        connection.put("edges", edges);
+        connection.put("pageInfo", pageInfo);
+        connection.put("totalCount", totalCount);
+        return convert(connection, connectionType);
+    }
+
+    private <T> T convert(Object value, Class<T> type) {
+        return objectMapper.convertValue(value, type);
+    }
+
+    private <V> CompletableFuture<Map<String, V>> unavailable(String relationship) {
+        return CompletableFuture.failedFuture(new UnsupportedOperationException(
+            "No backing service exposes " + relationship));
+    }
+
+    /**
+     * A downstream request of a data loader failed
+     */
+    static class DownstreamCallException extends RuntimeException {
+
+        DownstreamCallException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
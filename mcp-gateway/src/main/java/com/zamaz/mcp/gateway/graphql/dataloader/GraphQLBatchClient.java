@@ -0,0 +1,65 @@
+package com.zamaz.mcp.gateway.graphql.dataloader;
+
+import com.zamaz.mcp.gateway.graphql.model.*;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Batch endpoints of the backing services used by the GraphQL data loaders.
+ *
+ * Each method resolves one relationship for many parents and returns the results keyed by
+ * parent ID. Parents without a result may be left out of the map. A relationship that the
+ * backing services cannot resolve completes exceptionally rather than with an empty map.
+ */
+public interface GraphQLBatchClient {
+
+    /**
+     * A client that makes its calls on behalf of one GraphQL request: it forwards the given
+     * Authorization header and records each downstream request on the counter
+     */
+    default GraphQLBatchClient forRequest(String authorization, DownstreamCallCounter counter) {
+        return this;
+    }
+
+    // Debate relationships
+
+    CompletableFuture<Map<String, Organization>> getDebateOrganizations(Set<String> debateIds);
+
+    CompletableFuture<Map<String, UserConnection>> getDebateParticipants(
+        Set<String> debateIds, Integer first, String after);
+
+    CompletableFuture<Map<String, ArgumentConnection>> getDebateArguments(
+        Set<String> debateIds, Integer first, String after, ArgumentType type, String parentId);
+
+    CompletableFuture<Map<String, VoteConnection>> getDebateVotes(
+        Set<String> debateIds, Integer first, String after, VoteType type);
+
+    CompletableFuture<Map<String, DebateStats>> getDebateStats(Set<String> debateIds);
+
+    // Organization relationships
+
+    CompletableFuture<Map<String, UserConnection>> getOrganizationUsers(
+        Set<String> organizationIds, Integer first, String after, UserFilter filter);
+
+    CompletableFuture<Map<String, DebateConnection>> getOrganizationDebates(
+        Set<String> organizationIds, Integer first, String after, DebateFilter filter);
+
+    CompletableFuture<Map<String, OrganizationStatistics>> getOrganizationStatistics(Set<String> organizationIds);
+
+    // User relationships
+
+    CompletableFuture<Map<String, Organization>> getUserOrganizations(Set<String> userIds);
+
+    CompletableFuture<Map<String, DebateConnection>> getUserDebates(
+        Set<String> userIds, Integer first, String after, DebateFilter filter);
+
+    CompletableFuture<Map<String, ArgumentConnection>> getUserArguments(
+        Set<String> userIds, Integer first, String after, String debateId);
+
+    CompletableFuture<Map<String, VoteConnection>> getUserVotes(
+        Set<String> userIds, Integer first, String after, String debateId);
+
+    CompletableFuture<Map<String, UserProfile>> getUserProfiles(Set<String> userIds);
+}
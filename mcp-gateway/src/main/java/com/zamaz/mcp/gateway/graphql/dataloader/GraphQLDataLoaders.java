@@ -0,0 +1,158 @@
+package com.zamaz.mcp.gateway.graphql.dataloader;
+
+import com.zamaz.mcp.gateway.graphql.instrumentation.MetricsInstrumentation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderFactory;
+import org.dataloader.DataLoaderOptions;
+import org.dataloader.DataLoaderRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Creates the request-scoped data loaders for nested GraphQL fields.
+ *
+ * A new registry is built for every request, so each loader caches results for that request
+ * only. Field fetchers queue keys on the loaders, and the dispatcher instrumentation flushes
+ * each loader once per level of the query, turning one call per parent into one batch call.
+ * Paginated relationships are batched per distinct set of field arguments. The downstream
+ * requests themselves are counted by the batch client.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GraphQLDataLoaders {
+
+    public static final String DEBATE_ORGANIZATION = "debateOrganization";
+    public static final String DEBATE_PARTICIPANTS = "debateParticipants";
+    public static final String DEBATE_ARGUMENTS = "debateArguments";
+    public static final String DEBATE_VOTES = "debateVotes";
+    public static final String DEBATE_STATS = "debateStats";
+    public static final String ORGANIZATION_USERS = "organizationUsers";
+    public static final String ORGANIZATION_DEBATES = "organizationDebates";
+    public static final String ORGANIZATION_STATS = "organizationStats";
+    public static final String USER_ORGANIZATION = "userOrganization";
+    public static final String USER_DEBATES = "userDebates";
+    public static final String USER_ARGUMENTS = "userArguments";
+    public static final String USER_VOTES = "userVotes";
+    public static final String USER_PROFILE = "userProfile";
+
+    private final GraphQLBatchClient batchClient;
+    private final MetricsInstrumentation metricsInstrumentation;
+
+    @Value("${graphql.dataloader.max-batch-size:100}")
+    private int maxBatchSize = 100;
+
+    /**
+     * Build the loaders for one request
+     *
+     * @param authorization Authorization header of the request, forwarded to the backing services
+     */
+    public DataLoaderRegistry newRegistry(DownstreamCallCounter counter, String authorization) {
+        GraphQLBatchClient batchClient = this.batchClient.forRequest(authorization, counter);
+        DataLoaderRegistry registry = new DataLoaderRegistry();
+
+        registry.register(DEBATE_ORGANIZATION, byId(DEBATE_ORGANIZATION, counter, batchClient::getDebateOrganizations));
+        registry.register(DEBATE_PARTICIPANTS, byConnection(DEBATE_PARTICIPANTS, counter,
+            (ids, key) -> batchClient.getDebateParticipants(ids, key.argument("first"), key.argument("after"))));
+        registry.register(DEBATE_ARGUMENTS, byConnection(DEBATE_ARGUMENTS, counter,
+            (ids, key) -> batchClient.getDebateArguments(ids, key.argument("first"), key.argument("after"),
+                key.argument("type"), key.argument("parentId"))));
+        registry.register(DEBATE_VOTES, byConnection(DEBATE_VOTES, counter,
+            (ids, key) -> batchClient.getDebateVotes(ids, key.argument("first"), key.argument("after"),
+                key.argument("type"))));
+        registry.register(DEBATE_STATS, byId(DEBATE_STATS, counter, batchClient::getDebateStats));
+
+        registry.register(ORGANIZATION_USERS, byConnection(ORGANIZATION_USERS, counter,
+            (ids, key) -> batchClient.getOrganizationUsers(ids, key.argument("first"), key.argument("after"),
+                key.argument("filter"))));
+        registry.register(ORGANIZATION_DEBATES, byConnection(ORGANIZATION_DEBATES, counter,
+            (ids, key) -> batchClient.getOrganizationDebates(ids, key.argument("first"), key.argument("after"),
+                key.argument("filter"))));
+        registry.register(ORGANIZATION_STATS, byId(ORGANIZATION_STATS, counter,
+            batchClient::getOrganizationStatistics));
+
+        registry.register(USER_ORGANIZATION, byId(USER_ORGANIZATION, counter, batchClient::getUserOrganizations));
+        registry.register(USER_DEBATES, byConnection(USER_DEBATES, counter,
+            (ids, key) -> batchClient.getUserDebates(ids, key.argument("first"), key.argument("after"),
+                key.argument("filter"))));
+        registry.register(USER_ARGUMENTS, byConnection(USER_ARGUMENTS, counter,
+            (ids, key) -> batchClient.getUserArguments(ids, key.argument("first"), key.argument("after"),
+                key.argument("debateId"))));
+        registry.register(USER_VOTES, byConnection(USER_VOTES, counter,
+            (ids, key) -> batchClient.getUserVotes(ids, key.argument("first"), key.argument("after"),
+                key.argument("debateId"))));
+        registry.register(USER_PROFILE, byId(USER_PROFILE, counter, batchClient::getUserProfiles));
+
+        return registry;
+    }
+
+    /**
+     * Loader for a relationship with no arguments, keyed by parent ID
+     */
+    private <V> DataLoader<String, V> byId(String name, DownstreamCallCounter counter,
+                                           Function<Set<String>, CompletableFuture<Map<String, V>>> endpoint) {
+        return DataLoaderFactory.newMappedDataLoader((Set<String> ids) -> {
+            recordBatch(name, counter, ids.size());
+            return endpoint.apply(ids);
+        }, options());
+    }
+
+    /**
+     * Loader for a paginated relationship; keys are grouped by their arguments and each group
+     * is fetched with one batch call
+     */
+    private <V> DataLoader<ConnectionKey, V> byConnection(
+            String name, DownstreamCallCounter counter,
+            BiFunction<Set<String>, ConnectionKey, CompletableFuture<Map<String, V>>> endpoint) {
+
+        return DataLoaderFactory.newMappedDataLoader((Set<ConnectionKey> keys) -> {
+            Map<Map<String, Object>, List<ConnectionKey>> groups = new LinkedHashMap<>();
+            for (ConnectionKey key : keys) {
+                groups.computeIfAbsent(key.arguments(), arguments -> new ArrayList<>()).add(key);
+            }
+
+            CompletableFuture<?>[] calls = new CompletableFuture<?>[groups.size()];
+            Map<ConnectionKey, V> results = new HashMap<>();
+            int index = 0;
+            for (List<ConnectionKey> group : groups.values()) {
+                Set<String> parentIds = new HashSet<>();
+                group.forEach(key -> parentIds.add(key.parentId()));
+                recordBatch(name, counter, parentIds.size());
+
+                calls[index++] = endpoint.apply(parentIds, group.get(0)).thenAccept(values -> {
+                    synchronized (results) {
+                        group.forEach(key -> results.put(key, values.get(key.parentId())));
+                    }
+                });
+            }
+
+            return CompletableFuture.allOf(calls).thenApply(done -> results);
+        }, options());
+    }
+
+    private void recordBatch(String loader, DownstreamCallCounter counter, int keyCount) {
+        counter.recordKeys(keyCount);
+        metricsInstrumentation.recordBatch(loader, keyCount);
+        log.debug("Data loader {} fetching {} keys in one batch", loader, keyCount);
+    }
+
+    private DataLoaderOptions options() {
+        return DataLoaderOptions.newOptions()
+            .setBatchingEnabled(true)
+            .setCachingEnabled(true)
+            .setMaxBatchSize(maxBatchSize);
+    }
+}
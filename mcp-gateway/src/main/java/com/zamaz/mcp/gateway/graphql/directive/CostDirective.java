@@ -0,0 +1,94 @@
+package com.zamaz.mcp.gateway.graphql.directive;
+
+import graphql.language.ArrayValue;
+import graphql.language.IntValue;
+import graphql.language.StringValue;
+import graphql.schema.GraphQLArgument;
+import graphql.schema.GraphQLDirective;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLTypeUtil;
+import graphql.schema.idl.SchemaDirectiveWiring;
+import graphql.schema.idl.SchemaDirectiveWiringEnvironment;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cost directive declaring the static cost of a GraphQL field for query cost analysis.
+ * Fields without the directive cost 1 if they return an object and nothing if they return a scalar.
+ */
+@Slf4j
+public class CostDirective implements SchemaDirectiveWiring {
+
+    public static final String NAME = "cost";
+
+    public static final List<String> DEFAULT_SIZED_BY = List.of("first", "last", "limit");
+
+    @Override
+    public GraphQLFieldDefinition onField(SchemaDirectiveWiringEnvironment<GraphQLFieldDefinition> environment) {
+        GraphQLFieldDefinition field = environment.getElement();
+        int weight = getWeight(field);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Negative @cost weight on field " + field.getName());
+        }
+
+        // Cost is only read by the query cost analyzer, so the field is left unchanged
+        log.debug("Field {} declared with cost {}", field.getName(), weight);
+        return field;
+    }
+
+    /**
+     * Cost of resolving the field once
+     */
+    public static int getWeight(GraphQLFieldDefinition field) {
+        GraphQLDirective directive = field.getDirective(NAME);
+        if (directive != null) {
+            Object weight = getValue(directive.getArgument("weight"));
+            if (weight != null) {
+                return toInt(weight);
+            }
+        }
+        return GraphQLTypeUtil.isLeaf(GraphQLTypeUtil.unwrapAll(field.getType())) ? 0 : 1;
+    }
+
+    /**
+     * Names of the arguments that bound how many items the field returns, in order of preference
+     */
+    public static List<String> getSizedBy(GraphQLFieldDefinition field) {
+        GraphQLDirective directive = field.getDirective(NAME);
+        if (directive == null) {
+            return DEFAULT_SIZED_BY;
+        }
+        Object sizedBy = getValue(directive.getArgument("sizedBy"));
+        if (sizedBy instanceof ArrayValue arrayValue) {
+            List<String> names = new ArrayList<>();
+            arrayValue.getValues().forEach(value -> names.add(((StringValue) value).getValue()));
+            return names;
+        }
+        if (sizedBy instanceof List<?> list) {
+            return list.stream().map(String::valueOf).toList();
+        }
+        return DEFAULT_SIZED_BY;
+    }
+
+    private static Object getValue(GraphQLArgument argument) {
+        if (argument == null) {
+            return null;
+        }
+        if (argument.getArgumentValue() != null && argument.getArgumentValue().isSet()) {
+            return argument.getArgumentValue().getValue();
+        }
+        if (argument.getArgumentDefaultValue() != null && argument.getArgumentDefaultValue().isSet()) {
+            return argument.getArgumentDefaultValue().getValue();
+        }
+        return null;
+    }
+
+    private static int toInt(Object value) {
+        if (value instanceof IntValue intValue) {
+            return intValue.getValue().intValue();
+        }
+        return Integer.parseInt(value.toString());
+    }
+}
@@ -0,0 +1,119 @@
+package com.zamaz.mcp.gateway.graphql.execution;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import graphql.ExecutionInput;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Caches parsed and validated GraphQL documents and supports automatic persisted queries.
+ *
+ * Documents are cached by query text, so repeated queries skip parsing and validation.
+ * A client may send only the SHA-256 hash of a query in
+ * {@code extensions.persistedQuery.sha256Hash}; if the hash is unknown the client gets a
+ * {@code PersistedQueryNotFound} error and retries with the full query, which is then
+ * registered under its hash.
+ */
+@Component
+@Slf4j
+public class CachingPreparsedDocumentProvider implements PreparsedDocumentProvider {
+
+    static final String PERSISTED_QUERY_NOT_FOUND = "PersistedQueryNotFound";
+    static final String PERSISTED_QUERY_HASH_MISMATCH = "PersistedQueryHashMismatch";
+
+    private final Cache<String, PreparsedDocumentEntry> documents;
+    private final Cache<String, PreparsedDocumentEntry> persistedQueries;
+
+    public CachingPreparsedDocumentProvider(MeterRegistry meterRegistry,
+                                            @Value("${graphql.documents.cache-size:2000}") long cacheSize) {
+        this.documents = Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .recordStats()
+            .build();
+        this.persistedQueries = Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .recordStats()
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, documents, "graphql.documents");
+        CaffeineCacheMetrics.monitor(meterRegistry, persistedQueries, "graphql.persisted-queries");
+    }
+
+    @Override
+    public PreparsedDocumentEntry getDocument(ExecutionInput executionInput,
+                                              Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate) {
+        String hash = getPersistedQueryHash(executionInput);
+        String query = executionInput.getQuery();
+        boolean hashOnly = query == null || query.isBlank()
+            || PersistedQuerySupport.PERSISTED_QUERY_MARKER.equals(query);
+
+        if (hash == null) {
+            return hashOnly ? parseAndValidate.apply(executionInput) : getOrParse(executionInput, parseAndValidate);
+        }
+
+        if (hashOnly) {
+            PreparsedDocumentEntry entry = persistedQueries.getIfPresent(hash);
+            if (entry == null) {
+                log.debug("Persisted query {} not found", hash);
+                return error(PERSISTED_QUERY_NOT_FOUND, "PERSISTED_QUERY_NOT_FOUND");
+            }
+            return entry;
+        }
+
+        if (!hash.equals(sha256(query))) {
+            return error(PERSISTED_QUERY_HASH_MISMATCH, "PERSISTED_QUERY_HASH_MISMATCH");
+        }
+
+        PreparsedDocumentEntry entry = getOrParse(executionInput, parseAndValidate);
+        if (!entry.hasErrors()) {
+            persistedQueries.put(hash, entry);
+            log.debug("Registered persisted query {}", hash);
+        }
+        return entry;
+    }
+
+    private PreparsedDocumentEntry getOrParse(ExecutionInput executionInput,
+                                              Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate) {
+        return documents.get(executionInput.getQuery(), query -> parseAndValidate.apply(executionInput));
+    }
+
+    private String getPersistedQueryHash(ExecutionInput executionInput) {
+        Map<String, Object> extensions = executionInput.getExtensions();
+        if (extensions == null || !(extensions.get("persistedQuery") instanceof Map<?, ?> persistedQuery)) {
+            return null;
+        }
+        Object hash = persistedQuery.get("sha256Hash");
+        return hash instanceof String value && !value.isBlank() ? value.toLowerCase() : null;
+    }
+
+    private static PreparsedDocumentEntry error(String message, String code) {
+        return new PreparsedDocumentEntry(GraphqlErrorBuilder.newError()
+            .message(message)
+            .extensions(Map.of("code", code))
+            .build());
+    }
+
+    static String sha256(String query) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(query.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.zamaz.mcp.gateway.graphql.instrumentation;
 
+import com.zamaz.mcp.gateway.graphql.dataloader.DownstreamCallCounter;
 import graphql.ExecutionResult;
 import graphql.execution.instrumentation.ExecutionStrategyInstrumentationContext;
 import graphql.execution.instrumentation.InstrumentationContext;
@@ -12,9 +13,9 @@ import graphql.execution.instrumentation.parameters.InstrumentationValidationPar
 import graphql.language.Document;
 import graphql.validation.ValidationError;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -25,45 +26,58 @@ import java.util.concurrent.TimeUnit;
  * GraphQL instrumentation for metrics collection
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class MetricsInstrumentation extends SimpleInstrumentation {
 
     private final MeterRegistry meterRegistry;
 
     // Counters
-    private final Counter executionCounter = Counter.builder("graphql.execution.total")
-        .description("Total number of GraphQL executions")
-        .register(meterRegistry);
+    private final Counter executionCounter;
+    private final Counter errorCounter;
+    private final Counter validationErrorCounter;
+    private final Counter fieldFetchCounter;
+    private final Counter fieldFetchErrorCounter;
 
-    private final Counter errorCounter = Counter.builder("graphql.execution.errors")
-        .description("Number of GraphQL execution errors")
-        .register(meterRegistry);
+    // Timers
+    private final Timer executionTimer;
+    private final Timer validationTimer;
+    private final Timer fieldFetchTimer;
 
-    private final Counter validationErrorCounter = Counter.builder("graphql.validation.errors")
-        .description("Number of GraphQL validation errors")
-        .register(meterRegistry);
+    public MetricsInstrumentation(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
 
-    private final Counter fieldFetchCounter = Counter.builder("graphql.field.fetch.total")
-        .description("Total number of GraphQL field fetches")
-        .register(meterRegistry);
+        this.executionCounter = Counter.builder("graphql.execution.total")
+            .description("Total number of GraphQL executions")
+            .register(meterRegistry);
 
-    private final Counter fieldFetchErrorCounter = Counter.builder("graphql.field.fetch.errors")
-        .description("Number of GraphQL field fetch errors")
-        .register(meterRegistry);
+        this.errorCounter = Counter.builder("graphql.execution.errors")
+            .description("Number of GraphQL execution errors")
+            .register(meterRegistry);
 
-    // Timers
-    private final Timer executionTimer = Timer.builder("graphql.execution.duration")
-        .description("GraphQL execution duration")
-        .register(meterRegistry);
+        this.validationErrorCounter = Counter.builder("graphql.validation.errors")
+            .description("Number of GraphQL validation errors")
+            .register(meterRegistry);
+
+        this.fieldFetchCounter = Counter.builder("graphql.field.fetch.total")
+            .description("Total number of GraphQL field fetches")
+            .register(meterRegistry);
+
+        this.fieldFetchErrorCounter = Counter.builder("graphql.field.fetch.errors")
+            .description("Number of GraphQL field fetch errors")
+            .register(meterRegistry);
 
-    private final Timer validationTimer = Timer.builder("graphql.validation.duration")
-        .description("GraphQL validation duration")
-        .register(meterRegistry);
+        this.executionTimer = Timer.builder("graphql.execution.duration")
+            .description("GraphQL execution duration")
+            .register(meterRegistry);
 
-    private final Timer fieldFetchTimer = Timer.builder("graphql.field.fetch.duration")
-        .description("GraphQL field fetch duration")
-        .register(meterRegistry);
+        this.validationTimer = Timer.builder("graphql.validation.duration")
+            .description("GraphQL validation duration")
+            .register(meterRegistry);
+
+        this.fieldFetchTimer = Timer.builder("graphql.field.fetch.duration")
+            .description("GraphQL field fetch duration")
+            .register(meterRegistry);
+    }
 
     @Override
     public InstrumentationState createState() {
@@ -89,6 +103,9 @@ public class MetricsInstrumentation extends SimpleInstrumentation {
         // Start execution timer
         Timer.Sample sample = Timer.start(meterRegistry);
         state.setExecutionSample(sample);
+
+        DownstreamCallCounter downstreamCalls = parameters.getGraphQLContext() != null
+            ? parameters.getGraphQLContext().get(DownstreamCallCounter.class) : null;
         
         log.debug("Started GraphQL execution metrics for operation: {}", operationName);
         
@@ -121,11 +138,50 @@ public class MetricsInstrumentation extends SimpleInstrumentation {
                         result.getErrors().size(), operationName);
                 }
                 
+                if (downstreamCalls != null) {
+                    recordExecutionDownstreamCalls(operationType, downstreamCalls);
+                    log.debug("GraphQL operation {} made {} downstream calls for {} keys",
+                        operationName, downstreamCalls.getCalls(), downstreamCalls.getKeys());
+                }
+                
                 log.debug("Completed GraphQL execution metrics for operation: {}", operationName);
             }
         };
     }
 
+    /**
+     * Record one HTTP request made to a backing service on behalf of a data loader.
+     */
+    public void recordDownstreamCall(String loader) {
+        Counter.builder("graphql.downstream.calls")
+            .description("Downstream HTTP requests made for GraphQL data loaders")
+            .tag("loader", loader)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    /**
+     * Record one batch dispatched by a data loader.
+     */
+    public void recordBatch(String loader, int keyCount) {
+        DistributionSummary.builder("graphql.dataloader.batch.size")
+            .description("Keys fetched per data loader batch")
+            .tag("loader", loader)
+            .register(meterRegistry)
+            .record(keyCount);
+    }
+
+    /**
+     * Record the downstream calls made by the data loaders of one GraphQL execution.
+     */
+    public void recordExecutionDownstreamCalls(String operationType, DownstreamCallCounter downstreamCalls) {
+        DistributionSummary.builder("graphql.execution.downstream.calls")
+            .description("Downstream HTTP requests made by data loaders per GraphQL execution")
+            .tag("type", operationType)
+            .register(meterRegistry)
+            .record(downstreamCalls.getCalls());
+    }
+
     @Override
     public InstrumentationContext<List<ValidationError>> beginValidation(
             InstrumentationValidationParameters parameters) {
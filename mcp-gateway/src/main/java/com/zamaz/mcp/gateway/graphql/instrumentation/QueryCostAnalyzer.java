@@ -0,0 +1,199 @@
+package com.zamaz.mcp.gateway.graphql.instrumentation;
+
+import com.zamaz.mcp.gateway.graphql.directive.CostDirective;
+import graphql.introspection.Introspection;
+import graphql.language.Argument;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.IntValue;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.language.Value;
+import graphql.language.VariableReference;
+import graphql.schema.GraphQLArgument;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLFieldsContainer;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLType;
+import graphql.schema.GraphQLTypeUtil;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Static cost analysis of a GraphQL operation, computed from the document before execution.
+ *
+ * Every field costs its {@code @cost} weight times the number of times it can be resolved,
+ * which is the product of the page sizes of the list fields above it. Page sizes come from
+ * the first {@code sizedBy} argument present on the field, or a default for unbounded lists.
+ * A sized field returning a connection object pages the lists directly below it, so those
+ * lists are not counted again.
+ */
+public class QueryCostAnalyzer {
+
+    private final int defaultListSize;
+
+    public QueryCostAnalyzer(int defaultListSize) {
+        this.defaultListSize = defaultListSize;
+    }
+
+    /**
+     * Cost, depth and field count of one operation
+     */
+    public record QueryCost(long cost, int depth, int fieldCount) {
+    }
+
+    public QueryCost analyze(GraphQLSchema schema, OperationDefinition operation,
+                             Map<String, FragmentDefinition> fragments, Map<String, Object> variables) {
+        GraphQLObjectType rootType = switch (operation.getOperation()) {
+            case MUTATION -> schema.getMutationType();
+            case SUBSCRIPTION -> schema.getSubscriptionType();
+            default -> schema.getQueryType();
+        };
+
+        Walk walk = new Walk(schema, fragments, variables);
+        walk.visit(rootType, operation.getSelectionSet(), 1, 1, false, new HashSet<>());
+        return new QueryCost(walk.cost, walk.depth, walk.fieldCount);
+    }
+
+    private class Walk {
+        private final GraphQLSchema schema;
+        private final Map<String, FragmentDefinition> fragments;
+        private final Map<String, Object> variables;
+
+        private long cost;
+        private int depth;
+        private int fieldCount;
+
+        Walk(GraphQLSchema schema, Map<String, FragmentDefinition> fragments, Map<String, Object> variables) {
+            this.schema = schema;
+            this.fragments = fragments;
+            this.variables = variables;
+        }
+
+        void visit(GraphQLType parentType, SelectionSet selectionSet, long multiplier, int level,
+                   boolean paged, Set<String> visitedFragments) {
+            if (selectionSet == null || parentType == null) {
+                return;
+            }
+
+            for (Selection<?> selection : selectionSet.getSelections()) {
+                if (selection instanceof Field field) {
+                    visitField(parentType, field, multiplier, level, paged, visitedFragments);
+                } else if (selection instanceof InlineFragment inlineFragment) {
+                    GraphQLType type = inlineFragment.getTypeCondition() != null
+                        ? schema.getType(inlineFragment.getTypeCondition().getName()) : parentType;
+                    visit(type, inlineFragment.getSelectionSet(), multiplier, level, paged, visitedFragments);
+                } else if (selection instanceof FragmentSpread spread) {
+                    FragmentDefinition fragment = fragments.get(spread.getName());
+                    // Fragment cycles are rejected by validation, but guard against them anyway
+                    if (fragment != null && visitedFragments.add(spread.getName())) {
+                        visit(schema.getType(fragment.getTypeCondition().getName()), fragment.getSelectionSet(),
+                            multiplier, level, paged, visitedFragments);
+                        visitedFragments.remove(spread.getName());
+                    }
+                }
+            }
+        }
+
+        private void visitField(GraphQLType parentType, Field field, long multiplier, int level,
+                                boolean paged, Set<String> visitedFragments) {
+            if (Introspection.TypeNameMetaFieldDef.getName().equals(field.getName())) {
+                return;
+            }
+
+            GraphQLFieldDefinition definition = getFieldDefinition(parentType, field.getName());
+            if (definition == null) {
+                return;
+            }
+
+            fieldCount++;
+            depth = Math.max(depth, level);
+            cost = saturatedAdd(cost, saturatedMultiply(CostDirective.getWeight(definition), multiplier));
+
+            if (field.getSelectionSet() != null) {
+                boolean list = GraphQLTypeUtil.isList(GraphQLTypeUtil.unwrapNonNull(definition.getType()));
+                long size = getSize(definition, field);
+                boolean sized = size >= 0;
+                if (!sized) {
+                    size = list && !paged ? defaultListSize : 1;
+                }
+
+                long childMultiplier = saturatedMultiply(multiplier, size);
+                GraphQLType fieldType = GraphQLTypeUtil.unwrapAll(definition.getType());
+                boolean pagesChildren = sized && !list;
+                visit(fieldType, field.getSelectionSet(), childMultiplier, level + 1, pagesChildren, visitedFragments);
+            }
+        }
+
+        private GraphQLFieldDefinition getFieldDefinition(GraphQLType parentType, String name) {
+            if (Introspection.SchemaMetaFieldDef.getName().equals(name)) {
+                return Introspection.SchemaMetaFieldDef;
+            }
+            if (Introspection.TypeMetaFieldDef.getName().equals(name)) {
+                return Introspection.TypeMetaFieldDef;
+            }
+            if (parentType instanceof GraphQLFieldsContainer container) {
+                return container.getFieldDefinition(name);
+            }
+            // Unions have no fields of their own; their members are visited through inline fragments
+            return null;
+        }
+
+        /**
+         * Number of items a field returns according to its sizing arguments, or -1 if it has none
+         */
+        private long getSize(GraphQLFieldDefinition definition, Field field) {
+            for (String name : CostDirective.getSizedBy(definition)) {
+                Argument argument = field.getArgument(name);
+                if (argument != null) {
+                    Long size = toLong(argument.getValue());
+                    if (size != null) {
+                        return Math.max(size, 0);
+                    }
+                }
+
+                GraphQLArgument argumentDefinition = definition.getArgument(name);
+                if (argumentDefinition != null && argumentDefinition.hasSetDefaultValue()) {
+                    Object defaultValue = argumentDefinition.getArgumentDefaultValue().getValue();
+                    Long size = defaultValue instanceof Value<?> value ? toLong(value) : toLong(defaultValue);
+                    if (size != null) {
+                        return Math.max(size, 0);
+                    }
+                }
+            }
+
+            return -1;
+        }
+
+        private Long toLong(Value<?> value) {
+            if (value instanceof IntValue intValue) {
+                return intValue.getValue().longValue();
+            }
+            if (value instanceof VariableReference reference && variables != null) {
+                return toLong(variables.get(reference.getName()));
+            }
+            return null;
+        }
+
+        private Long toLong(Object value) {
+            return value instanceof Number number ? number.longValue() : null;
+        }
+    }
+
+    static long saturatedAdd(long a, long b) {
+        long result = a + b;
+        return ((a ^ result) & (b ^ result)) < 0 ? Long.MAX_VALUE : result;
+    }
+
+    static long saturatedMultiply(long a, long b) {
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        return (high == 0 && low >= 0) ? low : Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,89 @@
+package com.zamaz.mcp.gateway.graphql.instrumentation;
+
+import graphql.ExecutionResult;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rejects GraphQL operations whose static cost, depth or field count exceeds the budget.
+ * The check runs on the validated document before any field is fetched.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QueryCostInstrumentation extends SimpleInstrumentation {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${graphql.cost.max-cost:5000}")
+    private long maxCost = 5000;
+
+    @Value("${graphql.cost.max-depth:10}")
+    private int maxDepth = 10;
+
+    @Value("${graphql.cost.max-fields:200}")
+    private int maxFields = 200;
+
+    @Value("${graphql.cost.default-list-size:10}")
+    private int defaultListSize = 10;
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+            InstrumentationExecuteOperationParameters parameters) {
+
+        ExecutionContext context = parameters.getExecutionContext();
+        QueryCostAnalyzer.QueryCost queryCost = new QueryCostAnalyzer(defaultListSize).analyze(
+            context.getGraphQLSchema(),
+            context.getOperationDefinition(),
+            context.getFragmentsByName(),
+            context.getVariables()
+        );
+
+        String operationType = context.getOperationDefinition().getOperation().name().toLowerCase();
+        DistributionSummary.builder("graphql.query.cost")
+            .description("Static cost of GraphQL operations")
+            .tag("type", operationType)
+            .register(meterRegistry)
+            .record(queryCost.cost());
+        DistributionSummary.builder("graphql.query.depth")
+            .description("Selection depth of GraphQL operations")
+            .tag("type", operationType)
+            .register(meterRegistry)
+            .record(queryCost.depth());
+
+        if (queryCost.depth() > maxDepth) {
+            reject("depth", "Query depth " + queryCost.depth() + " exceeds the maximum of " + maxDepth);
+        }
+        if (queryCost.fieldCount() > maxFields) {
+            reject("fields", "Query selects " + queryCost.fieldCount() + " fields, more than the maximum of "
+                + maxFields);
+        }
+        if (queryCost.cost() > maxCost) {
+            reject("cost", "Query cost " + queryCost.cost() + " exceeds the maximum of " + maxCost);
+        }
+
+        log.debug("GraphQL operation cost {}, depth {}, {} fields",
+            queryCost.cost(), queryCost.depth(), queryCost.fieldCount());
+        return super.beginExecuteOperation(parameters);
+    }
+
+    private void reject(String reason, String message) {
+        Counter.builder("graphql.query.rejected")
+            .description("GraphQL operations rejected by the cost analysis")
+            .tag("reason", reason)
+            .register(meterRegistry)
+            .increment();
+        log.warn("Rejected GraphQL operation: {}", message);
+        throw new AbortExecutionException(message);
+    }
+}
@@ -0,0 +1,25 @@
+package com.zamaz.mcp.gateway.graphql.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An entry of a user's recent activity
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Activity {
+
+    private String id;
+    private ActivityType type;
+    private String description;
+    private String relatedId;
+    private String relatedType;
+    private LocalDateTime createdAt;
+}
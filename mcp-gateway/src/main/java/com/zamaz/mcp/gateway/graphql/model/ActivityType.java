@@ -0,0 +1,13 @@
+package com.zamaz.mcp.gateway.graphql.model;
+
+/**
+ * Kinds of user activity
+ */
+public enum ActivityType {
+    DEBATE_CREATED,
+    DEBATE_JOINED,
+    ARGUMENT_SUBMITTED,
+    VOTE_CAST,
+    DEBATE_COMPLETED,
+    ORGANIZATION_JOINED
+}
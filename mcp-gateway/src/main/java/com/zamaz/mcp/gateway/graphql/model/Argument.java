@@ -0,0 +1,27 @@
+package com.zamaz.mcp.gateway.graphql.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * GraphQL Argument type
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Argument {
+
+    private String id;
+    private String content;
+    private ArgumentType type;
+    private List<String> attachments;
+    private Boolean isDeleted;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,7 @@
+package com.zamaz.mcp.gateway.graphql.model;
+
+/**
+ * GraphQL ArgumentConnection type
+ */
+public class ArgumentConnection extends Connection<Argument> {
+}
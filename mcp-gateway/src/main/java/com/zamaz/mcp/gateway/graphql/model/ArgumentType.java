@@ -0,0 +1,11 @@
+package com.zamaz.mcp.gateway.graphql.model;
+
+/**
+ * Kinds of debate arguments
+ */
+public enum ArgumentType {
+    OPENING,
+    RESPONSE,
+    REBUTTAL,
+    CLOSING
+}
@@ -0,0 +1,25 @@
+package com.zamaz.mcp.gateway.graphql.model;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * A page of a GraphQL connection; cursors are opaque to clients
+ *
+ * @param <T> node type of the connection
+ */
+@Data
+public abstract class Connection<T> {
+
+    private List<Edge<T>> edges;
+    private PageInfo pageInfo;
+    private int totalCount;
+
+    @Data
+    public static class Edge<T> {
+
+        private T node;
+        private String cursor;
+    }
+}
@@ -0,0 +1,35 @@
+package com.zamaz.mcp.gateway.graphql.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * GraphQL Debate type
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Debate {
+
+    private String id;
+    private String organizationId;
+    private String title;
+    private String description;
+    private DebateStatus status;
+    private List<String> tags;
+    private Integer maxParticipants;
+    private Integer timeLimit;
+    private JsonNode rules;
+    private Boolean isPublic;
+    private LocalDateTime startedAt;
+    private LocalDateTime endedAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,7 @@
+package com.zamaz.mcp.gateway.graphql.model;
+
+/**
+ * GraphQL DebateConnection type
+ */
+public class DebateConnection extends Connection<Debate> {
+}
@@ -0,0 +1,27 @@
+package com.zamaz.mcp.gateway.graphql.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Filter for debate connections
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DebateFilter {
+
+    private String title;
+    private DebateStatus status;
+    private String organizationId;
+    private String createdBy;
+    private List<String> tags;
+    private LocalDateTime createdAfter;
+    private LocalDateTime createdBefore;
+}
@@ -0,0 +1,27 @@
+package com.zamaz.mcp.gateway.graphql.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Statistics of one debate
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DebateStats {
+
+    private int participantCount;
+    private int argumentCount;
+    private int voteCount;
+    private int viewCount;
+    private double averageArgumentLength;
+    private double engagementScore;
+    private Integer duration;
+    private List<User> topContributors;
+}
@@ -0,0 +1,12 @@
+package com.zamaz.mcp.gateway.graphql.model;
+
+/**
+ * Debate lifecycle states
+ */
+public enum DebateStatus {
+    DRAFT,
+    ACTIVE,
+    PAUSED,
+    COMPLETED,
+    CANCELLED
+}
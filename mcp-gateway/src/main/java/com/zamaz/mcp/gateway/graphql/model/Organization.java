@@ -0,0 +1,26 @@
+package com.zamaz.mcp.gateway.graphql.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * GraphQL Organization type
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Organization {
+
+    private String id;
+    private String name;
+    private String description;
+    private JsonNode settings;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
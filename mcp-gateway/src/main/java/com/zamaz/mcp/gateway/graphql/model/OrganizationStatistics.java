@@ -0,0 +1,25 @@
+package com.zamaz.mcp.gateway.graphql.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Statistics of one organization
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrganizationStatistics {
+
+    private int totalUsers;
+    private int activeUsers;
+    private int totalDebates;
+    private int activeDebates;
+    private int totalArguments;
+    private int totalVotes;
+    private double engagementRate;
+    private double growthRate;
+}
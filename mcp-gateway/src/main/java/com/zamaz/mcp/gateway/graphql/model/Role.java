@@ -0,0 +1,11 @@
+package com.zamaz.mcp.gateway.graphql.model;
+
+/**
+ * User roles
+ */
+public enum Role {
+    USER,
+    ADMIN,
+    MODERATOR,
+    SUPER_ADMIN
+}
@@ -0,0 +1,7 @@
+package com.zamaz.mcp.gateway.graphql.model;
+
+/**
+ * GraphQL UserConnection type
+ */
+public class UserConnection extends Connection<User> {
+}
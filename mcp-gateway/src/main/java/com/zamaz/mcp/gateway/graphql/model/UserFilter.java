@@ -0,0 +1,22 @@
+package com.zamaz.mcp.gateway.graphql.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filter for user connections
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserFilter {
+
+    private String name;
+    private String email;
+    private String organizationId;
+    private Role role;
+    private Boolean isActive;
+}
@@ -0,0 +1,26 @@
+package com.zamaz.mcp.gateway.graphql.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Debate statistics of one user
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserProfile {
+
+    private int totalDebates;
+    private int totalArguments;
+    private int totalVotes;
+    private double winRate;
+    private double averageArgumentLength;
+    private List<String> topTags;
+    private List<Activity> recentActivity;
+}
@@ -0,0 +1,24 @@
+package com.zamaz.mcp.gateway.graphql.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * GraphQL Vote type
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Vote {
+
+    private String id;
+    private VoteType voteType;
+    private String comment;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,7 @@
+package com.zamaz.mcp.gateway.graphql.model;
+
+/**
+ * GraphQL VoteConnection type
+ */
+public class VoteConnection extends Connection<Vote> {
+}
@@ -0,0 +1,10 @@
+package com.zamaz.mcp.gateway.graphql.model;
+
+/**
+ * Kinds of votes on an argument
+ */
+public enum VoteType {
+    FOR,
+    AGAINST,
+    ABSTAIN
+}
@@ -3,11 +3,14 @@ package com.zamaz.mcp.gateway.graphql.resolver;
 import com.zamaz.mcp.gateway.graphql.model.*;
 import com.zamaz.mcp.gateway.graphql.input.*;
 import com.zamaz.mcp.gateway.graphql.payload.*;
+import com.zamaz.mcp.gateway.graphql.dataloader.ConnectionKey;
+import com.zamaz.mcp.gateway.graphql.dataloader.GraphQLDataLoaders;
 import com.zamaz.mcp.gateway.service.DebateService;
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.dataloader.DataLoader;
 import org.springframework.stereotype.Component;
 import org.reactivestreams.Publisher;
 
@@ -89,88 +92,65 @@ public class DebateResolver {
     };
 
     /**
-     * Get debate's organization
+     * Get debate's organization, batched across debates
      */
     public DataFetcher<CompletableFuture<Organization>> getDebateOrganization = environment -> {
         Debate debate = environment.getSource();
         
-        log.debug("Getting organization for debate: {}", debate.getId());
+        log.debug("Loading organization for debate: {}", debate.getId());
         
-        return debateService.getDebateOrganization(debate.getId())
-            .thenApply(organization -> {
-                log.debug("Retrieved organization {} for debate {}", organization.getName(), debate.getId());
-                return organization;
-            });
+        DataLoader<String, Organization> loader = environment.getDataLoader(GraphQLDataLoaders.DEBATE_ORGANIZATION);
+        return loader.load(debate.getId());
     };
 
     /**
-     * Get debate participants
+     * Get debate participants, batched across debates
      */
     public DataFetcher<CompletableFuture<UserConnection>> getDebateParticipants = environment -> {
         Debate debate = environment.getSource();
-        Integer first = environment.getArgument("first");
-        String after = environment.getArgument("after");
         
-        log.debug("Getting participants for debate: {}", debate.getId());
+        log.debug("Loading participants for debate: {}", debate.getId());
         
-        return debateService.getDebateParticipants(debate.getId(), first, after)
-            .thenApply(connection -> {
-                log.debug("Retrieved {} participants for debate {}", connection.getEdges().size(), debate.getId());
-                return connection;
-            });
+        DataLoader<ConnectionKey, UserConnection> loader =
+            environment.getDataLoader(GraphQLDataLoaders.DEBATE_PARTICIPANTS);
+        return loader.load(ConnectionKey.of(debate.getId(), environment));
     };
 
     /**
-     * Get debate arguments
+     * Get debate arguments, batched across debates
      */
     public DataFetcher<CompletableFuture<ArgumentConnection>> getDebateArguments = environment -> {
         Debate debate = environment.getSource();
-        Integer first = environment.getArgument("first");
-        String after = environment.getArgument("after");
-        ArgumentType type = environment.getArgument("type");
-        String parentId = environment.getArgument("parentId");
         
-        log.debug("Getting arguments for debate: {}", debate.getId());
+        log.debug("Loading arguments for debate: {}", debate.getId());
         
-        return debateService.getDebateArguments(debate.getId(), first, after, type, parentId)
-            .thenApply(connection -> {
-                log.debug("Retrieved {} arguments for debate {}", connection.getEdges().size(), debate.getId());
-                return connection;
-            });
+        DataLoader<ConnectionKey, ArgumentConnection> loader =
+            environment.getDataLoader(GraphQLDataLoaders.DEBATE_ARGUMENTS);
+        return loader.load(ConnectionKey.of(debate.getId(), environment));
     };
 
     /**
-     * Get debate votes
+     * Get debate votes, batched across debates
      */
     public DataFetcher<CompletableFuture<VoteConnection>> getDebateVotes = environment -> {
         Debate debate = environment.getSource();
-        Integer first = environment.getArgument("first");
-        String after = environment.getArgument("after");
-        VoteType type = environment.getArgument("type");
         
-        log.debug("Getting votes for debate: {}", debate.getId());
+        log.debug("Loading votes for debate: {}", debate.getId());
         
-        return debateService.getDebateVotes(debate.getId(), first, after, type)
-            .thenApply(connection -> {
-                log.debug("Retrieved {} votes for debate {}", connection.getEdges().size(), debate.getId());
-                return connection;
-            });
+        DataLoader<ConnectionKey, VoteConnection> loader = environment.getDataLoader(GraphQLDataLoaders.DEBATE_VOTES);
+        return loader.load(ConnectionKey.of(debate.getId(), environment));
     };
 
     /**
-     * Get debate statistics
+     * Get debate statistics, batched across debates
      */
     public DataFetcher<CompletableFuture<DebateStats>> getDebateStatistics = environment -> {
         Debate debate = environment.getSource();
         
-        log.debug("Getting statistics for debate: {}", debate.getId());
+        log.debug("Loading statistics for debate: {}", debate.getId());
         
-        return debateService.getDebateStats(debate.getId())
-            .thenApply(stats -> {
-                log.debug("Retrieved statistics for debate {}: {} participants, {} arguments", 
-                    debate.getId(), stats.getParticipantCount(), stats.getArgumentCount());
-                return stats;
-            });
+        DataLoader<String, DebateStats> loader = environment.getDataLoader(GraphQLDataLoaders.DEBATE_STATS);
+        return loader.load(debate.getId());
     };
 
     /**
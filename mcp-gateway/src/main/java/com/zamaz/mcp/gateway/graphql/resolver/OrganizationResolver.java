@@ -3,11 +3,14 @@ package com.zamaz.mcp.gateway.graphql.resolver;
 import com.zamaz.mcp.gateway.graphql.model.*;
 import com.zamaz.mcp.gateway.graphql.input.*;
 import com.zamaz.mcp.gateway.graphql.payload.*;
+import com.zamaz.mcp.gateway.graphql.dataloader.ConnectionKey;
+import com.zamaz.mcp.gateway.graphql.dataloader.GraphQLDataLoaders;
 import com.zamaz.mcp.gateway.service.OrganizationService;
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.dataloader.DataLoader;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -55,55 +58,42 @@ public class OrganizationResolver {
     };
 
     /**
-     * Get users for an organization
+     * Get users for an organization, batched across organizations
      */
     public DataFetcher<CompletableFuture<UserConnection>> getOrganizationUsers = environment -> {
         Organization organization = environment.getSource();
-        Integer first = environment.getArgument("first");
-        String after = environment.getArgument("after");
-        UserFilter filter = environment.getArgument("filter");
         
-        log.debug("Getting users for organization: {}", organization.getId());
+        log.debug("Loading users for organization: {}", organization.getId());
         
-        return organizationService.getOrganizationUsers(organization.getId(), first, after, filter)
-            .thenApply(connection -> {
-                log.debug("Retrieved {} users for organization {}", connection.getEdges().size(), organization.getId());
-                return connection;
-            });
+        DataLoader<ConnectionKey, UserConnection> loader =
+            environment.getDataLoader(GraphQLDataLoaders.ORGANIZATION_USERS);
+        return loader.load(ConnectionKey.of(organization.getId(), environment));
     };
 
     /**
-     * Get debates for an organization
+     * Get debates for an organization, batched across organizations
      */
     public DataFetcher<CompletableFuture<DebateConnection>> getOrganizationDebates = environment -> {
         Organization organization = environment.getSource();
-        Integer first = environment.getArgument("first");
-        String after = environment.getArgument("after");
-        DebateFilter filter = environment.getArgument("filter");
         
-        log.debug("Getting debates for organization: {}", organization.getId());
+        log.debug("Loading debates for organization: {}", organization.getId());
         
-        return organizationService.getOrganizationDebates(organization.getId(), first, after, filter)
-            .thenApply(connection -> {
-                log.debug("Retrieved {} debates for organization {}", connection.getEdges().size(), organization.getId());
-                return connection;
-            });
+        DataLoader<ConnectionKey, DebateConnection> loader =
+            environment.getDataLoader(GraphQLDataLoaders.ORGANIZATION_DEBATES);
+        return loader.load(ConnectionKey.of(organization.getId(), environment));
     };
 
     /**
-     * Get statistics for an organization
+     * Get statistics for an organization, batched across organizations
      */
     public DataFetcher<CompletableFuture<OrganizationStatistics>> getOrganizationStats = environment -> {
         Organization organization = environment.getSource();
         
-        log.debug("Getting statistics for organization: {}", organization.getId());
+        log.debug("Loading statistics for organization: {}", organization.getId());
         
-        return organizationService.getOrganizationStatistics(organization.getId())
-            .thenApply(stats -> {
-                log.debug("Retrieved statistics for organization {}: {} users, {} debates", 
-                    organization.getId(), stats.getTotalUsers(), stats.getTotalDebates());
-                return stats;
-            });
+        DataLoader<String, OrganizationStatistics> loader =
+            environment.getDataLoader(GraphQLDataLoaders.ORGANIZATION_STATS);
+        return loader.load(organization.getId());
     };
 
     /**
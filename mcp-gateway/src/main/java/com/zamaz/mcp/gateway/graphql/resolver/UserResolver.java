@@ -3,11 +3,14 @@ package com.zamaz.mcp.gateway.graphql.resolver;
 import com.zamaz.mcp.gateway.graphql.model.*;
 import com.zamaz.mcp.gateway.graphql.input.*;
 import com.zamaz.mcp.gateway.graphql.payload.*;
+import com.zamaz.mcp.gateway.graphql.dataloader.ConnectionKey;
+import com.zamaz.mcp.gateway.graphql.dataloader.GraphQLDataLoaders;
 import com.zamaz.mcp.gateway.service.UserService;
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.dataloader.DataLoader;
 import org.springframework.stereotype.Component;
 
 import java.util.concurrent.CompletableFuture;
@@ -54,88 +57,64 @@ public class UserResolver {
     };
 
     /**
-     * Get user's organization
+     * Get user's organization, batched across users
      */
     public DataFetcher<CompletableFuture<Organization>> getUserOrganization = environment -> {
         User user = environment.getSource();
         
-        log.debug("Getting organization for user: {}", user.getId());
+        log.debug("Loading organization for user: {}", user.getId());
         
-        return userService.getUserOrganization(user.getId())
-            .thenApply(organization -> {
-                log.debug("Retrieved organization {} for user {}", organization.getName(), user.getId());
-                return organization;
-            });
+        DataLoader<String, Organization> loader = environment.getDataLoader(GraphQLDataLoaders.USER_ORGANIZATION);
+        return loader.load(user.getId());
     };
 
     /**
-     * Get user's debates
+     * Get user's debates, batched across users
      */
     public DataFetcher<CompletableFuture<DebateConnection>> getUserDebates = environment -> {
         User user = environment.getSource();
-        Integer first = environment.getArgument("first");
-        String after = environment.getArgument("after");
-        DebateFilter filter = environment.getArgument("filter");
         
-        log.debug("Getting debates for user: {}", user.getId());
+        log.debug("Loading debates for user: {}", user.getId());
         
-        return userService.getUserDebates(user.getId(), first, after, filter)
-            .thenApply(connection -> {
-                log.debug("Retrieved {} debates for user {}", connection.getEdges().size(), user.getId());
-                return connection;
-            });
+        DataLoader<ConnectionKey, DebateConnection> loader = environment.getDataLoader(GraphQLDataLoaders.USER_DEBATES);
+        return loader.load(ConnectionKey.of(user.getId(), environment));
     };
 
     /**
-     * Get user's arguments
+     * Get user's arguments, batched across users
      */
     public DataFetcher<CompletableFuture<ArgumentConnection>> getUserArguments = environment -> {
         User user = environment.getSource();
-        Integer first = environment.getArgument("first");
-        String after = environment.getArgument("after");
-        String debateId = environment.getArgument("debateId");
         
-        log.debug("Getting arguments for user: {}", user.getId());
+        log.debug("Loading arguments for user: {}", user.getId());
         
-        return userService.getUserArguments(user.getId(), first, after, debateId)
-            .thenApply(connection -> {
-                log.debug("Retrieved {} arguments for user {}", connection.getEdges().size(), user.getId());
-                return connection;
-            });
+        DataLoader<ConnectionKey, ArgumentConnection> loader =
+            environment.getDataLoader(GraphQLDataLoaders.USER_ARGUMENTS);
+        return loader.load(ConnectionKey.of(user.getId(), environment));
     };
 
     /**
-     * Get user's votes
+     * Get user's votes, batched across users
      */
     public DataFetcher<CompletableFuture<VoteConnection>> getUserVotes = environment -> {
         User user = environment.getSource();
-        Integer first = environment.getArgument("first");
-        String after = environment.getArgument("after");
-        String debateId = environment.getArgument("debateId");
         
-        log.debug("Getting votes for user: {}", user.getId());
+        log.debug("Loading votes for user: {}", user.getId());
         
-        return userService.getUserVotes(user.getId(), first, after, debateId)
-            .thenApply(connection -> {
-                log.debug("Retrieved {} votes for user {}", connection.getEdges().size(), user.getId());
-                return connection;
-            });
+        DataLoader<ConnectionKey, VoteConnection> loader = environment.getDataLoader(GraphQLDataLoaders.USER_VOTES);
+        return loader.load(ConnectionKey.of(user.getId(), environment));
     };
 
     /**
-     * Get user's profile
+     * Get user's profile, batched across users
      */
     public DataFetcher<CompletableFuture<UserProfile>> getUserProfile = environment -> {
         User user = environment.getSource();
         
-        log.debug("Getting profile for user: {}", user.getId());
+        log.debug("Loading profile for user: {}", user.getId());
         
-        return userService.getUserProfile(user.getId())
-            .thenApply(profile -> {
-                log.debug("Retrieved profile for user {}: {} debates, {} arguments", 
-                    user.getId(), profile.getTotalDebates(), profile.getTotalArguments());
-                return profile;
-            });
+        DataLoader<String, UserProfile> loader = environment.getDataLoader(GraphQLDataLoaders.USER_PROFILE);
+        return loader.load(user.getId());
     };
 
     /**
@@ -0,0 +1,73 @@
+package com.zamaz.mcp.gateway.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the response cache entry format
+ */
+class CachedResponseTest {
+
+    private static final byte[] JSON = "{\"debates\":[]}".repeat(200).getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void roundTripsCompressedBodyAndHeaders() {
+        HttpHeaders upstream = new HttpHeaders();
+        upstream.add(HttpHeaders.CONTENT_TYPE, "application/json");
+        upstream.add(HttpHeaders.CONTENT_LENGTH, String.valueOf(JSON.length));
+        upstream.add("Date", "Mon, 01 Jan 2024 00:00:00 GMT");
+
+        CachedResponse created = CachedResponse.of(200, upstream, JSON, JSON.length, 1024, List.of("Date"));
+        CachedResponse decoded = CachedResponse.decode(created.encode());
+
+        assertThat(decoded).isNotNull();
+        assertThat(decoded.isCompressed()).isTrue();
+        assertThat(decoded.getBody().length).isLessThan(JSON.length);
+        assertThat(decoded.getDecodedBody()).isEqualTo(JSON);
+        assertThat(decoded.getETag()).isEqualTo(created.getETag()).startsWith("W/\"");
+        assertThat(decoded.getHeaders().getFirst(HttpHeaders.CONTENT_TYPE)).isEqualTo("application/json");
+        assertThat(decoded.getHeaders().containsKey(HttpHeaders.CONTENT_LENGTH)).isFalse();
+        assertThat(decoded.getHeaders().containsKey("Date")).isFalse();
+    }
+
+    @Test
+    void keepsSmallOrAlreadyEncodedBodiesAsIs() {
+        byte[] small = "{}".getBytes(StandardCharsets.UTF_8);
+        assertThat(CachedResponse.of(200, new HttpHeaders(), small, small.length, 1024, List.of()).isCompressed())
+            .isFalse();
+
+        HttpHeaders encoded = new HttpHeaders();
+        encoded.add(HttpHeaders.CONTENT_ENCODING, "br");
+        CachedResponse entry = CachedResponse.of(200, encoded, JSON, JSON.length, 1024, List.of());
+        assertThat(entry.isCompressed()).isFalse();
+        assertThat(entry.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("br");
+    }
+
+    @Test
+    void matchesIfNoneMatchWithWeakComparison() {
+        HttpHeaders upstream = new HttpHeaders();
+        upstream.setETag("\"v42\"");
+        CachedResponse entry = CachedResponse.of(200, upstream, JSON, JSON.length, 1024, List.of());
+
+        assertThat(entry.getETag()).isEqualTo("\"v42\"");
+        assertThat(entry.matches("W/\"v42\"")).isTrue();
+        assertThat(entry.matches("\"v1\", \"v42\"")).isTrue();
+        assertThat(entry.matches("*")).isTrue();
+        assertThat(entry.matches("\"v41\"")).isFalse();
+        assertThat(entry.matches(null)).isFalse();
+    }
+
+    @Test
+    void treatsEntriesInOtherFormatsAsMisses() {
+        assertThat(CachedResponse.decode("200\nContent-Type:application/json\n\n{}".getBytes(StandardCharsets.UTF_8)))
+            .isNull();
+        byte[] truncated = CachedResponse.of(200, new HttpHeaders(), JSON, JSON.length, 1024, List.of()).encode();
+        assertThat(CachedResponse.decode(Arrays.copyOf(truncated, truncated.length / 2))).isNull();
+    }
+}
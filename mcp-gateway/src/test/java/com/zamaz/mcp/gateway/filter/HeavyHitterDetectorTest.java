@@ -0,0 +1,88 @@
+package com.zamaz.mcp.gateway.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the local heavy-hitter detection used by the DDoS filter
+ */
+class HeavyHitterDetectorTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    @Test
+    void suspectsClientsOnlyFromTheThreshold() {
+        HeavyHitterDetector detector = new HeavyHitterDetector(1024, 4, 6, 60_000, 10, 100, now::get);
+
+        for (int i = 1; i < 10; i++) {
+            assertThat(detector.record("10.0.0.1")).isFalse();
+        }
+        assertThat(detector.record("10.0.0.1")).isTrue();
+        assertThat(detector.record("10.0.0.2")).isFalse();
+        assertThat(detector.estimate("10.0.0.1")).isEqualTo(10);
+    }
+
+    @Test
+    void forgetsRequestsOutsideTheWindow() {
+        HeavyHitterDetector detector = new HeavyHitterDetector(1024, 4, 6, 60_000, 10, 100, now::get);
+
+        for (int i = 0; i < 8; i++) {
+            detector.record("10.0.0.1");
+        }
+        now.addAndGet(30_000);
+        for (int i = 0; i < 8; i++) {
+            detector.record("10.0.0.1");
+        }
+        assertThat(detector.estimate("10.0.0.1")).isEqualTo(16);
+
+        now.addAndGet(40_000);
+        assertThat(detector.estimate("10.0.0.1")).isEqualTo(8);
+        assertThat(detector.record("10.0.0.1")).isFalse();
+
+        now.addAndGet(60_000);
+        assertThat(detector.estimate("10.0.0.1")).isZero();
+        assertThat(detector.topHitters(10)).isEmpty();
+    }
+
+    @Test
+    void neverUnderestimatesUnderManyDistinctClients() {
+        HeavyHitterDetector detector = new HeavyHitterDetector(4096, 4, 6, 60_000, 50, 100, now::get);
+
+        for (int i = 0; i < 100_000; i++) {
+            detector.record("172." + (i >>> 16) + "." + (i >>> 8 & 255) + "." + (i & 255));
+        }
+        for (int i = 0; i < 200; i++) {
+            detector.record("10.0.0.1");
+        }
+
+        assertThat(detector.estimate("10.0.0.1")).isGreaterThanOrEqualTo(200);
+        assertThat(detector.topHitters(1)).first()
+            .satisfies(top -> assertThat(top.getKey()).isEqualTo("10.0.0.1"));
+    }
+
+    @Test
+    void boundsSuspectsToTheHeaviestClients() {
+        HeavyHitterDetector detector = new HeavyHitterDetector(1024, 4, 6, 60_000, 5, 2, now::get);
+
+        for (int i = 0; i < 20; i++) {
+            detector.record("10.0.0.1");
+        }
+        for (int i = 0; i < 10; i++) {
+            detector.record("10.0.0.2");
+        }
+        for (int i = 0; i < 5; i++) {
+            detector.record("10.0.0.3");
+        }
+
+        assertThat(detector.record("10.0.0.3")).isFalse();
+        assertThat(detector.topHitters(10)).extracting("key").containsExactly("10.0.0.1", "10.0.0.2");
+
+        for (int i = 0; i < 10; i++) {
+            detector.record("10.0.0.3");
+        }
+        assertThat(detector.topHitters(10)).extracting("key").containsExactly("10.0.0.1", "10.0.0.3");
+    }
+}
@@ -0,0 +1,66 @@
+package com.zamaz.mcp.gateway.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the local copy of the blocked IP addresses
+ */
+class LocalBlocklistTest {
+
+    private static final byte[] CHANNEL = LocalBlocklist.CHANNEL.getBytes(StandardCharsets.UTF_8);
+
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+
+    private final LocalBlocklist blocklist = newBlocklist();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reloadsWhenTheSubscriptionIsRecovered() {
+        Cursor<String> cursor = mock(Cursor.class);
+        when(cursor.hasNext()).thenReturn(true, false);
+        when(cursor.next()).thenReturn(LocalBlocklist.BLOCKED_PREFIX + "10.0.0.1");
+        when(redisTemplate.scan(any(ScanOptions.class)))
+            .thenThrow(new RedisConnectionFailureException("down"))
+            .thenReturn(cursor);
+        when(redisTemplate.getExpire(LocalBlocklist.BLOCKED_PREFIX + "10.0.0.1", TimeUnit.MILLISECONDS))
+            .thenReturn(60_000L);
+        LocalBlocklist.BlockListener listener = blocklist.new BlockListener();
+
+        listener.onChannelSubscribed(CHANNEL, 1);
+        assertThat(blocklist.isBlocked("10.0.0.1")).isFalse();
+
+        // The container resubscribes after recovering the connection
+        listener.onChannelSubscribed(CHANNEL, 1);
+        assertThat(blocklist.isBlocked("10.0.0.1")).isTrue();
+    }
+
+    @Test
+    void appliesAnnouncedBlocksUntilTheyExpire() {
+        blocklist.apply("10.0.0.2\t" + (System.currentTimeMillis() + 60_000));
+        blocklist.apply("10.0.0.3\t" + (System.currentTimeMillis() - 1));
+
+        assertThat(blocklist.isBlocked("10.0.0.2")).isTrue();
+        assertThat(blocklist.isBlocked("10.0.0.3")).isFalse();
+    }
+
+    private LocalBlocklist newBlocklist() {
+        LocalBlocklist list = new LocalBlocklist(redisTemplate, mock(RedisConnectionFactory.class));
+        ReflectionTestUtils.setField(list, "maxEntries", 100);
+        return list;
+    }
+}
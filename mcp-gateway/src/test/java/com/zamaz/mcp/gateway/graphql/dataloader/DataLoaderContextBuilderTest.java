@@ -0,0 +1,81 @@
+package com.zamaz.mcp.gateway.graphql.dataloader;
+
+import graphql.kickstart.execution.context.GraphQLKickstartContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.websocket.Session;
+import jakarta.websocket.server.HandshakeRequest;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the per-request GraphQL context
+ */
+class DataLoaderContextBuilderTest {
+
+    private GraphQLDataLoaders dataLoaders;
+    private DataLoaderContextBuilder contextBuilder;
+
+    @BeforeEach
+    void setUp() {
+        dataLoaders = mock(GraphQLDataLoaders.class);
+        when(dataLoaders.newRegistry(any(), any())).thenAnswer(invocation -> new DataLoaderRegistry());
+        contextBuilder = new DataLoaderContextBuilder(dataLoaders);
+    }
+
+    @Test
+    void givesEveryRequestItsOwnRegistryAndCounter() {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+
+        GraphQLKickstartContext first = contextBuilder.build(request, mock(HttpServletResponse.class));
+        GraphQLKickstartContext second = contextBuilder.build(request, mock(HttpServletResponse.class));
+
+        assertThat(first.getDataLoaderRegistry()).isNotSameAs(second.getDataLoaderRegistry());
+        Object firstCounter = first.getMapOfContext().get(DownstreamCallCounter.class);
+        Object secondCounter = second.getMapOfContext().get(DownstreamCallCounter.class);
+        assertThat(firstCounter).isInstanceOf(DownstreamCallCounter.class);
+        assertThat(secondCounter).isInstanceOf(DownstreamCallCounter.class).isNotSameAs(firstCounter);
+    }
+
+    @Test
+    void passesTheCounterInTheContextToTheLoaders() {
+        GraphQLKickstartContext context = contextBuilder.build();
+
+        DownstreamCallCounter counter = (DownstreamCallCounter) context.getMapOfContext().get(DownstreamCallCounter.class);
+        verify(dataLoaders).newRegistry(eq(counter), isNull());
+    }
+
+    @Test
+    void forwardsTheHttpAuthorizationHeader() {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer http-token");
+
+        contextBuilder.build(request, mock(HttpServletResponse.class));
+
+        verify(dataLoaders).newRegistry(any(), eq("Bearer http-token"));
+    }
+
+    @Test
+    void forwardsTheWebSocketHandshakeAuthorizationHeader() {
+        HandshakeRequest handshakeRequest = mock(HandshakeRequest.class);
+        when(handshakeRequest.getHeaders())
+            .thenReturn(Map.of(HttpHeaders.AUTHORIZATION, List.of("Bearer ws-token")));
+
+        contextBuilder.build(mock(Session.class), handshakeRequest);
+
+        verify(dataLoaders).newRegistry(any(), eq("Bearer ws-token"));
+    }
+}
@@ -0,0 +1,141 @@
+package com.zamaz.mcp.gateway.graphql.dataloader;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zamaz.mcp.gateway.graphql.instrumentation.MetricsInstrumentation;
+import com.zamaz.mcp.gateway.graphql.model.ArgumentConnection;
+import com.zamaz.mcp.gateway.graphql.model.ArgumentType;
+import com.zamaz.mcp.gateway.graphql.model.DebateStats;
+import com.zamaz.mcp.gateway.graphql.model.UserConnection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the downstream requests of the GraphQL batch client
+ */
+class DownstreamGraphQLBatchClientTest {
+
+    private static final String DEBATE = """
+        {"id": "%s", "organizationId": "org-1", "title": "Debate", "status": "IN_PROGRESS",
+         "participantCount": 2,
+         "participants": [
+           {"id": "p-1", "name": "Pro", "createdAt": "2024-01-01T10:00:00"},
+           {"id": "p-2", "name": "Con", "createdAt": "2024-01-01T10:00:00"}]}
+        """;
+
+    private static final String ROUNDS = """
+        [{"roundNumber": 1, "responses": [
+           {"id": "r-1", "participantId": "p-1", "content": "abcd", "createdAt": "2024-01-01T10:01:00"},
+           {"id": "r-2", "participantId": "p-2", "content": "ab", "createdAt": "2024-01-01T10:02:00"}]},
+         {"roundNumber": 2, "responses": [
+           {"id": "r-3", "participantId": "p-2", "content": "abcdef", "createdAt": "2024-01-01T10:03:00"}]}]
+        """;
+
+    private final List<ClientRequest> requests = new CopyOnWriteArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private DownstreamCallCounter counter;
+    private GraphQLBatchClient client;
+
+    @BeforeEach
+    void setUp() {
+        WebClient.Builder webClientBuilder = WebClient.builder().exchangeFunction(request -> {
+            requests.add(request);
+            String path = request.url().getPath();
+            if (path.endsWith("/missing")) {
+                return Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND).build());
+            }
+            if (path.endsWith("/broken")) {
+                return Mono.just(ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).build());
+            }
+            String body = path.endsWith("/rounds")
+                ? ROUNDS : DEBATE.formatted(path.substring(path.lastIndexOf('/') + 1));
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build());
+        });
+
+        meterRegistry = new SimpleMeterRegistry();
+        counter = new DownstreamCallCounter();
+        client = new DownstreamGraphQLBatchClient(webClientBuilder, new ObjectMapper().findAndRegisterModules(),
+            new MetricsInstrumentation(meterRegistry), "http://organization", "http://controller",
+            4, Duration.ofSeconds(5))
+            .forRequest("Bearer token", counter);
+    }
+
+    @Test
+    void fetchesParticipantsWithOneRequestPerDebate() {
+        Map<String, UserConnection> participants =
+            client.getDebateParticipants(Set.of("debate-1", "debate-2", "missing"), 1, null).join();
+
+        assertThat(participants).containsOnlyKeys("debate-1", "debate-2");
+        UserConnection connection = participants.get("debate-1");
+        assertThat(connection.getTotalCount()).isEqualTo(2);
+        assertThat(connection.getEdges()).hasSize(1);
+        assertThat(connection.getEdges().get(0).getNode().getName()).isEqualTo("Pro");
+        assertThat(connection.getPageInfo().isHasNextPage()).isTrue();
+
+        assertThat(counter.getCalls()).isEqualTo(3);
+        assertThat(meterRegistry.get("graphql.downstream.calls").tag("loader", GraphQLDataLoaders.DEBATE_PARTICIPANTS)
+            .counter().count()).isEqualTo(3);
+        assertThat(requests).allSatisfy(request ->
+            assertThat(request.headers().getFirst(HttpHeaders.AUTHORIZATION)).isEqualTo("Bearer token"));
+    }
+
+    @Test
+    void mapsRoundResponsesToArguments() {
+        ArgumentConnection openings =
+            client.getDebateArguments(Set.of("debate-1"), 10, null, ArgumentType.OPENING, null).join().get("debate-1");
+
+        assertThat(openings.getTotalCount()).isEqualTo(2);
+        assertThat(openings.getEdges()).extracting(edge -> edge.getNode().getId()).containsExactly("r-1", "r-2");
+        assertThat(counter.getCalls()).isEqualTo(1);
+    }
+
+    @Test
+    void derivesStatsFromTheDebateAndItsRounds() {
+        DebateStats stats = client.getDebateStats(Set.of("debate-1")).join().get("debate-1");
+
+        assertThat(stats.getParticipantCount()).isEqualTo(2);
+        assertThat(stats.getArgumentCount()).isEqualTo(3);
+        assertThat(stats.getAverageArgumentLength()).isEqualTo(4.0);
+        assertThat(stats.getTopContributors()).extracting("id").containsExactly("p-2", "p-1");
+        assertThat(counter.getCalls()).isEqualTo(2);
+    }
+
+    @Test
+    void failsTheBatchWhenADownstreamRequestFails() {
+        assertThatThrownBy(() -> client.getDebateParticipants(Set.of("broken"), 10, null).join())
+            .isInstanceOf(CompletionException.class)
+            .hasMessageContaining(GraphQLDataLoaders.DEBATE_PARTICIPANTS);
+    }
+
+    @Test
+    void failsRelationshipsWithoutABackingServiceWithoutAnyRequest() {
+        assertThatThrownBy(() -> client.getDebateVotes(Set.of("debate-1"), 10, null, null).join())
+            .hasCauseInstanceOf(UnsupportedOperationException.class)
+            .hasMessageContaining("Debate.votes");
+        assertThatThrownBy(() -> client.getUserProfiles(Set.of("user-1")).join())
+            .hasCauseInstanceOf(UnsupportedOperationException.class);
+
+        assertThat(requests).isEmpty();
+        assertThat(counter.getCalls()).isZero();
+    }
+}
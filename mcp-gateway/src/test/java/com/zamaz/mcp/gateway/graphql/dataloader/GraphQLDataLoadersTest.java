@@ -0,0 +1,96 @@
+package com.zamaz.mcp.gateway.graphql.dataloader;
+
+import com.zamaz.mcp.gateway.graphql.instrumentation.MetricsInstrumentation;
+import com.zamaz.mcp.gateway.graphql.model.DebateConnection;
+import com.zamaz.mcp.gateway.graphql.model.Organization;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for batching of the request-scoped GraphQL data loaders
+ */
+class GraphQLDataLoadersTest {
+
+    private GraphQLBatchClient batchClient;
+    private GraphQLDataLoaders dataLoaders;
+
+    @BeforeEach
+    void setUp() {
+        batchClient = mock(GraphQLBatchClient.class);
+        when(batchClient.forRequest(any(), any())).thenReturn(batchClient);
+        dataLoaders = new GraphQLDataLoaders(batchClient, new MetricsInstrumentation(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void batchesConnectionKeysPerDistinctArguments() {
+        DebateConnection firstTen = mock(DebateConnection.class);
+        DebateConnection firstFive = mock(DebateConnection.class);
+        when(batchClient.getOrganizationDebates(eq(Set.of("org-1", "org-2")), eq(10), isNull(), isNull()))
+            .thenReturn(CompletableFuture.completedFuture(Map.of("org-1", firstTen)));
+        when(batchClient.getOrganizationDebates(eq(Set.of("org-1")), eq(5), isNull(), isNull()))
+            .thenReturn(CompletableFuture.completedFuture(Map.of("org-1", firstFive)));
+
+        DownstreamCallCounter counter = new DownstreamCallCounter();
+        DataLoaderRegistry registry = dataLoaders.newRegistry(counter, null);
+        DataLoader<ConnectionKey, DebateConnection> loader =
+            registry.getDataLoader(GraphQLDataLoaders.ORGANIZATION_DEBATES);
+
+        CompletableFuture<DebateConnection> org1Ten = loader.load(new ConnectionKey("org-1", Map.of("first", 10)));
+        CompletableFuture<DebateConnection> org2Ten = loader.load(new ConnectionKey("org-2", Map.of("first", 10)));
+        CompletableFuture<DebateConnection> org1Five = loader.load(new ConnectionKey("org-1", Map.of("first", 5)));
+        registry.dispatchAll();
+
+        assertThat(org1Ten.join()).isSameAs(firstTen);
+        assertThat(org2Ten.join()).isNull();
+        assertThat(org1Five.join()).isSameAs(firstFive);
+        verify(batchClient, times(2)).getOrganizationDebates(anySet(), any(), any(), any());
+        assertThat(counter.getKeys()).isEqualTo(3);
+    }
+
+    @Test
+    void fetchesEachParentOnceAcrossLoads() {
+        Organization organization = mock(Organization.class);
+        when(batchClient.getDebateOrganizations(Set.of("debate-1", "debate-2")))
+            .thenReturn(CompletableFuture.completedFuture(Map.of("debate-1", organization, "debate-2", organization)));
+
+        DownstreamCallCounter counter = new DownstreamCallCounter();
+        DataLoaderRegistry registry = dataLoaders.newRegistry(counter, null);
+        DataLoader<String, Organization> loader = registry.getDataLoader(GraphQLDataLoaders.DEBATE_ORGANIZATION);
+
+        CompletableFuture<Organization> first = loader.load("debate-1");
+        CompletableFuture<Organization> second = loader.load("debate-2");
+        CompletableFuture<Organization> repeated = loader.load("debate-1");
+        registry.dispatchAll();
+
+        assertThat(first.join()).isSameAs(organization);
+        assertThat(second.join()).isSameAs(organization);
+        assertThat(repeated.join()).isSameAs(organization);
+        verify(batchClient).getDebateOrganizations(anySet());
+        assertThat(counter.getKeys()).isEqualTo(2);
+    }
+
+    @Test
+    void bindsTheBatchClientToTheRequest() {
+        DownstreamCallCounter counter = new DownstreamCallCounter();
+        dataLoaders.newRegistry(counter, "Bearer token");
+
+        verify(batchClient).forRequest("Bearer token", counter);
+    }
+}
@@ -0,0 +1,114 @@
+package com.zamaz.mcp.gateway.graphql.execution;
+
+import graphql.ExecutionInput;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import graphql.parser.Parser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the GraphQL document cache and automatic persisted queries
+ */
+class CachingPreparsedDocumentProviderTest {
+
+    private static final String QUERY = "{ debates { edges { node { id } } } }";
+
+    private CachingPreparsedDocumentProvider provider;
+    private AtomicInteger parses;
+    private Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate;
+
+    @BeforeEach
+    void setUp() {
+        provider = new CachingPreparsedDocumentProvider(new SimpleMeterRegistry(), 100);
+        parses = new AtomicInteger();
+        parseAndValidate = input -> {
+            parses.incrementAndGet();
+            return new PreparsedDocumentEntry(Parser.parse(input.getQuery()));
+        };
+    }
+
+    @Test
+    void reportsUnknownHashAsNotFound() {
+        PreparsedDocumentEntry entry = provider.getDocument(hashOnly(sha256(QUERY)), parseAndValidate);
+
+        assertError(entry, CachingPreparsedDocumentProvider.PERSISTED_QUERY_NOT_FOUND);
+        assertThat(parses).hasValue(0);
+    }
+
+    @Test
+    void servesRegisteredQueryByHashWithoutParsingAgain() {
+        String hash = sha256(QUERY);
+        assertError(provider.getDocument(hashOnly(hash), parseAndValidate),
+            CachingPreparsedDocumentProvider.PERSISTED_QUERY_NOT_FOUND);
+
+        // The client retries with the full query, which registers it under its hash
+        PreparsedDocumentEntry registered = provider.getDocument(withHash(QUERY, hash), parseAndValidate);
+        PreparsedDocumentEntry byHash = provider.getDocument(hashOnly(hash.toUpperCase()), parseAndValidate);
+
+        assertThat(registered.hasErrors()).isFalse();
+        assertThat(byHash).isSameAs(registered);
+        assertThat(parses).hasValue(1);
+    }
+
+    @Test
+    void rejectsQueryThatDoesNotMatchItsHash() {
+        PreparsedDocumentEntry entry = provider.getDocument(withHash(QUERY, sha256("{ other }")), parseAndValidate);
+
+        assertError(entry, CachingPreparsedDocumentProvider.PERSISTED_QUERY_HASH_MISMATCH);
+        assertThat(parses).hasValue(0);
+    }
+
+    @Test
+    void doesNotRegisterInvalidQueries() {
+        String hash = sha256(QUERY);
+        Function<ExecutionInput, PreparsedDocumentEntry> invalid = input -> new PreparsedDocumentEntry(
+            GraphqlErrorBuilder.newError().message("Validation error").build());
+
+        provider.getDocument(withHash(QUERY, hash), invalid);
+
+        assertError(provider.getDocument(hashOnly(hash), parseAndValidate),
+            CachingPreparsedDocumentProvider.PERSISTED_QUERY_NOT_FOUND);
+    }
+
+    @Test
+    void cachesDocumentsByQueryText() {
+        PreparsedDocumentEntry first = provider.getDocument(query(QUERY), parseAndValidate);
+        PreparsedDocumentEntry second = provider.getDocument(query(QUERY), parseAndValidate);
+
+        assertThat(second).isSameAs(first);
+        assertThat(parses).hasValue(1);
+    }
+
+    private static ExecutionInput query(String query) {
+        return ExecutionInput.newExecutionInput(query).build();
+    }
+
+    private static ExecutionInput hashOnly(String hash) {
+        return withHash(PersistedQuerySupport.PERSISTED_QUERY_MARKER, hash);
+    }
+
+    private static ExecutionInput withHash(String query, String hash) {
+        return ExecutionInput.newExecutionInput(query)
+            .extensions(Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", hash)))
+            .build();
+    }
+
+    private static String sha256(String query) {
+        return CachingPreparsedDocumentProvider.sha256(query);
+    }
+
+    private static void assertError(PreparsedDocumentEntry entry, String message) {
+        assertThat(entry.hasErrors()).isTrue();
+        assertThat(entry.getErrors()).singleElement()
+            .satisfies(error -> assertThat(error.getMessage()).isEqualTo(message));
+    }
+}
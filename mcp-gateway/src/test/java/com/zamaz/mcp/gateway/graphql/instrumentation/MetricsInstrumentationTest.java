@@ -0,0 +1,60 @@
+package com.zamaz.mcp.gateway.graphql.instrumentation;
+
+import com.zamaz.mcp.gateway.graphql.dataloader.DownstreamCallCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the data loader metrics of the GraphQL instrumentation
+ */
+class MetricsInstrumentationTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MetricsInstrumentation instrumentation;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        instrumentation = new MetricsInstrumentation(meterRegistry);
+    }
+
+    @Test
+    void recordsDownstreamCallsAndBatchSizesPerLoader() {
+        instrumentation.recordDownstreamCall("debateOrganization");
+        instrumentation.recordDownstreamCall("debateOrganization");
+        instrumentation.recordDownstreamCall("userProfile");
+        instrumentation.recordBatch("debateOrganization", 25);
+        instrumentation.recordBatch("debateOrganization", 5);
+
+        assertThat(meterRegistry.get("graphql.downstream.calls").tag("loader", "debateOrganization").counter().count())
+            .isEqualTo(2);
+        assertThat(meterRegistry.get("graphql.downstream.calls").tag("loader", "userProfile").counter().count())
+            .isEqualTo(1);
+
+        DistributionSummary batchSize = meterRegistry.get("graphql.dataloader.batch.size")
+            .tag("loader", "debateOrganization").summary();
+        assertThat(batchSize.count()).isEqualTo(2);
+        assertThat(batchSize.totalAmount()).isEqualTo(30);
+        assertThat(batchSize.max()).isEqualTo(25);
+    }
+
+    @Test
+    void recordsDownstreamCallsPerExecution() {
+        DownstreamCallCounter counter = mock(DownstreamCallCounter.class);
+        when(counter.getCalls()).thenReturn(3);
+
+        instrumentation.recordExecutionDownstreamCalls("query", counter);
+        instrumentation.recordExecutionDownstreamCalls("query", counter);
+
+        DistributionSummary perExecution = meterRegistry.get("graphql.execution.downstream.calls")
+            .tag("type", "query").summary();
+        assertThat(perExecution.count()).isEqualTo(2);
+        assertThat(perExecution.totalAmount()).isEqualTo(6);
+    }
+}
@@ -0,0 +1,133 @@
+package com.zamaz.mcp.gateway.graphql.instrumentation;
+
+import graphql.language.Document;
+import graphql.language.FragmentDefinition;
+import graphql.language.OperationDefinition;
+import graphql.parser.Parser;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the static cost analysis of GraphQL operations
+ */
+class QueryCostAnalyzerTest {
+
+    static final String SCHEMA = """
+        directive @cost(weight: Int = 1, sizedBy: [String!] = ["first", "last", "limit"]) on FIELD_DEFINITION
+
+        type Query {
+            user(id: ID!): User
+            users(limit: Int): [User] @cost(weight: 3)
+            allUsers: [User]
+            debates(first: Int = 10): DebateConnection @cost(weight: 2)
+        }
+
+        type DebateConnection {
+            edges: [DebateEdge]
+            totalCount: Int
+        }
+
+        type DebateEdge {
+            node: Debate
+        }
+
+        type Debate {
+            id: ID
+            title: String
+            participants(first: Int): [User] @cost(weight: 5)
+        }
+
+        type User {
+            id: ID
+            name: String
+            friends: [User]
+        }
+        """;
+
+    static GraphQLSchema schema() {
+        return new SchemaGenerator().makeExecutableSchema(
+            new SchemaParser().parse(SCHEMA), RuntimeWiring.newRuntimeWiring().build());
+    }
+
+    private final GraphQLSchema schema = schema();
+    private final QueryCostAnalyzer analyzer = new QueryCostAnalyzer(10);
+
+    @Test
+    void costsObjectsOnceAndScalarsNothing() {
+        QueryCostAnalyzer.QueryCost cost = analyze("{ user(id: \"1\") { id name __typename } }", Map.of());
+
+        assertThat(cost.cost()).isEqualTo(1);
+        assertThat(cost.depth()).isEqualTo(2);
+        assertThat(cost.fieldCount()).isEqualTo(3);
+    }
+
+    @Test
+    void multipliesNestedFieldsByTheSizeOfTheListAboveThem() {
+        // users: 3, friends: 1 per user for 20 users
+        QueryCostAnalyzer.QueryCost cost = analyze("{ users(limit: 20) { friends { id } } }", Map.of());
+
+        assertThat(cost.cost()).isEqualTo(3 + 20);
+        assertThat(cost.depth()).isEqualTo(3);
+    }
+
+    @Test
+    void assumesTheDefaultSizeForUnboundedLists() {
+        // allUsers: 1, friends: 1 per user for 10 users, friends of friends: 1 per friend for 100 friends
+        QueryCostAnalyzer.QueryCost cost = analyze("{ allUsers { friends { friends { id } } } }", Map.of());
+
+        assertThat(cost.cost()).isEqualTo(1 + 10 + 100);
+    }
+
+    @Test
+    void readsSizesFromVariablesAndArgumentDefaults() {
+        QueryCostAnalyzer.QueryCost fromVariable = analyze(
+            "query($n: Int) { users(limit: $n) { friends { id } } }", Map.of("n", 4));
+        // debates: 2 with its default page of 10, edges and nodes: 1 each per debate
+        QueryCostAnalyzer.QueryCost fromDefault = analyze("{ debates { edges { node { id } } } }", Map.of());
+
+        assertThat(fromVariable.cost()).isEqualTo(3 + 4);
+        assertThat(fromDefault.cost()).isEqualTo(2 + 10 + 10);
+    }
+
+    @Test
+    void doesNotCountListsBelowAPagedConnectionTwice() {
+        // debates: 2, edges and nodes: 1 each per debate, participants: 5 per debate
+        QueryCostAnalyzer.QueryCost cost = analyze(
+            "{ debates(first: 5) { totalCount edges { node { participants(first: 2) { name } } } } }", Map.of());
+
+        assertThat(cost.cost()).isEqualTo(2 + 5 + 5 + 25);
+        assertThat(cost.depth()).isEqualTo(5);
+    }
+
+    @Test
+    void countsFragmentSelectionsAtTheirSpreadPosition() {
+        QueryCostAnalyzer.QueryCost cost = analyze(
+            "{ users(limit: 5) { ...withFriends } } fragment withFriends on User { friends { id } }", Map.of());
+
+        assertThat(cost.cost()).isEqualTo(3 + 5);
+    }
+
+    @Test
+    void saturatesInsteadOfOverflowing() {
+        assertThat(QueryCostAnalyzer.saturatedMultiply(Long.MAX_VALUE / 2, 3)).isEqualTo(Long.MAX_VALUE);
+        assertThat(QueryCostAnalyzer.saturatedAdd(Long.MAX_VALUE, 1)).isEqualTo(Long.MAX_VALUE);
+        assertThat(QueryCostAnalyzer.saturatedMultiply(6, 7)).isEqualTo(42);
+    }
+
+    private QueryCostAnalyzer.QueryCost analyze(String query, Map<String, Object> variables) {
+        Document document = Parser.parse(query);
+        OperationDefinition operation = document.getDefinitionsOfType(OperationDefinition.class).get(0);
+        Map<String, FragmentDefinition> fragments = document.getDefinitionsOfType(FragmentDefinition.class).stream()
+            .collect(Collectors.toMap(FragmentDefinition::getName, Function.identity()));
+        return analyzer.analyze(schema, operation, fragments, variables);
+    }
+}
@@ -0,0 +1,58 @@
+package com.zamaz.mcp.gateway.graphql.instrumentation;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for rejecting GraphQL operations over the cost budget
+ */
+class QueryCostInstrumentationTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private GraphQL graphQL;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        QueryCostInstrumentation instrumentation = new QueryCostInstrumentation(meterRegistry);
+        ReflectionTestUtils.setField(instrumentation, "maxCost", 50L);
+        ReflectionTestUtils.setField(instrumentation, "maxDepth", 4);
+        graphQL = GraphQL.newGraphQL(QueryCostAnalyzerTest.schema()).instrumentation(instrumentation).build();
+    }
+
+    @Test
+    void executesOperationsWithinTheBudget() {
+        ExecutionResult result = graphQL.execute("{ users(limit: 20) { friends { id } } }");
+
+        assertThat(result.getErrors()).isEmpty();
+        assertThat(meterRegistry.get("graphql.query.cost").tag("type", "query").summary().totalAmount())
+            .isEqualTo(23);
+    }
+
+    @Test
+    void rejectsOperationsAboveTheCostLimit() {
+        ExecutionResult result = graphQL.execute("{ users(limit: 100) { friends { id } } }");
+
+        assertThat(result.getErrors()).singleElement()
+            .satisfies(error -> assertThat(error.getMessage()).contains("Query cost 103 exceeds the maximum of 50"));
+        assertThat(result.<Object>getData()).isNull();
+        assertThat(meterRegistry.get("graphql.query.rejected").tag("reason", "cost").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void rejectsOperationsAboveTheDepthLimit() {
+        ExecutionResult result = graphQL.execute("{ user(id: \"1\") { friends { friends { friends { id } } } } }");
+
+        assertThat(result.getErrors()).singleElement()
+            .satisfies(error -> assertThat(error.getMessage()).contains("Query depth 5 exceeds the maximum of 4"));
+        assertThat(meterRegistry.get("graphql.query.rejected").tag("reason", "depth").counter().count())
+            .isEqualTo(1);
+    }
+}
@@ -1,5 +1,6 @@
 package com.zamaz.mcp.security.entity;
 
+import com.zamaz.mcp.security.service.PermissionChangeListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -30,6 +31,7 @@ import java.util.UUID;
         @Index(name = "idx_permissions_active", columnList = "isActive"),
         @Index(name = "idx_permissions_system", columnList = "isSystemPermission")
 })
+@EntityListeners(PermissionChangeListener.class)
 @Data
 @EqualsAndHashCode(exclude = { "rolePermissions", "userPermissions" })
 @ToString(exclude = { "rolePermissions", "userPermissions" })
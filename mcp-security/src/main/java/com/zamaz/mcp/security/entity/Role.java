@@ -1,5 +1,6 @@
 package com.zamaz.mcp.security.entity;
 
+import com.zamaz.mcp.security.service.PermissionChangeListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -27,6 +28,7 @@ import java.util.UUID;
         @Index(name = "idx_roles_system", columnList = "isSystemRole"),
         @Index(name = "idx_roles_hierarchy_level", columnList = "hierarchyLevel")
 })
+@EntityListeners(PermissionChangeListener.class)
 @Data
 @EqualsAndHashCode(exclude = { "parentRoles", "childRoles", "rolePermissions", "userRoles" })
 @ToString(exclude = { "parentRoles", "childRoles", "rolePermissions", "userRoles" })
@@ -1,5 +1,6 @@
 package com.zamaz.mcp.security.entity;
 
+import com.zamaz.mcp.security.service.PermissionChangeListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -21,6 +22,7 @@ import java.util.UUID;
         @Index(name = "idx_role_permissions_active", columnList = "isActive"),
         @Index(name = "idx_role_permissions_granted_by", columnList = "grantedBy")
 })
+@EntityListeners(PermissionChangeListener.class)
 @Data
 @EqualsAndHashCode(exclude = { "role", "permission" })
 @ToString(exclude = { "role", "permission" })
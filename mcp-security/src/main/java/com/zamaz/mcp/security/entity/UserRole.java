@@ -1,5 +1,6 @@
 package com.zamaz.mcp.security.entity;
 
+import com.zamaz.mcp.security.service.PermissionChangeListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -23,6 +24,7 @@ import java.util.UUID;
         @Index(name = "idx_user_roles_expires", columnList = "expiresAt"),
         @Index(name = "idx_user_roles_granted_by", columnList = "grantedBy")
 })
+@EntityListeners(PermissionChangeListener.class)
 @Data
 @EqualsAndHashCode(exclude = { "user", "role" })
 @ToString(exclude = { "user", "role" })
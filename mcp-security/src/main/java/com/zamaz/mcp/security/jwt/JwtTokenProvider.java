@@ -0,0 +1,83 @@
+package com.zamaz.mcp.security.jwt;
+
+import com.zamaz.mcp.security.exception.TokenValidationException;
+import com.zamaz.mcp.security.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Token validation for request authentication.
+ *
+ * The signature of a token is verified once; after that its claims come from the
+ * {@link VerifiedTokenCache} until the token expires. Revocation is checked on every call
+ * against the locally held revocation state, so authenticating a valid token that was seen
+ * before needs no cryptography and no network round-trip.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JwtTokenProvider {
+
+    private final JwtService jwtService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationService tokenRevocationService;
+
+    /**
+     * Check that the token is correctly signed, not expired and not revoked
+     */
+    public boolean validateToken(String token) {
+        return getVerifiedClaims(token) != null;
+    }
+
+    public String getUserIdFromToken(String token) {
+        return requireClaims(token).getSubject();
+    }
+
+    public String getOrganizationIdFromToken(String token) {
+        return requireClaims(token).get("organizationId", String.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<String> getRolesFromToken(String token) {
+        List<String> roles = (List<String>) requireClaims(token).get("roles");
+        return roles != null ? roles : List.of();
+    }
+
+    /**
+     * Claims of a valid token, or null if the token is invalid, expired or revoked
+     */
+    public Claims getVerifiedClaims(String token) {
+        Claims claims = verifiedTokenCache.get(token);
+        if (claims == null) {
+            try {
+                claims = jwtService.extractAllClaims(token);
+            } catch (Exception e) {
+                log.debug("Token validation failed: {}", e.getClass().getSimpleName());
+                return null;
+            }
+            if (claims.getExpiration() == null || claims.getExpiration().before(new Date())) {
+                return null;
+            }
+            verifiedTokenCache.put(token, claims);
+        }
+
+        if (tokenRevocationService.isRevoked(claims)) {
+            log.debug("Rejected revoked token for subject {}", claims.getSubject());
+            return null;
+        }
+        return claims;
+    }
+
+    private Claims requireClaims(String token) {
+        Claims claims = getVerifiedClaims(token);
+        if (claims == null) {
+            throw new TokenValidationException("Invalid JWT token");
+        }
+        return claims;
+    }
+}
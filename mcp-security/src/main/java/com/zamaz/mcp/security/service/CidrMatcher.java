@@ -0,0 +1,144 @@
+package com.zamaz.mcp.security.service;
+
+import java.net.InetAddress;
+import java.util.List;
+
+/**
+ * Pre-parsed set of allowed IP ranges, stored as a binary trie over address bits.
+ * Accepts single addresses, CIDR blocks for IPv4 and IPv6, and {@code *} for any address.
+ * Matching an address walks at most 32 or 128 nodes and does no allocation besides parsing.
+ */
+final class CidrMatcher {
+
+    private final Node ipv4 = new Node();
+    private final Node ipv6 = new Node();
+    private boolean matchesAll;
+
+    private CidrMatcher() {
+    }
+
+    /**
+     * Compile a list of ranges; entries that cannot be parsed are ignored
+     */
+    static CidrMatcher compile(List<String> ranges) {
+        CidrMatcher matcher = new CidrMatcher();
+        for (String range : ranges) {
+            matcher.add(range.trim());
+        }
+        return matcher;
+    }
+
+    boolean matches(String ip) {
+        if (matchesAll) {
+            return true;
+        }
+        byte[] address = parse(ip);
+        if (address == null) {
+            return false;
+        }
+
+        Node node = address.length == 4 ? ipv4 : ipv6;
+        for (int bit = 0; bit < address.length * 8; bit++) {
+            if (node.terminal) {
+                return true;
+            }
+            node = node.children[bitAt(address, bit)];
+            if (node == null) {
+                return false;
+            }
+        }
+        return node.terminal;
+    }
+
+    private void add(String range) {
+        if (range.equals("*")) {
+            matchesAll = true;
+            return;
+        }
+
+        int slash = range.indexOf('/');
+        byte[] address = parse(slash < 0 ? range : range.substring(0, slash));
+        if (address == null) {
+            return;
+        }
+
+        int prefixLength = address.length * 8;
+        if (slash >= 0) {
+            try {
+                prefixLength = Integer.parseInt(range.substring(slash + 1));
+            } catch (NumberFormatException e) {
+                return;
+            }
+            if (prefixLength < 0 || prefixLength > address.length * 8) {
+                return;
+            }
+        }
+
+        Node node = address.length == 4 ? ipv4 : ipv6;
+        for (int bit = 0; bit < prefixLength && !node.terminal; bit++) {
+            int branch = bitAt(address, bit);
+            if (node.children[branch] == null) {
+                node.children[branch] = new Node();
+            }
+            node = node.children[branch];
+        }
+        node.terminal = true;
+    }
+
+    private static int bitAt(byte[] address, int bit) {
+        return (address[bit >>> 3] >>> (7 - (bit & 7))) & 1;
+    }
+
+    /**
+     * Parse an IP literal without ever falling back to a DNS lookup
+     */
+    private static byte[] parse(String ip) {
+        if (ip == null || ip.isEmpty()) {
+            return null;
+        }
+        if (ip.indexOf(':') >= 0) {
+            for (int i = 0; i < ip.length(); i++) {
+                char c = ip.charAt(i);
+                boolean hex = (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+                if (!hex && c != ':' && c != '.') {
+                    return null;
+                }
+            }
+            try {
+                // Only hex digits, ':' and '.' reach here, which InetAddress treats as an IPv6
+                // literal and either parses or rejects without a lookup; IPv4-mapped addresses
+                // come back as IPv4
+                return InetAddress.getByName(ip).getAddress();
+            } catch (Exception e) {
+                return null;
+            }
+        }
+
+        byte[] address = new byte[4];
+        int part = 0;
+        int value = -1;
+        for (int i = 0; i <= ip.length(); i++) {
+            char c = i < ip.length() ? ip.charAt(i) : '.';
+            if (c == '.') {
+                if (value < 0 || part == 4) {
+                    return null;
+                }
+                address[part++] = (byte) value;
+                value = -1;
+            } else if (c >= '0' && c <= '9') {
+                value = (value < 0 ? 0 : value * 10) + (c - '0');
+                if (value > 255) {
+                    return null;
+                }
+            } else {
+                return null;
+            }
+        }
+        return part == 4 ? address : null;
+    }
+
+    private static final class Node {
+        private final Node[] children = new Node[2];
+        private boolean terminal;
+    }
+}
@@ -0,0 +1,269 @@
+package com.zamaz.mcp.security.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local copy of the revocation state held in Redis, so checking a valid token needs no
+ * network round-trip.
+ *
+ * Revoked token IDs go into a Bloom filter; a miss proves the token is not revoked and only a
+ * hit is confirmed against Redis. User- and client-wide revocations are few and are held
+ * exactly. Revocations are pushed incrementally over Redis pub/sub, and the full state is
+ * reloaded every time the subscription is established, so messages missed while disconnected
+ * are picked up once the container has recovered. Applications that enable scheduling also
+ * reload periodically. Until the first load has completed, callers must fall back to Redis.
+ */
+@Component
+public class LocalRevocationCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalRevocationCache.class);
+
+    static final String CHANNEL = "mcp:token-revocations";
+    static final String TOKEN = "token";
+    static final String USER = "user";
+    static final String CLIENT = "client";
+
+    // User and client revocations are stored in Redis for 24 hours
+    private static final Duration SCOPE_REVOCATION_TTL = Duration.ofHours(24);
+
+    @Autowired
+    private RedisTemplate<String, String> stringRedisTemplate;
+
+    @Autowired
+    private RedisConnectionFactory connectionFactory;
+
+    @Value("${security.revocation.local-cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${security.revocation.local-cache.expected-tokens:100000}")
+    private int expectedTokens = 100000;
+
+    @Value("${security.revocation.local-cache.false-positive-rate:0.001}")
+    private double falsePositiveRate = 0.001;
+
+    private volatile RevocationBloomFilter revokedTokens;
+    private final Map<String, Instant> revokedUsers = new ConcurrentHashMap<>();
+    private final Map<String, Instant> revokedClients = new ConcurrentHashMap<>();
+    private volatile Set<String> reloadBuffer;
+    private volatile boolean loaded;
+
+    private RedisMessageListenerContainer listenerContainer;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(connectionFactory);
+        listenerContainer.addMessageListener(new RevocationListener(), new ChannelTopic(CHANNEL));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+    }
+
+    /**
+     * Whether the local state can answer revocation checks on its own
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * False means the token ID is definitely not revoked; true must be confirmed in Redis
+     */
+    public boolean mightBeRevoked(String tokenId) {
+        RevocationBloomFilter filter = revokedTokens;
+        return filter == null || filter.mightContain(tokenId);
+    }
+
+    /**
+     * Time all tokens of the user issued before were revoked, or null
+     */
+    public Instant getUserRevokedAt(String userId) {
+        return activeRevocation(revokedUsers, userId);
+    }
+
+    /**
+     * Time all tokens of the client issued before were revoked, or null
+     */
+    public Instant getClientRevokedAt(String clientId) {
+        return activeRevocation(revokedClients, clientId);
+    }
+
+    /**
+     * Record a revocation locally and announce it to the other instances
+     */
+    public void publish(String scope, String id, Instant at) {
+        String message = scope + "\t" + id + "\t" + at.toEpochMilli();
+        apply(message);
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, message);
+        } catch (Exception e) {
+            logger.error("Failed to publish {} revocation; other instances pick it up on reload", scope, e);
+        }
+    }
+
+    /**
+     * Reload the full revocation state from Redis. Runs on every (re)subscription and, where
+     * scheduling is enabled, periodically
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.local-cache.reload-interval:300000}")
+    public synchronized void reload() {
+        if (!enabled) {
+            return;
+        }
+
+        Set<String> buffer = ConcurrentHashMap.newKeySet();
+        reloadBuffer = buffer;
+        try {
+            RevocationBloomFilter filter = new RevocationBloomFilter(expectedTokens, falsePositiveRate);
+            List<String> tokenKeys = scan(TokenRevocationService.REVOKED_TOKEN_PREFIX);
+            tokenKeys.forEach(key -> filter.add(key.substring(TokenRevocationService.REVOKED_TOKEN_PREFIX.length())));
+
+            // Revocations are never lifted before they expire, so scoped entries are only added here
+            loadScope(TokenRevocationService.REVOKED_USER_PREFIX)
+                .forEach((id, at) -> revokedUsers.merge(id, at, LocalRevocationCache::latest));
+            loadScope(TokenRevocationService.REVOKED_CLIENT_PREFIX)
+                .forEach((id, at) -> revokedClients.merge(id, at, LocalRevocationCache::latest));
+
+            // Token IDs published while the scan ran may have been missed by it
+            revokedTokens = filter;
+            buffer.forEach(filter::add);
+
+            loaded = true;
+            logger.debug("Reloaded revocation filter with {} token IDs", tokenKeys.size());
+            if (tokenKeys.size() > expectedTokens) {
+                logger.warn("{} revoked tokens exceed the expected {}, false positives will rise",
+                    tokenKeys.size(), expectedTokens);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to reload token revocations from Redis", e);
+        } finally {
+            reloadBuffer = null;
+        }
+    }
+
+    void apply(String message) {
+        String[] parts = message.split("\t");
+        if (parts.length != 3) {
+            logger.warn("Ignoring malformed revocation message");
+            return;
+        }
+
+        Instant at = Instant.ofEpochMilli(Long.parseLong(parts[2]));
+        switch (parts[0]) {
+            case TOKEN -> {
+                Set<String> buffer = reloadBuffer;
+                if (buffer != null) {
+                    buffer.add(parts[1]);
+                }
+                RevocationBloomFilter filter = revokedTokens;
+                if (filter != null) {
+                    filter.add(parts[1]);
+                }
+            }
+            case USER -> revokedUsers.merge(parts[1], at, LocalRevocationCache::latest);
+            case CLIENT -> revokedClients.merge(parts[1], at, LocalRevocationCache::latest);
+            default -> logger.warn("Ignoring revocation message with unknown scope {}", parts[0]);
+        }
+    }
+
+    /**
+     * Applies published revocations, and reloads once the subscription is in place: after
+     * subscribing no revocation can fall between the snapshot and the stream, and after a
+     * reconnect the reload picks up what was published while disconnected
+     */
+    final class RevocationListener implements MessageListener, SubscriptionListener {
+
+        @Override
+        public void onMessage(Message message, byte[] pattern) {
+            apply(new String(message.getBody(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void onChannelSubscribed(byte[] channel, long count) {
+            reload();
+        }
+    }
+
+    private static Instant latest(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private Instant activeRevocation(Map<String, Instant> revocations, String id) {
+        Instant revokedAt = revocations.get(id);
+        if (revokedAt != null && revokedAt.isBefore(Instant.now().minus(SCOPE_REVOCATION_TTL))) {
+            revocations.remove(id, revokedAt);
+            return null;
+        }
+        return revokedAt;
+    }
+
+    private Map<String, Instant> loadScope(String prefix) {
+        List<String> keys = scan(prefix);
+        Map<String, Instant> revocations = new ConcurrentHashMap<>();
+        if (keys.isEmpty()) {
+            return revocations;
+        }
+
+        List<String> values = stringRedisTemplate.opsForValue().multiGet(keys);
+        for (int i = 0; i < keys.size(); i++) {
+            String value = values != null ? values.get(i) : null;
+            if (value == null) {
+                continue;
+            }
+            try {
+                revocations.put(keys.get(i).substring(prefix.length()), Instant.parse(value));
+            } catch (Exception e) {
+                // Unparseable timestamps revoke everything, as in TokenRevocationService
+                revocations.put(keys.get(i).substring(prefix.length()), Instant.MAX);
+            }
+        }
+        return revocations;
+    }
+
+    private List<String> scan(String prefix) {
+        return stringRedisTemplate.execute((RedisCallback<List<String>>) connection -> {
+            List<String> keys = new ArrayList<>();
+            ScanOptions options = ScanOptions.scanOptions().match(prefix + "*").count(1000).build();
+            try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+                cursor.forEachRemaining(key -> keys.add(new String(key, StandardCharsets.UTF_8)));
+            }
+            return keys;
+        });
+    }
+}
@@ -0,0 +1,47 @@
+package com.zamaz.mcp.security.service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA listener on roles, permissions and their assignments that bumps the permission
+ * version once a write to one of them commits, invalidating cached decisions.
+ * Bumping before the commit would let a concurrent check cache a decision computed from
+ * the old, still visible rows under the new version.
+ * Hibernate obtains it from the Spring context, so it can be injected like any other bean.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PermissionChangeListener {
+
+    private final PermissionDecisionCache decisionCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        String entityName = entity.getClass().getSimpleName();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(entityName);
+                }
+            });
+        } else {
+            invalidate(entityName);
+        }
+    }
+
+    private void invalidate(String entityName) {
+        log.debug("{} changed, invalidating permission decisions", entityName);
+        decisionCache.invalidate();
+    }
+}
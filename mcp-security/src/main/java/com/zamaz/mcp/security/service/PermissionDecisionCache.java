@@ -0,0 +1,103 @@
+package com.zamaz.mcp.security.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local cache of permission decisions per principal and resource.
+ *
+ * Every decision is stored with the permission version it was computed under. Any change to
+ * roles, permissions or their assignments bumps the version, which invalidates all cached
+ * decisions at once. Entries also expire after a short TTL, which bounds how long decisions
+ * from conditions that depend on the clock, or changes made on another instance, can be stale.
+ */
+@Component
+@Slf4j
+public class PermissionDecisionCache {
+
+    private final Map<DecisionKey, Decision> decisions = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    @Value("${security.permissions.decision-cache.ttl-ms:30000}")
+    private long ttlMillis = 30000;
+
+    @Value("${security.permissions.decision-cache.max-entries:100000}")
+    private int maxEntries = 100000;
+
+    /**
+     * Version to pass to {@link #put} for a decision that is about to be computed
+     */
+    public long currentVersion() {
+        return version.get();
+    }
+
+    /**
+     * Cached decision, or null if there is none for the current permission version
+     */
+    public Boolean get(DecisionKey key) {
+        Decision decision = decisions.get(key);
+        if (decision == null) {
+            return null;
+        }
+        if (decision.version() != version.get() || decision.expiresAt() <= System.currentTimeMillis()) {
+            decisions.remove(key, decision);
+            return null;
+        }
+        return decision.granted();
+    }
+
+    /**
+     * Cache a decision unless permissions changed while it was being computed
+     */
+    public void put(DecisionKey key, boolean granted, long computedAtVersion) {
+        if (computedAtVersion != version.get()) {
+            return;
+        }
+        if (decisions.size() >= maxEntries) {
+            evict();
+        }
+        decisions.put(key, new Decision(granted, computedAtVersion, System.currentTimeMillis() + ttlMillis));
+    }
+
+    /**
+     * Invalidate all cached decisions after a role or permission change
+     */
+    public void invalidate() {
+        long newVersion = version.incrementAndGet();
+        decisions.clear();
+        log.debug("Permission version bumped to {}", newVersion);
+    }
+
+    public int size() {
+        return decisions.size();
+    }
+
+    private void evict() {
+        long now = System.currentTimeMillis();
+        long currentVersion = version.get();
+        decisions.values().removeIf(decision -> decision.version() != currentVersion || decision.expiresAt() <= now);
+
+        int target = (int) (maxEntries * 0.9);
+        Iterator<DecisionKey> keys = decisions.keySet().iterator();
+        while (decisions.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    /**
+     * Principal and resource a decision applies to
+     */
+    public record DecisionKey(UUID userId, UUID organizationId, String resource, String action, String resourceId) {
+    }
+
+    private record Decision(boolean granted, long version, long expiresAt) {
+    }
+}
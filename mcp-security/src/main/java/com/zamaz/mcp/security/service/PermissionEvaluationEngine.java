@@ -8,60 +8,83 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
 
 /**
  * Permission evaluation engine that handles complex conditions and
  * attribute-based access control.
  * Supports SpEL expressions, time-based constraints, and environmental
  * conditions.
+ *
+ * Conditions are compiled once per permission and reused: SpEL expressions are parsed and
+ * compiled to bytecode, IP ranges become a CIDR trie, and JSON attribute rules become
+ * matchers with pre-compiled patterns. A compiled entry is rebuilt when the permission's
+ * condition definitions change.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class PermissionEvaluationEngine {
 
-    private final ExpressionParser expressionParser = new SpelExpressionParser();
+    private static final int MAX_COMPILED_PERMISSIONS = 10_000;
+
+    // MIXED rather than IMMEDIATE so expressions the compiler cannot handle keep working interpreted
+    private final ExpressionParser expressionParser = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, PermissionEvaluationEngine.class.getClassLoader()));
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<UUID, CompiledConditions> compiledConditions = new ConcurrentHashMap<>();
 
     /**
      * Evaluate all conditions for a permission against the given context.
      */
     public boolean evaluateConditions(Permission permission, PermissionService.PermissionContext context) {
         try {
+            CompiledConditions conditions = getCompiledConditions(permission);
+
             // Check time-based constraints
-            if (permission.getTimeBased() && !evaluateTimeConstraints(permission)) {
+            if (permission.getTimeBased() && !evaluateTimeConstraints(permission, conditions)) {
                 log.debug("Time constraints not met for permission: {}", permission.getId());
                 return false;
             }
 
             // Check IP restrictions
-            if (permission.getIpRestrictions() != null && !evaluateIpRestrictions(permission, context)) {
+            if (permission.getIpRestrictions() != null && !evaluateIpRestrictions(conditions, context)) {
                 log.debug("IP restrictions not met for permission: {}", permission.getId());
                 return false;
             }
 
             // Check location restrictions
-            if (permission.getLocationRestrictions() != null && !evaluateLocationRestrictions(permission, context)) {
+            if (permission.getLocationRestrictions() != null && !evaluateLocationRestrictions(conditions, context)) {
                 log.debug("Location restrictions not met for permission: {}", permission.getId());
                 return false;
             }
 
             // Check SpEL condition expression
-            if (permission.getConditionExpression() != null && !evaluateSpelExpression(permission, context)) {
+            if (permission.getConditionExpression() != null && !evaluateSpelExpression(conditions, context)) {
                 log.debug("SpEL condition not met for permission: {}", permission.getId());
                 return false;
             }
 
             // Check attribute-based conditions
-            if (!evaluateAttributeConditions(permission, context)) {
+            if (!evaluateAttributeConditions(conditions, context)) {
                 log.debug("Attribute conditions not met for permission: {}", permission.getId());
                 return false;
             }
@@ -76,141 +99,203 @@ public class PermissionEvaluationEngine {
     }
 
     /**
-     * Evaluate time-based constraints.
+     * Compiled conditions of a permission, rebuilt when its condition definitions change.
      */
-    private boolean evaluateTimeConstraints(Permission permission) {
-        LocalDateTime now = LocalDateTime.now();
+    private CompiledConditions getCompiledConditions(Permission permission) {
+        UUID id = permission.getId();
+        if (id == null) {
+            return compile(permission);
+        }
 
-        // Check validity period
-        if (permission.getValidFrom() != null && now.isBefore(permission.getValidFrom())) {
-            return false;
+        CompiledConditions conditions = compiledConditions.get(id);
+        if (conditions == null || !conditions.isCompiledFrom(permission)) {
+            if (compiledConditions.size() >= MAX_COMPILED_PERMISSIONS) {
+                compiledConditions.clear();
+            }
+            conditions = compile(permission);
+            compiledConditions.put(id, conditions);
         }
+        return conditions;
+    }
 
-        if (permission.getValidUntil() != null && now.isAfter(permission.getValidUntil())) {
-            return false;
+    private CompiledConditions compile(Permission permission) {
+        return new CompiledConditions(
+                permission.getConditionExpression(),
+                permission.getIpRestrictions(),
+                permission.getLocationRestrictions(),
+                permission.getSubjectAttributes(),
+                permission.getResourceAttributes(),
+                permission.getEnvironmentAttributes(),
+                permission.getDaysOfWeek(),
+                permission.getHoursOfDay(),
+                compileExpression(permission.getConditionExpression()),
+                compileIpRestrictions(permission.getIpRestrictions()),
+                compileLocationRestrictions(permission.getLocationRestrictions()),
+                compileAttributeRules(permission.getSubjectAttributes()),
+                compileAttributeRules(permission.getResourceAttributes()),
+                compileAttributeRules(permission.getEnvironmentAttributes()),
+                permission.getDaysOfWeek() != null ? permission.getDaysOfWeek().toUpperCase() : null,
+                compileHourRange(permission.getHoursOfDay()));
+    }
+
+    private Expression compileExpression(String conditionExpression) {
+        if (conditionExpression == null) {
+            return null;
+        }
+        try {
+            return expressionParser.parseExpression(conditionExpression);
+        } catch (Exception e) {
+            log.error("Invalid SpEL expression '{}': {}", conditionExpression, e.getMessage());
+            return null;
         }
+    }
 
-        // Check day of week constraints
-        if (permission.getDaysOfWeek() != null && !permission.getDaysOfWeek().isEmpty()) {
-            String currentDay = now.getDayOfWeek().name().substring(0, 3).toUpperCase();
-            if (!permission.getDaysOfWeek().toUpperCase().contains(currentDay)) {
-                return false;
-            }
+    private CidrMatcher compileIpRestrictions(String ipRestrictions) {
+        if (ipRestrictions == null) {
+            return null;
+        }
+        try {
+            return CidrMatcher.compile(objectMapper.readValue(ipRestrictions, new TypeReference<List<String>>() {
+            }));
+        } catch (Exception e) {
+            log.error("Invalid IP restrictions: {}", e.getMessage());
+            return null;
         }
+    }
 
-        // Check hour constraints
-        if (permission.getHoursOfDay() != null && !permission.getHoursOfDay().isEmpty()) {
-            return evaluateHourConstraints(permission.getHoursOfDay(), now.toLocalTime());
+    private Set<String> compileLocationRestrictions(String locationRestrictions) {
+        if (locationRestrictions == null) {
+            return null;
+        }
+        try {
+            return new HashSet<>(objectMapper.readValue(locationRestrictions, new TypeReference<List<String>>() {
+            }));
+        } catch (Exception e) {
+            log.error("Invalid location restrictions: {}", e.getMessage());
+            return null;
         }
+    }
 
-        return true;
+    private List<AttributeRule> compileAttributeRules(String attributes) {
+        if (attributes == null) {
+            return null;
+        }
+        try {
+            Map<String, Object> requiredAttributes = objectMapper.readValue(attributes,
+                    new TypeReference<Map<String, Object>>() {
+                    });
+            List<AttributeRule> rules = new ArrayList<>(requiredAttributes.size());
+            requiredAttributes.forEach((name, requiredValue) ->
+                    rules.add(new AttributeRule(name, compileAttributeMatcher(requiredValue))));
+            return rules;
+        } catch (Exception e) {
+            log.error("Invalid attribute conditions: {}", e.getMessage());
+            return null;
+        }
     }
 
     /**
-     * Evaluate hour constraints (e.g., "09:00-17:00").
+     * Hour range as start and end time, or null if the format is invalid.
      */
-    private boolean evaluateHourConstraints(String hoursOfDay, LocalTime currentTime) {
+    private LocalTime[] compileHourRange(String hoursOfDay) {
+        if (hoursOfDay == null || hoursOfDay.isEmpty()) {
+            return null;
+        }
         try {
             String[] parts = hoursOfDay.split("-");
             if (parts.length != 2) {
-                return true; // Invalid format, allow access
-            }
-
-            LocalTime startTime = LocalTime.parse(parts[0]);
-            LocalTime endTime = LocalTime.parse(parts[1]);
-
-            if (startTime.isBefore(endTime)) {
-                // Same day range
-                return !currentTime.isBefore(startTime) && !currentTime.isAfter(endTime);
-            } else {
-                // Overnight range (e.g., 22:00-06:00)
-                return !currentTime.isBefore(startTime) || !currentTime.isAfter(endTime);
+                return null;
             }
+            return new LocalTime[] { LocalTime.parse(parts[0]), LocalTime.parse(parts[1]) };
         } catch (Exception e) {
             log.warn("Invalid hour constraint format: {}", hoursOfDay);
-            return true; // Allow access on invalid format
+            return null;
         }
     }
 
     /**
-     * Evaluate IP restrictions.
+     * Evaluate time-based constraints.
      */
-    private boolean evaluateIpRestrictions(Permission permission, PermissionService.PermissionContext context) {
-        try {
-            String clientIp = (String) context.getEnvironmentContext().get("clientIp");
-            if (clientIp == null) {
-                return false; // No IP information available
-            }
-
-            List<String> allowedIpRanges = objectMapper.readValue(
-                    permission.getIpRestrictions(),
-                    new TypeReference<List<String>>() {
-                    });
+    private boolean evaluateTimeConstraints(Permission permission, CompiledConditions conditions) {
+        LocalDateTime now = LocalDateTime.now();
 
-            return allowedIpRanges.stream().anyMatch(range -> isIpInRange(clientIp, range));
+        // Check validity period
+        if (permission.getValidFrom() != null && now.isBefore(permission.getValidFrom())) {
+            return false;
+        }
 
-        } catch (Exception e) {
-            log.error("Error evaluating IP restrictions: {}", e.getMessage());
+        if (permission.getValidUntil() != null && now.isAfter(permission.getValidUntil())) {
             return false;
         }
+
+        // Check day of week constraints
+        if (conditions.daysOfWeek() != null && !conditions.daysOfWeek().isEmpty()) {
+            String currentDay = now.getDayOfWeek().name().substring(0, 3);
+            if (!conditions.daysOfWeek().contains(currentDay)) {
+                return false;
+            }
+        }
+
+        // Check hour constraints; an invalid format allows access
+        if (conditions.hourRange() != null) {
+            return evaluateHourConstraints(conditions.hourRange()[0], conditions.hourRange()[1], now.toLocalTime());
+        }
+
+        return true;
     }
 
     /**
-     * Check if IP is in the specified range.
+     * Evaluate hour constraints (e.g., "09:00-17:00").
      */
-    private boolean isIpInRange(String ip, String range) {
-        // Simplified IP range checking - would need proper CIDR implementation
-        if (range.equals("*") || range.equals(ip)) {
-            return true;
+    private boolean evaluateHourConstraints(LocalTime startTime, LocalTime endTime, LocalTime currentTime) {
+        if (startTime.isBefore(endTime)) {
+            // Same day range
+            return !currentTime.isBefore(startTime) && !currentTime.isAfter(endTime);
+        } else {
+            // Overnight range (e.g., 22:00-06:00)
+            return !currentTime.isBefore(startTime) || !currentTime.isAfter(endTime);
         }
+    }
 
-        if (range.contains("/")) {
-            // CIDR notation - simplified check
-            String[] parts = range.split("/");
-            String networkIp = parts[0];
-            // Would need proper CIDR calculation here
-            return ip.startsWith(networkIp.substring(0, networkIp.lastIndexOf(".")));
+    /**
+     * Evaluate IP restrictions.
+     */
+    private boolean evaluateIpRestrictions(CompiledConditions conditions, PermissionService.PermissionContext context) {
+        Object clientIp = context.getEnvironmentContext().get("clientIp");
+        if (!(clientIp instanceof String ip)) {
+            return false; // No IP information available
         }
-
-        return false;
+        return conditions.ipRestrictions() != null && conditions.ipRestrictions().matches(ip);
     }
 
     /**
      * Evaluate location restrictions.
      */
-    private boolean evaluateLocationRestrictions(Permission permission, PermissionService.PermissionContext context) {
-        try {
-            String userCountry = (String) context.getEnvironmentContext().get("country");
-            if (userCountry == null) {
-                return false; // No location information available
-            }
-
-            List<String> allowedCountries = objectMapper.readValue(
-                    permission.getLocationRestrictions(),
-                    new TypeReference<List<String>>() {
-                    });
-
-            return allowedCountries.contains("*") || allowedCountries.contains(userCountry);
-
-        } catch (Exception e) {
-            log.error("Error evaluating location restrictions: {}", e.getMessage());
-            return false;
+    private boolean evaluateLocationRestrictions(CompiledConditions conditions,
+            PermissionService.PermissionContext context) {
+        Object userCountry = context.getEnvironmentContext().get("country");
+        if (userCountry == null || conditions.locationRestrictions() == null) {
+            return false; // No location information available
         }
+        return conditions.locationRestrictions().contains("*")
+                || conditions.locationRestrictions().contains(userCountry);
     }
 
     /**
      * Evaluate SpEL expression conditions.
      */
-    private boolean evaluateSpelExpression(Permission permission, PermissionService.PermissionContext context) {
+    private boolean evaluateSpelExpression(CompiledConditions conditions, PermissionService.PermissionContext context) {
+        if (conditions.expression() == null) {
+            return false; // Expression failed to parse
+        }
         try {
-            Expression expression = expressionParser.parseExpression(permission.getConditionExpression());
             EvaluationContext evaluationContext = createEvaluationContext(context);
 
-            Object result = expression.getValue(evaluationContext);
+            Object result = conditions.expression().getValue(evaluationContext);
             return Boolean.TRUE.equals(result);
 
         } catch (Exception e) {
-            log.error("Error evaluating SpEL expression '{}': {}", permission.getConditionExpression(), e.getMessage());
+            log.error("Error evaluating SpEL expression '{}': {}", conditions.conditionExpression(), e.getMessage());
             return false;
         }
     }
@@ -246,20 +331,25 @@ public class PermissionEvaluationEngine {
     /**
      * Evaluate attribute-based conditions.
      */
-    private boolean evaluateAttributeConditions(Permission permission, PermissionService.PermissionContext context) {
+    private boolean evaluateAttributeConditions(CompiledConditions conditions,
+            PermissionService.PermissionContext context) {
         try {
             // Check subject attributes
-            if (permission.getSubjectAttributes() != null && !evaluateSubjectAttributes(permission, context)) {
+            if (conditions.subjectAttributes() != null
+                    && !matchesAll(conditions.subjectRules(), name -> context.getAttributes().get(name))) {
                 return false;
             }
 
-            // Check resource attributes
-            if (permission.getResourceAttributes() != null && !evaluateResourceAttributes(permission, context)) {
+            // Check resource attributes; these would typically be loaded from the resource itself
+            if (conditions.resourceAttributes() != null
+                    && !matchesAll(conditions.resourceRules(),
+                            name -> context.getAttributes().get("resource_" + name))) {
                 return false;
             }
 
             // Check environment attributes
-            if (permission.getEnvironmentAttributes() != null && !evaluateEnvironmentAttributes(permission, context)) {
+            if (conditions.environmentAttributes() != null
+                    && !matchesAll(conditions.environmentRules(), name -> context.getEnvironmentContext().get(name))) {
                 return false;
             }
 
@@ -272,106 +362,88 @@ public class PermissionEvaluationEngine {
     }
 
     /**
-     * Evaluate subject (user) attributes.
+     * Check all rules against the attribute values; rules that failed to compile never match.
      */
-    private boolean evaluateSubjectAttributes(Permission permission, PermissionService.PermissionContext context) {
-        try {
-            Map<String, Object> requiredAttributes = objectMapper.readValue(
-                    permission.getSubjectAttributes(),
-                    new TypeReference<Map<String, Object>>() {
-                    });
-
-            return requiredAttributes.entrySet().stream()
-                    .allMatch(entry -> {
-                        Object userValue = context.getAttributes().get(entry.getKey());
-                        return matchesAttributeValue(userValue, entry.getValue());
-                    });
-
-        } catch (Exception e) {
-            log.error("Error evaluating subject attributes: {}", e.getMessage());
+    private boolean matchesAll(List<AttributeRule> rules, Function<String, Object> values) {
+        if (rules == null) {
             return false;
         }
-    }
-
-    /**
-     * Evaluate resource attributes.
-     */
-    private boolean evaluateResourceAttributes(Permission permission, PermissionService.PermissionContext context) {
-        try {
-            Map<String, Object> requiredAttributes = objectMapper.readValue(
-                    permission.getResourceAttributes(),
-                    new TypeReference<Map<String, Object>>() {
-                    });
-
-            // Resource attributes would typically be loaded from the resource itself
-            // This is a simplified implementation
-            return requiredAttributes.entrySet().stream()
-                    .allMatch(entry -> {
-                        Object resourceValue = context.getAttributes().get("resource_" + entry.getKey());
-                        return matchesAttributeValue(resourceValue, entry.getValue());
-                    });
-
-        } catch (Exception e) {
-            log.error("Error evaluating resource attributes: {}", e.getMessage());
-            return false;
-        }
-    }
-
-    /**
-     * Evaluate environment attributes.
-     */
-    private boolean evaluateEnvironmentAttributes(Permission permission, PermissionService.PermissionContext context) {
-        try {
-            Map<String, Object> requiredAttributes = objectMapper.readValue(
-                    permission.getEnvironmentAttributes(),
-                    new TypeReference<Map<String, Object>>() {
-                    });
-
-            return requiredAttributes.entrySet().stream()
-                    .allMatch(entry -> {
-                        Object envValue = context.getEnvironmentContext().get(entry.getKey());
-                        return matchesAttributeValue(envValue, entry.getValue());
-                    });
-
-        } catch (Exception e) {
-            log.error("Error evaluating environment attributes: {}", e.getMessage());
-            return false;
+        for (AttributeRule rule : rules) {
+            if (!rule.matcher().test(values.apply(rule.name()))) {
+                return false;
+            }
         }
+        return true;
     }
 
     /**
-     * Check if an attribute value matches the required value.
+     * Compile the matcher for one required attribute value.
      */
-    private boolean matchesAttributeValue(Object actualValue, Object requiredValue) {
-        if (actualValue == null && requiredValue == null) {
-            return true;
-        }
-
-        if (actualValue == null || requiredValue == null) {
-            return false;
+    private Predicate<Object> compileAttributeMatcher(Object requiredValue) {
+        if (requiredValue == null) {
+            return Objects::isNull;
         }
 
         // Handle different comparison types
-        if (requiredValue instanceof Map) {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> condition = (Map<String, Object>) requiredValue;
-
+        if (requiredValue instanceof Map<?, ?> condition) {
             if (condition.containsKey("equals")) {
-                return actualValue.equals(condition.get("equals"));
+                Object expected = condition.get("equals");
+                return actualValue -> actualValue != null && actualValue.equals(expected);
             }
 
             if (condition.containsKey("in")) {
-                @SuppressWarnings("unchecked")
-                List<Object> values = (List<Object>) condition.get("in");
-                return values.contains(actualValue);
+                List<?> values = (List<?>) condition.get("in");
+                return actualValue -> actualValue != null && values.contains(actualValue);
             }
 
             if (condition.containsKey("regex")) {
-                String pattern = (String) condition.get("regex");
-                return actualValue.toString().matches(pattern);
+                try {
+                    Pattern pattern = Pattern.compile((String) condition.get("regex"));
+                    return actualValue -> actualValue != null && pattern.matcher(actualValue.toString()).matches();
+                } catch (Exception e) {
+                    log.error("Invalid attribute pattern: {}", e.getMessage());
+                    return actualValue -> false;
+                }
             }
         }
 
-        return actualValue.equals(requiredValue);
+        return actualValue -> actualValue != null && actualValue.equals(requiredValue);
+    }
+
+    private record AttributeRule(String name, Predicate<Object> matcher) {
+    }
+
+    /**
+     * Conditions of a permission in compiled form, together with the definitions they came from.
+     * A null compiled form for a non-null definition means the definition is invalid.
+     */
+    private record CompiledConditions(
+            String conditionExpression,
+            String ipDefinition,
+            String locationDefinition,
+            String subjectAttributes,
+            String resourceAttributes,
+            String environmentAttributes,
+            String daysDefinition,
+            String hoursDefinition,
+            Expression expression,
+            CidrMatcher ipRestrictions,
+            Set<String> locationRestrictions,
+            List<AttributeRule> subjectRules,
+            List<AttributeRule> resourceRules,
+            List<AttributeRule> environmentRules,
+            String daysOfWeek,
+            LocalTime[] hourRange) {
+
+        boolean isCompiledFrom(Permission permission) {
+            return Objects.equals(conditionExpression, permission.getConditionExpression())
+                    && Objects.equals(ipDefinition, permission.getIpRestrictions())
+                    && Objects.equals(locationDefinition, permission.getLocationRestrictions())
+                    && Objects.equals(subjectAttributes, permission.getSubjectAttributes())
+                    && Objects.equals(resourceAttributes, permission.getResourceAttributes())
+                    && Objects.equals(environmentAttributes, permission.getEnvironmentAttributes())
+                    && Objects.equals(daysDefinition, permission.getDaysOfWeek())
+                    && Objects.equals(hoursDefinition, permission.getHoursOfDay());
+        }
     }
-}
\ No newline at end of file
+}
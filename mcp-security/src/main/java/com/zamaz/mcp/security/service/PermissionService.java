@@ -29,23 +29,31 @@ public class PermissionService {
     private final UserRoleRepository userRoleRepository;
     private final UserPermissionRepository userPermissionRepository;
     private final PermissionEvaluationEngine permissionEvaluationEngine;
+    private final PermissionDecisionCache decisionCache;
 
     /**
      * Check if user has permission for a resource and action.
      */
-    @Cacheable(value = "permissions", key = "#userId + ':' + #organizationId + ':' + #resource + ':' + #action")
     public boolean hasPermission(UUID userId, UUID organizationId, String resource, String action) {
         return hasPermission(userId, organizationId, resource, action, null);
     }
 
     /**
      * Check if user has permission for a specific resource instance.
+     * Decisions are cached locally until the next role or permission change.
      */
-    @Cacheable(value = "permissions", key = "#userId + ':' + #organizationId + ':' + #resource + ':' + #action + ':' + #resourceId")
     public boolean hasPermission(UUID userId, UUID organizationId, String resource, String action, String resourceId) {
+        PermissionDecisionCache.DecisionKey key = new PermissionDecisionCache.DecisionKey(
+                userId, organizationId, resource, action, resourceId);
+        Boolean cached = decisionCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
         log.debug("Checking permission for user {} in org {} for {}:{} on resource {}",
                 userId, organizationId, resource, action, resourceId);
 
+        long version = decisionCache.currentVersion();
         try {
             // Get all effective permissions for the user
             Set<Permission> userPermissions = getUserEffectivePermissions(userId, organizationId);
@@ -59,7 +67,16 @@ public class PermissionService {
                     .resourceId(resourceId)
                     .build();
 
-            return evaluatePermissions(userPermissions, context);
+            boolean granted = evaluatePermissions(userPermissions, context);
+
+            // Decisions from explicit time windows are recomputed, they can change at any moment
+            boolean timeBased = userPermissions.stream()
+                    .anyMatch(p -> Boolean.TRUE.equals(p.getTimeBased()) && p.matches(resource, action,
+                            resourceId, organizationId));
+            if (!timeBased) {
+                decisionCache.put(key, granted, version);
+            }
+            return granted;
 
         } catch (Exception e) {
             log.error("Error checking permission for user {} on {}:{}", userId, resource, action, e);
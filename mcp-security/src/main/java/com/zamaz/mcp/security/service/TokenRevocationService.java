@@ -28,9 +28,9 @@ public class TokenRevocationService {
     
     private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
     
-    private static final String REVOKED_TOKEN_PREFIX = "revoked-token:";
-    private static final String REVOKED_USER_PREFIX = "revoked-user:";
-    private static final String REVOKED_CLIENT_PREFIX = "revoked-client:";
+    static final String REVOKED_TOKEN_PREFIX = "revoked-token:";
+    static final String REVOKED_USER_PREFIX = "revoked-user:";
+    static final String REVOKED_CLIENT_PREFIX = "revoked-client:";
     
     @Autowired
     private RedisTemplate<String, Object> redisTemplate;
@@ -41,6 +41,9 @@ public class TokenRevocationService {
     @Autowired
     private SecurityAuditService auditService;
     
+    @Autowired
+    private LocalRevocationCache localRevocations;
+    
     @Value("${security.jwt.secret:default-secret-key-change-in-production}")
     private String jwtSecret;
     
@@ -78,6 +81,7 @@ public class TokenRevocationService {
             info.setExpiresAt(expiration.toInstant());
             
             redisTemplate.opsForValue().set(key, info, ttl, TimeUnit.SECONDS);
+            localRevocations.publish(LocalRevocationCache.TOKEN, jti, info.getRevokedAt());
             
             // Audit log
             auditService.logSecurityViolation("token_revoked", reason, 
@@ -98,7 +102,9 @@ public class TokenRevocationService {
         
         // Mark user as revoked with timestamp
         String key = REVOKED_USER_PREFIX + userId;
-        stringRedisTemplate.opsForValue().set(key, Instant.now().toString(), 24, TimeUnit.HOURS);
+        Instant revokedAt = Instant.now();
+        stringRedisTemplate.opsForValue().set(key, revokedAt.toString(), 24, TimeUnit.HOURS);
+        localRevocations.publish(LocalRevocationCache.USER, userId, revokedAt);
         
         // Audit log
         auditService.logSecurityViolation("user_tokens_revoked", 
@@ -114,7 +120,9 @@ public class TokenRevocationService {
         
         // Mark client as revoked with timestamp
         String key = REVOKED_CLIENT_PREFIX + clientId;
-        stringRedisTemplate.opsForValue().set(key, Instant.now().toString(), 24, TimeUnit.HOURS);
+        Instant revokedAt = Instant.now();
+        stringRedisTemplate.opsForValue().set(key, revokedAt.toString(), 24, TimeUnit.HOURS);
+        localRevocations.publish(LocalRevocationCache.CLIENT, clientId, revokedAt);
         
         // Audit log
         auditService.logSecurityViolation("client_tokens_revoked", 
@@ -132,22 +140,44 @@ public class TokenRevocationService {
                 return true; // Invalid tokens are considered revoked
             }
             
+            return isRevoked(claims);
+            
+        } catch (Exception e) {
+            logger.error("Failed to check token revocation status", e);
+            return true; // Fail secure
+        }
+    }
+    
+    /**
+     * Check if the claims of an already verified token have been revoked.
+     * Answered from the local revocation cache once it is loaded; only a possible match on the
+     * token ID is confirmed in Redis.
+     */
+    public boolean isRevoked(Claims claims) {
+        try {
             String jti = claims.getId();
             String subject = claims.getSubject();
             String clientId = claims.get("client_id", String.class);
+            Date issuedAt = claims.getIssuedAt();
+            
+            if (!localRevocations.isLoaded()) {
+                return (jti != null && isSpecificTokenRevoked(jti))
+                    || (subject != null && areUserTokensRevoked(subject, issuedAt))
+                    || (clientId != null && areClientTokensRevoked(clientId, issuedAt));
+            }
             
             // Check if specific token is revoked
-            if (jti != null && isSpecificTokenRevoked(jti)) {
+            if (jti != null && localRevocations.mightBeRevoked(jti) && isSpecificTokenRevoked(jti)) {
                 return true;
             }
             
             // Check if user's tokens are revoked
-            if (subject != null && areUserTokensRevoked(subject, claims.getIssuedAt())) {
+            if (subject != null && issuedBefore(issuedAt, localRevocations.getUserRevokedAt(subject))) {
                 return true;
             }
             
             // Check if client's tokens are revoked
-            if (clientId != null && areClientTokensRevoked(clientId, claims.getIssuedAt())) {
+            if (clientId != null && issuedBefore(issuedAt, localRevocations.getClientRevokedAt(clientId))) {
                 return true;
             }
             
@@ -218,6 +248,11 @@ public class TokenRevocationService {
         return ttl + 300; // 5 minutes buffer
     }
     
+    private boolean issuedBefore(Date tokenIssuedAt, Instant revokedAt) {
+        // Tokens without an issue time cannot be shown to postdate the revocation
+        return revokedAt != null && (tokenIssuedAt == null || tokenIssuedAt.toInstant().isBefore(revokedAt));
+    }
+    
     private boolean isSpecificTokenRevoked(String tokenId) {
         String key = REVOKED_TOKEN_PREFIX + tokenId;
         return redisTemplate.hasKey(key);
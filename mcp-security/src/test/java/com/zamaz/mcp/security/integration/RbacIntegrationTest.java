@@ -5,6 +5,7 @@ import com.zamaz.mcp.security.expression.SecurityExpressions;
 import com.zamaz.mcp.security.repository.PermissionRepository;
 import com.zamaz.mcp.security.repository.UserPermissionRepository;
 import com.zamaz.mcp.security.repository.UserRoleRepository;
+import com.zamaz.mcp.security.service.PermissionDecisionCache;
 import com.zamaz.mcp.security.service.PermissionEvaluationEngine;
 import com.zamaz.mcp.security.service.PermissionService;
 import com.zamaz.mcp.security.tenant.TenantSecurityContext;
@@ -66,7 +67,8 @@ class RbacIntegrationTest {
                 permissionRepository,
                 userRoleRepository,
                 userPermissionRepository,
-                evaluationEngine);
+                evaluationEngine,
+                new PermissionDecisionCache());
         securityExpressions = new SecurityExpressions(permissionService);
 
         userId = UUID.randomUUID();
@@ -0,0 +1,58 @@
+package com.zamaz.mcp.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    @Test
+    void shouldReturnCachedClaimsUntilTokenExpires() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, now::get);
+        Claims claims = claims("user-1", now.get() + 60_000);
+
+        cache.put("token-1", claims);
+
+        assertThat(cache.get("token-1")).isSameAs(claims);
+        assertThat(cache.get("token-2")).isNull();
+
+        now.addAndGet(60_000);
+        assertThat(cache.get("token-1")).isNull();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotCacheTokensWithoutFutureExpiry() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, now::get);
+
+        cache.put("expired", claims("user-1", now.get() - 1));
+        cache.put("no-expiry", Jwts.claims().subject("user-2").build());
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void shouldStayWithinMaximumSize() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, now::get);
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.put("token-" + i, claims("user-" + i, now.get() + 60_000));
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+        assertThat(cache.get("token-999")).isNotNull();
+    }
+
+    private static Claims claims(String subject, long expiresAt) {
+        return Jwts.claims().subject(subject).expiration(new Date(expiresAt)).build();
+    }
+}
@@ -0,0 +1,54 @@
+package com.zamaz.mcp.security.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CidrMatcherTest {
+
+    @Test
+    void shouldMatchAddressesInsideIpv4Blocks() {
+        CidrMatcher matcher = CidrMatcher.compile(List.of("192.168.1.0/24", "10.0.0.0/8", "172.16.5.4"));
+
+        assertThat(matcher.matches("192.168.1.100")).isTrue();
+        assertThat(matcher.matches("10.255.3.7")).isTrue();
+        assertThat(matcher.matches("172.16.5.4")).isTrue();
+
+        assertThat(matcher.matches("192.168.2.1")).isFalse();
+        assertThat(matcher.matches("11.0.0.1")).isFalse();
+        assertThat(matcher.matches("172.16.5.5")).isFalse();
+    }
+
+    @Test
+    void shouldMatchIpv6Blocks() {
+        CidrMatcher matcher = CidrMatcher.compile(List.of("2001:db8::/32"));
+
+        assertThat(matcher.matches("2001:db8:1::42")).isTrue();
+        assertThat(matcher.matches("2001:db9::1")).isFalse();
+        assertThat(matcher.matches("192.168.1.1")).isFalse();
+    }
+
+    @Test
+    void shouldRejectMalformedAddressesAndIgnoreMalformedRanges() {
+        CidrMatcher matcher = CidrMatcher.compile(List.of("192.168.1.0/33", "not-an-ip", "10.0.0.0/8"));
+
+        assertThat(matcher.matches("10.1.2.3")).isTrue();
+        assertThat(matcher.matches("192.168.1.1")).isFalse();
+        assertThat(matcher.matches("10.1.2")).isFalse();
+        assertThat(matcher.matches("10.1.2.256")).isFalse();
+        assertThat(matcher.matches("example.com")).isFalse();
+        assertThat(matcher.matches("example.com:443")).isFalse();
+        assertThat(matcher.matches("[::1]")).isFalse();
+        assertThat(matcher.matches("2001:db8::g")).isFalse();
+        assertThat(matcher.matches(null)).isFalse();
+    }
+
+    @Test
+    void shouldMatchEverythingForWildcard() {
+        CidrMatcher matcher = CidrMatcher.compile(List.of("*"));
+
+        assertThat(matcher.matches("8.8.8.8")).isTrue();
+    }
+}
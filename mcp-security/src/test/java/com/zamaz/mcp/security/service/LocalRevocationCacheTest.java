@@ -0,0 +1,62 @@
+package com.zamaz.mcp.security.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LocalRevocationCacheTest {
+
+    private static final byte[] CHANNEL = LocalRevocationCache.CHANNEL.getBytes(StandardCharsets.UTF_8);
+
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+
+    private LocalRevocationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new LocalRevocationCache();
+        ReflectionTestUtils.setField(cache, "stringRedisTemplate", redisTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldLoadOnceSubscribed() {
+        when(redisTemplate.execute(any(RedisCallback.class)))
+            .thenReturn(List.of(TokenRevocationService.REVOKED_TOKEN_PREFIX + "jti-1"), List.of(), List.of());
+
+        assertThat(cache.isLoaded()).isFalse();
+        cache.new RevocationListener().onChannelSubscribed(CHANNEL, 1);
+
+        assertThat(cache.isLoaded()).isTrue();
+        assertThat(cache.mightBeRevoked("jti-1")).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldReloadWhenSubscriptionIsRecovered() {
+        when(redisTemplate.execute(any(RedisCallback.class)))
+            .thenThrow(new RedisConnectionFailureException("down"))
+            .thenReturn(List.of(TokenRevocationService.REVOKED_TOKEN_PREFIX + "jti-2"), List.of(), List.of());
+        LocalRevocationCache.RevocationListener listener = cache.new RevocationListener();
+
+        listener.onChannelSubscribed(CHANNEL, 1);
+        assertThat(cache.isLoaded()).isFalse();
+
+        // The container resubscribes after recovering the connection
+        listener.onChannelSubscribed(CHANNEL, 1);
+        assertThat(cache.isLoaded()).isTrue();
+        assertThat(cache.mightBeRevoked("jti-2")).isTrue();
+    }
+}
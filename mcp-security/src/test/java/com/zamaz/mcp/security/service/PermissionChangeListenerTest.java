@@ -0,0 +1,42 @@
+package com.zamaz.mcp.security.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class PermissionChangeListenerTest {
+
+    private final PermissionDecisionCache decisionCache = mock(PermissionDecisionCache.class);
+    private final PermissionChangeListener listener = new PermissionChangeListener(decisionCache);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldInvalidateOnlyAfterTheTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        listener.onChange(new Object());
+        verify(decisionCache, never()).invalidate();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(decisionCache, times(1)).invalidate();
+    }
+
+    @Test
+    void shouldInvalidateImmediatelyOutsideTransactions() {
+        listener.onChange(new Object());
+
+        verify(decisionCache).invalidate();
+    }
+}
@@ -16,6 +16,8 @@ import java.util.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +37,8 @@ class PermissionServiceTest {
 
         private PermissionService permissionService;
 
+        private PermissionDecisionCache decisionCache;
+
         private UUID userId;
         private UUID organizationId;
         private UUID roleId;
@@ -42,11 +46,13 @@ class PermissionServiceTest {
 
         @BeforeEach
         void setUp() {
+                decisionCache = new PermissionDecisionCache();
                 permissionService = new PermissionService(
                                 permissionRepository,
                                 userRoleRepository,
                                 userPermissionRepository,
-                                permissionEvaluationEngine);
+                                permissionEvaluationEngine,
+                                decisionCache);
 
                 userId = UUID.randomUUID();
                 organizationId = UUID.randomUUID();
@@ -98,6 +104,32 @@ class PermissionServiceTest {
                 assertThat(hasPermission).isTrue();
         }
 
+        @Test
+        void shouldRecomputeCachedDecisionAfterPermissionChange() {
+                // Given
+                Permission permission = createPermission("debate", "read");
+                UserPermission userPermission = createUserPermission(permission);
+                PermissionChangeListener changeListener = new PermissionChangeListener(decisionCache);
+
+                when(userPermissionRepository.findEffectiveByUserIdAndOrganizationId(userId, organizationId))
+                                .thenReturn(List.of(userPermission), Collections.emptyList());
+                when(userRoleRepository.findEffectiveByUserIdAndOrganizationId(userId, organizationId))
+                                .thenReturn(Collections.emptyList());
+                when(permissionEvaluationEngine.evaluateConditions(eq(permission), any()))
+                                .thenReturn(true);
+                assertThat(permissionService.hasPermission(userId, organizationId, "debate", "read")).isTrue();
+
+                // When - the permission is revoked, which is served from the cache until the change is seen
+                boolean beforeChange = permissionService.hasPermission(userId, organizationId, "debate", "read");
+                changeListener.onChange(userPermission);
+                boolean afterChange = permissionService.hasPermission(userId, organizationId, "debate", "read");
+
+                // Then
+                assertThat(beforeChange).isTrue();
+                assertThat(afterChange).isFalse();
+                verify(userPermissionRepository, times(2)).findEffectiveByUserIdAndOrganizationId(userId, organizationId);
+        }
+
         @Test
         void shouldDenyPermissionWhenUserHasNoPermission() {
                 // Given
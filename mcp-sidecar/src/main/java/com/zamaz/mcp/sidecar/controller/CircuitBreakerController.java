@@ -1,5 +1,6 @@
 package com.zamaz.mcp.sidecar.controller;
 
+import com.zamaz.mcp.sidecar.service.CircuitBreakerSlidingWindow;
 import com.zamaz.mcp.sidecar.service.DistributedCircuitBreakerService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -119,7 +120,10 @@ public class CircuitBreakerController {
                     request.getHalfOpenMaxCalls(),
                     request.getSlidingWindowSize(),
                     request.getMinimumNumberOfCalls(),
-                    request.getFailureRateThreshold()
+                    request.getFailureRateThreshold(),
+                    CircuitBreakerSlidingWindow.Type.valueOf(request.getSlidingWindowType()),
+                    java.time.Duration.ofMillis(request.getSlowCallDurationThresholdMs()),
+                    request.getSlowCallRateThreshold()
                 );
             
             circuitBreakerService.registerCircuitBreaker(request.getName(), config);
@@ -244,6 +248,9 @@ public class CircuitBreakerController {
         private int slidingWindowSize = 100;
         private int minimumNumberOfCalls = 10;
         private double failureRateThreshold = 0.5;
+        private String slidingWindowType = "COUNT_BASED";
+        private long slowCallDurationThresholdMs = 60000;
+        private double slowCallRateThreshold = 1.0;
         
         public String getName() { return name; }
         public void setName(String name) { this.name = name; }
@@ -259,5 +266,11 @@ public class CircuitBreakerController {
         public void setMinimumNumberOfCalls(int minimumNumberOfCalls) { this.minimumNumberOfCalls = minimumNumberOfCalls; }
         public double getFailureRateThreshold() { return failureRateThreshold; }
         public void setFailureRateThreshold(double failureRateThreshold) { this.failureRateThreshold = failureRateThreshold; }
+        public String getSlidingWindowType() { return slidingWindowType; }
+        public void setSlidingWindowType(String slidingWindowType) { this.slidingWindowType = slidingWindowType; }
+        public long getSlowCallDurationThresholdMs() { return slowCallDurationThresholdMs; }
+        public void setSlowCallDurationThresholdMs(long slowCallDurationThresholdMs) { this.slowCallDurationThresholdMs = slowCallDurationThresholdMs; }
+        public double getSlowCallRateThreshold() { return slowCallRateThreshold; }
+        public void setSlowCallRateThreshold(double slowCallRateThreshold) { this.slowCallRateThreshold = slowCallRateThreshold; }
     }
 }
\ No newline at end of file
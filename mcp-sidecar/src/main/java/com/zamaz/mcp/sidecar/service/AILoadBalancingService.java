@@ -12,8 +12,11 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.ToDoubleFunction;
 
 /**
  * AI Service Load Balancing Service for MCP Sidecar
@@ -23,6 +26,8 @@ import java.util.concurrent.atomic.AtomicLong;
  * - Weighted Round Robin
  * - Least Connections
  * - Response Time Based
+ * - Peak-EWMA latency with power-of-two-choices
+ * - Least outstanding work (estimated tokens in flight) with power-of-two-choices
  * - Health-based routing
  * - Model-specific routing
  * - Queue-based routing for expensive operations
@@ -49,6 +54,12 @@ public class AILoadBalancingService {
     private final Map<String, AtomicInteger> roundRobinCounters = new ConcurrentHashMap<>();
     private final Map<String, ServiceHealthStatus> healthStatus = new ConcurrentHashMap<>();
 
+    // Cost of an instance that has requests in flight but no latency sample yet
+    private static final double UNKNOWN_LATENCY_PENALTY = 1e15;
+
+    // Added to the latency of a failed request, so that a backend failing fast does not look fastest
+    private static final Duration FAILURE_LATENCY_PENALTY = Duration.ofSeconds(5);
+
     /**
      * AI Service Instance
      */
@@ -62,11 +73,18 @@ public class AILoadBalancingService {
         private final AtomicLong totalRequests;
         private final AtomicLong totalResponseTime;
         private final AtomicLong failureCount;
+        private final AtomicLong outstandingTokens;
+        private final PeakEwmaLatency latency;
+        private final LongSupplier nanoClock;
         private final Set<String> capabilities;
         private volatile boolean healthy;
         private volatile Instant lastHealthCheck;
 
         public AIServiceInstance(String id, String url, String model, int weight, int priority) {
+            this(id, url, model, weight, priority, System::nanoTime);
+        }
+
+        AIServiceInstance(String id, String url, String model, int weight, int priority, LongSupplier nanoClock) {
             this.id = id;
             this.url = url;
             this.model = model;
@@ -76,6 +94,9 @@ public class AILoadBalancingService {
             this.totalRequests = new AtomicLong(0);
             this.totalResponseTime = new AtomicLong(0);
             this.failureCount = new AtomicLong(0);
+            this.outstandingTokens = new AtomicLong(0);
+            this.nanoClock = nanoClock;
+            this.latency = new PeakEwmaLatency(Duration.ofSeconds(10).toNanos(), nanoClock.getAsLong());
             this.capabilities = new HashSet<>();
             this.healthy = true;
             this.lastHealthCheck = Instant.now();
@@ -94,6 +115,8 @@ public class AILoadBalancingService {
             return total > 0 ? totalResponseTime.get() / total : 0;
         }
         public long getFailureCount() { return failureCount.get(); }
+        public long getOutstandingTokens() { return outstandingTokens.get(); }
+        public double getPeakEwmaLatencyMillis() { return latency.get(nanoClock.getAsLong()) / 1_000_000.0; }
         public boolean isHealthy() { return healthy; }
         public void setHealthy(boolean healthy) { this.healthy = healthy; }
         public Instant getLastHealthCheck() { return lastHealthCheck; }
@@ -102,11 +125,36 @@ public class AILoadBalancingService {
 
         public void incrementActiveConnections() { activeConnections.incrementAndGet(); }
         public void decrementActiveConnections() { activeConnections.decrementAndGet(); }
+        public void addOutstandingTokens(long tokens) { outstandingTokens.addAndGet(tokens); }
+        public void removeOutstandingTokens(long tokens) { outstandingTokens.addAndGet(-tokens); }
         public void recordRequest(long responseTime) {
             totalRequests.incrementAndGet();
             totalResponseTime.addAndGet(responseTime);
+            latency.observe(Duration.ofMillis(responseTime).toNanos(), nanoClock.getAsLong());
+        }
+        public void recordFailure(long responseTime) {
+            failureCount.incrementAndGet();
+            latency.observe(Duration.ofMillis(responseTime).plus(FAILURE_LATENCY_PENALTY).toNanos(), nanoClock.getAsLong());
+        }
+
+        /**
+         * Expected wait for a new request: peak-EWMA latency scaled by the requests already in flight
+         */
+        public double getLatencyCost() {
+            double estimate = latency.get(nanoClock.getAsLong());
+            long active = activeConnections.get();
+            if (estimate == 0 && active > 0) {
+                return UNKNOWN_LATENCY_PENALTY + active;
+            }
+            return estimate * (active + 1);
+        }
+
+        /**
+         * Estimated tokens in flight per unit of weight
+         */
+        public double getOutstandingWork() {
+            return (double) outstandingTokens.get() / Math.max(1, weight);
         }
-        public void recordFailure() { failureCount.incrementAndGet(); }
     }
 
     /**
@@ -192,23 +240,32 @@ public class AILoadBalancingService {
                 healthyInstances = instances;
             }
 
-            return switch (loadBalancerStrategy.toLowerCase()) {
-                case "round-robin" -> selectRoundRobin(modelType, healthyInstances);
-                case "weighted-round-robin" -> selectWeightedRoundRobin(modelType, healthyInstances);
-                case "least-connections" -> selectLeastConnections(healthyInstances);
-                case "response-time" -> selectByResponseTime(healthyInstances);
-                case "priority" -> selectByPriority(healthyInstances);
-                default -> selectWeightedRoundRobin(modelType, healthyInstances);
-            };
+            return selectInstance(modelType, loadBalancerStrategy, healthyInstances);
         });
     }
 
+    /**
+     * Apply a load balancing strategy to the candidate instances
+     */
+    AIServiceInstance selectInstance(String modelType, String strategy, List<AIServiceInstance> instances) {
+        return switch (strategy.toLowerCase()) {
+            case "round-robin" -> selectRoundRobin(modelType, instances);
+            case "weighted-round-robin" -> selectWeightedRoundRobin(modelType, instances);
+            case "least-connections" -> selectLeastConnections(instances);
+            case "response-time" -> selectByResponseTime(instances);
+            case "peak-ewma" -> selectPowerOfTwoChoices(instances, AIServiceInstance::getLatencyCost);
+            case "least-outstanding-work" -> selectPowerOfTwoChoices(instances, AIServiceInstance::getOutstandingWork);
+            case "priority" -> selectByPriority(instances);
+            default -> selectWeightedRoundRobin(modelType, instances);
+        };
+    }
+
     /**
      * Round Robin selection
      */
     private AIServiceInstance selectRoundRobin(String modelType, List<AIServiceInstance> instances) {
-        AtomicInteger counter = roundRobinCounters.get(modelType);
-        int index = counter.getAndIncrement() % instances.size();
+        AtomicInteger counter = roundRobinCounters.computeIfAbsent(modelType, key -> new AtomicInteger(0));
+        int index = Math.floorMod(counter.getAndIncrement(), instances.size());
         return instances.get(index);
     }
 
@@ -217,8 +274,8 @@ public class AILoadBalancingService {
      */
     private AIServiceInstance selectWeightedRoundRobin(String modelType, List<AIServiceInstance> instances) {
         int totalWeight = instances.stream().mapToInt(AIServiceInstance::getWeight).sum();
-        AtomicInteger counter = roundRobinCounters.get(modelType);
-        int weightedIndex = counter.getAndIncrement() % totalWeight;
+        AtomicInteger counter = roundRobinCounters.computeIfAbsent(modelType, key -> new AtomicInteger(0));
+        int weightedIndex = Math.floorMod(counter.getAndIncrement(), totalWeight);
         
         int currentWeight = 0;
         for (AIServiceInstance instance : instances) {
@@ -249,6 +306,29 @@ public class AILoadBalancingService {
                 .orElse(instances.get(0));
     }
 
+    /**
+     * Power-of-two-choices selection: the cheaper of two distinct random instances.
+     * Unlike a global minimum, this does not send every concurrent request to the same instance
+     * while its cost is stale.
+     */
+    private AIServiceInstance selectPowerOfTwoChoices(List<AIServiceInstance> instances,
+                                                      ToDoubleFunction<AIServiceInstance> cost) {
+        if (instances.size() == 1) {
+            return instances.get(0);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(instances.size());
+        int second = random.nextInt(instances.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        AIServiceInstance a = instances.get(first);
+        AIServiceInstance b = instances.get(second);
+        return cost.applyAsDouble(b) < cost.applyAsDouble(a) ? b : a;
+    }
+
     /**
      * Priority based selection
      */
@@ -266,7 +346,9 @@ public class AILoadBalancingService {
                 .flatMap(instance -> {
                     log.debug("Routing AI request to instance: {} ({})", instance.getId(), instance.getUrl());
                     
+                    long tokens = estimateTokens(request);
                     instance.incrementActiveConnections();
+                    instance.addOutstandingTokens(tokens);
                     long startTime = System.currentTimeMillis();
                     
                     return webClientBuilder.build()
@@ -279,6 +361,7 @@ public class AILoadBalancingService {
                                 long responseTime = System.currentTimeMillis() - startTime;
                                 instance.recordRequest(responseTime);
                                 instance.decrementActiveConnections();
+                                instance.removeOutstandingTokens(tokens);
                                 
                                 log.debug("AI request completed: instance={}, responseTime={}ms", 
                                         instance.getId(), responseTime);
@@ -286,8 +369,9 @@ public class AILoadBalancingService {
                                 return response;
                             })
                             .onErrorResume(error -> {
-                                instance.recordFailure();
+                                instance.recordFailure(System.currentTimeMillis() - startTime);
                                 instance.decrementActiveConnections();
+                                instance.removeOutstandingTokens(tokens);
                                 
                                 log.error("AI request failed: instance={}, error={}", 
                                         instance.getId(), error.getMessage());
@@ -307,7 +391,9 @@ public class AILoadBalancingService {
                 .flatMap(instance -> {
                     log.warn("Trying fallback instance: {} for model: {}", instance.getId(), modelType);
                     
+                    long tokens = estimateTokens(request);
                     instance.incrementActiveConnections();
+                    instance.addOutstandingTokens(tokens);
                     long startTime = System.currentTimeMillis();
                     
                     return webClientBuilder.build()
@@ -320,17 +406,29 @@ public class AILoadBalancingService {
                                 long responseTime = System.currentTimeMillis() - startTime;
                                 instance.recordRequest(responseTime);
                                 instance.decrementActiveConnections();
+                                instance.removeOutstandingTokens(tokens);
                                 return response;
                             })
                             .onErrorResume(error -> {
-                                instance.recordFailure();
+                                instance.recordFailure(System.currentTimeMillis() - startTime);
                                 instance.decrementActiveConnections();
+                                instance.removeOutstandingTokens(tokens);
                                 return Mono.error(new RuntimeException("All AI instances failed for model: " + modelType));
                             });
                 })
                 .switchIfEmpty(Mono.error(new RuntimeException("No fallback instances available for model: " + modelType)));
     }
 
+    /**
+     * Estimate the work of a request in tokens: prompt tokens (about four characters each)
+     * plus the completion budget
+     */
+    static long estimateTokens(AIRequest request) {
+        long promptTokens = request.getPrompt() != null ? request.getPrompt().length() / 4 : 0;
+        long completionTokens = request.getMaxTokens() != null ? request.getMaxTokens() : 256;
+        return promptTokens + completionTokens;
+    }
+
     /**
      * Perform health checks on all instances
      */
@@ -399,6 +497,10 @@ public class AILoadBalancingService {
                         .average()
                         .orElse(0));
                 modelStats.put("totalFailures", instances.stream().mapToLong(AIServiceInstance::getFailureCount).sum());
+                modelStats.put("outstandingTokens", instances.stream().mapToLong(AIServiceInstance::getOutstandingTokens).sum());
+                Map<String, Double> peakEwmaLatency = new HashMap<>();
+                instances.forEach(instance -> peakEwmaLatency.put(instance.getId(), instance.getPeakEwmaLatencyMillis()));
+                modelStats.put("peakEwmaLatencyMs", peakEwmaLatency);
                 
                 stats.put(modelType, modelStats);
             });
@@ -2,19 +2,34 @@ package com.zamaz.mcp.sidecar.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
@@ -24,7 +39,9 @@ import java.util.stream.Collectors;
  * Features:
  * - Structured audit event logging
  * - Configurable log levels and categories
- * - Asynchronous logging with buffering
+ * - Asynchronous logging through a bounded lock-free ring buffer
+ * - Size-or-time triggered batches written to Redis with pipelined commands
+ * - Local append-only spill segments for overflow and Redis outages, replayed on recovery
  * - Searchable audit trail
  * - Compliance and security event tracking
  * - Automatic log rotation and archiving
@@ -43,11 +60,17 @@ public class AuditLoggingService {
     @Value("${app.audit.enabled:true}")
     private boolean auditEnabled;
 
-    @Value("${app.audit.buffer-size:1000}")
+    @Value("${app.audit.buffer-size:16384}")
     private int bufferSize;
 
-    @Value("${app.audit.flush-interval:30s}")
-    private Duration flushInterval;
+    @Value("${app.audit.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.audit.spill-directory:${java.io.tmpdir}/mcp-sidecar-audit}")
+    private String spillDirectory;
+
+    @Value("${app.audit.spill-segment-size:67108864}")
+    private long spillSegmentSize;
 
     @Value("${app.audit.retention-days:90}")
     private int retentionDays;
@@ -61,8 +84,18 @@ public class AuditLoggingService {
     @Value("${app.audit.include-response-body:false}")
     private boolean includeResponseBody;
 
-    // Audit event buffer
-    private final Queue<AuditEvent> auditEventBuffer = new ConcurrentLinkedQueue<>();
+    // Audit event buffer; drained, synced to disk and replayed only on the drainer thread
+    private AuditRingBuffer<AuditEvent> auditEventBuffer;
+    private AuditSpillLog spillLog;
+    private final ExecutorService drainer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "audit-drainer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Scheduler drainerScheduler = Schedulers.fromExecutorService(drainer, "audit-drainer");
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final AtomicBoolean replaying = new AtomicBoolean();
+    private volatile Instant nextReplayAttempt = Instant.EPOCH;
     private final Map<String, AtomicLong> eventCounters = new ConcurrentHashMap<>();
     private final Map<String, AuditEventStatistics> eventStatistics = new ConcurrentHashMap<>();
 
@@ -364,6 +397,47 @@ public class AuditLoggingService {
         return new AuditEventBuilder();
     }
 
+    /**
+     * Create the ring buffer and replay events spilled before the last shutdown or crash
+     */
+    @PostConstruct
+    public void initializeAuditPipeline() throws IOException {
+        auditEventBuffer = new AuditRingBuffer<>(bufferSize);
+        spillLog = new AuditSpillLog(Paths.get(spillDirectory), spillSegmentSize);
+        metricsCollectorService.registerAuditPipelineGauges(auditEventBuffer::size, spillLog::getPendingBytes);
+
+        if (spillLog.hasPending()) {
+            log.info("Replaying {} bytes of spilled audit events from {}", spillLog.getPendingBytes(), spillDirectory);
+            requestFlush();
+        }
+    }
+
+    /**
+     * Move buffered events to the spill segment so they survive the restart
+     */
+    @PreDestroy
+    public void shutdownAuditPipeline() {
+        Future<?> finalSpill = drainer.submit(() -> {
+            List<AuditEvent> remaining = new ArrayList<>();
+            auditEventBuffer.drainTo(remaining, Integer.MAX_VALUE);
+            spill(serialize(remaining), "shutdown");
+            try {
+                spillLog.close();
+            } catch (IOException e) {
+                log.error("Failed to close audit spill segment", e);
+            }
+        });
+        drainer.shutdown();
+
+        try {
+            finalSpill.get(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.error("Failed to spill buffered audit events on shutdown", e);
+        }
+    }
+
     /**
      * Log audit event
      */
@@ -373,8 +447,11 @@ public class AuditLoggingService {
         }
 
         return Mono.fromRunnable(() -> {
-            // Add to buffer
-            auditEventBuffer.offer(event);
+            // Add to buffer; a full ring overflows to the spill buffer, which the drainer syncs
+            if (!auditEventBuffer.offer(event)) {
+                spill(serialize(List.of(event)), "overflow");
+                requestFlush();
+            }
             
             // Update statistics
             AuditEventStatistics stats = eventStatistics.computeIfAbsent(
@@ -395,9 +472,9 @@ public class AuditLoggingService {
                                                    event.getSeverity().name(), 
                                                    event.getOutcome().name());
             
-            // Flush buffer if needed
-            if (auditEventBuffer.size() >= bufferSize) {
-                flushAuditEvents();
+            // Wake the drainer as soon as a full batch is waiting
+            if (auditEventBuffer.size() >= batchSize) {
+                requestFlush();
             }
         });
     }
@@ -447,59 +524,164 @@ public class AuditLoggingService {
     }
 
     /**
-     * Flush audit events to persistent storage
+     * Flush audit events to persistent storage.
+     * Runs at least once per flush interval for partial batches; the flush itself happens on the drainer.
      */
-    @Scheduled(fixedDelayString = "${app.audit.flush-interval:30s}")
+    @Scheduled(fixedDelayString = "${app.audit.flush-interval:1s}")
     public void flushAuditEvents() {
-        if (auditEventBuffer.isEmpty()) {
+        requestFlush();
+    }
+
+    /**
+     * Queue one drain on the drainer thread unless one is already queued
+     */
+    private void requestFlush() {
+        if (!flushRequested.compareAndSet(false, true)) {
             return;
         }
+        try {
+            drainer.execute(this::drainAuditEvents);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the final spill picks up whatever is still buffered
+            flushRequested.set(false);
+        }
+    }
 
-        List<AuditEvent> eventsToFlush = new ArrayList<>();
-        AuditEvent event;
-        while ((event = auditEventBuffer.poll()) != null) {
-            eventsToFlush.add(event);
+    /**
+     * Write buffered events to Redis in batches, sync the spill segment once and replay it if due
+     */
+    private void drainAuditEvents() {
+        flushRequested.set(false);
+
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (auditEventBuffer.drainTo(batch, batchSize) > 0) {
+            writeBatch(batch);
+            if (batch.size() < batchSize) {
+                break;
+            }
+            batch = new ArrayList<>(batchSize);
         }
 
-        if (eventsToFlush.isEmpty()) {
-            return;
+        // One fsync covers every event spilled since the previous drain
+        try {
+            spillLog.sync();
+        } catch (IOException e) {
+            log.error("Failed to sync audit spill segment", e);
+        }
+
+        if (spillLog.hasPending() && !replaying.get() && Instant.now().isAfter(nextReplayAttempt)) {
+            replaySpilledEvents();
         }
+    }
 
-        // Persist to Redis
-        persistAuditEvents(eventsToFlush)
-                .doOnSuccess(v -> log.debug("Flushed {} audit events", eventsToFlush.size()))
-                .doOnError(error -> log.error("Failed to flush audit events", error))
+    /**
+     * Write one batch to Redis, spilling it to disk if Redis is unavailable
+     */
+    private void writeBatch(List<AuditEvent> batch) {
+        Map<String, String> eventMap = serialize(batch);
+        Instant oldest = batch.stream()
+                .map(AuditEvent::getTimestamp)
+                .min(Comparator.naturalOrder())
+                .orElseGet(Instant::now);
+
+        persistAuditEvents(eventMap)
+                .doOnSuccess(v -> {
+                    metricsCollectorService.recordAuditBatch(eventMap.size(), Duration.between(oldest, Instant.now()));
+                    log.debug("Flushed {} audit events", eventMap.size());
+                })
+                .onErrorResume(error -> {
+                    log.warn("Failed to flush {} audit events, spilling to disk: {}", eventMap.size(), error.getMessage());
+                    spill(eventMap, "redis_error");
+                    requestFlush();
+                    return Mono.empty();
+                })
                 .subscribe();
     }
 
     /**
-     * Persist audit events to Redis
+     * Replay sealed spill segments into Redis, oldest first, stopping at the first failure.
+     * Called on the drainer; segment reads and deletes hop back to it between Redis writes.
      */
-    private Mono<Void> persistAuditEvents(List<AuditEvent> events) {
-        return Mono.fromCallable(() -> {
-            Map<String, String> eventMap = new HashMap<>();
-            
-            for (AuditEvent event : events) {
-                try {
-                    String eventJson = objectMapper.writeValueAsString(event);
-                    String key = "audit:" + event.getTimestamp().toEpochMilli() + ":" + event.getId();
-                    eventMap.put(key, eventJson);
-                } catch (JsonProcessingException e) {
-                    log.error("Failed to serialize audit event: {}", event.getId(), e);
-                }
-            }
-            
-            return eventMap;
-        })
-        .flatMap(eventMap -> {
-            if (eventMap.isEmpty()) {
-                return Mono.empty();
+    private void replaySpilledEvents() {
+        if (!replaying.compareAndSet(false, true)) {
+            return;
+        }
+
+        List<Path> segments;
+        try {
+            segments = spillLog.seal();
+        } catch (IOException e) {
+            log.error("Failed to list audit spill segments", e);
+            replaying.set(false);
+            return;
+        }
+
+        Flux.fromIterable(segments)
+                .concatMap(segment -> Mono.fromCallable(() -> spillLog.read(segment))
+                        .subscribeOn(drainerScheduler)
+                        .flatMap(this::persistAuditEvents)
+                        .then(Mono.fromRunnable(() -> {
+                            try {
+                                spillLog.delete(segment);
+                            } catch (IOException e) {
+                                throw new IllegalStateException("Failed to delete replayed audit segment " + segment, e);
+                            }
+                        }).subscribeOn(drainerScheduler))
+                        .doOnSuccess(v -> log.info("Replayed audit spill segment {}", segment.getFileName())))
+                .then()
+                .doOnError(error -> {
+                    // Back off so an outage does not roll a new segment on every flush
+                    nextReplayAttempt = Instant.now().plusSeconds(30);
+                    log.warn("Audit spill replay interrupted: {}", error.getMessage());
+                })
+                .doFinally(signal -> replaying.set(false))
+                .subscribe(v -> { }, error -> { });
+    }
+
+    /**
+     * Serialize events to their audit hash fields and JSON values
+     */
+    private Map<String, String> serialize(List<AuditEvent> events) {
+        Map<String, String> eventMap = new LinkedHashMap<>();
+        for (AuditEvent event : events) {
+            try {
+                String eventJson = objectMapper.writeValueAsString(event);
+                String key = "audit:" + event.getTimestamp().toEpochMilli() + ":" + event.getId();
+                eventMap.put(key, eventJson);
+            } catch (JsonProcessingException e) {
+                log.error("Failed to serialize audit event: {}", event.getId(), e);
             }
-            
-            return redisTemplate.opsForHash().putAll("audit_events", eventMap)
-                    .then(redisTemplate.expire("audit_events", Duration.ofDays(retentionDays)))
-                    .then();
-        });
+        }
+        return eventMap;
+    }
+
+    /**
+     * Append events to the local spill segment; they are durable after the drainer's next sync
+     */
+    private void spill(Map<String, String> eventMap, String reason) {
+        if (eventMap.isEmpty()) {
+            return;
+        }
+        try {
+            spillLog.append(eventMap);
+            metricsCollectorService.recordAuditSpill(eventMap.size(), reason);
+        } catch (IOException e) {
+            log.error("Failed to spill {} audit events ({}); events lost", eventMap.size(), reason, e);
+        }
+    }
+
+    /**
+     * Persist audit events to Redis.
+     * Both commands are issued before either reply is awaited, so they share one round trip.
+     */
+    private Mono<Void> persistAuditEvents(Map<String, String> eventMap) {
+        if (eventMap.isEmpty()) {
+            return Mono.empty();
+        }
+
+        return Mono.when(
+                redisTemplate.opsForHash().putAll("audit_events", eventMap),
+                redisTemplate.expire("audit_events", Duration.ofDays(retentionDays)));
     }
 
     /**
@@ -550,6 +732,8 @@ public class AuditLoggingService {
             
             statistics.put("totalEvents", totalEvents);
             statistics.put("bufferedEvents", auditEventBuffer.size());
+            statistics.put("bufferCapacity", auditEventBuffer.capacity());
+            statistics.put("spilledBytes", spillLog.getPendingBytes());
             statistics.put("eventTypes", eventCounters.size());
             
             // Event type statistics
@@ -0,0 +1,93 @@
+package com.zamaz.mcp.sidecar.service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring buffer for many producers and a single consumer.
+ *
+ * Producers claim a slot by advancing the tail with compare-and-set and publish the element
+ * through the slot's sequence number, so an offer never blocks and never allocates. When the
+ * ring is full, {@link #offer(Object)} fails immediately and the caller decides where the
+ * element goes instead. Only one thread at a time may call {@link #drainTo(List, int)}.
+ */
+public class AuditRingBuffer<T> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<T> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    public AuditRingBuffer(int requestedCapacity) {
+        this.capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1) << 1);
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Add an element, or return false if the ring is full
+     */
+    public boolean offer(T element) {
+        while (true) {
+            long position = tail.get();
+            int slot = (int) (position & mask);
+            long sequence = sequences.get(slot);
+
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.set(slot, element);
+                    sequences.set(slot, position + 1);
+                    return true;
+                }
+            } else if (sequence < position) {
+                // The consumer has not freed this slot yet
+                return false;
+            }
+            // Another producer claimed the slot; retry with the new tail
+        }
+    }
+
+    /**
+     * Move up to {@code maxElements} published elements to the target, oldest first
+     */
+    public int drainTo(List<? super T> target, int maxElements) {
+        int drained = 0;
+        long position = head.get();
+        while (drained < maxElements) {
+            int slot = (int) (position & mask);
+            if (sequences.get(slot) != position + 1) {
+                // Empty, or the next producer has claimed but not yet published its slot
+                break;
+            }
+            target.add(elements.getAndSet(slot, null));
+            sequences.set(slot, position + capacity);
+            position++;
+            drained++;
+        }
+        head.set(position);
+        return drained;
+    }
+
+    /**
+     * Approximate number of buffered elements
+     */
+    public int size() {
+        return (int) Math.max(0, Math.min(capacity, tail.get() - head.get()));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+}
@@ -0,0 +1,173 @@
+package com.zamaz.mcp.sidecar.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only local segment files for audit events that could not be written to Redis.
+ *
+ * Each line holds one serialized event as {@code field<TAB>json}, exactly as it would be
+ * stored in the audit hash, so replay needs no deserialization. Appends are buffered in
+ * memory and written out once the buffer fills; {@link #sync()} writes the rest and forces
+ * the segment to disk, so a burst of appends between two syncs costs a single fsync.
+ * A segment is rolled once it exceeds the configured size and only sealed segments are
+ * replayed; a torn last line from a crash is skipped.
+ */
+@Slf4j
+public class AuditSpillLog {
+
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+
+    private final Path directory;
+    private final long maxSegmentBytes;
+    private final AtomicLong pendingBytes = new AtomicLong();
+
+    private final StringBuilder buffered = new StringBuilder();
+    private FileChannel current;
+    private boolean unforced;
+    private long segmentSequence;
+
+    public AuditSpillLog(Path directory, long maxSegmentBytes) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.maxSegmentBytes = maxSegmentBytes;
+        for (Path segment : segments()) {
+            pendingBytes.addAndGet(Files.size(segment));
+        }
+    }
+
+    /**
+     * Append serialized events, keyed by their audit hash field.
+     * They are durable once the next {@link #sync()} returns.
+     */
+    public synchronized void append(Map<String, String> events) throws IOException {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        int length = buffered.length();
+        events.forEach((field, json) -> buffered.append(field).append('\t').append(json).append('\n'));
+        pendingBytes.addAndGet(buffered.length() - length);
+        if (buffered.length() >= WRITE_BUFFER_BYTES) {
+            writeBuffered();
+        }
+    }
+
+    /**
+     * Write buffered events and force the open segment to disk
+     */
+    public synchronized void sync() throws IOException {
+        writeBuffered();
+        if (unforced) {
+            current.force(false);
+            unforced = false;
+        }
+    }
+
+    /**
+     * Close the open segment and return every segment awaiting replay, oldest first
+     */
+    public synchronized List<Path> seal() throws IOException {
+        closeCurrent();
+        return segments();
+    }
+
+    /**
+     * Read the events of a sealed segment
+     */
+    public Map<String, String> read(Path segment) throws IOException {
+        Map<String, String> events = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf('\t');
+                if (separator <= 0 || !line.endsWith("}")) {
+                    log.warn("Skipping malformed audit spill record in {}", segment.getFileName());
+                    continue;
+                }
+                events.put(line.substring(0, separator), line.substring(separator + 1));
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Remove a segment once its events are safely in Redis
+     */
+    public void delete(Path segment) throws IOException {
+        long size = Files.size(segment);
+        if (Files.deleteIfExists(segment)) {
+            pendingBytes.addAndGet(-size);
+        }
+    }
+
+    public long getPendingBytes() {
+        return Math.max(0, pendingBytes.get());
+    }
+
+    public boolean hasPending() {
+        return getPendingBytes() > 0;
+    }
+
+    public synchronized void close() throws IOException {
+        closeCurrent();
+    }
+
+    private void writeBuffered() throws IOException {
+        if (buffered.length() == 0) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(buffered.toString().getBytes(StandardCharsets.UTF_8));
+        buffered.setLength(0);
+
+        if (current == null || current.size() >= maxSegmentBytes) {
+            roll();
+        }
+        while (buffer.hasRemaining()) {
+            current.write(buffer);
+        }
+        unforced = true;
+    }
+
+    private void roll() throws IOException {
+        closeCurrent();
+        // Zero-padded so lexical order is creation order
+        Path segment = directory.resolve(String.format("%s%019d-%04d%s",
+                SEGMENT_PREFIX, System.currentTimeMillis(), segmentSequence++ % 10_000, SEGMENT_SUFFIX));
+        current = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private void closeCurrent() throws IOException {
+        sync();
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(segments::add);
+        }
+        segments.sort(null);
+        return segments;
+    }
+}
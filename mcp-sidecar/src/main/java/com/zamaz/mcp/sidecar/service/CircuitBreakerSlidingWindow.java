@@ -0,0 +1,242 @@
+package com.zamaz.mcp.sidecar.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Sliding window of call outcomes used for circuit breaker trip decisions.
+ *
+ * Only recent calls count: a count-based window keeps the last N outcomes, a time-based
+ * window the outcomes of the last N seconds. Both are lock-free ring buffers, so recording
+ * a call never blocks the request path.
+ */
+public abstract class CircuitBreakerSlidingWindow {
+
+    /**
+     * Sliding window types
+     */
+    public enum Type {
+        COUNT_BASED, TIME_BASED
+    }
+
+    /**
+     * Record the outcome of one call
+     */
+    public abstract void record(boolean failure, boolean slow);
+
+    /**
+     * Aggregate of the calls currently inside the window
+     */
+    public abstract Snapshot snapshot();
+
+    /**
+     * Forget all recorded outcomes
+     */
+    public abstract void reset();
+
+    public static CircuitBreakerSlidingWindow of(Type type, int size) {
+        return type == Type.TIME_BASED
+                ? new TimeBased(size, System::currentTimeMillis)
+                : new CountBased(size);
+    }
+
+    /**
+     * Immutable window aggregate; also the unit exchanged between replicas
+     */
+    public static class Snapshot {
+        public static final Snapshot EMPTY = new Snapshot(0, 0, 0);
+
+        private final long calls;
+        private final long failedCalls;
+        private final long slowCalls;
+
+        public Snapshot(long calls, long failedCalls, long slowCalls) {
+            this.calls = calls;
+            this.failedCalls = failedCalls;
+            this.slowCalls = slowCalls;
+        }
+
+        public long getCalls() { return calls; }
+        public long getFailedCalls() { return failedCalls; }
+        public long getSlowCalls() { return slowCalls; }
+
+        public double getFailureRate() {
+            return calls == 0 ? 0.0 : (double) failedCalls / calls;
+        }
+
+        public double getSlowCallRate() {
+            return calls == 0 ? 0.0 : (double) slowCalls / calls;
+        }
+
+        public Snapshot plus(Snapshot other) {
+            return new Snapshot(calls + other.calls, failedCalls + other.failedCalls, slowCalls + other.slowCalls);
+        }
+
+        /**
+         * Compact wire form: {@code calls,failedCalls,slowCalls}
+         */
+        public String encode() {
+            return calls + "," + failedCalls + "," + slowCalls;
+        }
+
+        /**
+         * @throws NumberFormatException if the value is not in wire form
+         */
+        public static Snapshot decode(String value) {
+            String[] parts = value.split(",");
+            if (parts.length != 3) {
+                throw new NumberFormatException("Not a window snapshot: " + value);
+            }
+            return new Snapshot(Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        }
+    }
+
+    /**
+     * Keeps the outcomes of the last {@code size} calls.
+     *
+     * Each slot holds one encoded outcome; overwriting a slot subtracts the evicted outcome
+     * from the running totals, so a snapshot is O(1). A reset swaps in a fresh ring instead of
+     * clearing the slots in place, so a concurrent record can never leave the totals out of
+     * step with the slots.
+     */
+    static class CountBased extends CircuitBreakerSlidingWindow {
+
+        private static final long RECORDED = 1;
+        private static final long FAILED = 2;
+        private static final long SLOW = 4;
+
+        private final int size;
+        private volatile Ring ring;
+
+        CountBased(int size) {
+            this.size = Math.max(1, size);
+            this.ring = new Ring(this.size);
+        }
+
+        @Override
+        public void record(boolean failure, boolean slow) {
+            long outcome = RECORDED | (failure ? FAILED : 0) | (slow ? SLOW : 0);
+            Ring ring = this.ring;
+            int slot = (int) (ring.cursor.getAndIncrement() % ring.slots.length());
+            long evicted = ring.slots.getAndSet(slot, outcome);
+
+            if (evicted == 0) {
+                ring.calls.incrementAndGet();
+            }
+            adjust(ring.failedCalls, evicted, outcome, FAILED);
+            adjust(ring.slowCalls, evicted, outcome, SLOW);
+        }
+
+        private void adjust(AtomicLong counter, long evicted, long outcome, long flag) {
+            long delta = ((outcome & flag) != 0 ? 1 : 0) - ((evicted & flag) != 0 ? 1 : 0);
+            if (delta != 0) {
+                counter.addAndGet(delta);
+            }
+        }
+
+        @Override
+        public Snapshot snapshot() {
+            Ring ring = this.ring;
+            return new Snapshot(ring.calls.get(), ring.failedCalls.get(), ring.slowCalls.get());
+        }
+
+        @Override
+        public void reset() {
+            // Calls still recording into the old ring are dropped with it
+            ring = new Ring(size);
+        }
+
+        private static final class Ring {
+            private final AtomicLongArray slots;
+            private final AtomicLong cursor = new AtomicLong();
+            private final AtomicLong calls = new AtomicLong();
+            private final AtomicLong failedCalls = new AtomicLong();
+            private final AtomicLong slowCalls = new AtomicLong();
+
+            private Ring(int size) {
+                this.slots = new AtomicLongArray(size);
+            }
+        }
+    }
+
+    /**
+     * Keeps the outcomes of the last {@code seconds} seconds in one bucket per second.
+     *
+     * A bucket that belongs to an expired second is replaced by compare-and-set rather than
+     * cleared in place, so a concurrent increment can never be wiped by a reset.
+     */
+    static class TimeBased extends CircuitBreakerSlidingWindow {
+
+        private final AtomicReferenceArray<Bucket> buckets;
+        private final LongSupplier clock;
+
+        TimeBased(int seconds, LongSupplier clock) {
+            this.buckets = new AtomicReferenceArray<>(Math.max(1, seconds));
+            this.clock = clock;
+        }
+
+        @Override
+        public void record(boolean failure, boolean slow) {
+            Bucket bucket = current(clock.getAsLong() / 1000);
+            bucket.calls.incrementAndGet();
+            if (failure) {
+                bucket.failedCalls.incrementAndGet();
+            }
+            if (slow) {
+                bucket.slowCalls.incrementAndGet();
+            }
+        }
+
+        private Bucket current(long second) {
+            int index = (int) (second % buckets.length());
+            while (true) {
+                Bucket bucket = buckets.get(index);
+                if (bucket != null && bucket.second == second) {
+                    return bucket;
+                }
+                Bucket fresh = new Bucket(second);
+                if (buckets.compareAndSet(index, bucket, fresh)) {
+                    return fresh;
+                }
+            }
+        }
+
+        @Override
+        public Snapshot snapshot() {
+            long now = clock.getAsLong() / 1000;
+            long oldest = now - buckets.length();
+            long calls = 0;
+            long failed = 0;
+            long slow = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                Bucket bucket = buckets.get(i);
+                if (bucket != null && bucket.second > oldest && bucket.second <= now) {
+                    calls += bucket.calls.get();
+                    failed += bucket.failedCalls.get();
+                    slow += bucket.slowCalls.get();
+                }
+            }
+            return new Snapshot(calls, failed, slow);
+        }
+
+        @Override
+        public void reset() {
+            for (int i = 0; i < buckets.length(); i++) {
+                buckets.set(i, null);
+            }
+        }
+
+        private static final class Bucket {
+            private final long second;
+            private final AtomicLong calls = new AtomicLong();
+            private final AtomicLong failedCalls = new AtomicLong();
+            private final AtomicLong slowCalls = new AtomicLong();
+
+            private Bucket(long second) {
+                this.second = second;
+            }
+        }
+    }
+}
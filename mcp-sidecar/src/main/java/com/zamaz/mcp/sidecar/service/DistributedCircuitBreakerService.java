@@ -5,7 +5,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
@@ -20,7 +22,8 @@ import java.util.function.Supplier;
  * 
  * Features:
  * - Distributed circuit breaker state across multiple instances
- * - Redis-based state synchronization
+ * - Count-based or time-based sliding windows with slow-call tracking
+ * - Redis-based state and window synchronization at a coarse interval, off the call path
  * - Configurable failure thresholds and timeouts
  * - Automatic state transitions (CLOSED -> OPEN -> HALF_OPEN -> CLOSED)
  * - Metrics collection and monitoring
@@ -53,10 +56,25 @@ public class DistributedCircuitBreakerService {
     @Value("${app.circuit-breaker.minimum-number-of-calls:10}")
     private int defaultMinimumNumberOfCalls;
 
+    @Value("${app.circuit-breaker.sliding-window-type:COUNT_BASED}")
+    private CircuitBreakerSlidingWindow.Type defaultSlidingWindowType;
+
+    @Value("${app.circuit-breaker.slow-call-duration-threshold:PT60S}")
+    private Duration defaultSlowCallDurationThreshold;
+
+    @Value("${app.circuit-breaker.slow-call-rate-threshold:1.0}")
+    private double defaultSlowCallRateThreshold;
+
+    @Value("${app.circuit-breaker.cluster-sync-interval:PT5S}")
+    private Duration clusterSyncInterval;
+
     // Local cache for circuit breaker states
     private final Map<String, CircuitBreakerState> localStateCache = new ConcurrentHashMap<>();
     private final Map<String, CircuitBreakerConfig> circuitBreakerConfigs = new ConcurrentHashMap<>();
 
+    // Identifies this replica's window summary in the shared Redis hash
+    private final String nodeId = UUID.randomUUID().toString();
+
     /**
      * Circuit breaker states
      */
@@ -75,10 +93,25 @@ public class DistributedCircuitBreakerService {
         private final int slidingWindowSize;
         private final int minimumNumberOfCalls;
         private final double failureRateThreshold;
+        private final CircuitBreakerSlidingWindow.Type slidingWindowType;
+        private final Duration slowCallDurationThreshold;
+        private final double slowCallRateThreshold;
 
         public CircuitBreakerConfig(String name, int failureThreshold, Duration timeout,
                                    int halfOpenMaxCalls, int slidingWindowSize, 
                                    int minimumNumberOfCalls, double failureRateThreshold) {
+            this(name, failureThreshold, timeout, halfOpenMaxCalls, slidingWindowSize, minimumNumberOfCalls,
+                 failureRateThreshold, CircuitBreakerSlidingWindow.Type.COUNT_BASED, Duration.ofSeconds(60), 1.0);
+        }
+
+        /**
+         * @param slidingWindowSize number of calls for a count-based window, seconds for a time-based one
+         */
+        public CircuitBreakerConfig(String name, int failureThreshold, Duration timeout,
+                                   int halfOpenMaxCalls, int slidingWindowSize,
+                                   int minimumNumberOfCalls, double failureRateThreshold,
+                                   CircuitBreakerSlidingWindow.Type slidingWindowType,
+                                   Duration slowCallDurationThreshold, double slowCallRateThreshold) {
             this.name = name;
             this.failureThreshold = failureThreshold;
             this.timeout = timeout;
@@ -86,6 +119,9 @@ public class DistributedCircuitBreakerService {
             this.slidingWindowSize = slidingWindowSize;
             this.minimumNumberOfCalls = minimumNumberOfCalls;
             this.failureRateThreshold = failureRateThreshold;
+            this.slidingWindowType = slidingWindowType;
+            this.slowCallDurationThreshold = slowCallDurationThreshold;
+            this.slowCallRateThreshold = slowCallRateThreshold;
         }
 
         public String getName() { return name; }
@@ -95,6 +131,9 @@ public class DistributedCircuitBreakerService {
         public int getSlidingWindowSize() { return slidingWindowSize; }
         public int getMinimumNumberOfCalls() { return minimumNumberOfCalls; }
         public double getFailureRateThreshold() { return failureRateThreshold; }
+        public CircuitBreakerSlidingWindow.Type getSlidingWindowType() { return slidingWindowType; }
+        public Duration getSlowCallDurationThreshold() { return slowCallDurationThreshold; }
+        public double getSlowCallRateThreshold() { return slowCallRateThreshold; }
     }
 
     /**
@@ -110,6 +149,9 @@ public class DistributedCircuitBreakerService {
         private final AtomicLong totalCalls;
         private final AtomicLong successfulCalls;
         private final AtomicLong failedCalls;
+        private final AtomicLong slowCalls;
+        private final CircuitBreakerSlidingWindow window;
+        private volatile CircuitBreakerSlidingWindow.Snapshot remoteWindow;
         private final CircuitBreakerConfig config;
 
         public CircuitBreakerState(String name, CircuitBreakerConfig config) {
@@ -123,6 +165,9 @@ public class DistributedCircuitBreakerService {
             this.totalCalls = new AtomicLong(0);
             this.successfulCalls = new AtomicLong(0);
             this.failedCalls = new AtomicLong(0);
+            this.slowCalls = new AtomicLong(0);
+            this.window = CircuitBreakerSlidingWindow.of(config.getSlidingWindowType(), config.getSlidingWindowSize());
+            this.remoteWindow = CircuitBreakerSlidingWindow.Snapshot.EMPTY;
         }
 
         public String getName() { return name; }
@@ -131,6 +176,10 @@ public class DistributedCircuitBreakerService {
             this.state = state; 
             this.lastStateChange = Instant.now();
         }
+        public void setState(State state, Instant since) {
+            this.state = state;
+            this.lastStateChange = since;
+        }
         public Instant getLastStateChange() { return lastStateChange; }
         public int getFailureCount() { return failureCount; }
         public void setFailureCount(int failureCount) { this.failureCount = failureCount; }
@@ -141,32 +190,75 @@ public class DistributedCircuitBreakerService {
         public long getTotalCalls() { return totalCalls.get(); }
         public long getSuccessfulCalls() { return successfulCalls.get(); }
         public long getFailedCalls() { return failedCalls.get(); }
+        public long getSlowCalls() { return slowCalls.get(); }
         public CircuitBreakerConfig getConfig() { return config; }
 
-        public void recordSuccess() {
+        public void recordSuccess(Duration duration) {
             totalCalls.incrementAndGet();
             successfulCalls.incrementAndGet();
+            window.record(false, recordSlow(duration));
             successCount++;
             failureCount = 0;
         }
 
-        public void recordFailure() {
+        public void recordFailure(Duration duration) {
             totalCalls.incrementAndGet();
             failedCalls.incrementAndGet();
+            window.record(true, recordSlow(duration));
             failureCount++;
             successCount = 0;
         }
 
+        private boolean recordSlow(Duration duration) {
+            boolean slow = duration.compareTo(config.getSlowCallDurationThreshold()) >= 0;
+            if (slow) {
+                slowCalls.incrementAndGet();
+            }
+            return slow;
+        }
+
+        /**
+         * Calls recorded by this replica inside the sliding window
+         */
+        public CircuitBreakerSlidingWindow.Snapshot getLocalWindow() { return window.snapshot(); }
+
+        /**
+         * Window summaries last published by the other replicas
+         */
+        public CircuitBreakerSlidingWindow.Snapshot getRemoteWindow() { return remoteWindow; }
+        public void setRemoteWindow(CircuitBreakerSlidingWindow.Snapshot remoteWindow) { this.remoteWindow = remoteWindow; }
+
+        /**
+         * Cluster-wide view of the sliding window
+         */
+        public CircuitBreakerSlidingWindow.Snapshot getWindow() {
+            return window.snapshot().plus(remoteWindow);
+        }
+
+        /**
+         * Start a fresh window, e.g. after a state transition
+         */
+        public void resetWindow() {
+            window.reset();
+            remoteWindow = CircuitBreakerSlidingWindow.Snapshot.EMPTY;
+        }
+
         public double getFailureRate() {
-            long total = totalCalls.get();
-            if (total == 0) return 0.0;
-            return (double) failedCalls.get() / total;
+            return getWindow().getFailureRate();
+        }
+
+        public double getSlowCallRate() {
+            return getWindow().getSlowCallRate();
         }
 
         public boolean shouldTransitionToOpen() {
-            return failureCount >= config.getFailureThreshold() || 
-                   (totalCalls.get() >= config.getMinimumNumberOfCalls() && 
-                    getFailureRate() >= config.getFailureRateThreshold());
+            if (failureCount >= config.getFailureThreshold()) {
+                return true;
+            }
+            CircuitBreakerSlidingWindow.Snapshot snapshot = getWindow();
+            return snapshot.getCalls() >= config.getMinimumNumberOfCalls() &&
+                   (snapshot.getFailureRate() >= config.getFailureRateThreshold() ||
+                    snapshot.getSlowCallRate() >= config.getSlowCallRateThreshold());
         }
 
         public boolean shouldTransitionToHalfOpen() {
@@ -219,15 +311,18 @@ public class DistributedCircuitBreakerService {
             0.5
         ));
 
-        // LLM service circuit breaker
+        // LLM service circuit breaker: time-based, since latency degrades before calls fail
         registerCircuitBreaker("llm-service", new CircuitBreakerConfig(
             "llm-service", 
             3, 
             Duration.ofSeconds(30), 
             2, 
-            50, 
+            60, 
             5, 
-            0.6
+            0.6,
+            CircuitBreakerSlidingWindow.Type.TIME_BASED,
+            Duration.ofSeconds(30),
+            0.8
         ));
 
         // Debate controller circuit breaker
@@ -318,16 +413,17 @@ public class DistributedCircuitBreakerService {
                         return Mono.just(new CircuitBreakerResult<>(false, null, "Circuit breaker is open", state.getState(), false));
                     }
 
-                    // Execute the operation
+                    // Execute the operation, timing it for slow-call tracking
+                    long startNanos = System.nanoTime();
                     return operation.get()
                             .flatMap(result -> {
                                 // Record success
-                                return recordSuccess(circuitBreakerName, state)
+                                return recordSuccess(circuitBreakerName, state, elapsedSince(startNanos))
                                         .map(updatedState -> new CircuitBreakerResult<>(true, result, null, updatedState.getState(), false));
                             })
                             .onErrorResume(error -> {
                                 // Record failure
-                                return recordFailure(circuitBreakerName, state, error)
+                                return recordFailure(circuitBreakerName, state, error, elapsedSince(startNanos))
                                         .flatMap(updatedState -> {
                                             // Try fallback if available
                                             if (fallback != null) {
@@ -341,60 +437,128 @@ public class DistributedCircuitBreakerService {
                 });
     }
 
+    private static Duration elapsedSince(long startNanos) {
+        return Duration.ofNanos(System.nanoTime() - startNanos);
+    }
+
     /**
-     * Get circuit breaker state from Redis with local cache fallback
+     * Get circuit breaker state from the local cache.
+     * Cluster state is merged in by {@link #synchronizeClusterState()}, never on the call path.
      */
     private Mono<CircuitBreakerState> getCircuitBreakerState(String name) {
-        return getDistributedState(name)
-                .switchIfEmpty(Mono.defer(() -> {
-                    // Fallback to local cache
-                    CircuitBreakerState localState = localStateCache.get(name);
-                    if (localState != null) {
-                        return Mono.just(localState);
+        return Mono.fromSupplier(() -> localStateCache.computeIfAbsent(name, key -> {
+            CircuitBreakerConfig config = circuitBreakerConfigs.computeIfAbsent(key, this::defaultConfig);
+            return new CircuitBreakerState(key, config);
+        }));
+    }
+
+    private CircuitBreakerConfig defaultConfig(String name) {
+        return new CircuitBreakerConfig(name, defaultFailureThreshold, defaultTimeout,
+                defaultHalfOpenMaxCalls, defaultSlidingWindowSize, defaultMinimumNumberOfCalls, 0.5,
+                defaultSlidingWindowType, defaultSlowCallDurationThreshold, defaultSlowCallRateThreshold);
+    }
+
+    /**
+     * Exchange window summaries with the other replicas and adopt newer cluster state transitions
+     */
+    @Scheduled(fixedDelayString = "${app.circuit-breaker.cluster-sync-interval:PT5S}")
+    public void synchronizeClusterState() {
+        if (!circuitBreakerEnabled || localStateCache.isEmpty()) {
+            return;
+        }
+
+        Flux.fromIterable(localStateCache.values())
+                .flatMap(state -> publishWindow(state)
+                        .then(refreshRemoteWindow(state))
+                        .then(adoptDistributedState(state)))
+                .then()
+                .doOnError(error -> log.warn("Failed to synchronize circuit breaker state: {}", error.getMessage()))
+                .subscribe();
+    }
+
+    /**
+     * Publish this replica's window summary as {@code epochMillis:calls,failedCalls,slowCalls}
+     */
+    private Mono<Void> publishWindow(CircuitBreakerState state) {
+        String key = "circuit_breaker:window:" + state.getName();
+        // Only a closed breaker's window is meaningful to the others
+        CircuitBreakerSlidingWindow.Snapshot snapshot = state.getState() == State.CLOSED
+                ? state.getLocalWindow()
+                : CircuitBreakerSlidingWindow.Snapshot.EMPTY;
+        String value = System.currentTimeMillis() + ":" + snapshot.encode();
+
+        return redisTemplate.opsForHash().put(key, nodeId, value)
+                .then(redisTemplate.expire(key, clusterSyncInterval.multipliedBy(6)))
+                .then()
+                .onErrorResume(error -> {
+                    log.debug("Failed to publish circuit breaker window for {}: {}", state.getName(), error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Sum the window summaries of the other replicas, ignoring those that stopped publishing
+     */
+    private Mono<Void> refreshRemoteWindow(CircuitBreakerState state) {
+        String key = "circuit_breaker:window:" + state.getName();
+        long staleBefore = System.currentTimeMillis() - clusterSyncInterval.multipliedBy(3).toMillis();
+
+        return redisTemplate.opsForHash().entries(key)
+                .filter(entry -> !nodeId.equals(entry.getKey()))
+                .<CircuitBreakerSlidingWindow.Snapshot>handle((entry, sink) -> {
+                    String[] parts = String.valueOf(entry.getValue()).split(":", 2);
+                    try {
+                        if (parts.length == 2 && Long.parseLong(parts[0]) >= staleBefore) {
+                            sink.next(CircuitBreakerSlidingWindow.Snapshot.decode(parts[1]));
+                        }
+                    } catch (NumberFormatException e) {
+                        // One malformed replica entry must not hide the windows of the others
+                        log.debug("Ignoring malformed circuit breaker window of {} for {}: {}",
+                                entry.getKey(), state.getName(), entry.getValue());
                     }
-                    
-                    // Create new state if not found
-                    CircuitBreakerConfig config = circuitBreakerConfigs.get(name);
-                    if (config == null) {
-                        config = new CircuitBreakerConfig(name, defaultFailureThreshold, defaultTimeout, 
-                                defaultHalfOpenMaxCalls, defaultSlidingWindowSize, defaultMinimumNumberOfCalls, 0.5);
-                        circuitBreakerConfigs.put(name, config);
+                })
+                .reduce(CircuitBreakerSlidingWindow.Snapshot.EMPTY, CircuitBreakerSlidingWindow.Snapshot::plus)
+                .doOnNext(remote -> {
+                    if (state.getState() == State.CLOSED) {
+                        state.setRemoteWindow(remote);
                     }
-                    
-                    CircuitBreakerState newState = new CircuitBreakerState(name, config);
-                    localStateCache.put(name, newState);
-                    return Mono.just(newState);
-                }));
+                })
+                .then()
+                .onErrorResume(error -> {
+                    log.debug("Failed to read circuit breaker windows for {}: {}", state.getName(), error.getMessage());
+                    return Mono.empty();
+                });
     }
 
     /**
-     * Get distributed state from Redis
+     * Adopt a state transition made by another replica if it is newer than ours
      */
-    private Mono<CircuitBreakerState> getDistributedState(String name) {
-        String key = "circuit_breaker:" + name;
-        
+    private Mono<Void> adoptDistributedState(CircuitBreakerState state) {
+        String key = "circuit_breaker:" + state.getName();
+
         return redisTemplate.opsForHash().entries(key)
                 .collectMap(entry -> (String) entry.getKey(), entry -> (String) entry.getValue())
-                .filter(map -> !map.isEmpty())
-                .map(stateMap -> {
-                    CircuitBreakerConfig config = circuitBreakerConfigs.get(name);
-                    if (config == null) {
-                        config = new CircuitBreakerConfig(name, defaultFailureThreshold, defaultTimeout,
-                                defaultHalfOpenMaxCalls, defaultSlidingWindowSize, defaultMinimumNumberOfCalls, 0.5);
+                .filter(map -> map.containsKey("state") && map.containsKey("lastStateChange"))
+                .doOnNext(stateMap -> {
+                    State remoteState = State.valueOf(stateMap.get("state"));
+                    Instant remoteChange = Instant.parse(stateMap.get("lastStateChange"));
+                    if (remoteState == state.getState() || !remoteChange.isAfter(state.getLastStateChange())) {
+                        return;
                     }
-                    
-                    CircuitBreakerState state = new CircuitBreakerState(name, config);
-                    state.setState(State.valueOf(stateMap.getOrDefault("state", "CLOSED")));
-                    state.setFailureCount(Integer.parseInt(stateMap.getOrDefault("failureCount", "0")));
-                    state.setSuccessCount(Integer.parseInt(stateMap.getOrDefault("successCount", "0")));
-                    state.setHalfOpenCallCount(Integer.parseInt(stateMap.getOrDefault("halfOpenCallCount", "0")));
-                    
-                    // Update local cache
-                    localStateCache.put(name, state);
-                    return state;
+
+                    State previousState = state.getState();
+                    state.setState(remoteState, remoteChange);
+                    state.setFailureCount(0);
+                    state.setSuccessCount(0);
+                    state.setHalfOpenCallCount(0);
+                    state.resetWindow();
+
+                    log.info("Circuit breaker {} adopted cluster state {} (was {})", state.getName(), remoteState, previousState);
+                    metricsCollectorService.recordCircuitBreakerStateChange(state.getName(), previousState.name(), remoteState.name());
                 })
+                .then()
                 .onErrorResume(error -> {
-                    log.warn("Failed to get distributed circuit breaker state for {}: {}", name, error.getMessage());
+                    log.warn("Failed to get distributed circuit breaker state for {}: {}", state.getName(), error.getMessage());
                     return Mono.empty();
                 });
     }
@@ -451,16 +615,21 @@ public class DistributedCircuitBreakerService {
     /**
      * Record successful execution
      */
-    private Mono<CircuitBreakerState> recordSuccess(String name, CircuitBreakerState state) {
-        state.recordSuccess();
+    private Mono<CircuitBreakerState> recordSuccess(String name, CircuitBreakerState state, Duration duration) {
+        state.recordSuccess(duration);
         
-        // Check state transitions
+        // Check state transitions; a slow-call rate can trip the breaker on success too
+        boolean transitioned = false;
         if (state.getState() == State.HALF_OPEN && state.shouldTransitionToClosed()) {
             transitionToClosed(state);
+            transitioned = true;
+        } else if (state.getState() == State.CLOSED && state.shouldTransitionToOpen()) {
+            transitionToOpen(state);
+            transitioned = true;
         }
         
-        // Update distributed state
-        return updateDistributedState(state)
+        // Only transitions are shared immediately; windows are exchanged by the cluster sync
+        return (transitioned ? updateDistributedState(state) : Mono.<Void>empty())
                 .then(Mono.just(state))
                 .doOnSuccess(s -> metricsCollectorService.recordCircuitBreakerSuccess(name));
     }
@@ -468,18 +637,22 @@ public class DistributedCircuitBreakerService {
     /**
      * Record failed execution
      */
-    private Mono<CircuitBreakerState> recordFailure(String name, CircuitBreakerState state, Throwable error) {
-        state.recordFailure();
+    private Mono<CircuitBreakerState> recordFailure(String name, CircuitBreakerState state, Throwable error,
+                                                    Duration duration) {
+        state.recordFailure(duration);
         
         // Check state transitions
+        boolean transitioned = false;
         if (state.getState() == State.CLOSED && state.shouldTransitionToOpen()) {
             transitionToOpen(state);
+            transitioned = true;
         } else if (state.getState() == State.HALF_OPEN) {
             transitionToOpen(state);
+            transitioned = true;
         }
         
-        // Update distributed state
-        return updateDistributedState(state)
+        // Only transitions are shared immediately; windows are exchanged by the cluster sync
+        return (transitioned ? updateDistributedState(state) : Mono.<Void>empty())
                 .then(Mono.just(state))
                 .doOnSuccess(s -> metricsCollectorService.recordCircuitBreakerFailure(name, error.getClass().getSimpleName()));
     }
@@ -491,6 +664,7 @@ public class DistributedCircuitBreakerService {
         State previousState = state.getState();
         state.setState(State.OPEN);
         state.setHalfOpenCallCount(0);
+        state.resetWindow();
         
         log.warn("Circuit breaker {} transitioned from {} to OPEN", state.getName(), previousState);
         metricsCollectorService.recordCircuitBreakerStateChange(state.getName(), previousState.name(), State.OPEN.name());
@@ -517,6 +691,7 @@ public class DistributedCircuitBreakerService {
         state.setFailureCount(0);
         state.setSuccessCount(0);
         state.setHalfOpenCallCount(0);
+        state.resetWindow();
         
         log.info("Circuit breaker {} transitioned from {} to CLOSED", state.getName(), previousState);
         metricsCollectorService.recordCircuitBreakerStateChange(state.getName(), previousState.name(), State.CLOSED.name());
@@ -536,15 +711,27 @@ public class DistributedCircuitBreakerService {
                     status.put("totalCalls", state.getTotalCalls());
                     status.put("successfulCalls", state.getSuccessfulCalls());
                     status.put("failedCalls", state.getFailedCalls());
+                    status.put("slowCalls", state.getSlowCalls());
                     status.put("failureRate", state.getFailureRate());
+                    status.put("slowCallRate", state.getSlowCallRate());
+                    status.put("window", Map.of(
+                        "calls", state.getWindow().getCalls(),
+                        "failedCalls", state.getWindow().getFailedCalls(),
+                        "slowCalls", state.getWindow().getSlowCalls(),
+                        "localCalls", state.getLocalWindow().getCalls(),
+                        "remoteCalls", state.getRemoteWindow().getCalls()
+                    ));
                     status.put("lastStateChange", state.getLastStateChange().toString());
                     status.put("config", Map.of(
                         "failureThreshold", state.getConfig().getFailureThreshold(),
                         "timeout", state.getConfig().getTimeout().toString(),
                         "halfOpenMaxCalls", state.getConfig().getHalfOpenMaxCalls(),
+                        "slidingWindowType", state.getConfig().getSlidingWindowType().name(),
                         "slidingWindowSize", state.getConfig().getSlidingWindowSize(),
                         "minimumNumberOfCalls", state.getConfig().getMinimumNumberOfCalls(),
-                        "failureRateThreshold", state.getConfig().getFailureRateThreshold()
+                        "failureRateThreshold", state.getConfig().getFailureRateThreshold(),
+                        "slowCallDurationThreshold", state.getConfig().getSlowCallDurationThreshold().toString(),
+                        "slowCallRateThreshold", state.getConfig().getSlowCallRateThreshold()
                     ));
                     return status;
                 });
@@ -565,6 +752,7 @@ public class DistributedCircuitBreakerService {
                     status.put("failureCount", state.getFailureCount());
                     status.put("totalCalls", state.getTotalCalls());
                     status.put("failureRate", state.getFailureRate());
+                    status.put("slowCallRate", state.getSlowCallRate());
                     status.put("lastStateChange", state.getLastStateChange().toString());
                     allStatuses.put(name, status);
                 }
@@ -584,6 +772,7 @@ public class DistributedCircuitBreakerService {
                     state.setFailureCount(0);
                     state.setSuccessCount(0);
                     state.setHalfOpenCallCount(0);
+                    state.resetWindow();
                     
                     return updateDistributedState(state)
                             .doOnSuccess(v -> log.info("Reset circuit breaker: {}", name));
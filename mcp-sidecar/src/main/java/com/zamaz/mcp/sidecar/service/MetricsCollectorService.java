@@ -4,6 +4,7 @@ import com.zamaz.mcp.sidecar.service.AILoadBalancingService;
 import com.zamaz.mcp.sidecar.service.CachingService;
 import com.zamaz.mcp.sidecar.config.TracingConfig;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
@@ -22,6 +23,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 /**
  * Comprehensive Metrics Collector Service for MCP Sidecar
@@ -658,6 +660,47 @@ public class MetricsCollectorService {
         log.debug("Recorded audit event: type={}, severity={}, outcome={}", eventType, severity, outcome);
     }
 
+    /**
+     * Register gauges for the audit write pipeline
+     */
+    public void registerAuditPipelineGauges(Supplier<Number> bufferDepth, Supplier<Number> spilledBytes) {
+        Gauge.builder("sidecar.audit.buffer.depth", bufferDepth)
+                .description("Audit events waiting in the in-memory ring buffer")
+                .register(meterRegistry);
+
+        Gauge.builder("sidecar.audit.spill.bytes", spilledBytes)
+                .description("Audit events spilled to local segments awaiting replay")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record an audit batch written to Redis
+     */
+    public void recordAuditBatch(int batchSize, Duration writeLatency) {
+        DistributionSummary.builder("sidecar.audit.batch.size")
+                .description("Audit events per Redis write")
+                .register(meterRegistry)
+                .record(batchSize);
+
+        Timer.builder("sidecar.audit.write.latency")
+                .description("Time from the oldest event in a batch being logged to Redis acknowledging it")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry)
+                .record(writeLatency);
+    }
+
+    /**
+     * Record audit events diverted to the local spill segment
+     */
+    public void recordAuditSpill(int events, String reason) {
+        Counter.builder("sidecar.audit.spilled")
+                .tag("reason", reason)
+                .description("Audit events written to the local spill segment")
+                .register(meterRegistry)
+                .increment(events);
+    }
+
     /**
      * Record security threat
      */
@@ -0,0 +1,43 @@
+package com.zamaz.mcp.sidecar.service;
+
+/**
+ * Peak-sensitive, time-decaying moving average of request latency.
+ *
+ * A latency above the current estimate replaces it outright, so a backend that slows down
+ * is penalized on its next response; lower latencies are blended in with a weight that
+ * depends on the time since the previous observation, so the estimate forgets old samples
+ * after roughly {@code decayNanos} regardless of request rate. Reads also decay the
+ * estimate towards zero, which lets a backend that was avoided after a spike be probed again.
+ */
+public class PeakEwmaLatency {
+
+    private final double decayNanos;
+    private double estimateNanos;
+    private long lastObservedNanos;
+
+    public PeakEwmaLatency(long decayNanos, long nowNanos) {
+        this.decayNanos = decayNanos;
+        this.lastObservedNanos = nowNanos;
+    }
+
+    /**
+     * Fold in the latency of a completed request
+     */
+    public synchronized void observe(long latencyNanos, long nowNanos) {
+        if (latencyNanos > estimateNanos) {
+            estimateNanos = latencyNanos;
+        } else {
+            double weight = Math.exp(-Math.max(0, nowNanos - lastObservedNanos) / decayNanos);
+            estimateNanos = estimateNanos * weight + latencyNanos * (1 - weight);
+        }
+        lastObservedNanos = nowNanos;
+    }
+
+    /**
+     * Current estimate in nanoseconds, or zero if nothing has been observed yet
+     */
+    public synchronized double get(long nowNanos) {
+        double weight = Math.exp(-Math.max(0, nowNanos - lastObservedNanos) / decayNanos);
+        return estimateNanos * weight;
+    }
+}
@@ -0,0 +1,29 @@
+package com.zamaz.mcp.sidecar.service;
+
+import com.zamaz.mcp.sidecar.service.AILoadBalancingService.AIServiceInstance;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the latency accounting of AILoadBalancingService instances
+ */
+class AILoadBalancingServiceTest {
+
+    @Test
+    void testFailedRequestsRaiseLatencyEstimate() {
+        AtomicLong clock = new AtomicLong();
+        AIServiceInstance failing = new AIServiceInstance("failing", "http://failing", "gpt", 1, 1, clock::get);
+        AIServiceInstance healthy = new AIServiceInstance("healthy", "http://healthy", "gpt", 1, 1, clock::get);
+
+        healthy.recordRequest(200);
+        // Fails in a few milliseconds, faster than any successful response
+        failing.recordFailure(5);
+
+        assertThat(failing.getFailureCount()).isEqualTo(1);
+        assertThat(failing.getPeakEwmaLatencyMillis()).isGreaterThan(healthy.getPeakEwmaLatencyMillis());
+        assertThat(failing.getLatencyCost()).isGreaterThan(healthy.getLatencyCost());
+    }
+}
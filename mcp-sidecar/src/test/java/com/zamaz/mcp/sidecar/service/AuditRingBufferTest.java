@@ -0,0 +1,121 @@
+package com.zamaz.mcp.sidecar.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the audit ring buffer and spill segments
+ */
+class AuditRingBufferTest {
+
+    @Test
+    void testRejectsOffersWhenFull() {
+        AuditRingBuffer<String> buffer = new AuditRingBuffer<>(4);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer("event-" + i)).isTrue();
+        }
+        assertThat(buffer.offer("overflow")).isFalse();
+
+        List<String> drained = new ArrayList<>();
+        assertThat(buffer.drainTo(drained, 2)).isEqualTo(2);
+        assertThat(drained).containsExactly("event-0", "event-1");
+        assertThat(buffer.offer("event-4")).isTrue();
+        assertThat(buffer.size()).isEqualTo(3);
+    }
+
+    @Test
+    void testConcurrentProducersLoseNothing() throws InterruptedException {
+        AuditRingBuffer<Long> buffer = new AuditRingBuffer<>(256);
+        int producers = 4;
+        int perProducer = 50_000;
+        AtomicLong sum = new AtomicLong();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long offset = (long) p * perProducer;
+            Thread thread = new Thread(() -> {
+                for (long i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(offset + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        long expected = (long) producers * perProducer;
+        long received = 0;
+        List<Long> batch = new ArrayList<>();
+        while (received < expected) {
+            batch.clear();
+            received += buffer.drainTo(batch, 100);
+            batch.forEach(sum::addAndGet);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(sum.get()).isEqualTo(expected * (expected - 1) / 2);
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+
+    @Test
+    void testSpilledEventsSurviveRestart(@TempDir Path directory) throws Exception {
+        AuditSpillLog spillLog = new AuditSpillLog(directory, 1024);
+        Map<String, String> events = new LinkedHashMap<>();
+        events.put("audit:1:a", "{\"id\":\"a\"}");
+        events.put("audit:2:b", "{\"id\":\"b\"}");
+        spillLog.append(events);
+        spillLog.close();
+
+        AuditSpillLog restarted = new AuditSpillLog(directory, 1024);
+        assertThat(restarted.hasPending()).isTrue();
+
+        List<Path> segments = restarted.seal();
+        assertThat(segments).hasSize(1);
+        assertThat(restarted.read(segments.get(0))).containsExactlyEntriesOf(events);
+
+        restarted.delete(segments.get(0));
+        assertThat(restarted.hasPending()).isFalse();
+        assertThat(Files.list(directory)).isEmpty();
+    }
+
+    @Test
+    void testAppendsReachDiskOnSync(@TempDir Path directory) throws Exception {
+        AuditSpillLog spillLog = new AuditSpillLog(directory, 1024);
+        spillLog.append(Map.of("audit:1:a", "{\"id\":\"a\"}"));
+        spillLog.append(Map.of("audit:2:b", "{\"id\":\"b\"}"));
+
+        assertThat(spillLog.hasPending()).isTrue();
+        assertThat(Files.list(directory)).isEmpty();
+
+        spillLog.sync();
+
+        AuditSpillLog restarted = new AuditSpillLog(directory, 1024);
+        assertThat(restarted.read(restarted.seal().get(0))).containsOnlyKeys("audit:1:a", "audit:2:b");
+        spillLog.close();
+    }
+
+    @Test
+    void testSkipsTornRecord(@TempDir Path directory) throws Exception {
+        Files.writeString(directory.resolve("audit-0000000000000000001-0000.seg"),
+                "audit:1:a\t{\"id\":\"a\"}\naudit:2:b\t{\"id\":");
+
+        AuditSpillLog spillLog = new AuditSpillLog(directory, 1024);
+        Map<String, String> events = spillLog.read(spillLog.seal().get(0));
+
+        assertThat(events).containsOnlyKeys("audit:1:a");
+    }
+}
@@ -0,0 +1,114 @@
+package com.zamaz.mcp.sidecar.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for CircuitBreakerSlidingWindow
+ */
+class CircuitBreakerSlidingWindowTest {
+
+    @Test
+    void testCountBasedWindowEvictsOldestOutcome() {
+        CircuitBreakerSlidingWindow window = CircuitBreakerSlidingWindow.of(CircuitBreakerSlidingWindow.Type.COUNT_BASED, 3);
+
+        window.record(true, true);
+        window.record(false, false);
+        window.record(false, true);
+        assertThat(window.snapshot().getCalls()).isEqualTo(3);
+        assertThat(window.snapshot().getFailedCalls()).isEqualTo(1);
+        assertThat(window.snapshot().getSlowCalls()).isEqualTo(2);
+
+        // Overwrites the first (failed, slow) outcome
+        window.record(false, false);
+        CircuitBreakerSlidingWindow.Snapshot snapshot = window.snapshot();
+        assertThat(snapshot.getCalls()).isEqualTo(3);
+        assertThat(snapshot.getFailedCalls()).isZero();
+        assertThat(snapshot.getSlowCalls()).isEqualTo(1);
+    }
+
+    @Test
+    void testTimeBasedWindowExpiresOldSeconds() {
+        AtomicLong clock = new AtomicLong(100_000);
+        CircuitBreakerSlidingWindow window = new CircuitBreakerSlidingWindow.TimeBased(10, clock::get);
+
+        window.record(true, false);
+        window.record(true, false);
+        clock.addAndGet(5_000);
+        window.record(false, true);
+        assertThat(window.snapshot().getCalls()).isEqualTo(3);
+        assertThat(window.snapshot().getFailureRate()).isEqualTo(2.0 / 3);
+
+        clock.addAndGet(5_000);
+        CircuitBreakerSlidingWindow.Snapshot snapshot = window.snapshot();
+        assertThat(snapshot.getCalls()).isEqualTo(1);
+        assertThat(snapshot.getFailedCalls()).isZero();
+        assertThat(snapshot.getSlowCallRate()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testSnapshotRoundTripsAndMerges() {
+        CircuitBreakerSlidingWindow.Snapshot local = new CircuitBreakerSlidingWindow.Snapshot(10, 4, 1);
+        CircuitBreakerSlidingWindow.Snapshot remote = CircuitBreakerSlidingWindow.Snapshot.decode(local.encode());
+
+        CircuitBreakerSlidingWindow.Snapshot merged = local.plus(remote);
+        assertThat(merged.getCalls()).isEqualTo(20);
+        assertThat(merged.getFailureRate()).isEqualTo(0.4);
+        assertThat(merged.getSlowCallRate()).isEqualTo(0.1);
+    }
+
+    @Test
+    void testSnapshotDecodeRejectsMalformedValue() {
+        assertThatThrownBy(() -> CircuitBreakerSlidingWindow.Snapshot.decode("10,4"))
+                .isInstanceOf(NumberFormatException.class);
+        assertThatThrownBy(() -> CircuitBreakerSlidingWindow.Snapshot.decode("10,four,1"))
+                .isInstanceOf(NumberFormatException.class);
+    }
+
+    @Test
+    void testResetClearsWindow() {
+        CircuitBreakerSlidingWindow window = CircuitBreakerSlidingWindow.of(CircuitBreakerSlidingWindow.Type.COUNT_BASED, 5);
+        window.record(true, true);
+        window.reset();
+
+        assertThat(window.snapshot().getCalls()).isZero();
+        assertThat(window.snapshot().getFailureRate()).isZero();
+    }
+
+    @Test
+    void testResetDuringConcurrentRecordsKeepsTotalsConsistent() throws InterruptedException {
+        CircuitBreakerSlidingWindow window = CircuitBreakerSlidingWindow.of(CircuitBreakerSlidingWindow.Type.COUNT_BASED, 8);
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Thread> recorders = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread recorder = new Thread(() -> {
+                while (running.get()) {
+                    window.record(true, true);
+                }
+            });
+            recorder.start();
+            recorders.add(recorder);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            window.reset();
+        }
+        running.set(false);
+        for (Thread recorder : recorders) {
+            recorder.join();
+        }
+
+        // Every recorded outcome failed, so the totals only agree if no reset tore them apart
+        CircuitBreakerSlidingWindow.Snapshot snapshot = window.snapshot();
+        assertThat(snapshot.getCalls()).isBetween(0L, 8L);
+        assertThat(snapshot.getFailedCalls()).isEqualTo(snapshot.getCalls());
+        assertThat(snapshot.getSlowCalls()).isEqualTo(snapshot.getCalls());
+    }
+}
@@ -0,0 +1,139 @@
+package com.zamaz.mcp.sidecar.service;
+
+import com.zamaz.mcp.sidecar.service.AILoadBalancingService.AIRequest;
+import com.zamaz.mcp.sidecar.service.AILoadBalancingService.AIServiceInstance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Discrete-event simulation comparing tail latency of the AI load balancing strategies.
+ *
+ * A fleet of LLM backends with unequal speed serves Poisson arrivals of requests with varied
+ * token budgets. One backend periodically degrades for a minute, which configured weights
+ * cannot know about. Time is virtual, so all strategies run in a few seconds, repeatably
+ * for a given seed. Run with:
+ * {@code mvn -pl mcp-sidecar test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.zamaz.mcp.sidecar.service.LoadBalancingSimulation}
+ */
+public class LoadBalancingSimulation {
+
+    private static final String[] STRATEGIES = {
+        "round-robin", "weighted-round-robin", "least-connections", "peak-ewma", "least-outstanding-work"
+    };
+
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final long DEGRADATION_PERIOD_MILLIS = 600_000L;
+    private static final long DEGRADATION_MILLIS = 60_000L;
+
+    /**
+     * A simulated backend; service time grows once its concurrency slots are exhausted
+     */
+    private static final class Backend {
+        final AIServiceInstance instance;
+        final double millisPerToken;
+        final int slots;
+        final boolean degrades;
+
+        Backend(AIServiceInstance instance, double millisPerToken, int slots, boolean degrades) {
+            this.instance = instance;
+            this.millisPerToken = millisPerToken;
+            this.slots = slots;
+            this.degrades = degrades;
+        }
+
+        long serviceMillis(long tokens, long nowMillis) {
+            double base = 150 + tokens * millisPerToken;
+            if (degrades && nowMillis % DEGRADATION_PERIOD_MILLIS < DEGRADATION_MILLIS) {
+                base *= 8;
+            }
+            double contention = Math.max(1.0, (double) (instance.getActiveConnections() + 1) / slots);
+            return Math.round(base * contention);
+        }
+    }
+
+    private record Completion(long atMillis, Backend backend, long tokens, long latencyMillis) {}
+
+    /**
+     * Latency percentiles of one strategy, in milliseconds
+     */
+    record Result(String strategy, double mean, long p50, long p99, long p999, long max) {
+        @Override
+        public String toString() {
+            return String.format("%-24s mean=%8.1f p50=%7d p99=%7d p99.9=%7d max=%7d",
+                    strategy, mean, p50, p99, p999, max);
+        }
+    }
+
+    static Result simulate(String strategy, long seed, int requests, double requestsPerSecond) {
+        AtomicLong clockNanos = new AtomicLong();
+        List<Backend> backends = new ArrayList<>();
+        backends.add(new Backend(new AIServiceInstance("fast-1", "sim", "sim", 10, 1, clockNanos::get), 2.0, 8, false));
+        backends.add(new Backend(new AIServiceInstance("fast-2", "sim", "sim", 10, 1, clockNanos::get), 2.0, 8, false));
+        backends.add(new Backend(new AIServiceInstance("medium-1", "sim", "sim", 6, 2, clockNanos::get), 3.5, 8, false));
+        backends.add(new Backend(new AIServiceInstance("medium-2", "sim", "sim", 6, 2, clockNanos::get), 3.5, 8, true));
+        backends.add(new Backend(new AIServiceInstance("slow-1", "sim", "sim", 3, 3, clockNanos::get), 7.0, 8, false));
+        List<AIServiceInstance> instances = backends.stream().map(backend -> backend.instance).toList();
+
+        AILoadBalancingService balancer = new AILoadBalancingService(null, null);
+        Random random = new Random(seed);
+        PriorityQueue<Completion> inFlight = new PriorityQueue<>((a, b) -> Long.compare(a.atMillis(), b.atMillis()));
+        long[] latencies = new long[requests];
+        double nowMillis = 0;
+
+        for (int i = 0; i < requests; i++) {
+            nowMillis += -Math.log(1 - random.nextDouble()) * 1000.0 / requestsPerSecond;
+            long arrival = (long) nowMillis;
+
+            while (!inFlight.isEmpty() && inFlight.peek().atMillis() <= arrival) {
+                Completion done = inFlight.poll();
+                clockNanos.set(done.atMillis() * NANOS_PER_MILLI);
+                done.backend().instance.recordRequest(done.latencyMillis());
+                done.backend().instance.decrementActiveConnections();
+                done.backend().instance.removeOutstandingTokens(done.tokens());
+            }
+            clockNanos.set(arrival * NANOS_PER_MILLI);
+
+            AIRequest request = new AIRequest();
+            request.setMaxTokens(100 + random.nextInt(900));
+            long tokens = AILoadBalancingService.estimateTokens(request);
+            long generated = Math.round(tokens * (0.3 + 0.7 * random.nextDouble()));
+
+            AIServiceInstance selected = balancer.selectInstance("sim", strategy, instances);
+            Backend backend = backends.get(instances.indexOf(selected));
+            long latency = backend.serviceMillis(generated, arrival);
+
+            selected.incrementActiveConnections();
+            selected.addOutstandingTokens(tokens);
+            inFlight.add(new Completion(arrival + latency, backend, tokens, latency));
+            latencies[i] = latency;
+        }
+
+        Arrays.sort(latencies);
+        return new Result(strategy,
+                Arrays.stream(latencies).average().orElse(0),
+                percentile(latencies, 0.50),
+                percentile(latencies, 0.99),
+                percentile(latencies, 0.999),
+                latencies[latencies.length - 1]);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    public static void main(String[] args) {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        double requestsPerSecond = args.length > 1 ? Double.parseDouble(args[1]) : 12;
+
+        System.out.printf("%d requests at %.1f req/s%n", requests, requestsPerSecond);
+        for (String strategy : STRATEGIES) {
+            System.out.println(simulate(strategy, 42, requests, requestsPerSecond));
+        }
+    }
+}
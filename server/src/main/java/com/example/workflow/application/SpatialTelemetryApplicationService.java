@@ -0,0 +1,71 @@
+package com.example.workflow.application;
+
+import com.example.workflow.domain.*;
+import com.example.workflow.domain.ports.SpatialRepository;
+import com.example.workflow.domain.services.LiveSpatialIndex;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Spatial telemetry queries for live map views and history
+ * Live queries are answered by the in-memory index; time ranges the index no longer holds
+ * fall back to PostGIS.
+ */
+@Service
+public class SpatialTelemetryApplicationService {
+    
+    private final LiveSpatialIndex liveSpatialIndex;
+    private final SpatialRepository spatialRepository;
+    
+    public SpatialTelemetryApplicationService(LiveSpatialIndex liveSpatialIndex,
+                                              SpatialRepository spatialRepository) {
+        this.liveSpatialIndex = liveSpatialIndex;
+        this.spatialRepository = spatialRepository;
+    }
+    
+    /**
+     * Latest reading of every device of the organization currently within the radius, nearest first
+     */
+    public List<TelemetryData> findDevicesWithinRadius(String organizationId, GeoLocation center, double radiusKm) {
+        return liveSpatialIndex.latestWithinRadius(organizationId, center, radiusKm);
+    }
+    
+    /**
+     * Latest reading of every device of the organization currently within the bounding box, newest first
+     */
+    public List<TelemetryData> findDevicesInBoundingBox(String organizationId, BoundingBox boundingBox) {
+        return liveSpatialIndex.latestWithinBoundingBox(organizationId, boundingBox);
+    }
+    
+    /**
+     * Latest readings of the organization's devices currently nearest to a point, nearest first
+     */
+    public List<TelemetryData> findNearestDevices(String organizationId, GeoLocation point, int count) {
+        return liveSpatialIndex.nearestDevices(organizationId, point, count);
+    }
+    
+    public List<TelemetryData> findWithinRadius(String organizationId, GeoLocation center, double radiusKm,
+                                                Instant start, Instant end) {
+        if (liveSpatialIndex.covers(organizationId, start)) {
+            return liveSpatialIndex.recentWithinRadius(organizationId, center, radiusKm, start, end);
+        }
+        return spatialRepository.queryByRadiusWithTime(organizationId, center, radiusKm, start, end);
+    }
+    
+    public List<TelemetryData> findInBoundingBox(String organizationId, BoundingBox boundingBox,
+                                                 Instant start, Instant end) {
+        if (liveSpatialIndex.covers(organizationId, start)) {
+            return liveSpatialIndex.recentWithinBoundingBox(organizationId, boundingBox, start, end);
+        }
+        return spatialRepository.queryByBoundingBoxWithTime(organizationId, boundingBox, start, end);
+    }
+    
+    /**
+     * Stored readings of the organization nearest to a point, over the whole history
+     */
+    public List<TelemetryData> findNearestReadings(String organizationId, GeoLocation point, int count) {
+        return spatialRepository.queryNearestNeighbors(organizationId, point, count);
+    }
+}
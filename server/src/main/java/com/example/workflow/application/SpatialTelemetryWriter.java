@@ -0,0 +1,185 @@
+package com.example.workflow.application;
+
+import com.example.workflow.domain.TelemetryData;
+import com.example.workflow.domain.ports.SpatialRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes spatial telemetry to PostGIS in batches off the ingestion path
+ *
+ * Points are queued and a writer thread stores them with one batch insert per batch, lingering
+ * briefly to fill it. Cached map tiles are invalidated once their points are stored, so a tile is
+ * never re-rendered and cached without them. When the queue is full the ingesting thread writes
+ * the point itself, which slows ingestion down instead of dropping data.
+ */
+@Service
+public class SpatialTelemetryWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpatialTelemetryWriter.class);
+
+    private final SpatialRepository spatialRepository;
+    private final TelemetryTileApplicationService telemetryTileApplicationService;
+    private final int batchSize;
+    private final long lingerMs;
+    private final int maxRetries;
+    private final long retryIntervalMs;
+
+    private final BlockingQueue<TelemetryData> queue;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    private final AtomicLong totalWritten = new AtomicLong();
+    private final AtomicLong totalWrittenByCaller = new AtomicLong();
+    private final AtomicLong totalDropped = new AtomicLong();
+
+    @Autowired
+    public SpatialTelemetryWriter(SpatialRepository spatialRepository,
+                                  TelemetryTileApplicationService telemetryTileApplicationService,
+                                  @Value("${workflow.spatial-write.batch-size:500}") int batchSize,
+                                  @Value("${workflow.spatial-write.linger-ms:20}") long lingerMs,
+                                  @Value("${workflow.spatial-write.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${workflow.spatial-write.max-retries:3}") int maxRetries,
+                                  @Value("${workflow.spatial-write.retry-interval-ms:500}") long retryIntervalMs) {
+        this.spatialRepository = spatialRepository;
+        this.telemetryTileApplicationService = telemetryTileApplicationService;
+        this.batchSize = batchSize;
+        this.lingerMs = lingerMs;
+        this.maxRetries = maxRetries;
+        this.retryIntervalMs = retryIntervalMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::runWriter, "postgis-spatial-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // The writer drains what is queued before it stops
+        running = false;
+        if (writerThread != null) {
+            try {
+                writerThread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        logger.info("Spatial telemetry writer stopped. Written: {}, written by callers: {}, dropped: {}, still queued: {}",
+            totalWritten.get(), totalWrittenByCaller.get(), totalDropped.get(), queue.size());
+    }
+
+    /**
+     * Queue a point for storage
+     */
+    public void add(TelemetryData data) {
+        if (data == null || !data.hasSpatialData()) {
+            return;
+        }
+        if (running && queue.offer(data)) {
+            return;
+        }
+        // Queue full or writer stopped: write on the caller's thread
+        write(List.of(data));
+        totalWrittenByCaller.incrementAndGet();
+    }
+
+    public long getQueueSize() {
+        return queue.size();
+    }
+
+    public long getTotalWritten() {
+        return totalWritten.get();
+    }
+
+    public long getTotalDropped() {
+        return totalDropped.get();
+    }
+
+    private void runWriter() {
+        List<TelemetryData> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                if (collectBatch(batch)) {
+                    writeWithRetry(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Error writing spatial telemetry batch", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Wait for the first point, then linger briefly to fill the batch
+     * @return false if nothing arrived
+     */
+    private boolean collectBatch(List<TelemetryData> batch) throws InterruptedException {
+        TelemetryData first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return false;
+        }
+        batch.add(first);
+        queue.drainTo(batch, batchSize - batch.size());
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        while (batch.size() < batchSize && running) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            TelemetryData next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+        return true;
+    }
+
+    private void writeWithRetry(List<TelemetryData> batch) throws InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                write(batch);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= maxRetries || !running) {
+                    totalDropped.addAndGet(batch.size());
+                    logger.error("Dropping {} spatial telemetry points after {} attempts: {}",
+                        batch.size(), attempt + 1, e.getMessage());
+                    return;
+                }
+                logger.debug("Spatial telemetry batch write failed, retrying: {}", e.getMessage());
+                Thread.sleep(retryIntervalMs << Math.min(attempt, 10));
+            }
+        }
+    }
+
+    private void write(List<TelemetryData> batch) {
+        spatialRepository.saveSpatialDataBatch(batch);
+        totalWritten.addAndGet(batch.size());
+        // Tiles may only be evicted once the points are visible to tile queries
+        batch.forEach(telemetryTileApplicationService::invalidate);
+    }
+}
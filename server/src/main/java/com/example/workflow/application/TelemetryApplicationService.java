@@ -4,21 +4,45 @@ import com.example.workflow.domain.*;
 import com.example.workflow.domain.ports.*;
 import com.example.workflow.domain.services.*;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
 
 @Service
 public class TelemetryApplicationService {
     
     private final TelemetryDomainService telemetryDomainService;
     private final TelemetryRepository telemetryRepository;
+    private final SpatialTelemetryWriter spatialTelemetryWriter;
+    private final LiveSpatialIndex liveSpatialIndex;
     
     public TelemetryApplicationService(TelemetryDomainService telemetryDomainService,
-                                    TelemetryRepository telemetryRepository) {
+                                    TelemetryRepository telemetryRepository,
+                                    SpatialTelemetryWriter spatialTelemetryWriter,
+                                    LiveSpatialIndex liveSpatialIndex) {
         this.telemetryDomainService = telemetryDomainService;
         this.telemetryRepository = telemetryRepository;
+        this.spatialTelemetryWriter = spatialTelemetryWriter;
+        this.liveSpatialIndex = liveSpatialIndex;
     }
     
     public void ingestTelemetryData(TelemetryData data) {
         telemetryRepository.saveTimeSeries(data);
+        if (data.hasSpatialData()) {
+            // Map tiles and historical spatial queries read PostGIS, written in batches like the
+            // time series; live queries read the in-memory index right away
+            spatialTelemetryWriter.add(data);
+            liveSpatialIndex.add(data);
+        }
         telemetryDomainService.triggerWorkflowConditions(data);
     }
-}
\ No newline at end of file
+    
+    /**
+     * Stream stored telemetry with backpressure
+     * The repository stream is read on demand and closed when the subscriber cancels,
+     * which also cancels the underlying database query
+     */
+    public Flux<TelemetryData> streamTelemetry(TelemetryQuery query) {
+        return Flux.fromStream(() -> telemetryRepository.queryStream(query))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.workflow.application;
+
+import com.example.workflow.domain.*;
+import com.example.workflow.domain.ports.SpatialRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serves telemetry as Mapbox vector tiles rendered by PostGIS
+ *
+ * A tile shows the telemetry of a trailing window that ends at a time bucket boundary, so every
+ * request within one bucket shares the same tile. Tiles are cached per organization, z/x/y and
+ * bucket in a size-bounded cache; ingested points evict the cached tiles they fall into at every
+ * zoom level.
+ */
+@Service
+public class TelemetryTileApplicationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TelemetryTileApplicationService.class);
+
+    // Latitude limit of the Web Mercator projection
+    private static final double MAX_LATITUDE = 85.05112878;
+
+    private final SpatialRepository spatialRepository;
+    private final long bucketMillis;
+    private final long windowMillis;
+    private final int clusterBelowZoom;
+    private final int maxZoom;
+    private final Clock clock;
+
+    private final Cache<TileKey, TelemetryTile> tiles;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    @Autowired
+    public TelemetryTileApplicationService(SpatialRepository spatialRepository,
+                                           @Value("${workflow.tiles.time-bucket-ms:60000}") long bucketMillis,
+                                           @Value("${workflow.tiles.window-ms:3600000}") long windowMillis,
+                                           @Value("${workflow.tiles.cluster-below-zoom:15}") int clusterBelowZoom,
+                                           @Value("${workflow.tiles.max-zoom:22}") int maxZoom,
+                                           @Value("${workflow.tiles.cache-size:10000}") int maxCachedTiles) {
+        this(spatialRepository, bucketMillis, windowMillis, clusterBelowZoom, maxZoom, maxCachedTiles, Clock.systemUTC());
+    }
+
+    TelemetryTileApplicationService(SpatialRepository spatialRepository, long bucketMillis, long windowMillis,
+                                    int clusterBelowZoom, int maxZoom, int maxCachedTiles, Clock clock) {
+        if (bucketMillis <= 0 || windowMillis <= 0) {
+            throw new IllegalArgumentException("Tile time bucket and window must be positive");
+        }
+        if (maxZoom < 0 || maxZoom > 30) {
+            throw new IllegalArgumentException("Max zoom must be between 0 and 30: " + maxZoom);
+        }
+        this.spatialRepository = Objects.requireNonNull(spatialRepository);
+        this.bucketMillis = bucketMillis;
+        this.windowMillis = windowMillis;
+        this.clusterBelowZoom = clusterBelowZoom;
+        this.maxZoom = maxZoom;
+        this.clock = Objects.requireNonNull(clock);
+        // Maintenance on the calling thread keeps the size bound and removals synchronous
+        this.tiles = Caffeine.newBuilder()
+            .maximumSize(maxCachedTiles)
+            .executor(Runnable::run)
+            .build();
+    }
+
+    /**
+     * Get the tile of the time bucket containing the given time, or the current bucket if null or later
+     */
+    public TelemetryTile getTile(String organizationId, int zoom, int x, int y, Instant at) {
+        Objects.requireNonNull(organizationId, "Organization ID cannot be null");
+        if (zoom < 0 || zoom > maxZoom) {
+            throw new IllegalArgumentException("Zoom must be between 0 and " + maxZoom + ": " + zoom);
+        }
+        if (x < 0 || y < 0 || x >= 1L << zoom || y >= 1L << zoom) {
+            throw new IllegalArgumentException("Tile " + x + "/" + y + " is outside zoom level " + zoom);
+        }
+
+        Instant now = clock.instant();
+        long bucketEnd = bucketEnd((at != null && at.isBefore(now) ? at : now).toEpochMilli());
+        TileKey key = new TileKey(organizationId, zoom, x, y, bucketEnd);
+
+        TelemetryTile tile = tiles.getIfPresent(key);
+        if (tile != null) {
+            hits.increment();
+            return tile;
+        }
+        // Concurrent requests for the same tile wait for a single render, and an invalidation
+        // of the tile waits until the render is cached before removing it
+        return tiles.get(key, k -> {
+            misses.increment();
+            return render(organizationId, zoom, x, y, bucketEnd);
+        });
+    }
+
+    /**
+     * Evict the cached tiles that contain a newly stored telemetry point
+     * Must be called after the point is visible to tile queries.
+     */
+    public void invalidate(TelemetryData data) {
+        if (!data.hasSpatialData() || tiles.estimatedSize() == 0) {
+            return;
+        }
+        long timestamp = data.getTimestamp().toEpochMilli();
+        // Buckets whose window [end - window, end) contains the timestamp; no bucket after the
+        // current one is ever cached
+        long firstEnd = bucketEnd(timestamp);
+        long lastEnd = Math.min(timestamp + windowMillis, bucketEnd(clock.millis()));
+
+        GeoLocation location = data.getLocation();
+        Map<TileKey, TelemetryTile> cached = tiles.asMap();
+        for (int zoom = 0; zoom <= maxZoom; zoom++) {
+            int x = tileX(location.longitude(), zoom);
+            int y = tileY(location.latitude(), zoom);
+            for (long end = firstEnd; end <= lastEnd; end += bucketMillis) {
+                if (cached.remove(new TileKey(data.getOrganizationId(), zoom, x, y, end)) != null) {
+                    invalidations.increment();
+                }
+            }
+        }
+    }
+
+    public TileCacheStats getCacheStats() {
+        tiles.cleanUp();
+        return new TileCacheStats((int) tiles.estimatedSize(), hits.sum(), misses.sum(), invalidations.sum());
+    }
+
+    private TelemetryTile render(String organizationId, int zoom, int x, int y, long bucketEnd) {
+        Instant end = Instant.ofEpochMilli(bucketEnd);
+        Instant start = end.minusMillis(windowMillis);
+        long renderStart = System.nanoTime();
+
+        byte[] data = spatialRepository.renderTelemetryTile(organizationId, zoom, x, y, start, end,
+            zoom < clusterBelowZoom);
+
+        logger.debug("Rendered telemetry tile {}/{}/{} for {} in {} ms ({} bytes)",
+            zoom, x, y, end, (System.nanoTime() - renderStart) / 1_000_000, data.length);
+        return new TelemetryTile(data, "\"" + DigestUtils.md5DigestAsHex(data) + "\"", start, end);
+    }
+
+    private long bucketEnd(long epochMillis) {
+        return (Math.floorDiv(epochMillis, bucketMillis) + 1) * bucketMillis;
+    }
+
+    static int tileX(double longitude, int zoom) {
+        int tiles = 1 << zoom;
+        int x = (int) Math.floor((longitude + 180.0) / 360.0 * tiles);
+        return Math.max(0, Math.min(tiles - 1, x));
+    }
+
+    static int tileY(double latitude, int zoom) {
+        int tiles = 1 << zoom;
+        double radians = Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude)));
+        double mercator = Math.log(Math.tan(radians) + 1 / Math.cos(radians));
+        int y = (int) Math.floor((1 - mercator / Math.PI) / 2 * tiles);
+        return Math.max(0, Math.min(tiles - 1, y));
+    }
+
+    /**
+     * Encoded tile with its entity tag and the time window it shows
+     */
+    public record TelemetryTile(byte[] data, String etag, Instant start, Instant end) {}
+
+    public record TileCacheStats(int cachedTiles, long hits, long misses, long invalidations) {}
+
+    private record TileKey(String organizationId, int zoom, int x, int y, long bucketEnd) {}
+}
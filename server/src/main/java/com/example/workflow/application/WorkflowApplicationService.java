@@ -11,13 +11,19 @@ import java.util.Optional;
 public class WorkflowApplicationService {
     
     private final WorkflowDomainService workflowDomainService;
+    private final ConditionEvaluationService conditionEvaluationService;
+    private final WorkflowExecutionEngine workflowExecutionEngine;
     private final WorkflowRepository workflowRepository;
     private final TelemetryRepository telemetryRepository;
     
     public WorkflowApplicationService(WorkflowDomainService workflowDomainService,
+                                   ConditionEvaluationService conditionEvaluationService,
+                                   WorkflowExecutionEngine workflowExecutionEngine,
                                    WorkflowRepository workflowRepository,
                                    TelemetryRepository telemetryRepository) {
         this.workflowDomainService = workflowDomainService;
+        this.conditionEvaluationService = conditionEvaluationService;
+        this.workflowExecutionEngine = workflowExecutionEngine;
         this.workflowRepository = workflowRepository;
         this.telemetryRepository = telemetryRepository;
     }
@@ -34,6 +40,24 @@ public class WorkflowApplicationService {
         return new WorkflowResponse(workflow);
     }
     
+    public WorkflowResponse updateWorkflow(WorkflowId id, UpdateWorkflowRequest request) {
+        Workflow workflow = workflowRepository.findById(id)
+            .orElseThrow(() -> new IllegalArgumentException("Workflow not found: " + id));
+        
+        workflowDomainService.updateWorkflow(workflow, request.name(), request.nodes(), request.edges());
+        workflowRepository.save(workflow);
+        return new WorkflowResponse(workflow);
+    }
+    
+    public boolean deleteWorkflow(WorkflowId id) {
+        if (!workflowRepository.exists(id)) {
+            return false;
+        }
+        workflowRepository.delete(id);
+        conditionEvaluationService.evictWorkflow(id);
+        return true;
+    }
+    
     public Optional<WorkflowResponse> getWorkflow(WorkflowId id) {
         return workflowRepository.findById(id)
             .map(WorkflowResponse::new);
@@ -53,13 +77,18 @@ public class WorkflowApplicationService {
         }
         
         Workflow workflow = workflowOpt.get();
-        WorkflowExecution execution = workflowDomainService.executeWorkflow(workflow, telemetryData);
+        WorkflowExecution execution = workflowExecutionEngine.execute(workflow, telemetryData);
         
         return new WorkflowExecutionResponse(execution);
     }
+    
+    public WorkflowExecutionResponse resumeExecution(ExecutionId executionId) {
+        return new WorkflowExecutionResponse(workflowExecutionEngine.resume(executionId));
+    }
 }
 
 record CreateWorkflowRequest(String name, String organizationId, List<WorkflowNode> nodes, List<WorkflowEdge> edges) {}
+record UpdateWorkflowRequest(String name, List<WorkflowNode> nodes, List<WorkflowEdge> edges) {}
 record WorkflowResponse(WorkflowId id, String name, String organizationId, WorkflowStatus status) {
     public WorkflowResponse(Workflow workflow) {
         this(workflow.getId(), workflow.getName(), workflow.getOrganizationId(), workflow.getStatus());
@@ -0,0 +1,72 @@
+package com.example.workflow.domain;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Checkpoint of a workflow execution, saved after every node so the execution can be resumed
+ * Nodes in completedNodes either ran or were skipped; outgoing edges of completed nodes that are
+ * not in takenEdges are dead branches. A running execution is leased by the node running it until
+ * leaseExpiresAt; only then may another node resume it.
+ */
+public record ExecutionCheckpoint(
+    ExecutionId executionId,
+    WorkflowId workflowId,
+    Instant workflowVersion,
+    String organizationId,
+    ExecutionStatus status,
+    Instant startedAt,
+    Instant checkpointedAt,
+    NodeId currentNodeId,
+    String errorMessage,
+    TelemetryData triggerData,
+    Set<NodeId> completedNodes,
+    Set<EdgeId> takenEdges,
+    Map<String, Object> contextData,
+    String owner,
+    Instant leaseExpiresAt
+) {
+    public ExecutionCheckpoint {
+        Objects.requireNonNull(executionId, "Execution ID cannot be null");
+        Objects.requireNonNull(workflowId, "Workflow ID cannot be null");
+        Objects.requireNonNull(workflowVersion, "Workflow version cannot be null");
+        Objects.requireNonNull(status, "Execution status cannot be null");
+        completedNodes = Set.copyOf(completedNodes);
+        takenEdges = Set.copyOf(takenEdges);
+        contextData = Map.copyOf(contextData);
+    }
+    
+    /**
+     * Whether the lease of the node running the execution has run out
+     */
+    public boolean leaseExpired(Instant now) {
+        return leaseExpiresAt == null || leaseExpiresAt.isBefore(now);
+    }
+
+    /**
+     * Capture the state of an execution
+     */
+    public static ExecutionCheckpoint of(WorkflowExecution execution, Instant workflowVersion,
+                                         Set<NodeId> completedNodes, Set<EdgeId> takenEdges,
+                                         String owner, Instant leaseExpiresAt) {
+        return new ExecutionCheckpoint(
+            execution.getId(),
+            execution.getWorkflowId(),
+            workflowVersion,
+            execution.getOrganizationId(),
+            execution.getStatus(),
+            execution.getStartedAt(),
+            Instant.now(),
+            execution.getCurrentNodeId(),
+            execution.getErrorMessage(),
+            execution.getTriggerData(),
+            completedNodes,
+            takenEdges,
+            execution.getContext().getAllData(),
+            owner,
+            leaseExpiresAt
+        );
+    }
+}
@@ -22,15 +22,31 @@ public class WorkflowExecution {
     
     public WorkflowExecution(ExecutionId id, WorkflowId workflowId, String organizationId, 
                            TelemetryData triggerData) {
+        this(id, workflowId, organizationId, triggerData, Instant.now());
+    }
+    
+    private WorkflowExecution(ExecutionId id, WorkflowId workflowId, String organizationId, 
+                            TelemetryData triggerData, Instant startedAt) {
         this.id = Objects.requireNonNull(id, "Execution ID cannot be null");
         this.workflowId = Objects.requireNonNull(workflowId, "Workflow ID cannot be null");
         this.organizationId = Objects.requireNonNull(organizationId, "Organization ID cannot be null");
         this.triggerData = triggerData; // Can be null for manual executions
         this.status = ExecutionStatus.RUNNING;
-        this.startedAt = Instant.now();
+        this.startedAt = Objects.requireNonNull(startedAt, "Start time cannot be null");
         this.context = new ExecutionContext();
     }
     
+    /**
+     * Restore a running execution from its last checkpoint
+     */
+    public static WorkflowExecution restore(ExecutionCheckpoint checkpoint) {
+        WorkflowExecution execution = new WorkflowExecution(checkpoint.executionId(), checkpoint.workflowId(),
+            checkpoint.organizationId(), checkpoint.triggerData(), checkpoint.startedAt());
+        execution.currentNodeId = checkpoint.currentNodeId();
+        checkpoint.contextData().forEach(execution.context::setData);
+        return execution;
+    }
+    
     /**
      * Move execution to next node
      */
@@ -0,0 +1,34 @@
+package com.example.workflow.domain.ports;
+
+import com.example.workflow.domain.ExecutionCheckpoint;
+import com.example.workflow.domain.ExecutionId;
+import com.example.workflow.domain.ExecutionStatus;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Repository port for workflow execution checkpoints
+ * Holds the latest checkpoint of each execution, and the lease of the node running it
+ */
+public interface ExecutionCheckpointRepository {
+    
+    void save(ExecutionCheckpoint checkpoint);
+    Optional<ExecutionCheckpoint> findById(ExecutionId executionId);
+    List<ExecutionCheckpoint> findByStatus(ExecutionStatus status);
+    void delete(ExecutionId executionId);
+
+    /**
+     * Atomically lease a running execution to the owner, if its lease is held by the owner or has
+     * expired; returns whether the lease was granted
+     */
+    boolean claim(ExecutionId executionId, String owner, Instant now, Instant leaseExpiresAt);
+
+    /**
+     * Extend the leases the owner still holds; returns the executions leased to another owner
+     */
+    Set<ExecutionId> renew(Collection<ExecutionId> executionIds, String owner, Instant leaseExpiresAt);
+}
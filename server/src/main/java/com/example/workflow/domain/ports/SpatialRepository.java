@@ -31,6 +31,11 @@ public interface SpatialRepository {
     List<TelemetryData> queryByBoundingBoxWithTime(BoundingBox boundingBox, Instant start, Instant end);
     List<TelemetryData> queryByRadiusWithTime(GeoLocation center, double radiusKm, Instant start, Instant end);
     List<TelemetryData> queryByRegionWithTime(String region, Instant start, Instant end);
+
+    // Spatial queries of one organization
+    List<TelemetryData> queryByBoundingBoxWithTime(String organizationId, BoundingBox boundingBox, Instant start, Instant end);
+    List<TelemetryData> queryByRadiusWithTime(String organizationId, GeoLocation center, double radiusKm, Instant start, Instant end);
+    List<TelemetryData> queryNearestNeighbors(String organizationId, GeoLocation point, int count);
     
     // Spatial analysis functions
     List<SpatialCluster> findClusters(String organizationId, double clusterRadiusKm, int minPoints);
@@ -63,6 +68,9 @@ public interface SpatialRepository {
     void deleteSpatialData(BoundingBox area);
     void deleteSpatialDataByDevice(DeviceId deviceId);
     long countSpatialData(BoundingBox area);
+
+    // Vector tiles
+    byte[] renderTelemetryTile(String organizationId, int zoom, int x, int y, Instant start, Instant end, boolean clustered);
     
     /**
      * Spatial cluster result
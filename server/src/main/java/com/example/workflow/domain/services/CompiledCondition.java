@@ -0,0 +1,26 @@
+package com.example.workflow.domain.services;
+
+import com.example.workflow.domain.TelemetryData;
+
+/**
+ * Condition compiled once from its configuration and evaluated against telemetry
+ * Evaluation does not parse, box or allocate; see {@link ConditionCompiler}
+ */
+public interface CompiledCondition {
+
+    CompiledCondition TRUE = new ConditionCompiler.Constant(true);
+    CompiledCondition FALSE = new ConditionCompiler.Constant(false);
+
+    /**
+     * Evaluate the condition
+     * @throws IllegalArgumentException if the condition is invalid and had to be evaluated
+     */
+    boolean test(TelemetryData telemetryData);
+
+    /**
+     * Relative evaluation cost, used to evaluate cheap operands of AND and OR first
+     */
+    default int cost() {
+        return 1;
+    }
+}
@@ -0,0 +1,604 @@
+package com.example.workflow.domain.services;
+
+import com.example.workflow.domain.MetricValue;
+import com.example.workflow.domain.TelemetryData;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compiles condition configurations into typed predicate trees
+ * Accepts the same configurations as {@link ConditionEvaluationService}: condition strings like
+ * "temperature > 25", single condition maps, lists of conditions and AND/OR/NOT groups.
+ * Literals are converted once, operands known in advance are folded into constants and the
+ * operands of AND and OR are ordered cheapest first. Invalid conditions compile into a node that
+ * fails when it is evaluated, so short-circuiting still decides whether an error surfaces.
+ */
+final class ConditionCompiler {
+
+    private static final int STRING_COST = 3;
+    private static final int LIST_COST = 4;
+
+    private ConditionCompiler() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the configuration type is not supported
+     */
+    static CompiledCondition compile(Object conditionsConfig) {
+        if (conditionsConfig instanceof Map<?, ?> conditionMap) {
+            return compileMap(conditionMap);
+        } else if (conditionsConfig instanceof List<?> conditionList) {
+            List<CompiledCondition> operands = new ArrayList<>();
+            for (Object condition : conditionList) {
+                if (condition instanceof Map<?, ?> conditionMap) {
+                    operands.add(compileMap(conditionMap));
+                }
+            }
+            return and(operands);
+        } else if (conditionsConfig instanceof String conditionString) {
+            return compileString(conditionString);
+        }
+        throw new IllegalArgumentException("Unsupported condition configuration type: "
+            + (conditionsConfig == null ? "null" : conditionsConfig.getClass()));
+    }
+
+    private static CompiledCondition compileMap(Map<?, ?> conditionMap) {
+        Object conditions = conditionMap.get("conditions");
+        if (conditions == null && conditionMap.containsKey("field")) {
+            return compileSingle(conditionMap);
+        }
+        if (!(conditions instanceof List<?> conditionList) || conditionList.isEmpty()) {
+            return CompiledCondition.TRUE; // No conditions means always true
+        }
+
+        Object operator = conditionMap.get("operator");
+        String logicalOperator = operator instanceof String text ? text.toUpperCase(Locale.ROOT) : "AND";
+        List<CompiledCondition> operands = new ArrayList<>();
+        for (Object condition : conditionList) {
+            operands.add(condition instanceof Map<?, ?> map ? compileMap(map)
+                : new Failing("Condition must be an object: " + condition));
+        }
+
+        return switch (logicalOperator) {
+            case "AND" -> and(operands);
+            case "OR" -> or(operands);
+            case "NOT" -> not(and(operands));
+            default -> new Failing("Unsupported logical operator: " + operator);
+        };
+    }
+
+    private static CompiledCondition compileSingle(Map<?, ?> condition) {
+        Object field = condition.get("field");
+        Object operator = condition.get("operator");
+        Object expectedValue = condition.get("value");
+
+        if (!(field instanceof String fieldName) || !(operator instanceof String operatorName) || expectedValue == null) {
+            return new Failing("Condition must have field, operator, and value");
+        }
+
+        return switch (fieldName) {
+            case "timestamp" -> compileTimestamp(operatorName, expectedValue);
+            case "deviceId" -> compileDeviceId(operatorName, expectedValue);
+            case "location" -> new HasLocation();
+            default -> compileMetric(fieldName, operatorName, expectedValue);
+        };
+    }
+
+    /**
+     * Compile "field operator value", where the value is a number, a boolean or an optionally quoted string
+     */
+    private static CompiledCondition compileString(String conditionString) {
+        String[] parts = conditionString.trim().split("\\s+");
+        if (parts.length != 3) {
+            return new Failing("Invalid condition format: " + conditionString);
+        }
+
+        String valueText = parts[2];
+        Object value;
+        try {
+            value = Double.parseDouble(valueText);
+        } catch (NumberFormatException e) {
+            if ("true".equalsIgnoreCase(valueText) || "false".equalsIgnoreCase(valueText)) {
+                value = Boolean.parseBoolean(valueText);
+            } else {
+                value = valueText.replace("\"", "").replace("'", "");
+            }
+        }
+        return compileMetric(parts[0], parts[1], value);
+    }
+
+    private static CompiledCondition compileMetric(String field, String operator, Object expectedValue) {
+        return switch (operator.toLowerCase(Locale.ROOT)) {
+            case "eq", "equals", "==" -> equalsCondition(field, expectedValue, false);
+            case "ne", "not_equals", "!=" -> equalsCondition(field, expectedValue, true);
+            case "gt", "greater_than", ">" -> comparison(field, operator, expectedValue, Comparison.GT);
+            case "gte", "greater_than_equals", ">=" -> comparison(field, operator, expectedValue, Comparison.GTE);
+            case "lt", "less_than", "<" -> comparison(field, operator, expectedValue, Comparison.LT);
+            case "lte", "less_than_equals", "<=" -> comparison(field, operator, expectedValue, Comparison.LTE);
+            case "contains" -> expectedValue instanceof String text
+                ? new StringContains(field, text) : CompiledCondition.FALSE;
+            case "in" -> in(field, expectedValue);
+            case "between" -> between(field, expectedValue);
+            default -> new Failing("Unsupported operator: " + operator);
+        };
+    }
+
+    /**
+     * Equality only holds between values of the same type; inequality holds for any present metric otherwise
+     */
+    private static CompiledCondition equalsCondition(String field, Object expectedValue, boolean negate) {
+        if (expectedValue instanceof Number number) {
+            return new NumberEquals(field, number.doubleValue(), negate);
+        } else if (expectedValue instanceof String text) {
+            return new StringEquals(field, text, negate);
+        } else if (expectedValue instanceof Boolean flag) {
+            return new BooleanEquals(field, flag, negate);
+        }
+        return negate ? new MetricPresent(field) : CompiledCondition.FALSE;
+    }
+
+    private static CompiledCondition comparison(String field, String operator, Object expectedValue, Comparison comparison) {
+        if (!(expectedValue instanceof Number number)) {
+            return new Failing("Operator " + operator + " requires a numeric value for field " + field);
+        }
+        return new NumberComparison(field, comparison, number.doubleValue());
+    }
+
+    private static CompiledCondition in(String field, Object expectedValue) {
+        if (!(expectedValue instanceof List<?> values) || values.isEmpty()) {
+            return CompiledCondition.FALSE;
+        }
+        List<Double> numbers = new ArrayList<>();
+        List<String> strings = new ArrayList<>();
+        boolean matchTrue = false;
+        boolean matchFalse = false;
+        for (Object value : values) {
+            if (value instanceof Number number) {
+                numbers.add(number.doubleValue());
+            } else if (value instanceof String text) {
+                strings.add(text);
+            } else if (value instanceof Boolean flag) {
+                matchTrue |= flag;
+                matchFalse |= !flag;
+            }
+        }
+        if (numbers.isEmpty() && strings.isEmpty() && !matchTrue && !matchFalse) {
+            return CompiledCondition.FALSE;
+        }
+        double[] numberArray = numbers.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+        return new In(field, numberArray, strings.toArray(String[]::new), matchTrue, matchFalse);
+    }
+
+    private static CompiledCondition between(String field, Object expectedValue) {
+        if (expectedValue instanceof Map<?, ?> range
+                && range.get("min") instanceof Number min && range.get("max") instanceof Number max) {
+            if (min.doubleValue() > max.doubleValue()) {
+                return CompiledCondition.FALSE;
+            }
+            return new Between(field, min.doubleValue(), max.doubleValue());
+        }
+        return CompiledCondition.FALSE;
+    }
+
+    /**
+     * Compare the reading's timestamp with an ISO-8601 instant or epoch milliseconds
+     */
+    private static CompiledCondition compileTimestamp(String operator, Object expectedValue) {
+        String op = operator.toLowerCase(Locale.ROOT);
+        if ("between".equals(op)) {
+            if (expectedValue instanceof Map<?, ?> range) {
+                Long min = epochMillis(range.get("min"));
+                Long max = epochMillis(range.get("max"));
+                if (min != null && max != null) {
+                    return min > max ? CompiledCondition.FALSE : new TimestampBetween(min, max);
+                }
+            }
+            return new Failing("Operator between requires min and max instants for field timestamp");
+        }
+
+        Long millis = epochMillis(expectedValue);
+        if (millis == null) {
+            return new Failing("Invalid timestamp for field timestamp: " + expectedValue);
+        }
+        return switch (op) {
+            case "eq", "equals", "==" -> new TimestampBetween(millis, millis);
+            case "ne", "not_equals", "!=" -> not(new TimestampBetween(millis, millis));
+            case "gt", "greater_than", ">" -> new TimestampComparison(Comparison.GT, millis);
+            case "gte", "greater_than_equals", ">=" -> new TimestampComparison(Comparison.GTE, millis);
+            case "lt", "less_than", "<" -> new TimestampComparison(Comparison.LT, millis);
+            case "lte", "less_than_equals", "<=" -> new TimestampComparison(Comparison.LTE, millis);
+            default -> new Failing("Unsupported operator for field timestamp: " + operator);
+        };
+    }
+
+    private static Long epochMillis(Object value) {
+        if (value instanceof Number number) {
+            return number.longValue();
+        } else if (value instanceof String text) {
+            try {
+                return Instant.parse(text).toEpochMilli();
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static CompiledCondition compileDeviceId(String operator, Object expectedValue) {
+        if ("eq".equals(operator) || "equals".equals(operator)) {
+            return expectedValue instanceof String deviceId ? new DeviceIdEquals(deviceId) : CompiledCondition.FALSE;
+        } else if ("contains".equals(operator)) {
+            return expectedValue instanceof String part ? new DeviceIdContains(part)
+                : new Failing("Operator contains requires a string value for field deviceId");
+        }
+        return CompiledCondition.FALSE;
+    }
+
+    // Logical operators with constant folding and cheapest-first operand order
+
+    static CompiledCondition and(List<CompiledCondition> operands) {
+        List<CompiledCondition> remaining = new ArrayList<>();
+        for (CompiledCondition operand : operands) {
+            if (operand == CompiledCondition.FALSE) {
+                return CompiledCondition.FALSE;
+            }
+            if (operand != CompiledCondition.TRUE) {
+                remaining.add(operand);
+            }
+        }
+        if (remaining.isEmpty()) {
+            return CompiledCondition.TRUE;
+        }
+        return remaining.size() == 1 ? remaining.get(0) : new And(sortByCost(remaining));
+    }
+
+    static CompiledCondition or(List<CompiledCondition> operands) {
+        List<CompiledCondition> remaining = new ArrayList<>();
+        for (CompiledCondition operand : operands) {
+            if (operand == CompiledCondition.TRUE) {
+                return CompiledCondition.TRUE;
+            }
+            if (operand != CompiledCondition.FALSE) {
+                remaining.add(operand);
+            }
+        }
+        if (remaining.isEmpty()) {
+            return CompiledCondition.FALSE;
+        }
+        return remaining.size() == 1 ? remaining.get(0) : new Or(sortByCost(remaining));
+    }
+
+    static CompiledCondition not(CompiledCondition operand) {
+        if (operand == CompiledCondition.TRUE) {
+            return CompiledCondition.FALSE;
+        } else if (operand == CompiledCondition.FALSE) {
+            return CompiledCondition.TRUE;
+        } else if (operand instanceof Not not) {
+            return not.operand;
+        }
+        return new Not(operand);
+    }
+
+    private static CompiledCondition[] sortByCost(List<CompiledCondition> operands) {
+        // Stable, so operands of equal cost keep their configured order
+        operands.sort(Comparator.comparingInt(CompiledCondition::cost));
+        return operands.toArray(CompiledCondition[]::new);
+    }
+
+    private static int totalCost(CompiledCondition[] operands) {
+        long cost = 0;
+        for (CompiledCondition operand : operands) {
+            cost += operand.cost();
+        }
+        return (int) Math.min(cost, Integer.MAX_VALUE);
+    }
+
+    // Predicate nodes
+
+    static final class Constant implements CompiledCondition {
+        private final boolean value;
+
+        Constant(boolean value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean test(TelemetryData telemetryData) {
+            return value;
+        }
+
+        @Override
+        public int cost() {
+            return 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(value);
+        }
+    }
+
+    private record Failing(String message) implements CompiledCondition {
+        @Override
+        public boolean test(TelemetryData telemetryData) {
+            throw new IllegalArgumentException(message);
+        }
+
+        @Override
+        public int cost() {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    private static final class And implements CompiledCondition {
+        private final CompiledCondition[] operands;
+        private final int cost;
+
+        And(CompiledCondition[] operands) {
+            this.operands = operands;
+            this.cost = totalCost(operands);
+        }
+
+        @Override
+        public boolean test(TelemetryData telemetryData) {
+            for (CompiledCondition operand : operands) {
+                if (!operand.test(telemetryData)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int cost() {
+            return cost;
+        }
+
+        @Override
+        public String toString() {
+            return "AND" + Arrays.toString(operands);
+        }
+    }
+
+    private static final class Or implements CompiledCondition {
+        private final CompiledCondition[] operands;
+        private final int cost;
+
+        Or(CompiledCondition[] operands) {
+            this.operands = operands;
+            this.cost = totalCost(operands);
+        }
+
+        @Override
+        public boolean test(TelemetryData telemetryData) {
+            for (CompiledCondition operand : operands) {
+                if (operand.test(telemetryData)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public int cost() {
+            return cost;
+        }
+
+        @Override
+        public String toString() {
+            return "OR" + Arrays.toString(operands);
+        }
+    }
+
+    private record Not(CompiledCondition operand) implements CompiledCondition {
+        @Override
+        public boolean test(TelemetryData telemetryData) {
+            return !operand.test(telemetryData);
+        }
+
+        @Override
+        public int cost() {
+            return operand.cost();
+        }
+    }
+
+    private enum Comparison { GT, GTE, LT, LTE }
+
+    private record NumberComparison(String field, Comparison comparison, double value) implements CompiledCondition {
+        @Override
+        public boolean test(TelemetryData telemetryData) {
+            MetricValue metric = telemetryData.getMetric(field);
+            if (metric == null || !metric.isNumeric()) {
+                return false;
+            }
+            double actual = metric.getNumericValue();
+            return switch (comparison) {
+                case GT -> actual > value;
+                case GTE -> actual >= value;
+                case LT -> actual < value;
+                case LTE -> actual <= value;
+            };
+        }
+    }
+
+    private record TimestampComparison(Comparison comparison, long millis) implements CompiledCondition {
+        @Override
+        public boolean test(TelemetryData telemetryData) {
+            long actual = telemetryData.getTimestamp().toEpochMilli();
+            return switch (comparison) {
+                case GT -> actual > millis;
+                case GTE -> actual >= millis;
+                case LT -> actual < millis;
+                case LTE -> actual <= millis;
+            };
+        }
+    }
+
+    private record TimestampBetween(long min, long max) implements CompiledCondition {
+        @Override
+        public boolean test(TelemetryData telemetryData) {
+            long actual = telemetryData.getTimestamp().toEpochMilli();
+            return actual >= min && actual <= max;
+        }
+    }
+
+    private record Between(String field, double min, double max) implements CompiledCondition {
+        @Override
+        public boolean test(TelemetryData telemetryData) {
+            MetricValue metric = telemetryData.getMetric(field);
+            if (metric == null || !metric.isNumeric()) {
+                return false;
+            }
+            double actual = metric.getNumericValue();
+            return actual >= min && actual <= max;
+        }
+    }
+
+    private record NumberEquals(String field, double value, boolean negate) implements CompiledCondition {
+        @Override
+        public boolean test(TelemetryData telemetryData) {
+            MetricValue metric = telemetryData.getMetric(field);
+            if (metric == null) {
+                return false;
+            }
+            return (metric.isNumeric() && Double.compare(metric.getNumericValue(), value) == 0) != negate;
+        }
+    }
+
+    private record StringEquals(String field, String value, boolean negate) implements CompiledCondition {
+        @Override
+        public boolean test(TelemetryData telemetryData) {
+            MetricValue metric = telemetryData.getMetric(field);
+            if (metric == null) {
+                return false;
+            }
+            return (metric.isString() && value.equals(metric.getStringValue())) != negate;
+        }
+
+        @Override
+        public int cost() {
+            return STRING_COST;
+        }
+    }
+
+    private record BooleanEquals(String field, boolean value, boolean negate) implements CompiledCondition {
+        @Override
+        public boolean test(TelemetryData telemetryData) {
+            MetricValue metric = telemetryData.getMetric(field);
+            if (metric == null) {
+                return false;
+            }
+            return (metric.isBoolean() && metric.getBooleanValue() == value) != negate;
+        }
+    }
+
+    private record MetricPresent(String field) implements CompiledCondition {
+        @Override
+        public boolean test(TelemetryData telemetryData) {
+            return telemetryData.getMetric(field) != null;
+        }
+    }
+
+    private record StringContains(String field, String part) implements CompiledCondition {
+        @Override
+        public boolean test(TelemetryData telemetryData) {
+            MetricValue metric = telemetryData.getMetric(field);
+            return metric != null && metric.isString() && metric.getStringValue().contains(part);
+        }
+
+        @Override
+        public int cost() {
+            return STRING_COST;
+        }
+    }
+
+    /**
+     * Membership in a list mixing numbers, strings and booleans; numbers are sorted for binary search
+     */
+    private static final class In implements CompiledCondition {
+        private final String field;
+        private final double[] numbers;
+        private final String[] strings;
+        private final boolean matchTrue;
+        private final boolean matchFalse;
+
+        In(String field, double[] numbers, String[] strings, boolean matchTrue, boolean matchFalse) {
+            this.field = field;
+            this.numbers = numbers;
+            this.strings = strings;
+            this.matchTrue = matchTrue;
+            this.matchFalse = matchFalse;
+        }
+
+        @Override
+        public boolean test(TelemetryData telemetryData) {
+            MetricValue metric = telemetryData.getMetric(field);
+            if (metric == null) {
+                return false;
+            }
+            if (metric.isNumeric()) {
+                // Arrays.binarySearch compares like Double.compare, as equality does
+                return Arrays.binarySearch(numbers, metric.getNumericValue()) >= 0;
+            } else if (metric.isString()) {
+                String actual = metric.getStringValue();
+                for (String candidate : strings) {
+                    if (candidate.equals(actual)) {
+                        return true;
+                    }
+                }
+                return false;
+            } else if (metric.isBoolean()) {
+                return metric.getBooleanValue() ? matchTrue : matchFalse;
+            }
+            return false;
+        }
+
+        @Override
+        public int cost() {
+            return LIST_COST;
+        }
+
+        @Override
+        public String toString() {
+            return "In[" + field + "]";
+        }
+    }
+
+    private record DeviceIdEquals(String deviceId) implements CompiledCondition {
+        @Override
+        public boolean test(TelemetryData telemetryData) {
+            return deviceId.equals(telemetryData.getDeviceId().value());
+        }
+
+        @Override
+        public int cost() {
+            return STRING_COST;
+        }
+    }
+
+    private record DeviceIdContains(String part) implements CompiledCondition {
+        @Override
+        public boolean test(TelemetryData telemetryData) {
+            return telemetryData.getDeviceId().value().contains(part);
+        }
+
+        @Override
+        public int cost() {
+            return STRING_COST;
+        }
+    }
+
+    private record HasLocation() implements CompiledCondition {
+        @Override
+        public boolean test(TelemetryData telemetryData) {
+            return telemetryData.hasSpatialData();
+        }
+    }
+}
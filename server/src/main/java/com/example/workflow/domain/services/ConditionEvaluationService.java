@@ -1,22 +1,34 @@
 package com.example.workflow.domain.services;
 
+import com.example.workflow.domain.NodeId;
 import com.example.workflow.domain.TelemetryData;
-import com.example.workflow.domain.MetricValue;
+import com.example.workflow.domain.Workflow;
+import com.example.workflow.domain.WorkflowId;
+import com.example.workflow.domain.WorkflowNode;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service for evaluating workflow conditions against telemetry data
  * Supports complex conditional logic with AND, OR, NOT operators
  * Implements requirements 3.5 and 3.6 for real-time condition evaluation and routing
+ * Conditions are compiled once per workflow version and evaluated as predicate trees
  */
 @Service
 public class ConditionEvaluationService {
     
+    // Upper bound for compiled ad-hoc condition strings
+    private static final int MAX_CACHED_STRINGS = 1024;
+    
+    private final Map<WorkflowId, WorkflowConditions> workflowConditions = new ConcurrentHashMap<>();
+    private final Map<String, CompiledCondition> stringConditions = new ConcurrentHashMap<>();
+    
     /**
      * Evaluate conditions against telemetry data
      * Implements requirement 3.5: Evaluate conditions against real-time data
@@ -24,332 +36,92 @@ public class ConditionEvaluationService {
     public boolean evaluateConditions(Object conditionsConfig, TelemetryData telemetryData) {
         Objects.requireNonNull(conditionsConfig, "Conditions config cannot be null");
         
-        try {
-            if (conditionsConfig instanceof Map<?, ?> conditionMap) {
-                return evaluateConditionMap(conditionMap, telemetryData);
-            } else if (conditionsConfig instanceof List<?> conditionList) {
-                return evaluateConditionList(conditionList, telemetryData);
-            } else if (conditionsConfig instanceof String conditionString) {
-                return evaluateConditionString(conditionString, telemetryData);
-            }
-            
-            throw new IllegalArgumentException("Unsupported condition configuration type: " + conditionsConfig.getClass());
-        } catch (Exception e) {
-            throw new ConditionEvaluationException("Failed to evaluate conditions: " + e.getMessage(), e);
-        }
-    }
-    
-    /**
-     * Validate condition configuration without executing it
-     * Supports requirement 1.3: Validate conditions and provide feedback
-     */
-    public ConditionValidationResult validateConditions(Object conditionsConfig) {
-        Objects.requireNonNull(conditionsConfig, "Conditions config cannot be null");
-        
-        List<String> errors = new ArrayList<>();
-        List<String> warnings = new ArrayList<>();
-        
-        try {
-            validateConditionStructure(conditionsConfig, errors, warnings);
-        } catch (Exception e) {
-            errors.add("Invalid condition structure: " + e.getMessage());
-        }
-        
-        boolean isValid = errors.isEmpty();
-        return new ConditionValidationResult(isValid, errors, warnings);
-    }
-    
-    /**
-     * Evaluate condition map (complex conditions with operators)
-     */
-    @SuppressWarnings("unchecked")
-    private boolean evaluateConditionMap(Map<?, ?> conditionMap, TelemetryData telemetryData) {
-        String operator = (String) conditionMap.get("operator");
-        if (operator == null) {
-            operator = "AND"; // Default operator
-        }
-        
-        List<Map<String, Object>> conditions = (List<Map<String, Object>>) conditionMap.get("conditions");
-        if (conditions == null || conditions.isEmpty()) {
-            return true; // No conditions means always true
-        }
-        
-        return switch (operator.toUpperCase()) {
-            case "AND" -> evaluateAndConditions(conditions, telemetryData);
-            case "OR" -> evaluateOrConditions(conditions, telemetryData);
-            case "NOT" -> evaluateNotConditions(conditions, telemetryData);
-            default -> throw new IllegalArgumentException("Unsupported logical operator: " + operator);
-        };
-    }
-    
-    /**
-     * Evaluate condition list (implicit AND)
-     */
-    @SuppressWarnings("unchecked")
-    private boolean evaluateConditionList(List<?> conditionList, TelemetryData telemetryData) {
-        for (Object condition : conditionList) {
-            if (condition instanceof Map<?, ?> conditionMap) {
-                if (!evaluateSingleCondition((Map<String, Object>) conditionMap, telemetryData)) {
-                    return false;
+        CompiledCondition condition;
+        if (conditionsConfig instanceof String conditionString) {
+            condition = stringConditions.get(conditionString);
+            if (condition == null) {
+                if (stringConditions.size() >= MAX_CACHED_STRINGS) {
+                    stringConditions.clear();
                 }
+                condition = ConditionCompiler.compile(conditionString);
+                stringConditions.put(conditionString, condition);
             }
+        } else {
+            condition = ConditionCompiler.compile(conditionsConfig);
         }
-        return true;
-    }
-    
-    /**
-     * Evaluate simple condition string
-     */
-    private boolean evaluateConditionString(String conditionString, TelemetryData telemetryData) {
-        // Parse simple condition strings like "temperature > 25"
-        return parseAndEvaluateSimpleCondition(conditionString, telemetryData);
-    }
-    
-    /**
-     * Evaluate AND conditions (all must be true)
-     */
-    private boolean evaluateAndConditions(List<Map<String, Object>> conditions, TelemetryData telemetryData) {
-        for (Map<String, Object> condition : conditions) {
-            if (!evaluateSingleCondition(condition, telemetryData)) {
-                return false;
-            }
-        }
-        return true;
-    }
-    
-    /**
-     * Evaluate OR conditions (at least one must be true)
-     */
-    private boolean evaluateOrConditions(List<Map<String, Object>> conditions, TelemetryData telemetryData) {
-        for (Map<String, Object> condition : conditions) {
-            if (evaluateSingleCondition(condition, telemetryData)) {
-                return true;
-            }
-        }
-        return false;
-    }
-    
-    /**
-     * Evaluate NOT conditions (none must be true)
-     */
-    private boolean evaluateNotConditions(List<Map<String, Object>> conditions, TelemetryData telemetryData) {
-        return !evaluateAndConditions(conditions, telemetryData);
+        return evaluate(condition, telemetryData);
     }
     
     /**
-     * Evaluate a single condition
+     * Evaluate the conditions of a workflow node
+     * Uses the conditions compiled for the current version of the workflow, compiling them if needed
      */
-    private boolean evaluateSingleCondition(Map<String, Object> condition, TelemetryData telemetryData) {
-        String field = (String) condition.get("field");
-        String operator = (String) condition.get("operator");
-        Object expectedValue = condition.get("value");
-        
-        if (field == null || operator == null || expectedValue == null) {
-            throw new IllegalArgumentException("Condition must have field, operator, and value");
-        }
-        
-        // Handle special fields
-        if ("timestamp".equals(field)) {
-            return evaluateTimestampCondition(operator, expectedValue, telemetryData);
-        } else if ("deviceId".equals(field)) {
-            return evaluateDeviceIdCondition(operator, expectedValue, telemetryData);
-        } else if ("location".equals(field)) {
-            return evaluateLocationCondition(operator, expectedValue, telemetryData);
-        }
+    public boolean evaluateNodeConditions(Workflow workflow, WorkflowNode node, TelemetryData telemetryData) {
+        Object conditionsConfig = node.getConfigurationValue("conditions");
+        Objects.requireNonNull(conditionsConfig, "Conditions config cannot be null");
         
-        // Handle metric fields
-        MetricValue actualValue = telemetryData.getMetric(field);
-        if (actualValue == null) {
-            return false; // Metric not found
+        WorkflowConditions compiled = workflowConditions.get(workflow.getId());
+        if (compiled == null || !compiled.version().equals(workflow.getUpdatedAt())) {
+            compiled = new WorkflowConditions(workflow.getUpdatedAt(), new ConcurrentHashMap<>());
+            workflowConditions.put(workflow.getId(), compiled);
         }
         
-        return evaluateMetricCondition(actualValue, operator, expectedValue);
-    }
-    
-    /**
-     * Evaluate metric condition
-     */
-    private boolean evaluateMetricCondition(MetricValue actualValue, String operator, Object expectedValue) {
-        return switch (operator.toLowerCase()) {
-            case "eq", "equals", "==" -> evaluateEquals(actualValue, expectedValue);
-            case "ne", "not_equals", "!=" -> !evaluateEquals(actualValue, expectedValue);
-            case "gt", "greater_than", ">" -> evaluateGreaterThan(actualValue, expectedValue);
-            case "gte", "greater_than_equals", ">=" -> evaluateGreaterThanEquals(actualValue, expectedValue);
-            case "lt", "less_than", "<" -> evaluateLessThan(actualValue, expectedValue);
-            case "lte", "less_than_equals", "<=" -> evaluateLessThanEquals(actualValue, expectedValue);
-            case "contains" -> evaluateContains(actualValue, expectedValue);
-            case "in" -> evaluateIn(actualValue, expectedValue);
-            case "between" -> evaluateBetween(actualValue, expectedValue);
-            default -> throw new IllegalArgumentException("Unsupported operator: " + operator);
-        };
-    }
-    
-    /**
-     * Evaluate equals condition
-     */
-    private boolean evaluateEquals(MetricValue actualValue, Object expectedValue) {
-        if (actualValue.isNumeric() && expectedValue instanceof Number) {
-            return Double.compare(actualValue.getNumericValue(), ((Number) expectedValue).doubleValue()) == 0;
-        } else if (actualValue.isString() && expectedValue instanceof String) {
-            return actualValue.getStringValue().equals(expectedValue);
-        } else if (actualValue.isBoolean() && expectedValue instanceof Boolean) {
-            return actualValue.getBooleanValue().equals(expectedValue);
-        }
-        return false;
-    }
-    
-    /**
-     * Evaluate greater than condition
-     */
-    private boolean evaluateGreaterThan(MetricValue actualValue, Object expectedValue) {
-        if (actualValue.isNumeric() && expectedValue instanceof Number) {
-            return actualValue.getNumericValue() > ((Number) expectedValue).doubleValue();
-        }
-        return false;
-    }
-    
-    /**
-     * Evaluate greater than or equals condition
-     */
-    private boolean evaluateGreaterThanEquals(MetricValue actualValue, Object expectedValue) {
-        if (actualValue.isNumeric() && expectedValue instanceof Number) {
-            return actualValue.getNumericValue() >= ((Number) expectedValue).doubleValue();
-        }
-        return false;
-    }
-    
-    /**
-     * Evaluate less than condition
-     */
-    private boolean evaluateLessThan(MetricValue actualValue, Object expectedValue) {
-        if (actualValue.isNumeric() && expectedValue instanceof Number) {
-            return actualValue.getNumericValue() < ((Number) expectedValue).doubleValue();
-        }
-        return false;
-    }
-    
-    /**
-     * Evaluate less than or equals condition
-     */
-    private boolean evaluateLessThanEquals(MetricValue actualValue, Object expectedValue) {
-        if (actualValue.isNumeric() && expectedValue instanceof Number) {
-            return actualValue.getNumericValue() <= ((Number) expectedValue).doubleValue();
-        }
-        return false;
-    }
-    
-    /**
-     * Evaluate contains condition
-     */
-    private boolean evaluateContains(MetricValue actualValue, Object expectedValue) {
-        if (actualValue.isString() && expectedValue instanceof String) {
-            return actualValue.getStringValue().contains((String) expectedValue);
-        }
-        return false;
-    }
-    
-    /**
-     * Evaluate in condition (value in list)
-     */
-    @SuppressWarnings("unchecked")
-    private boolean evaluateIn(MetricValue actualValue, Object expectedValue) {
-        if (expectedValue instanceof List<?> expectedList) {
-            for (Object item : expectedList) {
-                if (evaluateEquals(actualValue, item)) {
-                    return true;
-                }
-            }
+        NodeCondition nodeCondition = compiled.nodes().get(node.getId());
+        // Configuration replaced on the node without a new workflow version
+        if (nodeCondition == null || nodeCondition.source() != conditionsConfig) {
+            nodeCondition = new NodeCondition(conditionsConfig, ConditionCompiler.compile(conditionsConfig));
+            compiled.nodes().put(node.getId(), nodeCondition);
         }
-        return false;
+        return evaluate(nodeCondition.condition(), telemetryData);
     }
     
     /**
-     * Evaluate between condition (value between min and max)
+     * Compile the conditions of all nodes of a workflow when it is saved
      */
-    @SuppressWarnings("unchecked")
-    private boolean evaluateBetween(MetricValue actualValue, Object expectedValue) {
-        if (actualValue.isNumeric() && expectedValue instanceof Map<?, ?> rangeMap) {
-            Map<String, Object> range = (Map<String, Object>) rangeMap;
-            Object minValue = range.get("min");
-            Object maxValue = range.get("max");
-            
-            if (minValue instanceof Number && maxValue instanceof Number) {
-                double actual = actualValue.getNumericValue();
-                double min = ((Number) minValue).doubleValue();
-                double max = ((Number) maxValue).doubleValue();
-                return actual >= min && actual <= max;
+    public void compileWorkflow(Workflow workflow) {
+        Map<NodeId, NodeCondition> nodes = new ConcurrentHashMap<>();
+        for (WorkflowNode node : workflow.getNodes()) {
+            Object conditionsConfig = node.getConfigurationValue("conditions");
+            if (conditionsConfig != null) {
+                nodes.put(node.getId(), new NodeCondition(conditionsConfig, ConditionCompiler.compile(conditionsConfig)));
             }
         }
-        return false;
-    }
-    
-    /**
-     * Evaluate timestamp condition
-     */
-    private boolean evaluateTimestampCondition(String operator, Object expectedValue, TelemetryData telemetryData) {
-        // Implementation for timestamp-based conditions
-        // This would compare telemetryData.getTimestamp() with expectedValue
-        return true; // Placeholder
+        workflowConditions.put(workflow.getId(), new WorkflowConditions(workflow.getUpdatedAt(), nodes));
     }
     
     /**
-     * Evaluate device ID condition
+     * Drop the compiled conditions of a deleted workflow
      */
-    private boolean evaluateDeviceIdCondition(String operator, Object expectedValue, TelemetryData telemetryData) {
-        String actualDeviceId = telemetryData.getDeviceId().value();
-        if ("eq".equals(operator) || "equals".equals(operator)) {
-            return actualDeviceId.equals(expectedValue);
-        } else if ("contains".equals(operator)) {
-            return actualDeviceId.contains((String) expectedValue);
-        }
-        return false;
+    public void evictWorkflow(WorkflowId workflowId) {
+        workflowConditions.remove(workflowId);
     }
     
-    /**
-     * Evaluate location condition
-     */
-    private boolean evaluateLocationCondition(String operator, Object expectedValue, TelemetryData telemetryData) {
-        if (!telemetryData.hasSpatialData()) {
-            return false;
+    private boolean evaluate(CompiledCondition condition, TelemetryData telemetryData) {
+        try {
+            return condition.test(telemetryData);
+        } catch (Exception e) {
+            throw new ConditionEvaluationException("Failed to evaluate conditions: " + e.getMessage(), e);
         }
-        
-        // Implementation for location-based conditions
-        // This would handle proximity, bounding box, etc.
-        return true; // Placeholder
     }
     
     /**
-     * Parse and evaluate simple condition string like "temperature > 25"
+     * Validate condition configuration without executing it
+     * Supports requirement 1.3: Validate conditions and provide feedback
      */
-    private boolean parseAndEvaluateSimpleCondition(String conditionString, TelemetryData telemetryData) {
-        // Simple parser for conditions like "temperature > 25"
-        String[] parts = conditionString.trim().split("\\s+");
-        if (parts.length != 3) {
-            throw new IllegalArgumentException("Invalid condition format: " + conditionString);
-        }
+    public ConditionValidationResult validateConditions(Object conditionsConfig) {
+        Objects.requireNonNull(conditionsConfig, "Conditions config cannot be null");
         
-        String field = parts[0];
-        String operator = parts[1];
-        String valueStr = parts[2];
+        List<String> errors = new ArrayList<>();
+        List<String> warnings = new ArrayList<>();
         
-        // Try to parse value as number, boolean, or string
-        Object value;
         try {
-            value = Double.parseDouble(valueStr);
-        } catch (NumberFormatException e) {
-            if ("true".equalsIgnoreCase(valueStr) || "false".equalsIgnoreCase(valueStr)) {
-                value = Boolean.parseBoolean(valueStr);
-            } else {
-                value = valueStr.replace("\"", "").replace("'", "");
-            }
-        }
-        
-        MetricValue actualValue = telemetryData.getMetric(field);
-        if (actualValue == null) {
-            return false;
+            validateConditionStructure(conditionsConfig, errors, warnings);
+        } catch (Exception e) {
+            errors.add("Invalid condition structure: " + e.getMessage());
         }
         
-        return evaluateMetricCondition(actualValue, operator, value);
+        boolean isValid = errors.isEmpty();
+        return new ConditionValidationResult(isValid, errors, warnings);
     }
     
     /**
@@ -360,10 +132,10 @@ public class ConditionEvaluationService {
         if (conditionsConfig instanceof Map<?, ?> conditionMap) {
             Map<String, Object> map = (Map<String, Object>) conditionMap;
             
-            // Check for operator-based conditions
-            if (map.containsKey("operator")) {
+            // Check for operator-based conditions, single conditions use operator for the comparison
+            if (map.containsKey("conditions")) {
                 String operator = (String) map.get("operator");
-                if (!List.of("AND", "OR", "NOT").contains(operator.toUpperCase())) {
+                if (operator != null && !List.of("AND", "OR", "NOT").contains(operator.toUpperCase())) {
                     errors.add("Invalid logical operator: " + operator);
                 }
                 
@@ -445,6 +217,10 @@ public class ConditionEvaluationService {
             }
         }
     }
+    
+    private record WorkflowConditions(Instant version, Map<NodeId, NodeCondition> nodes) {}
+    
+    private record NodeCondition(Object source, CompiledCondition condition) {}
 }
 
 /**
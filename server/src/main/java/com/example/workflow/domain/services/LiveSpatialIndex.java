@@ -0,0 +1,510 @@
+package com.example.workflow.domain.services;
+
+import com.example.workflow.domain.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory grid index of the latest position and recent readings of every device
+ *
+ * Each organization has its own index, so queries never see or scan another organization's
+ * devices. The world is divided into fixed cells of cellSizeDegrees. Each cell maps the devices
+ * that have a retained reading inside it to the number of such readings, so radius, bounding box
+ * and nearest neighbour queries only look at the devices of the cells around the query.
+ * Readings older than the retention, or beyond the per-device limit, are dropped; queries that
+ * reach further back in time, or into a range the limit truncated for the organization, must go to
+ * the spatial repository.
+ */
+@Service
+public class LiveSpatialIndex {
+
+    // Mean kilometers per degree of latitude, matching the earth radius of GeoLocation
+    private static final double KM_PER_DEGREE = 6371.0 * Math.PI / 180.0;
+
+    private final double cellSizeDegrees;
+    private final int rows;
+    private final int columns;
+    private final long retentionMillis;
+    private final int maxReadingsPerDevice;
+    private final Clock clock;
+    private final Instant startedAt;
+
+    // Organizations are few and long-lived, so their indexes are kept once created
+    private final Map<String, OrganizationIndex> organizations = new ConcurrentHashMap<>();
+
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder queryNanos = new LongAdder();
+    private final LongAdder candidatesScanned = new LongAdder();
+
+    @Autowired
+    public LiveSpatialIndex(@Value("${workflow.spatial-index.cell-size-degrees:0.05}") double cellSizeDegrees,
+                            @Value("${workflow.spatial-index.retention-ms:900000}") long retentionMillis,
+                            @Value("${workflow.spatial-index.readings-per-device:1024}") int maxReadingsPerDevice) {
+        this(cellSizeDegrees, retentionMillis, maxReadingsPerDevice, Clock.systemUTC());
+    }
+
+    LiveSpatialIndex(double cellSizeDegrees, long retentionMillis, int maxReadingsPerDevice, Clock clock) {
+        if (cellSizeDegrees <= 0 || cellSizeDegrees > 90) {
+            throw new IllegalArgumentException("Cell size must be between 0 and 90 degrees: " + cellSizeDegrees);
+        }
+        if (retentionMillis <= 0) {
+            throw new IllegalArgumentException("Retention must be positive: " + retentionMillis);
+        }
+        if (maxReadingsPerDevice < 1) {
+            throw new IllegalArgumentException("Readings per device must be positive: " + maxReadingsPerDevice);
+        }
+        this.cellSizeDegrees = cellSizeDegrees;
+        this.rows = (int) Math.ceil(180.0 / cellSizeDegrees);
+        this.columns = (int) Math.ceil(360.0 / cellSizeDegrees);
+        this.retentionMillis = retentionMillis;
+        this.maxReadingsPerDevice = maxReadingsPerDevice;
+        this.clock = Objects.requireNonNull(clock);
+        this.startedAt = clock.instant();
+    }
+
+    /**
+     * Add a reading; readings without a location are ignored
+     */
+    public void add(TelemetryData data) {
+        if (!data.hasSpatialData()) {
+            return;
+        }
+        OrganizationIndex index = organizations.computeIfAbsent(data.getOrganizationId(), id -> new OrganizationIndex());
+        while (true) {
+            DeviceTrack track = index.devices.computeIfAbsent(data.getDeviceId(), DeviceTrack::new);
+            synchronized (track) {
+                if (track.removed) {
+                    continue; // Evicted concurrently, start a new track
+                }
+                if (!track.retained.add(data)) {
+                    return; // Same reading delivered twice
+                }
+                track.readings.addLast(data);
+                index.increment(cellOf(data.getLocation()), track.deviceId);
+                if (track.latest == null || !data.getTimestamp().isBefore(track.latest.getTimestamp())) {
+                    track.latest = data;
+                }
+                long oldest = track.latest.getTimestamp().toEpochMilli() - retentionMillis;
+                while (!track.readings.isEmpty() && (track.readings.size() > maxReadingsPerDevice
+                        || track.readings.peekFirst().getTimestamp().toEpochMilli() < oldest)) {
+                    boolean overLimit = track.readings.size() > maxReadingsPerDevice;
+                    TelemetryData evicted = track.removeFirst();
+                    index.decrement(cellOf(evicted.getLocation()), track.deviceId);
+                    if (overLimit) {
+                        // Readings up to this one are no longer complete for the organization
+                        index.truncatedUntil.accumulate(evicted.getTimestamp().toEpochMilli());
+                    }
+                }
+                track.refreshLatest();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Drop devices and readings older than the retention
+     */
+    @Scheduled(fixedDelayString = "${workflow.spatial-index.eviction-interval-ms:60000}")
+    public void evictExpired() {
+        long oldest = clock.millis() - retentionMillis;
+        for (OrganizationIndex index : organizations.values()) {
+            for (DeviceTrack track : index.devices.values()) {
+                synchronized (track) {
+                    while (!track.readings.isEmpty() && track.readings.peekFirst().getTimestamp().toEpochMilli() < oldest) {
+                        index.decrement(cellOf(track.removeFirst().getLocation()), track.deviceId);
+                    }
+                    if (track.readings.isEmpty()) {
+                        track.removed = true;
+                        index.devices.remove(track.deviceId, track);
+                    } else {
+                        track.refreshLatest();
+                    }
+                }
+            }
+        }
+    }
+
+    public void removeDevice(String organizationId, DeviceId deviceId) {
+        OrganizationIndex index = organizations.get(organizationId);
+        DeviceTrack track = index != null ? index.devices.get(deviceId) : null;
+        if (track == null) {
+            return;
+        }
+        synchronized (track) {
+            while (!track.readings.isEmpty()) {
+                index.decrement(cellOf(track.removeFirst().getLocation()), track.deviceId);
+            }
+            track.removed = true;
+            index.devices.remove(deviceId, track);
+        }
+    }
+
+    /**
+     * Whether every reading of the organization since the given time is still in the index
+     * False before the index was started, beyond the retention, or when one of the organization's
+     * devices dropped readings after the given time because it reported more than readingsPerDevice.
+     */
+    public boolean covers(String organizationId, Instant start) {
+        Instant horizon = clock.instant().minusMillis(retentionMillis);
+        if (start.isBefore(horizon) || start.isBefore(startedAt)) {
+            return false;
+        }
+        OrganizationIndex index = organizations.get(organizationId);
+        return index == null || start.toEpochMilli() > index.truncatedUntil.get();
+    }
+
+    /**
+     * Latest reading of every device whose latest position is within the radius, nearest first
+     */
+    public List<TelemetryData> latestWithinRadius(String organizationId, GeoLocation center, double radiusKm) {
+        long start = System.nanoTime();
+        List<TelemetryData> result = new ArrayList<>();
+        for (DeviceTrack track : candidates(organizationId, radiusBounds(center, radiusKm))) {
+            TelemetryData latest = track.latest;
+            if (latest != null && latest.getLocation().distanceToKm(center) <= radiusKm) {
+                result.add(latest);
+            }
+        }
+        result.sort(Comparator.comparingDouble(data -> data.getLocation().distanceToKm(center)));
+        recordQuery(start);
+        return result;
+    }
+
+    /**
+     * Latest reading of every device whose latest position is within the bounding box, newest first
+     */
+    public List<TelemetryData> latestWithinBoundingBox(String organizationId, BoundingBox boundingBox) {
+        long start = System.nanoTime();
+        List<TelemetryData> result = new ArrayList<>();
+        for (DeviceTrack track : candidates(organizationId, boundingBoxBounds(boundingBox))) {
+            TelemetryData latest = track.latest;
+            if (latest != null && boundingBox.contains(latest.getLocation())) {
+                result.add(latest);
+            }
+        }
+        result.sort(Comparator.comparing(TelemetryData::getTimestamp).reversed());
+        recordQuery(start);
+        return result;
+    }
+
+    /**
+     * Retained readings within the radius and time range, nearest first
+     */
+    public List<TelemetryData> recentWithinRadius(String organizationId, GeoLocation center, double radiusKm,
+                                                  Instant from, Instant to) {
+        long start = System.nanoTime();
+        List<TelemetryData> result = new ArrayList<>();
+        for (DeviceTrack track : candidates(organizationId, radiusBounds(center, radiusKm))) {
+            for (TelemetryData data : track.snapshot()) {
+                if (inRange(data, from, to) && data.getLocation().distanceToKm(center) <= radiusKm) {
+                    result.add(data);
+                }
+            }
+        }
+        result.sort(Comparator.comparingDouble(data -> data.getLocation().distanceToKm(center)));
+        recordQuery(start);
+        return result;
+    }
+
+    /**
+     * Retained readings within the bounding box and time range, newest first
+     */
+    public List<TelemetryData> recentWithinBoundingBox(String organizationId, BoundingBox boundingBox,
+                                                       Instant from, Instant to) {
+        long start = System.nanoTime();
+        List<TelemetryData> result = new ArrayList<>();
+        for (DeviceTrack track : candidates(organizationId, boundingBoxBounds(boundingBox))) {
+            for (TelemetryData data : track.snapshot()) {
+                if (inRange(data, from, to) && boundingBox.contains(data.getLocation())) {
+                    result.add(data);
+                }
+            }
+        }
+        result.sort(Comparator.comparing(TelemetryData::getTimestamp).reversed());
+        recordQuery(start);
+        return result;
+    }
+
+    /**
+     * Latest readings of the devices nearest to a point, nearest first
+     * Searches rings of cells outwards until no unvisited cell can hold a nearer device.
+     */
+    public List<TelemetryData> nearestDevices(String organizationId, GeoLocation point, int count) {
+        OrganizationIndex index = organizations.get(organizationId);
+        if (count <= 0 || index == null) {
+            return List.of();
+        }
+        long start = System.nanoTime();
+        PriorityQueue<Neighbor> nearest = new PriorityQueue<>(Comparator.comparingDouble(Neighbor::distanceKm).reversed());
+        Set<DeviceId> seen = new HashSet<>();
+
+        int row = row(point.latitude());
+        int column = column(point.longitude());
+        int maxRing = Math.max(rows, columns);
+        boolean exhaustive = index.devices.size() <= count;
+        for (int ring = 0; ring <= maxRing; ring++) {
+            if (exhaustive || (long) (2 * ring + 1) * (2 * ring + 1) > 4L * index.devices.size()) {
+                // Sparse index, scanning every device is cheaper than more rings
+                for (DeviceTrack track : index.devices.values()) {
+                    offer(track, point, count, seen, nearest);
+                }
+                break;
+            }
+            scanRing(index, row, column, ring, point, count, seen, nearest);
+            if (nearest.size() == count && nearest.peek().distanceKm() <= ringDistanceKm(point, ring)) {
+                break;
+            }
+        }
+
+        List<TelemetryData> result = new ArrayList<>(nearest.size());
+        while (!nearest.isEmpty()) {
+            result.add(nearest.poll().data());
+        }
+        Collections.reverse(result);
+        recordQuery(start);
+        return result;
+    }
+
+    public int getDeviceCount() {
+        return organizations.values().stream().mapToInt(index -> index.devices.size()).sum();
+    }
+
+    public IndexStats getStats() {
+        long count = queries.sum();
+        int occupiedCells = organizations.values().stream().mapToInt(index -> index.cells.size()).sum();
+        return new IndexStats(getDeviceCount(), occupiedCells, count,
+            count > 0 ? queryNanos.sum() / count : 0,
+            count > 0 ? candidatesScanned.sum() / count : 0);
+    }
+
+    private void scanRing(OrganizationIndex index, int row, int column, int ring, GeoLocation point, int count,
+                          Set<DeviceId> seen, PriorityQueue<Neighbor> nearest) {
+        for (int r = row - ring; r <= row + ring; r++) {
+            if (r < 0 || r >= rows) {
+                continue;
+            }
+            boolean edgeRow = r == row - ring || r == row + ring;
+            int step = edgeRow ? 1 : Math.max(1, 2 * ring);
+            for (int c = column - ring; c <= column + ring; c += step) {
+                Map<DeviceId, Integer> cell = index.cells.get(cellId(r, Math.floorMod(c, columns)));
+                if (cell == null) {
+                    continue;
+                }
+                for (DeviceId deviceId : cell.keySet()) {
+                    DeviceTrack track = index.devices.get(deviceId);
+                    if (track != null) {
+                        offer(track, point, count, seen, nearest);
+                    }
+                }
+            }
+        }
+    }
+
+    private void offer(DeviceTrack track, GeoLocation point, int count, Set<DeviceId> seen,
+                       PriorityQueue<Neighbor> nearest) {
+        TelemetryData latest = track.latest;
+        if (latest == null || !seen.add(track.deviceId)) {
+            return;
+        }
+        candidatesScanned.increment();
+        double distance = latest.getLocation().distanceToKm(point);
+        if (nearest.size() < count) {
+            nearest.add(new Neighbor(latest, distance));
+        } else if (distance < nearest.peek().distanceKm()) {
+            nearest.poll();
+            nearest.add(new Neighbor(latest, distance));
+        }
+    }
+
+    /**
+     * Lower bound of the distance from a point to any cell outside the rings searched so far
+     */
+    private double ringDistanceKm(GeoLocation point, int ring) {
+        double degrees = ring * cellSizeDegrees;
+        double latitudeKm = degrees * KM_PER_DEGREE;
+        // Distance to the meridian that many degrees away
+        double longitudeKm = 6371.0 * Math.asin(Math.min(1.0,
+            Math.cos(Math.toRadians(point.latitude())) * Math.sin(Math.toRadians(Math.min(degrees, 90.0)))));
+        return Math.min(latitudeKm, longitudeKm);
+    }
+
+    private List<DeviceTrack> candidates(String organizationId, CellRange range) {
+        OrganizationIndex index = organizations.get(organizationId);
+        if (index == null) {
+            return List.of();
+        }
+        Set<DeviceId> deviceIds = new HashSet<>();
+        if ((long) range.rowCount() * range.columnCount() > index.cells.size()) {
+            // Large query area, visit the occupied cells instead of every cell of the area
+            index.cells.forEach((cellId, cell) -> {
+                if (range.contains((int) (cellId / columns), (int) (cellId % columns))) {
+                    deviceIds.addAll(cell.keySet());
+                }
+            });
+        } else {
+            for (int r = range.minRow(); r <= range.maxRow(); r++) {
+                for (int c = range.minColumn(); c <= range.maxColumn(); c++) {
+                    Map<DeviceId, Integer> cell = index.cells.get(cellId(r, Math.floorMod(c, columns)));
+                    if (cell != null) {
+                        deviceIds.addAll(cell.keySet());
+                    }
+                }
+            }
+        }
+        candidatesScanned.add(deviceIds.size());
+        List<DeviceTrack> tracks = new ArrayList<>(deviceIds.size());
+        for (DeviceId deviceId : deviceIds) {
+            DeviceTrack track = index.devices.get(deviceId);
+            if (track != null) {
+                tracks.add(track);
+            }
+        }
+        return tracks;
+    }
+
+    private CellRange radiusBounds(GeoLocation center, double radiusKm) {
+        double latitudeDelta = radiusKm / KM_PER_DEGREE;
+        double minLatitude = Math.max(-90.0, center.latitude() - latitudeDelta);
+        double maxLatitude = Math.min(90.0, center.latitude() + latitudeDelta);
+        double widestLatitude = Math.max(Math.abs(minLatitude), Math.abs(maxLatitude));
+        double cos = Math.cos(Math.toRadians(widestLatitude));
+        if (cos < 1e-9 || radiusKm / (KM_PER_DEGREE * cos) >= 180.0) {
+            // Reaches a pole or around the globe, every column may hold a match
+            return new CellRange(row(minLatitude), row(maxLatitude), 0, columns - 1, columns);
+        }
+        double longitudeDelta = radiusKm / (KM_PER_DEGREE * cos);
+        // Columns beyond the antimeridian wrap around
+        return new CellRange(row(minLatitude), row(maxLatitude),
+            (int) Math.floor((center.longitude() - longitudeDelta + 180.0) / cellSizeDegrees),
+            (int) Math.floor((center.longitude() + longitudeDelta + 180.0) / cellSizeDegrees), columns);
+    }
+
+    private CellRange boundingBoxBounds(BoundingBox boundingBox) {
+        return new CellRange(row(boundingBox.minLatitude()), row(boundingBox.maxLatitude()),
+            column(boundingBox.minLongitude()), column(boundingBox.maxLongitude()), columns);
+    }
+
+    private long cellOf(GeoLocation location) {
+        return cellId(row(location.latitude()), column(location.longitude()));
+    }
+
+    private long cellId(int row, int column) {
+        return (long) row * columns + column;
+    }
+
+    private int row(double latitude) {
+        return Math.min(rows - 1, (int) Math.floor((latitude + 90.0) / cellSizeDegrees));
+    }
+
+    private int column(double longitude) {
+        return Math.min(columns - 1, (int) Math.floor((longitude + 180.0) / cellSizeDegrees));
+    }
+
+    private static boolean inRange(TelemetryData data, Instant from, Instant to) {
+        return !data.getTimestamp().isBefore(from) && !data.getTimestamp().isAfter(to);
+    }
+
+    private void recordQuery(long startNanos) {
+        queries.increment();
+        queryNanos.add(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Devices of one organization and the cells holding their retained readings
+     */
+    private static final class OrganizationIndex {
+        private final Map<DeviceId, DeviceTrack> devices = new ConcurrentHashMap<>();
+        private final Map<Long, Map<DeviceId, Integer>> cells = new ConcurrentHashMap<>();
+        // Timestamp of the newest reading dropped by the per-device limit
+        private final LongAccumulator truncatedUntil = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+        void increment(long cellId, DeviceId deviceId) {
+            cells.compute(cellId, (id, cell) -> {
+                Map<DeviceId, Integer> devicesInCell = cell != null ? cell : new ConcurrentHashMap<>();
+                devicesInCell.merge(deviceId, 1, Integer::sum);
+                return devicesInCell;
+            });
+        }
+
+        void decrement(long cellId, DeviceId deviceId) {
+            cells.computeIfPresent(cellId, (id, cell) -> {
+                cell.computeIfPresent(deviceId, (device, readings) -> readings > 1 ? readings - 1 : null);
+                return cell.isEmpty() ? null : cell;
+            });
+        }
+    }
+
+    /**
+     * Retained readings of one device, oldest first; guarded by the track itself
+     */
+    private static final class DeviceTrack {
+        private final DeviceId deviceId;
+        private final ArrayDeque<TelemetryData> readings = new ArrayDeque<>();
+        // Same readings as a set, so duplicate checks do not scan the whole buffer
+        private final Set<TelemetryData> retained = new HashSet<>();
+        private volatile TelemetryData latest;
+        private boolean removed;
+
+        DeviceTrack(DeviceId deviceId) {
+            this.deviceId = deviceId;
+        }
+
+        synchronized List<TelemetryData> snapshot() {
+            return new ArrayList<>(readings);
+        }
+
+        TelemetryData removeFirst() {
+            TelemetryData evicted = readings.removeFirst();
+            retained.remove(evicted);
+            return evicted;
+        }
+
+        // Readings may arrive out of order, the latest is the newest one retained
+        void refreshLatest() {
+            if (latest == null || !retained.contains(latest)) {
+                latest = readings.stream()
+                    .max(Comparator.comparing(TelemetryData::getTimestamp))
+                    .orElse(null);
+            }
+        }
+    }
+
+    /**
+     * Rows and columns of cells covering an area; columns may run past the antimeridian
+     */
+    private record CellRange(int minRow, int maxRow, int minColumn, int maxColumn, int columns) {
+
+        int rowCount() {
+            return maxRow - minRow + 1;
+        }
+
+        int columnCount() {
+            return maxColumn - minColumn + 1;
+        }
+
+        boolean contains(int row, int column) {
+            if (row < minRow || row > maxRow) {
+                return false;
+            }
+            if (columnCount() >= columns) {
+                return true;
+            }
+            int offset = Math.floorMod(column - minColumn, columns);
+            return offset < columnCount();
+        }
+    }
+
+    private record Neighbor(TelemetryData data, double distanceKm) {}
+
+    public record IndexStats(int deviceCount, int occupiedCells, long queryCount,
+                             long averageQueryNanos, long averageCandidates) {}
+}
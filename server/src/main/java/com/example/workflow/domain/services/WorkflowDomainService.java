@@ -4,7 +4,9 @@ import com.example.workflow.domain.*;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -39,6 +41,23 @@ public class WorkflowDomainService {
         
         // Validate workflow structure and connections (requirement 1.3)
         validateWorkflowStructure(workflow);
+        
+        // Compile decision conditions once instead of on every telemetry event
+        conditionEvaluationService.compileWorkflow(workflow);
+        return workflow;
+    }
+    
+    /**
+     * Replace the structure of a workflow with validation
+     */
+    public Workflow updateWorkflow(Workflow workflow, String name, List<WorkflowNode> nodes, List<WorkflowEdge> edges) {
+        Objects.requireNonNull(workflow, "Workflow cannot be null");
+        
+        workflow.updateStructure(name, nodes, edges);
+        validateWorkflowStructure(workflow);
+        
+        // Conditions compiled for the previous version no longer apply
+        conditionEvaluationService.compileWorkflow(workflow);
         return workflow;
     }
     
@@ -84,169 +103,62 @@ public class WorkflowDomainService {
     }
     
     /**
-     * Execute workflow with telemetry data
-     */
-    public WorkflowExecution executeWorkflow(Workflow workflow, TelemetryData telemetryData) {
-        Objects.requireNonNull(workflow, "Workflow cannot be null");
-        
-        if (workflow.getStatus() != WorkflowStatus.ACTIVE) {
-            throw new IllegalStateException("Cannot execute workflow that is not active: " + workflow.getStatus());
-        }
-        
-        ExecutionId executionId = ExecutionId.generate();
-        WorkflowExecution execution = new WorkflowExecution(
-            executionId, 
-            workflow.getId(), 
-            workflow.getOrganizationId(), 
-            telemetryData
-        );
-        
-        // Start execution from start nodes
-        List<WorkflowNode> startNodes = workflow.getStartNodes();
-        if (startNodes.isEmpty()) {
-            execution.fail("No start nodes found in workflow");
-            return execution;
-        }
-        
-        // Execute first start node
-        WorkflowNode firstStartNode = startNodes.get(0);
-        execution.moveToNode(firstStartNode.getId());
-        
-        return processNode(workflow, execution, firstStartNode, telemetryData);
-    }
-    
-    /**
-     * Process a single workflow node
+     * Execute the logic of a single node without advancing the execution
+     * Workflows are executed by {@link WorkflowExecutionEngine}, which runs independent nodes concurrently
+     * and applies the results on its own thread; safe to call from several threads at once
      */
-    public WorkflowExecution processNode(Workflow workflow, WorkflowExecution execution, 
-                                       WorkflowNode node, TelemetryData telemetryData) {
+    public NodeStepResult executeStep(Workflow workflow, WorkflowNode node, TelemetryData telemetryData) {
         Objects.requireNonNull(workflow, "Workflow cannot be null");
-        Objects.requireNonNull(execution, "Execution cannot be null");
         Objects.requireNonNull(node, "Node cannot be null");
         
-        try {
-            switch (node.getType()) {
-                case START -> processStartNode(workflow, execution, node, telemetryData);
-                case DECISION -> processDecisionNode(workflow, execution, node, telemetryData);
-                case TASK -> processTaskNode(workflow, execution, node, telemetryData);
-                case ACTION -> processActionNode(workflow, execution, node, telemetryData);
-                case END -> processEndNode(workflow, execution, node, telemetryData);
-                default -> throw new IllegalArgumentException("Unsupported node type: " + node.getType());
-            }
-        } catch (Exception e) {
-            execution.fail("Error processing node " + node.getId() + ": " + e.getMessage());
-        }
-        
-        return execution;
-    }
-    
-    /**
-     * Process start node
-     */
-    private void processStartNode(Workflow workflow, WorkflowExecution execution, 
-                                WorkflowNode node, TelemetryData telemetryData) {
-        // Start nodes just pass through to next nodes
-        List<WorkflowNode> nextNodes = workflow.getNextNodes(node.getId());
-        if (!nextNodes.isEmpty()) {
-            WorkflowNode nextNode = nextNodes.get(0);
-            execution.moveToNode(nextNode.getId());
-            processNode(workflow, execution, nextNode, telemetryData);
-        } else {
-            execution.complete();
-        }
-    }
-    
-    /**
-     * Process decision node with condition evaluation
-     * Implements requirements 3.5 and 3.6: Evaluate conditions against real-time data and route execution
-     */
-    private void processDecisionNode(Workflow workflow, WorkflowExecution execution, 
-                                   WorkflowNode node, TelemetryData telemetryData) {
-        // Get conditions from node configuration
-        Object conditionsConfig = node.getConfigurationValue("conditions");
-        if (conditionsConfig == null) {
-            execution.fail("Decision node " + node.getId() + " has no conditions configured");
-            return;
-        }
+        Map<String, Object> contextData = new HashMap<>();
+        List<WorkflowEdge> outgoingEdges = workflow.getEdges().stream()
+            .filter(edge -> edge.getSource().equals(node.getId()))
+            .toList();
         
-        try {
-            // Requirement 3.5: Evaluate conditions against real-time telemetry data
-            boolean conditionResult = conditionEvaluationService.evaluateConditions(conditionsConfig, telemetryData);
-            
-            // Store condition evaluation result in execution context
-            execution.setContextData("condition_result_" + node.getId(), conditionResult);
-            execution.setContextData("condition_evaluation_time", System.currentTimeMillis());
-            
-            // Requirement 3.6: Route workflow execution based on condition result
-            WorkflowNode nextNode = findNextNodeForCondition(workflow, node, conditionResult);
-            
-            if (nextNode != null) {
-                execution.setContextData("routing_decision", 
-                    "Condition " + (conditionResult ? "TRUE" : "FALSE") + " -> Node " + nextNode.getId());
-                execution.moveToNode(nextNode.getId());
-                processNode(workflow, execution, nextNode, telemetryData);
-            } else {
-                execution.setContextData("routing_decision", "No next node found for condition result: " + conditionResult);
-                execution.complete();
+        switch (node.getType()) {
+            case START -> {
+                return new NodeStepResult(contextData, outgoingEdges);
             }
-        } catch (Exception e) {
-            execution.fail("Error evaluating conditions in decision node " + node.getId() + ": " + e.getMessage());
-        }
-    }
-    
-    /**
-     * Process task node
-     */
-    private void processTaskNode(Workflow workflow, WorkflowExecution execution, 
-                               WorkflowNode node, TelemetryData telemetryData) {
-        // Execute task logic based on node configuration
-        Object taskConfig = node.getConfigurationValue("task");
-        if (taskConfig != null) {
-            execution.setContextData("task_result", executeTask(taskConfig, telemetryData));
-        }
-        
-        // Move to next node
-        List<WorkflowNode> nextNodes = workflow.getNextNodes(node.getId());
-        if (!nextNodes.isEmpty()) {
-            WorkflowNode nextNode = nextNodes.get(0);
-            execution.moveToNode(nextNode.getId());
-            processNode(workflow, execution, nextNode, telemetryData);
-        } else {
-            execution.complete();
-        }
-    }
-    
-    /**
-     * Process action node
-     */
-    private void processActionNode(Workflow workflow, WorkflowExecution execution, 
-                                 WorkflowNode node, TelemetryData telemetryData) {
-        // Execute action based on node configuration
-        Object actionConfig = node.getConfigurationValue("action");
-        if (actionConfig != null) {
-            execution.setContextData("action_result", executeAction(actionConfig, telemetryData));
-        }
-        
-        // Move to next node
-        List<WorkflowNode> nextNodes = workflow.getNextNodes(node.getId());
-        if (!nextNodes.isEmpty()) {
-            WorkflowNode nextNode = nextNodes.get(0);
-            execution.moveToNode(nextNode.getId());
-            processNode(workflow, execution, nextNode, telemetryData);
-        } else {
-            execution.complete();
+            case DECISION -> {
+                if (node.getConfigurationValue("conditions") == null) {
+                    throw new IllegalStateException("Decision node " + node.getId() + " has no conditions configured");
+                }
+                boolean conditionResult = conditionEvaluationService.evaluateNodeConditions(workflow, node, telemetryData);
+                contextData.put("condition_result_" + node.getId(), conditionResult);
+                contextData.put("condition_evaluation_time", System.currentTimeMillis());
+                
+                WorkflowEdge edge = findEdgeForCondition(outgoingEdges, conditionResult);
+                contextData.put("routing_decision", edge != null
+                    ? "Condition " + (conditionResult ? "TRUE" : "FALSE") + " -> Node " + edge.getTarget()
+                    : "No next node found for condition result: " + conditionResult);
+                return new NodeStepResult(contextData, edge != null ? List.of(edge) : List.of());
+            }
+            case TASK -> {
+                Object taskConfig = node.getConfigurationValue("task");
+                if (taskConfig != null) {
+                    Object result = executeTask(taskConfig, telemetryData);
+                    contextData.put("task_result", result);
+                    contextData.put("task_result_" + node.getId(), result);
+                }
+                return new NodeStepResult(contextData, outgoingEdges);
+            }
+            case ACTION -> {
+                Object actionConfig = node.getConfigurationValue("action");
+                if (actionConfig != null) {
+                    Object result = executeAction(actionConfig, telemetryData);
+                    contextData.put("action_result", result);
+                    contextData.put("action_result_" + node.getId(), result);
+                }
+                return new NodeStepResult(contextData, outgoingEdges);
+            }
+            case END -> {
+                return new NodeStepResult(contextData, List.of());
+            }
+            default -> throw new IllegalArgumentException("Unsupported node type: " + node.getType());
         }
     }
     
-    /**
-     * Process end node
-     */
-    private void processEndNode(Workflow workflow, WorkflowExecution execution, 
-                              WorkflowNode node, TelemetryData telemetryData) {
-        // End nodes complete the execution
-        execution.complete();
-    }
-    
     /**
      * Find next node based on condition result
      */
@@ -255,18 +167,26 @@ public class WorkflowDomainService {
             .filter(edge -> edge.getSource().equals(decisionNode.getId()))
             .toList();
         
+        WorkflowEdge edge = findEdgeForCondition(outgoingEdges, conditionResult);
+        return edge != null ? workflow.findNodeById(edge.getTarget()) : null;
+    }
+    
+    /**
+     * Find the outgoing edge of a decision node to follow for a condition result
+     */
+    private WorkflowEdge findEdgeForCondition(List<WorkflowEdge> outgoingEdges, boolean conditionResult) {
         // Look for edges with appropriate types
         EdgeType targetEdgeType = conditionResult ? EdgeType.CONDITIONAL_TRUE : EdgeType.CONDITIONAL_FALSE;
         
         for (WorkflowEdge edge : outgoingEdges) {
             if (edge.getType() == targetEdgeType) {
-                return workflow.findNodeById(edge.getTarget());
+                return edge;
             }
         }
         
         // Fallback to first available edge if no typed edges found
         if (!outgoingEdges.isEmpty()) {
-            return workflow.findNodeById(outgoingEdges.get(0).getTarget());
+            return outgoingEdges.get(0);
         }
         
         return null;
@@ -405,8 +325,8 @@ public class WorkflowDomainService {
     }
     
     /**
-     * Execute workflow step-by-step for debugging and monitoring
-     * Supports real-time telemetry processing requirements
+     * Execute the current node of an execution and move it to the next node, for debugging and monitoring
+     * Follows the first edge taken; the execution completes when no edge is taken.
      */
     public WorkflowExecution executeWorkflowStep(Workflow workflow, WorkflowExecution execution, TelemetryData telemetryData) {
         Objects.requireNonNull(workflow, "Workflow cannot be null");
@@ -434,7 +354,18 @@ public class WorkflowDomainService {
             return execution;
         }
         
-        return processNode(workflow, execution, currentNode, telemetryData);
+        try {
+            NodeStepResult result = executeStep(workflow, currentNode, telemetryData);
+            result.contextData().forEach(execution::setContextData);
+            if (result.takenEdges().isEmpty()) {
+                execution.complete();
+            } else {
+                execution.moveToNode(result.takenEdges().get(0).getTarget());
+            }
+        } catch (Exception e) {
+            execution.fail("Error processing node " + currentNode.getId() + ": " + e.getMessage());
+        }
+        return execution;
     }
     
     /**
@@ -486,7 +417,7 @@ public class WorkflowDomainService {
             Object conditions = currentNode.getConfigurationValue("conditions");
             if (conditions != null) {
                 try {
-                    boolean conditionResult = conditionEvaluationService.evaluateConditions(conditions, telemetryData);
+                    boolean conditionResult = conditionEvaluationService.evaluateNodeConditions(workflow, currentNode, telemetryData);
                     WorkflowNode predictedNext = findNextNodeForCondition(workflow, currentNode, conditionResult);
                     if (predictedNext != null) {
                         return List.of(predictedNext);
@@ -583,6 +514,14 @@ record ExecutionReadinessResult(
     }
 }
 
+/**
+ * Result of executing a single node: context data to record and the outgoing edges taken
+ */
+record NodeStepResult(
+    Map<String, Object> contextData,
+    List<WorkflowEdge> takenEdges
+) {}
+
 /**
  * Exception thrown when workflow validation fails
  */
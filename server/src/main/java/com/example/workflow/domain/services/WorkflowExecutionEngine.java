@@ -0,0 +1,434 @@
+package com.example.workflow.domain.services;
+
+import com.example.workflow.domain.*;
+import com.example.workflow.domain.ports.ExecutionCheckpointRepository;
+import com.example.workflow.domain.ports.WorkflowRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Executes workflows as DAGs, running every node whose inputs are resolved concurrently
+ *
+ * Nodes run on virtual threads, at most maxParallelNodes at a time per execution, while the calling
+ * thread applies their results to the execution and saves a checkpoint after each wave of nodes that
+ * completed together. A node with
+ * several incoming edges waits for all of them: with the default join "any" it runs if at least one
+ * incoming branch was taken, with join "all" only if every branch was taken. Branches not taken are
+ * skipped through to the end of the graph, so every node is resolved exactly once.
+ *
+ * Each checkpoint leases the execution to this engine's node, and a heartbeat extends the leases of
+ * the executions it runs. Other nodes only resume executions whose lease has expired, claiming them
+ * atomically, and a node that finds its lease taken over stops the execution.
+ */
+@Service
+public class WorkflowExecutionEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkflowExecutionEngine.class);
+
+    private final WorkflowDomainService workflowDomainService;
+    private final WorkflowRepository workflowRepository;
+    private final ExecutionCheckpointRepository checkpointRepository;
+    private final int maxParallelNodes;
+    private final boolean resumeOnStartup;
+    private final String owner;
+    private final Duration lease;
+    private final ExecutorService executor;
+
+    // Executions running on this node, and whether their lease is still held
+    private final Map<ExecutionId, Boolean> leases = new ConcurrentHashMap<>();
+
+    @Autowired
+    public WorkflowExecutionEngine(WorkflowDomainService workflowDomainService,
+                                   WorkflowRepository workflowRepository,
+                                   ExecutionCheckpointRepository checkpointRepository,
+                                   @Value("${workflow.execution.max-parallel-nodes:64}") int maxParallelNodes,
+                                   @Value("${workflow.execution.resume-on-startup:true}") boolean resumeOnStartup,
+                                   @Value("${workflow.execution.node-id:}") String nodeId,
+                                   @Value("${workflow.execution.lease-ms:60000}") long leaseMillis) {
+        this(workflowDomainService, workflowRepository, checkpointRepository, maxParallelNodes, resumeOnStartup,
+            nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId, Duration.ofMillis(leaseMillis),
+            Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    WorkflowExecutionEngine(WorkflowDomainService workflowDomainService,
+                            WorkflowRepository workflowRepository,
+                            ExecutionCheckpointRepository checkpointRepository,
+                            int maxParallelNodes, boolean resumeOnStartup, String owner, Duration lease,
+                            ExecutorService executor) {
+        this.workflowDomainService = Objects.requireNonNull(workflowDomainService);
+        this.workflowRepository = Objects.requireNonNull(workflowRepository);
+        this.checkpointRepository = Objects.requireNonNull(checkpointRepository);
+        if (maxParallelNodes < 1) {
+            throw new IllegalArgumentException("Max parallel nodes must be positive: " + maxParallelNodes);
+        }
+        this.maxParallelNodes = maxParallelNodes;
+        this.resumeOnStartup = resumeOnStartup;
+        this.owner = Objects.requireNonNull(owner);
+        if (lease.isNegative() || lease.isZero()) {
+            throw new IllegalArgumentException("Execution lease must be positive: " + lease);
+        }
+        this.lease = lease;
+        this.executor = Objects.requireNonNull(executor);
+    }
+
+    /**
+     * Execute a workflow with telemetry data, returning when the execution is finished
+     */
+    public WorkflowExecution execute(Workflow workflow, TelemetryData telemetryData) {
+        Objects.requireNonNull(workflow, "Workflow cannot be null");
+
+        if (workflow.getStatus() != WorkflowStatus.ACTIVE) {
+            throw new IllegalStateException("Cannot execute workflow that is not active: " + workflow.getStatus());
+        }
+
+        WorkflowExecution execution = new WorkflowExecution(
+            ExecutionId.generate(),
+            workflow.getId(),
+            workflow.getOrganizationId(),
+            telemetryData
+        );
+        leases.put(execution.getId(), true);
+        try {
+            return run(workflow, execution, new HashSet<>(), new HashSet<>());
+        } finally {
+            leases.remove(execution.getId());
+        }
+    }
+
+    /**
+     * Resume an execution from its last checkpoint
+     * Nodes that were running when the checkpoint was taken run again. Fails if another node still
+     * holds the lease of the execution.
+     */
+    public WorkflowExecution resume(ExecutionId executionId) {
+        ExecutionCheckpoint checkpoint = checkpointRepository.findById(executionId)
+            .orElseThrow(() -> new IllegalArgumentException("No checkpoint found for execution: " + executionId));
+        if (checkpoint.status() != ExecutionStatus.RUNNING) {
+            throw new IllegalStateException("Cannot resume execution that is not running: " + checkpoint.status());
+        }
+        if (leases.putIfAbsent(executionId, true) != null) {
+            throw new IllegalStateException("Execution is already running on this node: " + executionId);
+        }
+        try {
+            Instant now = Instant.now();
+            if (!checkpointRepository.claim(executionId, owner, now, now.plus(lease))) {
+                throw new IllegalStateException("Execution is leased by another node: " + executionId);
+            }
+            // The previous owner may have saved another checkpoint before its lease ran out
+            return resumeClaimed(checkpointRepository.findById(executionId).orElse(checkpoint));
+        } finally {
+            leases.remove(executionId);
+        }
+    }
+
+    private WorkflowExecution resumeClaimed(ExecutionCheckpoint checkpoint) {
+        ExecutionId executionId = checkpoint.executionId();
+        WorkflowExecution execution = WorkflowExecution.restore(checkpoint);
+        Workflow workflow = workflowRepository.findById(checkpoint.workflowId()).orElse(null);
+        if (workflow == null || !Objects.equals(workflow.getUpdatedAt(), checkpoint.workflowVersion())) {
+            // The completed nodes no longer describe the same graph
+            execution.fail(workflow == null
+                ? "Workflow not found: " + checkpoint.workflowId()
+                : "Workflow was changed after the execution started");
+            checkpoint(execution, checkpoint.workflowVersion(), checkpoint.completedNodes(), checkpoint.takenEdges());
+            return execution;
+        }
+
+        logger.info("Resuming execution {} of workflow {} after {} completed nodes",
+            executionId, workflow.getId(), checkpoint.completedNodes().size());
+        return run(workflow, execution, new HashSet<>(checkpoint.completedNodes()), new HashSet<>(checkpoint.takenEdges()));
+    }
+
+    /**
+     * Resume executions interrupted by a shutdown or crash, once their lease has expired
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinished() {
+        if (!resumeOnStartup) {
+            return;
+        }
+        Instant now = Instant.now();
+        List<ExecutionCheckpoint> unfinished = checkpointRepository.findByStatus(ExecutionStatus.RUNNING).stream()
+            .filter(checkpoint -> checkpoint.leaseExpired(now) && !leases.containsKey(checkpoint.executionId()))
+            .toList();
+        for (ExecutionCheckpoint checkpoint : unfinished) {
+            executor.execute(() -> {
+                try {
+                    resume(checkpoint.executionId());
+                } catch (IllegalStateException e) {
+                    // Claimed by another node first
+                    logger.debug("Not resuming execution {}: {}", checkpoint.executionId(), e.getMessage());
+                } catch (Exception e) {
+                    logger.error("Failed to resume execution {}: {}", checkpoint.executionId(), e.getMessage(), e);
+                }
+            });
+        }
+        if (!unfinished.isEmpty()) {
+            logger.info("Resuming {} unfinished workflow executions", unfinished.size());
+        }
+    }
+
+    /**
+     * Extend the leases of the executions running on this node, and resume executions whose node
+     * stopped extending theirs
+     */
+    @Scheduled(fixedDelayString = "${workflow.execution.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        Set<ExecutionId> running = Set.copyOf(leases.keySet());
+        if (!running.isEmpty()) {
+            try {
+                for (ExecutionId executionId : checkpointRepository.renew(running, owner, Instant.now().plus(lease))) {
+                    leases.replace(executionId, true, false);
+                }
+            } catch (Exception e) {
+                logger.warn("Failed to renew execution leases: {}", e.getMessage());
+            }
+        }
+        resumeUnfinished();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Running executions keep their last checkpoint and are resumed on the next start
+        executor.shutdownNow();
+    }
+
+    private WorkflowExecution run(Workflow workflow, WorkflowExecution execution,
+                                  Set<NodeId> completed, Set<EdgeId> taken) {
+        ExecutionGraph graph = new ExecutionGraph(workflow);
+        if (graph.hasCycle()) {
+            execution.fail("Workflow graph contains a cycle");
+            checkpoint(execution, workflow.getUpdatedAt(), completed, taken);
+            return execution;
+        }
+
+        Deque<WorkflowNode> ready = new ArrayDeque<>();
+        Set<NodeId> released = new HashSet<>(completed);
+        for (WorkflowNode node : workflow.getNodes()) {
+            if (!released.contains(node.getId()) && graph.inputsResolved(node.getId(), completed)) {
+                release(graph, node, completed, taken, released, ready);
+            }
+        }
+
+        BlockingQueue<NodeOutcome> outcomes = new LinkedBlockingQueue<>();
+        int running = 0;
+        while (true) {
+            while (running < maxParallelNodes && !ready.isEmpty()) {
+                submit(workflow, ready.poll(), execution.getTriggerData(), outcomes);
+                running++;
+            }
+            if (running == 0) {
+                break;
+            }
+
+            // Apply every node that finished meanwhile before saving one checkpoint for all of them
+            List<NodeOutcome> wave = new ArrayList<>();
+            try {
+                wave.add(outcomes.take());
+            } catch (InterruptedException e) {
+                // Leave the execution running; it resumes from the last checkpoint
+                Thread.currentThread().interrupt();
+                return execution;
+            }
+            outcomes.drainTo(wave);
+            running -= wave.size();
+
+            for (NodeOutcome outcome : wave) {
+                NodeId nodeId = outcome.node().getId();
+                if (outcome.error() instanceof RejectedExecutionException && executor.isShutdown()) {
+                    // Shutting down; the execution resumes from the last checkpoint
+                    return execution;
+                }
+                if (outcome.error() != null) {
+                    execution.fail("Error processing node " + nodeId + ": " + outcome.error().getMessage());
+                    checkpoint(execution, workflow.getUpdatedAt(), completed, taken);
+                    return execution;
+                }
+
+                outcome.result().contextData().forEach(execution::setContextData);
+                execution.moveToNode(nodeId);
+                completed.add(nodeId);
+                outcome.result().takenEdges().forEach(edge -> taken.add(edge.getId()));
+
+                for (WorkflowEdge edge : graph.outgoing(nodeId)) {
+                    WorkflowNode target = graph.node(edge.getTarget());
+                    if (!released.contains(target.getId()) && graph.inputsResolved(target.getId(), completed)) {
+                        release(graph, target, completed, taken, released, ready);
+                    }
+                }
+            }
+            if (!checkpoint(execution, workflow.getUpdatedAt(), completed, taken)) {
+                return execution;
+            }
+        }
+
+        execution.complete();
+        checkpoint(execution, workflow.getUpdatedAt(), completed, taken);
+        return execution;
+    }
+
+    /**
+     * Queue a node whose inputs are all resolved, or skip it and the nodes only reachable through it
+     */
+    private void release(ExecutionGraph graph, WorkflowNode node, Set<NodeId> completed, Set<EdgeId> taken,
+                         Set<NodeId> released, Deque<WorkflowNode> ready) {
+        Deque<WorkflowNode> pending = new ArrayDeque<>();
+        pending.push(node);
+        released.add(node.getId());
+        while (!pending.isEmpty()) {
+            WorkflowNode current = pending.pop();
+            if (shouldRun(graph, current, taken)) {
+                ready.add(current);
+                continue;
+            }
+            completed.add(current.getId());
+            for (WorkflowEdge edge : graph.outgoing(current.getId())) {
+                WorkflowNode target = graph.node(edge.getTarget());
+                if (!released.contains(target.getId()) && graph.inputsResolved(target.getId(), completed)) {
+                    pending.push(target);
+                    released.add(target.getId());
+                }
+            }
+        }
+    }
+
+    private boolean shouldRun(ExecutionGraph graph, WorkflowNode node, Set<EdgeId> taken) {
+        List<WorkflowEdge> incoming = graph.incoming(node.getId());
+        if (incoming.isEmpty()) {
+            return true; // Start node
+        }
+        long takenCount = incoming.stream().filter(edge -> taken.contains(edge.getId())).count();
+        boolean joinAll = "all".equalsIgnoreCase(String.valueOf(node.getConfigurationValue("join")));
+        return joinAll ? takenCount == incoming.size() : takenCount > 0;
+    }
+
+    private void submit(Workflow workflow, WorkflowNode node, TelemetryData telemetryData,
+                        BlockingQueue<NodeOutcome> outcomes) {
+        try {
+            executor.execute(() -> {
+                try {
+                    outcomes.add(new NodeOutcome(node, workflowDomainService.executeStep(workflow, node, telemetryData), null));
+                } catch (Exception e) {
+                    outcomes.add(new NodeOutcome(node, null, e));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            outcomes.add(new NodeOutcome(node, null, e));
+        }
+    }
+
+    /**
+     * Save a checkpoint and extend the lease, unless another node has taken the execution over
+     */
+    private boolean checkpoint(WorkflowExecution execution, Instant workflowVersion,
+                               Set<NodeId> completed, Set<EdgeId> taken) {
+        if (Boolean.FALSE.equals(leases.get(execution.getId()))) {
+            logger.warn("Execution {} was taken over by another node, stopping here", execution.getId());
+            return false;
+        }
+        try {
+            checkpointRepository.save(ExecutionCheckpoint.of(execution, workflowVersion, completed, taken,
+                owner, Instant.now().plus(lease)));
+        } catch (Exception e) {
+            // The execution continues; a restart resumes from the previous checkpoint
+            logger.warn("Failed to checkpoint execution {}: {}", execution.getId(), e.getMessage());
+        }
+        return true;
+    }
+
+    private record NodeOutcome(WorkflowNode node, NodeStepResult result, Exception error) {}
+
+    /**
+     * Incoming and outgoing edges of every node of a workflow
+     */
+    private static final class ExecutionGraph {
+
+        private final Map<NodeId, WorkflowNode> nodes = new HashMap<>();
+        private final Map<NodeId, List<WorkflowEdge>> incoming = new HashMap<>();
+        private final Map<NodeId, List<WorkflowEdge>> outgoing = new HashMap<>();
+
+        ExecutionGraph(Workflow workflow) {
+            for (WorkflowNode node : workflow.getNodes()) {
+                nodes.put(node.getId(), node);
+                incoming.put(node.getId(), new ArrayList<>());
+                outgoing.put(node.getId(), new ArrayList<>());
+            }
+            for (WorkflowEdge edge : workflow.getEdges()) {
+                outgoing.get(edge.getSource()).add(edge);
+                incoming.get(edge.getTarget()).add(edge);
+            }
+        }
+
+        WorkflowNode node(NodeId nodeId) {
+            return nodes.get(nodeId);
+        }
+
+        List<WorkflowEdge> incoming(NodeId nodeId) {
+            return incoming.get(nodeId);
+        }
+
+        List<WorkflowEdge> outgoing(NodeId nodeId) {
+            return outgoing.get(nodeId);
+        }
+
+        boolean inputsResolved(NodeId nodeId, Set<NodeId> completed) {
+            for (WorkflowEdge edge : incoming.get(nodeId)) {
+                if (!completed.contains(edge.getSource())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Kahn's algorithm; nodes left with unresolved inputs lie on a cycle
+         */
+        boolean hasCycle() {
+            Map<NodeId, Integer> inDegree = new HashMap<>();
+            Deque<NodeId> sources = new ArrayDeque<>();
+            incoming.forEach((nodeId, edges) -> {
+                inDegree.put(nodeId, edges.size());
+                if (edges.isEmpty()) {
+                    sources.add(nodeId);
+                }
+            });
+            int visited = 0;
+            while (!sources.isEmpty()) {
+                NodeId nodeId = sources.poll();
+                visited++;
+                for (WorkflowEdge edge : outgoing.get(nodeId)) {
+                    if (inDegree.merge(edge.getTarget(), -1, Integer::sum) == 0) {
+                        sources.add(edge.getTarget());
+                    }
+                }
+            }
+            return visited < nodes.size();
+        }
+    }
+}
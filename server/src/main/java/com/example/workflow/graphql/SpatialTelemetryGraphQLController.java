@@ -0,0 +1,71 @@
+package com.example.workflow.graphql;
+
+import com.example.workflow.application.SpatialTelemetryApplicationService;
+import com.example.workflow.domain.*;
+import com.example.workflow.web.CallerOrganization;
+import org.springframework.graphql.data.method.annotation.*;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Spatial telemetry queries for map views
+ * Current positions come from the live spatial index; time ranges it no longer holds are read from PostGIS.
+ * Queries always cover the caller's own organization, see {@link CallerOrganization}.
+ */
+@Controller
+public class SpatialTelemetryGraphQLController {
+    
+    private final SpatialTelemetryApplicationService spatialTelemetryApplicationService;
+    
+    public SpatialTelemetryGraphQLController(SpatialTelemetryApplicationService spatialTelemetryApplicationService) {
+        this.spatialTelemetryApplicationService = spatialTelemetryApplicationService;
+    }
+    
+    @QueryMapping
+    public List<TelemetryReading> devicesNear(@Argument double latitude, @Argument double longitude,
+                                              @Argument double radiusKm, Authentication authentication) {
+        return readings(spatialTelemetryApplicationService.findDevicesWithinRadius(
+            CallerOrganization.of(authentication), GeoLocation.of(latitude, longitude), radiusKm));
+    }
+    
+    @QueryMapping
+    public List<TelemetryReading> devicesInArea(@Argument BoundingBoxInput area, Authentication authentication) {
+        return readings(spatialTelemetryApplicationService.findDevicesInBoundingBox(
+            CallerOrganization.of(authentication), area.toBoundingBox()));
+    }
+    
+    @QueryMapping
+    public List<TelemetryReading> nearestDevices(@Argument double latitude, @Argument double longitude,
+                                                 @Argument int count, Authentication authentication) {
+        return readings(spatialTelemetryApplicationService.findNearestDevices(
+            CallerOrganization.of(authentication), GeoLocation.of(latitude, longitude), count));
+    }
+    
+    @QueryMapping
+    public List<TelemetryReading> telemetryNear(@Argument double latitude, @Argument double longitude,
+                                                @Argument double radiusKm, @Argument String from,
+                                                @Argument String to, Authentication authentication) {
+        return readings(spatialTelemetryApplicationService.findWithinRadius(CallerOrganization.of(authentication),
+            GeoLocation.of(latitude, longitude), radiusKm, Instant.parse(from), Instant.parse(to)));
+    }
+    
+    @QueryMapping
+    public List<TelemetryReading> telemetryInArea(@Argument BoundingBoxInput area, @Argument String from,
+                                                  @Argument String to, Authentication authentication) {
+        return readings(spatialTelemetryApplicationService.findInBoundingBox(CallerOrganization.of(authentication),
+            area.toBoundingBox(), Instant.parse(from), Instant.parse(to)));
+    }
+    
+    private static List<TelemetryReading> readings(List<TelemetryData> data) {
+        return data.stream().map(TelemetryReading::from).toList();
+    }
+    
+    public record BoundingBoxInput(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+        
+        BoundingBox toBoundingBox() {
+            return BoundingBox.of(minLatitude, maxLatitude, minLongitude, maxLongitude);
+        }
+    }
+}
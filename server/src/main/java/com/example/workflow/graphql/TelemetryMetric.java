@@ -0,0 +1,6 @@
+package com.example.workflow.graphql;
+
+/**
+ * GraphQL view of one metric of a telemetry reading
+ */
+public record TelemetryMetric(String name, String value) {}
@@ -0,0 +1,26 @@
+package com.example.workflow.graphql;
+
+import com.example.workflow.domain.GeoLocation;
+import com.example.workflow.domain.TelemetryData;
+import java.util.List;
+
+/**
+ * GraphQL view of one telemetry reading, shared by the subscription and spatial queries
+ */
+public record TelemetryReading(String deviceId, String timestamp, List<TelemetryMetric> metrics,
+                               Double latitude, Double longitude) {
+    
+    public static TelemetryReading from(TelemetryData data) {
+        List<TelemetryMetric> metrics = data.getMetrics().entrySet().stream()
+            .map(entry -> new TelemetryMetric(entry.getKey(), String.valueOf(entry.getValue().getValue())))
+            .toList();
+        GeoLocation location = data.getLocation();
+        return new TelemetryReading(
+            data.getDeviceId().value(),
+            data.getTimestamp().toString(),
+            metrics,
+            location != null ? location.latitude() : null,
+            location != null ? location.longitude() : null
+        );
+    }
+}
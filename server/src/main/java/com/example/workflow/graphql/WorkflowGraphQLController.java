@@ -37,6 +37,11 @@ public class WorkflowGraphQLController {
         return workflowApplicationService.createWorkflow(request);
     }
     
+    @MutationMapping
+    public boolean deleteWorkflow(@Argument String id) {
+        return workflowApplicationService.deleteWorkflow(WorkflowId.of(id));
+    }
+    
     @MutationMapping
     public WorkflowExecutionResponse executeWorkflow(@Argument String id) {
         return workflowApplicationService.executeWorkflow(WorkflowId.of(id), null);
@@ -1,17 +1,46 @@
 package com.example.workflow.graphql;
 
+import com.example.workflow.application.TelemetryApplicationService;
 import com.example.workflow.application.WorkflowExecutionResponse;
+import com.example.workflow.domain.*;
 import org.springframework.graphql.data.method.annotation.*;
 import org.springframework.stereotype.Controller;
 import reactor.core.publisher.Flux;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 
 @Controller
 public class WorkflowSubscriptionController {
     
+    private final TelemetryApplicationService telemetryApplicationService;
+    
+    public WorkflowSubscriptionController(TelemetryApplicationService telemetryApplicationService) {
+        this.telemetryApplicationService = telemetryApplicationService;
+    }
+    
     @SubscriptionMapping
     public Flux<WorkflowExecutionResponse> workflowExecution(@Argument String workflowId) {
         return Flux.interval(Duration.ofSeconds(1))
             .map(i -> new WorkflowExecutionResponse(null, null, null));
     }
-}
\ No newline at end of file
+    
+    @SubscriptionMapping
+    public Flux<TelemetryReading> telemetryHistory(@Argument String organizationId, @Argument List<String> deviceIds,
+                                                   @Argument String from, @Argument String to,
+                                                   @Argument List<String> metrics, @Argument Integer limit) {
+        TelemetryQuery.Builder builder = TelemetryQuery.builder(organizationId)
+            .timeRange(from != null ? Instant.parse(from) : null, to != null ? Instant.parse(to) : null);
+        if (deviceIds != null) {
+            builder.deviceIds(deviceIds.stream().map(DeviceId::of).toList());
+        }
+        if (metrics != null) {
+            builder.metrics(metrics);
+        }
+        if (limit != null) {
+            builder.limit(limit);
+        }
+        return telemetryApplicationService.streamTelemetry(builder.build())
+            .map(TelemetryReading::from);
+    }
+}
@@ -4,6 +4,10 @@ import com.example.workflow.domain.*;
 import com.example.workflow.domain.ports.TelemetryRepository;
 import com.example.workflow.infrastructure.influxdb.InfluxDbBatchProcessor;
 import com.example.workflow.infrastructure.influxdb.InfluxDbPerformanceMonitor;
+import com.example.workflow.infrastructure.influxdb.RollupFlux;
+import com.example.workflow.infrastructure.influxdb.RollupQueryPlanner;
+import com.example.workflow.infrastructure.influxdb.RollupStatistics;
+import com.example.workflow.infrastructure.influxdb.StreamingFluxQuery;
 import com.influxdb.client.*;
 import com.influxdb.client.domain.WritePrecision;
 import com.influxdb.client.write.Point;
@@ -36,6 +40,7 @@ public class InfluxDbTelemetryRepository implements TelemetryRepository {
     private final QueryApi queryApi;
     private final InfluxDbBatchProcessor batchProcessor;
     private final InfluxDbPerformanceMonitor performanceMonitor;
+    private final RollupQueryPlanner rollupPlanner;
     
     @Value("${influxdb.bucket:telemetry}")
     private String bucket;
@@ -43,15 +48,39 @@ public class InfluxDbTelemetryRepository implements TelemetryRepository {
     @Value("${influxdb.organization:workflow-org}")
     private String organization;
     
-    @Autowired
+    // Time range fetched per query when streaming large ranges
+    @Value("${influxdb.query.chunk-duration-ms:21600000}")
+    private long chunkDurationMs = Duration.ofHours(6).toMillis();
+    
+    // Records buffered between the InfluxDB response and the consumer of a stream
+    @Value("${influxdb.query.stream-buffer-size:1000}")
+    private int streamBufferSize = 1000;
+    
+    // How long a stream may be left unread before its query is cancelled
+    @Value("${influxdb.query.stream-idle-timeout-ms:60000}")
+    private long streamIdleTimeoutMs = Duration.ofMinutes(1).toMillis();
+    
+    // Tags and columns of pivoted rows that are not metrics
+    private static final Set<String> NON_METRIC_COLUMNS = Set.of(
+        "result", "table", "device_id", "organization_id", "latitude", "longitude");
+    
     public InfluxDbTelemetryRepository(InfluxDBClient influxDBClient,
                                      InfluxDbBatchProcessor batchProcessor,
                                      InfluxDbPerformanceMonitor performanceMonitor) {
+        this(influxDBClient, batchProcessor, performanceMonitor, RollupQueryPlanner.rawOnly());
+    }
+    
+    @Autowired
+    public InfluxDbTelemetryRepository(InfluxDBClient influxDBClient,
+                                     InfluxDbBatchProcessor batchProcessor,
+                                     InfluxDbPerformanceMonitor performanceMonitor,
+                                     RollupQueryPlanner rollupPlanner) {
         this.influxDBClient = influxDBClient;
         this.writeApi = influxDBClient.getWriteApiBlocking();
         this.queryApi = influxDBClient.getQueryApi();
         this.batchProcessor = batchProcessor;
         this.performanceMonitor = performanceMonitor;
+        this.rollupPlanner = rollupPlanner;
         
         logger.info("InfluxDB Telemetry Repository initialized with enhanced batch processing and monitoring");
     }
@@ -156,84 +185,39 @@ public class InfluxDbTelemetryRepository implements TelemetryRepository {
     
     @Override
     public Stream<TelemetryData> queryTimeSeries(String deviceId, Instant start, Instant end) {
-        Instant queryStart = Instant.now();
-        try {
-            String flux = String.format(
-                "from(bucket: \"%s\") " +
-                "|> range(start: %s, stop: %s) " +
-                "|> filter(fn: (r) => r._measurement == \"telemetry\") " +
-                "|> filter(fn: (r) => r.device_id == \"%s\") " +
-                "|> pivot(rowKey:[\"_time\"], columnKey: [\"_field\"], valueColumn: \"_value\")",
-                bucket, start, end, deviceId
-            );
-            
-            List<FluxTable> tables = queryApi.query(flux, organization);
-            Stream<TelemetryData> result = convertFluxTablesToTelemetryStream(tables);
-            
-            performanceMonitor.recordReadOperation(Duration.between(queryStart, Instant.now()), true);
-            return result;
-            
-        } catch (Exception e) {
-            performanceMonitor.recordReadOperation(Duration.between(queryStart, Instant.now()), false);
-            logger.error("Failed to query time series for device: {}", deviceId, e);
-            throw e;
-        }
+        String filter = String.format("|> filter(fn: (r) => r.device_id == \"%s\") ", escape(deviceId));
+        return streamPivoted(start, end, filter, null);
     }
     
     @Override
     public Stream<TelemetryData> queryTimeSeries(List<DeviceId> deviceIds, Instant start, Instant end) {
         String deviceFilter = deviceIds.stream()
-            .map(id -> "\"" + id.getValue() + "\"")
+            .map(id -> "\"" + escape(id.getValue()) + "\"")
             .collect(Collectors.joining(", "));
         
-        String flux = String.format(
-            "from(bucket: \"%s\") " +
-            "|> range(start: %s, stop: %s) " +
-            "|> filter(fn: (r) => r._measurement == \"telemetry\") " +
-            "|> filter(fn: (r) => contains(value: r.device_id, set: [%s])) " +
-            "|> pivot(rowKey:[\"_time\"], columnKey: [\"_field\"], valueColumn: \"_value\")",
-            bucket, start, end, deviceFilter
-        );
-        
-        List<FluxTable> tables = queryApi.query(flux, organization);
-        return convertFluxTablesToTelemetryStream(tables);
+        String filter = String.format("|> filter(fn: (r) => contains(value: r.device_id, set: [%s])) ", deviceFilter);
+        return streamPivoted(start, end, filter, null);
     }
     
     @Override
     public Stream<TelemetryData> queryTimeSeriesWithMetrics(String deviceId, Instant start, Instant end, List<String> metrics) {
         String metricFilter = metrics.stream()
-            .map(metric -> "\"" + metric + "\"")
+            .map(metric -> "\"" + escape(metric) + "\"")
             .collect(Collectors.joining(", "));
         
-        String flux = String.format(
-            "from(bucket: \"%s\") " +
-            "|> range(start: %s, stop: %s) " +
-            "|> filter(fn: (r) => r._measurement == \"telemetry\") " +
+        String filter = String.format(
             "|> filter(fn: (r) => r.device_id == \"%s\") " +
-            "|> filter(fn: (r) => contains(value: r._field, set: [%s])) " +
-            "|> pivot(rowKey:[\"_time\"], columnKey: [\"_field\"], valueColumn: \"_value\")",
-            bucket, start, end, deviceId, metricFilter
+            "|> filter(fn: (r) => contains(value: r._field, set: [%s])) ",
+            escape(deviceId), metricFilter
         );
-        
-        List<FluxTable> tables = queryApi.query(flux, organization);
-        return convertFluxTablesToTelemetryStream(tables);
+        return streamPivoted(start, end, filter, null);
     }
     
     @Override
     public Stream<TelemetryData> queryRecentData(String organizationId, Duration duration) {
-        Instant start = Instant.now().minus(duration);
-        
-        String flux = String.format(
-            "from(bucket: \"%s\") " +
-            "|> range(start: %s) " +
-            "|> filter(fn: (r) => r._measurement == \"telemetry\") " +
-            "|> filter(fn: (r) => r.organization_id == \"%s\") " +
-            "|> pivot(rowKey:[\"_time\"], columnKey: [\"_field\"], valueColumn: \"_value\")",
-            bucket, start, organizationId
-        );
-        
-        List<FluxTable> tables = queryApi.query(flux, organization);
-        return convertFluxTablesToTelemetryStream(tables);
+        Instant end = Instant.now();
+        String filter = String.format("|> filter(fn: (r) => r.organization_id == \"%s\") ", escape(organizationId));
+        return streamPivoted(end.minus(duration), end, filter, null);
     }
     
     @Override
@@ -320,7 +304,7 @@ public class InfluxDbTelemetryRepository implements TelemetryRepository {
             "|> filter(fn: (r) => r._measurement == \"telemetry\") " +
             "|> filter(fn: (r) => r._field == \"%s\") " +
             "|> filter(fn: (r) => r._value == %s)",
-            bucket, metricName, formatValue(value)
+            bucket, escape(metricName), formatValue(value)
         );
         
         List<FluxTable> tables = queryApi.query(flux, organization);
@@ -335,7 +319,7 @@ public class InfluxDbTelemetryRepository implements TelemetryRepository {
             "|> filter(fn: (r) => r._measurement == \"telemetry\") " +
             "|> filter(fn: (r) => r._field == \"%s\") " +
             "|> filter(fn: (r) => r._value >= %f and r._value <= %f)",
-            bucket, metricName, minValue, maxValue
+            bucket, escape(metricName), minValue, maxValue
         );
         
         List<FluxTable> tables = queryApi.query(flux, organization);
@@ -359,7 +343,7 @@ public class InfluxDbTelemetryRepository implements TelemetryRepository {
             "|> filter(fn: (r) => r._measurement == \"telemetry\") " +
             "|> filter(fn: (r) => r._field == \"%s\") " +
             "|> filter(fn: (r) => r._value %s %f)",
-            bucket, metricName, operator, threshold
+            bucket, escape(metricName), operator, threshold
         );
         
         List<FluxTable> tables = queryApi.query(flux, organization);
@@ -368,57 +352,75 @@ public class InfluxDbTelemetryRepository implements TelemetryRepository {
     
     @Override
     public TelemetryQueryResult query(TelemetryQuery query) {
-        // Build Flux query based on TelemetryQuery parameters
-        StringBuilder fluxBuilder = new StringBuilder();
-        fluxBuilder.append(String.format("from(bucket: \"%s\")", bucket));
-        
-        if (query.hasTimeRange()) {
-            fluxBuilder.append(String.format(" |> range(start: %s", query.getFromTime()));
-            if (query.getToTime() != null) {
-                fluxBuilder.append(String.format(", stop: %s", query.getToTime()));
-            }
-            fluxBuilder.append(")");
-        } else {
-            fluxBuilder.append(" |> range(start: -1h)");
+        try (Stream<TelemetryData> stream = queryStream(query)) {
+            List<TelemetryData> data = stream.collect(Collectors.toList());
+            return new TelemetryQueryResult(data, data.size(), false, null);
+        }
+    }
+    
+    /**
+     * Stream query results lazily, paging through the time range in chunks
+     * The stream must be closed when not fully consumed, which cancels the running query;
+     * a stream that is left unread is cancelled after the idle timeout
+     */
+    @Override
+    public Stream<TelemetryData> queryStream(TelemetryQuery query) {
+        Instant end = query.getToTime() != null ? query.getToTime() : Instant.now();
+        Instant start = query.getFromTime() != null ? query.getFromTime() : end.minus(Duration.ofHours(1));
+        return streamPivoted(start, end, buildFilters(query), query.getLimit());
+    }
+    
+    /**
+     * Aggregate per series and window, reading each part of the range from the coarsest rollup tier
+     * that answers it exactly; aggregations rollups cannot express are computed from raw points
+     */
+    @Override
+    public List<TelemetryAggregation> aggregate(TelemetryQuery query, AggregationType aggregationType, Duration interval) {
+        Set<RollupFlux.Stat> stats = RollupStatistics.requiredStats(aggregationType);
+        if (stats == null) {
+            return aggregateRaw(query, aggregationType, interval);
         }
         
-        fluxBuilder.append(" |> filter(fn: (r) => r._measurement == \"telemetry\")");
-        fluxBuilder.append(String.format(" |> filter(fn: (r) => r.organization_id == \"%s\")", query.getOrganizationId()));
+        Instant end = query.getToTime() != null ? query.getToTime() : Instant.now();
+        Instant start = query.getFromTime() != null ? query.getFromTime() : end.minus(Duration.ofHours(1));
+        Map<StatisticsKey, RollupStatistics> windows =
+            queryStatistics(buildFilters(query), start, end, interval, aggregationType, stats);
+        
+        return windows.entrySet().stream()
+            .sorted(Comparator.comparing((Map.Entry<StatisticsKey, RollupStatistics> entry) -> entry.getKey().window())
+                .thenComparing(entry -> entry.getKey().metric()))
+            .map(entry -> new TelemetryAggregation(
+                entry.getKey().window().plus(interval),
+                entry.getKey().metric(),
+                entry.getValue().value(aggregationType),
+                entry.getValue().getCount(),
+                aggregationType
+            ))
+            .collect(Collectors.toList());
+    }
+    
+    private String buildFilters(TelemetryQuery query) {
+        StringBuilder filter = new StringBuilder();
+        filter.append(String.format("|> filter(fn: (r) => r.organization_id == \"%s\") ", escape(query.getOrganizationId())));
         
         if (query.hasDeviceFilter()) {
             String deviceFilter = query.getDeviceIds().stream()
-                .map(id -> "\"" + id.getValue() + "\"")
+                .map(id -> "\"" + escape(id.getValue()) + "\"")
                 .collect(Collectors.joining(", "));
-            fluxBuilder.append(String.format(" |> filter(fn: (r) => contains(value: r.device_id, set: [%s]))", deviceFilter));
+            filter.append(String.format("|> filter(fn: (r) => contains(value: r.device_id, set: [%s])) ", deviceFilter));
         }
         
         if (query.hasMetricFilter()) {
             String metricFilter = query.getMetrics().stream()
-                .map(metric -> "\"" + metric + "\"")
+                .map(metric -> "\"" + escape(metric) + "\"")
                 .collect(Collectors.joining(", "));
-            fluxBuilder.append(String.format(" |> filter(fn: (r) => contains(value: r._field, set: [%s]))", metricFilter));
-        }
-        
-        if (query.getLimit() != null) {
-            fluxBuilder.append(String.format(" |> limit(n: %d)", query.getLimit()));
+            filter.append(String.format("|> filter(fn: (r) => contains(value: r._field, set: [%s])) ", metricFilter));
         }
         
-        fluxBuilder.append(" |> pivot(rowKey:[\"_time\"], columnKey: [\"_field\"], valueColumn: \"_value\")");
-        
-        List<FluxTable> tables = queryApi.query(fluxBuilder.toString(), organization);
-        List<TelemetryData> data = convertFluxTablesToTelemetryStream(tables).collect(Collectors.toList());
-        
-        return new TelemetryQueryResult(data, data.size(), false, null);
-    }
-    
-    @Override
-    public Stream<TelemetryData> queryStream(TelemetryQuery query) {
-        TelemetryQueryResult result = query(query);
-        return result.data().stream();
+        return filter.toString();
     }
     
-    @Override
-    public List<TelemetryAggregation> aggregate(TelemetryQuery query, AggregationType aggregationType, Duration interval) {
+    private List<TelemetryAggregation> aggregateRaw(TelemetryQuery query, AggregationType aggregationType, Duration interval) {
         String aggregationFunction = switch (aggregationType) {
             case AVERAGE -> "mean()";
             case SUM -> "sum()";
@@ -439,7 +441,7 @@ public class InfluxDbTelemetryRepository implements TelemetryRepository {
             "|> filter(fn: (r) => r.organization_id == \"%s\") " +
             "|> aggregateWindow(every: %s, fn: %s)",
             bucket, query.getFromTime(), query.getToTime(), 
-            query.getOrganizationId(), formatDuration(interval), aggregationFunction
+            escape(query.getOrganizationId()), formatDuration(interval), aggregationFunction
         );
         
         List<FluxTable> tables = queryApi.query(flux, organization);
@@ -448,36 +450,58 @@ public class InfluxDbTelemetryRepository implements TelemetryRepository {
     
     @Override
     public Map<String, Double> getMetricStatistics(String deviceId, String metricName, Instant start, Instant end) {
-        String flux = String.format(
-            "data = from(bucket: \"%s\") " +
-            "|> range(start: %s, stop: %s) " +
-            "|> filter(fn: (r) => r._measurement == \"telemetry\") " +
+        String filters = String.format(
             "|> filter(fn: (r) => r.device_id == \"%s\") " +
-            "|> filter(fn: (r) => r._field == \"%s\") " +
-            
-            "min_val = data |> min() |> findRecord(fn: (key) => true, idx: 0) " +
-            "max_val = data |> max() |> findRecord(fn: (key) => true, idx: 0) " +
-            "avg_val = data |> mean() |> findRecord(fn: (key) => true, idx: 0) " +
-            "count_val = data |> count() |> findRecord(fn: (key) => true, idx: 0)",
-            bucket, start, end, deviceId, metricName
+            "|> filter(fn: (r) => r._field == \"%s\") ",
+            escape(deviceId), escape(metricName)
         );
+        RollupStatistics statistics = queryStatistics(filters, start, end, null, null,
+                EnumSet.of(RollupFlux.Stat.MIN, RollupFlux.Stat.MAX, RollupFlux.Stat.SUM, RollupFlux.Stat.COUNT))
+            .values().stream()
+            .findFirst()
+            .orElseGet(RollupStatistics::new);
         
-        // This is a simplified implementation - in practice, you'd need multiple queries
-        // or use InfluxDB's statistical functions more effectively
         Map<String, Double> stats = new HashMap<>();
-        stats.put("min", 0.0);
-        stats.put("max", 0.0);
-        stats.put("avg", 0.0);
-        stats.put("count", 0.0);
-        
+        stats.put("min", statistics.getMin());
+        stats.put("max", statistics.getMax());
+        stats.put("avg", statistics.getMean());
+        stats.put("count", (double) statistics.getCount());
         return stats;
     }
     
     @Override
     public List<DeviceMetricSummary> getDeviceSummaries(String organizationId, Instant start, Instant end) {
-        // Implementation would require complex Flux queries
-        // This is a placeholder implementation
-        return List.of();
+        String filters = String.format("|> filter(fn: (r) => r.organization_id == \"%s\") ", escape(organizationId));
+        Map<StatisticsKey, RollupStatistics> series = queryStatistics(filters, start, end, null, null,
+            EnumSet.allOf(RollupFlux.Stat.class));
+        
+        Map<String, Map<String, RollupStatistics>> byDevice = new TreeMap<>();
+        series.forEach((key, statistics) ->
+            byDevice.computeIfAbsent(key.deviceId(), id -> new TreeMap<>()).put(key.metric(), statistics));
+        
+        List<DeviceMetricSummary> summaries = new ArrayList<>();
+        byDevice.forEach((deviceId, metrics) -> {
+            Map<String, MetricStatistics> metricStats = new HashMap<>();
+            long dataPoints = 0;
+            Instant first = null;
+            Instant last = null;
+            for (Map.Entry<String, RollupStatistics> entry : metrics.entrySet()) {
+                RollupStatistics statistics = entry.getValue();
+                metricStats.put(entry.getKey(), new MetricStatistics(
+                    statistics.getMin(), statistics.getMax(), statistics.getMean(),
+                    statistics.getSum(), statistics.getCount(), statistics.getStdDev()));
+                // Metrics of one point are written together, so the most frequent metric counts the points
+                dataPoints = Math.max(dataPoints, statistics.getCount());
+                if (statistics.getFirst() != null && (first == null || statistics.getFirst().isBefore(first))) {
+                    first = statistics.getFirst();
+                }
+                if (statistics.getLast() != null && (last == null || statistics.getLast().isAfter(last))) {
+                    last = statistics.getLast();
+                }
+            }
+            summaries.add(new DeviceMetricSummary(DeviceId.of(deviceId), metricStats, dataPoints, first, last));
+        });
+        return summaries;
     }
     
     @Override
@@ -487,7 +511,7 @@ public class InfluxDbTelemetryRepository implements TelemetryRepository {
             "|> range(start: 1970-01-01T00:00:00Z, stop: %s) " +
             "|> filter(fn: (r) => r.organization_id == \"%s\") " +
             "|> drop()",
-            bucket, beforeTime, organizationId
+            bucket, beforeTime, escape(organizationId)
         );
         
         queryApi.query(flux, organization);
@@ -500,7 +524,7 @@ public class InfluxDbTelemetryRepository implements TelemetryRepository {
             "|> range(start: 1970-01-01T00:00:00Z) " +
             "|> filter(fn: (r) => r.device_id == \"%s\") " +
             "|> drop()",
-            bucket, deviceId.getValue()
+            bucket, escape(deviceId.getValue())
         );
         
         queryApi.query(flux, organization);
@@ -514,7 +538,7 @@ public class InfluxDbTelemetryRepository implements TelemetryRepository {
             "|> filter(fn: (r) => r._measurement == \"telemetry\") " +
             "|> filter(fn: (r) => r.organization_id == \"%s\") " +
             "|> count()",
-            bucket, start, end, organizationId
+            bucket, start, end, escape(organizationId)
         );
         
         List<FluxTable> tables = queryApi.query(flux, organization);
@@ -529,7 +553,7 @@ public class InfluxDbTelemetryRepository implements TelemetryRepository {
             "|> filter(fn: (r) => r._measurement == \"telemetry\") " +
             "|> filter(fn: (r) => r.device_id == \"%s\") " +
             "|> count()",
-            bucket, start, end, deviceId.getValue()
+            bucket, start, end, escape(deviceId.getValue())
         );
         
         List<FluxTable> tables = queryApi.query(flux, organization);
@@ -556,7 +580,7 @@ public class InfluxDbTelemetryRepository implements TelemetryRepository {
             "|> filter(fn: (r) => r._measurement == \"telemetry\") " +
             "|> filter(fn: (r) => r.organization_id == \"%s\") " +
             "|> distinct(column: \"device_id\")",
-            bucket, start, organizationId
+            bucket, start, escape(organizationId)
         );
         
         List<FluxTable> tables = queryApi.query(flux, organization);
@@ -571,7 +595,7 @@ public class InfluxDbTelemetryRepository implements TelemetryRepository {
             "|> filter(fn: (r) => r._measurement == \"telemetry\") " +
             "|> filter(fn: (r) => r.device_id == \"%s\") " +
             "|> last()",
-            bucket, deviceId.getValue()
+            bucket, escape(deviceId.getValue())
         );
         
         List<FluxTable> tables = queryApi.query(flux, organization);
@@ -586,7 +610,7 @@ public class InfluxDbTelemetryRepository implements TelemetryRepository {
             "|> filter(fn: (r) => r._measurement == \"telemetry\") " +
             "|> filter(fn: (r) => r.device_id == \"%s\") " +
             "|> first()",
-            bucket, deviceId.getValue()
+            bucket, escape(deviceId.getValue())
         );
         
         List<FluxTable> tables = queryApi.query(flux, organization);
@@ -594,6 +618,143 @@ public class InfluxDbTelemetryRepository implements TelemetryRepository {
     }
     
     // Helper methods
+    
+    /**
+     * Statistics per series, and per window when an interval is given, merged over the planned tiers
+     */
+    private Map<StatisticsKey, RollupStatistics> queryStatistics(String filters, Instant start, Instant end,
+                                                                 Duration interval, AggregationType aggregation,
+                                                                 Set<RollupFlux.Stat> stats) {
+        Map<StatisticsKey, RollupStatistics> result = new HashMap<>();
+        for (RollupQueryPlanner.PlannedRange range : rollupPlanner.plan(start, end, interval, aggregation)) {
+            String flux = RollupFlux.statistics(bucket, range.tier(), range.start(), range.end(), filters, interval, stats);
+            Instant queryStart = Instant.now();
+            try {
+                for (FluxTable table : queryApi.query(flux, organization)) {
+                    for (FluxRecord record : table.getRecords()) {
+                        RollupFlux.Stat stat = RollupFlux.Stat.fromTag((String) record.getValueByKey("stat"));
+                        Object deviceId = record.getValueByKey("device_id");
+                        if (stat == null || deviceId == null || record.getField() == null
+                                || !(record.getValue() instanceof Number value)) {
+                            continue;
+                        }
+                        // Windows are stamped with their start, clipped to the start of the segment
+                        Instant window = interval != null && record.getTime() != null
+                            ? floor(record.getTime(), interval) : null;
+                        result.computeIfAbsent(new StatisticsKey(deviceId.toString(), record.getField(), window),
+                                key -> new RollupStatistics())
+                            .add(stat, value.doubleValue(), record.getTime(), range.tier().resolution());
+                    }
+                }
+                performanceMonitor.recordReadOperation(Duration.between(queryStart, Instant.now()), true);
+                performanceMonitor.recordTierQuery(range.tier(), Duration.between(range.start(), range.end()));
+            } catch (RuntimeException e) {
+                performanceMonitor.recordReadOperation(Duration.between(queryStart, Instant.now()), false);
+                logger.error("Failed to query {} statistics between {} and {}", range.tier().label(),
+                    range.start(), range.end(), e);
+                throw e;
+            }
+        }
+        return result;
+    }
+    
+    private static Instant floor(Instant instant, Duration interval) {
+        long millis = instant.toEpochMilli();
+        return Instant.ofEpochMilli(millis - Math.floorMod(millis, interval.toMillis()));
+    }
+    
+    private record StatisticsKey(String deviceId, String metric, Instant window) {}
+    
+    /**
+     * Stream pivoted telemetry rows for the range, one chunk-sized query at a time
+     * Rows are mapped as they arrive; at most one chunk is queried at once and the next chunk
+     * is only requested once the consumer has read the previous one
+     */
+    private Stream<TelemetryData> streamPivoted(Instant start, Instant end, String filters, Integer limit) {
+        // With a limit, each chunk never needs to return more rows than the limit
+        String limitClause = limit != null ? String.format("|> limit(n: %d) ", limit) : "";
+        Iterator<String> queries = new Iterator<>() {
+            private Instant chunkStart = start;
+            
+            @Override
+            public boolean hasNext() {
+                return chunkStart.isBefore(end);
+            }
+            
+            @Override
+            public String next() {
+                Instant chunkEnd = chunkStart.plusMillis(chunkDurationMs);
+                if (chunkEnd.isAfter(end)) {
+                    chunkEnd = end;
+                }
+                String flux = String.format(
+                    "from(bucket: \"%s\") " +
+                    "|> range(start: %s, stop: %s) " +
+                    "|> filter(fn: (r) => r._measurement == \"telemetry\") " +
+                    "%s" +
+                    "|> pivot(rowKey:[\"_time\"], columnKey: [\"_field\"], valueColumn: \"_value\") " +
+                    "%s",
+                    bucket, chunkStart, chunkEnd, filters, limitClause
+                );
+                chunkStart = chunkEnd;
+                return flux;
+            }
+        };
+        
+        Instant queryStart = Instant.now();
+        Stream<TelemetryData> stream = StreamingFluxQuery.stream(queryApi, organization, queries, streamBufferSize,
+                Duration.ofMillis(streamIdleTimeoutMs),
+                success -> performanceMonitor.recordReadOperation(Duration.between(queryStart, Instant.now()), success))
+            .map(this::convertPivotedRecord)
+            .filter(Objects::nonNull);
+        return limit != null ? stream.limit(limit) : stream;
+    }
+    
+    /**
+     * Map a pivoted row, which holds all fields of one point as columns
+     */
+    private TelemetryData convertPivotedRecord(FluxRecord record) {
+        Object deviceId = record.getValueByKey("device_id");
+        Object organizationId = record.getValueByKey("organization_id");
+        Instant timestamp = record.getTime();
+        if (deviceId == null || organizationId == null || timestamp == null) {
+            return null;
+        }
+        
+        Map<String, MetricValue> metrics = new HashMap<>();
+        for (Map.Entry<String, Object> column : record.getValues().entrySet()) {
+            String name = column.getKey();
+            Object value = column.getValue();
+            if (value == null || name.startsWith("_") || NON_METRIC_COLUMNS.contains(name)) {
+                continue;
+            }
+            if (value instanceof Number number) {
+                metrics.put(name, MetricValue.numeric(number.doubleValue()));
+            } else if (value instanceof String text) {
+                metrics.put(name, MetricValue.string(text));
+            } else if (value instanceof Boolean flag) {
+                metrics.put(name, MetricValue.bool(flag));
+            }
+        }
+        if (metrics.isEmpty()) {
+            return null;
+        }
+        
+        GeoLocation location = null;
+        if (record.getValueByKey("latitude") instanceof Number latitude
+                && record.getValueByKey("longitude") instanceof Number longitude) {
+            location = new GeoLocation(latitude.doubleValue(), longitude.doubleValue());
+        }
+        
+        return new TelemetryData(
+            TelemetryId.generate(),
+            new DeviceId(deviceId.toString()),
+            timestamp,
+            metrics,
+            location,
+            organizationId.toString()
+        );
+    }
     private Point createTimeSeriesPoint(TelemetryData data) {
         Point point = Point.measurement("telemetry")
             .time(data.getTimestamp(), WritePrecision.MS)
@@ -710,11 +871,19 @@ public class InfluxDbTelemetryRepository implements TelemetryRepository {
     
     private String formatValue(Object value) {
         if (value instanceof String) {
-            return "\"" + value + "\"";
+            return "\"" + escape((String) value) + "\"";
         }
         return value.toString();
     }
     
+    /**
+     * Escape a value for use inside a Flux string literal, so a caller-supplied ID or metric
+     * name cannot end the literal and inject Flux
+     */
+    static String escape(String value) {
+        return String.valueOf(value).replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+    
     private String formatDuration(Duration duration) {
         return duration.getSeconds() + "s";
     }
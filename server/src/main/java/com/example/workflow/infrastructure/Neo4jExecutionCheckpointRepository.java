@@ -0,0 +1,186 @@
+package com.example.workflow.infrastructure;
+
+import com.example.workflow.domain.*;
+import com.example.workflow.domain.ports.ExecutionCheckpointRepository;
+import com.example.workflow.infrastructure.neo4j.ExecutionCheckpointEntity;
+import com.example.workflow.infrastructure.neo4j.Neo4jExecutionCheckpointEntityRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Neo4j implementation of ExecutionCheckpointRepository
+ * Keeps one checkpoint node per execution, overwritten after every executed node
+ */
+@Repository
+@Transactional
+public class Neo4jExecutionCheckpointRepository implements ExecutionCheckpointRepository {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private final Neo4jExecutionCheckpointEntityRepository entityRepository;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public Neo4jExecutionCheckpointRepository(Neo4jExecutionCheckpointEntityRepository entityRepository,
+                                             ObjectMapper objectMapper) {
+        this.entityRepository = entityRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void save(ExecutionCheckpoint checkpoint) {
+        entityRepository.save(toEntity(checkpoint));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ExecutionCheckpoint> findById(ExecutionId executionId) {
+        return entityRepository.findById(executionId.value())
+            .map(this::toDomain);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ExecutionCheckpoint> findByStatus(ExecutionStatus status) {
+        return entityRepository.findByStatus(status.name()).stream()
+            .map(this::toDomain)
+            .toList();
+    }
+
+    @Override
+    public void delete(ExecutionId executionId) {
+        entityRepository.deleteById(executionId.value());
+    }
+
+    @Override
+    public boolean claim(ExecutionId executionId, String owner, Instant now, Instant leaseExpiresAt) {
+        return entityRepository.claim(executionId.value(), owner, now, leaseExpiresAt) > 0;
+    }
+
+    @Override
+    public Set<ExecutionId> renew(Collection<ExecutionId> executionIds, String owner, Instant leaseExpiresAt) {
+        if (executionIds.isEmpty()) {
+            return Set.of();
+        }
+        List<String> ids = executionIds.stream().map(ExecutionId::value).toList();
+        return entityRepository.renew(ids, owner, leaseExpiresAt).stream()
+            .map(ExecutionId::of)
+            .collect(Collectors.toSet());
+    }
+
+    private ExecutionCheckpointEntity toEntity(ExecutionCheckpoint checkpoint) {
+        ExecutionCheckpointEntity entity = new ExecutionCheckpointEntity();
+        entity.setId(checkpoint.executionId().value());
+        entity.setWorkflowId(checkpoint.workflowId().value());
+        entity.setWorkflowVersion(checkpoint.workflowVersion());
+        entity.setOrganizationId(checkpoint.organizationId());
+        entity.setStatus(checkpoint.status().name());
+        entity.setStartedAt(checkpoint.startedAt());
+        entity.setCheckpointedAt(checkpoint.checkpointedAt());
+        entity.setCurrentNodeId(checkpoint.currentNodeId() != null ? checkpoint.currentNodeId().value() : null);
+        entity.setErrorMessage(checkpoint.errorMessage());
+        entity.setCompletedNodes(checkpoint.completedNodes().stream().map(NodeId::value).sorted().toList());
+        entity.setTakenEdges(checkpoint.takenEdges().stream().map(EdgeId::value).sorted().toList());
+        entity.setContextJson(writeJson(checkpoint.contextData()));
+        entity.setTriggerJson(checkpoint.triggerData() != null ? writeJson(triggerToMap(checkpoint.triggerData())) : null);
+        entity.setOwner(checkpoint.owner());
+        entity.setLeaseExpiresAt(checkpoint.leaseExpiresAt());
+        return entity;
+    }
+
+    private ExecutionCheckpoint toDomain(ExecutionCheckpointEntity entity) {
+        return new ExecutionCheckpoint(
+            ExecutionId.of(entity.getId()),
+            WorkflowId.of(entity.getWorkflowId()),
+            entity.getWorkflowVersion(),
+            entity.getOrganizationId(),
+            ExecutionStatus.valueOf(entity.getStatus()),
+            entity.getStartedAt(),
+            entity.getCheckpointedAt(),
+            entity.getCurrentNodeId() != null ? NodeId.of(entity.getCurrentNodeId()) : null,
+            entity.getErrorMessage(),
+            entity.getTriggerJson() != null ? triggerFromMap(readJson(entity.getTriggerJson())) : null,
+            entity.getCompletedNodes() != null
+                ? entity.getCompletedNodes().stream().map(NodeId::of).collect(Collectors.toSet()) : Set.of(),
+            entity.getTakenEdges() != null
+                ? entity.getTakenEdges().stream().map(EdgeId::of).collect(Collectors.toSet()) : Set.of(),
+            entity.getContextJson() != null ? readJson(entity.getContextJson()) : Map.of(),
+            entity.getOwner(),
+            entity.getLeaseExpiresAt()
+        );
+    }
+
+    private Map<String, Object> triggerToMap(TelemetryData data) {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        data.getMetrics().forEach((name, value) -> metrics.put(name, value.getValue()));
+
+        Map<String, Object> trigger = new HashMap<>();
+        trigger.put("id", data.getId().value());
+        trigger.put("deviceId", data.getDeviceId().value());
+        trigger.put("timestamp", data.getTimestamp().toString());
+        trigger.put("organizationId", data.getOrganizationId());
+        trigger.put("metrics", metrics);
+        if (data.getLocation() != null) {
+            trigger.put("latitude", data.getLocation().latitude());
+            trigger.put("longitude", data.getLocation().longitude());
+        }
+        return trigger;
+    }
+
+    private TelemetryData triggerFromMap(Map<String, Object> trigger) {
+        Map<String, MetricValue> metrics = new HashMap<>();
+        if (trigger.get("metrics") instanceof Map<?, ?> values) {
+            values.forEach((name, value) -> {
+                if (value instanceof Number number) {
+                    metrics.put((String) name, MetricValue.numeric(number));
+                } else if (value instanceof Boolean flag) {
+                    metrics.put((String) name, MetricValue.bool(flag));
+                } else if (value != null) {
+                    metrics.put((String) name, MetricValue.string(value.toString()));
+                }
+            });
+        }
+        GeoLocation location = trigger.get("latitude") instanceof Number latitude
+                && trigger.get("longitude") instanceof Number longitude
+            ? GeoLocation.of(latitude.doubleValue(), longitude.doubleValue()) : null;
+
+        return new TelemetryData(
+            TelemetryId.of((String) trigger.get("id")),
+            DeviceId.of((String) trigger.get("deviceId")),
+            Instant.parse((String) trigger.get("timestamp")),
+            metrics,
+            location,
+            (String) trigger.get("organizationId")
+        );
+    }
+
+    private String writeJson(Map<String, Object> value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize execution checkpoint", e);
+        }
+    }
+
+    private Map<String, Object> readJson(String json) {
+        try {
+            return objectMapper.readValue(json, MAP_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read execution checkpoint", e);
+        }
+    }
+}
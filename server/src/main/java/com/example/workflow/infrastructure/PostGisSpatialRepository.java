@@ -22,6 +22,10 @@ import java.util.stream.Collectors;
 @Transactional
 public class PostGisSpatialRepository implements SpatialRepository {
     
+    // Width of the world in EPSG:3857 meters, and clustering grid cells per tile side
+    private static final double WEB_MERCATOR_WIDTH = 40075016.685578488;
+    private static final int TILE_CLUSTER_CELLS = 64;
+    
     private final JdbcTemplate jdbcTemplate;
     
     @Autowired
@@ -47,6 +51,8 @@ public class PostGisSpatialRepository implements SpatialRepository {
         
         // Create spatial indexes
         jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_spatial_telemetry_location ON spatial_telemetry USING GIST(location)");
+        // Radius queries take meters and filter on geography, through this index
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_spatial_telemetry_geography ON spatial_telemetry USING GIST((location::geography))");
         jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_spatial_telemetry_timestamp ON spatial_telemetry(timestamp)");
         jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_spatial_telemetry_device ON spatial_telemetry(device_id)");
         jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_spatial_telemetry_org ON spatial_telemetry(organization_id)");
@@ -153,8 +159,8 @@ public class PostGisSpatialRepository implements SpatialRepository {
                    ST_X(location) as longitude, ST_Y(location) as latitude,
                    timestamp, metrics
             FROM spatial_telemetry
-            WHERE ST_DWithin(location, ST_GeomFromText(?, 4326), ?)
-            ORDER BY ST_Distance(location, ST_GeomFromText(?, 4326))
+            WHERE ST_DWithin(location::geography, ST_GeomFromText(?, 4326)::geography, ?)
+            ORDER BY location <-> ST_GeomFromText(?, 4326)
             """;
         
         double radiusMeters = radiusKm * 1000;
@@ -241,7 +247,7 @@ public class PostGisSpatialRepository implements SpatialRepository {
                    ST_X(location) as longitude, ST_Y(location) as latitude,
                    timestamp, metrics
             FROM spatial_telemetry
-            ORDER BY ST_Distance(location, ST_GeomFromText(?, 4326))
+            ORDER BY location <-> ST_GeomFromText(?, 4326)
             LIMIT ?
             """;
         
@@ -293,9 +299,9 @@ public class PostGisSpatialRepository implements SpatialRepository {
                    ST_X(location) as longitude, ST_Y(location) as latitude,
                    timestamp, metrics
             FROM spatial_telemetry
-            WHERE ST_DWithin(location, ST_GeomFromText(?, 4326), ?)
+            WHERE ST_DWithin(location::geography, ST_GeomFromText(?, 4326)::geography, ?)
               AND timestamp >= ? AND timestamp <= ?
-            ORDER BY ST_Distance(location, ST_GeomFromText(?, 4326))
+            ORDER BY location <-> ST_GeomFromText(?, 4326)
             """;
         
         double radiusMeters = radiusKm * 1000;
@@ -317,6 +323,61 @@ public class PostGisSpatialRepository implements SpatialRepository {
         return queryByBoundingBoxWithTime(regionBounds, start, end);
     }
     
+    @Override
+    public List<TelemetryData> queryByBoundingBoxWithTime(String organizationId, BoundingBox boundingBox,
+                                                          Instant start, Instant end) {
+        String sql = """
+            SELECT telemetry_id, device_id, organization_id,
+                   ST_X(location) as longitude, ST_Y(location) as latitude,
+                   timestamp, metrics
+            FROM spatial_telemetry
+            WHERE organization_id = ?
+              AND ST_Within(location, ST_MakeEnvelope(?, ?, ?, ?, 4326))
+              AND timestamp >= ? AND timestamp <= ?
+            ORDER BY timestamp DESC
+            """;
+        
+        return jdbcTemplate.query(sql, new TelemetryDataRowMapper(), organizationId,
+            boundingBox.minLongitude(), boundingBox.minLatitude(),
+            boundingBox.maxLongitude(), boundingBox.maxLatitude(),
+            start, end);
+    }
+    
+    @Override
+    public List<TelemetryData> queryByRadiusWithTime(String organizationId, GeoLocation center, double radiusKm,
+                                                     Instant start, Instant end) {
+        String sql = """
+            SELECT telemetry_id, device_id, organization_id,
+                   ST_X(location) as longitude, ST_Y(location) as latitude,
+                   timestamp, metrics
+            FROM spatial_telemetry
+            WHERE organization_id = ?
+              AND ST_DWithin(location::geography, ST_GeomFromText(?, 4326)::geography, ?)
+              AND timestamp >= ? AND timestamp <= ?
+            ORDER BY location <-> ST_GeomFromText(?, 4326)
+            """;
+        
+        String centerWKT = center.toWKT();
+        
+        return jdbcTemplate.query(sql, new TelemetryDataRowMapper(), organizationId,
+            centerWKT, radiusKm * 1000, start, end, centerWKT);
+    }
+    
+    @Override
+    public List<TelemetryData> queryNearestNeighbors(String organizationId, GeoLocation point, int count) {
+        String sql = """
+            SELECT telemetry_id, device_id, organization_id,
+                   ST_X(location) as longitude, ST_Y(location) as latitude,
+                   timestamp, metrics
+            FROM spatial_telemetry
+            WHERE organization_id = ?
+            ORDER BY location <-> ST_GeomFromText(?, 4326)
+            LIMIT ?
+            """;
+        
+        return jdbcTemplate.query(sql, new TelemetryDataRowMapper(), organizationId, point.toWKT(), count);
+    }
+    
     @Override
     public List<SpatialCluster> findClusters(String organizationId, double clusterRadiusKm, int minPoints) {
         String sql = """
@@ -759,7 +820,68 @@ public class PostGisSpatialRepository implements SpatialRepository {
             area.minLongitude(), area.minLatitude(),
             area.maxLongitude(), area.maxLatitude());
     }
-    
+
+    @Override
+    public byte[] renderTelemetryTile(String organizationId, int zoom, int x, int y,
+                                      Instant start, Instant end, boolean clustered) {
+        // Points are read through the GiST index with the tile envelope, then clipped and
+        // quantized to the 4096 tile extent by ST_AsMVTGeom
+        String sql = clustered ? """
+            WITH bounds AS (
+                SELECT ST_TileEnvelope(?, ?, ?) AS geom
+            ),
+            points AS (
+                SELECT t.device_id, t.timestamp, ST_Transform(t.location, 3857) AS geom
+                FROM spatial_telemetry t, bounds b
+                WHERE t.location && ST_Transform(b.geom, 4326)
+                  AND t.organization_id = ?
+                  AND t.timestamp >= ? AND t.timestamp < ?
+            ),
+            clusters AS (
+                SELECT ST_Centroid(ST_Collect(geom)) AS geom,
+                       COUNT(*) AS point_count,
+                       COUNT(DISTINCT device_id) AS device_count,
+                       MAX(timestamp) AS latest
+                FROM points
+                GROUP BY ST_SnapToGrid(geom, ?)
+            )
+            SELECT ST_AsMVT(tile, 'telemetry', 4096, 'geom')
+            FROM (
+                SELECT ST_AsMVTGeom(c.geom, b.geom, 4096, 64, true) AS geom,
+                       c.point_count, c.device_count,
+                       EXTRACT(EPOCH FROM c.latest)::bigint AS latest
+                FROM clusters c, bounds b
+            ) tile
+            WHERE tile.geom IS NOT NULL
+            """ : """
+            WITH bounds AS (
+                SELECT ST_TileEnvelope(?, ?, ?) AS geom
+            )
+            SELECT ST_AsMVT(tile, 'telemetry', 4096, 'geom')
+            FROM (
+                SELECT ST_AsMVTGeom(ST_Transform(t.location, 3857), b.geom, 4096, 64, true) AS geom,
+                       t.telemetry_id, t.device_id,
+                       EXTRACT(EPOCH FROM t.timestamp)::bigint AS latest,
+                       t.metrics
+                FROM spatial_telemetry t, bounds b
+                WHERE t.location && ST_Transform(b.geom, 4326)
+                  AND t.organization_id = ?
+                  AND t.timestamp >= ? AND t.timestamp < ?
+            ) tile
+            WHERE tile.geom IS NOT NULL
+            """;
+
+        List<Object> params = new ArrayList<>(List.of(zoom, x, y, organizationId,
+            java.sql.Timestamp.from(start), java.sql.Timestamp.from(end)));
+        if (clustered) {
+            // Points within one grid cell of the tile are merged into a single feature
+            params.add(WEB_MERCATOR_WIDTH / (1L << zoom) / TILE_CLUSTER_CELLS);
+        }
+
+        byte[] tile = jdbcTemplate.queryForObject(sql, byte[].class, params.toArray());
+        return tile != null ? tile : new byte[0];
+    }
+
     // Helper methods
     private String convertMetricsToJson(Map<String, MetricValue> metrics) {
         StringBuilder json = new StringBuilder("{");
@@ -51,6 +51,9 @@ public class InfluxDbConfig {
     @Value("${influxdb.connection.write-timeout:10000}")
     private int writeTimeout;
     
+    @Value("${influxdb.gzip:true}")
+    private boolean gzip;
+    
     @Value("${influxdb.batch.size:1000}")
     private int batchSize;
     
@@ -88,6 +91,11 @@ public class InfluxDbConfig {
             InfluxDBClientOptions options = optionsBuilder.build();
             InfluxDBClient client = InfluxDBClientFactory.create(options);
             
+            // Line protocol compresses well, which matters for large write batches
+            if (gzip) {
+                client.enableGzip();
+            }
+            
             // Test connection
             testConnection(client);
             
@@ -0,0 +1,185 @@
+package com.example.workflow.infrastructure.influxdb;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.stream.Stream;
+
+/**
+ * Disk-backed queue of line protocol that could not be written to InfluxDB in time
+ * Lines are appended to segment files of bounded size; full segments are handed out oldest first
+ * for replay and deleted once written. Segments left over from a previous run are replayed too.
+ * Appends are buffered in memory and written out when the buffer or the segment fills up, or on
+ * {@link #flush()}, so spilling point by point does not cost a file write per point.
+ */
+final class DiskOverflowQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiskOverflowQueue.class);
+
+    private static final String SUFFIX = ".lp";
+    private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+
+    private final Path directory;
+    private final long maxBytes;
+    private final long segmentBytes;
+
+    private final Deque<Path> segments = new ArrayDeque<>();
+    private final StringBuilder buffered = new StringBuilder();
+    private int bufferedBytes;
+    private long sequence;
+    private long totalBytes;
+    private Path activeSegment;
+    private long activeBytes;
+
+    DiskOverflowQueue(Path directory, long maxBytes, long segmentBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.segmentBytes = segmentBytes;
+
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .forEach(this::recover);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open overflow directory " + directory, e);
+        }
+
+        if (!segments.isEmpty()) {
+            logger.info("Found {} overflow segments ({} bytes) to replay in {}", segments.size(), totalBytes, directory);
+        }
+    }
+
+    /**
+     * Append complete lines of line protocol
+     * @return false if the queue is full and the lines were not stored
+     */
+    synchronized boolean append(CharSequence lines) {
+        String text = lines.toString();
+        int length = text.getBytes(StandardCharsets.UTF_8).length;
+        if (length == 0) {
+            return true;
+        }
+        if (totalBytes + length > maxBytes) {
+            return false;
+        }
+
+        buffered.append(text);
+        bufferedBytes += length;
+        totalBytes += length;
+        activeBytes += length;
+        if (activeBytes >= segmentBytes) {
+            closeActiveSegment();
+        } else if (bufferedBytes >= WRITE_BUFFER_BYTES) {
+            writeBuffered();
+        }
+        return true;
+    }
+
+    /**
+     * Write buffered lines to the active segment
+     */
+    synchronized void flush() {
+        writeBuffered();
+    }
+
+    /**
+     * Oldest segment to replay, or null if the queue is empty
+     * The segment stays queued until {@link #remove} is called for it
+     */
+    synchronized Segment peek() {
+        if (segments.isEmpty()) {
+            closeActiveSegment();
+        }
+        Path file = segments.peekFirst();
+        if (file == null) {
+            return null;
+        }
+        try {
+            String lines = Files.readString(file, StandardCharsets.UTF_8);
+            // A crash while appending can leave a partial last line behind
+            return new Segment(file, lines.substring(0, lines.lastIndexOf('\n') + 1));
+        } catch (IOException e) {
+            logger.error("Dropping unreadable overflow segment {}", file, e);
+            remove(new Segment(file, ""));
+            return null;
+        }
+    }
+
+    /**
+     * Delete a segment after it was written to InfluxDB
+     */
+    synchronized void remove(Segment segment) {
+        if (!segment.file().equals(segments.peekFirst())) {
+            return;
+        }
+        segments.pollFirst();
+        try {
+            totalBytes -= Files.size(segment.file());
+            Files.delete(segment.file());
+        } catch (IOException e) {
+            logger.warn("Failed to delete overflow segment {}", segment.file(), e);
+        }
+    }
+
+    synchronized long sizeInBytes() {
+        return totalBytes;
+    }
+
+    synchronized boolean isEmpty() {
+        return totalBytes == 0;
+    }
+
+    private void writeBuffered() {
+        if (bufferedBytes == 0) {
+            return;
+        }
+        if (activeSegment == null) {
+            activeSegment = directory.resolve(String.format("%020d%s", sequence++, SUFFIX));
+        }
+        try {
+            Files.writeString(activeSegment, buffered, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.error("Failed to write overflow segment {}, dropping {} bytes", activeSegment, bufferedBytes, e);
+            totalBytes -= bufferedBytes;
+            activeBytes -= bufferedBytes;
+        }
+        buffered.setLength(0);
+        bufferedBytes = 0;
+    }
+
+    private void closeActiveSegment() {
+        writeBuffered();
+        if (activeSegment != null) {
+            segments.addLast(activeSegment);
+            activeSegment = null;
+            activeBytes = 0;
+        }
+    }
+
+    private void recover(Path file) {
+        try {
+            long size = Files.size(file);
+            String name = file.getFileName().toString();
+            sequence = Math.max(sequence, Long.parseLong(name.substring(0, name.length() - SUFFIX.length())) + 1);
+            segments.addLast(file);
+            totalBytes += size;
+        } catch (IOException | NumberFormatException e) {
+            logger.warn("Ignoring unexpected file {} in overflow directory", file);
+        }
+    }
+
+    record Segment(Path file, String lines) {
+    }
+}
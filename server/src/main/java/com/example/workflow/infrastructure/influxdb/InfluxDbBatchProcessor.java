@@ -2,145 +2,198 @@ package com.example.workflow.infrastructure.influxdb;
 
 import com.example.workflow.domain.TelemetryData;
 import com.influxdb.client.InfluxDBClient;
-import com.influxdb.client.WriteApi;
+import com.influxdb.client.WriteApiBlocking;
 import com.influxdb.client.domain.WritePrecision;
-import com.influxdb.client.write.Point;
-import com.influxdb.client.write.events.WriteErrorEvent;
-import com.influxdb.client.write.events.WriteSuccessEvent;
+import com.influxdb.exceptions.InfluxException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
-import java.time.Instant;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * High-performance batch processor for InfluxDB telemetry data ingestion
  * Handles 10Hz telemetry data with optimized batch writing and backpressure management
+ *
+ * A fixed number of writer threads drain the bounded queue, encode each batch as line protocol
+ * into a buffer the thread reuses, and send it as a single (gzip-compressed) request. The number
+ * of writers bounds the batches in flight. Failed writes are retried with exponential backoff and
+ * jitter; batches that still fail, and data arriving while the queue is full, go to a disk-backed
+ * overflow queue that is replayed whenever the writers are idle. Batches InfluxDB rejects as invalid
+ * are dropped and counted separately from the points written.
  */
 @Component
 public class InfluxDbBatchProcessor {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(InfluxDbBatchProcessor.class);
-    
+
     private final InfluxDBClient influxDBClient;
-    private WriteApi writeApi;
-    
+    private LineProtocolWriter writer;
+
     @Value("${influxdb.bucket:telemetry}")
-    private String bucket;
-    
+    private String bucket = "telemetry";
+
     @Value("${influxdb.organization:workflow-org}")
-    private String organization;
-    
+    private String organization = "workflow-org";
+
     @Value("${influxdb.batch.size:1000}")
-    private int batchSize;
-    
-    @Value("${influxdb.batch.flush-interval:1000}")
-    private int flushIntervalMs;
-    
+    private int batchSize = 1000;
+
+    @Value("${influxdb.batch.linger:20}")
+    private int lingerMs = 20;
+
     @Value("${influxdb.batch.queue-capacity:10000}")
-    private int queueCapacity;
-    
+    private int queueCapacity = 10000;
+
+    @Value("${influxdb.batch.max-in-flight:4}")
+    private int maxInFlight = 4;
+
     @Value("${influxdb.batch.max-retries:3}")
-    private int maxRetries;
-    
+    private int maxRetries = 3;
+
+    @Value("${influxdb.batch.retry-interval:500}")
+    private long retryIntervalMs = 500;
+
+    @Value("${influxdb.batch.max-retry-delay:30000}")
+    private long maxRetryDelayMs = 30000;
+
+    @Value("${influxdb.batch.overflow.directory:${java.io.tmpdir}/influxdb-overflow}")
+    private String overflowDirectory = System.getProperty("java.io.tmpdir") + "/influxdb-overflow";
+
+    @Value("${influxdb.batch.overflow.max-bytes:268435456}")
+    private long overflowMaxBytes = 268435456L;
+
+    // Replayed segments are sent as one request each
+    private static final long OVERFLOW_SEGMENT_BYTES = 1024 * 1024;
+
     // Batch processing queue
-    private final BlockingQueue<TelemetryData> dataQueue;
-    private final ReentrantLock batchLock = new ReentrantLock();
-    
+    private volatile BlockingQueue<TelemetryData> dataQueue;
+    private DiskOverflowQueue overflowQueue;
+    private final List<Thread> writerThreads = new ArrayList<>();
+    private final AtomicBoolean replaying = new AtomicBoolean();
+    private volatile boolean running;
+
     // Performance metrics
     private final AtomicLong totalProcessed = new AtomicLong(0);
     private final AtomicLong totalErrors = new AtomicLong(0);
+    private final AtomicLong totalDropped = new AtomicLong(0);
     private final AtomicLong batchesProcessed = new AtomicLong(0);
     private final AtomicLong queueSize = new AtomicLong(0);
+    private final AtomicLong totalSpilled = new AtomicLong(0);
+    private final long startTime = System.currentTimeMillis();
     private volatile long lastFlushTime = System.currentTimeMillis();
-    
-    // Batch buffer
-    private final List<TelemetryData> currentBatch = new ArrayList<>();
-    
+
     @Autowired
     public InfluxDbBatchProcessor(InfluxDBClient influxDBClient) {
         this.influxDBClient = influxDBClient;
-        this.dataQueue = new LinkedBlockingQueue<>(queueCapacity);
+        this.dataQueue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Processor that hands line protocol to the given writer instead of InfluxDB, for benchmarks
+     */
+    InfluxDbBatchProcessor(LineProtocolWriter writer) {
+        this((InfluxDBClient) null);
+        this.writer = writer;
     }
-    
+
     @PostConstruct
     public void initialize() {
-        logger.info("Initializing InfluxDB batch processor with batch size: {}, flush interval: {}ms", 
-            batchSize, flushIntervalMs);
-        
-        // Create async write API with optimized settings
-        this.writeApi = influxDBClient.makeWriteApi();
-        
-        // Configure event listeners
-        configureEventListeners();
-        
+        logger.info("Initializing InfluxDB batch processor with batch size: {}, writers: {}, queue capacity: {}",
+            batchSize, maxInFlight, queueCapacity);
+
+        // Capacity is only known once properties are injected
+        if (dataQueue.remainingCapacity() != queueCapacity) {
+            dataQueue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        if (writer == null) {
+            WriteApiBlocking writeApi = influxDBClient.getWriteApiBlocking();
+            writer = lines -> writeApi.writeRecord(bucket, organization, WritePrecision.MS, lines);
+        }
+        overflowQueue = new DiskOverflowQueue(Path.of(overflowDirectory), overflowMaxBytes, OVERFLOW_SEGMENT_BYTES);
+
+        running = true;
+        for (int i = 0; i < maxInFlight; i++) {
+            Thread thread = new Thread(this::runWriter, "influxdb-writer-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            writerThreads.add(thread);
+        }
+
         logger.info("InfluxDB batch processor initialized successfully");
     }
-    
+
     @PreDestroy
     public void shutdown() {
         logger.info("Shutting down InfluxDB batch processor...");
-        
-        // Flush remaining data
-        flushCurrentBatch();
-        
-        // Close write API
-        if (writeApi != null) {
-            writeApi.close();
+
+        // Writers drain what is queued before they stop
+        running = false;
+        for (Thread thread : writerThreads) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
         }
-        
-        logger.info("InfluxDB batch processor shutdown completed. Total processed: {}, Total errors: {}", 
-            totalProcessed.get(), totalErrors.get());
-    }
-    
-    /**
-     * Configure event listeners for write operations
-     */
-    private void configureEventListeners() {
-        writeApi.listenEvents(WriteSuccessEvent.class, event -> {
-            logger.debug("Batch write successful: {} points", event.getLineProtocol().split("\n").length);
-            batchesProcessed.incrementAndGet();
-        });
-        
-        writeApi.listenEvents(WriteErrorEvent.class, event -> {
-            logger.error("Batch write failed: {}", event.getThrowable().getMessage());
-            totalErrors.incrementAndGet();
-            
-            // Handle retry logic if needed
-            handleWriteError(event);
-        });
+
+        // Anything the writers did not get to is kept on disk for the next start
+        List<TelemetryData> remaining = new ArrayList<>();
+        dataQueue.drainTo(remaining);
+        if (!remaining.isEmpty() && overflowQueue != null) {
+            queueSize.addAndGet(-remaining.size());
+            StringBuilder buffer = new StringBuilder();
+            remaining.forEach(data -> LineProtocolEncoder.append(buffer, data));
+            spill(buffer, remaining.size());
+        }
+        if (overflowQueue != null) {
+            overflowQueue.flush();
+        }
+
+        logger.info("InfluxDB batch processor shutdown completed. Total processed: {}, Total errors: {}, Dropped: {}, Spilled to disk: {}",
+            totalProcessed.get(), totalErrors.get(), totalDropped.get(), totalSpilled.get());
     }
-    
+
     /**
      * Add telemetry data to batch processing queue
+     * If the queue is full the data goes to the disk overflow queue; false means both are full
      */
     public boolean addTelemetryData(TelemetryData data) {
         if (data == null) {
             return false;
         }
-        
-        boolean added = dataQueue.offer(data);
-        if (added) {
+
+        if (dataQueue.offer(data)) {
             queueSize.incrementAndGet();
-        } else {
-            logger.warn("Batch queue is full, dropping telemetry data for device: {}", 
-                data.getDeviceId().getValue());
+            return true;
         }
-        
-        return added;
+
+        if (overflowQueue != null) {
+            StringBuilder buffer = new StringBuilder(256);
+            LineProtocolEncoder.append(buffer, data);
+            if (spill(buffer, 1)) {
+                return true;
+            }
+        }
+
+        logger.warn("Batch queue and overflow are full, rejecting telemetry data for device: {}",
+            data.getDeviceId().value());
+        return false;
     }
-    
+
     /**
      * Add multiple telemetry data points to batch processing queue
      */
@@ -148,173 +201,178 @@ public class InfluxDbBatchProcessor {
         if (dataList == null || dataList.isEmpty()) {
             return 0;
         }
-        
+
         int added = 0;
         for (TelemetryData data : dataList) {
-            if (addTelemetryData(data)) {
-                added++;
+            if (!addTelemetryData(data)) {
+                break;
             }
+            added++;
         }
-        
+
         return added;
     }
-    
+
     /**
-     * Process queued data in batches - scheduled every 100ms for 10Hz processing
+     * Writer loop: collect a batch, encode it into the reused buffer and write it
      */
-    @Scheduled(fixedDelay = 100)
-    public void processBatch() {
-        try {
-            batchLock.lock();
-            
-            // Drain queue into current batch
-            List<TelemetryData> batch = new ArrayList<>();
-            dataQueue.drainTo(batch, batchSize);
-            
-            if (batch.isEmpty()) {
+    private void runWriter() {
+        List<TelemetryData> batch = new ArrayList<>(batchSize);
+        StringBuilder buffer = new StringBuilder(batchSize * 256);
+
+        while (running || !dataQueue.isEmpty()) {
+            try {
+                if (!collectBatch(batch)) {
+                    replayOverflow();
+                    continue;
+                }
+
+                queueSize.addAndGet(-batch.size());
+                buffer.setLength(0);
+                for (TelemetryData data : batch) {
+                    LineProtocolEncoder.append(buffer, data);
+                }
+
+                switch (writeWithRetry(buffer)) {
+                    case WRITTEN -> totalProcessed.addAndGet(batch.size());
+                    case REJECTED -> totalDropped.addAndGet(batch.size());
+                    case FAILED -> spill(buffer, batch.size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
                 return;
+            } catch (Exception e) {
+                logger.error("Error processing telemetry batch", e);
+                totalErrors.incrementAndGet();
+            } finally {
+                // Points spilled since the last batch reach disk in one write
+                overflowQueue.flush();
+                batch.clear();
+                // Do not keep a buffer grown by one huge batch forever
+                if (buffer.capacity() > batchSize * 1024) {
+                    buffer = new StringBuilder(batchSize * 256);
+                }
             }
-            
-            queueSize.addAndGet(-batch.size());
-            
-            // Process the batch
-            processTelemetryBatch(batch);
-            
-            totalProcessed.addAndGet(batch.size());
-            
-        } catch (Exception e) {
-            logger.error("Error processing telemetry batch", e);
-            totalErrors.incrementAndGet();
-        } finally {
-            batchLock.unlock();
         }
     }
-    
+
     /**
-     * Force flush current batch - scheduled every flush interval
+     * Wait for the first item, then linger briefly to fill the batch
+     * @return false if nothing arrived
      */
-    @Scheduled(fixedDelayString = "${influxdb.batch.flush-interval:1000}")
-    public void flushCurrentBatch() {
-        try {
-            batchLock.lock();
-            
-            if (currentBatch.isEmpty()) {
-                return;
+    private boolean collectBatch(List<TelemetryData> batch) throws InterruptedException {
+        TelemetryData first = dataQueue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return false;
+        }
+        batch.add(first);
+        dataQueue.drainTo(batch, batchSize - batch.size());
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        while (batch.size() < batchSize && running) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
             }
-            
-            logger.debug("Force flushing batch with {} items", currentBatch.size());
-            
-            List<TelemetryData> batchToFlush = new ArrayList<>(currentBatch);
-            currentBatch.clear();
-            
-            processTelemetryBatch(batchToFlush);
-            totalProcessed.addAndGet(batchToFlush.size());
-            
-            lastFlushTime = System.currentTimeMillis();
-            
-        } catch (Exception e) {
-            logger.error("Error flushing current batch", e);
-            totalErrors.incrementAndGet();
-        } finally {
-            batchLock.unlock();
+            TelemetryData next = dataQueue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+            dataQueue.drainTo(batch, batchSize - batch.size());
         }
+        return true;
     }
-    
+
     /**
-     * Process a batch of telemetry data
+     * Write with exponential backoff and equal jitter between attempts
+     * @return FAILED if the batch should be kept for later
      */
-    private void processTelemetryBatch(List<TelemetryData> batch) {
-        if (batch.isEmpty()) {
-            return;
+    private WriteOutcome writeWithRetry(CharSequence lines) throws InterruptedException {
+        if (lines.length() == 0) {
+            return WriteOutcome.WRITTEN;
         }
-        
-        try {
-            List<Point> points = new ArrayList<>();
-            List<Point> spatialPoints = new ArrayList<>();
-            
-            for (TelemetryData data : batch) {
-                // Create time-series point
-                Point timeSeriesPoint = createTimeSeriesPoint(data);
-                points.add(timeSeriesPoint);
-                
-                // Create spatial point if location data exists
-                if (data.hasSpatialData()) {
-                    Point spatialPoint = createSpatialPoint(data);
-                    spatialPoints.add(spatialPoint);
+        String payload = lines.toString();
+        for (int attempt = 0; ; attempt++) {
+            try {
+                writer.write(payload);
+                batchesProcessed.incrementAndGet();
+                lastFlushTime = System.currentTimeMillis();
+                return WriteOutcome.WRITTEN;
+            } catch (Exception e) {
+                totalErrors.incrementAndGet();
+                if (!isRetryable(e)) {
+                    logger.error("InfluxDB rejected batch, dropping it: {}", e.getMessage());
+                    return WriteOutcome.REJECTED;
                 }
+                if (attempt >= maxRetries || !running) {
+                    logger.warn("Batch write failed after {} attempts: {}", attempt + 1, e.getMessage());
+                    return WriteOutcome.FAILED;
+                }
+
+                long delay = Math.min(maxRetryDelayMs, retryIntervalMs << Math.min(attempt, 20));
+                long jittered = delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+                logger.debug("Batch write failed, retrying in {}ms: {}", jittered, e.getMessage());
+                Thread.sleep(jittered);
             }
-            
-            // Write time-series data
-            if (!points.isEmpty()) {
-                writeApi.writePoints(bucket, organization, points);
-                logger.debug("Wrote {} time-series points to InfluxDB", points.size());
-            }
-            
-            // Write spatial data
-            if (!spatialPoints.isEmpty()) {
-                writeApi.writePoints(bucket, organization, spatialPoints);
-                logger.debug("Wrote {} spatial points to InfluxDB", spatialPoints.size());
-            }
-            
-        } catch (Exception e) {
-            logger.error("Error writing batch to InfluxDB", e);
-            throw e;
         }
     }
-    
+
     /**
-     * Create time-series point from telemetry data
+     * Client errors other than rate limiting never succeed on retry
      */
-    private Point createTimeSeriesPoint(TelemetryData data) {
-        Point point = Point.measurement("telemetry")
-            .time(data.getTimestamp(), WritePrecision.MS)
-            .addTag("device_id", data.getDeviceId().getValue())
-            .addTag("organization_id", data.getOrganizationId());
-        
-        // Add metrics as fields
-        data.getMetrics().forEach((key, value) -> {
-            if (value.isNumeric()) {
-                point.addField(key, value.getNumericValue());
-            } else if (value.isString()) {
-                point.addField(key, value.getStringValue());
-            } else if (value.isBoolean()) {
-                point.addField(key, value.getBooleanValue());
-            }
-        });
-        
-        return point;
+    private boolean isRetryable(Exception e) {
+        if (e instanceof InfluxException influxException) {
+            int status = influxException.status();
+            return status == 0 || status == 429 || status >= 500;
+        }
+        return true;
     }
-    
+
     /**
-     * Create spatial point from telemetry data
+     * Replay one overflow segment; only one writer replays at a time
      */
-    private Point createSpatialPoint(TelemetryData data) {
-        Point point = Point.measurement("spatial_telemetry")
-            .time(data.getTimestamp(), WritePrecision.MS)
-            .addTag("device_id", data.getDeviceId().getValue())
-            .addTag("organization_id", data.getOrganizationId())
-            .addField("latitude", data.getLocation().latitude())
-            .addField("longitude", data.getLocation().longitude());
-        
-        // Add numeric metrics as fields
-        data.getMetrics().forEach((key, value) -> {
-            if (value.isNumeric()) {
-                point.addField(key, value.getNumericValue());
+    private void replayOverflow() {
+        if (overflowQueue.isEmpty() || !replaying.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            DiskOverflowQueue.Segment segment = overflowQueue.peek();
+            if (segment == null) {
+                return;
+            }
+            try {
+                if (!segment.lines().isEmpty()) {
+                    writer.write(segment.lines());
+                    batchesProcessed.incrementAndGet();
+                }
+                overflowQueue.remove(segment);
+                logger.info("Replayed overflow segment {}", segment.file().getFileName());
+            } catch (Exception e) {
+                if (!isRetryable(e)) {
+                    logger.error("InfluxDB rejected overflow segment {}, dropping it: {}",
+                        segment.file().getFileName(), e.getMessage());
+                    totalDropped.addAndGet(segment.lines().chars().filter(c -> c == '\n').count());
+                    overflowQueue.remove(segment);
+                } else {
+                    logger.debug("Overflow replay failed, keeping segment: {}", e.getMessage());
+                }
             }
-        });
-        
-        return point;
+        } finally {
+            replaying.set(false);
+        }
     }
-    
-    /**
-     * Handle write errors with retry logic
-     */
-    private void handleWriteError(WriteErrorEvent event) {
-        // For now, just log the error
-        // In production, you might want to implement retry logic or dead letter queue
-        logger.error("Write error details: {}", event.getThrowable().getMessage());
+
+    private boolean spill(CharSequence lines, int count) {
+        if (overflowQueue.append(lines)) {
+            totalSpilled.addAndGet(count);
+            return true;
+        }
+        logger.error("Overflow queue is full, dropping {} telemetry points", count);
+        totalErrors.incrementAndGet();
+        return false;
     }
-    
+
     /**
      * Get current batch processing statistics
      */
@@ -322,6 +380,7 @@ public class InfluxDbBatchProcessor {
         return new BatchProcessingStats(
             totalProcessed.get(),
             totalErrors.get(),
+            totalDropped.get(),
             batchesProcessed.get(),
             queueSize.get(),
             queueCapacity,
@@ -329,41 +388,60 @@ public class InfluxDbBatchProcessor {
             calculateThroughput()
         );
     }
-    
+
+    /**
+     * Bytes of line protocol waiting in the disk overflow queue
+     */
+    public long getOverflowBytes() {
+        return overflowQueue != null ? overflowQueue.sizeInBytes() : 0;
+    }
+
     /**
-     * Calculate current throughput (points per second)
+     * Calculate average throughput (points per second) since start
      */
     private double calculateThroughput() {
-        long processed = totalProcessed.get();
-        if (processed == 0) {
-            return 0.0;
-        }
-        
-        // Simple throughput calculation over last minute
-        return processed / 60.0; // Approximate
+        long elapsed = System.currentTimeMillis() - startTime;
+        return elapsed > 0 ? totalProcessed.get() * 1000.0 / elapsed : 0.0;
     }
-    
+
     /**
      * Check if batch processor is healthy
      */
     public boolean isHealthy() {
-        // Consider healthy if queue is not full and error rate is low
-        double errorRate = totalProcessed.get() > 0 ? 
+        // Consider healthy if queue is not full, nothing piles up on disk and error rate is low
+        double errorRate = totalProcessed.get() > 0 ?
             (double) totalErrors.get() / totalProcessed.get() : 0.0;
-        
-        return queueSize.get() < queueCapacity * 0.9 && errorRate < 0.05;
+
+        return queueSize.get() < queueCapacity * 0.9
+            && getOverflowBytes() < overflowMaxBytes * 0.5
+            && errorRate < 0.05;
     }
-    
+
+    private enum WriteOutcome {
+        WRITTEN,
+        REJECTED,
+        FAILED
+    }
+
+    /**
+     * Destination of encoded batches
+     */
+    @FunctionalInterface
+    interface LineProtocolWriter {
+        void write(String lines);
+    }
+
     /**
      * Batch processing statistics
      */
     public record BatchProcessingStats(
         long totalProcessed,
         long totalErrors,
+        long totalDropped,
         long batchesProcessed,
         long currentQueueSize,
         int maxQueueCapacity,
         long timeSinceLastFlush,
         double throughputPerSecond
     ) {}
-}
\ No newline at end of file
+}
@@ -116,6 +116,10 @@ public class InfluxDbPerformanceMonitor implements HealthIndicator {
             .description("Current batch queue size")
             .register(meterRegistry, this, monitor -> monitor.getBatchQueueSize());
         
+        Gauge.builder("influxdb.batch.overflow.bytes")
+            .description("Line protocol waiting in the disk overflow queue")
+            .register(meterRegistry, batchProcessor, processor -> processor.getOverflowBytes());
+        
         Gauge.builder("influxdb.batch.throughput")
             .description("Batch processing throughput (points/sec)")
             .register(meterRegistry, this, monitor -> monitor.getBatchThroughput());
@@ -159,6 +163,16 @@ public class InfluxDbPerformanceMonitor implements HealthIndicator {
         }
     }
     
+    /**
+     * Record which storage tier answered a query and how much time range it covered
+     */
+    public void recordTierQuery(RollupTier tier, Duration range) {
+        if (!monitoringEnabled) return;
+        
+        meterRegistry.counter("influxdb.query.tier", "tier", tier.label()).increment();
+        meterRegistry.counter("influxdb.query.tier.range.seconds", "tier", tier.label()).increment(range.getSeconds());
+    }
+    
     /**
      * Record connection error
      */
@@ -15,6 +15,7 @@ import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 
 /**
@@ -28,6 +29,7 @@ public class InfluxDbSchemaManager {
     private final InfluxDBClient influxDBClient;
     private final BucketsApi bucketsApi;
     private final TasksApi tasksApi;
+    private final RollupQueryPlanner rollupPlanner;
     
     @Value("${influxdb.bucket:telemetry}")
     private String primaryBucket;
@@ -38,14 +40,34 @@ public class InfluxDbSchemaManager {
     @Value("${influxdb.retention.raw-data-days:30}")
     private int rawDataRetentionDays;
     
-    @Value("${influxdb.retention.aggregated-data-days:365}")
-    private int aggregatedDataRetentionDays;
+    @Value("${influxdb.retention.minute-rollup-days:90}")
+    private int minuteRollupRetentionDays;
+    
+    @Value("${influxdb.retention.hour-rollup-days:${influxdb.retention.aggregated-data-days:365}}")
+    private int hourRollupRetentionDays;
+    
+    @Value("${influxdb.retention.day-rollup-days:1825}")
+    private int dayRollupRetentionDays;
+    
+    @Value("${influxdb.rollup.enabled:true}")
+    private boolean rollupsEnabled;
+    
+    @Value("${influxdb.rollup.lag-seconds:60}")
+    private long rollupLagSeconds;
+    
+    // Tasks replaced by the rollup tiers
+    private static final List<String> LEGACY_TASKS = List.of("telemetry_hourly_downsample", "telemetry_daily_downsample");
     
-    @Autowired
     public InfluxDbSchemaManager(InfluxDBClient influxDBClient) {
+        this(influxDBClient, null);
+    }
+    
+    @Autowired
+    public InfluxDbSchemaManager(InfluxDBClient influxDBClient, RollupQueryPlanner rollupPlanner) {
         this.influxDBClient = influxDBClient;
         this.bucketsApi = influxDBClient.getBucketsApi();
         this.tasksApi = influxDBClient.getTasksApi();
+        this.rollupPlanner = rollupPlanner;
     }
     
     @PostConstruct
@@ -58,11 +80,10 @@ public class InfluxDbSchemaManager {
             // Create primary telemetry bucket with retention policy
             createTelemetryBucket(organization);
             
-            // Create aggregated data bucket
-            createAggregatedBucket(organization);
-            
-            // Create downsampling tasks
-            createDownsamplingTasks(organization);
+            // Create rollup buckets and the tasks maintaining them
+            if (rollupsEnabled) {
+                createRollupTiers(organization);
+            }
             
             logger.info("InfluxDB schema initialization completed successfully");
             
@@ -122,32 +143,32 @@ public class InfluxDbSchemaManager {
     }
     
     /**
-     * Create aggregated data bucket for downsampled data
+     * Create rollup bucket for a tier with its own retention policy
      */
-    private void createAggregatedBucket(Organization organization) {
-        String bucketName = primaryBucket + "_aggregated";
+    private void createRollupBucket(Organization organization, RollupTier tier, int retentionDays) {
+        String bucketName = tier.bucket(primaryBucket);
         
         Bucket existingBucket = bucketsApi.findBucketByName(bucketName);
         if (existingBucket != null) {
-            logger.info("Aggregated bucket '{}' already exists", bucketName);
-            updateBucketRetention(existingBucket, Duration.ofDays(aggregatedDataRetentionDays));
+            logger.info("Rollup bucket '{}' already exists", bucketName);
+            updateBucketRetention(existingBucket, Duration.ofDays(retentionDays));
             return;
         }
         
-        logger.info("Creating aggregated bucket '{}' with {} days retention", bucketName, aggregatedDataRetentionDays);
+        logger.info("Creating rollup bucket '{}' with {} days retention", bucketName, retentionDays);
         
         BucketRetentionRules retentionRule = new BucketRetentionRules()
             .type(BucketRetentionRules.TypeEnum.EXPIRE)
-            .everySeconds((long) aggregatedDataRetentionDays * 24 * 60 * 60);
+            .everySeconds((long) retentionDays * 24 * 60 * 60);
         
         Bucket bucket = new Bucket()
             .name(bucketName)
             .orgID(organization.getId())
             .retentionRules(List.of(retentionRule))
-            .description("Aggregated telemetry data with " + aggregatedDataRetentionDays + " days retention");
+            .description(tier.label() + " telemetry rollups with " + retentionDays + " days retention");
         
         bucketsApi.createBucket(bucket);
-        logger.info("Created aggregated bucket: {}", bucketName);
+        logger.info("Created rollup bucket: {}", bucketName);
     }
     
     /**
@@ -171,95 +192,88 @@ public class InfluxDbSchemaManager {
     }
     
     /**
-     * Create downsampling tasks for data aggregation
-     */
-    private void createDownsamplingTasks(Organization organization) {
-        createHourlyDownsamplingTask(organization);
-        createDailyDownsamplingTask(organization);
-    }
-    
-    /**
-     * Create hourly downsampling task
+     * Create the rollup tiers: 1m from raw points, 1h from 1m and 1d from 1h rollups
      */
-    private void createHourlyDownsamplingTask(Organization organization) {
-        String taskName = "telemetry_hourly_downsample";
-        
-        // Check if task already exists
+    private void createRollupTiers(Organization organization) {
         List<Task> existingTasks = tasksApi.findTasks();
-        boolean taskExists = existingTasks.stream()
-            .anyMatch(task -> taskName.equals(task.getName()));
         
-        if (taskExists) {
-            logger.info("Hourly downsampling task already exists");
-            return;
+        for (RollupTier tier : RollupTier.values()) {
+            if (tier.isRollup()) {
+                createRollupBucket(organization, tier, getRollupRetentionDays(tier));
+                createRollupTask(organization, tier, existingTasks);
+            }
         }
         
-        String fluxScript = String.format("""
-            option task = {name: "%s", every: 1h}
-            
-            from(bucket: "%s")
-              |> range(start: -2h, stop: -1h)
-              |> filter(fn: (r) => r._measurement == "telemetry")
-              |> aggregateWindow(every: 1h, fn: mean, createEmpty: false)
-              |> set(key: "_measurement", value: "telemetry_hourly")
-              |> to(bucket: "%s_aggregated", org: "%s")
-            """, taskName, primaryBucket, primaryBucket, organizationName);
+        existingTasks.stream()
+            .filter(task -> LEGACY_TASKS.contains(task.getName()))
+            .forEach(task -> {
+                try {
+                    tasksApi.deleteTask(task);
+                    logger.info("Deleted downsampling task '{}' replaced by rollups", task.getName());
+                } catch (Exception e) {
+                    logger.warn("Failed to delete downsampling task '{}': {}", task.getName(), e.getMessage());
+                }
+            });
+    }
+    
+    /**
+     * Create or update the task maintaining a rollup tier
+     */
+    private void createRollupTask(Organization organization, RollupTier tier, List<Task> existingTasks) {
+        String taskName = "telemetry_rollup_" + tier.label();
+        String fluxScript = RollupFlux.task(taskName, tier, primaryBucket, organizationName,
+            Duration.ofSeconds(rollupLagSeconds));
         
         try {
+            Task existingTask = existingTasks.stream()
+                .filter(task -> taskName.equals(task.getName()))
+                .findFirst()
+                .orElse(null);
+            
+            if (existingTask != null) {
+                if (!fluxScript.equals(existingTask.getFlux())) {
+                    tasksApi.updateTask(existingTask.flux(fluxScript));
+                    logger.info("Updated rollup task '{}'", taskName);
+                }
+                recordTaskStart(tier, existingTask);
+                return;
+            }
+            
             Task task = new Task()
                 .name(taskName)
                 .orgID(organization.getId())
                 .flux(fluxScript)
-                .description("Hourly downsampling of telemetry data")
+                .description(tier.label() + " min/max/sum/count rollup of telemetry data")
                 .status(Task.StatusEnum.ACTIVE);
             
-            tasksApi.createTask(task);
-            logger.info("Created hourly downsampling task");
+            recordTaskStart(tier, tasksApi.createTask(task));
+            logger.info("Created rollup task '{}'", taskName);
         } catch (Exception e) {
-            logger.warn("Failed to create hourly downsampling task: {}", e.getMessage());
+            logger.warn("Failed to create rollup task '{}': {}", taskName, e.getMessage());
         }
     }
     
     /**
-     * Create daily downsampling task
+     * Let the query planner read the tier from the time its task started; there are no rollups before it
      */
-    private void createDailyDownsamplingTask(Organization organization) {
-        String taskName = "telemetry_daily_downsample";
-        
-        // Check if task already exists
-        List<Task> existingTasks = tasksApi.findTasks();
-        boolean taskExists = existingTasks.stream()
-            .anyMatch(task -> taskName.equals(task.getName()));
-        
-        if (taskExists) {
-            logger.info("Daily downsampling task already exists");
+    private void recordTaskStart(RollupTier tier, Task task) {
+        if (rollupPlanner == null) {
             return;
         }
-        
-        String fluxScript = String.format("""
-            option task = {name: "%s", every: 1d}
-            
-            from(bucket: "%s_aggregated")
-              |> range(start: -2d, stop: -1d)
-              |> filter(fn: (r) => r._measurement == "telemetry_hourly")
-              |> aggregateWindow(every: 1d, fn: mean, createEmpty: false)
-              |> set(key: "_measurement", value: "telemetry_daily")
-              |> to(bucket: "%s_aggregated", org: "%s")
-            """, taskName, primaryBucket, primaryBucket, organizationName);
-        
-        try {
-            Task task = new Task()
-                .name(taskName)
-                .orgID(organization.getId())
-                .flux(fluxScript)
-                .description("Daily downsampling of hourly telemetry data")
-                .status(Task.StatusEnum.ACTIVE);
-            
-            tasksApi.createTask(task);
-            logger.info("Created daily downsampling task");
-        } catch (Exception e) {
-            logger.warn("Failed to create daily downsampling task: {}", e.getMessage());
-        }
+        Instant createdAt = task != null && task.getCreatedAt() != null
+            ? task.getCreatedAt().toInstant()
+            : Instant.now();
+        rollupPlanner.recordTaskStart(tier, createdAt);
+        logger.info("Rollup tier '{}' answers queries from {}", tier.label(), rollupPlanner.availableFrom(tier));
+    }
+    
+    private int getRollupRetentionDays(RollupTier tier) {
+        return switch (tier) {
+            case MINUTE -> minuteRollupRetentionDays;
+            case HOUR -> hourRollupRetentionDays;
+            case DAY -> dayRollupRetentionDays;
+            case RAW -> rawDataRetentionDays;
+        };
     }
     
     /**
@@ -288,6 +302,19 @@ public class InfluxDbSchemaManager {
         );
     }
     
+    /**
+     * Get rollup measurement schema information
+     */
+    public MeasurementSchema getRollupMeasurementSchema(RollupTier tier) {
+        return new MeasurementSchema(
+            RollupTier.ROLLUP_MEASUREMENT,
+            tier.label() + " rollup of numeric telemetry, one field per metric and one row per statistic",
+            List.of("device_id", "organization_id", "stat"),
+            List.of("temperature", "humidity", "motion", "air_quality"),
+            Duration.ofDays(getRollupRetentionDays(tier))
+        );
+    }
+    
     /**
      * Measurement schema information
      */
@@ -0,0 +1,149 @@
+package com.example.workflow.infrastructure.influxdb;
+
+import com.example.workflow.domain.MetricValue;
+import com.example.workflow.domain.TelemetryData;
+
+import java.util.Map;
+
+/**
+ * Encodes telemetry into InfluxDB line protocol with millisecond precision
+ * Appends straight into a caller-owned buffer, so a writer can reuse one buffer for every batch
+ * instead of building a Point and a string per data point
+ */
+final class LineProtocolEncoder {
+
+    static final String TELEMETRY_MEASUREMENT = "telemetry";
+    static final String SPATIAL_MEASUREMENT = "spatial_telemetry";
+
+    private LineProtocolEncoder() {
+    }
+
+    /**
+     * Append the time-series line and, if the data has a location, the spatial line
+     * @return number of lines appended
+     */
+    static int append(StringBuilder buffer, TelemetryData data) {
+        int lines = appendTimeSeries(buffer, data) ? 1 : 0;
+        if (data.hasSpatialData() && appendSpatial(buffer, data)) {
+            lines++;
+        }
+        return lines;
+    }
+
+    static boolean appendTimeSeries(StringBuilder buffer, TelemetryData data) {
+        int start = buffer.length();
+        appendSeries(buffer, TELEMETRY_MEASUREMENT, data);
+
+        boolean first = true;
+        for (Map.Entry<String, MetricValue> entry : data.getMetrics().entrySet()) {
+            first = appendField(buffer, entry.getKey(), entry.getValue(), true, first);
+        }
+        return finishLine(buffer, start, first, data);
+    }
+
+    static boolean appendSpatial(StringBuilder buffer, TelemetryData data) {
+        int start = buffer.length();
+        appendSeries(buffer, SPATIAL_MEASUREMENT, data);
+
+        buffer.append("latitude=").append(data.getLocation().latitude())
+            .append(",longitude=").append(data.getLocation().longitude());
+        for (Map.Entry<String, MetricValue> entry : data.getMetrics().entrySet()) {
+            if (!"latitude".equals(entry.getKey()) && !"longitude".equals(entry.getKey())) {
+                appendField(buffer, entry.getKey(), entry.getValue(), false, false);
+            }
+        }
+        return finishLine(buffer, start, false, data);
+    }
+
+    private static void appendSeries(StringBuilder buffer, String measurement, TelemetryData data) {
+        // Tags in key order, which is what InfluxDB sorts them to anyway
+        buffer.append(measurement).append(",device_id=");
+        appendEscaped(buffer, data.getDeviceId().value());
+        buffer.append(",organization_id=");
+        appendEscaped(buffer, data.getOrganizationId());
+        buffer.append(' ');
+    }
+
+    /**
+     * @return whether no field has been written yet
+     */
+    private static boolean appendField(StringBuilder buffer, String key, MetricValue value,
+                                       boolean allValueTypes, boolean first) {
+        if (value == null || key == null || key.isEmpty()) {
+            return first;
+        }
+        if (value.isNumeric()) {
+            Double number = value.getNumericValue();
+            if (number == null || number.isNaN() || number.isInfinite()) {
+                return first;
+            }
+            appendKey(buffer, key, first);
+            appendNumber(buffer, number);
+        } else if (allValueTypes && value.isString() && value.getStringValue() != null) {
+            appendKey(buffer, key, first);
+            buffer.append('"');
+            String text = value.getStringValue();
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"' || c == '\\') {
+                    buffer.append('\\');
+                }
+                buffer.append(c);
+            }
+            buffer.append('"');
+        } else if (allValueTypes && value.isBoolean() && value.getBooleanValue() != null) {
+            appendKey(buffer, key, first);
+            buffer.append(value.getBooleanValue() ? "true" : "false");
+        } else {
+            return first;
+        }
+        return false;
+    }
+
+    private static void appendKey(StringBuilder buffer, String key, boolean first) {
+        if (!first) {
+            buffer.append(',');
+        }
+        appendEscaped(buffer, key);
+        buffer.append('=');
+    }
+
+    private static void appendNumber(StringBuilder buffer, double number) {
+        long whole = (long) number;
+        if (whole == number && Math.abs(whole) < 1L << 53) {
+            // Written without "i" suffix, so still a float field, but without the trailing ".0"
+            buffer.append(whole);
+        } else {
+            buffer.append(number);
+        }
+    }
+
+    /**
+     * Line without fields is invalid, so it is removed again
+     */
+    private static boolean finishLine(StringBuilder buffer, int start, boolean noFields, TelemetryData data) {
+        if (noFields) {
+            buffer.setLength(start);
+            return false;
+        }
+        buffer.append(' ').append(data.getTimestamp().toEpochMilli()).append('\n');
+        return true;
+    }
+
+    /**
+     * Escape commas, equals signs and spaces in tag keys, tag values and field keys
+     * Line breaks cannot be escaped there and are written as escaped spaces
+     */
+    private static void appendEscaped(StringBuilder buffer, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == '\r') {
+                c = ' ';
+            }
+            if (c == ',' || c == '=' || c == ' ') {
+                buffer.append('\\');
+            }
+            buffer.append(c);
+        }
+    }
+}
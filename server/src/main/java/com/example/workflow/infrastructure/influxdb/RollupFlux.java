@@ -0,0 +1,155 @@
+package com.example.workflow.infrastructure.influxdb;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the Flux shared by the rollup tasks and the queries reading the tiers
+ * Rollups store min, max, sum, count and sum of squares per series and window, so any tier can be
+ * combined with any other: mean and standard deviation are derived from them when reading.
+ */
+public final class RollupFlux {
+
+    // String and boolean fields cannot be rolled up
+    private static final String NUMERIC_ONLY =
+        "|> filter(fn: (r) => types.isType(v: r._value, type: \"float\") or types.isType(v: r._value, type: \"int\")) " +
+        "|> toFloat()";
+
+    /**
+     * Statistic with the function reducing raw points and the one combining rollup rows
+     */
+    public enum Stat {
+        MIN("min", "min", "min"),
+        MAX("max", "max", "max"),
+        SUM("sum", "sum", "sum"),
+        COUNT("count", "count", "sum"),
+        SUMSQ("sumsq", "sum", "sum"),
+        // Only for whole-range queries, read from the count rows of rollups
+        FIRST("first", "first", "first"),
+        LAST("last", "last", "last");
+
+        /**
+         * Statistics materialized by the rollup tasks
+         */
+        public static final Set<Stat> STORED = EnumSet.range(MIN, SUMSQ);
+
+        private final String tag;
+        private final String rawFunction;
+        private final String rollupFunction;
+
+        Stat(String tag, String rawFunction, String rollupFunction) {
+            this.tag = tag;
+            this.rawFunction = rawFunction;
+            this.rollupFunction = rollupFunction;
+        }
+
+        public String tag() {
+            return tag;
+        }
+
+        public static Stat fromTag(String tag) {
+            for (Stat stat : values()) {
+                if (stat.tag.equals(tag)) {
+                    return stat;
+                }
+            }
+            return null;
+        }
+
+        private String rollupSource() {
+            return this == FIRST || this == LAST ? COUNT.tag : tag;
+        }
+    }
+
+    private RollupFlux() {
+    }
+
+    /**
+     * Task computing one window of the tier from its source tier every time the window closes
+     */
+    public static String task(String taskName, RollupTier tier, String primaryBucket, String organization, Duration lag) {
+        RollupTier source = tier.source();
+        return String.format("""
+            import "types"
+
+            option task = {name: "%s", every: %s, offset: %s}
+
+            data = from(bucket: "%s")
+              |> range(start: -task.every)
+              |> filter(fn: (r) => r._measurement == "%s")
+            %s
+            union(tables: [%s])
+              |> set(key: "_measurement", value: "%s")
+              |> to(bucket: "%s", org: "%s")
+            """,
+            taskName, duration(tier.resolution()), duration(tier.taskOffset(lag)),
+            source.bucket(primaryBucket), source.measurement(),
+            source.isRollup() ? "" : "  " + NUMERIC_ONLY + "\n",
+            statStreams(source, Stat.STORED, tier.resolution()),
+            RollupTier.ROLLUP_MEASUREMENT, tier.bucket(primaryBucket), organization);
+    }
+
+    /**
+     * Query returning one row per series, statistic and window of the tier within [start, stop)
+     * Rows carry the statistic in the "stat" column; windows are stamped with their start
+     * @param filters additional filter steps on tags or fields
+     * @param every window size, or null to reduce the whole range
+     */
+    public static String statistics(String primaryBucket, RollupTier tier, Instant start, Instant stop,
+                                     String filters, Duration every, Set<Stat> stats) {
+        String streams = statStreams(tier, stats, every);
+        return String.format("""
+            import "types"
+
+            data = from(bucket: "%s")
+              |> range(start: %s, stop: %s)
+              |> filter(fn: (r) => r._measurement == "%s")
+              %s
+            %s
+            %s
+            """,
+            tier.bucket(primaryBucket), start, stop, tier.measurement(), filters,
+            tier.isRollup() ? "" : "  " + NUMERIC_ONLY,
+            stats.size() > 1 ? "union(tables: [" + streams + "])" : streams);
+    }
+
+    private static String statStreams(RollupTier source, Set<Stat> stats, Duration every) {
+        List<String> streams = stats.stream()
+            .map(stat -> statStream(source, stat, every))
+            .collect(Collectors.toList());
+        return String.join(",\n    ", streams);
+    }
+
+    private static String statStream(RollupTier source, Stat stat, Duration every) {
+        StringBuilder flux = new StringBuilder("data");
+        String function;
+        if (source.isRollup()) {
+            flux.append(String.format(" |> filter(fn: (r) => r.stat == \"%s\")", stat.rollupSource()));
+            function = stat.rollupFunction;
+        } else {
+            if (stat == Stat.SUMSQ) {
+                flux.append(" |> map(fn: (r) => ({r with _value: r._value * r._value}))");
+            }
+            function = stat.rawFunction;
+        }
+
+        if (every != null) {
+            flux.append(String.format(" |> aggregateWindow(every: %s, fn: %s, createEmpty: false, timeSrc: \"_start\")",
+                duration(every), function));
+        } else {
+            flux.append(" |> ").append(function).append("()");
+        }
+        if (stat == Stat.COUNT && !source.isRollup()) {
+            flux.append(" |> toFloat()");
+        }
+        return flux.append(String.format(" |> set(key: \"stat\", value: \"%s\")", stat.tag)).toString();
+    }
+
+    private static String duration(Duration duration) {
+        return duration.getSeconds() + "s";
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.workflow.infrastructure.influxdb;
+
+import com.example.workflow.domain.AggregationType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Plans telemetry aggregations over the rollup tiers
+ * A time range is split into segments, each read from the coarsest tier that can answer it exactly:
+ * the tier's resolution must divide the requested interval, its retention must still hold the segment
+ * and its rollup task must already have run for it. Unaligned edges and the most recent, not yet
+ * rolled up part fall through to finer tiers and finally to raw points.
+ * A tier only holds windows that closed after its rollup task was created, so a tier is not used until
+ * the schema manager has recorded when its task started, and never for anything before that.
+ */
+@Component
+public class RollupQueryPlanner {
+
+    // Aggregations that can be derived from min, max, sum, count and sum of squares
+    private static final Set<AggregationType> ROLLUP_AGGREGATIONS = EnumSet.of(
+        AggregationType.AVERAGE, AggregationType.SUM, AggregationType.MIN,
+        AggregationType.MAX, AggregationType.COUNT, AggregationType.STDDEV);
+
+    private final boolean enabled;
+    private final Map<RollupTier, Duration> retention;
+    private final Duration lag;
+    private final Clock clock;
+    private final Map<RollupTier, Instant> taskStarts = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RollupQueryPlanner(@Value("${influxdb.rollup.enabled:true}") boolean enabled,
+                              @Value("${influxdb.retention.minute-rollup-days:90}") int minuteRollupDays,
+                              @Value("${influxdb.retention.hour-rollup-days:${influxdb.retention.aggregated-data-days:365}}") int hourRollupDays,
+                              @Value("${influxdb.retention.day-rollup-days:1825}") int dayRollupDays,
+                              @Value("${influxdb.rollup.lag-seconds:60}") long lagSeconds) {
+        this(enabled, retention(minuteRollupDays, hourRollupDays, dayRollupDays),
+            Duration.ofSeconds(lagSeconds), Clock.systemUTC());
+    }
+
+    RollupQueryPlanner(boolean enabled, Map<RollupTier, Duration> retention, Duration lag, Clock clock) {
+        this.enabled = enabled;
+        this.retention = retention;
+        this.lag = lag;
+        this.clock = clock;
+    }
+
+    /**
+     * Planner that always reads raw points, for repositories used without the schema manager
+     */
+    public static RollupQueryPlanner rawOnly() {
+        return new RollupQueryPlanner(false, Map.of(), Duration.ZERO, Clock.systemUTC());
+    }
+
+    /**
+     * Record when the rollup task of a tier was created; windows before it are read from finer tiers
+     */
+    public void recordTaskStart(RollupTier tier, Instant createdAt) {
+        taskStarts.put(tier, createdAt);
+    }
+
+    /**
+     * First instant from which a tier holds every window, or null if its task has not been recorded
+     * A tier is computed from its source tier, so it cannot start before the source does.
+     */
+    Instant availableFrom(RollupTier tier) {
+        if (!tier.isRollup()) {
+            return Instant.MIN;
+        }
+        Instant taskStart = taskStarts.get(tier);
+        Instant sourceStart = availableFrom(tier.source());
+        if (taskStart == null || sourceStart == null) {
+            return null;
+        }
+        return ceil(taskStart.isAfter(sourceStart) ? taskStart : sourceStart, tier.resolution());
+    }
+
+    /**
+     * Split [start, end) into segments per tier, in time order
+     * @param interval window size of the aggregation, or null when aggregating the whole range
+     */
+    public List<PlannedRange> plan(Instant start, Instant end, Duration interval, AggregationType aggregation) {
+        List<RollupTier> tiers = new ArrayList<>();
+        if (enabled && (aggregation == null || ROLLUP_AGGREGATIONS.contains(aggregation))) {
+            for (RollupTier tier : RollupTier.values()) {
+                if (tier.isRollup() && retention.containsKey(tier) && availableFrom(tier) != null
+                    && divides(tier.resolution(), interval)) {
+                    tiers.add(0, tier);
+                }
+            }
+        }
+        tiers.add(RollupTier.RAW);
+
+        List<PlannedRange> plan = new ArrayList<>();
+        plan(start, end, tiers, 0, clock.instant(), plan);
+        return plan;
+    }
+
+    private void plan(Instant start, Instant end, List<RollupTier> tiers, int index, Instant now, List<PlannedRange> plan) {
+        if (!start.isBefore(end)) {
+            return;
+        }
+        for (int i = index; i < tiers.size(); i++) {
+            RollupTier tier = tiers.get(i);
+            if (!tier.isRollup()) {
+                plan.add(new PlannedRange(tier, start, end));
+                return;
+            }
+
+            Duration resolution = tier.resolution();
+            Instant oldest = now.minus(retention.get(tier));
+            Instant available = availableFrom(tier);
+            if (available.isAfter(oldest)) {
+                oldest = available;
+            }
+            Instant rolledUpUntil = now.minus(tier.taskOffset(lag));
+            Instant segmentStart = ceil(start.isAfter(oldest) ? start : oldest, resolution);
+            Instant segmentEnd = floor(end.isBefore(rolledUpUntil) ? end : rolledUpUntil, resolution);
+
+            if (segmentStart.isBefore(segmentEnd)) {
+                plan(start, segmentStart, tiers, i + 1, now, plan);
+                plan.add(new PlannedRange(tier, segmentStart, segmentEnd));
+                plan(segmentEnd, end, tiers, i + 1, now, plan);
+                return;
+            }
+        }
+    }
+
+    private static boolean divides(Duration resolution, Duration interval) {
+        return interval == null
+            || (interval.compareTo(resolution) >= 0 && interval.toMillis() % resolution.toMillis() == 0);
+    }
+
+    private static Instant floor(Instant instant, Duration resolution) {
+        long millis = instant.toEpochMilli();
+        return Instant.ofEpochMilli(millis - Math.floorMod(millis, resolution.toMillis()));
+    }
+
+    private static Instant ceil(Instant instant, Duration resolution) {
+        Instant floor = floor(instant, resolution);
+        return floor.equals(instant) ? floor : floor.plus(resolution);
+    }
+
+    private static Map<RollupTier, Duration> retention(int minuteDays, int hourDays, int dayDays) {
+        Map<RollupTier, Duration> retention = new EnumMap<>(RollupTier.class);
+        retention.put(RollupTier.MINUTE, Duration.ofDays(minuteDays));
+        retention.put(RollupTier.HOUR, Duration.ofDays(hourDays));
+        retention.put(RollupTier.DAY, Duration.ofDays(dayDays));
+        return retention;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Duration getLag() {
+        return lag;
+    }
+
+    public Duration getRetention(RollupTier tier) {
+        return retention.get(tier);
+    }
+
+    /**
+     * Part of a query range answered by one tier
+     */
+    public record PlannedRange(RollupTier tier, Instant start, Instant end) {}
+}
@@ -0,0 +1,114 @@
+package com.example.workflow.infrastructure.influxdb;
+
+import com.example.workflow.domain.AggregationType;
+import com.example.workflow.infrastructure.influxdb.RollupFlux.Stat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Combines the statistics of one series and window read from one or more tiers
+ * Not thread-safe; results of a query are merged on the calling thread.
+ */
+public final class RollupStatistics {
+
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double sum;
+    private double sumOfSquares;
+    private long count;
+    private Instant first;
+    private Instant last;
+
+    /**
+     * Statistics to read for an aggregation, or null if it cannot be computed from rollups
+     */
+    public static Set<Stat> requiredStats(AggregationType aggregation) {
+        return switch (aggregation) {
+            case AVERAGE, SUM -> EnumSet.of(Stat.SUM, Stat.COUNT);
+            case MIN -> EnumSet.of(Stat.MIN, Stat.COUNT);
+            case MAX -> EnumSet.of(Stat.MAX, Stat.COUNT);
+            case COUNT -> EnumSet.of(Stat.COUNT);
+            case STDDEV -> EnumSet.of(Stat.SUM, Stat.COUNT, Stat.SUMSQ);
+            default -> null;
+        };
+    }
+
+    /**
+     * Merge one row of a statistics query
+     * @param resolution resolution of the tier the row was read from, covering the window after its time
+     */
+    public void add(Stat stat, double value, Instant time, Duration resolution) {
+        switch (stat) {
+            case MIN -> min = Math.min(min, value);
+            case MAX -> max = Math.max(max, value);
+            case SUM -> sum += value;
+            case COUNT -> count += (long) value;
+            case SUMSQ -> sumOfSquares += value;
+            case FIRST -> {
+                if (time != null && (first == null || time.isBefore(first))) {
+                    first = time;
+                }
+            }
+            case LAST -> {
+                Instant end = time != null ? time.plus(resolution) : null;
+                if (end != null && (last == null || end.isAfter(last))) {
+                    last = end;
+                }
+            }
+        }
+    }
+
+    public double value(AggregationType aggregation) {
+        return switch (aggregation) {
+            case AVERAGE -> getMean();
+            case SUM -> sum;
+            case MIN -> getMin();
+            case MAX -> getMax();
+            case COUNT -> count;
+            case STDDEV -> getStdDev();
+            default -> throw new IllegalArgumentException("Aggregation not supported by rollups: " + aggregation);
+        };
+    }
+
+    public double getMin() {
+        return count > 0 ? min : 0.0;
+    }
+
+    public double getMax() {
+        return count > 0 ? max : 0.0;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return count > 0 ? sum / count : 0.0;
+    }
+
+    /**
+     * Sample standard deviation, as computed by Flux stddev()
+     */
+    public double getStdDev() {
+        if (count < 2) {
+            return 0.0;
+        }
+        double variance = (sumOfSquares - sum * sum / count) / (count - 1);
+        return variance > 0 ? Math.sqrt(variance) : 0.0;
+    }
+
+    public Instant getFirst() {
+        return first;
+    }
+
+    public Instant getLast() {
+        return last;
+    }
+}
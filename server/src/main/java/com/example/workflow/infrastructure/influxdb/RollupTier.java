@@ -0,0 +1,63 @@
+package com.example.workflow.infrastructure.influxdb;
+
+import java.time.Duration;
+
+/**
+ * Storage tiers for telemetry: raw points and continuously maintained rollups
+ * Each rollup tier lives in its own bucket with its own retention and is computed from the next finer tier
+ */
+public enum RollupTier {
+
+    RAW("raw", Duration.ZERO),
+    MINUTE("1m", Duration.ofMinutes(1)),
+    HOUR("1h", Duration.ofHours(1)),
+    DAY("1d", Duration.ofDays(1));
+
+    /**
+     * Measurement holding rollup rows, with the statistic in the "stat" tag
+     */
+    public static final String ROLLUP_MEASUREMENT = "telemetry_rollup";
+
+    private final String label;
+    private final Duration resolution;
+
+    RollupTier(String label, Duration resolution) {
+        this.label = label;
+        this.resolution = resolution;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public Duration resolution() {
+        return resolution;
+    }
+
+    public boolean isRollup() {
+        return this != RAW;
+    }
+
+    /**
+     * Tier the rollup is computed from
+     */
+    public RollupTier source() {
+        return this == RAW ? RAW : values()[ordinal() - 1];
+    }
+
+    public String bucket(String primaryBucket) {
+        return isRollup() ? primaryBucket + "_" + label : primaryBucket;
+    }
+
+    public String measurement() {
+        return isRollup() ? ROLLUP_MEASUREMENT : LineProtocolEncoder.TELEMETRY_MEASUREMENT;
+    }
+
+    /**
+     * Delay after a window closes before its rollup task runs
+     * Coarser tiers wait longer so the finer tier they read from is complete
+     */
+    public Duration taskOffset(Duration lag) {
+        return lag.multipliedBy(ordinal());
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.workflow.infrastructure.influxdb;
+
+import com.influxdb.Cancellable;
+import com.influxdb.client.QueryApi;
+import com.influxdb.query.FluxRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streams the records of one or more Flux queries without materializing their results
+ *
+ * Each query runs through the asynchronous callback API of the InfluxDB client, which hands
+ * records to a small bounded buffer; when the consumer falls behind, the callback blocks and the
+ * HTTP response is no longer read. Queries are started one after the other, only once the previous
+ * one is exhausted, so paging a large range in chunks keeps a single chunk in flight. Closing the
+ * stream cancels the running query and skips the remaining ones.
+ *
+ * A consumer that stops reading without closing the stream would otherwise hold the callback
+ * thread forever: once the consumer has not taken a record for the idle timeout, the query is
+ * cancelled and a later read fails. The outcome is reported once, as success when the stream is
+ * exhausted or closed and as failure on a query error or idle timeout.
+ */
+public final class StreamingFluxQuery implements Iterator<FluxRecord>, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingFluxQuery.class);
+
+    private static final Object END = new Object();
+
+    private static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(1);
+
+    private final QueryApi queryApi;
+    private final String organization;
+    private final Iterator<String> queries;
+    private final int bufferSize;
+    private final long idleTimeoutNanos;
+    private final Consumer<Boolean> onFinish;
+    private final AtomicBoolean finished = new AtomicBoolean();
+
+    private volatile BlockingQueue<Object> buffer;
+    private volatile Cancellable cancellable;
+    private volatile boolean closed;
+    private volatile boolean abandoned;
+    private volatile long lastTakeNanos;
+    private FluxRecord next;
+
+    private StreamingFluxQuery(QueryApi queryApi, String organization, Iterator<String> queries, int bufferSize,
+                               Duration idleTimeout, Consumer<Boolean> onFinish) {
+        this.queryApi = queryApi;
+        this.organization = organization;
+        this.queries = queries;
+        this.bufferSize = bufferSize;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.onFinish = onFinish;
+    }
+
+    /**
+     * Lazily stream the records of the given queries in order
+     * The queries iterator is only advanced once the previous query is exhausted
+     */
+    public static Stream<FluxRecord> stream(QueryApi queryApi, String organization,
+                                            Iterator<String> queries, int bufferSize) {
+        return stream(queryApi, organization, queries, bufferSize, DEFAULT_IDLE_TIMEOUT, success -> { });
+    }
+
+    /**
+     * Lazily stream the records of the given queries in order
+     *
+     * @param idleTimeout how long the consumer may leave a full buffer unread before the query is cancelled
+     * @param onFinish receives the outcome once: true when exhausted or closed, false on failure
+     */
+    public static Stream<FluxRecord> stream(QueryApi queryApi, String organization, Iterator<String> queries,
+                                            int bufferSize, Duration idleTimeout, Consumer<Boolean> onFinish) {
+        StreamingFluxQuery iterator =
+            new StreamingFluxQuery(queryApi, organization, queries, bufferSize, idleTimeout, onFinish);
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(iterator::close);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null) {
+            if (abandoned) {
+                throw new IllegalStateException("InfluxDB query was cancelled after the stream was left unread for "
+                    + Duration.ofNanos(idleTimeoutNanos));
+            }
+            if (closed) {
+                return false;
+            }
+            if (buffer == null) {
+                if (!queries.hasNext()) {
+                    finish(true);
+                    return false;
+                }
+                start(queries.next());
+            }
+
+            Object item;
+            try {
+                item = buffer.take();
+                lastTakeNanos = System.nanoTime();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                finish(false);
+                close();
+                throw new IllegalStateException("Interrupted while streaming query results", e);
+            }
+
+            if (item == END) {
+                buffer = null;
+                cancellable = null;
+            } else if (item instanceof Throwable error) {
+                finish(false);
+                close();
+                throw new IllegalStateException("InfluxDB query failed: " + error.getMessage(), error);
+            } else {
+                next = (FluxRecord) item;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public FluxRecord next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        FluxRecord record = next;
+        next = null;
+        return record;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        finish(!abandoned);
+        Cancellable running = cancellable;
+        if (running != null && !running.isCancelled()) {
+            running.cancel();
+            logger.debug("Cancelled streaming InfluxDB query");
+        }
+        // Unblock a callback waiting for space and a consumer waiting for the next record
+        BlockingQueue<Object> current = buffer;
+        if (current != null) {
+            current.clear();
+            current.offer(END);
+        }
+    }
+
+    private void finish(boolean success) {
+        if (finished.compareAndSet(false, true)) {
+            onFinish.accept(success);
+        }
+    }
+
+    private void start(String flux) {
+        BlockingQueue<Object> queue = new ArrayBlockingQueue<>(bufferSize);
+        buffer = queue;
+        lastTakeNanos = System.nanoTime();
+        queryApi.query(flux, organization,
+            (running, record) -> {
+                cancellable = running;
+                if (!offer(queue, record)) {
+                    running.cancel();
+                }
+            },
+            error -> offer(queue, error),
+            () -> offer(queue, END));
+    }
+
+    /**
+     * Hand an item to the consumer, waiting while the buffer is full
+     * @return false if the stream was closed or abandoned in the meantime
+     */
+    private boolean offer(BlockingQueue<Object> queue, Object item) {
+        try {
+            while (!closed) {
+                if (queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+                if (System.nanoTime() - lastTakeNanos > idleTimeoutNanos) {
+                    logger.warn("Cancelling InfluxDB query whose stream was left unread for {}",
+                        Duration.ofNanos(idleTimeoutNanos));
+                    abandoned = true;
+                    finish(false);
+                    close();
+                    return false;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+}
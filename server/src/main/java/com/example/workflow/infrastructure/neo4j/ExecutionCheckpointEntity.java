@@ -0,0 +1,133 @@
+package com.example.workflow.infrastructure.neo4j;
+
+import org.springframework.data.neo4j.core.schema.*;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Neo4j entity for the latest checkpoint of a workflow execution
+ * Context and trigger data are stored as JSON since their values are not graph properties
+ */
+@Node("ExecutionCheckpoint")
+public class ExecutionCheckpointEntity {
+    
+    @Id
+    private String id;
+    
+    @Property("workflowId")
+    private String workflowId;
+    
+    @Property("workflowVersion")
+    private Instant workflowVersion;
+    
+    @Property("organizationId")
+    private String organizationId;
+    
+    @Property("status")
+    private String status;
+    
+    @Property("startedAt")
+    private Instant startedAt;
+    
+    @Property("checkpointedAt")
+    private Instant checkpointedAt;
+    
+    @Property("currentNodeId")
+    private String currentNodeId;
+    
+    @Property("errorMessage")
+    private String errorMessage;
+    
+    @Property("completedNodes")
+    private List<String> completedNodes;
+    
+    @Property("takenEdges")
+    private List<String> takenEdges;
+    
+    @Property("contextJson")
+    private String contextJson;
+    
+    @Property("triggerJson")
+    private String triggerJson;
+    
+    @Property("owner")
+    private String owner;
+    
+    @Property("leaseExpiresAt")
+    private Instant leaseExpiresAt;
+    
+    // Default constructor for Neo4j
+    public ExecutionCheckpointEntity() {}
+    
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    
+    public String getWorkflowId() { return workflowId; }
+    public void setWorkflowId(String workflowId) { this.workflowId = workflowId; }
+    
+    public Instant getWorkflowVersion() { return workflowVersion; }
+    public void setWorkflowVersion(Instant workflowVersion) { this.workflowVersion = workflowVersion; }
+    
+    public String getOrganizationId() { return organizationId; }
+    public void setOrganizationId(String organizationId) { this.organizationId = organizationId; }
+    
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    
+    public Instant getStartedAt() { return startedAt; }
+    public void setStartedAt(Instant startedAt) { this.startedAt = startedAt; }
+    
+    public Instant getCheckpointedAt() { return checkpointedAt; }
+    public void setCheckpointedAt(Instant checkpointedAt) { this.checkpointedAt = checkpointedAt; }
+    
+    public String getCurrentNodeId() { return currentNodeId; }
+    public void setCurrentNodeId(String currentNodeId) { this.currentNodeId = currentNodeId; }
+    
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+    
+    public List<String> getCompletedNodes() { return completedNodes; }
+    public void setCompletedNodes(List<String> completedNodes) { this.completedNodes = completedNodes; }
+    
+    public List<String> getTakenEdges() { return takenEdges; }
+    public void setTakenEdges(List<String> takenEdges) { this.takenEdges = takenEdges; }
+    
+    public String getContextJson() { return contextJson; }
+    public void setContextJson(String contextJson) { this.contextJson = contextJson; }
+    
+    public String getTriggerJson() { return triggerJson; }
+    public void setTriggerJson(String triggerJson) { this.triggerJson = triggerJson; }
+    
+    public String getOwner() { return owner; }
+    public void setOwner(String owner) { this.owner = owner; }
+    
+    public Instant getLeaseExpiresAt() { return leaseExpiresAt; }
+    public void setLeaseExpiresAt(Instant leaseExpiresAt) { this.leaseExpiresAt = leaseExpiresAt; }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ExecutionCheckpointEntity that = (ExecutionCheckpointEntity) o;
+        return Objects.equals(id, that.id);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+    
+    @Override
+    public String toString() {
+        return "ExecutionCheckpointEntity{" +
+                "id='" + id + '\'' +
+                ", workflowId='" + workflowId + '\'' +
+                ", status='" + status + '\'' +
+                ", owner='" + owner + '\'' +
+                ", completedNodes=" + (completedNodes != null ? completedNodes.size() : 0) +
+                ", checkpointedAt=" + checkpointedAt +
+                '}';
+    }
+}
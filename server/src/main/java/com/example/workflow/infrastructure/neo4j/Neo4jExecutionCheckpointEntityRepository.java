@@ -0,0 +1,31 @@
+package com.example.workflow.infrastructure.neo4j;
+
+import org.springframework.data.neo4j.repository.Neo4jRepository;
+import org.springframework.data.neo4j.repository.query.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Neo4j repository interface for ExecutionCheckpointEntity
+ */
+@Repository
+public interface Neo4jExecutionCheckpointEntityRepository extends Neo4jRepository<ExecutionCheckpointEntity, String> {
+    
+    List<ExecutionCheckpointEntity> findByStatus(String status);
+
+    // Writing the lock property first takes the node's write lock, so the lease is read after
+    // any concurrent claim has committed
+    @Query("MATCH (c:ExecutionCheckpoint {id: $id}) SET c._lock = true REMOVE c._lock " +
+           "WITH c WHERE c.status = 'RUNNING' " +
+           "AND (c.owner = $owner OR c.leaseExpiresAt IS NULL OR c.leaseExpiresAt < $now) " +
+           "SET c.owner = $owner, c.leaseExpiresAt = $leaseExpiresAt RETURN count(c)")
+    long claim(String id, String owner, Instant now, Instant leaseExpiresAt);
+
+    @Query("MATCH (c:ExecutionCheckpoint) WHERE c.id IN $ids " +
+           "SET c.leaseExpiresAt = CASE WHEN c.owner = $owner THEN $leaseExpiresAt ELSE c.leaseExpiresAt END " +
+           "WITH c WHERE c.owner <> $owner RETURN c.id")
+    List<String> renew(Collection<String> ids, String owner, Instant leaseExpiresAt);
+}
@@ -0,0 +1,45 @@
+package com.example.workflow.web;
+
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.server.resource.authentication.AbstractOAuth2TokenAuthenticationToken;
+
+import java.util.Map;
+
+/**
+ * Organization of the authenticated caller
+ * Taken from the organizationId claim of the caller's JWT, or of the principal or details of other
+ * authentications. Endpoints serving organization data use it instead of an organization chosen by the client.
+ */
+public final class CallerOrganization {
+
+    private static final String ORGANIZATION_CLAIM = "organizationId";
+
+    private CallerOrganization() {
+    }
+
+    /**
+     * Organization of the caller; callers without one are denied rather than served another organization's data
+     */
+    public static String of(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new AccessDeniedException("Authentication required");
+        }
+        String organizationId = authentication instanceof AbstractOAuth2TokenAuthenticationToken<?> token
+            ? claim(token.getTokenAttributes()) : claim(authentication.getPrincipal());
+        if (organizationId == null) {
+            organizationId = claim(authentication.getDetails());
+        }
+        if (organizationId == null || organizationId.isBlank()) {
+            throw new AccessDeniedException("Authenticated principal has no organization");
+        }
+        return organizationId;
+    }
+
+    private static String claim(Object attributes) {
+        if (attributes instanceof Map<?, ?> map && map.get(ORGANIZATION_CLAIM) != null) {
+            return map.get(ORGANIZATION_CLAIM).toString();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.workflow.web;
+
+import com.example.workflow.application.TelemetryTileApplicationService;
+import com.example.workflow.application.TelemetryTileApplicationService.TelemetryTile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapbox vector tiles of spatial telemetry
+ * Tiles always show the caller's own organization, see {@link CallerOrganization}. Tiles of past
+ * time buckets may be cached by clients; tiles of the current bucket are revalidated with their
+ * entity tag, since new telemetry keeps changing them.
+ */
+@RestController
+@RequestMapping("/v1/tiles")
+public class TelemetryTileController {
+
+    private static final MediaType VECTOR_TILE = MediaType.parseMediaType("application/vnd.mapbox-vector-tile");
+
+    private final TelemetryTileApplicationService telemetryTileApplicationService;
+    private final long closedTileMaxAgeSeconds;
+
+    public TelemetryTileController(TelemetryTileApplicationService telemetryTileApplicationService,
+                                   @Value("${workflow.tiles.closed-max-age-seconds:3600}") long closedTileMaxAgeSeconds) {
+        this.telemetryTileApplicationService = telemetryTileApplicationService;
+        this.closedTileMaxAgeSeconds = closedTileMaxAgeSeconds;
+    }
+
+    @GetMapping("/telemetry/{z}/{x}/{y}.mvt")
+    public ResponseEntity<byte[]> telemetryTile(@PathVariable int z, @PathVariable int x, @PathVariable int y,
+                                                Authentication authentication,
+                                                @RequestParam(required = false)
+                                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                String ifNoneMatch) {
+        TelemetryTile tile = telemetryTileApplicationService.getTile(CallerOrganization.of(authentication), z, x, y, at);
+
+        CacheControl cacheControl = tile.end().isAfter(Instant.now())
+            ? CacheControl.noCache().cachePrivate()
+            : CacheControl.maxAge(closedTileMaxAgeSeconds, TimeUnit.SECONDS).cachePrivate();
+
+        if (tile.etag().equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(tile.etag())
+                .cacheControl(cacheControl)
+                .build();
+        }
+        return ResponseEntity.ok()
+            .contentType(VECTOR_TILE)
+            .eTag(tile.etag())
+            .cacheControl(cacheControl)
+            .body(tile.data());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> invalidTile(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
@@ -44,4 +44,8 @@ CREATE FULLTEXT INDEX workflow_node_search_idx IF NOT EXISTS FOR (n:WorkflowNode
 
 // Range indexes for time-based queries
 CREATE RANGE INDEX workflow_created_range_idx IF NOT EXISTS FOR (w:Workflow) ON (w.createdAt);
-CREATE RANGE INDEX workflow_updated_range_idx IF NOT EXISTS FOR (w:Workflow) ON (w.updatedAt);
\ No newline at end of file
+CREATE RANGE INDEX workflow_updated_range_idx IF NOT EXISTS FOR (w:Workflow) ON (w.updatedAt);
+
+// Execution checkpoints, one per execution, looked up by status on startup to resume
+CREATE CONSTRAINT execution_checkpoint_id_unique IF NOT EXISTS FOR (c:ExecutionCheckpoint) REQUIRE c.id IS UNIQUE;
+CREATE INDEX execution_checkpoint_status_idx IF NOT EXISTS FOR (c:ExecutionCheckpoint) ON (c.status);
\ No newline at end of file
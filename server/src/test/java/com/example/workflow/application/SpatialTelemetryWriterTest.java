@@ -0,0 +1,92 @@
+package com.example.workflow.application;
+
+import com.example.workflow.domain.*;
+import com.example.workflow.domain.ports.SpatialRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for SpatialTelemetryWriter
+ * Verifies batched PostGIS writes off the ingestion thread and tile invalidation after each write
+ */
+@ExtendWith(MockitoExtension.class)
+class SpatialTelemetryWriterTest {
+
+    private static final GeoLocation STAMFORD = GeoLocation.of(41.0534, -73.5387);
+
+    @Mock
+    private SpatialRepository spatialRepository;
+
+    @Mock
+    private TelemetryTileApplicationService telemetryTileApplicationService;
+
+    private SpatialTelemetryWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        writer = new SpatialTelemetryWriter(spatialRepository, telemetryTileApplicationService, 100, 50, 1000, 0, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.shutdown();
+    }
+
+    @Test
+    void shouldWriteQueuedPointsInBatchesAndInvalidateTilesAfterwards() {
+        // Given
+        writer.start();
+        List<TelemetryData> points = List.of(telemetry(), telemetry(), telemetry());
+
+        // When
+        points.forEach(writer::add);
+
+        // Then
+        verify(telemetryTileApplicationService, timeout(2000).times(3)).invalidate(any());
+        verify(spatialRepository, never()).saveSpatialData(any());
+        verify(spatialRepository, atMost(3)).saveSpatialDataBatch(anyList());
+        InOrder inOrder = inOrder(spatialRepository, telemetryTileApplicationService);
+        inOrder.verify(spatialRepository).saveSpatialDataBatch(anyList());
+        inOrder.verify(telemetryTileApplicationService).invalidate(points.get(0));
+        assertEquals(3, writer.getTotalWritten());
+    }
+
+    @Test
+    void shouldWriteOnTheCallersThreadWhenNotRunning() {
+        // Given - writer not started
+        TelemetryData point = telemetry();
+
+        // When
+        writer.add(point);
+
+        // Then
+        verify(spatialRepository).saveSpatialDataBatch(List.of(point));
+        verify(telemetryTileApplicationService).invalidate(point);
+    }
+
+    @Test
+    void shouldIgnorePointsWithoutLocation() {
+        writer.add(new TelemetryData(TelemetryId.generate(), DeviceId.of("sensor-1"), Instant.now(),
+            Map.of("temperature", MetricValue.numeric(21.5)), null, "org-123"));
+
+        verifyNoInteractions(spatialRepository, telemetryTileApplicationService);
+    }
+
+    private static TelemetryData telemetry() {
+        return new TelemetryData(TelemetryId.generate(), DeviceId.of("sensor-1"), Instant.now(),
+            Map.of("temperature", MetricValue.numeric(21.5)), STAMFORD, "org-123");
+    }
+}
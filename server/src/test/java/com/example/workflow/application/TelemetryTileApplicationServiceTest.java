@@ -0,0 +1,164 @@
+package com.example.workflow.application;
+
+import com.example.workflow.application.TelemetryTileApplicationService.TelemetryTile;
+import com.example.workflow.domain.*;
+import com.example.workflow.domain.ports.SpatialRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for TelemetryTileApplicationService
+ * Verifies tile caching per time bucket and invalidation by ingested points
+ */
+@ExtendWith(MockitoExtension.class)
+class TelemetryTileApplicationServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:30Z");
+    private static final GeoLocation STAMFORD = GeoLocation.of(41.0534, -73.5387);
+    private static final String ORGANIZATION = "org-123";
+
+    @Mock
+    private SpatialRepository spatialRepository;
+
+    private TelemetryTileApplicationService tileService;
+
+    @BeforeEach
+    void setUp() {
+        tileService = new TelemetryTileApplicationService(spatialRepository, 60_000, 3_600_000, 15, 22, 100,
+            Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void shouldRenderTileOncePerTimeBucket() {
+        // Given
+        when(spatialRepository.renderTelemetryTile(eq(ORGANIZATION), eq(12), eq(1211), eq(1534), any(), any(), eq(true)))
+            .thenReturn(new byte[]{1, 2, 3});
+
+        // When
+        TelemetryTile first = tileService.getTile(ORGANIZATION, 12, 1211, 1534, null);
+        TelemetryTile second = tileService.getTile(ORGANIZATION, 12, 1211, 1534, NOW.plusSeconds(20));
+
+        // Then
+        assertSame(first, second);
+        assertEquals(Instant.parse("2026-01-01T12:01:00Z"), first.end());
+        assertEquals(Instant.parse("2026-01-01T11:01:00Z"), first.start());
+        assertNotNull(first.etag());
+        verify(spatialRepository, times(1)).renderTelemetryTile(any(), anyInt(), anyInt(), anyInt(), any(), any(), anyBoolean());
+        assertEquals(1, tileService.getCacheStats().hits());
+        assertEquals(1, tileService.getCacheStats().misses());
+    }
+
+    @Test
+    void shouldRenderIndividualPointsAtHighZoom() {
+        // Given
+        when(spatialRepository.renderTelemetryTile(any(), anyInt(), anyInt(), anyInt(), any(), any(), anyBoolean()))
+            .thenReturn(new byte[0]);
+
+        // When
+        tileService.getTile(ORGANIZATION, 16, 0, 0, null);
+
+        // Then
+        verify(spatialRepository).renderTelemetryTile(eq(ORGANIZATION), eq(16), eq(0), eq(0), any(), any(), eq(false));
+    }
+
+    @Test
+    void shouldInvalidateTilesContainingNewTelemetry() {
+        // Given
+        when(spatialRepository.renderTelemetryTile(any(), anyInt(), anyInt(), anyInt(), any(), any(), anyBoolean()))
+            .thenReturn(new byte[]{1});
+        tileService.getTile(ORGANIZATION, 12, 1211, 1534, null);
+        tileService.getTile(ORGANIZATION, 12, 0, 0, null);
+
+        // When
+        tileService.invalidate(telemetry(ORGANIZATION, NOW));
+        tileService.getTile(ORGANIZATION, 12, 1211, 1534, null);
+        tileService.getTile(ORGANIZATION, 12, 0, 0, null);
+
+        // Then - only the tile containing the point is rendered again
+        verify(spatialRepository, times(2)).renderTelemetryTile(any(), eq(12), eq(1211), eq(1534), any(), any(), anyBoolean());
+        verify(spatialRepository, times(1)).renderTelemetryTile(any(), eq(12), eq(0), eq(0), any(), any(), anyBoolean());
+        assertEquals(1, tileService.getCacheStats().invalidations());
+    }
+
+    @Test
+    void shouldKeepTilesOfOtherOrganizationsAndTimeWindows() {
+        // Given
+        when(spatialRepository.renderTelemetryTile(any(), anyInt(), anyInt(), anyInt(), any(), any(), anyBoolean()))
+            .thenReturn(new byte[]{1});
+        tileService.getTile(ORGANIZATION, 12, 1211, 1534, null);
+
+        // When - a point of another organization, and a point older than the tile window
+        tileService.invalidate(telemetry("other-org", NOW));
+        tileService.invalidate(telemetry(ORGANIZATION, NOW.minusSeconds(7200)));
+        tileService.getTile(ORGANIZATION, 12, 1211, 1534, null);
+
+        // Then
+        verify(spatialRepository, times(1)).renderTelemetryTile(any(), anyInt(), anyInt(), anyInt(), any(), any(), anyBoolean());
+        assertEquals(0, tileService.getCacheStats().invalidations());
+    }
+
+    @Test
+    void shouldBoundTheNumberOfCachedTiles() {
+        // Given
+        TelemetryTileApplicationService smallCache = new TelemetryTileApplicationService(spatialRepository,
+            60_000, 3_600_000, 15, 22, 2, Clock.fixed(NOW, ZoneOffset.UTC));
+        when(spatialRepository.renderTelemetryTile(any(), anyInt(), anyInt(), anyInt(), any(), any(), anyBoolean()))
+            .thenReturn(new byte[]{1});
+
+        // When
+        for (int x = 0; x < 10; x++) {
+            smallCache.getTile(ORGANIZATION, 12, x, 0, null);
+        }
+
+        // Then - the cache is bounded instead of growing or being cleared as a whole
+        assertEquals(2, smallCache.getCacheStats().cachedTiles());
+        assertEquals(10, smallCache.getCacheStats().misses());
+    }
+
+    @Test
+    void shouldServeTheCurrentBucketForFutureTimes() {
+        // Given
+        when(spatialRepository.renderTelemetryTile(any(), anyInt(), anyInt(), anyInt(), any(), any(), anyBoolean()))
+            .thenReturn(new byte[]{1});
+
+        // When
+        TelemetryTile future = tileService.getTile(ORGANIZATION, 12, 1211, 1534, NOW.plusSeconds(3600));
+
+        // Then
+        assertEquals(Instant.parse("2026-01-01T12:01:00Z"), future.end());
+    }
+
+    @Test
+    void shouldRejectTilesOutsideZoomLevel() {
+        assertThrows(IllegalArgumentException.class, () -> tileService.getTile(ORGANIZATION, 23, 0, 0, null));
+        assertThrows(IllegalArgumentException.class, () -> tileService.getTile(ORGANIZATION, 2, 4, 0, null));
+        assertThrows(IllegalArgumentException.class, () -> tileService.getTile(ORGANIZATION, 2, 0, -1, null));
+        verifyNoInteractions(spatialRepository);
+    }
+
+    @Test
+    void shouldComputeWebMercatorTileCoordinates() {
+        assertEquals(0, TelemetryTileApplicationService.tileX(STAMFORD.longitude(), 0));
+        assertEquals(1211, TelemetryTileApplicationService.tileX(STAMFORD.longitude(), 12));
+        assertEquals(1534, TelemetryTileApplicationService.tileY(STAMFORD.latitude(), 12));
+        assertEquals(4095, TelemetryTileApplicationService.tileY(-90.0, 12));
+        assertEquals(4095, TelemetryTileApplicationService.tileX(180.0, 12));
+    }
+
+    private static TelemetryData telemetry(String organizationId, Instant timestamp) {
+        return new TelemetryData(TelemetryId.generate(), DeviceId.of("sensor-1"), timestamp,
+            Map.of("temperature", MetricValue.numeric(21.5)), STAMFORD, organizationId);
+    }
+}
@@ -263,4 +263,74 @@ class ConditionEvaluationServiceTest {
         // Then
         assertTrue(result);
     }
-}
\ No newline at end of file
+    
+    @Test
+    void shouldEvaluateSingleConditionMap() {
+        // Given
+        Map<String, Object> condition = Map.of(
+            "field", "humidity",
+            "operator", "gt",
+            "value", 70.0
+        );
+        
+        // When
+        boolean result = conditionEvaluationService.evaluateConditions(condition, testTelemetryData);
+        
+        // Then
+        assertFalse(result);
+    }
+    
+    @Test
+    void shouldShortCircuitBeforeInvalidOperand() {
+        // Given - the invalid comparison is never reached because the cheaper operand is false
+        Map<String, Object> condition = Map.of(
+            "operator", "AND",
+            "conditions", List.of(
+                Map.of("field", "temperature", "operator", "gt", "value", "invalid_number"),
+                Map.of("field", "temperature", "operator", "lt", "value", 20.0)
+            )
+        );
+        
+        // When
+        boolean result = conditionEvaluationService.evaluateConditions(condition, testTelemetryData);
+        
+        // Then
+        assertFalse(result);
+    }
+    
+    @Test
+    void shouldFoldConstantOperands() {
+        // Given - an empty "in" list never matches, so the AND is false without evaluating the rest
+        Map<String, Object> condition = Map.of(
+            "operator", "AND",
+            "conditions", List.of(
+                Map.of("field", "temperature", "operator", "gt", "value", "invalid_number"),
+                Map.of("field", "status", "operator", "in", "value", List.of())
+            )
+        );
+        
+        // When
+        CompiledCondition compiled = ConditionCompiler.compile(condition);
+        
+        // Then
+        assertSame(CompiledCondition.FALSE, compiled);
+        assertFalse(conditionEvaluationService.evaluateConditions(condition, testTelemetryData));
+    }
+    
+    @Test
+    void shouldEvaluateTimestampCondition() {
+        // Given
+        Map<String, Object> after = Map.of("field", "timestamp", "operator", "gt", "value", "2020-01-01T00:00:00Z");
+        Map<String, Object> before = Map.of("field", "timestamp", "operator", "lt", "value", 0);
+        Map<String, Object> within = Map.of("field", "timestamp", "operator", "between",
+            "value", Map.of("min", "2020-01-01T00:00:00Z", "max", testTelemetryData.getTimestamp().toString()));
+        Map<String, Object> invalid = Map.of("field", "timestamp", "operator", "gt", "value", "yesterday");
+        
+        // When / Then
+        assertTrue(conditionEvaluationService.evaluateConditions(after, testTelemetryData));
+        assertFalse(conditionEvaluationService.evaluateConditions(before, testTelemetryData));
+        assertTrue(conditionEvaluationService.evaluateConditions(within, testTelemetryData));
+        assertThrows(ConditionEvaluationException.class,
+            () -> conditionEvaluationService.evaluateConditions(invalid, testTelemetryData));
+    }
+}
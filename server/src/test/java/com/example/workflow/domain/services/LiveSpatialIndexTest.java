@@ -0,0 +1,204 @@
+package com.example.workflow.domain.services;
+
+import com.example.workflow.domain.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for LiveSpatialIndex
+ * Compares index queries with a brute force scan over the same readings
+ */
+class LiveSpatialIndexTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+    private static final String ORG = "org-123";
+
+    private MutableClock clock;
+    private LiveSpatialIndex index;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(NOW.minusSeconds(3600));
+        index = new LiveSpatialIndex(0.05, 900_000, 100, clock);
+        clock.instant = NOW;
+    }
+
+    @Test
+    void shouldMatchBruteForceForLatestPositions() {
+        // Given - devices around Stamford, some reporting several times while moving
+        Random random = new Random(42);
+        Map<DeviceId, TelemetryData> latest = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            DeviceId deviceId = DeviceId.of("device-" + random.nextInt(500));
+            TelemetryData data = reading(deviceId, 41.0 + random.nextDouble() * 0.6,
+                -73.9 + random.nextDouble() * 0.8, NOW.minusSeconds(600).plusMillis(i));
+            index.add(data);
+            latest.put(deviceId, data);
+        }
+
+        for (int query = 0; query < 50; query++) {
+            GeoLocation center = GeoLocation.of(41.0 + random.nextDouble() * 0.6, -73.9 + random.nextDouble() * 0.8);
+            double radiusKm = random.nextDouble() * 20;
+
+            // When
+            List<TelemetryData> withinRadius = index.latestWithinRadius(ORG, center, radiusKm);
+            List<TelemetryData> nearest = index.nearestDevices(ORG, center, 10);
+
+            // Then
+            Set<TelemetryData> expected = latest.values().stream()
+                .filter(data -> data.getLocation().distanceToKm(center) <= radiusKm)
+                .collect(Collectors.toSet());
+            assertEquals(expected, new HashSet<>(withinRadius));
+
+            List<Double> expectedDistances = latest.values().stream()
+                .map(data -> data.getLocation().distanceToKm(center))
+                .sorted()
+                .limit(10)
+                .toList();
+            assertEquals(expectedDistances, nearest.stream().map(data -> data.getLocation().distanceToKm(center)).toList());
+        }
+
+        BoundingBox box = BoundingBox.of(41.1, 41.3, -73.7, -73.5);
+        Set<TelemetryData> expected = latest.values().stream()
+            .filter(data -> box.contains(data.getLocation()))
+            .collect(Collectors.toSet());
+        assertEquals(expected, new HashSet<>(index.latestWithinBoundingBox(ORG, box)));
+    }
+
+    @Test
+    void shouldReturnRecentReadingsAtTheirOwnPositions() {
+        // Given - a device moving out of the query area
+        DeviceId deviceId = DeviceId.of("truck-1");
+        TelemetryData inside = reading(deviceId, 41.05, -73.54, NOW.minusSeconds(120));
+        TelemetryData outside = reading(deviceId, 42.5, -72.0, NOW.minusSeconds(60));
+        index.add(inside);
+        index.add(outside);
+        GeoLocation center = GeoLocation.of(41.05, -73.54);
+
+        // When / Then
+        assertEquals(List.of(inside), index.recentWithinRadius(ORG, center, 1.0, NOW.minusSeconds(300), NOW));
+        assertEquals(List.of(), index.recentWithinRadius(ORG, center, 1.0, NOW.minusSeconds(90), NOW));
+        assertEquals(List.of(), index.latestWithinRadius(ORG, center, 1.0));
+        assertEquals(List.of(outside), index.nearestDevices(ORG, center, 3));
+    }
+
+    @Test
+    void shouldFindNearestDevicesAcrossTheAntimeridian() {
+        // Given
+        TelemetryData east = reading(DeviceId.of("east"), 0.0, 179.99, NOW);
+        TelemetryData far = reading(DeviceId.of("far"), 0.0, 170.0, NOW);
+        index.add(far);
+        index.add(east);
+        for (int i = 0; i < 20; i++) {
+            index.add(reading(DeviceId.of("filler-" + i), 60.0, 10.0 + i, NOW));
+        }
+
+        // When
+        List<TelemetryData> nearest = index.nearestDevices(ORG, GeoLocation.of(0.0, -179.99), 1);
+
+        // Then
+        assertEquals(List.of(east), nearest);
+        assertEquals(List.of(east), index.latestWithinRadius(ORG, GeoLocation.of(0.0, -179.99), 5.0));
+    }
+
+    @Test
+    void shouldEvictExpiredReadingsAndDevices() {
+        // Given
+        index.add(reading(DeviceId.of("old"), 41.05, -73.54, NOW.minusSeconds(1000)));
+        index.add(reading(DeviceId.of("recent"), 41.05, -73.54, NOW.minusSeconds(10)));
+
+        // When
+        index.evictExpired();
+
+        // Then
+        assertEquals(1, index.getDeviceCount());
+        assertEquals(DeviceId.of("recent"), index.latestWithinRadius(ORG, GeoLocation.of(41.05, -73.54), 1.0).get(0).getDeviceId());
+    }
+
+    @Test
+    void shouldOnlyCoverTimeRangesItHoldsCompletely() {
+        assertTrue(index.covers(ORG, NOW.minusSeconds(300)));
+        // Beyond the retention
+        assertFalse(index.covers(ORG, NOW.minusSeconds(1000)));
+
+        // When - a device reports more readings than the per-device limit
+        DeviceId deviceId = DeviceId.of("chatty");
+        for (int i = 0; i < 500; i++) {
+            index.add(reading(deviceId, 41.05, -73.54, NOW.minusSeconds(600).plusSeconds(i)));
+        }
+
+        // Then - only the newest are kept, and only the range after the dropped ones is covered
+        assertEquals(100, index.recentWithinRadius(ORG, GeoLocation.of(41.05, -73.54), 1.0, NOW.minusSeconds(700), NOW).size());
+        assertFalse(index.covers(ORG, NOW.minusSeconds(600)));
+        assertFalse(index.covers(ORG, NOW.minusSeconds(600).plusSeconds(399)));
+        assertTrue(index.covers(ORG, NOW.minusSeconds(600).plusSeconds(400)));
+        // Other organizations are unaffected
+        assertTrue(index.covers("org-456", NOW.minusSeconds(600)));
+    }
+
+    @Test
+    void shouldOnlyAnswerQueriesWithTheOrganizationsOwnDevices() {
+        // Given
+        TelemetryData own = reading(DeviceId.of("own"), 41.05, -73.54, NOW);
+        TelemetryData other = new TelemetryData(TelemetryId.generate(), DeviceId.of("other"), NOW,
+            Map.of("temperature", MetricValue.numeric(21.5)), GeoLocation.of(41.05, -73.54), "org-456");
+        index.add(own);
+        index.add(other);
+        GeoLocation center = GeoLocation.of(41.05, -73.54);
+
+        // When / Then
+        assertEquals(List.of(own), index.latestWithinRadius(ORG, center, 1.0));
+        assertEquals(List.of(own), index.nearestDevices(ORG, center, 5));
+        assertEquals(List.of(own), index.recentWithinRadius(ORG, center, 1.0, NOW.minusSeconds(60), NOW));
+        assertEquals(List.of(other), index.latestWithinBoundingBox("org-456", BoundingBox.of(41.0, 41.1, -73.6, -73.5)));
+        assertEquals(List.of(), index.latestWithinRadius("org-789", center, 1.0));
+        assertEquals(2, index.getDeviceCount());
+    }
+
+    @Test
+    void shouldIgnoreDuplicateReadings() {
+        TelemetryData data = reading(DeviceId.of("sensor"), 41.05, -73.54, NOW);
+        index.add(data);
+        index.add(data);
+
+        assertEquals(1, index.recentWithinRadius(ORG, GeoLocation.of(41.05, -73.54), 1.0, NOW.minusSeconds(60), NOW).size());
+    }
+
+    private static TelemetryData reading(DeviceId deviceId, double latitude, double longitude, Instant timestamp) {
+        return new TelemetryData(TelemetryId.generate(), deviceId, timestamp,
+            Map.of("temperature", MetricValue.numeric(21.5)), GeoLocation.of(latitude, longitude), "org-123");
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -167,11 +167,20 @@ class WorkflowDomainServiceTest {
             "org-123"
         );
         
+        WorkflowExecution execution = new WorkflowExecution(
+            ExecutionId.generate(), workflow.getId(), workflow.getOrganizationId(), telemetryData);
+        
+        // When
+        workflowDomainService.executeWorkflowStep(workflow, execution, telemetryData);
+        
+        // Then
+        assertEquals(ExecutionStatus.RUNNING, execution.getStatus());
+        assertEquals(endNode.getId(), execution.getCurrentNodeId());
+        
         // When
-        WorkflowExecution execution = workflowDomainService.executeWorkflow(workflow, telemetryData);
+        workflowDomainService.executeWorkflowStep(workflow, execution, telemetryData);
         
         // Then
-        assertNotNull(execution);
         assertEquals(ExecutionStatus.COMPLETED, execution.getStatus());
         assertEquals(workflow.getId(), execution.getWorkflowId());
     }
@@ -231,15 +240,15 @@ class WorkflowDomainServiceTest {
         telemetryData.addMetric("temperature", MetricValue.of(30.0));
         
         // Mock condition evaluation to return true
-        when(conditionEvaluationService.evaluateConditions(any(), any())).thenReturn(true);
+        when(conditionEvaluationService.evaluateNodeConditions(any(), any(), any())).thenReturn(true);
         
         // When
-        WorkflowExecution execution = workflowDomainService.executeWorkflow(workflow, telemetryData);
+        NodeStepResult result = workflowDomainService.executeStep(workflow, decisionNode, telemetryData);
         
         // Then
-        assertNotNull(execution);
-        assertEquals(trueNode.getId(), execution.getCurrentNodeId());
-        assertTrue(execution.getContextData("condition_result_" + decisionNode.getId()).equals(true));
+        assertEquals(List.of(edges.get(1)), result.takenEdges());
+        assertEquals(trueNode.getId(), result.takenEdges().get(0).getTarget());
+        assertTrue(result.contextData().get("condition_result_" + decisionNode.getId()).equals(true));
     }
     
     @Test
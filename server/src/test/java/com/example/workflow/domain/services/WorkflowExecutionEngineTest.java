@@ -0,0 +1,445 @@
+package com.example.workflow.domain.services;
+
+import com.example.workflow.domain.*;
+import com.example.workflow.domain.ports.ExecutionCheckpointRepository;
+import com.example.workflow.domain.ports.WorkflowRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for WorkflowExecutionEngine
+ * Verifies parallel scheduling, join semantics, checkpoints and resume
+ */
+@ExtendWith(MockitoExtension.class)
+class WorkflowExecutionEngineTest {
+
+    private static final String OWNER = "node-1";
+    private static final Duration LEASE = Duration.ofMinutes(1);
+
+    @Mock
+    private ConditionEvaluationService conditionEvaluationService;
+
+    @Mock
+    private WorkflowRepository workflowRepository;
+
+    private final InMemoryCheckpointRepository checkpointRepository = new InMemoryCheckpointRepository();
+    private final List<NodeId> executedNodes = Collections.synchronizedList(new ArrayList<>());
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldRunIndependentBranchesConcurrently() {
+        // Given - three tasks that only finish once all of them are running
+        WorkflowNode start = node(NodeType.START);
+        WorkflowNode first = node(NodeType.TASK);
+        WorkflowNode second = node(NodeType.TASK);
+        WorkflowNode third = node(NodeType.TASK);
+        WorkflowNode end = node(NodeType.END);
+        Workflow workflow = workflow(List.of(start, first, second, third, end), List.of(
+            edge(start, first), edge(start, second), edge(start, third),
+            edge(first, end), edge(second, end), edge(third, end)));
+
+        CountDownLatch allRunning = new CountDownLatch(3);
+        WorkflowDomainService domainService = new WorkflowDomainService(conditionEvaluationService) {
+            @Override
+            public NodeStepResult executeStep(Workflow w, WorkflowNode node, TelemetryData data) {
+                if (node.getType() == NodeType.TASK) {
+                    allRunning.countDown();
+                    try {
+                        assertTrue(allRunning.await(5, TimeUnit.SECONDS), "Branches did not run concurrently");
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                executedNodes.add(node.getId());
+                return super.executeStep(w, node, data);
+            }
+        };
+
+        // When
+        WorkflowExecution execution = engine(domainService).execute(workflow, null);
+
+        // Then - the end node joins all three branches and runs once
+        assertEquals(ExecutionStatus.COMPLETED, execution.getStatus(), execution.getErrorMessage());
+        assertEquals(5, executedNodes.size());
+        assertEquals(end.getId(), executedNodes.get(4));
+    }
+
+    @Test
+    void shouldCheckpointOncePerWaveOfCompletedNodes() {
+        // Given - twenty tasks that finish while the engine is saving a checkpoint
+        WorkflowNode start = node(NodeType.START);
+        WorkflowNode end = node(NodeType.END);
+        List<WorkflowNode> nodes = new ArrayList<>(List.of(start, end));
+        List<WorkflowEdge> edges = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            WorkflowNode task = task("task-" + i);
+            nodes.add(task);
+            edges.add(edge(start, task));
+            edges.add(edge(task, end));
+        }
+        checkpointRepository.saveDelayMillis = 200;
+
+        // When
+        WorkflowExecution execution = new WorkflowExecutionEngine(new WorkflowDomainService(conditionEvaluationService),
+            workflowRepository, checkpointRepository, 32, false, OWNER, LEASE, executor).execute(workflow(nodes, edges), null);
+
+        // Then - one checkpoint per wave instead of one per node
+        assertEquals(ExecutionStatus.COMPLETED, execution.getStatus(), execution.getErrorMessage());
+        assertEquals(22, checkpointRepository.latest(execution.getId()).completedNodes().size());
+        assertTrue(checkpointRepository.saves.get() <= 5, "Saved " + checkpointRepository.saves.get() + " checkpoints");
+    }
+
+    @Test
+    void shouldSkipBranchNotTakenAndRunMergeNode() {
+        // Given
+        WorkflowNode start = node(NodeType.START);
+        WorkflowNode decision = new WorkflowNode(NodeId.generate(), NodeType.DECISION, "Decision", Position.origin(),
+            Map.of("conditions", "temperature > 25"));
+        WorkflowNode onTrue = task("alert");
+        WorkflowNode onFalse = task("log");
+        WorkflowNode merge = task("notify");
+        Workflow workflow = workflow(List.of(start, decision, onTrue, onFalse, merge), List.of(
+            edge(start, decision),
+            new WorkflowEdge(EdgeId.generate(), decision.getId(), onTrue.getId(), "true", EdgeType.CONDITIONAL_TRUE),
+            new WorkflowEdge(EdgeId.generate(), decision.getId(), onFalse.getId(), "false", EdgeType.CONDITIONAL_FALSE),
+            edge(onTrue, merge), edge(onFalse, merge)));
+        when(conditionEvaluationService.evaluateNodeConditions(any(), any(), any())).thenReturn(true);
+
+        // When
+        WorkflowExecution execution = engine(new WorkflowDomainService(conditionEvaluationService)).execute(workflow, null);
+
+        // Then
+        assertEquals(ExecutionStatus.COMPLETED, execution.getStatus(), execution.getErrorMessage());
+        assertNotNull(execution.getContextData("task_result_" + onTrue.getId()));
+        assertNull(execution.getContextData("task_result_" + onFalse.getId()));
+        assertNotNull(execution.getContextData("task_result_" + merge.getId()));
+        assertEquals(merge.getId(), execution.getCurrentNodeId());
+    }
+
+    @Test
+    void shouldSkipJoinAllNodeWhenABranchIsNotTaken() {
+        // Given
+        WorkflowNode start = node(NodeType.START);
+        WorkflowNode decision = new WorkflowNode(NodeId.generate(), NodeType.DECISION, "Decision", Position.origin(),
+            Map.of("conditions", "temperature > 25"));
+        WorkflowNode onTrue = task("alert");
+        WorkflowNode onFalse = task("log");
+        WorkflowNode merge = new WorkflowNode(NodeId.generate(), NodeType.TASK, "Merge", Position.origin(),
+            Map.of("task", "notify", "join", "all"));
+        Workflow workflow = workflow(List.of(start, decision, onTrue, onFalse, merge), List.of(
+            edge(start, decision),
+            new WorkflowEdge(EdgeId.generate(), decision.getId(), onTrue.getId(), "true", EdgeType.CONDITIONAL_TRUE),
+            new WorkflowEdge(EdgeId.generate(), decision.getId(), onFalse.getId(), "false", EdgeType.CONDITIONAL_FALSE),
+            edge(onTrue, merge), edge(onFalse, merge)));
+        when(conditionEvaluationService.evaluateNodeConditions(any(), any(), any())).thenReturn(false);
+
+        // When
+        WorkflowExecution execution = engine(new WorkflowDomainService(conditionEvaluationService)).execute(workflow, null);
+
+        // Then
+        assertEquals(ExecutionStatus.COMPLETED, execution.getStatus(), execution.getErrorMessage());
+        assertNotNull(execution.getContextData("task_result_" + onFalse.getId()));
+        assertNull(execution.getContextData("task_result_" + merge.getId()));
+        assertEquals(Set.of(start.getId(), decision.getId(), onTrue.getId(), onFalse.getId(), merge.getId()),
+            checkpointRepository.latest(execution.getId()).completedNodes());
+    }
+
+    @Test
+    void shouldCheckpointAfterEachNodeAndFailOnNodeError() {
+        // Given - a decision node without conditions fails
+        WorkflowNode start = node(NodeType.START);
+        WorkflowNode decision = node(NodeType.DECISION);
+        Workflow workflow = workflow(List.of(start, decision), List.of(edge(start, decision)));
+
+        // When
+        WorkflowExecution execution = engine(new WorkflowDomainService(conditionEvaluationService)).execute(workflow, null);
+
+        // Then
+        assertEquals(ExecutionStatus.FAILED, execution.getStatus());
+        assertTrue(execution.getErrorMessage().contains(decision.getId().value()));
+        ExecutionCheckpoint checkpoint = checkpointRepository.latest(execution.getId());
+        assertEquals(ExecutionStatus.FAILED, checkpoint.status());
+        assertEquals(Set.of(start.getId()), checkpoint.completedNodes());
+    }
+
+    @Test
+    void shouldResumeFromLastCheckpoint() {
+        // Given - the start node and the first branch completed before a restart
+        WorkflowNode start = node(NodeType.START);
+        WorkflowNode first = task("first");
+        WorkflowNode second = task("second");
+        WorkflowNode end = node(NodeType.END);
+        WorkflowEdge startToFirst = edge(start, first);
+        WorkflowEdge startToSecond = edge(start, second);
+        WorkflowEdge firstToEnd = edge(first, end);
+        Workflow workflow = workflow(List.of(start, first, second, end), List.of(
+            startToFirst, startToSecond, firstToEnd, edge(second, end)));
+        when(workflowRepository.findById(workflow.getId())).thenReturn(Optional.of(workflow));
+
+        ExecutionId executionId = ExecutionId.generate();
+        checkpointRepository.save(new ExecutionCheckpoint(executionId, workflow.getId(), workflow.getUpdatedAt(),
+            workflow.getOrganizationId(), ExecutionStatus.RUNNING, Instant.now(), Instant.now(), first.getId(), null, null,
+            Set.of(start.getId(), first.getId()), Set.of(startToFirst.getId(), startToSecond.getId(), firstToEnd.getId()),
+            Map.of("task_result_" + first.getId(), "done"), null, null));
+
+        WorkflowDomainService domainService = new WorkflowDomainService(conditionEvaluationService) {
+            @Override
+            public NodeStepResult executeStep(Workflow w, WorkflowNode node, TelemetryData data) {
+                executedNodes.add(node.getId());
+                return super.executeStep(w, node, data);
+            }
+        };
+
+        // When
+        WorkflowExecution execution = engine(domainService).resume(executionId);
+
+        // Then
+        assertEquals(ExecutionStatus.COMPLETED, execution.getStatus(), execution.getErrorMessage());
+        assertEquals(List.of(second.getId(), end.getId()), executedNodes);
+        assertEquals("done", execution.getContextData("task_result_" + first.getId()));
+        assertEquals(ExecutionStatus.COMPLETED, checkpointRepository.latest(executionId).status());
+    }
+
+    @Test
+    void shouldFailResumeWhenWorkflowChanged() {
+        // Given
+        WorkflowNode start = node(NodeType.START);
+        WorkflowNode end = node(NodeType.END);
+        Workflow workflow = workflow(List.of(start, end), List.of(edge(start, end)));
+        when(workflowRepository.findById(workflow.getId())).thenReturn(Optional.of(workflow));
+
+        ExecutionId executionId = ExecutionId.generate();
+        checkpointRepository.save(new ExecutionCheckpoint(executionId, workflow.getId(),
+            workflow.getUpdatedAt().minusSeconds(60), workflow.getOrganizationId(), ExecutionStatus.RUNNING,
+            Instant.now(), Instant.now(), null, null, null, Set.of(), Set.of(), Map.of(), null, null));
+
+        // When
+        WorkflowExecution execution = engine(new WorkflowDomainService(conditionEvaluationService)).resume(executionId);
+
+        // Then
+        assertEquals(ExecutionStatus.FAILED, execution.getStatus());
+        assertEquals(ExecutionStatus.FAILED, checkpointRepository.latest(executionId).status());
+    }
+
+    @Test
+    void shouldNotResumeExecutionLeasedByAnotherNode() {
+        // Given - another node checkpointed the execution and still holds its lease
+        WorkflowNode start = node(NodeType.START);
+        WorkflowNode end = node(NodeType.END);
+        Workflow workflow = workflow(List.of(start, end), List.of(edge(start, end)));
+        ExecutionId executionId = ExecutionId.generate();
+        checkpointRepository.save(runningCheckpoint(executionId, workflow, "node-2", Instant.now().plusSeconds(60)));
+        WorkflowExecutionEngine engine = new WorkflowExecutionEngine(new WorkflowDomainService(conditionEvaluationService),
+            workflowRepository, checkpointRepository, 8, true, OWNER, LEASE, executor);
+
+        // When
+        engine.resumeUnfinished();
+
+        // Then
+        assertThrows(IllegalStateException.class, () -> engine.resume(executionId));
+        assertEquals("node-2", checkpointRepository.latest(executionId).owner());
+        assertEquals(ExecutionStatus.RUNNING, checkpointRepository.latest(executionId).status());
+    }
+
+    @Test
+    void shouldTakeOverExecutionWhoseLeaseExpired() throws InterruptedException {
+        // Given - the node running the execution stopped renewing its lease
+        WorkflowNode start = node(NodeType.START);
+        WorkflowNode end = node(NodeType.END);
+        Workflow workflow = workflow(List.of(start, end), List.of(edge(start, end)));
+        when(workflowRepository.findById(workflow.getId())).thenReturn(Optional.of(workflow));
+        ExecutionId executionId = ExecutionId.generate();
+        checkpointRepository.save(runningCheckpoint(executionId, workflow, "node-2", Instant.now().minusSeconds(1)));
+
+        // When
+        new WorkflowExecutionEngine(new WorkflowDomainService(conditionEvaluationService),
+            workflowRepository, checkpointRepository, 8, true, OWNER, LEASE, executor).resumeUnfinished();
+
+        // Then
+        for (int i = 0; i < 100 && checkpointRepository.latest(executionId).status() == ExecutionStatus.RUNNING; i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(ExecutionStatus.COMPLETED, checkpointRepository.latest(executionId).status());
+        assertEquals(OWNER, checkpointRepository.latest(executionId).owner());
+    }
+
+    @Test
+    void shouldStopExecutionTakenOverByAnotherNode() throws InterruptedException {
+        // Given - a node that blocks until the execution's lease has been taken over
+        WorkflowNode start = node(NodeType.START);
+        WorkflowNode slow = task("slow");
+        WorkflowNode end = node(NodeType.END);
+        Workflow workflow = workflow(List.of(start, slow, end), List.of(edge(start, slow), edge(slow, end)));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch takenOver = new CountDownLatch(1);
+        WorkflowDomainService domainService = new WorkflowDomainService(conditionEvaluationService) {
+            @Override
+            public NodeStepResult executeStep(Workflow w, WorkflowNode node, TelemetryData data) {
+                if (node.getId().equals(slow.getId())) {
+                    started.countDown();
+                    try {
+                        takenOver.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.executeStep(w, node, data);
+            }
+        };
+        WorkflowExecutionEngine engine = engine(domainService);
+        var result = executor.submit(() -> engine.execute(workflow, null));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        ExecutionId executionId = checkpointRepository.checkpoints.keySet().iterator().next();
+
+        // When
+        checkpointRepository.save(runningCheckpoint(executionId, workflow, "node-2", Instant.now().plusSeconds(60)));
+        engine.heartbeat();
+        takenOver.countDown();
+
+        // Then - the execution stops without overwriting the new owner's checkpoint
+        WorkflowExecution execution = assertDoesNotThrow(() -> result.get(5, TimeUnit.SECONDS));
+        assertEquals(ExecutionStatus.RUNNING, execution.getStatus());
+        assertEquals("node-2", checkpointRepository.latest(executionId).owner());
+    }
+
+    private WorkflowExecutionEngine engine(WorkflowDomainService domainService) {
+        return new WorkflowExecutionEngine(domainService, workflowRepository, checkpointRepository, 8, false,
+            OWNER, LEASE, executor);
+    }
+
+    private static ExecutionCheckpoint runningCheckpoint(ExecutionId executionId, Workflow workflow,
+                                                         String owner, Instant leaseExpiresAt) {
+        return new ExecutionCheckpoint(executionId, workflow.getId(), workflow.getUpdatedAt(),
+            workflow.getOrganizationId(), ExecutionStatus.RUNNING, Instant.now(), Instant.now(), null, null, null,
+            Set.of(), Set.of(), Map.of(), owner, leaseExpiresAt);
+    }
+
+    private static Workflow workflow(List<WorkflowNode> nodes, List<WorkflowEdge> edges) {
+        Workflow workflow = new Workflow(WorkflowId.generate(), "Test Workflow", "org-123", nodes, edges);
+        workflow.activate();
+        return workflow;
+    }
+
+    private static WorkflowNode node(NodeType type) {
+        return new WorkflowNode(NodeId.generate(), type, type.name(), Position.origin());
+    }
+
+    private static WorkflowNode task(String task) {
+        return new WorkflowNode(NodeId.generate(), NodeType.TASK, task, Position.origin(), Map.of("task", task));
+    }
+
+    private static WorkflowEdge edge(WorkflowNode source, WorkflowNode target) {
+        return new WorkflowEdge(EdgeId.generate(), source.getId(), target.getId(), "", EdgeType.DEFAULT);
+    }
+
+    /**
+     * Keeps the latest checkpoint of each execution
+     */
+    private static class InMemoryCheckpointRepository implements ExecutionCheckpointRepository {
+
+        private final Map<ExecutionId, ExecutionCheckpoint> checkpoints = new ConcurrentHashMap<>();
+        private final AtomicInteger saves = new AtomicInteger();
+        private volatile long saveDelayMillis;
+
+        @Override
+        public void save(ExecutionCheckpoint checkpoint) {
+            saves.incrementAndGet();
+            try {
+                Thread.sleep(saveDelayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            checkpoints.put(checkpoint.executionId(), checkpoint);
+        }
+
+        @Override
+        public Optional<ExecutionCheckpoint> findById(ExecutionId executionId) {
+            return Optional.ofNullable(checkpoints.get(executionId));
+        }
+
+        @Override
+        public List<ExecutionCheckpoint> findByStatus(ExecutionStatus status) {
+            return checkpoints.values().stream().filter(checkpoint -> checkpoint.status() == status).toList();
+        }
+
+        @Override
+        public void delete(ExecutionId executionId) {
+            checkpoints.remove(executionId);
+        }
+
+        @Override
+        public synchronized boolean claim(ExecutionId executionId, String owner, Instant now, Instant leaseExpiresAt) {
+            ExecutionCheckpoint checkpoint = checkpoints.get(executionId);
+            if (checkpoint == null || checkpoint.status() != ExecutionStatus.RUNNING
+                    || !(owner.equals(checkpoint.owner()) || checkpoint.leaseExpired(now))) {
+                return false;
+            }
+            checkpoints.put(executionId, withLease(checkpoint, owner, leaseExpiresAt));
+            return true;
+        }
+
+        @Override
+        public synchronized Set<ExecutionId> renew(Collection<ExecutionId> executionIds, String owner,
+                                                   Instant leaseExpiresAt) {
+            Set<ExecutionId> lost = new HashSet<>();
+            for (ExecutionId executionId : executionIds) {
+                ExecutionCheckpoint checkpoint = checkpoints.get(executionId);
+                if (checkpoint == null) {
+                    continue;
+                }
+                if (owner.equals(checkpoint.owner())) {
+                    checkpoints.put(executionId, withLease(checkpoint, owner, leaseExpiresAt));
+                } else if (checkpoint.owner() != null) {
+                    lost.add(executionId);
+                }
+            }
+            return lost;
+        }
+
+        private static ExecutionCheckpoint withLease(ExecutionCheckpoint c, String owner, Instant leaseExpiresAt) {
+            return new ExecutionCheckpoint(c.executionId(), c.workflowId(), c.workflowVersion(), c.organizationId(),
+                c.status(), c.startedAt(), c.checkpointedAt(), c.currentNodeId(), c.errorMessage(), c.triggerData(),
+                c.completedNodes(), c.takenEdges(), c.contextData(), owner, leaseExpiresAt);
+        }
+
+        ExecutionCheckpoint latest(ExecutionId executionId) {
+            return checkpoints.get(executionId);
+        }
+    }
+}
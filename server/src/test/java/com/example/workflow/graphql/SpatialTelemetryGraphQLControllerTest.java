@@ -0,0 +1,69 @@
+package com.example.workflow.graphql;
+
+import com.example.workflow.application.SpatialTelemetryApplicationService;
+import com.example.workflow.domain.GeoLocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for SpatialTelemetryGraphQLController
+ * Verifies that spatial queries are scoped to the caller's organization
+ */
+@ExtendWith(MockitoExtension.class)
+class SpatialTelemetryGraphQLControllerTest {
+
+    @Mock
+    private SpatialTelemetryApplicationService spatialTelemetryApplicationService;
+
+    private SpatialTelemetryGraphQLController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new SpatialTelemetryGraphQLController(spatialTelemetryApplicationService);
+    }
+
+    @Test
+    void shouldQueryTheOrganizationInTheToken() {
+        // Given
+        when(spatialTelemetryApplicationService.findDevicesWithinRadius(eq("org-123"), any(GeoLocation.class), eq(5.0)))
+            .thenReturn(List.of());
+
+        // When
+        List<TelemetryReading> readings = controller.devicesNear(41.05, -73.54, 5.0, token("org-123"));
+
+        // Then
+        assertTrue(readings.isEmpty());
+        verify(spatialTelemetryApplicationService).findDevicesWithinRadius(eq("org-123"), any(GeoLocation.class), eq(5.0));
+    }
+
+    @Test
+    void shouldDenyTokensWithoutOrganization() {
+        assertThrows(AccessDeniedException.class, () -> controller.nearestDevices(41.05, -73.54, 10, token(null)));
+        verifyNoInteractions(spatialTelemetryApplicationService);
+    }
+
+    private static JwtAuthenticationToken token(String organizationId) {
+        Jwt.Builder jwt = Jwt.withTokenValue("token")
+            .header("alg", "none")
+            .subject("user-1")
+            .issuedAt(Instant.now())
+            .expiresAt(Instant.now().plusSeconds(60));
+        if (organizationId != null) {
+            jwt.claim("organizationId", organizationId);
+        }
+        return new JwtAuthenticationToken(jwt.build());
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.workflow.infrastructure.influxdb;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DiskOverflowQueue
+ */
+class DiskOverflowQueueTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReplaySegmentsInOrderAndDeleteThem() {
+        DiskOverflowQueue queue = new DiskOverflowQueue(directory, 1024, 16);
+
+        assertTrue(queue.append("a value=1 1\nb value=2 2\n"));
+        assertTrue(queue.append("c value=3 3\n"));
+
+        DiskOverflowQueue.Segment first = queue.peek();
+        assertEquals("a value=1 1\nb value=2 2\n", first.lines());
+        queue.remove(first);
+
+        DiskOverflowQueue.Segment second = queue.peek();
+        assertEquals("c value=3 3\n", second.lines());
+        queue.remove(second);
+
+        assertNull(queue.peek());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void shouldRejectLinesBeyondCapacity() {
+        DiskOverflowQueue queue = new DiskOverflowQueue(directory, 20, 1024);
+
+        assertTrue(queue.append("a value=1 1\n"));
+        assertFalse(queue.append("b value=2 2\n"));
+        assertEquals(12, queue.sizeInBytes());
+    }
+
+    @Test
+    void shouldBufferAppendsUntilFlushed() throws Exception {
+        DiskOverflowQueue queue = new DiskOverflowQueue(directory, 1024, 1024);
+
+        assertTrue(queue.append("a value=1 1\n"));
+        assertTrue(queue.append("b value=2 2\n"));
+        assertEquals(24, queue.sizeInBytes());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+
+        queue.flush();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals("a value=1 1\nb value=2 2\n", Files.readString(files.findFirst().orElseThrow()));
+        }
+    }
+
+    @Test
+    void shouldRecoverSegmentsAfterRestartWithoutPartialLines() throws Exception {
+        DiskOverflowQueue queue = new DiskOverflowQueue(directory, 1024, 1024);
+        queue.append("a value=1 1\n");
+        queue.flush();
+        try (Stream<Path> files = Files.list(directory)) {
+            // Simulate a crash in the middle of appending the next line
+            Files.writeString(files.findFirst().orElseThrow(), "b val", StandardOpenOption.APPEND);
+        }
+
+        DiskOverflowQueue recovered = new DiskOverflowQueue(directory, 1024, 1024);
+        recovered.append("c value=3 3\n");
+
+        assertEquals("a value=1 1\n", recovered.peek().lines());
+        recovered.remove(recovered.peek());
+        assertEquals("c value=3 3\n", recovered.peek().lines());
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.workflow.infrastructure.influxdb;
+
+import com.example.workflow.domain.*;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JMH load benchmark for the telemetry write path, reported in points per second.
+ *
+ * {@code encode} measures line protocol encoding alone; {@code ingest} pushes points through the
+ * batch processor into a writer that only counts bytes, so it measures queueing, batching and
+ * encoding without InfluxDB. Run with:
+ * {@code mvn -pl server test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.workflow.infrastructure.influxdb.InfluxDbWriteBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InfluxDbWriteBenchmark {
+
+    private static final int POINTS = 10_000;
+
+    private final List<TelemetryData> points = new ArrayList<>(POINTS);
+    private final StringBuilder buffer = new StringBuilder(POINTS * 256);
+    private final AtomicLong writtenBytes = new AtomicLong();
+    private InfluxDbBatchProcessor processor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Instant now = Instant.now();
+        for (int i = 0; i < POINTS; i++) {
+            points.add(new TelemetryData(
+                TelemetryId.generate(),
+                DeviceId.of("device-" + (i % 500)),
+                now.minusMillis(POINTS - i),
+                Map.of(
+                    "temperature", MetricValue.numeric(20.0 + (i % 100) / 10.0),
+                    "humidity", MetricValue.numeric(40 + i % 30),
+                    "status", MetricValue.string("normal")
+                ),
+                i % 4 == 0 ? GeoLocation.randomStamfordLocation() : null,
+                "org-" + (i % 5)
+            ));
+        }
+
+        processor = new InfluxDbBatchProcessor(lines -> writtenBytes.addAndGet(lines.length()));
+        // Large enough that nothing spills to disk, and no lingering on the last batch
+        ReflectionTestUtils.setField(processor, "queueCapacity", 100_000);
+        ReflectionTestUtils.setField(processor, "lingerMs", 0);
+        ReflectionTestUtils.setField(processor, "overflowDirectory",
+            Files.createTempDirectory("influxdb-overflow").toString());
+        processor.initialize();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        processor.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public void encode(Blackhole blackhole) {
+        buffer.setLength(0);
+        for (TelemetryData data : points) {
+            LineProtocolEncoder.append(buffer, data);
+        }
+        blackhole.consume(buffer.length());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public long ingest() throws InterruptedException {
+        long target = processor.getStats().totalProcessed() + POINTS;
+        for (TelemetryData data : points) {
+            processor.addTelemetryData(data);
+        }
+        while (processor.getStats().totalProcessed() < target) {
+            Thread.sleep(0, 100_000);
+        }
+        return writtenBytes.get();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(InfluxDbWriteBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.workflow.infrastructure.influxdb;
+
+import com.example.workflow.domain.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LineProtocolEncoder
+ */
+class LineProtocolEncoderTest {
+
+    private static final Instant TIMESTAMP = Instant.ofEpochMilli(1700000000123L);
+
+    @Test
+    void shouldEncodeTimeSeriesAndSpatialLines() {
+        Map<String, MetricValue> metrics = new LinkedHashMap<>();
+        metrics.put("temperature", MetricValue.numeric(21.5));
+        metrics.put("count", MetricValue.numeric(3));
+        metrics.put("status", MetricValue.string("ok"));
+        metrics.put("online", MetricValue.bool(true));
+        TelemetryData data = new TelemetryData(TelemetryId.generate(), DeviceId.of("device-1"), TIMESTAMP,
+            metrics, GeoLocation.of(41.05, -73.54), "org-1");
+
+        StringBuilder buffer = new StringBuilder();
+        int lines = LineProtocolEncoder.append(buffer, data);
+
+        assertEquals(2, lines);
+        String[] encoded = buffer.toString().split("\n");
+        assertLine(encoded[0], "telemetry,device_id=device-1,organization_id=org-1",
+            Set.of("temperature=21.5", "count=3", "status=\"ok\"", "online=true"));
+        assertLine(encoded[1], "spatial_telemetry,device_id=device-1,organization_id=org-1",
+            Set.of("latitude=41.05", "longitude=-73.54", "temperature=21.5", "count=3"));
+    }
+
+    @Test
+    void shouldEscapeTagsFieldKeysAndStrings() {
+        Map<String, MetricValue> metrics = new LinkedHashMap<>();
+        metrics.put("fan speed", MetricValue.numeric(1.25));
+        metrics.put("note", MetricValue.string("say \"hi\" \\ bye"));
+        TelemetryData data = new TelemetryData(TelemetryId.generate(), DeviceId.of("dev,1=a b"), TIMESTAMP,
+            metrics, null, "org\n1");
+
+        StringBuilder buffer = new StringBuilder();
+        LineProtocolEncoder.append(buffer, data);
+
+        assertLine(buffer.toString().trim(), "telemetry,device_id=dev\\,1\\=a\\ b,organization_id=org\\ 1",
+            Set.of("fan\\ speed=1.25", "note=\"say \\\"hi\\\" \\\\ bye\""));
+    }
+
+    @Test
+    void shouldSkipLineWithoutWritableFields() {
+        TelemetryData data = new TelemetryData(TelemetryId.generate(), DeviceId.of("device-1"), TIMESTAMP,
+            Map.of("broken", MetricValue.numeric(Double.NaN)), null, "org-1");
+
+        StringBuilder buffer = new StringBuilder("previous\n");
+        int lines = LineProtocolEncoder.append(buffer, data);
+
+        assertEquals(0, lines);
+        assertEquals("previous\n", buffer.toString());
+    }
+
+    private static void assertLine(String line, String series, Set<String> fields) {
+        assertTrue(line.startsWith(series + " "), line);
+        assertTrue(line.endsWith(" 1700000000123"), line);
+        String fieldSet = line.substring(series.length() + 1, line.length() - " 1700000000123".length());
+        // Fields follow the metric map order, so only their presence is checked
+        for (String field : fields) {
+            assertTrue(("," + fieldSet + ",").contains("," + field + ","), field + " missing in " + line);
+        }
+        assertEquals(fields.size(), fieldSet.split(",(?=[a-z])").length, line);
+    }
+}
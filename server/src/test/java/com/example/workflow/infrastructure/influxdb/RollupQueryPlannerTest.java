@@ -0,0 +1,117 @@
+package com.example.workflow.infrastructure.influxdb;
+
+import com.example.workflow.domain.AggregationType;
+import com.example.workflow.infrastructure.influxdb.RollupQueryPlanner.PlannedRange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RollupQueryPlanner
+ */
+class RollupQueryPlannerTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-15T12:30:00Z");
+
+    private final RollupQueryPlanner planner = new RollupQueryPlanner(true,
+        Map.of(RollupTier.MINUTE, Duration.ofDays(90),
+               RollupTier.HOUR, Duration.ofDays(365),
+               RollupTier.DAY, Duration.ofDays(1825)),
+        Duration.ofSeconds(60), Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @BeforeEach
+    void recordTasksCreatedLongAgo() {
+        for (RollupTier tier : List.of(RollupTier.MINUTE, RollupTier.HOUR, RollupTier.DAY)) {
+            planner.recordTaskStart(tier, Instant.parse("2015-01-01T00:00:00Z"));
+        }
+    }
+
+    @Test
+    void shouldUseCoarsestTierAndFillEdgesFromFinerTiers() {
+        List<PlannedRange> plan = planner.plan(
+            Instant.parse("2024-06-10T06:15:30Z"), NOW, Duration.ofDays(1), AggregationType.AVERAGE);
+
+        assertEquals(List.of(
+            new PlannedRange(RollupTier.RAW, Instant.parse("2024-06-10T06:15:30Z"), Instant.parse("2024-06-10T06:16:00Z")),
+            new PlannedRange(RollupTier.MINUTE, Instant.parse("2024-06-10T06:16:00Z"), Instant.parse("2024-06-10T07:00:00Z")),
+            new PlannedRange(RollupTier.HOUR, Instant.parse("2024-06-10T07:00:00Z"), Instant.parse("2024-06-11T00:00:00Z")),
+            new PlannedRange(RollupTier.DAY, Instant.parse("2024-06-11T00:00:00Z"), Instant.parse("2024-06-15T00:00:00Z")),
+            new PlannedRange(RollupTier.HOUR, Instant.parse("2024-06-15T00:00:00Z"), Instant.parse("2024-06-15T12:00:00Z")),
+            new PlannedRange(RollupTier.MINUTE, Instant.parse("2024-06-15T12:00:00Z"), Instant.parse("2024-06-15T12:29:00Z")),
+            new PlannedRange(RollupTier.RAW, Instant.parse("2024-06-15T12:29:00Z"), NOW)
+        ), plan);
+    }
+
+    @Test
+    void shouldOnlyUseTiersDividingTheInterval() {
+        List<PlannedRange> plan = planner.plan(
+            Instant.parse("2024-06-14T00:00:00Z"), Instant.parse("2024-06-15T00:00:00Z"),
+            Duration.ofMinutes(90), AggregationType.MAX);
+
+        assertEquals(List.of(new PlannedRange(RollupTier.MINUTE,
+            Instant.parse("2024-06-14T00:00:00Z"), Instant.parse("2024-06-15T00:00:00Z"))), plan);
+    }
+
+    @Test
+    void shouldReadRawPointsForAggregationsRollupsCannotExpress() {
+        Instant start = Instant.parse("2024-06-01T00:00:00Z");
+        List<PlannedRange> plan = planner.plan(start, NOW, Duration.ofDays(1), AggregationType.MEDIAN);
+
+        assertEquals(List.of(new PlannedRange(RollupTier.RAW, start, NOW)), plan);
+    }
+
+    @Test
+    void shouldNotReadTiersBeyondTheirRetention() {
+        Instant start = Instant.parse("2024-01-01T00:00:00Z");
+        Instant end = Instant.parse("2024-06-01T00:00:00Z");
+        List<PlannedRange> plan = planner.plan(start, end, Duration.ofMinutes(1), AggregationType.SUM);
+
+        Instant oldestMinute = Instant.parse("2024-03-17T12:30:00Z");
+        assertEquals(List.of(
+            new PlannedRange(RollupTier.RAW, start, oldestMinute),
+            new PlannedRange(RollupTier.MINUTE, oldestMinute, end)
+        ), plan);
+    }
+
+    @Test
+    void shouldPlanRawOnlyWhenDisabled() {
+        Instant start = Instant.parse("2024-06-01T00:00:00Z");
+        List<PlannedRange> plan = RollupQueryPlanner.rawOnly().plan(start, NOW, null, null);
+
+        assertEquals(List.of(new PlannedRange(RollupTier.RAW, start, NOW)), plan);
+    }
+
+    @Test
+    void shouldReadRawPointsBeforeTheRollupTasksStarted() {
+        RollupQueryPlanner fresh = new RollupQueryPlanner(true,
+            Map.of(RollupTier.MINUTE, Duration.ofDays(90),
+                   RollupTier.HOUR, Duration.ofDays(365),
+                   RollupTier.DAY, Duration.ofDays(1825)),
+            Duration.ofSeconds(60), Clock.fixed(NOW, ZoneOffset.UTC));
+        Instant start = Instant.parse("2024-06-01T00:00:00Z");
+
+        assertEquals(List.of(new PlannedRange(RollupTier.RAW, start, NOW)),
+            fresh.plan(start, NOW, Duration.ofDays(1), AggregationType.AVERAGE));
+
+        Instant created = Instant.parse("2024-06-14T10:20:30Z");
+        fresh.recordTaskStart(RollupTier.MINUTE, created);
+        fresh.recordTaskStart(RollupTier.HOUR, created);
+        fresh.recordTaskStart(RollupTier.DAY, created);
+
+        assertEquals(List.of(
+            new PlannedRange(RollupTier.RAW, start, Instant.parse("2024-06-14T10:21:00Z")),
+            new PlannedRange(RollupTier.MINUTE, Instant.parse("2024-06-14T10:21:00Z"), Instant.parse("2024-06-14T11:00:00Z")),
+            new PlannedRange(RollupTier.HOUR, Instant.parse("2024-06-14T11:00:00Z"), Instant.parse("2024-06-15T12:00:00Z")),
+            new PlannedRange(RollupTier.MINUTE, Instant.parse("2024-06-15T12:00:00Z"), Instant.parse("2024-06-15T12:29:00Z")),
+            new PlannedRange(RollupTier.RAW, Instant.parse("2024-06-15T12:29:00Z"), NOW)
+        ), fresh.plan(start, NOW, Duration.ofHours(1), AggregationType.AVERAGE));
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.workflow.infrastructure.influxdb;
+
+import com.influxdb.Cancellable;
+import com.influxdb.client.QueryApi;
+import com.influxdb.query.FluxRecord;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StreamingFluxQuery
+ */
+class StreamingFluxQueryTest {
+
+    private final QueryApi queryApi = mock(QueryApi.class);
+    private final List<String> startedQueries = new ArrayList<>();
+    private final List<TestCancellable> cancellables = new ArrayList<>();
+
+    @Test
+    void shouldStreamQueriesInOrderAndStartEachOnDemand() {
+        answerWithRecords(3);
+
+        try (Stream<FluxRecord> stream = StreamingFluxQuery.stream(queryApi, "org", List.of("q1", "q2").iterator(), 2)) {
+            var iterator = stream.iterator();
+            assertEquals("q1-0", iterator.next().getValueByKey("id"));
+            assertEquals(List.of("q1"), startedQueries);
+
+            List<Object> rest = new ArrayList<>();
+            iterator.forEachRemaining(record -> rest.add(record.getValueByKey("id")));
+            assertEquals(List.of("q1-1", "q1-2", "q2-0", "q2-1", "q2-2"), rest);
+            assertEquals(List.of("q1", "q2"), startedQueries);
+        }
+    }
+
+    @Test
+    void shouldCancelRunningQueryWhenClosedEarly() throws InterruptedException {
+        answerWithRecords(10_000);
+
+        Stream<FluxRecord> stream = StreamingFluxQuery.stream(queryApi, "org", List.of("q1", "q2").iterator(), 4);
+        List<Object> firstTwo = stream.limit(2).map(record -> record.getValueByKey("id")).collect(Collectors.toList());
+        stream.close();
+
+        assertEquals(List.of("q1-0", "q1-1"), firstTwo);
+        assertTrue(cancellables.get(0).finished.await(5, TimeUnit.SECONDS));
+        assertTrue(cancellables.get(0).isCancelled());
+        assertEquals(List.of("q1"), startedQueries);
+    }
+
+    @Test
+    void shouldPropagateQueryErrors() {
+        doAnswer(invocation -> {
+            Consumer<Throwable> onError = invocation.getArgument(3);
+            new Thread(() -> onError.accept(new RuntimeException("boom"))).start();
+            return null;
+        }).when(queryApi).query(anyString(), anyString(), any(BiConsumer.class), any(Consumer.class), any(Runnable.class));
+
+        try (Stream<FluxRecord> stream = StreamingFluxQuery.stream(queryApi, "org", List.of("q1").iterator(), 4)) {
+            IllegalStateException error = assertThrows(IllegalStateException.class, () -> stream.findFirst());
+            assertEquals("boom", error.getCause().getMessage());
+        }
+    }
+
+    @Test
+    void shouldReportSuccessOnceWhenExhausted() {
+        answerWithRecords(3);
+        List<Boolean> outcomes = new ArrayList<>();
+
+        try (Stream<FluxRecord> stream = StreamingFluxQuery.stream(queryApi, "org", List.of("q1", "q2").iterator(), 2,
+                Duration.ofMinutes(1), outcomes::add)) {
+            assertEquals(6, stream.count());
+            assertEquals(List.of(true), outcomes);
+        }
+        assertEquals(List.of(true), outcomes);
+    }
+
+    @Test
+    void shouldReportFailureOnQueryError() {
+        doAnswer(invocation -> {
+            Consumer<Throwable> onError = invocation.getArgument(3);
+            onError.accept(new RuntimeException("boom"));
+            return null;
+        }).when(queryApi).query(anyString(), anyString(), any(BiConsumer.class), any(Consumer.class), any(Runnable.class));
+        List<Boolean> outcomes = new ArrayList<>();
+
+        try (Stream<FluxRecord> stream = StreamingFluxQuery.stream(queryApi, "org", List.of("q1").iterator(), 4,
+                Duration.ofMinutes(1), outcomes::add)) {
+            assertThrows(IllegalStateException.class, stream::count);
+        }
+        assertEquals(List.of(false), outcomes);
+    }
+
+    @Test
+    void shouldCancelQueryWhenStreamIsLeftUnread() throws InterruptedException {
+        answerWithRecords(10_000);
+        List<Boolean> outcomes = new CopyOnWriteArrayList<>();
+
+        var iterator = StreamingFluxQuery.stream(queryApi, "org", List.of("q1", "q2").iterator(), 4,
+            Duration.ofMillis(200), outcomes::add).iterator();
+        assertEquals("q1-0", iterator.next().getValueByKey("id"));
+
+        assertTrue(cancellables.get(0).finished.await(5, TimeUnit.SECONDS));
+        assertTrue(cancellables.get(0).isCancelled());
+        assertEquals(List.of(false), outcomes);
+        assertThrows(IllegalStateException.class, iterator::hasNext);
+        assertEquals(List.of("q1"), startedQueries);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void answerWithRecords(int count) {
+        doAnswer(invocation -> {
+            String flux = invocation.getArgument(0);
+            BiConsumer<Cancellable, FluxRecord> onNext = invocation.getArgument(2);
+            Runnable onComplete = invocation.getArgument(4);
+            TestCancellable cancellable = new TestCancellable();
+            startedQueries.add(flux);
+            cancellables.add(cancellable);
+
+            // Records are delivered from the client's own thread, like the real callback API
+            new Thread(() -> {
+                for (int i = 0; i < count && !cancellable.isCancelled(); i++) {
+                    FluxRecord record = new FluxRecord(0);
+                    record.getValues().put("id", flux + "-" + i);
+                    onNext.accept(cancellable, record);
+                }
+                if (!cancellable.isCancelled()) {
+                    onComplete.run();
+                }
+                cancellable.finished.countDown();
+            }).start();
+            return null;
+        }).when(queryApi).query(anyString(), anyString(), any(BiConsumer.class), any(Consumer.class), any(Runnable.class));
+    }
+
+    private static final class TestCancellable implements Cancellable {
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final CountDownLatch finished = new CountDownLatch(1);
+
+        @Override
+        public void cancel() {
+            cancelled.set(true);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled.get();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.workflow.web;
+
+import com.example.workflow.application.TelemetryTileApplicationService;
+import com.example.workflow.application.TelemetryTileApplicationService.TelemetryTile;
+import com.example.workflow.infrastructure.config.SecurityConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test class for the security of TelemetryTileController
+ * Requests go through the application's security filter chain with bearer JWTs
+ */
+@WebMvcTest
+class TelemetryTileControllerSecurityTest {
+
+    @Configuration
+    @Import({TelemetryTileController.class, SecurityConfig.class})
+    static class TestConfig {
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TelemetryTileApplicationService telemetryTileApplicationService;
+
+    @MockBean
+    private JwtDecoder jwtDecoder;
+
+    @Test
+    void shouldServeTilesOfTheOrganizationInTheToken() throws Exception {
+        // Given
+        when(telemetryTileApplicationService.getTile(eq("org-123"), eq(12), eq(1211), eq(1534), isNull()))
+            .thenReturn(new TelemetryTile(new byte[]{1}, "\"etag\"", Instant.EPOCH, Instant.EPOCH.plusSeconds(60)));
+
+        // When & Then
+        mockMvc.perform(get("/v1/tiles/telemetry/12/1211/1534.mvt")
+                .with(jwt().jwt(token -> token.claim("organizationId", "org-123"))))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"etag\""));
+        verify(telemetryTileApplicationService).getTile(eq("org-123"), anyInt(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void shouldDenyTokensWithoutOrganization() throws Exception {
+        mockMvc.perform(get("/v1/tiles/telemetry/12/1211/1534.mvt").with(jwt()))
+            .andExpect(status().isForbidden());
+        verifyNoInteractions(telemetryTileApplicationService);
+    }
+
+    @Test
+    void shouldRejectRequestsWithoutToken() throws Exception {
+        mockMvc.perform(get("/v1/tiles/telemetry/12/1211/1534.mvt"))
+            .andExpect(status().isUnauthorized());
+        verifyNoInteractions(telemetryTileApplicationService);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.workflow.web;
+
+import com.example.workflow.application.TelemetryTileApplicationService;
+import com.example.workflow.application.TelemetryTileApplicationService.TelemetryTile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for TelemetryTileController
+ * Verifies that tiles are scoped to the authenticated organization
+ */
+@ExtendWith(MockitoExtension.class)
+class TelemetryTileControllerTest {
+
+    @Mock
+    private TelemetryTileApplicationService telemetryTileApplicationService;
+
+    private TelemetryTileController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new TelemetryTileController(telemetryTileApplicationService, 3600);
+    }
+
+    @Test
+    void shouldServeTilesOfTheAuthenticatedOrganization() {
+        // Given
+        UsernamePasswordAuthenticationToken authentication =
+            new UsernamePasswordAuthenticationToken("user-1", null, AuthorityUtils.NO_AUTHORITIES);
+        authentication.setDetails(Map.of("organizationId", "org-123"));
+        when(telemetryTileApplicationService.getTile(eq("org-123"), eq(12), eq(1211), eq(1534), isNull()))
+            .thenReturn(new TelemetryTile(new byte[]{1}, "\"etag\"", Instant.EPOCH, Instant.EPOCH.plusSeconds(60)));
+
+        // When
+        ResponseEntity<byte[]> response = controller.telemetryTile(12, 1211, 1534, authentication, null, null);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(telemetryTileApplicationService).getTile(eq("org-123"), anyInt(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void shouldReadTheOrganizationFromAttributePrincipals() {
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+            Map.of("sub", "user-1", "organizationId", "org-456"), null, AuthorityUtils.NO_AUTHORITIES);
+
+        assertEquals("org-456", CallerOrganization.of(authentication));
+    }
+
+    @Test
+    void shouldDenyCallersWithoutOrganization() {
+        UsernamePasswordAuthenticationToken withoutOrganization =
+            new UsernamePasswordAuthenticationToken("user-1", null, AuthorityUtils.NO_AUTHORITIES);
+        UsernamePasswordAuthenticationToken unauthenticated =
+            new UsernamePasswordAuthenticationToken(Map.of("organizationId", "org-123"), null);
+
+        assertThrows(AccessDeniedException.class,
+            () -> controller.telemetryTile(0, 0, 0, withoutOrganization, null, null));
+        assertThrows(AccessDeniedException.class,
+            () -> controller.telemetryTile(0, 0, 0, unauthenticated, null, null));
+        assertThrows(AccessDeniedException.class,
+            () -> controller.telemetryTile(0, 0, 0, null, null, null));
+        verifyNoInteractions(telemetryTileApplicationService);
+    }
+}
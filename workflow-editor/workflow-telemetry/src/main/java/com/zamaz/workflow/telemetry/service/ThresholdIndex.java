@@ -0,0 +1,290 @@
+package com.zamaz.workflow.telemetry.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Index of numeric threshold rules keyed by device id and metric name.
+ *
+ * Rules of one key are kept in arrays sorted by threshold per comparison operator, so an event
+ * only touches the keys of its own metrics and finds the firing rules with binary searches.
+ * Each key holds an immutable snapshot that is rebuilt on add or remove while holding only that
+ * key's bin, so matching never locks and rules can be changed while events are processed.
+ *
+ * @param <K> rule identifier
+ * @param <R> rule type
+ */
+public final class ThresholdIndex<K, R> {
+
+    // Tolerance of the equality operators, as in ThresholdRule
+    private static final double EQUALITY_TOLERANCE = 0.001;
+
+    private final Map<Key, Bucket<K, R>> buckets = new ConcurrentHashMap<>();
+    private final Map<K, Entry<K, R>> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder matchCount = new LongAdder();
+    private final LongAdder matchNanos = new LongAdder();
+    private final LongAdder matchedRules = new LongAdder();
+    private final AtomicLong maxMatchNanos = new AtomicLong();
+
+    /**
+     * Add a rule, replacing the rule with the same id
+     * @param deviceId device the rule applies to, or null for every device
+     * @return false if the operator or threshold cannot be matched and the rule was not added
+     */
+    public boolean add(K id, R rule, String deviceId, String metric, String operator, double threshold) {
+        Operator op = Operator.of(operator);
+        if (op == null || metric == null || Double.isNaN(threshold)) {
+            return false;
+        }
+        Entry<K, R> entry = new Entry<>(id, rule, new Key(deviceId, metric), op, threshold);
+        // Changes to one rule are serialized on its bin, changes to other rules proceed in parallel
+        entries.compute(id, (k, previous) -> {
+            if (previous != null && !previous.key().equals(entry.key())) {
+                buckets.computeIfPresent(previous.key(), (key, bucket) -> bucket.without(id));
+            }
+            buckets.compute(entry.key(), (key, bucket) -> (bucket == null ? Bucket.<K, R>empty() : bucket).with(entry));
+            return entry;
+        });
+        return true;
+    }
+
+    public boolean remove(K id) {
+        boolean[] removed = new boolean[1];
+        entries.computeIfPresent(id, (k, entry) -> {
+            buckets.computeIfPresent(entry.key(), (key, bucket) -> bucket.without(id));
+            removed[0] = true;
+            return null;
+        });
+        return removed[0];
+    }
+
+    public void clear() {
+        entries.clear();
+        buckets.clear();
+    }
+
+    /**
+     * Pass every rule violated by the numeric metrics of an event to the consumer
+     */
+    public void match(String deviceId, Map<String, Object> metrics, Consumer<R> consumer) {
+        long start = System.nanoTime();
+        int matched = 0;
+        for (Map.Entry<String, Object> metric : metrics.entrySet()) {
+            if (!(metric.getValue() instanceof Number number)) {
+                continue;
+            }
+            double value = number.doubleValue();
+            if (Double.isNaN(value)) {
+                continue;
+            }
+            Bucket<K, R> deviceRules = buckets.get(new Key(deviceId, metric.getKey()));
+            if (deviceRules != null) {
+                matched += deviceRules.match(value, consumer);
+            }
+            Bucket<K, R> anyDeviceRules = buckets.get(new Key(null, metric.getKey()));
+            if (anyDeviceRules != null) {
+                matched += anyDeviceRules.match(value, consumer);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        matchCount.increment();
+        matchNanos.add(elapsed);
+        matchedRules.add(matched);
+        maxMatchNanos.accumulateAndGet(elapsed, Math::max);
+    }
+
+    public List<R> match(String deviceId, Map<String, Object> metrics) {
+        List<R> matches = new ArrayList<>();
+        match(deviceId, metrics, matches::add);
+        return matches;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public IndexStats getStats() {
+        long matches = matchCount.sum();
+        return IndexStats.builder()
+            .ruleCount(entries.size())
+            .keyCount(buckets.size())
+            .matchCount(matches)
+            .matchedRules(matchedRules.sum())
+            .averageMatchNanos(matches > 0 ? matchNanos.sum() / matches : 0)
+            .maxMatchNanos(maxMatchNanos.get())
+            .build();
+    }
+
+    private enum Operator {
+        GT, GTE, LT, LTE, EQ, NE;
+
+        static Operator of(String operator) {
+            if (operator == null) {
+                return null;
+            }
+            return switch (operator) {
+                case ">" -> GT;
+                case ">=" -> GTE;
+                case "<" -> LT;
+                case "<=" -> LTE;
+                case "=" -> EQ;
+                case "!=" -> NE;
+                default -> null;
+            };
+        }
+    }
+
+    private record Key(String deviceId, String metric) {}
+
+    private record Entry<K, R>(K id, R rule, Key key, Operator operator, double threshold) {}
+
+    /**
+     * Immutable rules of one key, sorted ascending by threshold per operator
+     */
+    private static final class Bucket<K, R> {
+
+        private static final Bucket<?, ?> EMPTY = new Bucket<>(List.of());
+
+        private final List<Entry<K, R>> all;
+        private final double[][] thresholds = new double[Operator.values().length][];
+        private final Object[][] rules = new Object[Operator.values().length][];
+
+        private Bucket(List<Entry<K, R>> all) {
+            this.all = all;
+            for (Operator operator : Operator.values()) {
+                Entry<?, ?>[] sorted = all.stream()
+                    .filter(entry -> entry.operator() == operator)
+                    .sorted(Comparator.comparingDouble(Entry::threshold))
+                    .toArray(Entry[]::new);
+                thresholds[operator.ordinal()] = Arrays.stream(sorted).mapToDouble(Entry::threshold).toArray();
+                rules[operator.ordinal()] = Arrays.stream(sorted).map(Entry::rule).toArray();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        static <K, R> Bucket<K, R> empty() {
+            return (Bucket<K, R>) EMPTY;
+        }
+
+        Bucket<K, R> with(Entry<K, R> entry) {
+            List<Entry<K, R>> updated = new ArrayList<>(all.size() + 1);
+            for (Entry<K, R> existing : all) {
+                if (!existing.id().equals(entry.id())) {
+                    updated.add(existing);
+                }
+            }
+            updated.add(entry);
+            return new Bucket<>(updated);
+        }
+
+        /**
+         * @return the bucket without the rule, or null to drop the key when it was the last one
+         */
+        Bucket<K, R> without(K id) {
+            List<Entry<K, R>> updated = new ArrayList<>(all.size());
+            for (Entry<K, R> existing : all) {
+                if (!existing.id().equals(id)) {
+                    updated.add(existing);
+                }
+            }
+            return updated.isEmpty() ? null : new Bucket<>(updated);
+        }
+
+        int match(double value, Consumer<R> consumer) {
+            int matched = 0;
+            // value > t for thresholds below the value, value >= t up to and including it
+            matched += emit(Operator.GT, 0, lowerBound(thresholds[Operator.GT.ordinal()], value), consumer);
+            matched += emit(Operator.GTE, 0, upperBound(thresholds[Operator.GTE.ordinal()], value), consumer);
+            double[] lt = thresholds[Operator.LT.ordinal()];
+            matched += emit(Operator.LT, upperBound(lt, value), lt.length, consumer);
+            double[] lte = thresholds[Operator.LTE.ordinal()];
+            matched += emit(Operator.LTE, lowerBound(lte, value), lte.length, consumer);
+            matched += matchEquality(Operator.EQ, value, consumer);
+            matched += matchEquality(Operator.NE, value, consumer);
+            return matched;
+        }
+
+        /**
+         * Binary search a widened tolerance window, then check its candidates exactly,
+         * so results agree with Math.abs(value - threshold) < tolerance
+         */
+        private int matchEquality(Operator operator, double value, Consumer<R> consumer) {
+            double[] sorted = thresholds[operator.ordinal()];
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int from = lowerBound(sorted, value - 2 * EQUALITY_TOLERANCE);
+            int to = upperBound(sorted, value + 2 * EQUALITY_TOLERANCE);
+            boolean equal = operator == Operator.EQ;
+            int matched = equal ? 0 : emit(operator, 0, from, consumer) + emit(operator, to, sorted.length, consumer);
+            for (int i = from; i < to; i++) {
+                if ((Math.abs(value - sorted[i]) < EQUALITY_TOLERANCE) == equal) {
+                    consumer.accept(rule(operator, i));
+                    matched++;
+                }
+            }
+            return matched;
+        }
+
+        private int emit(Operator operator, int from, int to, Consumer<R> consumer) {
+            for (int i = from; i < to; i++) {
+                consumer.accept(rule(operator, i));
+            }
+            return Math.max(0, to - from);
+        }
+
+        @SuppressWarnings("unchecked")
+        private R rule(Operator operator, int index) {
+            return (R) rules[operator.ordinal()][index];
+        }
+
+        // First index whose threshold is not below the value
+        private static int lowerBound(double[] sorted, double value) {
+            int low = 0;
+            int high = sorted.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sorted[mid] < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // First index whose threshold is above the value
+        private static int upperBound(double[] sorted, double value) {
+            int low = 0;
+            int high = sorted.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sorted[mid] <= value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    public static class IndexStats {
+        private final int ruleCount;
+        private final int keyCount;
+        private final long matchCount;
+        private final long matchedRules;
+        private final long averageMatchNanos;
+        private final long maxMatchNanos;
+    }
+}
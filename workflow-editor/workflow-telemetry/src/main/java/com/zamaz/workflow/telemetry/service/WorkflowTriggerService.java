@@ -15,6 +15,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,8 +27,9 @@ public class WorkflowTriggerService {
     private final TelemetryThresholdMonitor thresholdMonitor;
     private final WorkflowExecutionService executionService;
     
-    // Cache for active workflow triggers
-    private final Map<String, List<TelemetryTrigger>> activeTriggers = new ConcurrentHashMap<>();
+    // Cache for active workflow triggers, indexed by device and metric for matching
+    // Replaced as a whole on refresh, so the triggers and their index never disagree
+    private volatile TriggerCache triggerCache = new TriggerCache();
     private final Map<String, Instant> lastTriggerTime = new ConcurrentHashMap<>();
     
     // Cooldown period to prevent trigger spam
@@ -35,46 +37,56 @@ public class WorkflowTriggerService {
     
     public List<String> checkTriggers(TelemetryData data) {
         List<String> triggeredWorkflows = new ArrayList<>();
+        TriggerCache cache = triggerCache;
         
-        // Get triggers for this device
-        List<TelemetryTrigger> triggers = getTelemetryTriggers(data.getDeviceId());
+        // Load triggers for this device, then only visit the ones the metrics fire
+        getTelemetryTriggers(cache, data.getDeviceId());
         
-        for (TelemetryTrigger trigger : triggers) {
-            if (evaluateTrigger(trigger, data)) {
-                String workflowId = trigger.getWorkflowId();
-                
-                // Check cooldown
-                if (isInCooldown(workflowId)) {
-                    log.debug("Workflow {} is in cooldown, skipping trigger", workflowId);
-                    continue;
-                }
-                
-                triggeredWorkflows.add(workflowId);
-                lastTriggerTime.put(workflowId, Instant.now());
-                
-                // Execute workflow asynchronously
-                executeWorkflowAsync(workflowId, data);
-                
-                log.info("Triggered workflow {} for device {} due to condition: {}", 
-                    workflowId, data.getDeviceId(), trigger.getCondition());
+        for (TelemetryTrigger trigger : cache.triggerIndex.match(data.getDeviceId(), data.getMetrics())) {
+            String workflowId = trigger.getWorkflowId();
+            
+            // Check cooldown
+            if (isInCooldown(workflowId)) {
+                log.debug("Workflow {} is in cooldown, skipping trigger", workflowId);
+                continue;
             }
+            
+            triggeredWorkflows.add(workflowId);
+            lastTriggerTime.put(workflowId, Instant.now());
+            
+            // Execute workflow asynchronously
+            executeWorkflowAsync(workflowId, data);
+            
+            log.info("Triggered workflow {} for device {} due to condition: {}", 
+                workflowId, data.getDeviceId(), trigger.getCondition());
         }
         
         return triggeredWorkflows;
     }
     
-    private List<TelemetryTrigger> getTelemetryTriggers(String deviceId) {
+    private List<TelemetryTrigger> getTelemetryTriggers(TriggerCache cache, String deviceId) {
         // Get from cache or load from database
-        return activeTriggers.computeIfAbsent(deviceId, this::loadTriggersForDevice);
+        return cache.activeTriggers.computeIfAbsent(deviceId, id -> loadTriggersForDevice(cache, id));
     }
     
-    private List<TelemetryTrigger> loadTriggersForDevice(String deviceId) {
+    private List<TelemetryTrigger> loadTriggersForDevice(TriggerCache cache, String deviceId) {
         // Load all workflows that have telemetry triggers
         List<Workflow> workflows = workflowService.getWorkflowsWithTelemetryTriggers();
         
-        return workflows.stream()
+        List<TelemetryTrigger> triggers = workflows.stream()
             .flatMap(workflow -> extractTelemetryTriggers(workflow, deviceId).stream())
-            .collect(Collectors.toList());
+            .collect(Collectors.toCollection(CopyOnWriteArrayList::new));
+        triggers.forEach(trigger -> indexTrigger(cache, trigger));
+        return triggers;
+    }
+    
+    private void indexTrigger(TriggerCache cache, TelemetryTrigger trigger) {
+        String operator = "==".equals(trigger.getOperator()) ? "=" : trigger.getOperator();
+        if (trigger.getThreshold() == null
+                || !cache.triggerIndex.add(trigger, trigger, trigger.getDeviceId(), trigger.getMetric(), operator, trigger.getThreshold())) {
+            log.warn("Ignoring telemetry trigger of workflow {} with unsupported condition {} {}",
+                trigger.getWorkflowId(), trigger.getOperator(), trigger.getThreshold());
+        }
     }
     
     private List<TelemetryTrigger> extractTelemetryTriggers(Workflow workflow, String deviceId) {
@@ -202,34 +214,6 @@ public class WorkflowTriggerService {
         }
     }
     
-    private boolean evaluateTrigger(TelemetryTrigger trigger, TelemetryData data) {
-        Object metricValue = data.getMetrics().get(trigger.getMetric());
-        if (!(metricValue instanceof Number)) {
-            return false;
-        }
-        
-        double value = ((Number) metricValue).doubleValue();
-        double threshold = trigger.getThreshold();
-        
-        switch (trigger.getOperator()) {
-            case ">":
-                return value > threshold;
-            case "<":
-                return value < threshold;
-            case ">=":
-                return value >= threshold;
-            case "<=":
-                return value <= threshold;
-            case "=":
-            case "==":
-                return Math.abs(value - threshold) < 0.001;
-            case "!=":
-                return Math.abs(value - threshold) >= 0.001;
-            default:
-                return false;
-        }
-    }
-    
     private boolean isInCooldown(String workflowId) {
         Instant lastTrigger = lastTriggerTime.get(workflowId);
         if (lastTrigger == null) return false;
@@ -259,34 +243,58 @@ public class WorkflowTriggerService {
         .subscribe();
     }
     
-    // Refresh triggers cache
+    // Refresh triggers cache; loads still running finish into the cache they started on
     public void refreshTriggers() {
         log.info("Refreshing telemetry triggers cache");
-        activeTriggers.clear();
+        triggerCache = new TriggerCache();
     }
     
     // Add new trigger manually
     public void addTrigger(TelemetryTrigger trigger) {
-        activeTriggers.computeIfAbsent(trigger.getDeviceId(), k -> new ArrayList<>())
-            .add(trigger);
+        TriggerCache cache = triggerCache;
+        getTelemetryTriggers(cache, trigger.getDeviceId()).add(trigger);
+        indexTrigger(cache, trigger);
         log.info("Added telemetry trigger for workflow {} device {}", 
             trigger.getWorkflowId(), trigger.getDeviceId());
     }
     
+    // Remove a trigger without reloading the cache
+    public boolean removeTrigger(TelemetryTrigger trigger) {
+        TriggerCache cache = triggerCache;
+        List<TelemetryTrigger> triggers = cache.activeTriggers.get(trigger.getDeviceId());
+        boolean removed = triggers != null && triggers.remove(trigger);
+        cache.triggerIndex.remove(trigger);
+        if (removed) {
+            log.info("Removed telemetry trigger for workflow {} device {}", 
+                trigger.getWorkflowId(), trigger.getDeviceId());
+        }
+        return removed;
+    }
+    
     // Get trigger statistics
     public TriggerStats getStats() {
-        int totalTriggers = activeTriggers.values().stream()
+        TriggerCache cache = triggerCache;
+        int totalTriggers = cache.activeTriggers.values().stream()
             .mapToInt(List::size)
             .sum();
         
         return TriggerStats.builder()
             .totalTriggers(totalTriggers)
-            .deviceCount(activeTriggers.size())
+            .deviceCount(cache.activeTriggers.size())
             .activeWorkflows((int) lastTriggerTime.size())
             .lastRefresh(Instant.now())
+            .index(cache.triggerIndex.getStats())
             .build();
     }
     
+    /**
+     * Triggers loaded per device and the index used to match them
+     */
+    private static final class TriggerCache {
+        private final Map<String, List<TelemetryTrigger>> activeTriggers = new ConcurrentHashMap<>();
+        private final ThresholdIndex<TelemetryTrigger, TelemetryTrigger> triggerIndex = new ThresholdIndex<>();
+    }
+    
     @lombok.Data
     @lombok.Builder
     public static class TelemetryTrigger {
@@ -306,6 +314,7 @@ public class WorkflowTriggerService {
         private final int deviceCount;
         private final int activeWorkflows;
         private final Instant lastRefresh;
+        private final ThresholdIndex.IndexStats index;
     }
 }
 
@@ -346,25 +355,39 @@ class WorkflowExecutionService {
 class TelemetryThresholdMonitor {
     
     private final Map<String, ThresholdRule> thresholdRules = new ConcurrentHashMap<>();
+    private final ThresholdIndex<String, ThresholdRule> ruleIndex = new ThresholdIndex<>();
     
     public void addThresholdRule(ThresholdRule rule) {
-        thresholdRules.put(rule.getId(), rule);
+        thresholdRules.compute(rule.getId(), (id, previous) -> {
+            if (previous != null) {
+                ruleIndex.remove(id);
+            }
+            // Disabled rules are kept but never matched
+            if (rule.isEnabled() && rule.getThreshold() != null) {
+                ruleIndex.add(id, rule, rule.getDeviceId(), rule.getMetric(), rule.getOperator(), rule.getThreshold());
+            }
+            return rule;
+        });
         log.info("Added threshold rule: {}", rule);
     }
     
     public void removeThresholdRule(String ruleId) {
-        thresholdRules.remove(ruleId);
+        thresholdRules.computeIfPresent(ruleId, (id, rule) -> {
+            ruleIndex.remove(id);
+            return null;
+        });
         log.info("Removed threshold rule: {}", ruleId);
     }
     
     public List<ThresholdRule> checkThresholds(TelemetryData data) {
-        return thresholdRules.values().stream()
-            .filter(rule -> rule.matches(data))
-            .filter(rule -> rule.isViolated(data))
-            .collect(Collectors.toList());
+        return ruleIndex.match(data.getDeviceId(), data.getMetrics());
     }
     
     public int getRuleCount() {
         return thresholdRules.size();
     }
+    
+    public ThresholdIndex.IndexStats getIndexStats() {
+        return ruleIndex.getStats();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.zamaz.workflow.telemetry.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ThresholdIndex
+ */
+class ThresholdIndexTest {
+
+    private ThresholdIndex<String, String> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ThresholdIndex<>();
+    }
+
+    @Test
+    void shouldMatchRangeOperatorsAtTheirBoundaries() {
+        // Given
+        index.add("gt", "gt", "device-1", "temperature", ">", 50.0);
+        index.add("gte", "gte", "device-1", "temperature", ">=", 50.0);
+        index.add("lt", "lt", "device-1", "temperature", "<", 50.0);
+        index.add("lte", "lte", "device-1", "temperature", "<=", 50.0);
+
+        // When / Then
+        assertMatches(List.of("gt", "gte"), index.match("device-1", Map.of("temperature", 50.5)));
+        assertMatches(List.of("gte", "lte"), index.match("device-1", Map.of("temperature", 50)));
+        assertMatches(List.of("lt", "lte"), index.match("device-1", Map.of("temperature", 49.5)));
+    }
+
+    @Test
+    void shouldMatchOnlyThresholdsTheValueCrosses() {
+        // Given
+        for (int threshold = 10; threshold <= 100; threshold += 10) {
+            index.add("above-" + threshold, "above-" + threshold, "device-1", "pressure", ">", threshold);
+        }
+
+        // When
+        List<String> matches = index.match("device-1", Map.of("pressure", 35L));
+
+        // Then
+        assertMatches(List.of("above-10", "above-20", "above-30"), matches);
+    }
+
+    @Test
+    void shouldMatchEqualityWithinTolerance() {
+        // Given
+        index.add("eq", "eq", "device-1", "level", "=", 10.0);
+        index.add("ne", "ne", "device-1", "level", "!=", 10.0);
+
+        // When / Then
+        assertMatches(List.of("eq"), index.match("device-1", Map.of("level", 10.0005)));
+        assertMatches(List.of("ne"), index.match("device-1", Map.of("level", 10.002)));
+    }
+
+    @Test
+    void shouldApplyDeviceRulesOnlyToTheirDevice() {
+        // Given
+        index.add("device", "device", "device-1", "temperature", ">", 50.0);
+        index.add("any", "any", null, "temperature", ">", 50.0);
+
+        // When / Then
+        assertMatches(List.of("device", "any"), index.match("device-1", Map.of("temperature", 60.0)));
+        assertMatches(List.of("any"), index.match("device-2", Map.of("temperature", 60.0)));
+    }
+
+    @Test
+    void shouldIgnoreNonNumericAndUnindexedMetrics() {
+        // Given
+        index.add("rule", "rule", "device-1", "temperature", ">", 50.0);
+
+        // When
+        List<String> matches = index.match("device-1", Map.of("temperature", "hot", "humidity", 99.0));
+
+        // Then
+        assertTrue(matches.isEmpty());
+    }
+
+    @Test
+    void shouldRejectUnsupportedOperator() {
+        assertFalse(index.add("rule", "rule", "device-1", "temperature", "~", 50.0));
+        assertFalse(index.add("rule", "rule", "device-1", "temperature", ">", Double.NaN));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void shouldReplaceRuleWithSameId() {
+        // Given
+        index.add("rule", "rule", "device-1", "temperature", ">", 50.0);
+
+        // When
+        index.add("rule", "rule", "device-1", "humidity", "<", 20.0);
+
+        // Then
+        assertEquals(1, index.size());
+        assertTrue(index.match("device-1", Map.of("temperature", 60.0)).isEmpty());
+        assertMatches(List.of("rule"), index.match("device-1", Map.of("humidity", 10.0)));
+    }
+
+    @Test
+    void shouldStopMatchingRemovedRule() {
+        // Given
+        index.add("first", "first", "device-1", "temperature", ">", 50.0);
+        index.add("second", "second", "device-1", "temperature", ">", 55.0);
+
+        // When
+        boolean removed = index.remove("first");
+
+        // Then
+        assertTrue(removed);
+        assertFalse(index.remove("first"));
+        assertEquals(1, index.size());
+        assertMatches(List.of("second"), index.match("device-1", Map.of("temperature", 60.0)));
+    }
+
+    @Test
+    void shouldDropKeyWhenLastRuleIsRemoved() {
+        // Given
+        index.add("rule", "rule", "device-1", "temperature", ">", 50.0);
+
+        // When
+        index.remove("rule");
+
+        // Then
+        assertEquals(0, index.getStats().getKeyCount());
+        assertTrue(index.match("device-1", Map.of("temperature", 60.0)).isEmpty());
+    }
+
+    private void assertMatches(List<String> expected, List<String> actual) {
+        assertEquals(expected.size(), actual.size(), "matched " + actual);
+        assertTrue(actual.containsAll(expected), "matched " + actual);
+    }
+}